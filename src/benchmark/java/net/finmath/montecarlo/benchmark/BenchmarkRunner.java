@@ -0,0 +1,69 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.benchmark;
+
+import java.util.List;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of this package.
+ *
+ * The command line arguments are those of JMH (e.g. <code>-p numberOfPaths=100000 -p operation=EXP,ADD</code>
+ * or a regular expression selecting the benchmarks). In addition the runner
+ * <ul>
+ * 	<li>restricts the parameter <code>backend</code> to the backends available on this machine
+ * (i.e., it skips Cuda and OpenCL if no device is found), unless the parameter is given on the command line,</li>
+ * 	<li>adds the GC profiler (allocation rate and count of collections) and the {@link PeakHeapProfiler},</li>
+ * 	<li>writes the results as JSON to <code>benchmark-results.json</code>, unless a result format is given on the command line
+ * (e.g. <code>-rf csv -rff results.csv</code>).</li>
+ * </ul>
+ *
+ * Usage: <code>mvn -P benchmark clean package -DskipTests</code>, then <code>java -jar target/benchmarks.jar</code>.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class BenchmarkRunner {
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+		final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+		final ChainedOptionsBuilder options = new OptionsBuilder()
+				.parent(commandLineOptions)
+				.addProfiler(GCProfiler.class)
+				.addProfiler(PeakHeapProfiler.class);
+
+		if(!commandLineOptions.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON).result("benchmark-results.json");
+		}
+
+		if(commandLineOptions.getIncludes().isEmpty()) {
+			options.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+		}
+
+		if(!commandLineOptions.getParameter("backend").hasValue()) {
+			final List<RandomVariableBackend> availableBackends = RandomVariableBackend.getAvailableBackends();
+			final String[] backendNames = new String[availableBackends.size()];
+			for(int i=0; i<backendNames.length; i++) {
+				backendNames[i] = availableBackends.get(i).name();
+			}
+			options.param("backend", backendNames);
+		}
+
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.montecarlo.BrownianMotionLazyInit;
+import net.finmath.montecarlo.assetderivativevaluation.models.BlackScholesModel;
+import net.finmath.montecarlo.model.AbstractProcessModel;
+import net.finmath.montecarlo.process.EulerSchemeFromProcessModel;
+import net.finmath.montecarlo.process.MonteCarloProcessFromProcessModel;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * End-to-end benchmark of the Monte-Carlo valuation of a European option under the Black-Scholes model
+ * (the scenario of <code>MonteCarloBlackScholesModelTest</code>), for each random variable factory.
+ *
+ * An operation consists of the generation of the Brownian motion, the simulation of the Euler scheme and the valuation.
+ * The benchmark reports the throughput in valuations per second and, via the auxiliary counter <code>paths</code>,
+ * in paths per second.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx8G" })
+public class BlackScholesValuationBenchmark {
+
+	/**
+	 * Counts the simulated paths, such that JMH reports paths per second.
+	 */
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class PathCounter {
+		public long paths;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			paths = 0;
+		}
+	}
+
+	// Model properties
+	private static final double	initialValue   = 1.0;
+	private static final double	riskFreeRate   = 0.05;
+	private static final double	volatility     = 0.30;
+
+	// Process discretization properties
+	private static final int	numberOfTimeSteps	= 100;
+	private static final double	deltaT				= 1.0;
+	private static final int	seed				= 31415;
+
+	// Product properties
+	private static final int	assetIndex = 0;
+	private static final double	optionMaturity = 2.0;
+	private static final double	optionStrike = 1.05;
+
+	@Param({ "FLOAT", "DOUBLE", "CUDA", "OPENCL" })
+	private RandomVariableBackend backend;
+
+	@Param({ "100000", "1000000" })
+	private int numberOfPaths;
+
+	private TimeDiscretization timeDiscretization;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		if(!backend.isAvailable()) {
+			throw new IllegalStateException("Backend " + backend + " is not available on this machine.");
+		}
+		timeDiscretization = new TimeDiscretizationFromArray(0.0 /* initial */, numberOfTimeSteps, deltaT);
+	}
+
+	@TearDown(Level.Iteration)
+	public void cleanUp() {
+		backend.purge();
+	}
+
+	@Benchmark
+	public double valuation(final PathCounter pathCounter) throws CalculationException {
+		final BrownianMotion brownian = new BrownianMotionLazyInit(timeDiscretization, 1, numberOfPaths, seed, backend.getRandomVariableFactory());
+
+		// Create a model and a corresponding MC process, link model and process for delegation
+		final AbstractProcessModel model = new BlackScholesModel(initialValue, riskFreeRate, volatility);
+		final MonteCarloProcessFromProcessModel process = new EulerSchemeFromProcessModel(brownian);
+		process.setModel(model);
+		model.setProcess(process);
+
+		// Value a call option - directly
+		final RandomVariable asset = process.getProcessValue(timeDiscretization.getTimeIndex(optionMaturity), assetIndex);
+		final RandomVariable numeraireAtPayment = model.getNumeraire(optionMaturity);
+		final RandomVariable numeraireAtEval = model.getNumeraire(0.0);
+
+		final RandomVariable payoff = asset.sub(optionStrike).floor(0.0);
+		final double value = payoff.div(numeraireAtPayment).mult(numeraireAtEval).getAverage();
+
+		pathCounter.paths += numberOfPaths;
+		return value;
+	}
+}
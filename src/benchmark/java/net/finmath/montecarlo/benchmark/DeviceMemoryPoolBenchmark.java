@@ -0,0 +1,96 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.montecarlo.DeviceMemoryAllocator;
+import net.finmath.montecarlo.DeviceMemoryScope;
+import net.finmath.montecarlo.ReferenceCountingMemoryPool;
+import net.finmath.montecarlo.SimulatedDevice;
+import net.finmath.montecarlo.SimulatedDevice.DevicePointer;
+import net.finmath.montecarlo.SlabAllocator;
+
+/**
+ * Micro benchmark of the device memory pool on a {@link SimulatedDevice}, comparing the recycling of vectors
+ * of the exact requested size with the recycling of size classes sub-allocated from slabs ({@link SlabAllocator}).
+ *
+ * Each invocation requests the vectors of a valuation with a varying number of paths in a {@link DeviceMemoryScope}
+ * (similar to the partial reductions and the paths of repeated calibration steps). The simulated device has an
+ * allocation latency, such that the benchmark measures the avoided device allocations.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceMemoryPoolBenchmark {
+
+	public enum Allocator {
+		EXACT_SIZE,
+		SLAB
+	}
+
+	@Param({ "100000", "1000000" })
+	private int numberOfPaths;
+
+	@Param({ "EXACT_SIZE", "SLAB" })
+	private Allocator allocator;
+
+	@Param({ "0", "20000" })
+	private long allocationLatencyNanos;
+
+	private static final int numberOfVectorsPerValuation = 16;
+
+	private SimulatedDevice device;
+	private ReferenceCountingMemoryPool<DevicePointer> pool;
+	private Random random;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		device = new SimulatedDevice(1L << 32, allocationLatencyNanos);
+		final DeviceMemoryAllocator<DevicePointer> deviceAllocator = allocator == Allocator.SLAB ? new SlabAllocator<DevicePointer>(device, DevicePointer::withOffset, 1 << 24) : device;
+		pool = new ReferenceCountingMemoryPool<DevicePointer>(deviceAllocator);
+		random = new Random(3141);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		pool.clean();
+	}
+
+	@Benchmark
+	public long valuation() {
+		// The number of paths varies by up to 10 percent between valuations
+		final long size = numberOfPaths + random.nextInt(numberOfPaths / 10);
+		long addresses = 0;
+		try(DeviceMemoryScope scope = DeviceMemoryScope.open()) {
+			for(int i=0; i<numberOfVectorsPerValuation; i++) {
+				addresses += pool.getDeviceMemory(size).get().getAddress();
+			}
+		}
+		return addresses;
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.exception.CalculationException;
+import net.finmath.marketdata.model.curves.DiscountCurve;
+import net.finmath.marketdata.model.curves.DiscountCurveFromForwardCurve;
+import net.finmath.marketdata.model.curves.ForwardCurve;
+import net.finmath.marketdata.model.curves.ForwardCurveInterpolation;
+import net.finmath.montecarlo.AbstractRandomVariableFactory;
+import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.montecarlo.BrownianMotionLazyInit;
+import net.finmath.montecarlo.BrownianMotionView;
+import net.finmath.montecarlo.interestrate.CalibrationProduct;
+import net.finmath.montecarlo.interestrate.models.LIBORMarketModelFromCovarianceModel;
+import net.finmath.montecarlo.interestrate.models.covariance.AbstractLIBORCovarianceModelParametric;
+import net.finmath.montecarlo.interestrate.models.covariance.BlendedLocalVolatilityModel;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCovarianceModelExponentialForm5Param;
+import net.finmath.montecarlo.interestrate.models.covariance.LIBORCovarianceModelStochasticVolatility;
+import net.finmath.montecarlo.interestrate.products.SwaptionSimple;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * End-to-end benchmark of the calibration of a LIBOR market model with stochastic volatility to a swaption smile and
+ * the ATM swaption volatilities (the scenario of <code>LIBORMarketModelCalibrationTest</code>), for each random variable factory.
+ *
+ * An operation is one calibration (including the generation of the Brownian motion), the benchmark reports the time to calibrate.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx8G" })
+public class LIBORMarketModelCalibrationBenchmark {
+
+	private static final int	numberOfFactors	= 5;
+	private static final int	maxIterations	= 30;
+	private static final int	seed			= 314151;
+
+	private static final double	liborPeriodLength	= 0.5;
+	private static final double	swapPeriodLength	= 0.5;
+	private static final int	numberOfPeriods		= 20;
+
+	@Param({ "FLOAT", "DOUBLE", "CUDA", "OPENCL" })
+	private RandomVariableBackend backend;
+
+	@Param({ "81920" })
+	private int numberOfPaths;
+
+	private ForwardCurve forwardCurve;
+	private CalibrationProduct[] calibrationProducts;
+	private TimeDiscretizationFromArray liborPeriodDiscretization;
+	private TimeDiscretizationFromArray timeDiscretization;
+
+	@Setup(Level.Trial)
+	public void setUp() throws CalculationException {
+		if(!backend.isAvailable()) {
+			throw new IllegalStateException("Backend " + backend + " is not available on this machine.");
+		}
+
+		final double[] fixingTimes = new double[101];
+		for(int i=0; i<fixingTimes.length; i++) {
+			fixingTimes[i] = i * 0.5;
+		}
+
+		final double[] forwardRates = new double[] {
+				0.61/100.0,	0.61/100.0,	0.67/100.0,	0.73/100.0,	0.80/100.0,	0.92/100.0,	1.11/100.0,	1.36/100.0,	1.60/100.0,	1.82/100.0,	2.02/100.0,	2.17/100.0,	2.27/100.0,	2.36/100.0,	2.46/100.0,	2.52/100.0,	2.54/100.0,	2.57/100.0,	2.68/100.0,	2.82/100.0,	2.92/100.0,	2.98/100.0,	3.00/100.0,	2.99/100.0,	2.95/100.0,	2.89/100.0,	2.82/100.0,	2.74/100.0,	2.66/100.0,	2.59/100.0,	2.52/100.0,	2.47/100.0,	2.42/100.0,	2.38/100.0,	2.35/100.0,	2.33/100.0,	2.31/100.0,	2.30/100.0,	2.29/100.0,	2.28/100.0,	2.27/100.0,	2.27/100.0,	2.26/100.0,	2.26/100.0,	2.26/100.0,	2.26/100.0,	2.26/100.0,	2.26/100.0,	2.27/100.0,	2.28/100.0,	2.28/100.0,	2.30/100.0,	2.31/100.0,	2.32/100.0,	2.34/100.0,	2.35/100.0,	2.37/100.0,	2.39/100.0,	2.42/100.0,	2.44/100.0,	2.47/100.0,	2.50/100.0,	2.52/100.0,	2.56/100.0,	2.59/100.0,	2.62/100.0,	2.65/100.0,	2.68/100.0,	2.72/100.0,	2.75/100.0,	2.78/100.0,	2.81/100.0,	2.83/100.0,	2.86/100.0,	2.88/100.0,	2.91/100.0,	2.93/100.0,	2.94/100.0,	2.96/100.0,	2.97/100.0,	2.97/100.0,	2.97/100.0,	2.97/100.0,	2.97/100.0,	2.96/100.0,	2.95/100.0,	2.94/100.0,	2.93/100.0,	2.91/100.0,	2.89/100.0,	2.87/100.0,	2.85/100.0,	2.83/100.0,	2.80/100.0,	2.78/100.0,	2.75/100.0,	2.72/100.0,	2.69/100.0,	2.67/100.0,	2.64/100.0,	2.64/100.0
+		};
+
+		forwardCurve = ForwardCurveInterpolation.createForwardCurveFromForwards("forwardCurve", fixingTimes, forwardRates, liborPeriodLength);
+		final DiscountCurve discountCurve = new DiscountCurveFromForwardCurve(forwardCurve, liborPeriodLength);
+
+		final List<CalibrationProduct> calibrationProductList = new ArrayList<CalibrationProduct>();
+
+		final double[] smileMoneynesses	= { -0.02,	-0.01, -0.005, -0.0025,	0.0,	0.0025,	0.0050,	0.01,	0.02 };
+		final double[] smileVolatilities	= { 0.559,	0.377,	0.335,	 0.320,	0.308, 0.298, 0.290, 0.280, 0.270 };
+		for(int i=0; i<smileMoneynesses.length; i++ ) {
+			calibrationProductList.add(createCalibrationItem(5.0, smileMoneynesses[i], smileVolatilities[i], forwardCurve, discountCurve));
+		}
+
+		final double[] atmOptionMaturities	= { 2.00, 3.00, 4.00, 5.00, 7.00, 10.00, 15.00, 20.00, 25.00, 30.00 };
+		final double[] atmOptionVolatilities	= { 0.385, 0.351, 0.325, 0.308, 0.288, 0.279, 0.290, 0.272, 0.235, 0.192 };
+		for(int i=0; i<atmOptionMaturities.length; i++ ) {
+			calibrationProductList.add(createCalibrationItem(atmOptionMaturities[i], 0.0, atmOptionVolatilities[i], forwardCurve, discountCurve));
+		}
+		calibrationProducts = calibrationProductList.toArray(new CalibrationProduct[0]);
+
+		liborPeriodDiscretization = new TimeDiscretizationFromArray(0.0, (int) (20.0 / liborPeriodLength), liborPeriodLength);
+		timeDiscretization = new TimeDiscretizationFromArray(0.0, (int) (20.0 / 0.5), 0.5);
+	}
+
+	@TearDown(Level.Iteration)
+	public void cleanUp() {
+		backend.purge();
+	}
+
+	@Benchmark
+	public double[] calibration() throws CalculationException {
+		final AbstractRandomVariableFactory randomVariableFactory = backend.getRandomVariableFactory();
+		final BrownianMotion brownianMotion = new BrownianMotionLazyInit(timeDiscretization, numberOfFactors + 1, numberOfPaths, seed, randomVariableFactory);
+
+		final BrownianMotion brownianMotionView1 = new BrownianMotionView(brownianMotion, new Integer[] { 0, 1, 2, 3, 4 });
+		final BrownianMotion brownianMotionView2 = new BrownianMotionView(brownianMotion, new Integer[] { 0, 5 });
+
+		// Create a covariance model: exponential form, blended local volatility and stochastic volatility
+		final AbstractLIBORCovarianceModelParametric covarianceModelParametric = new LIBORCovarianceModelExponentialForm5Param(timeDiscretization, liborPeriodDiscretization, numberOfFactors, new double[] { 0.20, 0.05, 0.10, 0.05, 0.10} );
+		final AbstractLIBORCovarianceModelParametric covarianceModelBlended = new BlendedLocalVolatilityModel(covarianceModelParametric, forwardCurve, 0.2, true);
+		final AbstractLIBORCovarianceModelParametric covarianceModelStochasticParametric = new LIBORCovarianceModelStochasticVolatility(covarianceModelBlended, brownianMotionView2, 0.15, 0.20, true);
+
+		final Map<String, Object> properties = new HashMap<String, Object>();
+		properties.put("measure", LIBORMarketModelFromCovarianceModel.Measure.SPOT.name());
+		properties.put("stateSpace", LIBORMarketModelFromCovarianceModel.StateSpace.NORMAL.name());
+
+		final Map<String, Object> calibrationParameters = new HashMap<String, Object>();
+		calibrationParameters.put("accuracyParameter", 1E-12);
+		calibrationParameters.put("brownianMotion", brownianMotionView1);
+		calibrationParameters.put("maxIterations", maxIterations);
+		properties.put("calibrationParameters", calibrationParameters);
+
+		final LIBORMarketModelFromCovarianceModel liborMarketModelCalibrated = LIBORMarketModelFromCovarianceModel.of(
+				liborPeriodDiscretization,
+				null,
+				forwardCurve,
+				null,
+				randomVariableFactory,
+				covarianceModelStochasticParametric, calibrationProducts, properties);
+
+		return ((AbstractLIBORCovarianceModelParametric) liborMarketModelCalibrated.getCovarianceModel()).getParameterAsDouble();
+	}
+
+	private static CalibrationProduct createCalibrationItem(final double exerciseDate, final double moneyness, final double targetVolatility, final ForwardCurve forwardCurve, final DiscountCurve discountCurve) throws CalculationException {
+		final double[]	swapTenor = new double[numberOfPeriods + 1];
+		for (int periodStartIndex = 0; periodStartIndex <= numberOfPeriods; periodStartIndex++) {
+			swapTenor[periodStartIndex] = exerciseDate + periodStartIndex * swapPeriodLength;
+		}
+
+		final double swaprate = moneyness + net.finmath.marketdata.products.Swap.getForwardSwapRate(new TimeDiscretizationFromArray(swapTenor), new TimeDiscretizationFromArray(swapTenor), forwardCurve, discountCurve);
+
+		final SwaptionSimple swaptionMonteCarlo = new SwaptionSimple(swaprate, swapTenor, SwaptionSimple.ValueUnit.VOLATILITYLOGNORMAL);
+		return new CalibrationProduct(swaptionMonteCarlo, targetVolatility, 1.0);
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * JMH profiler reporting the peak heap usage of an iteration (as <code>heap.peak</code> in MB).
+ *
+ * The peak usage of the heap memory pools is reset before each iteration. The reported value is the sum of the peak usages of the
+ * heap memory pools, which is an upper bound for the peak of the total heap usage.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class PeakHeapProfiler implements InternalProfiler {
+
+	@Override
+	public String getDescription() {
+		return "Peak heap usage of the iteration";
+	}
+
+	@Override
+	public void beforeIteration(final BenchmarkParams benchmarkParams, final IterationParams iterationParams) {
+		for(final MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if(memoryPool.getType() == MemoryType.HEAP) {
+				memoryPool.resetPeakUsage();
+			}
+		}
+	}
+
+	@Override
+	public Collection<? extends Result> afterIteration(final BenchmarkParams benchmarkParams, final IterationParams iterationParams, final IterationResult result) {
+		long peakUsage = 0;
+		for(final MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if(memoryPool.getType() == MemoryType.HEAP) {
+				peakUsage += memoryPool.getPeakUsage().getUsed();
+			}
+		}
+		return Collections.singletonList(new ScalarResult("heap.peak", peakUsage / (1024.0 * 1024.0), "MB", AggregationPolicy.MAX));
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.finmath.montecarlo.AbstractRandomVariableFactory;
+import net.finmath.montecarlo.RandomVariableFactory;
+import net.finmath.montecarlo.RandomVariableFloatFactory;
+import net.finmath.montecarlo.RandomVariableFloatLazyEvaluationFactory;
+import net.finmath.montecarlo.RandomVariableFloatVectorFactory;
+import net.finmath.montecarlo.cuda.RandomVariableCuda;
+import net.finmath.montecarlo.cuda.RandomVariableCudaFactory;
+import net.finmath.montecarlo.opencl.RandomVariableOpenCL;
+import net.finmath.montecarlo.opencl.RandomVariableOpenCLFactory;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * The implementations of <code>RandomVariable</code> covered by the benchmarks, each given by its factory.
+ *
+ * The device backends (Cuda, OpenCL) are only available if a device could be initialized,
+ * see {@link #isAvailable()}. Their operations are asynchronous and the benchmarks synchronize them by a reduction,
+ * see {@link #isDeferred()}.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public enum RandomVariableBackend {
+
+	/** {@link net.finmath.montecarlo.RandomVariableFromFloatArray} */
+	FLOAT(RandomVariableFloatFactory::new, false, false),
+
+	/** {@link net.finmath.montecarlo.RandomVariableFloatVectorFactory} (Vector API, if available) */
+	FLOAT_VECTOR(RandomVariableFloatVectorFactory::new, false, false),
+
+	/** {@link net.finmath.montecarlo.RandomVariableFromDoubleArray} */
+	DOUBLE(RandomVariableFactory::new, false, false),
+
+	/** {@link net.finmath.montecarlo.RandomVariableFloatLazyEvaluation} evaluated on the host */
+	FLOAT_LAZY(RandomVariableFloatLazyEvaluationFactory::new, false, true),
+
+	/** {@link net.finmath.montecarlo.cuda.RandomVariableCuda} */
+	CUDA(RandomVariableCudaFactory::new, true, true),
+
+	/** {@link net.finmath.montecarlo.RandomVariableFloatLazyEvaluation} evaluated by fused Cuda kernels */
+	CUDA_FUSED(() -> new RandomVariableCudaFactory(true), true, true),
+
+	/** {@link net.finmath.montecarlo.opencl.RandomVariableOpenCL} */
+	OPENCL(RandomVariableOpenCLFactory::new, true, true);
+
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	private final Supplier<AbstractRandomVariableFactory> factorySupplier;
+	private final boolean isDevice;
+	private final boolean isDeferred;
+
+	private Boolean isAvailable;
+
+	RandomVariableBackend(final Supplier<AbstractRandomVariableFactory> factorySupplier, final boolean isDevice, final boolean isDeferred) {
+		this.factorySupplier = factorySupplier;
+		this.isDevice = isDevice;
+		this.isDeferred = isDeferred;
+	}
+
+	/**
+	 * @return A new factory creating random variables of this backend.
+	 */
+	public AbstractRandomVariableFactory getRandomVariableFactory() {
+		return factorySupplier.get();
+	}
+
+	/**
+	 * @return True if the backend requires a device (GPU).
+	 */
+	public boolean isDevice() {
+		return isDevice;
+	}
+
+	/**
+	 * @return True if the operations of the backend return before the result is calculated (asynchronous device calls or lazy evaluation).
+	 */
+	public boolean isDeferred() {
+		return isDeferred;
+	}
+
+	/**
+	 * Releases the device memory which is no longer referenced (for device backends).
+	 */
+	public void purge() {
+		switch(this) {
+		case CUDA:
+		case CUDA_FUSED:
+			RandomVariableCuda.purge();
+			break;
+		case OPENCL:
+			RandomVariableOpenCL.purge();
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Checks if the backend can be used, i.e., for device backends, if the device could be initialized.
+	 * The check is performed once (in this JVM).
+	 *
+	 * @return True if the backend can be used.
+	 */
+	public synchronized boolean isAvailable() {
+		if(isAvailable == null) {
+			try {
+				final RandomVariable randomVariable = getRandomVariableFactory().createRandomVariable(0.0, new double[] { 1.0, 2.0, 3.0 });
+				isAvailable = Math.abs(randomVariable.mult(2.0).getAverage() - 4.0) < 1E-6;
+			}
+			catch(final Throwable e) {
+				logger.log(Level.INFO, "Backend " + name() + " is not available: " + e);
+				isAvailable = false;
+			}
+		}
+		return isAvailable;
+	}
+
+	/**
+	 * @return The backends which can be used.
+	 */
+	public static List<RandomVariableBackend> getAvailableBackends() {
+		final List<RandomVariableBackend> availableBackends = new ArrayList<>();
+		for(final RandomVariableBackend backend : values()) {
+			if(!backend.isDevice() || backend.isAvailable()) {
+				availableBackends.add(backend);
+			}
+		}
+		return availableBackends;
+	}
+}
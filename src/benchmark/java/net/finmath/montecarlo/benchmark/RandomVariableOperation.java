@@ -0,0 +1,164 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.benchmark;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * The operations of <code>RandomVariable</code> covered by the benchmarks.
+ *
+ * Each operation is applied to the arguments <code>x</code>, <code>y</code>, <code>z</code>,
+ * where <code>x</code> and <code>y</code> are positive (such that <code>log</code>, <code>sqrt</code> and
+ * <code>div</code> are well defined) and <code>z</code> is symmetric around zero.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public enum RandomVariableOperation {
+
+	EXP(Category.UNARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.exp(); }
+	},
+	LOG(Category.UNARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.log(); }
+	},
+	SQRT(Category.UNARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.sqrt(); }
+	},
+	SQUARED(Category.UNARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.squared(); }
+	},
+	ABS(Category.UNARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return z.abs(); }
+	},
+	ADD_SCALAR(Category.UNARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.add(1.0); }
+	},
+	FLOOR_SCALAR(Category.UNARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return z.floor(0.0); }
+	},
+	POW(Category.UNARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.pow(1.5); }
+	},
+
+	ADD(Category.BINARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.add(y); }
+	},
+	SUB(Category.BINARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.sub(y); }
+	},
+	MULT(Category.BINARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.mult(y); }
+	},
+	DIV(Category.BINARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.div(y); }
+	},
+	CAP(Category.BINARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.cap(y); }
+	},
+	FLOOR(Category.BINARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.floor(y); }
+	},
+
+	ADD_PRODUCT(Category.TERNARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.addProduct(y, z); }
+	},
+	ADD_RATIO(Category.TERNARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return z.addRatio(x, y); }
+	},
+	ACCRUE(Category.TERNARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.accrue(y, 0.5); }
+	},
+	DISCOUNT(Category.TERNARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.discount(y, 0.5); }
+	},
+	CHOOSE(Category.TERNARY) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return z.choose(x, y); }
+	},
+
+	AVERAGE(Category.REDUCTION) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.getAverage(); }
+	},
+	VARIANCE(Category.REDUCTION) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.getVariance(); }
+	},
+	AVERAGE_WEIGHTED(Category.REDUCTION) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.getAverage(y); }
+	},
+	MIN(Category.REDUCTION) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return x.getMin(); }
+	},
+
+	QUANTILE(Category.QUANTILE) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return z.getQuantile(0.99); }
+	},
+	QUANTILE_EXPECTATION(Category.QUANTILE) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return z.getQuantileExpectation(0.975, 1.0); }
+	},
+	HISTOGRAM(Category.QUANTILE) {
+		@Override
+		public Object apply(final RandomVariable x, final RandomVariable y, final RandomVariable z) { return z.getHistogram(100, 4.0); }
+	};
+
+	/**
+	 * The category of an operation.
+	 */
+	public enum Category {
+		UNARY,
+		BINARY,
+		TERNARY,
+		REDUCTION,
+		QUANTILE
+	}
+
+	private final Category category;
+
+	RandomVariableOperation(final Category category) {
+		this.category = category;
+	}
+
+	/**
+	 * @return The category of the operation.
+	 */
+	public Category getCategory() {
+		return category;
+	}
+
+	/**
+	 * Apply the operation.
+	 *
+	 * @param x First argument (positive).
+	 * @param y Second argument (positive).
+	 * @param z Third argument (symmetric around zero).
+	 * @return The result of the operation (a <code>RandomVariable</code> or the result of a reduction).
+	 */
+	public abstract Object apply(RandomVariable x, RandomVariable y, RandomVariable z);
+}
@@ -0,0 +1,94 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.finmath.montecarlo.AbstractRandomVariableFactory;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Micro benchmark of the operations of <code>RandomVariable</code>, parameterized by the number of paths,
+ * the backend ({@link RandomVariableBackend}) and the operation ({@link RandomVariableOperation}).
+ *
+ * For deferred backends (device backends and lazy evaluation) an operation returning a random variable
+ * is completed by calculating the average of the result, i.e., the measured time includes a reduction.
+ *
+ * Run it via {@link BenchmarkRunner}, which only selects the backends available on the machine.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomVariableOperationBenchmark {
+
+	@Param({ "10000", "100000", "1000000" })
+	private int numberOfPaths;
+
+	@Param({ "FLOAT", "DOUBLE", "FLOAT_LAZY", "FLOAT_VECTOR", "CUDA", "CUDA_FUSED", "OPENCL" })
+	private RandomVariableBackend backend;
+
+	@Param({ "EXP", "LOG", "SQRT", "SQUARED", "ABS", "ADD_SCALAR", "FLOOR_SCALAR", "POW",
+		"ADD", "SUB", "MULT", "DIV", "CAP", "FLOOR",
+		"ADD_PRODUCT", "ADD_RATIO", "ACCRUE", "DISCOUNT", "CHOOSE",
+		"AVERAGE", "VARIANCE", "AVERAGE_WEIGHTED", "MIN",
+		"QUANTILE", "QUANTILE_EXPECTATION", "HISTOGRAM" })
+	private RandomVariableOperation operation;
+
+	private RandomVariable x;
+	private RandomVariable y;
+	private RandomVariable z;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		if(!backend.isAvailable()) {
+			throw new IllegalStateException("Backend " + backend + " is not available on this machine.");
+		}
+
+		final Random random = new Random(3141);
+		final double[] valuesX = new double[numberOfPaths];
+		final double[] valuesY = new double[numberOfPaths];
+		final double[] valuesZ = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			valuesX[i] = Math.exp(0.2 * random.nextGaussian());
+			valuesY[i] = 0.5 + random.nextDouble();
+			valuesZ[i] = random.nextGaussian();
+		}
+
+		final AbstractRandomVariableFactory randomVariableFactory = backend.getRandomVariableFactory();
+		x = randomVariableFactory.createRandomVariable(0.0, valuesX);
+		y = randomVariableFactory.createRandomVariable(0.0, valuesY);
+		z = randomVariableFactory.createRandomVariable(0.0, valuesZ);
+	}
+
+	@Benchmark
+	public Object operation() {
+		final Object result = operation.apply(x, y, z);
+		if(backend.isDeferred() && result instanceof RandomVariable) {
+			return ((RandomVariable)result).getAverage();
+		}
+		return result;
+	}
+}
@@ -155,6 +155,36 @@ __global__ void cuAbs(int n, float *a, float *result)
     }
 }
 
+extern "C"
+__global__ void cuSin(int n, float *a, float *result)
+{
+    int i = blockIdx.x * blockDim.x + threadIdx.x;
+    if (i<n)
+    {
+        result[i] = (float)sin((double)a[i]);
+    }
+}
+
+extern "C"
+__global__ void cuCos(int n, float *a, float *result)
+{
+    int i = blockIdx.x * blockDim.x + threadIdx.x;
+    if (i<n)
+    {
+        result[i] = (float)cos((double)a[i]);
+    }
+}
+
+extern "C"
+__global__ void cuIsNaN(int n, float *a, float *result)
+{
+    int i = blockIdx.x * blockDim.x + threadIdx.x;
+    if (i<n)
+    {
+        result[i] = isnan(a[i]) ? 1.0f : 0.0f;
+    }
+}
+
 
 extern "C"
 __global__ void cap(int n, float *a, float *b, float *result)
@@ -283,6 +313,72 @@ __global__ void subRatio(int n, float *a, float *b, float *c, float *result)
     }
 }
 
+/*
+ * The n-ary sum result = a + c + sum_k w[k] x[k] y[k], reading all arguments and writing the result once.
+ * The vector a may be null (zero), the entries of y may be null (one).
+ */
+extern "C"
+__global__ void sumProduct(int n, int k, float *a, float c, float **x, float **y, float *w, float *result)
+{
+    int i = blockIdx.x * blockDim.x + threadIdx.x;
+    if (i<n)
+    {
+        float sum = (a != 0 ? a[i] : 0.0f) + c;
+        for(int j=0; j<k; j++)
+        {
+            if(y[j] != 0) sum += x[j][i] * y[j][i] * w[j];
+            else sum += x[j][i] * w[j];
+        }
+        result[i] = sum;
+    }
+}
+
+/*
+ * Choose b if the trigger a is non-negative, otherwise c (a NaN trigger chooses c).
+ */
+extern "C"
+__global__ void choose(int n, float *a, float *b, float *c, float *result)
+{
+    int i = blockIdx.x * blockDim.x + threadIdx.x;
+    if (i<n)
+    {
+        result[i] = a[i] >= 0.0f ? b[i] : c[i];
+    }
+}
+
+extern "C"
+__global__ void chooseScalars(int n, float *a, float b, float c, float *result)
+{
+    int i = blockIdx.x * blockDim.x + threadIdx.x;
+    if (i<n)
+    {
+        result[i] = a[i] >= 0.0f ? b : c;
+    }
+}
+
+extern "C"
+__global__ void chooseVectorScalar(int n, float *a, float *b, float c, float *result)
+{
+    int i = blockIdx.x * blockDim.x + threadIdx.x;
+    if (i<n)
+    {
+        result[i] = a[i] >= 0.0f ? b[i] : c;
+    }
+}
+
+/*
+ * Choose the scalar b if the trigger a is non-negative, otherwise the vector c (note the order of the arguments).
+ */
+extern "C"
+__global__ void chooseScalarVector(int n, float *a, float *c, float b, float *result)
+{
+    int i = blockIdx.x * blockDim.x + threadIdx.x;
+    if (i<n)
+    {
+        result[i] = a[i] >= 0.0f ? b : c[i];
+    }
+}
+
 extern "C"
 __global__ void reduceFloatVectorToDoubleScalar(int size, void *data, double *result) {
 	float *fdata = (float*) data;
@@ -347,3 +443,104 @@ __global__ void reducePartial(int size, void *data, void *result) {
 	// write result for this block to global mem
 	if (tid == 0) sum[blockIdx.x] = sdata[0];
 }
+
+/*
+ * Perform a reduction of data of length 'size' to the minimum and maximum of each block: result[blockIdx.x] is the minimum and
+ * result[gridDim.x + blockIdx.x] is the maximum of the 2*blockDim.x elements of the block. As Math.min and Math.max, a NaN is propagated.
+ */
+extern "C"
+__global__ void reduceMinMax(int size, float *data, float *result)
+{
+	extern __shared__ float minmaxdata[];
+	float* mindata = minmaxdata;
+	float* maxdata = minmaxdata + blockDim.x;
+
+	unsigned int tid = threadIdx.x;
+	unsigned int i = blockIdx.x*(blockDim.x*2) + threadIdx.x;
+
+	float x1 = i < size ? data[i] : INFINITY;
+	float x2 = i+blockDim.x < size ? data[i+blockDim.x] : INFINITY;
+	mindata[tid] = (isnan(x1) || x1 < x2) ? x1 : x2;
+
+	x1 = i < size ? data[i] : -INFINITY;
+	x2 = i+blockDim.x < size ? data[i+blockDim.x] : -INFINITY;
+	maxdata[tid] = (isnan(x1) || x1 > x2) ? x1 : x2;
+	__syncthreads();
+
+	for (unsigned int s=blockDim.x/2; s>0; s>>=1) {
+		if (tid < s) {
+			float y = mindata[tid + s];
+			if(isnan(y) || y < mindata[tid]) mindata[tid] = y;
+			y = maxdata[tid + s];
+			if(isnan(y) || y > maxdata[tid]) maxdata[tid] = y;
+		}
+		__syncthreads();
+	}
+
+	if (tid == 0) {
+		result[blockIdx.x] = mindata[0];
+		result[gridDim.x + blockIdx.x] = maxdata[0];
+	}
+}
+
+/*
+ * Count the values of a in the bins defined by the (increasing) interval points, i.e., counts[k] is the number of
+ * values with points[k-1] < a[i] <= points[k] and counts[numberOfPoints] the number of values greater than the last point (or NaN).
+ * Each block counts in shared memory (numberOfPoints+1 unsigned ints) and adds its counts to the global counts.
+ */
+extern "C"
+__global__ void histogram(int n, float *a, int numberOfPoints, float *points, unsigned int *counts)
+{
+	extern __shared__ unsigned int blockCounts[];
+
+	for(int k = threadIdx.x; k <= numberOfPoints; k += blockDim.x) blockCounts[k] = 0;
+	__syncthreads();
+
+	int i = blockIdx.x * blockDim.x + threadIdx.x;
+	if (i<n) {
+		float x = a[i];
+		int low = 0;
+		int high = numberOfPoints;
+		while(low < high) {
+			int mid = (low + high) >> 1;
+			if(x <= points[mid]) high = mid;
+			else low = mid+1;
+		}
+		atomicAdd(&blockCounts[low], 1);
+	}
+	__syncthreads();
+
+	for(int k = threadIdx.x; k <= numberOfPoints; k += blockDim.x) {
+		if(blockCounts[k] > 0) atomicAdd(&counts[k], blockCounts[k]);
+	}
+}
+
+/*
+ * Antithetic values: the last n/2 elements of a are set to the negative of the first n/2 elements (in place).
+ */
+extern "C"
+__global__ void antithetic(int n, float *a)
+{
+	int half = n / 2;
+	int i = blockIdx.x * blockDim.x + threadIdx.x;
+	if (i<half)
+	{
+		a[n - half + i] = -a[i];
+	}
+}
+
+/*
+ * Latin hypercube sampling: result[i] = scale * normcdfinv((strata[i] + u[i]) / n), where u is uniform in (0,1]
+ * and the bits of strata[i] are the integer stratum of element i.
+ */
+extern "C"
+__global__ void latinHypercubeNormal(int n, float *u, float *strata, float scale, float *result)
+{
+	int i = blockIdx.x * blockDim.x + threadIdx.x;
+	if (i<n)
+	{
+		int stratum = __float_as_int(strata[i]);
+		double x = ((double)stratum + (double)u[i] * (1.0 - 1E-7)) / n;
+		result[i] = (float)(normcdfinv(x) * scale);
+	}
+}
@@ -0,0 +1,320 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.jcuda;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A cache of PTX files compiled from CUDA C sources, keyed by the hash of the source and of the compiler command.
+ *
+ * The PTX of a source is looked up
+ * <ol>
+ * 	<li>in the cache directory (e.g. compiled by a previous JVM),</li>
+ * 	<li>as a precompiled PTX resource shipped next to the <code>.cu</code> resource (same name with extension <code>.ptx</code>),
+ * 		provided that its header <code>// source-sha256: &lt;hash&gt;</code> matches the source (see {@link #main(String[])}),</li>
+ * 	<li>otherwise the source is compiled by the compiler command (by default <code>nvcc</code>).</li>
+ * </ol>
+ * The sources are read from their URL, such that resources inside a jar are supported. A changed source has a different key,
+ * such that a stale PTX is never used. The PTX files are written to a temporary file and moved atomically to their final name,
+ * such that concurrent JVMs sharing the cache directory do not see partial files.
+ *
+ * The default cache is configured by the system properties
+ * <ul>
+ * 	<li><code>net.finmath.jcuda.PtxCache.directory</code>: the cache directory (default: <code>$XDG_CACHE_HOME/finmath-lib-cuda-extensions/ptx</code>, or <code>~/.cache/...</code>),</li>
+ * 	<li><code>net.finmath.jcuda.PtxCache.compiler</code>: the compiler command, arguments separated by spaces, where <code>${input}</code> and
+ * 		<code>${output}</code> are replaced by the source and the PTX file (default: <code>nvcc -arch sm_30 -fmad false -m64 -ptx ${input} -o ${output}</code>).</li>
+ * </ul>
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class PtxCache {
+
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	/**
+	 * The prefix of the header line of a precompiled PTX file, followed by the SHA-256 of the source.
+	 */
+	public static final String SOURCE_HASH_HEADER = "// source-sha256: ";
+
+	private static final String INPUT = "${input}";
+	private static final String OUTPUT = "${output}";
+
+	private static PtxCache defaultCache;
+
+	private final Path			cacheDirectory;
+	private final List<String>	compilerCommand;
+
+	private int numberOfCompilations = 0;
+
+	/**
+	 * Create a PTX cache.
+	 *
+	 * @param cacheDirectory The directory of the cached PTX files (created if it does not exist).
+	 * @param compilerCommand The compiler command, where the arguments <code>${input}</code> and <code>${output}</code> are replaced by the source and the PTX file.
+	 */
+	public PtxCache(final Path cacheDirectory, final List<String> compilerCommand) {
+		super();
+		this.cacheDirectory = cacheDirectory;
+		this.compilerCommand = Collections.unmodifiableList(new ArrayList<String>(compilerCommand));
+	}
+
+	/**
+	 * @return The cache configured by the system properties.
+	 */
+	public static synchronized PtxCache getDefault() {
+		if(defaultCache == null) {
+			defaultCache = new PtxCache(getDefaultCacheDirectory(), getDefaultCompilerCommand());
+		}
+		return defaultCache;
+	}
+
+	/**
+	 * Returns the PTX file for the CUDA C source with the given URL (e.g. a resource inside a jar).
+	 * A precompiled PTX is looked up at the same URL with extension <code>.ptx</code>.
+	 *
+	 * @param cuFileURL The URL of the .cu file.
+	 * @return The PTX file.
+	 * @throws IOException Thrown if the source cannot be read or the compilation fails.
+	 */
+	public Path getPtxFile(final URL cuFileURL) throws IOException {
+		if(cuFileURL == null) {
+			throw new IOException("Source of kernel not found.");
+		}
+		final String path = cuFileURL.getPath();
+		final String fileName = path.substring(path.lastIndexOf('/')+1);
+		final String name = fileName.lastIndexOf('.') > 0 ? fileName.substring(0, fileName.lastIndexOf('.')) : fileName;
+		return getPtxFile(name, readAllBytes(cuFileURL), new URL(cuFileURL, name + ".ptx"));
+	}
+
+	/**
+	 * Returns the PTX file for the given CUDA C source (e.g. generated at runtime).
+	 *
+	 * @param name The name of the source (used as prefix of the file name).
+	 * @param source The source.
+	 * @return The PTX file.
+	 * @throws IOException Thrown if the compilation fails.
+	 */
+	public Path getPtxFile(final String name, final byte[] source) throws IOException {
+		return getPtxFile(name, source, null);
+	}
+
+	/**
+	 * Returns the PTX file for the given CUDA C source, using the given precompiled PTX if it matches the source.
+	 *
+	 * @param name The name of the source (used as prefix of the file name).
+	 * @param source The source.
+	 * @param precompiledPtxURL The URL of a precompiled PTX (may be null or not exist).
+	 * @return The PTX file.
+	 * @throws IOException Thrown if the compilation fails.
+	 */
+	public synchronized Path getPtxFile(final String name, final byte[] source, final URL precompiledPtxURL) throws IOException {
+		final Path ptxFile = cacheDirectory.resolve(name + "-" + getKey(source) + ".ptx");
+		if(Files.isRegularFile(ptxFile)) {
+			return ptxFile;
+		}
+
+		Files.createDirectories(cacheDirectory);
+
+		final byte[] precompiledPtx = getPrecompiledPtx(source, precompiledPtxURL);
+		if(precompiledPtx != null) {
+			final Path temporaryFile = Files.createTempFile(cacheDirectory, name + "-", ".ptx.tmp");
+			Files.write(temporaryFile, precompiledPtx);
+			moveAtomically(temporaryFile, ptxFile);
+			return ptxFile;
+		}
+
+		compile(name, source, ptxFile);
+		return ptxFile;
+	}
+
+	/**
+	 * @return The number of compilations performed by this object.
+	 */
+	public synchronized int getNumberOfCompilations() {
+		return numberOfCompilations;
+	}
+
+	/**
+	 * @return The cache directory.
+	 */
+	public Path getCacheDirectory() {
+		return cacheDirectory;
+	}
+
+	/**
+	 * Returns the hex encoded SHA-256 of the given bytes.
+	 *
+	 * @param bytes The bytes.
+	 * @return The hash.
+	 */
+	public static String getHash(final byte[] bytes) {
+		try {
+			final byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+			final StringBuilder hash = new StringBuilder(2 * digest.length);
+			for(final byte b : digest) {
+				hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return hash.toString();
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available.", e);
+		}
+	}
+
+	/**
+	 * Precompiles the given CUDA C sources into PTX files with a header referring to the source, to be shipped as resources
+	 * next to the sources, e.g. <code>java net.finmath.jcuda.PtxCache target/classes/net/finmath/montecarlo/RandomVariableCudaKernel.cu</code>.
+	 *
+	 * @param args The .cu files. The PTX files are written next to them.
+	 * @throws IOException Thrown if the compilation fails.
+	 */
+	public static void main(final String[] args) throws IOException {
+		for(final String cuFileName : args) {
+			final Path cuFile = Paths.get(cuFileName);
+			final String fileName = cuFile.getFileName().toString();
+			final String name = fileName.lastIndexOf('.') > 0 ? fileName.substring(0, fileName.lastIndexOf('.')) : fileName;
+			final byte[] source = Files.readAllBytes(cuFile);
+
+			final Path ptxFile = getDefault().getPtxFile(name, source);
+			final byte[] header = (SOURCE_HASH_HEADER + getHash(source) + "\n").getBytes(StandardCharsets.US_ASCII);
+			final byte[] ptx = Files.readAllBytes(ptxFile);
+			final byte[] precompiledPtx = Arrays.copyOf(header, header.length + ptx.length);
+			System.arraycopy(ptx, 0, precompiledPtx, header.length, ptx.length);
+
+			final Path precompiledPtxFile = cuFile.resolveSibling(name + ".ptx");
+			Files.write(precompiledPtxFile, precompiledPtx);
+			System.out.println("Written " + precompiledPtxFile);
+		}
+	}
+
+	private String getKey(final byte[] source) {
+		// The key covers the source and the compiler command (e.g. a different architecture)
+		final byte[] command = String.join(" ", compilerCommand).getBytes(StandardCharsets.UTF_8);
+		final byte[] bytes = Arrays.copyOf(source, source.length + 1 + command.length);
+		System.arraycopy(command, 0, bytes, source.length + 1, command.length);
+		return getHash(bytes);
+	}
+
+	private static byte[] getPrecompiledPtx(final byte[] source, final URL precompiledPtxURL) {
+		if(precompiledPtxURL == null) {
+			return null;
+		}
+
+		final byte[] precompiledPtx;
+		try {
+			precompiledPtx = readAllBytes(precompiledPtxURL);
+		} catch (final IOException e) {
+			// Not shipped
+			return null;
+		}
+
+		final byte[] header = (SOURCE_HASH_HEADER + getHash(source)).getBytes(StandardCharsets.US_ASCII);
+		if(precompiledPtx.length < header.length || !Arrays.equals(header, Arrays.copyOf(precompiledPtx, header.length))) {
+			logger.warning("Precompiled PTX " + precompiledPtxURL + " does not match its source and is ignored.");
+			return null;
+		}
+		return precompiledPtx;
+	}
+
+	private void compile(final String name, final byte[] source, final Path ptxFile) throws IOException {
+		final Path cuFile = Files.createTempFile(cacheDirectory, name + "-", ".cu");
+		final Path temporaryFile = Files.createTempFile(cacheDirectory, name + "-", ".ptx.tmp");
+		try {
+			Files.write(cuFile, source);
+
+			final List<String> command = new ArrayList<String>(compilerCommand.size());
+			for(final String argument : compilerCommand) {
+				command.add(argument.replace(INPUT, cuFile.toString()).replace(OUTPUT, temporaryFile.toString()));
+			}
+
+			logger.info("Compiling " + name + ": " + command);
+			final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+			final String outputMessage = new String(toByteArray(process.getInputStream()));
+			final int exitValue;
+			try {
+				exitValue = process.waitFor();
+			}
+			catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while waiting for the compilation of " + name + ".", e);
+			}
+			numberOfCompilations++;
+
+			if(exitValue != 0 || Files.size(temporaryFile) == 0) {
+				throw new IOException("Could not create PTX file for " + name + " (exit value " + exitValue + "):\n" + outputMessage);
+			}
+
+			moveAtomically(temporaryFile, ptxFile);
+		}
+		finally {
+			Files.deleteIfExists(cuFile);
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
+	private static void moveAtomically(final Path source, final Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch(final AtomicMoveNotSupportedException e) {
+			logger.log(Level.FINE, "Atomic move not supported for " + target, e);
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static Path getDefaultCacheDirectory() {
+		final String directory = System.getProperty("net.finmath.jcuda.PtxCache.directory");
+		if(directory != null) {
+			return Paths.get(directory);
+		}
+		final String cacheHome = System.getenv("XDG_CACHE_HOME");
+		final Path cacheBase = cacheHome != null && !cacheHome.isEmpty() ? Paths.get(cacheHome) : Paths.get(System.getProperty("user.home"), ".cache");
+		return cacheBase.resolve("finmath-lib-cuda-extensions").resolve("ptx");
+	}
+
+	private static List<String> getDefaultCompilerCommand() {
+		final String compiler = System.getProperty("net.finmath.jcuda.PtxCache.compiler");
+		if(compiler != null) {
+			return Arrays.asList(compiler.trim().split("\\s+"));
+		}
+		// Check for 64 bit or 32 bit
+		final String modelString = "-m" + System.getProperty("sun.arch.data.model", "64");
+		return Arrays.asList("nvcc", "-arch", "sm_30", "-fmad", "false", modelString, "-ptx", INPUT, "-o", OUTPUT);
+	}
+
+	private static byte[] readAllBytes(final URL url) throws IOException {
+		try(InputStream inputStream = url.openStream()) {
+			return toByteArray(inputStream);
+		}
+	}
+
+	private static byte[] toByteArray(final InputStream inputStream) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[8192];
+		int read;
+		while((read = inputStream.read(buffer)) != -1) {
+			bytes.write(buffer, 0, read);
+		}
+		return bytes.toByteArray();
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Holds the Brownian increments of the time steps which have been generated on demand, retaining at most as many
+ * time steps as fit into a given memory budget (least recently used time steps are dropped).
+ *
+ * The increments of a time index (all factors) are generated on the first access by a generator function, which has to be
+ * deterministic, i.e., a time step which has been dropped is regenerated with the same values.
+ *
+ * Access to a retained time step is lock free. The generation of a time step (and the eviction) is synchronized.
+ * Random variables which have been returned remain valid if their time step is dropped from the cache.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class BrownianIncrementCache {
+
+	private final IntFunction<RandomVariable[]>	generator;
+	private final int							maximumNumberOfRetainedTimeSteps;
+
+	private final AtomicReferenceArray<RandomVariable[]>	brownianIncrements;
+	private final AtomicLongArray							lastAccess;
+	private final AtomicLong								accessCounter = new AtomicLong();
+
+	private int		numberOfRetainedTimeSteps;
+	private long	numberOfGeneratedTimeSteps;
+
+	/**
+	 * Create the cache.
+	 *
+	 * @param numberOfTimeSteps The number of time steps.
+	 * @param bytesPerTimeStep The (estimated) memory required by the increments of a time step (all factors).
+	 * @param memoryBudget The maximum memory in bytes used by the retained time steps. At least one time step is retained.
+	 * @param generator Function mapping a time index to the increments of all factors. The function has to be deterministic.
+	 */
+	public BrownianIncrementCache(final int numberOfTimeSteps, final long bytesPerTimeStep, final long memoryBudget, final IntFunction<RandomVariable[]> generator) {
+		super();
+		this.generator = generator;
+		this.maximumNumberOfRetainedTimeSteps = (int)Math.max(Math.min(memoryBudget / Math.max(bytesPerTimeStep, 1), numberOfTimeSteps), 1);
+
+		brownianIncrements = new AtomicReferenceArray<>(numberOfTimeSteps);
+		lastAccess = new AtomicLongArray(numberOfTimeSteps);
+	}
+
+	/**
+	 * Returns the increment of the given time index and factor, generating the increments of the time index if required.
+	 *
+	 * @param timeIndex The time index.
+	 * @param factor The factor.
+	 * @return The increment.
+	 */
+	public RandomVariable getBrownianIncrement(final int timeIndex, final int factor) {
+		return getBrownianIncrements(timeIndex)[factor];
+	}
+
+	/**
+	 * Returns the increments of all factors of the given time index, generating them if required.
+	 * The returned array must not be modified.
+	 *
+	 * @param timeIndex The time index.
+	 * @return The increments of all factors.
+	 */
+	public RandomVariable[] getBrownianIncrements(final int timeIndex) {
+		RandomVariable[] brownianIncrementsOfTimeStep = brownianIncrements.get(timeIndex);
+		if(brownianIncrementsOfTimeStep == null) {
+			brownianIncrementsOfTimeStep = generate(timeIndex);
+		}
+		lastAccess.lazySet(timeIndex, accessCounter.incrementAndGet());
+
+		return brownianIncrementsOfTimeStep;
+	}
+
+	/**
+	 * @return The maximum number of time steps retained.
+	 */
+	public int getMaximumNumberOfRetainedTimeSteps() {
+		return maximumNumberOfRetainedTimeSteps;
+	}
+
+	/**
+	 * @return The number of time steps currently retained.
+	 */
+	public synchronized int getNumberOfRetainedTimeSteps() {
+		return numberOfRetainedTimeSteps;
+	}
+
+	/**
+	 * @return The number of generations of time steps so far (including regenerations of dropped time steps).
+	 */
+	public synchronized long getNumberOfGeneratedTimeSteps() {
+		return numberOfGeneratedTimeSteps;
+	}
+
+	private synchronized RandomVariable[] generate(final int timeIndex) {
+		final RandomVariable[] retainedBrownianIncrements = brownianIncrements.get(timeIndex);
+		if(retainedBrownianIncrements != null) {
+			return retainedBrownianIncrements;			// Generated by a different thread
+		}
+
+		if(numberOfRetainedTimeSteps >= maximumNumberOfRetainedTimeSteps) {
+			evictLeastRecentlyUsed();
+		}
+
+		final RandomVariable[] brownianIncrementsOfTimeStep = generator.apply(timeIndex);
+		lastAccess.set(timeIndex, accessCounter.incrementAndGet());
+		brownianIncrements.set(timeIndex, brownianIncrementsOfTimeStep);
+		numberOfRetainedTimeSteps++;
+		numberOfGeneratedTimeSteps++;
+
+		return brownianIncrementsOfTimeStep;
+	}
+
+	private void evictLeastRecentlyUsed() {
+		int leastRecentlyUsedTimeIndex = -1;
+		long leastRecentAccess = Long.MAX_VALUE;
+		for(int timeIndex=0; timeIndex<brownianIncrements.length(); timeIndex++) {
+			if(brownianIncrements.get(timeIndex) != null && lastAccess.get(timeIndex) < leastRecentAccess) {
+				leastRecentlyUsedTimeIndex = timeIndex;
+				leastRecentAccess = lastAccess.get(timeIndex);
+			}
+		}
+
+		if(leastRecentlyUsedTimeIndex >= 0) {
+			brownianIncrements.set(leastRecentlyUsedTimeIndex, null);
+			numberOfRetainedTimeSteps--;
+		}
+	}
+}
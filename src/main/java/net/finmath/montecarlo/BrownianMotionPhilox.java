@@ -0,0 +1,308 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.io.Serializable;
+
+import net.finmath.functions.NormalDistribution;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+
+/**
+ * Implementation of a time-discrete n-dimensional Brownian motion
+ * <i>W = (W<sub>1</sub>,...,W<sub>n</sub>)</i> where <i>W<sub>i</sub></i> is
+ * a Brownian motion and <i>W<sub>i</sub></i>, <i>W<sub>j</sub></i> are
+ * independent for <i>i</i> not equal <i>j</i>, using the counter based random number generator
+ * {@link PhiloxRandomNumberGenerator}.
+ *
+ * The increment of (time index, factor, path) is calculated from the Philox block with key (seed, stream) and
+ * counter (path / 2, time index, factor, 0), transformed by the inverse of the normal distribution function.
+ * Since every value can be calculated independently, the paths are generated in parallel (see {@link ParallelChunkExecutor})
+ * and the result does not depend on the number of threads.
+ *
+ * If the factory implements {@link FloatArrayRandomVariableFactory}, the increments are generated as <code>float[]</code>
+ * and passed to the factory directly, otherwise as <code>double[]</code>. The increments of a time step are
+ * created without an intermediate array of all increments.
+ *
+ * The stream allows to split the random numbers of a seed into independent streams, e.g., for the
+ * batches of a simulation distributed over several machines, see {@link #getCloneWithModifiedStream(int)}.
+ *
+ * The quintuple (time discretization, number of factors, number of paths, seed, stream)
+ * defines the state of an object of this class, i.e., objects for which
+ * these parameters agree, generate the same random numbers.
+ *
+ * The class is immutable and thread safe. It uses lazy initialization.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class BrownianMotionPhilox implements BrownianMotion, Serializable {
+
+	private static final long serialVersionUID = -1827645017393285342L;
+
+	private final TimeDiscretization	timeDiscretization;
+
+	private final int			numberOfFactors;
+	private final int			numberOfPaths;
+	private final int			seed;
+	private final int			stream;
+
+	private final AbstractRandomVariableFactory randomVariableFactory;
+
+	private transient volatile	RandomVariable[][]	brownianIncrements;
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param stream The index of the stream of random numbers (for a given seed).
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 */
+	public BrownianMotionPhilox(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final int stream,
+			final AbstractRandomVariableFactory randomVariableFactory) {
+		super();
+		this.timeDiscretization = timeDiscretization;
+		this.numberOfFactors	= numberOfFactors;
+		this.numberOfPaths		= numberOfPaths;
+		this.seed				= seed;
+		this.stream				= stream;
+
+		this.randomVariableFactory = randomVariableFactory;
+
+		this.brownianIncrements	= null; 	// Lazy initialization
+	}
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 */
+	public BrownianMotionPhilox(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final AbstractRandomVariableFactory randomVariableFactory) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, 0, randomVariableFactory);
+	}
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 */
+	public BrownianMotionPhilox(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, new RandomVariableFactory());
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedSeed(final int seed) {
+		return new BrownianMotionPhilox(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), seed, getStream(), randomVariableFactory);
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedTimeDiscretization(final TimeDiscretization newTimeDiscretization) {
+		return new BrownianMotionPhilox(newTimeDiscretization, getNumberOfFactors(), getNumberOfPaths(), getSeed(), getStream(), randomVariableFactory);
+	}
+
+	/**
+	 * Returns a Brownian motion using the given stream of random numbers, which is independent of the streams with
+	 * other indices (for the same seed).
+	 *
+	 * @param stream The index of the stream.
+	 * @return A Brownian motion using the given stream of random numbers.
+	 */
+	public BrownianMotionPhilox getCloneWithModifiedStream(final int stream) {
+		return new BrownianMotionPhilox(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), getSeed(), stream, randomVariableFactory);
+	}
+
+	@Override
+	public RandomVariable getBrownianIncrement(final int timeIndex, final int factor) {
+
+		// Thread safe lazy initialization
+		RandomVariable[][] brownianIncrements = this.brownianIncrements;
+		if(brownianIncrements == null) {
+			synchronized(this) {
+				if(this.brownianIncrements == null) {
+					this.brownianIncrements = doGenerateBrownianMotion();
+				}
+				brownianIncrements = this.brownianIncrements;
+			}
+		}
+
+		/*
+		 *  We return an immutable object which ensures that the receiver does not alter the data.
+		 */
+		return brownianIncrements[timeIndex][factor];
+	}
+
+	/**
+	 * Generates the increments of all time steps and factors.
+	 */
+	private RandomVariable[][] doGenerateBrownianMotion() {
+		final RandomVariable[][] brownianIncrements = new RandomVariable[timeDiscretization.getNumberOfTimeSteps()][numberOfFactors];
+		for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				brownianIncrements[timeIndex][factor] = createBrownianIncrement(timeIndex, factor);
+			}
+		}
+		return brownianIncrements;
+	}
+
+	/**
+	 * Generates the increment of a given time index and factor.
+	 *
+	 * @param timeIndex The time index.
+	 * @param factor The factor.
+	 * @return The increment.
+	 */
+	private RandomVariable createBrownianIncrement(final int timeIndex, final int factor) {
+		final double time = timeDiscretization.getTime(timeIndex+1);
+		final double sqrtDeltaT = Math.sqrt(timeDiscretization.getTimeStep(timeIndex));
+
+		if(randomVariableFactory instanceof FloatArrayRandomVariableFactory) {
+			final float[] increments = new float[numberOfPaths];
+			ParallelChunkExecutor.forEachChunk(numberOfPaths, (start, end) -> {
+				final int[] randomIntegers = new int[4];
+				for(int path=start; path<end; path++) {
+					increments[path] = (float)(getStandardNormal(timeIndex, factor, path, path == start, randomIntegers) * sqrtDeltaT);
+				}
+			});
+			return ((FloatArrayRandomVariableFactory)randomVariableFactory).createRandomVariable(time, increments);
+		}
+		else {
+			final double[] increments = new double[numberOfPaths];
+			ParallelChunkExecutor.forEachChunk(numberOfPaths, (start, end) -> {
+				final int[] randomIntegers = new int[4];
+				for(int path=start; path<end; path++) {
+					increments[path] = getStandardNormal(timeIndex, factor, path, path == start, randomIntegers) * sqrtDeltaT;
+				}
+			});
+			return randomVariableFactory.createRandomVariable(time, increments);
+		}
+	}
+
+	/**
+	 * Returns the standard normal random number of the given time index, factor and path.
+	 * A Philox block provides the random numbers of two consecutive paths, it is generated for even paths
+	 * (or if the loop starts at the given path) and reused for the subsequent odd path.
+	 */
+	private double getStandardNormal(final int timeIndex, final int factor, final int path, final boolean isFirstPath, final int[] randomIntegers) {
+		if(isFirstPath || (path & 1) == 0) {
+			PhiloxRandomNumberGenerator.generate(seed, stream, path >>> 1, timeIndex, factor, 0, randomIntegers);
+		}
+		final int offset = (path & 1) << 1;
+		return NormalDistribution.inverseCumulativeDistribution(PhiloxRandomNumberGenerator.getUniform(randomIntegers[offset], randomIntegers[offset+1]));
+	}
+
+	@Override
+	public TimeDiscretization getTimeDiscretization() {
+		return timeDiscretization;
+	}
+
+	@Override
+	public int getNumberOfFactors() {
+		return numberOfFactors;
+	}
+
+	@Override
+	public int getNumberOfPaths() {
+		return numberOfPaths;
+	}
+
+	@Override
+	public RandomVariable getRandomVariableForConstant(final double value) {
+		return randomVariableFactory.createRandomVariable(value);
+	}
+
+	/**
+	 * @return Returns the seed.
+	 */
+	public int getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return Returns the index of the stream.
+	 */
+	public int getStream() {
+		return stream;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString()
+				+ "\n" + "timeDiscretizationFromArray: " + timeDiscretization.toString()
+				+ "\n" + "numberOfPaths: " + numberOfPaths
+				+ "\n" + "numberOfFactors: " + numberOfFactors
+				+ "\n" + "seed: " + seed
+				+ "\n" + "stream: " + stream;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+
+		final BrownianMotionPhilox that = (BrownianMotionPhilox) o;
+
+		if (numberOfFactors != that.numberOfFactors) {
+			return false;
+		}
+		if (numberOfPaths != that.numberOfPaths) {
+			return false;
+		}
+		if (seed != that.seed) {
+			return false;
+		}
+		if (stream != that.stream) {
+			return false;
+		}
+		if (!timeDiscretization.equals(that.timeDiscretization)) {
+			return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public RandomVariable getIncrement(final int timeIndex, final int factor) {
+		return getBrownianIncrement(timeIndex, factor);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = timeDiscretization.hashCode();
+		result = 31 * result + numberOfFactors;
+		result = 31 * result + numberOfPaths;
+		result = 31 * result + seed;
+		result = 31 * result + stream;
+		return result;
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.io.Serializable;
+
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+
+/**
+ * Implementation of a time-discrete n-dimensional Brownian motion whose paths are split into shards
+ * (see {@link RandomVariableShardedFactory}), each shard being generated by a Brownian motion of its own
+ * (e.g. on a different device), using its own stream of random numbers.
+ *
+ * By default the shard <i>i</i> is generated by a {@link BrownianMotionPhilox} with the seed of this object and the stream <i>i</i>,
+ * i.e., the streams of the shards are independent by construction. Other generators are plugged in by a {@link ShardGenerator},
+ * which may use {@link #getSeedOfShard(int, int)} for generators accepting only a seed.
+ *
+ * The increments are random variables of type {@link RandomVariableSharded}, whose element-wise operations are performed shard by shard.
+ * Note that the random numbers depend on the partition of the paths. The partition is fixed on first use, i.e., a rebalancing of the factory
+ * (see {@link RandomVariableShardedFactory#rebalance()}) applies to Brownian motions created afterwards.
+ *
+ * The class is immutable and thread safe. It uses lazy initialization.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class BrownianMotionSharded implements BrownianMotion, Serializable {
+
+	private static final long serialVersionUID = 5420628730487634117L;
+
+	/**
+	 * Creates the Brownian motion generating the paths of a shard.
+	 */
+	@FunctionalInterface
+	public interface ShardGenerator extends Serializable {
+
+		/**
+		 * Create the Brownian motion of a shard.
+		 *
+		 * @param timeDiscretization The time discretization used for the Brownian increments.
+		 * @param numberOfFactors Number of factors.
+		 * @param numberOfPaths Number of paths of the shard.
+		 * @param seed The seed of the sharded Brownian motion.
+		 * @param shardIndex The index of the shard (the stream of random numbers for the seed).
+		 * @param randomVariableFactory Factory to be used to create the random variables of the shard.
+		 * @return The Brownian motion of the shard.
+		 */
+		BrownianMotion create(TimeDiscretization timeDiscretization, int numberOfFactors, int numberOfPaths, int seed, int shardIndex, AbstractRandomVariableFactory randomVariableFactory);
+	}
+
+	private final TimeDiscretization	timeDiscretization;
+
+	private final int			numberOfFactors;
+	private final int			numberOfPaths;
+	private final int			seed;
+
+	private final RandomVariableShardedFactory	randomVariableFactory;
+	private final ShardGenerator				shardGenerator;
+
+	private transient			PathPartition		partition;
+	private transient volatile	BrownianMotion[]	brownianMotionsOfShards;
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param randomVariableFactory Factory defining the shards and creating their random variables.
+	 * @param shardGenerator Creates the Brownian motion of a shard.
+	 */
+	public BrownianMotionSharded(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final RandomVariableShardedFactory randomVariableFactory,
+			final ShardGenerator shardGenerator) {
+		super();
+		this.timeDiscretization = timeDiscretization;
+		this.numberOfFactors	= numberOfFactors;
+		this.numberOfPaths		= numberOfPaths;
+		this.seed				= seed;
+		this.randomVariableFactory = randomVariableFactory;
+		this.shardGenerator = shardGenerator;
+	}
+
+	/**
+	 * Construct a Brownian motion, generating the shard <i>i</i> by a {@link BrownianMotionPhilox} using the stream <i>i</i>.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param randomVariableFactory Factory defining the shards and creating their random variables.
+	 */
+	public BrownianMotionSharded(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final RandomVariableShardedFactory randomVariableFactory) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, randomVariableFactory, BrownianMotionPhilox::new);
+	}
+
+	/**
+	 * Returns a seed for the shard with the given index, derived from the given seed by a bijective mixing function
+	 * (the finalizer of SplitMix64), such that the seeds of different shards (and of neighbouring seeds) are unrelated.
+	 *
+	 * @param seed The seed of the sharded Brownian motion.
+	 * @param shardIndex The index of the shard.
+	 * @return The seed of the shard.
+	 */
+	public static int getSeedOfShard(final int seed, final int shardIndex) {
+		long z = (((long)seed) << 32 | (shardIndex & 0xFFFFFFFFL)) + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		z = z ^ (z >>> 31);
+		return (int)(z ^ (z >>> 32));
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedSeed(final int seed) {
+		return new BrownianMotionSharded(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), seed, randomVariableFactory, shardGenerator);
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedTimeDiscretization(final TimeDiscretization newTimeDiscretization) {
+		return new BrownianMotionSharded(newTimeDiscretization, getNumberOfFactors(), getNumberOfPaths(), getSeed(), randomVariableFactory, shardGenerator);
+	}
+
+	@Override
+	public RandomVariable getBrownianIncrement(final int timeIndex, final int factor) {
+		final BrownianMotion[] brownianMotionsOfShards = getBrownianMotionsOfShards();
+
+		final RandomVariable[] shards = new RandomVariable[brownianMotionsOfShards.length];
+		for(int shardIndex=0; shardIndex<shards.length; shardIndex++) {
+			shards[shardIndex] = brownianMotionsOfShards[shardIndex].getBrownianIncrement(timeIndex, factor);
+		}
+		return randomVariableFactory.createRandomVariable(partition, shards);
+	}
+
+	/**
+	 * @param shardIndex The index of the shard.
+	 * @return The Brownian motion generating the paths of the shard.
+	 */
+	public BrownianMotion getBrownianMotionOfShard(final int shardIndex) {
+		return getBrownianMotionsOfShards()[shardIndex];
+	}
+
+	@Override
+	public TimeDiscretization getTimeDiscretization() {
+		return timeDiscretization;
+	}
+
+	@Override
+	public int getNumberOfFactors() {
+		return numberOfFactors;
+	}
+
+	@Override
+	public int getNumberOfPaths() {
+		return numberOfPaths;
+	}
+
+	@Override
+	public RandomVariable getRandomVariableForConstant(final double value) {
+		return randomVariableFactory.createRandomVariable(value);
+	}
+
+	/**
+	 * @return Returns the seed.
+	 */
+	public int getSeed() {
+		return seed;
+	}
+
+	@Override
+	public RandomVariable getIncrement(final int timeIndex, final int factor) {
+		return getBrownianIncrement(timeIndex, factor);
+	}
+
+	@Override
+	public String toString() {
+		return super.toString()
+				+ "\n" + "timeDiscretizationFromArray: " + timeDiscretization.toString()
+				+ "\n" + "numberOfPaths: " + numberOfPaths
+				+ "\n" + "numberOfFactors: " + numberOfFactors
+				+ "\n" + "seed: " + seed
+				+ "\n" + "partition: " + (partition != null ? partition : randomVariableFactory.getPartition(numberOfPaths));
+	}
+
+	private BrownianMotion[] getBrownianMotionsOfShards() {
+		// Thread safe lazy initialization
+		BrownianMotion[] brownianMotionsOfShards = this.brownianMotionsOfShards;
+		if(brownianMotionsOfShards == null) {
+			synchronized(this) {
+				brownianMotionsOfShards = this.brownianMotionsOfShards;
+				if(brownianMotionsOfShards == null) {
+					final PathPartition partition = randomVariableFactory.getPartition(numberOfPaths);
+					brownianMotionsOfShards = new BrownianMotion[partition.getNumberOfShards()];
+					for(int shardIndex=0; shardIndex<brownianMotionsOfShards.length; shardIndex++) {
+						brownianMotionsOfShards[shardIndex] = shardGenerator.create(timeDiscretization, numberOfFactors, partition.getShardSize(shardIndex), seed, shardIndex, randomVariableFactory.getShardFactory(shardIndex));
+					}
+					this.partition = partition;
+					this.brownianMotionsOfShards = brownianMotionsOfShards;
+				}
+			}
+		}
+		return brownianMotionsOfShards;
+	}
+}
@@ -0,0 +1,326 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Random;
+
+import net.finmath.functions.NormalDistribution;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+
+/**
+ * Implementation of a time-discrete n-dimensional Brownian motion
+ * <i>W = (W<sub>1</sub>,...,W<sub>n</sub>)</i> where <i>W<sub>i</sub></i> is
+ * a Brownian motion and <i>W<sub>i</sub></i>, <i>W<sub>j</sub></i> are
+ * independent for <i>i</i> not equal <i>j</i>, using the quasi random {@link SobolSequence}
+ * and a Brownian bridge construction.
+ *
+ * The Brownian bridge first generates the value at the last time, then the values at the midpoints of the intervals (in the order of
+ * bisection). The normal random numbers used for the <i>k</i>-th point of the bridge of factor <i>j</i> are obtained from the
+ * dimension <i>k</i> &middot; (number of factors) + <i>j</i> of the Sobol sequence (by the inverse of the normal distribution
+ * function), such that the first (best) dimensions of the Sobol sequence determine the coarse structure of the paths.
+ * The dimension of the Sobol sequence is the number of time steps times the number of factors.
+ *
+ * Path <i>i</i> uses the point <i>i+1</i> of the Sobol sequence (the point 0 is skipped). Since the points can be calculated directly,
+ * blocks of paths are generated in parallel (see {@link ParallelChunkExecutor}), with a result not depending on the number of threads.
+ *
+ * If the seed is not 0, the Sobol points are randomized by a digital shift (an exclusive or with a random vector) determined by the seed.
+ * Different seeds then give independent randomized quasi Monte-Carlo estimates (e.g. to estimate the error).
+ *
+ * If the factory implements {@link FloatArrayRandomVariableFactory}, the increments are stored as <code>float[]</code>
+ * and passed to the factory directly, otherwise as <code>double[]</code>.
+ *
+ * The class is immutable and thread safe. It uses lazy initialization.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class BrownianMotionSobol implements BrownianMotion, Serializable {
+
+	private static final long serialVersionUID = 4196735201538120751L;
+
+	private static final double	TWO_POW_MINUS_32 = 1.0 / (1L << 32);
+
+	private final TimeDiscretization	timeDiscretization;
+
+	private final int			numberOfFactors;
+	private final int			numberOfPaths;
+	private final int			seed;
+
+	private final AbstractRandomVariableFactory randomVariableFactory;
+
+	private transient volatile	RandomVariable[][]	brownianIncrements;
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random digital shift (0 for the Sobol sequence without shift).
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 */
+	public BrownianMotionSobol(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final AbstractRandomVariableFactory randomVariableFactory) {
+		super();
+		this.timeDiscretization = timeDiscretization;
+		this.numberOfFactors	= numberOfFactors;
+		this.numberOfPaths		= numberOfPaths;
+		this.seed				= seed;
+
+		this.randomVariableFactory = randomVariableFactory;
+
+		this.brownianIncrements	= null; 	// Lazy initialization
+	}
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random digital shift (0 for the Sobol sequence without shift).
+	 */
+	public BrownianMotionSobol(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, new RandomVariableFactory());
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedSeed(final int seed) {
+		return new BrownianMotionSobol(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), seed, randomVariableFactory);
+	}
+
+	@Override
+	public BrownianMotion getCloneWithModifiedTimeDiscretization(final TimeDiscretization newTimeDiscretization) {
+		return new BrownianMotionSobol(newTimeDiscretization, getNumberOfFactors(), getNumberOfPaths(), getSeed(), randomVariableFactory);
+	}
+
+	@Override
+	public RandomVariable getBrownianIncrement(final int timeIndex, final int factor) {
+
+		// Thread safe lazy initialization
+		RandomVariable[][] brownianIncrements = this.brownianIncrements;
+		if(brownianIncrements == null) {
+			synchronized(this) {
+				if(this.brownianIncrements == null) {
+					this.brownianIncrements = doGenerateBrownianMotion();
+				}
+				brownianIncrements = this.brownianIncrements;
+			}
+		}
+
+		/*
+		 *  We return an immutable object which ensures that the receiver does not alter the data.
+		 */
+		return brownianIncrements[timeIndex][factor];
+	}
+
+	/**
+	 * Generates the increments of all time steps and factors.
+	 */
+	private RandomVariable[][] doGenerateBrownianMotion() {
+		final int numberOfTimeSteps = timeDiscretization.getNumberOfTimeSteps();
+		final int numberOfDimensions = numberOfTimeSteps * numberOfFactors;
+
+		final SobolSequence sobolSequence = new SobolSequence(numberOfDimensions);
+
+		final int[] digitalShift = new int[numberOfDimensions];
+		if(seed != 0) {
+			final Random random = new Random(seed);
+			for(int dimension=0; dimension<numberOfDimensions; dimension++) {
+				digitalShift[dimension] = random.nextInt();
+			}
+		}
+
+		/*
+		 * Brownian bridge: the k-th point determines W(t[bridgeIndex[k]]) from W(t[leftIndex[k]]), W(t[rightIndex[k]])
+		 * and a standard normal random number.
+		 */
+		final int[] bridgeIndex = new int[numberOfTimeSteps];
+		final int[] leftIndex = new int[numberOfTimeSteps];
+		final int[] rightIndex = new int[numberOfTimeSteps];
+		final double[] leftWeight = new double[numberOfTimeSteps];
+		final double[] rightWeight = new double[numberOfTimeSteps];
+		final double[] standardDeviation = new double[numberOfTimeSteps];
+
+		bridgeIndex[0] = numberOfTimeSteps;
+		leftIndex[0] = 0;
+		rightIndex[0] = 0;
+		leftWeight[0] = 1.0;
+		rightWeight[0] = 0.0;
+		standardDeviation[0] = Math.sqrt(timeDiscretization.getTime(numberOfTimeSteps) - timeDiscretization.getTime(0));
+
+		final Queue<int[]> intervals = new ArrayDeque<>();
+		intervals.add(new int[] { 0, numberOfTimeSteps });
+		int point = 1;
+		while(!intervals.isEmpty()) {
+			final int[] interval = intervals.remove();
+			final int left = interval[0];
+			final int right = interval[1];
+			if(right - left < 2) {
+				continue;
+			}
+			final int middle = (left + right) >>> 1;
+
+			final double timeLeft = timeDiscretization.getTime(left);
+			final double timeMiddle = timeDiscretization.getTime(middle);
+			final double timeRight = timeDiscretization.getTime(right);
+
+			bridgeIndex[point] = middle;
+			leftIndex[point] = left;
+			rightIndex[point] = right;
+			leftWeight[point] = (timeRight - timeMiddle) / (timeRight - timeLeft);
+			rightWeight[point] = (timeMiddle - timeLeft) / (timeRight - timeLeft);
+			standardDeviation[point] = Math.sqrt((timeMiddle - timeLeft) * (timeRight - timeMiddle) / (timeRight - timeLeft));
+			point++;
+
+			intervals.add(new int[] { left, middle });
+			intervals.add(new int[] { middle, right });
+		}
+
+		// Allocate memory
+		final boolean isFloat = randomVariableFactory instanceof FloatArrayRandomVariableFactory;
+		final float[][][] incrementsFloat = isFloat ? new float[numberOfTimeSteps][numberOfFactors][numberOfPaths] : null;
+		final double[][][] incrementsDouble = isFloat ? null : new double[numberOfTimeSteps][numberOfFactors][numberOfPaths];
+
+		ParallelChunkExecutor.forEachChunk(numberOfPaths, (start, end) -> {
+			final int[] sobolPoint = new int[numberOfDimensions];
+			final double[] brownianMotion = new double[numberOfTimeSteps+1];
+
+			sobolSequence.getPoint(start + 1L, sobolPoint);
+			for(int path=start; path<end; path++) {
+				if(path > start) {
+					sobolSequence.getNextPoint(path + 1L, sobolPoint);
+				}
+
+				for(int factor=0; factor<numberOfFactors; factor++) {
+					brownianMotion[0] = 0.0;
+					for(int k=0; k<numberOfTimeSteps; k++) {
+						final int dimension = k * numberOfFactors + factor;
+						final double uniform = (((sobolPoint[dimension] ^ digitalShift[dimension]) & 0xFFFFFFFFL) + 0.5) * TWO_POW_MINUS_32;
+						brownianMotion[bridgeIndex[k]] = leftWeight[k] * brownianMotion[leftIndex[k]] + rightWeight[k] * brownianMotion[rightIndex[k]]
+								+ standardDeviation[k] * NormalDistribution.inverseCumulativeDistribution(uniform);
+					}
+
+					for(int timeIndex=0; timeIndex<numberOfTimeSteps; timeIndex++) {
+						final double increment = brownianMotion[timeIndex+1] - brownianMotion[timeIndex];
+						if(isFloat) {
+							incrementsFloat[timeIndex][factor][path] = (float)increment;
+						}
+						else {
+							incrementsDouble[timeIndex][factor][path] = increment;
+						}
+					}
+				}
+			}
+		});
+
+		// Wrap the values in RandomVariable objects
+		final RandomVariable[][] brownianIncrements = new RandomVariable[numberOfTimeSteps][numberOfFactors];
+		for(int timeIndex=0; timeIndex<numberOfTimeSteps; timeIndex++) {
+			final double time = timeDiscretization.getTime(timeIndex+1);
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				if(isFloat) {
+					brownianIncrements[timeIndex][factor] = ((FloatArrayRandomVariableFactory)randomVariableFactory).createRandomVariable(time, incrementsFloat[timeIndex][factor]);
+					incrementsFloat[timeIndex][factor] = null;
+				}
+				else {
+					brownianIncrements[timeIndex][factor] = randomVariableFactory.createRandomVariable(time, incrementsDouble[timeIndex][factor]);
+					incrementsDouble[timeIndex][factor] = null;
+				}
+			}
+		}
+		return brownianIncrements;
+	}
+
+	@Override
+	public TimeDiscretization getTimeDiscretization() {
+		return timeDiscretization;
+	}
+
+	@Override
+	public int getNumberOfFactors() {
+		return numberOfFactors;
+	}
+
+	@Override
+	public int getNumberOfPaths() {
+		return numberOfPaths;
+	}
+
+	@Override
+	public RandomVariable getRandomVariableForConstant(final double value) {
+		return randomVariableFactory.createRandomVariable(value);
+	}
+
+	/**
+	 * @return Returns the seed of the digital shift.
+	 */
+	public int getSeed() {
+		return seed;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString()
+				+ "\n" + "timeDiscretizationFromArray: " + timeDiscretization.toString()
+				+ "\n" + "numberOfPaths: " + numberOfPaths
+				+ "\n" + "numberOfFactors: " + numberOfFactors
+				+ "\n" + "seed: " + seed;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+
+		final BrownianMotionSobol that = (BrownianMotionSobol) o;
+
+		if (numberOfFactors != that.numberOfFactors) {
+			return false;
+		}
+		if (numberOfPaths != that.numberOfPaths) {
+			return false;
+		}
+		if (seed != that.seed) {
+			return false;
+		}
+		if (!timeDiscretization.equals(that.timeDiscretization)) {
+			return false;
+		}
+
+		return true;
+	}
+
+	@Override
+	public RandomVariable getIncrement(final int timeIndex, final int factor) {
+		return getBrownianIncrement(timeIndex, factor);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = timeDiscretization.hashCode();
+		result = 31 * result + numberOfFactors;
+		result = 31 * result + numberOfPaths;
+		result = 31 * result + seed;
+		return result;
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+/**
+ * Allocation of vectors in the memory of a device (e.g. a GPU), used by {@link ReferenceCountingMemoryPool}.
+ *
+ * Implementations wrap the native API of the device (e.g. <code>cuMemAlloc</code>/<code>cuMemFree</code>).
+ * A pure Java implementation may be used to test the memory management without a device.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ * @param <P> The type of the (native) device pointer.
+ */
+public interface DeviceMemoryAllocator<P> {
+
+	/**
+	 * Allocate a vector in device memory.
+	 *
+	 * @param size The size of the vector as multiples of sizeof(float).
+	 * @return The pointer to the new vector or null if the allocation failed (e.g. since the device is out of memory).
+	 */
+	P allocate(long size);
+
+	/**
+	 * Returns the size of the vector allocated for a request of the given size, e.g. the size class of an allocator
+	 * rounding the requested sizes. A memory pool may re-use a vector for all requests with the same allocation size.
+	 *
+	 * The default implementation returns the given size.
+	 *
+	 * @param size The requested size of the vector as multiples of sizeof(float).
+	 * @return The size of the allocated vector as multiples of sizeof(float).
+	 */
+	default long getAllocationSize(final long size) {
+		return size;
+	}
+
+	/**
+	 * Free a vector previously allocated by {@link #allocate(long)}.
+	 *
+	 * @param pointer The pointer to the vector.
+	 * @param size The size of the vector as multiples of sizeof(float).
+	 */
+	void free(P pointer, long size);
+
+	/**
+	 * @return The (estimated) fraction of free device memory, a number between 0 and 1.
+	 */
+	double getFreeMemoryFraction();
+}
@@ -0,0 +1,21 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+/**
+ * An object holding a vector in device memory, e.g. a random variable whose realizations are stored on a GPU.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ * @see DeviceMemoryScope#keep(Object)
+ */
+public interface DeviceMemoryHolder {
+
+	/**
+	 * @return The reference to the device memory held by this object or null if no device memory is held.
+	 */
+	DeviceMemoryReference<?> getDeviceMemoryReference();
+}
@@ -0,0 +1,140 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.lang.ref.ReferenceQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A reference counted handle of a vector in device memory, obtained from {@link ReferenceCountingMemoryPool#getDeviceMemory(long)}.
+ *
+ * A new handle has a reference count of 1. The count is increased by {@link #retain()} and decreased by {@link #release()}.
+ * Once it reaches 0 the vector is returned to the pool immediately and may be re-used by a subsequent allocation; accessing
+ * the pointer afterwards results in an <code>IllegalStateException</code>.
+ *
+ * If a handle becomes unreachable without having been released, its vector is recycled by the pool after the handle has been
+ * garbage collected (this is only a safety net, see {@link ReferenceCountingMemoryPool}).
+ *
+ * @author Christian Fries
+ * @version 1.0
+ * @param <P> The type of the (native) device pointer.
+ */
+public final class DeviceMemoryReference<P> implements AutoCloseable {
+
+	private final ReferenceCountingMemoryPool<P>	pool;
+	private final P									pointer;
+	private final long								size;
+
+	private final AtomicInteger referenceCount = new AtomicInteger(1);
+
+	// Weak reference to this handle, tracking handles which are not released explicitly
+	private final ReferenceCountingMemoryPool.TrackingReference<P> trackingReference;
+
+	DeviceMemoryReference(final ReferenceCountingMemoryPool<P> pool, final P pointer, final long size, final long allocationSize, final ReferenceQueue<DeviceMemoryReference<P>> referenceQueue) {
+		this.pool = pool;
+		this.pointer = pointer;
+		this.size = size;
+		trackingReference = new ReferenceCountingMemoryPool.TrackingReference<P>(this, referenceQueue, pointer, allocationSize);
+	}
+
+	/**
+	 * @return The device pointer.
+	 * @throws IllegalStateException if the device memory has been released.
+	 */
+	public P get() {
+		if(referenceCount.get() <= 0) {
+			throw new IllegalStateException("The device memory has been released.");
+		}
+		return pointer;
+	}
+
+	/**
+	 * @return The (requested) size of the vector as multiples of sizeof(float).
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * @return The current reference count (0 if the device memory has been released).
+	 */
+	public int getReferenceCount() {
+		return referenceCount.get();
+	}
+
+	/**
+	 * @return True if the device memory has been released, i.e., the reference count has reached 0.
+	 */
+	public boolean isReleased() {
+		return referenceCount.get() <= 0;
+	}
+
+	/**
+	 * Increments the reference count.
+	 *
+	 * @return This handle.
+	 * @throws IllegalStateException if the device memory has been released.
+	 */
+	public DeviceMemoryReference<P> retain() {
+		while(true) {
+			final int count = referenceCount.get();
+			if(count <= 0) {
+				throw new IllegalStateException("The device memory has been released.");
+			}
+			if(referenceCount.compareAndSet(count, count+1)) {
+				return this;
+			}
+		}
+	}
+
+	/**
+	 * Decrements the reference count and returns the vector to the pool when the count reaches 0.
+	 *
+	 * @throws IllegalStateException if the device memory has already been released.
+	 */
+	public void release() {
+		if(!releaseIfNotReleased()) {
+			throw new IllegalStateException("The device memory has already been released.");
+		}
+	}
+
+	/**
+	 * Same as {@link #release()}.
+	 */
+	@Override
+	public void close() {
+		release();
+	}
+
+	/**
+	 * Decrements the reference count, if it is positive.
+	 *
+	 * @return False if the device memory had already been released.
+	 */
+	boolean releaseIfNotReleased() {
+		while(true) {
+			final int count = referenceCount.get();
+			if(count <= 0) {
+				return false;
+			}
+			if(referenceCount.compareAndSet(count, count-1)) {
+				if(count == 1) {
+					pool.recycle(trackingReference);
+				}
+				return true;
+			}
+		}
+	}
+
+	ReferenceCountingMemoryPool.TrackingReference<P> getTrackingReference() {
+		return trackingReference;
+	}
+
+	@Override
+	public String toString() {
+		return "DeviceMemoryReference [pointer=" + pointer + ", size=" + size + ", referenceCount=" + referenceCount.get() + "]";
+	}
+}
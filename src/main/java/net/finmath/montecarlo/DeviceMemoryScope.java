@@ -0,0 +1,164 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A scope releasing all device vectors allocated on the current thread while the scope is open, when the scope is closed.
+ *
+ * The scope is used with try-with-resources, for example
+ * <pre>
+ * try(DeviceMemoryScope scope = DeviceMemoryScope.open()) {
+ * 	value = product.getValue(0.0, model).getAverage();
+ * }
+ * </pre>
+ * frees all temporary device vectors of a valuation immediately, without waiting for the garbage collector.
+ *
+ * Random variables which are required after the scope has been closed have to be passed to {@link #keep(Object)}.
+ * Using a random variable whose device memory has been released results in an <code>IllegalStateException</code>.
+ * Objects caching device vectors (e.g. a Brownian motion or a model) should be created and initialized outside of the scope,
+ * or allocate their cached vectors in a scope opened by {@link #openUntracked()}.
+ *
+ * Scopes may be nested and have to be closed in reverse order of opening, on the thread which opened them.
+ * Allocations are registered with the innermost scope. Allocations on other threads (e.g. worker threads of a parallel valuation)
+ * are not registered.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ * @see ReferenceCountingMemoryPool
+ */
+public class DeviceMemoryScope implements AutoCloseable {
+
+	private static final ThreadLocal<Deque<DeviceMemoryScope>> openScopes = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private final boolean						isTracking;
+	private final List<DeviceMemoryReference<?>>	references = new ArrayList<DeviceMemoryReference<?>>();
+	private boolean								isClosed = false;
+
+	private DeviceMemoryScope(final boolean isTracking) {
+		super();
+		this.isTracking = isTracking;
+	}
+
+	/**
+	 * Open a scope on the current thread. All device vectors allocated on the current thread until the scope is closed are released by {@link #close()}.
+	 *
+	 * @return The new scope.
+	 */
+	public static DeviceMemoryScope open() {
+		final DeviceMemoryScope scope = new DeviceMemoryScope(true);
+		openScopes.get().push(scope);
+		return scope;
+	}
+
+	/**
+	 * Open a scope on the current thread in which allocations are not tracked (also not by an enclosing scope),
+	 * e.g. to create vectors which are cached beyond an enclosing scope. These vectors are recycled after their handles have been
+	 * garbage collected, or when they are released explicitly.
+	 *
+	 * @return The new scope.
+	 */
+	public static DeviceMemoryScope openUntracked() {
+		final DeviceMemoryScope scope = new DeviceMemoryScope(false);
+		openScopes.get().push(scope);
+		return scope;
+	}
+
+	/**
+	 * Removes the device memory held by the given object from this scope, such that it is not released when the scope is closed.
+	 * The memory is transferred to the enclosing scope, if any. Otherwise it is recycled after it has been garbage collected.
+	 *
+	 * @param object A {@link DeviceMemoryHolder} (e.g. a random variable) or a {@link DeviceMemoryReference}. Other objects are ignored.
+	 * @param <T> The type of the object.
+	 * @return The given object.
+	 */
+	public <T> T keep(final T object) {
+		final DeviceMemoryReference<?> reference;
+		if(object instanceof DeviceMemoryReference) {
+			reference = (DeviceMemoryReference<?>)object;
+		}
+		else if(object instanceof DeviceMemoryHolder) {
+			reference = ((DeviceMemoryHolder)object).getDeviceMemoryReference();
+		}
+		else {
+			reference = null;
+		}
+
+		if(reference != null && remove(reference)) {
+			final DeviceMemoryScope enclosingScope = getEnclosingScope();
+			if(enclosingScope != null && enclosingScope.isTracking) {
+				enclosingScope.references.add(reference);
+			}
+		}
+		return object;
+	}
+
+	/**
+	 * @return The number of device vectors registered with this scope.
+	 */
+	public int getNumberOfReferences() {
+		return references.size();
+	}
+
+	/**
+	 * Release the device vectors registered with this scope (each reference count is decremented once).
+	 *
+	 * @throws IllegalStateException if the scope is not the innermost open scope of the current thread.
+	 */
+	@Override
+	public void close() {
+		if(isClosed) {
+			return;
+		}
+		final Deque<DeviceMemoryScope> scopes = openScopes.get();
+		if(scopes.peek() != this) {
+			throw new IllegalStateException("Scopes have to be closed in reverse order of opening, on the thread which opened them.");
+		}
+		scopes.pop();
+		isClosed = true;
+
+		for(final DeviceMemoryReference<?> reference : references) {
+			reference.releaseIfNotReleased();
+		}
+		references.clear();
+	}
+
+	/**
+	 * Register a new handle with the innermost scope of the current thread, if any.
+	 */
+	static void register(final DeviceMemoryReference<?> reference) {
+		final DeviceMemoryScope scope = openScopes.get().peek();
+		if(scope != null && scope.isTracking) {
+			scope.references.add(reference);
+		}
+	}
+
+	private boolean remove(final DeviceMemoryReference<?> reference) {
+		// Search by identity, starting with the most recent allocations
+		for(int index=references.size()-1; index>=0; index--) {
+			if(references.get(index) == reference) {
+				references.remove(index);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private DeviceMemoryScope getEnclosingScope() {
+		final Iterator<DeviceMemoryScope> scopes = openScopes.get().iterator();
+		while(scopes.hasNext()) {
+			if(scopes.next() == this) {
+				return scopes.hasNext() ? scopes.next() : null;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+/**
+ * The streams and events of a device, used by a {@link DeviceStreamScheduler} to order the operations on device vectors.
+ *
+ * Operations enqueued on a stream are executed in order, operations on different streams may overlap.
+ * An event marks the completion of all operations enqueued on a stream before the event has been recorded.
+ *
+ * The methods are called by the {@link DeviceStreamScheduler} only (i.e., on the thread owning the device context).
+ *
+ * @author Christian Fries
+ * @version 1.0
+ * @param <S> The type of the (native) stream.
+ * @param <E> The type of the (native) event.
+ */
+public interface DeviceStreamBackend<S, E> {
+
+	/**
+	 * @return A new stream, which does not synchronize with the default stream.
+	 */
+	S createStream();
+
+	/**
+	 * @return The default stream, on which synchronous transfers and libraries (e.g. cuRand) enqueue their operations.
+	 */
+	S getDefaultStream();
+
+	/**
+	 * Records an event on the given stream.
+	 *
+	 * @param stream The stream.
+	 * @return An event completing once all operations enqueued on the stream have been completed.
+	 */
+	E recordEvent(S stream);
+
+	/**
+	 * Lets all operations enqueued subsequently on the given stream wait for the given event (without blocking the host).
+	 *
+	 * @param stream The stream.
+	 * @param event The event.
+	 */
+	void waitForEvent(S stream, E event);
+
+	/**
+	 * Blocks the host until the given event has been completed.
+	 *
+	 * @param event The event.
+	 */
+	void synchronize(E event);
+
+	/**
+	 * Releases the resources of an event. The event may not have been completed yet.
+	 *
+	 * @param event The event.
+	 */
+	void destroyEvent(E event);
+}
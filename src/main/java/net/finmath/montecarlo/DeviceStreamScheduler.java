@@ -0,0 +1,344 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Schedules the operations on device vectors on multiple streams, ordering them by events instead of synchronizing the device.
+ *
+ * For each device vector the scheduler tracks the event of the last operation writing the vector and the events of the
+ * operations reading it since. An operation submitted via {@link #submit(Collection, Collection, Consumer)}
+ * <ul>
+ * 	<li>waits for the last write of its input vectors (read after write),</li>
+ * 	<li>waits for the last write and the pending reads of its output vectors (write after write, write after read - the vectors are re-used by the memory pool),</li>
+ * </ul>
+ * and waits for nothing else. An operation is enqueued on the stream which wrote its first input (such that a chain of operations
+ * stays on one stream and does not wait), operations on new data (e.g. on random numbers) are distributed over the streams round robin.
+ * Waits on events already implied by the order of a stream are omitted.
+ *
+ * The host synchronizes only with the events of the vectors it accesses: {@link #synchronizeForRead(Object)} before reading a vector,
+ * {@link #synchronize(Object)} before writing or freeing a vector (e.g. by synchronous transfers or libraries working on the default stream,
+ * which then report their write via {@link #recordWrite(Object)}).
+ *
+ * The vectors are identified by their pointer objects (identity), as handed out by the memory pool. A pointer has to be
+ * {@link #synchronize(Object) synchronized} before it is freed.
+ *
+ * The methods of this class have to be called from the thread owning the device context, since they call the {@link DeviceStreamBackend}.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ * @param <P> The type of the (native) device pointer.
+ * @param <S> The type of the (native) stream.
+ * @param <E> The type of the (native) event.
+ */
+public class DeviceStreamScheduler<P, S, E> {
+
+	/**
+	 * An event recorded on a stream, with the number of vectors referring to it.
+	 */
+	private static class Event<E> {
+		private final E		event;
+		private final int	streamIndex;
+		private final long	sequence;
+		private int			references = 0;
+
+		Event(final E event, final int streamIndex, final long sequence) {
+			this.event = event;
+			this.streamIndex = streamIndex;
+			this.sequence = sequence;
+		}
+	}
+
+	/**
+	 * The pending accesses to a device vector: the last write and, for each stream, the last read since.
+	 */
+	private static class Access<E> {
+		private Event<E>			lastWrite;
+		private final Event<E>[]	lastReads;
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		Access(final int numberOfStreams) {
+			lastReads = new Event[numberOfStreams];
+		}
+	}
+
+	private final DeviceStreamBackend<S, E>	backend;
+	private final int						numberOfStreams;
+	private final int						defaultStreamIndex;
+
+	// The streams (created on first use), the last element is the default stream
+	private final ArrayList<S>				streams;
+
+	// The sequence number of the next event of each stream
+	private final long[]					nextSequence;
+
+	// The sequence number of the last event of each stream known to be completed
+	private final long[]					completedSequence;
+
+	// For each pair of streams (s, t) the sequence number of the last event of t for which s has waited
+	private final long[][]					awaitedSequence;
+
+	private final Map<P, Access<E>>			accesses = new IdentityHashMap<P, Access<E>>();
+
+	private int		nextStreamIndex = 0;
+
+	// Statistics
+	private long	numberOfOperations = 0;
+	private long	numberOfStreamWaits = 0;
+	private long	numberOfHostWaits = 0;
+
+	/**
+	 * Create a scheduler using the given number of streams.
+	 *
+	 * @param backend The streams and events of the device.
+	 * @param numberOfStreams The number of streams used for the operations (at least 1).
+	 */
+	public DeviceStreamScheduler(final DeviceStreamBackend<S, E> backend, final int numberOfStreams) {
+		super();
+		if(numberOfStreams < 1) {
+			throw new IllegalArgumentException("The number of streams must be positive.");
+		}
+		this.backend = backend;
+		this.numberOfStreams = numberOfStreams;
+		defaultStreamIndex = numberOfStreams;
+
+		streams = new ArrayList<S>(numberOfStreams+1);
+		for(int streamIndex=0; streamIndex<=numberOfStreams; streamIndex++) {
+			streams.add(null);
+		}
+		nextSequence = new long[numberOfStreams+1];
+		completedSequence = new long[numberOfStreams+1];
+		awaitedSequence = new long[numberOfStreams+1][numberOfStreams+1];
+		Arrays.fill(completedSequence, -1);
+		for(final long[] awaited : awaitedSequence) {
+			Arrays.fill(awaited, -1);
+		}
+	}
+
+	/**
+	 * Enqueue an operation reading the given input vectors and writing the given output vectors.
+	 * The operation is enqueued on the returned stream after the waits required by its inputs and outputs.
+	 * A vector which is read and written (in place) is passed as an output (and may be passed as an input).
+	 *
+	 * @param inputs The vectors read by the operation.
+	 * @param outputs The vectors written by the operation.
+	 * @param operation The operation enqueuing its work (e.g. a kernel launch) on the given stream.
+	 * @return The stream on which the operation has been enqueued.
+	 */
+	public synchronized S submit(final Collection<P> inputs, final Collection<P> outputs, final Consumer<S> operation) {
+		final int streamIndex = getStreamIndexForInputs(inputs);
+		final S stream = getStream(streamIndex);
+
+		for(final P input : inputs) {
+			final Access<E> access = accesses.get(input);
+			if(access != null) {
+				await(streamIndex, access.lastWrite);
+			}
+		}
+		for(final P output : outputs) {
+			final Access<E> access = accesses.get(output);
+			if(access != null) {
+				await(streamIndex, access.lastWrite);
+				for(final Event<E> read : access.lastReads) {
+					await(streamIndex, read);
+				}
+			}
+		}
+
+		operation.accept(stream);
+		numberOfOperations++;
+
+		final Event<E> event = record(streamIndex);
+		for(final P input : inputs) {
+			final Access<E> access = getAccess(input);
+			if(access.lastReads[streamIndex] != event) {
+				release(access.lastReads[streamIndex]);
+				access.lastReads[streamIndex] = retain(event);
+			}
+		}
+		for(final P output : outputs) {
+			setWrite(getAccess(output), event);
+		}
+		if(event.references == 0) {
+			backend.destroyEvent(event.event);
+		}
+
+		return stream;
+	}
+
+	/**
+	 * Record that the given vector has been written by operations enqueued on the default stream (e.g. by a synchronous transfer or by a library).
+	 * Subsequent operations reading the vector wait for these operations. The vector has to be {@link #synchronize(Object) synchronized}
+	 * before the operations are enqueued.
+	 *
+	 * @param pointer The vector.
+	 */
+	public synchronized void recordWrite(final P pointer) {
+		final Event<E> event = record(defaultStreamIndex);
+		setWrite(getAccess(pointer), event);
+	}
+
+	/**
+	 * Blocks until the pending operations writing the given vector have been completed, such that the host may read it.
+	 *
+	 * @param pointer The vector.
+	 */
+	public synchronized void synchronizeForRead(final P pointer) {
+		final Access<E> access = accesses.get(pointer);
+		if(access != null) {
+			hostWait(access.lastWrite);
+			release(access.lastWrite);
+			access.lastWrite = null;
+			removeIfCompleted(pointer, access);
+		}
+	}
+
+	/**
+	 * Blocks until all pending operations accessing the given vector have been completed, such that the host may write or free it.
+	 *
+	 * @param pointer The vector.
+	 */
+	public synchronized void synchronize(final P pointer) {
+		final Access<E> access = accesses.remove(pointer);
+		if(access != null) {
+			hostWait(access.lastWrite);
+			release(access.lastWrite);
+			for(final Event<E> read : access.lastReads) {
+				hostWait(read);
+				release(read);
+			}
+		}
+	}
+
+	/**
+	 * @return The number of streams used for the operations (excluding the default stream).
+	 */
+	public int getNumberOfStreams() {
+		return numberOfStreams;
+	}
+
+	/**
+	 * @return The number of vectors with pending (or not yet synchronized) operations.
+	 */
+	public synchronized int getNumberOfTrackedVectors() {
+		return accesses.size();
+	}
+
+	/**
+	 * @return The number of operations submitted.
+	 */
+	public synchronized long getNumberOfOperations() {
+		return numberOfOperations;
+	}
+
+	/**
+	 * @return The number of waits of a stream for an event of another stream.
+	 */
+	public synchronized long getNumberOfStreamWaits() {
+		return numberOfStreamWaits;
+	}
+
+	/**
+	 * @return The number of times the host has been blocked by an event.
+	 */
+	public synchronized long getNumberOfHostWaits() {
+		return numberOfHostWaits;
+	}
+
+	private int getStreamIndexForInputs(final Collection<P> inputs) {
+		for(final P input : inputs) {
+			final Access<E> access = accesses.get(input);
+			if(access != null && access.lastWrite != null && access.lastWrite.streamIndex != defaultStreamIndex && !isCompleted(access.lastWrite)) {
+				return access.lastWrite.streamIndex;
+			}
+		}
+		final int streamIndex = nextStreamIndex;
+		nextStreamIndex = (nextStreamIndex + 1) % numberOfStreams;
+		return streamIndex;
+	}
+
+	private S getStream(final int streamIndex) {
+		S stream = streams.get(streamIndex);
+		if(stream == null) {
+			stream = streamIndex == defaultStreamIndex ? backend.getDefaultStream() : backend.createStream();
+			streams.set(streamIndex, stream);
+		}
+		return stream;
+	}
+
+	private Access<E> getAccess(final P pointer) {
+		return accesses.computeIfAbsent(pointer, key -> new Access<E>(numberOfStreams+1));
+	}
+
+	private Event<E> record(final int streamIndex) {
+		return new Event<E>(backend.recordEvent(getStream(streamIndex)), streamIndex, nextSequence[streamIndex]++);
+	}
+
+	private void setWrite(final Access<E> access, final Event<E> event) {
+		// The event is recorded after the waits for the previous accesses, hence it implies their completion
+		if(access.lastWrite == event) {
+			return;
+		}
+		release(access.lastWrite);
+		access.lastWrite = retain(event);
+		for(int streamIndex=0; streamIndex<access.lastReads.length; streamIndex++) {
+			release(access.lastReads[streamIndex]);
+			access.lastReads[streamIndex] = null;
+		}
+	}
+
+	private void await(final int streamIndex, final Event<E> event) {
+		if(event == null || event.streamIndex == streamIndex || isCompleted(event) || event.sequence <= awaitedSequence[streamIndex][event.streamIndex]) {
+			return;
+		}
+		backend.waitForEvent(getStream(streamIndex), event.event);
+		awaitedSequence[streamIndex][event.streamIndex] = event.sequence;
+		numberOfStreamWaits++;
+	}
+
+	private void hostWait(final Event<E> event) {
+		if(event == null || isCompleted(event)) {
+			return;
+		}
+		backend.synchronize(event.event);
+		completedSequence[event.streamIndex] = event.sequence;
+		numberOfHostWaits++;
+	}
+
+	private boolean isCompleted(final Event<E> event) {
+		return event.sequence <= completedSequence[event.streamIndex];
+	}
+
+	private void removeIfCompleted(final P pointer, final Access<E> access) {
+		for(int streamIndex=0; streamIndex<access.lastReads.length; streamIndex++) {
+			final Event<E> read = access.lastReads[streamIndex];
+			if(read != null && !isCompleted(read)) {
+				return;
+			}
+		}
+		accesses.remove(pointer);
+		for(final Event<E> read : access.lastReads) {
+			release(read);
+		}
+	}
+
+	private Event<E> retain(final Event<E> event) {
+		event.references++;
+		return event;
+	}
+
+	private void release(final Event<E> event) {
+		if(event != null && --event.references == 0) {
+			backend.destroyEvent(event.event);
+		}
+	}
+}
@@ -0,0 +1,31 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * A factory of random variables which can be created from float realizations without a conversion to double,
+ * implemented by the factories of the float based random variables.
+ *
+ * Generators producing float values (e.g. {@link BrownianMotionPhilox}) use this method to avoid the intermediate
+ * <code>double[]</code>.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public interface FloatArrayRandomVariableFactory {
+
+	/**
+	 * Create a (stochastic) random variable from the given float realizations.
+	 * The array may be used by the random variable (no defensive copy is made), i.e., it should not be modified afterwards.
+	 *
+	 * @param time The filtration time of the random variable.
+	 * @param values The realizations.
+	 * @return The random variable.
+	 */
+	RandomVariable createRandomVariable(double time, float[] values);
+}
@@ -0,0 +1,175 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Assigns values to the intervals defined by a vector of interval points and counts the values per interval
+ * in a single (parallel) pass.
+ *
+ * For interval points <i>p<sub>0</sub>, ..., p<sub>m-1</sub></i> there are <i>m+1</i> bins: the bin <i>k</i> &lt; <i>m</i>
+ * holds the values <i>x</i> with <i>p<sub>k-1</sub> &lt; x &le; p<sub>k</sub></i>, the bin <i>m</i> holds the
+ * values greater than <i>p<sub>m-1</sub></i> (and NaN). This is the definition used by
+ * {@link RandomVariableFromFloatArray#getHistogram(double[])}. If the interval points are not increasing,
+ * the running maximum of the interval points is used (which reproduces the previous implementation based on sorting).
+ *
+ * The bin of a value is found by binary search. If the interval points are equidistant, the bin is
+ * calculated by arithmetic and corrected by comparison with the interval points (such that the result is exact).
+ * For the parallel execution each chunk uses its own counters, which are merged at the end.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class HistogramBinning {
+
+	private final double[]	intervalPoints;
+	private final boolean	isUniform;
+	private final double	start;
+	private final double	step;
+
+	/**
+	 * Create the binning for the given interval points.
+	 *
+	 * @param intervalPoints The interval points (should be increasing).
+	 */
+	public HistogramBinning(final double[] intervalPoints) {
+		super();
+		this.intervalPoints = intervalPoints.clone();
+		for(int k=1; k<this.intervalPoints.length; k++) {
+			this.intervalPoints[k] = Math.max(this.intervalPoints[k], this.intervalPoints[k-1]);
+		}
+
+		final int numberOfPoints = this.intervalPoints.length;
+		start = numberOfPoints > 0 ? this.intervalPoints[0] : Double.NaN;
+		step = numberOfPoints > 1 ? (this.intervalPoints[numberOfPoints-1] - start) / (numberOfPoints-1) : Double.NaN;
+
+		boolean isUniform = numberOfPoints > 2 && step > 0 && !Double.isInfinite(step);
+		for(int k=0; k<numberOfPoints && isUniform; k++) {
+			isUniform = Math.abs(this.intervalPoints[k] - (start + k * step)) <= 1E-6 * step;
+		}
+		this.isUniform = isUniform;
+	}
+
+	/**
+	 * @return The number of bins, i.e., the number of interval points plus one.
+	 */
+	public int getNumberOfBins() {
+		return intervalPoints.length+1;
+	}
+
+	/**
+	 * Returns the bin of the given value.
+	 *
+	 * @param value The value.
+	 * @return The index of the bin of the value.
+	 */
+	public int getBin(final double value) {
+		final int numberOfPoints = intervalPoints.length;
+		if(isUniform) {
+			final double guess = Math.ceil((value - start) / step);
+			if(guess == guess) {
+				// Correct the arithmetic guess by comparison
+				int bin = (int)Math.min(Math.max(guess, 0), numberOfPoints);
+				while(bin > 0 && value <= intervalPoints[bin-1]) {
+					bin--;
+				}
+				while(bin < numberOfPoints && !(value <= intervalPoints[bin])) {
+					bin++;
+				}
+				return bin;
+			}
+		}
+
+		// Binary search for the first interval point greater or equal to the value
+		int low = 0;
+		int high = numberOfPoints;
+		while(low < high) {
+			final int mid = (low + high) >>> 1;
+			if(value <= intervalPoints[mid]) {
+				high = mid;
+			}
+			else {
+				low = mid+1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the interval points as floats, rounded down, for the comparison of float values on a device:
+	 * for a float <i>x</i> the condition <i>x &le; p</i> is equivalent to <i>x &le; p'</i>, where <i>p'</i>
+	 * is the largest float less or equal to <i>p</i>.
+	 *
+	 * @return The interval points as floats.
+	 */
+	public float[] getIntervalPointsAsFloat() {
+		final float[] intervalPointsAsFloat = new float[intervalPoints.length];
+		for(int k=0; k<intervalPoints.length; k++) {
+			float intervalPoint = (float)intervalPoints[k];
+			if(intervalPoint > intervalPoints[k]) {
+				intervalPoint = Math.nextDown(intervalPoint);
+			}
+			intervalPointsAsFloat[k] = intervalPoint;
+		}
+		return intervalPointsAsFloat;
+	}
+
+	/**
+	 * Count the values per bin.
+	 *
+	 * @param values The values.
+	 * @return The number of values in each bin.
+	 */
+	public long[] getCounts(final float[] values) {
+		return getCounts(values.length, i -> values[i]);
+	}
+
+	/**
+	 * Count the values <code>values.applyAsDouble(i)</code>, <code>i</code> in <code>[0, size)</code>, per bin.
+	 * The function may be called concurrently.
+	 *
+	 * @param size The number of values.
+	 * @param values The function mapping an index to a value.
+	 * @return The number of values in each bin.
+	 */
+	public long[] getCounts(final int size, final IntToDoubleFunction values) {
+		final int chunkSize = ParallelChunkExecutor.getChunkSize();
+		final int numberOfChunks = ParallelChunkExecutor.isParallel(size) ? (int)((size + (long)chunkSize - 1) / chunkSize) : 1;
+
+		final long[][] chunkCounts = new long[numberOfChunks][];
+		ParallelChunkExecutor.forEachChunk(size, (chunkStart, chunkEnd) -> {
+			final long[] counts = new long[getNumberOfBins()];
+			for(int i=chunkStart; i<chunkEnd; i++) {
+				counts[getBin(values.applyAsDouble(i))]++;
+			}
+			chunkCounts[chunkStart / chunkSize] = counts;
+		});
+
+		final long[] counts = new long[getNumberOfBins()];
+		for(final long[] countsOfChunk : chunkCounts) {
+			for(int bin=0; bin<counts.length; bin++) {
+				counts[bin] += countsOfChunk[bin];
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Returns the histogram, i.e., the counts divided by the number of values.
+	 *
+	 * @param counts The number of values per bin.
+	 * @param numberOfValues The number of values.
+	 * @return The histogram (all entries are zero if the number of values is zero).
+	 */
+	public static double[] getHistogram(final long[] counts, final long numberOfValues) {
+		final double[] histogramValues = new double[counts.length];
+		for(int bin=0; bin<counts.length; bin++) {
+			histogramValues[bin] = numberOfValues > 0 ? (double)counts[bin] / numberOfValues : counts[bin];
+		}
+		return histogramValues;
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Arrays;
+
+import net.finmath.montecarlo.cuda.RandomVariableCuda;
+import net.finmath.montecarlo.opencl.RandomVariableOpenCL;
+import net.finmath.stochastic.ConditionalExpectationEstimator;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * A conditional expectation estimator (least square regression on given basis functions, e.g., for the Longstaff-Schwartz algorithm)
+ * specialized for float random variables, as an alternative to
+ * <code>net.finmath.montecarlo.conditionalexpectation.MonteCarloConditionalExpectationRegression</code>.
+ *
+ * The normal equations are calculated in a single pass over the float realizations of the basis functions, without creating
+ * <code>double[]</code> copies or temporary products (see {@link RegressionNormalEquations#of(RandomVariable[], RandomVariable)}).
+ * If all stochastic arguments are {@link RandomVariableOpenCL}, the sums are calculated on the device
+ * (see {@link RandomVariableOpenCL#getRegressionNormalEquations(RandomVariable[], RandomVariable)}).
+ * The normal equations are solved in double precision. The conditional expectation (the linear combination of the predictor
+ * basis functions) is evaluated by a single n-ary weighted sum (see {@link RandomVariableSumOperators}), on the backend of the predictors.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class MonteCarloConditionalExpectationRegressionFloat implements ConditionalExpectationEstimator {
+
+	private final RandomVariable[] basisFunctionsEstimator;
+	private final RandomVariable[] basisFunctionsPredictor;
+
+	/**
+	 * Creates a conditional expectation estimator using the given basis functions for the estimation of the regression parameters
+	 * and for the prediction.
+	 *
+	 * @param basisFunctions The basis functions.
+	 */
+	public MonteCarloConditionalExpectationRegressionFloat(final RandomVariable[] basisFunctions) {
+		this(basisFunctions, basisFunctions);
+	}
+
+	/**
+	 * Creates a conditional expectation estimator using different basis functions for the estimation of the regression parameters
+	 * and for the prediction (e.g. the basis functions evaluated on an independent set of paths).
+	 *
+	 * @param basisFunctionsEstimator The basis functions used to estimate the regression parameters.
+	 * @param basisFunctionsPredictor The basis functions used to evaluate the conditional expectation.
+	 */
+	public MonteCarloConditionalExpectationRegressionFloat(final RandomVariable[] basisFunctionsEstimator, final RandomVariable[] basisFunctionsPredictor) {
+		super();
+		if(basisFunctionsEstimator.length != basisFunctionsPredictor.length) {
+			throw new IllegalArgumentException("The number of basis functions of the estimator " + basisFunctionsEstimator.length + " and the predictor " + basisFunctionsPredictor.length + " do not match.");
+		}
+		this.basisFunctionsEstimator = basisFunctionsEstimator;
+		this.basisFunctionsPredictor = basisFunctionsPredictor;
+	}
+
+	@Override
+	public RandomVariable getConditionalExpectation(final RandomVariable randomVariable) {
+		final double[] linearRegressionParameters = getLinearRegressionParameters(randomVariable);
+		return RandomVariableSumOperators.addWeightedSum(getZero(basisFunctionsPredictor), Arrays.asList(basisFunctionsPredictor), linearRegressionParameters);
+	}
+
+	/**
+	 * Returns the parameters of the regression of the given random variable on the basis functions of the estimator.
+	 *
+	 * @param randomVariable The random variable <code>y</code>.
+	 * @return The regression parameters.
+	 */
+	public double[] getLinearRegressionParameters(final RandomVariable randomVariable) {
+		return getNormalEquations(randomVariable).getRegressionParameters();
+	}
+
+	/**
+	 * Returns the normal equations of the regression of the given random variable on the basis functions of the estimator.
+	 *
+	 * @param randomVariable The random variable <code>y</code>.
+	 * @return The normal equations.
+	 */
+	public RegressionNormalEquations getNormalEquations(final RandomVariable randomVariable) {
+		if(isOnDevice(basisFunctionsEstimator, randomVariable)) {
+			return RandomVariableOpenCL.getRegressionNormalEquations(basisFunctionsEstimator, randomVariable);
+		}
+		return RegressionNormalEquations.of(basisFunctionsEstimator, randomVariable);
+	}
+
+	private static boolean isOnDevice(final RandomVariable[] basisFunctions, final RandomVariable randomVariable) {
+		boolean isOnDevice = randomVariable.isDeterministic() || randomVariable instanceof RandomVariableOpenCL;
+		boolean isStochastic = !randomVariable.isDeterministic();
+		for(final RandomVariable basisFunction : basisFunctions) {
+			isOnDevice &= basisFunction.isDeterministic() || basisFunction instanceof RandomVariableOpenCL;
+			isStochastic |= !basisFunction.isDeterministic();
+		}
+		return isOnDevice && isStochastic;
+	}
+
+	/**
+	 * Returns a deterministic zero of the type of the predictor with the highest type priority, such that the weighted sum
+	 * is evaluated by the n-ary operator of that type.
+	 *
+	 * @param basisFunctions The basis functions of the predictor.
+	 * @return A deterministic zero.
+	 */
+	private static RandomVariable getZero(final RandomVariable[] basisFunctions) {
+		RandomVariable basisFunctionWithMaximumPriority = null;
+		for(final RandomVariable basisFunction : basisFunctions) {
+			if(basisFunctionWithMaximumPriority == null || basisFunction.getTypePriority() > basisFunctionWithMaximumPriority.getTypePriority()) {
+				basisFunctionWithMaximumPriority = basisFunction;
+			}
+		}
+
+		if(basisFunctionWithMaximumPriority instanceof RandomVariableOpenCL) {
+			return RandomVariableOpenCL.of(Double.NEGATIVE_INFINITY, 0.0);
+		}
+		else if(basisFunctionWithMaximumPriority instanceof RandomVariableCuda) {
+			return RandomVariableCuda.of(Double.NEGATIVE_INFINITY, 0.0);
+		}
+		else {
+			return new RandomVariableFromFloatArray(0.0);
+		}
+	}
+}
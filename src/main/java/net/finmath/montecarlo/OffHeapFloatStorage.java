@@ -0,0 +1,374 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A vector of floats stored outside of the Java heap (in direct buffers), indexed by <code>long</code>.
+ *
+ * The vector is split into segments, each backed by a direct <code>ByteBuffer</code> in native byte order,
+ * such that the size is not limited by <code>Integer.MAX_VALUE</code>. The segments may be handed to native libraries
+ * without copying, e.g., via <code>jcuda.Pointer.to(ByteBuffer)</code> or <code>org.jocl.Pointer.to(ByteBuffer)</code>
+ * (see {@link #getSegment(int)}).
+ *
+ * The memory is released by {@link #close()}. The storage is reference counted: every access and every open
+ * {@link Segment} holds a reference, and the memory is released only after the storage has been closed and the
+ * last reference has been released. Accessing the storage or a segment after it has been closed throws an
+ * <code>IllegalStateException</code> (instead of accessing released memory).
+ * If the storage is not closed explicitly, the memory is released by the cleaner of the direct buffers after the storage
+ * became unreachable. Note that the direct memory is limited by the JVM option <code>-XX:MaxDirectMemorySize</code>.
+ *
+ * Reading and writing distinct elements from different threads is safe.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class OffHeapFloatStorage implements AutoCloseable {
+
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	// Default segment size: 2^28 floats (1 GB)
+	private static final int segmentShiftDefault = 28;
+
+	private static final Consumer<ByteBuffer> directBufferRelease = getDirectBufferRelease();
+
+	private final long		size;
+	private final int		segmentShift;
+	private final long		segmentMask;
+
+	private final ByteBuffer[]	segments;
+	private final FloatBuffer[]	segmentsAsFloat;
+
+	// One reference is held by the storage itself until it is closed
+	private final AtomicInteger	references = new AtomicInteger(1);
+	private final AtomicBoolean	isClosed = new AtomicBoolean(false);
+
+	/**
+	 * A segment of the storage, giving access to its memory as a direct buffer. The segment holds a reference to the storage,
+	 * such that the memory is not released before the segment has been closed.
+	 *
+	 * @author Christian Fries
+	 */
+	public final class Segment implements AutoCloseable {
+
+		private final ByteBuffer buffer;
+		private final AtomicBoolean isReleased = new AtomicBoolean(false);
+
+		private Segment(final ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		/**
+		 * Returns the segment as a direct buffer in native byte order (a view sharing the memory with the storage).
+		 * The buffer must not be used after the segment has been closed.
+		 *
+		 * @return A view of the segment (position 0, limit equal to the number of bytes of the segment).
+		 */
+		public ByteBuffer getBuffer() {
+			if(isReleased.get()) {
+				throw new IllegalStateException("The segment has been closed.");
+			}
+			return buffer;
+		}
+
+		/**
+		 * Releases the reference of this segment to the storage. Calling this method more than once has no effect.
+		 */
+		@Override
+		public void close() {
+			if(isReleased.compareAndSet(false, true)) {
+				release();
+			}
+		}
+	}
+
+	/**
+	 * Allocate an off-heap vector of floats, initialized with zeros.
+	 *
+	 * @param size The number of elements.
+	 */
+	public OffHeapFloatStorage(final long size) {
+		this(size, segmentShiftDefault);
+	}
+
+	/**
+	 * Allocate an off-heap vector of floats, initialized with zeros, using segments of 2<sup>segmentShift</sup> elements.
+	 *
+	 * @param size The number of elements.
+	 * @param segmentShift The binary logarithm of the number of elements of a segment (at most 29).
+	 */
+	OffHeapFloatStorage(final long size, final int segmentShift) {
+		super();
+		if(size < 0) {
+			throw new IllegalArgumentException("The size must not be negative.");
+		}
+		if(segmentShift < 0 || segmentShift > 29) {
+			throw new IllegalArgumentException("The segment size must be a power of two between 1 and 2^29.");
+		}
+		this.size = size;
+		this.segmentShift = segmentShift;
+		this.segmentMask = (1L << segmentShift) - 1;
+
+		final long numberOfSegments = (size + segmentMask) >>> segmentShift;
+		if(numberOfSegments > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Size " + size + " exceeds the maximum number of segments.");
+		}
+
+		final ByteBuffer[] segments = new ByteBuffer[(int)numberOfSegments];
+		final FloatBuffer[] segmentsAsFloat = new FloatBuffer[segments.length];
+		for(int segment=0; segment<segments.length; segment++) {
+			final long segmentSize = Math.min(size - ((long)segment << segmentShift), 1L << segmentShift);
+			segments[segment] = ByteBuffer.allocateDirect((int)(segmentSize * Float.BYTES)).order(ByteOrder.nativeOrder());
+			segmentsAsFloat[segment] = segments[segment].asFloatBuffer();
+		}
+		this.segments = segments;
+		this.segmentsAsFloat = segmentsAsFloat;
+	}
+
+	/**
+	 * Create an off-heap copy of the given values.
+	 *
+	 * @param values The values.
+	 * @return A new off-heap vector holding a copy of the values.
+	 */
+	public static OffHeapFloatStorage of(final float[] values) {
+		final OffHeapFloatStorage storage = new OffHeapFloatStorage(values.length);
+		storage.put(0, values, 0, values.length);
+		return storage;
+	}
+
+	/**
+	 * @return The number of elements.
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Returns the element of the given index. Each call acquires a reference to the storage, loops should use
+	 * {@link #get(long, float[], int, int)} instead.
+	 *
+	 * @param index The index.
+	 * @return The element.
+	 */
+	public float get(final long index) {
+		acquire();
+		try {
+			return segmentsAsFloat[(int)(index >>> segmentShift)].get((int)(index & segmentMask));
+		}
+		finally {
+			release();
+		}
+	}
+
+	/**
+	 * Sets the element of the given index. Each call acquires a reference to the storage, loops should use
+	 * {@link #put(long, float[], int, int)} instead.
+	 *
+	 * @param index The index.
+	 * @param value The new value of the element.
+	 */
+	public void set(final long index, final float value) {
+		acquire();
+		try {
+			segmentsAsFloat[(int)(index >>> segmentShift)].put((int)(index & segmentMask), value);
+		}
+		finally {
+			release();
+		}
+	}
+
+	/**
+	 * Copies the elements <code>[index, index+length)</code> to the given array.
+	 *
+	 * @param index The index of the first element to copy.
+	 * @param destination The array receiving the elements.
+	 * @param offset The index in the array receiving the first element.
+	 * @param length The number of elements.
+	 */
+	public void get(final long index, final float[] destination, final int offset, final int length) {
+		checkRange(index, length);
+		acquire();
+		try {
+			int copied = 0;
+			while(copied < length) {
+				final long position = index + copied;
+				final FloatBuffer segment = segmentsAsFloat[(int)(position >>> segmentShift)].duplicate();
+				segment.position((int)(position & segmentMask));
+				final int lengthInSegment = Math.min(length - copied, segment.remaining());
+				segment.get(destination, offset + copied, lengthInSegment);
+				copied += lengthInSegment;
+			}
+		}
+		finally {
+			release();
+		}
+	}
+
+	/**
+	 * Copies the given array to the elements <code>[index, index+length)</code>.
+	 *
+	 * @param index The index of the first element to write.
+	 * @param source The array providing the elements.
+	 * @param offset The index in the array of the first element.
+	 * @param length The number of elements.
+	 */
+	public void put(final long index, final float[] source, final int offset, final int length) {
+		checkRange(index, length);
+		acquire();
+		try {
+			int copied = 0;
+			while(copied < length) {
+				final long position = index + copied;
+				final FloatBuffer segment = segmentsAsFloat[(int)(position >>> segmentShift)].duplicate();
+				segment.position((int)(position & segmentMask));
+				final int lengthInSegment = Math.min(length - copied, segment.remaining());
+				segment.put(source, offset + copied, lengthInSegment);
+				copied += lengthInSegment;
+			}
+		}
+		finally {
+			release();
+		}
+	}
+
+	/**
+	 * @return The number of segments.
+	 */
+	public int getNumberOfSegments() {
+		return segments.length;
+	}
+
+	/**
+	 * Returns the index of the first element of the given segment.
+	 *
+	 * @param segment The segment.
+	 * @return The index of the first element of the segment.
+	 */
+	public long getSegmentStart(final int segment) {
+		return (long)segment << segmentShift;
+	}
+
+	/**
+	 * Opens the given segment, giving access to its memory as a direct buffer in native byte order, e.g. to be passed to
+	 * native libraries without copying. The memory of the storage is not released before the segment has been closed
+	 * (use try-with-resources).
+	 *
+	 * @param segment The segment.
+	 * @return The segment, holding a reference to this storage.
+	 */
+	public Segment getSegment(final int segment) {
+		acquire();
+		try {
+			return new Segment(segments[segment].duplicate().order(ByteOrder.nativeOrder()));
+		}
+		catch(final RuntimeException e) {
+			release();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return True if this storage has been closed (the memory is released once the last open segment has been closed).
+	 */
+	public boolean isClosed() {
+		return isClosed.get();
+	}
+
+	/**
+	 * Closes this storage. The memory is released immediately, or, if segments are still open or other threads are accessing
+	 * the storage, once the last of them has finished. Calling this method more than once has no effect.
+	 */
+	@Override
+	public void close() {
+		if(isClosed.compareAndSet(false, true)) {
+			release();
+		}
+	}
+
+	private void acquire() {
+		if(isClosed.get()) {
+			throw new IllegalStateException("The storage has been closed.");
+		}
+		int count;
+		do {
+			count = references.get();
+			if(count == 0) {
+				throw new IllegalStateException("The storage has been closed.");
+			}
+		} while(!references.compareAndSet(count, count+1));
+	}
+
+	private void release() {
+		if(references.decrementAndGet() == 0) {
+			for(final ByteBuffer segment : segments) {
+				directBufferRelease.accept(segment);
+			}
+		}
+	}
+
+	private void checkRange(final long index, final int length) {
+		if(index < 0 || length < 0 || index + length > size) {
+			throw new IndexOutOfBoundsException("Range [" + index + ", " + (index + length) + ") exceeds size " + size + ".");
+		}
+	}
+
+	/**
+	 * Returns a function releasing the memory of a direct buffer immediately, if supported by the JVM
+	 * (<code>sun.misc.Unsafe.invokeCleaner</code> for Java 9 and later, the cleaner of the buffer for Java 8).
+	 * Otherwise the memory is released when the buffer is garbage collected.
+	 */
+	private static Consumer<ByteBuffer> getDirectBufferRelease() {
+		try {
+			final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			final Object unsafe = theUnsafe.get(null);
+			return buffer -> {
+				try {
+					invokeCleaner.invoke(unsafe, buffer);
+				}
+				catch(final ReflectiveOperationException e) {
+					logger.log(Level.FINE, "Unable to release direct buffer.", e);
+				}
+			};
+		}
+		catch(final ReflectiveOperationException | RuntimeException e) {
+			// Java 8
+		}
+
+		try {
+			final Method cleanerMethod = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+			final Method cleanMethod = Class.forName("sun.misc.Cleaner").getMethod("clean");
+			return buffer -> {
+				try {
+					final Object cleaner = cleanerMethod.invoke(buffer);
+					if(cleaner != null) {
+						cleanMethod.invoke(cleaner);
+					}
+				}
+				catch(final ReflectiveOperationException | RuntimeException e) {
+					logger.log(Level.FINE, "Unable to release direct buffer.", e);
+				}
+			};
+		}
+		catch(final ReflectiveOperationException | RuntimeException e) {
+			logger.info("Direct buffers cannot be released explicitly. The memory is released by the garbage collector.");
+			return buffer -> {};
+		}
+	}
+}
@@ -0,0 +1,261 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Executes loops over the realizations of a random variable on a dedicated <code>ForkJoinPool</code>.
+ *
+ * The index range <code>[0, size)</code> is split into chunks of fixed size (see {@link #getChunkSize()}).
+ * If the size is below a threshold (see {@link #getParallelThreshold()}) the loop is executed by the calling thread.
+ * Otherwise the chunks are distributed over the threads of the pool.
+ *
+ * For element-wise operations the result does not depend on the execution mode. For reductions (see {@link #sum(int, IntToDoubleFunction)})
+ * the chunk boundaries and the order in which the partial results are combined are fixed, such that the result does
+ * not depend on the number of threads or on the scheduling of the tasks.
+ *
+ * Index ranges exceeding <code>Integer.MAX_VALUE</code> (e.g. of off-heap storage) are supported by
+ * {@link #forEachChunkOfLongRange(long, LongChunkOperation)}.
+ *
+ * The executor is configured by the system properties
+ * <ul>
+ * 	<li><code>net.finmath.montecarlo.ParallelChunkExecutor.threshold</code>: the minimum size for parallel execution (default 262144, use 0 to disable),</li>
+ * 	<li><code>net.finmath.montecarlo.ParallelChunkExecutor.chunkSize</code>: the number of elements of a chunk (default 16384),</li>
+ * 	<li><code>net.finmath.montecarlo.ParallelChunkExecutor.parallelism</code>: the number of threads of the pool (default: number of available processors).</li>
+ * </ul>
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class ParallelChunkExecutor {
+
+	private static final int parallelThreshold = Integer.parseInt(System.getProperty("net.finmath.montecarlo.ParallelChunkExecutor.threshold", "262144"));
+	private static final int chunkSize = Math.max(Integer.parseInt(System.getProperty("net.finmath.montecarlo.ParallelChunkExecutor.chunkSize", "16384")), 1);
+	private static final int parallelism = Integer.parseInt(System.getProperty("net.finmath.montecarlo.ParallelChunkExecutor.parallelism", String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+	private static final ForkJoinPool pool = new ForkJoinPool(Math.max(parallelism, 1), new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+		@Override
+		public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+			final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("finmath-parallel-chunk-" + thread.getPoolIndex());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}, null, false);
+
+	/**
+	 * An operation applied to the elements with index in <code>[start, end)</code>.
+	 *
+	 * @author Christian Fries
+	 */
+	@FunctionalInterface
+	public interface ChunkOperation {
+		void apply(int start, int end);
+	}
+
+	/**
+	 * An operation applied to the elements with (long) index in <code>[start, end)</code>.
+	 *
+	 * @author Christian Fries
+	 */
+	@FunctionalInterface
+	public interface LongChunkOperation {
+		void apply(long start, long end);
+	}
+
+	private ParallelChunkExecutor() {
+	}
+
+	/**
+	 * @return The minimum number of elements for which a loop is executed in parallel (0 if parallel execution is disabled).
+	 */
+	public static int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * @return The number of elements of a chunk.
+	 */
+	public static int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * @return The pool executing the chunks.
+	 */
+	public static ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Returns true if a loop over the given number of elements is split into chunks. The chunks are executed
+	 * in parallel if the parallelism of the pool is greater than 1.
+	 *
+	 * @param size The number of elements.
+	 * @return True if a loop over the given number of elements is split into chunks.
+	 */
+	public static boolean isParallel(final int size) {
+		return isParallel((long)size);
+	}
+
+	/**
+	 * Returns true if a loop over the given number of elements is split into chunks. The chunks are executed
+	 * in parallel if the parallelism of the pool is greater than 1.
+	 *
+	 * @param size The number of elements.
+	 * @return True if a loop over the given number of elements is split into chunks.
+	 */
+	public static boolean isParallel(final long size) {
+		return parallelThreshold > 0 && size >= parallelThreshold && size > chunkSize;
+	}
+
+	/**
+	 * Apply the operation to all chunks of the index range <code>[0, size)</code>.
+	 * The operation may be called concurrently for different chunks.
+	 *
+	 * @param size The number of elements.
+	 * @param operation The operation applied to the chunks.
+	 */
+	public static void forEachChunk(final int size, final ChunkOperation operation) {
+		if(!isParallel(size)) {
+			operation.apply(0, size);
+			return;
+		}
+
+		forEachChunkIndex(getNumberOfChunks(size), chunkIndex -> operation.apply(chunkIndex * chunkSize, (int)Math.min((chunkIndex+1L) * chunkSize, size)));
+	}
+
+	/**
+	 * Apply the operation to all chunks of the index range <code>[0, size)</code>, where the size may exceed <code>Integer.MAX_VALUE</code>.
+	 * The chunk boundaries are multiples of {@link #getChunkSize()}.
+	 * The operation may be called concurrently for different chunks.
+	 *
+	 * @param size The number of elements.
+	 * @param operation The operation applied to the chunks.
+	 */
+	public static void forEachChunkOfLongRange(final long size, final LongChunkOperation operation) {
+		if(!isParallel(size)) {
+			operation.apply(0, size);
+			return;
+		}
+
+		final long numberOfChunks = (size + chunkSize - 1) / chunkSize;
+		if(numberOfChunks > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Size " + size + " requires more than Integer.MAX_VALUE chunks. Increase the chunk size.");
+		}
+		forEachChunkIndex((int)numberOfChunks, chunkIndex -> operation.apply((long)chunkIndex * chunkSize, Math.min((chunkIndex+1L) * chunkSize, size)));
+	}
+
+	private static void forEachChunkIndex(final int numberOfChunks, final IntConsumer chunkOperation) {
+		if(parallelism <= 1) {
+			for(int chunkIndex=0; chunkIndex<numberOfChunks; chunkIndex++) {
+				chunkOperation.accept(chunkIndex);
+			}
+			return;
+		}
+
+		invoke(new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void compute() {
+				forEachChunk(0, numberOfChunks);
+			}
+
+			private void forEachChunk(final int chunkStart, final int chunkEnd) {
+				if(chunkEnd - chunkStart == 1) {
+					chunkOperation.accept(chunkStart);
+				}
+				else {
+					final int chunkMid = (chunkStart + chunkEnd) >>> 1;
+					invokeAll(new RecursiveAction() {
+						private static final long serialVersionUID = 1L;
+
+						@Override
+						protected void compute() {
+							forEachChunk(chunkStart, chunkMid);
+						}
+					}, new RecursiveAction() {
+						private static final long serialVersionUID = 1L;
+
+						@Override
+						protected void compute() {
+							forEachChunk(chunkMid, chunkEnd);
+						}
+					});
+				}
+			}
+		});
+	}
+
+	/**
+	 * Returns the sum of <code>summand.applyAsDouble(i)</code> for <code>i</code> in <code>[0, size)</code>, using Kahan summation.
+	 *
+	 * If the loop is executed in parallel (see {@link #isParallel(int)}), each chunk is summed separately and the partial sums
+	 * are combined in the order of the chunks. The result is hence deterministic, i.e., independent of the number of threads.
+	 *
+	 * @param size The number of elements.
+	 * @param summand The function mapping an index to the summand.
+	 * @return The sum.
+	 */
+	public static double sum(final int size, final IntToDoubleFunction summand) {
+		if(!isParallel(size)) {
+			return sum(0, size, summand);
+		}
+
+		final double[] partialSums = new double[getNumberOfChunks(size)];
+		forEachChunk(size, (start, end) -> partialSums[start / chunkSize] = sum(start, end, summand));
+
+		/*
+		 * Kahan summation on the partial sums (in the order of the chunks)
+		 */
+		double sum = 0.0;
+		double error = 0.0;
+		for(final double partialSum : partialSums) {
+			final double value = partialSum - error;
+			final double newSum = sum + value;
+			error = (newSum - sum) - value;
+			sum = newSum;
+		}
+		return sum;
+	}
+
+	private static double sum(final int start, final int end, final IntToDoubleFunction summand) {
+		double sum = 0.0;								// Running sum
+		double error = 0.0;								// Running error compensation
+		for(int i=start; i<end; i++)  {
+			final double value = summand.applyAsDouble(i) - error;		// Error corrected value
+			final double newSum = sum + value;			// New sum
+			error = (newSum - sum) - value;				// New numerical error
+			sum	= newSum;
+		}
+		return sum;
+	}
+
+	private static int getNumberOfChunks(final int size) {
+		return (int)((size + (long)chunkSize - 1) / chunkSize);
+	}
+
+	private static void invoke(final RecursiveAction task) {
+		if(isWorkerOfPool()) {
+			// Called from a worker of the pool (nested loop): execute in the current task
+			task.invoke();
+		}
+		else {
+			pool.invoke(task);
+		}
+	}
+
+	private static boolean isWorkerOfPool() {
+		final Thread thread = Thread.currentThread();
+		return thread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread)thread).getPool() == pool;
+	}
+}
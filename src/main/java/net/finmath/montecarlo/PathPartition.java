@@ -0,0 +1,158 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A partition of the paths <i>0, ..., n-1</i> into contiguous shards, e.g., for the distribution of a simulation over several devices.
+ *
+ * The shard <i>i</i> consists of the paths <i>start(i), ..., start(i+1)-1</i>. The partition is either balanced
+ * (the sizes of the shards differ by at most one) or proportional to given weights (e.g. the throughput of the devices).
+ *
+ * The class is immutable and thread safe.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class PathPartition implements Serializable {
+
+	private static final long serialVersionUID = 1672360593457329451L;
+
+	// The start of each shard, followed by the number of paths
+	private final int[] shardStarts;
+
+	/**
+	 * Create a balanced partition, i.e., the sizes of the shards differ by at most one.
+	 *
+	 * @param numberOfPaths The number of paths.
+	 * @param numberOfShards The number of shards (at least 1).
+	 */
+	public PathPartition(final int numberOfPaths, final int numberOfShards) {
+		this(numberOfPaths, getEqualWeights(numberOfShards));
+	}
+
+	/**
+	 * Create a partition with shard sizes proportional to the given weights. The sizes are rounded such that
+	 * the start of a shard is the rounded cumulated weight of the previous shards.
+	 *
+	 * @param numberOfPaths The number of paths.
+	 * @param weights The (non-negative) weights of the shards.
+	 */
+	public PathPartition(final int numberOfPaths, final double[] weights) {
+		super();
+		if(numberOfPaths < 0) {
+			throw new IllegalArgumentException("The number of paths must not be negative.");
+		}
+		if(weights.length < 1) {
+			throw new IllegalArgumentException("The number of shards must be positive.");
+		}
+
+		double totalWeight = 0.0;
+		for(final double weight : weights) {
+			if(!(weight >= 0.0)) {
+				throw new IllegalArgumentException("The weights must be non-negative.");
+			}
+			totalWeight += weight;
+		}
+		if(!(totalWeight > 0.0)) {
+			throw new IllegalArgumentException("The sum of the weights must be positive.");
+		}
+
+		shardStarts = new int[weights.length+1];
+		double cumulatedWeight = 0.0;
+		for(int shardIndex=0; shardIndex<weights.length; shardIndex++) {
+			shardStarts[shardIndex] = (int)Math.min(Math.round(numberOfPaths * (cumulatedWeight / totalWeight)), numberOfPaths);
+			cumulatedWeight += weights[shardIndex];
+		}
+		shardStarts[weights.length] = numberOfPaths;
+	}
+
+	/**
+	 * @return The number of shards.
+	 */
+	public int getNumberOfShards() {
+		return shardStarts.length-1;
+	}
+
+	/**
+	 * @return The number of paths.
+	 */
+	public int getNumberOfPaths() {
+		return shardStarts[shardStarts.length-1];
+	}
+
+	/**
+	 * @param shardIndex The index of the shard.
+	 * @return The index of the first path of the shard.
+	 */
+	public int getShardStart(final int shardIndex) {
+		return shardStarts[shardIndex];
+	}
+
+	/**
+	 * @param shardIndex The index of the shard.
+	 * @return The number of paths of the shard.
+	 */
+	public int getShardSize(final int shardIndex) {
+		return shardStarts[shardIndex+1] - shardStarts[shardIndex];
+	}
+
+	/**
+	 * Returns the shard containing the given path. If shards are empty, the last shard starting at the path is returned.
+	 *
+	 * @param path The index of the path.
+	 * @return The index of the shard containing the path.
+	 */
+	public int getShard(final int path) {
+		if(path < 0 || path >= getNumberOfPaths()) {
+			throw new IndexOutOfBoundsException("Path " + path + " not in [0, " + getNumberOfPaths() + ").");
+		}
+		int lower = 0;
+		int upper = getNumberOfShards()-1;
+		while(lower < upper) {
+			final int middle = (lower + upper + 1) >>> 1;
+			if(shardStarts[middle] <= path) {
+				lower = middle;
+			}
+			else {
+				upper = middle-1;
+			}
+		}
+		return lower;
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		if(this == o) {
+			return true;
+		}
+		if(o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		return Arrays.equals(shardStarts, ((PathPartition)o).shardStarts);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(shardStarts);
+	}
+
+	@Override
+	public String toString() {
+		return "PathPartition [shardStarts=" + Arrays.toString(shardStarts) + "]";
+	}
+
+	private static double[] getEqualWeights(final int numberOfShards) {
+		if(numberOfShards < 1) {
+			throw new IllegalArgumentException("The number of shards must be positive.");
+		}
+		final double[] weights = new double[numberOfShards];
+		Arrays.fill(weights, 1.0);
+		return weights;
+	}
+}
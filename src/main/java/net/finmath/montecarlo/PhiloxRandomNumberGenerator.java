@@ -0,0 +1,83 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+/**
+ * The counter based random number generator Philox4x32-10 of Salmon, Moraes, Dror, Shaw:
+ * "Parallel random numbers: as easy as 1, 2, 3" (SC11).
+ *
+ * The generator maps a 128 bit counter and a 64 bit key to four 32 bit random integers by
+ * 10 rounds of a bijection. In contrast to a sequential generator, the random numbers for a given counter can be calculated
+ * independently, e.g., the random number for (seed, time index, factor, path) can be calculated in any order
+ * and on any thread.
+ *
+ * The class is a stateless utility.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public final class PhiloxRandomNumberGenerator {
+
+	private static final int	PHILOX_M0 = 0xD2511F53;
+	private static final int	PHILOX_M1 = 0xCD9E8D57;
+	private static final int	PHILOX_W0 = 0x9E3779B9;
+	private static final int	PHILOX_W1 = 0xBB67AE85;
+
+	private static final int	NUMBER_OF_ROUNDS = 10;
+
+	private static final double	TWO_POW_MINUS_52 = 1.0 / (1L << 52);
+
+	private PhiloxRandomNumberGenerator() {
+	}
+
+	/**
+	 * Calculates the four 32 bit random integers for the given key and counter.
+	 *
+	 * @param key0 First word of the key.
+	 * @param key1 Second word of the key.
+	 * @param counter0 First word of the counter.
+	 * @param counter1 Second word of the counter.
+	 * @param counter2 Third word of the counter.
+	 * @param counter3 Fourth word of the counter.
+	 * @param result Array of length (at least) 4 receiving the random integers.
+	 */
+	public static void generate(int key0, int key1, int counter0, int counter1, int counter2, int counter3, final int[] result) {
+		for(int round=0; round<NUMBER_OF_ROUNDS; round++) {
+			if(round > 0) {
+				key0 += PHILOX_W0;
+				key1 += PHILOX_W1;
+			}
+
+			final long product0 = (PHILOX_M0 & 0xFFFFFFFFL) * (counter0 & 0xFFFFFFFFL);
+			final long product1 = (PHILOX_M1 & 0xFFFFFFFFL) * (counter2 & 0xFFFFFFFFL);
+
+			final int newCounter0 = (int)(product1 >>> 32) ^ counter1 ^ key0;
+			final int newCounter2 = (int)(product0 >>> 32) ^ counter3 ^ key1;
+			counter1 = (int)product1;
+			counter3 = (int)product0;
+			counter0 = newCounter0;
+			counter2 = newCounter2;
+		}
+
+		result[0] = counter0;
+		result[1] = counter1;
+		result[2] = counter2;
+		result[3] = counter3;
+	}
+
+	/**
+	 * Returns a uniform random number in the open interval (0,1) with 52 bit resolution, calculated from two 32 bit random integers.
+	 * The result is the midpoint of one of 2<sup>52</sup> intervals of equal length, such that 0 and 1 are excluded.
+	 *
+	 * @param high The random integer providing the upper 26 bits.
+	 * @param low The random integer providing the lower 26 bits.
+	 * @return A uniform random number in (0,1).
+	 */
+	public static double getUniform(final int high, final int low) {
+		final long bits = ((long)(high >>> 6) << 26) | (low >>> 6);
+		return (bits + 0.5) * TWO_POW_MINUS_52;
+	}
+}
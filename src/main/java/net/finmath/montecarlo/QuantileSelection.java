@@ -0,0 +1,284 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+
+/**
+ * Selection-based calculation of quantiles and quantile expectations of a vector of floats.
+ *
+ * Instead of sorting a clone of the vector (O(n log n)), the values at the requested positions of the
+ * sorted vector are determined by an introspective multi-selection (quick-select with median-of-three pivot and
+ * three-way partitioning, falling back to sorting if the recursion becomes too deep), which is O(n) for a single
+ * quantile and O(n log m) for m quantiles requested in one call.
+ *
+ * The selection operates on a per-thread scratch buffer which is re-used by subsequent calls (it is held by a
+ * soft reference, hence released under memory pressure). The given vector is not modified.
+ *
+ * The ordering is that of {@link Float#compare(float, float)}, i.e., the same as that of {@link Arrays#sort(float[])}.
+ * The positions are defined as in {@link RandomVariableFromFloatArray#getQuantile(double)}.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class QuantileSelection {
+
+	private static final int insertionSortThreshold = 16;
+
+	private static final ThreadLocal<SoftReference<float[]>> scratchBuffer = new ThreadLocal<>();
+
+	private QuantileSelection() {
+	}
+
+	/**
+	 * Returns the position of the quantile in the sorted vector.
+	 *
+	 * @param size The size of the vector.
+	 * @param quantile The quantile level.
+	 * @return The position of the quantile value in the sorted vector.
+	 */
+	public static int getIndexOfQuantile(final int size, final double quantile) {
+		return Math.min(Math.max((int)Math.round((size+1) * quantile - 1), 0), size-1);
+	}
+
+	/**
+	 * Returns the quantiles of the given values.
+	 *
+	 * @param values The values (not modified).
+	 * @param quantiles The quantile levels.
+	 * @return The quantile values, one for each quantile level.
+	 */
+	public static double[] getQuantiles(final float[] values, final double... quantiles) {
+		final int[] positions = new int[quantiles.length];
+		for(int i=0; i<quantiles.length; i++) {
+			positions[i] = getIndexOfQuantile(values.length, quantiles[i]);
+		}
+
+		final float[] work = getScratchCopy(values);
+		select(work, 0, values.length, getSortedDistinct(positions), 0, getMaximumDepth(values.length));
+
+		final double[] result = new double[quantiles.length];
+		for(int i=0; i<quantiles.length; i++) {
+			result[i] = work[positions[i]];
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the average of the values with positions from the position of <code>quantileStart</code> to
+	 * the position of <code>quantileEnd</code> (inclusive) in the sorted vector.
+	 *
+	 * @param values The values (not modified).
+	 * @param quantileStart Lower quantile level.
+	 * @param quantileEnd Upper quantile level.
+	 * @return The quantile expectation.
+	 */
+	public static double getQuantileExpectation(final float[] values, final double quantileStart, final double quantileEnd) {
+		final int indexStart	= getIndexOfQuantile(values.length, Math.min(quantileStart, quantileEnd));
+		final int indexEnd		= getIndexOfQuantile(values.length, Math.max(quantileStart, quantileEnd));
+
+		final float[] work = getScratchCopy(values);
+		select(work, 0, values.length, getSortedDistinct(new int[] { indexStart, indexEnd }), 0, getMaximumDepth(values.length));
+
+		// After the selection, the positions [indexStart, indexEnd] hold the values of these positions of the sorted vector (in some order).
+		double quantileExpectation = 0.0;
+		for(int i=indexStart; i<=indexEnd; i++) {
+			quantileExpectation += work[i];
+		}
+		return quantileExpectation / (indexEnd-indexStart+1);
+	}
+
+	/**
+	 * Returns the quantile of the given values with respect to the given weights, i.e., the smallest value <i>x</i>
+	 * such that the sum of the weights of the values less or equal to <i>x</i> is greater or equal to <code>quantile</code>
+	 * times the sum of all weights.
+	 *
+	 * @param values The values (not modified).
+	 * @param weights The (non-negative) weights of the values (not modified).
+	 * @param quantile The quantile level.
+	 * @return The quantile value.
+	 */
+	public static double getQuantile(final float[] values, final double[] weights, final double quantile) {
+		final float[] work = values.clone();
+		final double[] workWeights = weights.clone();
+
+		double totalWeight = 0.0;
+		for(final double weight : workWeights) {
+			totalWeight += weight;
+		}
+		double target = quantile * totalWeight;
+
+		int from = 0;
+		int to = work.length;
+		while(to - from > 1) {
+			final float pivot = getPivot(work, from, to);
+
+			// Three-way partition of the values, moving the weights along
+			int lt = from;
+			int gt = to;
+			int i = from;
+			double weightLess = 0.0;
+			double weightEqual = 0.0;
+			while(i < gt) {
+				final int comparison = Float.compare(work[i], pivot);
+				if(comparison < 0) {
+					weightLess += workWeights[i];
+					swap(work, workWeights, lt++, i++);
+				}
+				else if(comparison > 0) {
+					swap(work, workWeights, i, --gt);
+				}
+				else {
+					weightEqual += workWeights[i];
+					i++;
+				}
+			}
+
+			if(target <= weightLess && lt > from) {
+				to = lt;
+			}
+			else if(target <= weightLess + weightEqual || gt == to) {
+				return pivot;
+			}
+			else {
+				target -= weightLess + weightEqual;
+				from = gt;
+			}
+		}
+		return work[from];
+	}
+
+	/**
+	 * Returns the maximum number of partitioning steps of the selection of n values, 2 floor(log<sub>2</sub>(n)).
+	 * The limit depends on the number of values selected, not on the length of the (possibly larger, re-used) array holding them.
+	 */
+	private static int getMaximumDepth(final int n) {
+		return n > 0 ? 2 * (31 - Integer.numberOfLeadingZeros(n)) : 0;
+	}
+
+	/**
+	 * Partially orders the range [from, to) of the array such that the elements at the given positions are the elements
+	 * of the sorted array, all elements before a position are less or equal and all elements after a position are greater or equal.
+	 * If the number of partitioning steps exceeds maximumDepth, the remaining range is sorted.
+	 */
+	private static void select(final float[] a, int from, int to, final int[] positions, final int depth, final int maximumDepth) {
+		int positionsFrom = 0;
+		int positionsTo = positions.length;
+		int depthLocal = depth;
+		while(true) {
+			// Restrict positions to [from, to)
+			while(positionsFrom < positionsTo && positions[positionsFrom] < from) {
+				positionsFrom++;
+			}
+			while(positionsTo > positionsFrom && positions[positionsTo-1] >= to) {
+				positionsTo--;
+			}
+			if(positionsFrom == positionsTo) {
+				return;
+			}
+
+			if(to - from <= insertionSortThreshold) {
+				insertionSort(a, from, to);
+				return;
+			}
+			if(depthLocal > maximumDepth) {
+				// Introspective fallback: guarantee O(n log n) in the worst case
+				Arrays.sort(a, from, to);
+				return;
+			}
+			depthLocal++;
+
+			final float pivot = getPivot(a, from, to);
+
+			// Three-way partition: [from, lt) < pivot, [lt, gt) == pivot, [gt, to) > pivot
+			int lt = from;
+			int gt = to;
+			int i = from;
+			while(i < gt) {
+				final int comparison = Float.compare(a[i], pivot);
+				if(comparison < 0) {
+					swap(a, lt++, i++);
+				}
+				else if(comparison > 0) {
+					swap(a, i, --gt);
+				}
+				else {
+					i++;
+				}
+			}
+
+			// Recurse on the smaller side with positions, iterate on the other
+			if(lt - from < to - gt) {
+				select(a, from, lt, Arrays.copyOfRange(positions, positionsFrom, positionsTo), depthLocal, maximumDepth);
+				from = gt;
+			}
+			else {
+				select(a, gt, to, Arrays.copyOfRange(positions, positionsFrom, positionsTo), depthLocal, maximumDepth);
+				to = lt;
+			}
+		}
+	}
+
+	private static float getPivot(final float[] a, final int from, final int to) {
+		final float x = a[from];
+		final float y = a[(from + to) >>> 1];
+		final float z = a[to-1];
+		// Median of three
+		if(Float.compare(x, y) < 0) {
+			if(Float.compare(y, z) < 0) {
+				return y;
+			}
+			return Float.compare(x, z) < 0 ? z : x;
+		}
+		else {
+			if(Float.compare(x, z) < 0) {
+				return x;
+			}
+			return Float.compare(y, z) < 0 ? z : y;
+		}
+	}
+
+	private static void insertionSort(final float[] a, final int from, final int to) {
+		for(int i=from+1; i<to; i++) {
+			final float value = a[i];
+			int j = i-1;
+			while(j >= from && Float.compare(a[j], value) > 0) {
+				a[j+1] = a[j];
+				j--;
+			}
+			a[j+1] = value;
+		}
+	}
+
+	private static void swap(final float[] a, final int i, final int j) {
+		final float temp = a[i];
+		a[i] = a[j];
+		a[j] = temp;
+	}
+
+	private static void swap(final float[] a, final double[] weights, final int i, final int j) {
+		swap(a, i, j);
+		final double temp = weights[i];
+		weights[i] = weights[j];
+		weights[j] = temp;
+	}
+
+	private static int[] getSortedDistinct(final int[] positions) {
+		return Arrays.stream(positions).sorted().distinct().toArray();
+	}
+
+	private static float[] getScratchCopy(final float[] values) {
+		final SoftReference<float[]> reference = scratchBuffer.get();
+		float[] buffer = reference != null ? reference.get() : null;
+		if(buffer == null || buffer.length < values.length) {
+			buffer = new float[values.length];
+			scratchBuffer.set(new SoftReference<>(buffer));
+		}
+		System.arraycopy(values, 0, buffer, 0, values.length);
+		return buffer;
+	}
+}
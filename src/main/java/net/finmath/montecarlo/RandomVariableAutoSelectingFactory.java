@@ -0,0 +1,339 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+
+package net.finmath.montecarlo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.finmath.montecarlo.cuda.RandomVariableCudaFactory;
+import net.finmath.montecarlo.opencl.RandomVariableOpenCLFactory;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Factory selecting for each random variable the backend (CPU float, Cuda, OpenCL) with the lowest estimated cost,
+ * given its number of paths.
+ *
+ * On construction the candidate backends are probed (a device backend is available only if its device could be initialized)
+ * and each available backend is calibrated by timing an operation mix (creation from host values, some element-wise
+ * operations and a reduction) for a small and a large number of paths. This gives a linear cost model
+ * <i>c(n) = a + b n</i> for each backend, where <i>a</i> is the fixed cost (e.g. kernel launches and synchronization)
+ * and <i>b</i> is the cost per path. A random variable with <i>n</i> paths is created by the backend with the lowest
+ * <i>c(n)</i>, i.e., small vectors stay on the CPU, large vectors go to the device.
+ *
+ * The first candidate (by default the CPU float implementation {@link RandomVariableFloatFactory}) is the fallback and is
+ * preferred on ties. On a machine without a device it is the only backend.
+ * Deterministic random variables are always created by the fallback (their type priority is lower than the one of the device vectors,
+ * hence operations combining them with device vectors are performed on the device).
+ *
+ * The candidates of the default constructor are given by the system property
+ * <code>net.finmath.montecarlo.RandomVariableAutoSelectingFactory.backends</code> (a comma separated list of
+ * <code>float</code>, <code>cuda</code>, <code>opencl</code>, default all). Their calibration is performed once per JVM.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RandomVariableAutoSelectingFactory extends AbstractRandomVariableFactory implements FloatArrayRandomVariableFactory {
+
+	private static final long serialVersionUID = -5412873106420857736L;
+
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	private static final String	defaultBackends = System.getProperty("net.finmath.montecarlo.RandomVariableAutoSelectingFactory.backends", "float,cuda,opencl");
+
+	private static final int	defaultSmallNumberOfPaths = 1 << 10;
+	private static final int	defaultLargeNumberOfPaths = 1 << 18;
+	private static final int	numberOfRepetitions = 3;
+
+	/**
+	 * The default operation mix used for the calibration.
+	 */
+	public static final UnaryOperator<RandomVariable> DEFAULT_OPERATION_MIX = x -> x.mult(x).add(x.exp()).sqrt().cap(2.0).floor(0.0).addProduct(x, 0.5);
+
+	private final String[]							backendNames;
+	private final AbstractRandomVariableFactory[]	factories;
+	private final double[]							fixedCosts;
+	private final double[]							costsPerPath;
+
+	/**
+	 * Lazy initialization of the calibration of the default candidates (once per JVM).
+	 */
+	private static class DefaultCalibration {
+		private static final RandomVariableAutoSelectingFactory instance = new RandomVariableAutoSelectingFactory(getDefaultCandidates(), DEFAULT_OPERATION_MIX, defaultSmallNumberOfPaths, defaultLargeNumberOfPaths);
+	}
+
+	/**
+	 * Create a factory with the given cost model, e.g. from a previous calibration.
+	 *
+	 * @param backendNames The names of the backends.
+	 * @param factories The factories of the backends, where the first is the fallback.
+	 * @param fixedCosts The fixed cost of each backend (in nanoseconds).
+	 * @param costsPerPath The cost per path of each backend (in nanoseconds).
+	 */
+	public RandomVariableAutoSelectingFactory(final String[] backendNames, final AbstractRandomVariableFactory[] factories, final double[] fixedCosts, final double[] costsPerPath) {
+		super();
+		if(factories.length == 0) {
+			throw new IllegalArgumentException("At least one backend is required.");
+		}
+		if(backendNames.length != factories.length || fixedCosts.length != factories.length || costsPerPath.length != factories.length) {
+			throw new IllegalArgumentException("The number of names or costs does not match the number of backends.");
+		}
+		this.backendNames = backendNames.clone();
+		this.factories = factories.clone();
+		this.fixedCosts = fixedCosts.clone();
+		this.costsPerPath = costsPerPath.clone();
+	}
+
+	/**
+	 * Create a factory by probing and calibrating the given candidate backends.
+	 *
+	 * @param candidates The candidate backends given by name and a supplier of the factory. The first available candidate is the fallback.
+	 * @param operationMix The operation mix used for the calibration (applied to a random variable created from host values, followed by <code>getAverage()</code>).
+	 * @param smallNumberOfPaths The small number of paths used for the calibration.
+	 * @param largeNumberOfPaths The large number of paths used for the calibration.
+	 */
+	public RandomVariableAutoSelectingFactory(final Map<String, Supplier<AbstractRandomVariableFactory>> candidates, final UnaryOperator<RandomVariable> operationMix, final int smallNumberOfPaths, final int largeNumberOfPaths) {
+		this(calibrate(candidates, operationMix, smallNumberOfPaths, largeNumberOfPaths));
+	}
+
+	/**
+	 * Create a factory by probing and calibrating the given candidate backends for the given operation mix.
+	 *
+	 * @param candidates The candidate backends given by name and a supplier of the factory. The first available candidate is the fallback.
+	 * @param operationMix The operation mix used for the calibration (applied to a random variable created from host values, followed by <code>getAverage()</code>).
+	 */
+	public RandomVariableAutoSelectingFactory(final Map<String, Supplier<AbstractRandomVariableFactory>> candidates, final UnaryOperator<RandomVariable> operationMix) {
+		this(candidates, operationMix, defaultSmallNumberOfPaths, defaultLargeNumberOfPaths);
+	}
+
+	/**
+	 * Create a factory selecting from the default candidates, which are probed and calibrated once per JVM.
+	 */
+	public RandomVariableAutoSelectingFactory() {
+		this(DefaultCalibration.instance);
+	}
+
+	private RandomVariableAutoSelectingFactory(final RandomVariableAutoSelectingFactory calibratedFactory) {
+		this(calibratedFactory.backendNames, calibratedFactory.factories, calibratedFactory.fixedCosts, calibratedFactory.costsPerPath);
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double value) {
+		return factories[0].createRandomVariable(time, value);
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double[] values) {
+		return getRandomVariableFactory(values.length).createRandomVariable(time, values);
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final float[] values) {
+		final AbstractRandomVariableFactory factory = getRandomVariableFactory(values.length);
+		if(factory instanceof FloatArrayRandomVariableFactory) {
+			return ((FloatArrayRandomVariableFactory)factory).createRandomVariable(time, values);
+		}
+		else {
+			final double[] doubleValues = new double[values.length];
+			for(int i=0; i<values.length; i++) {
+				doubleValues[i] = values[i];
+			}
+			return factory.createRandomVariable(time, doubleValues);
+		}
+	}
+
+	/**
+	 * Returns the index of the backend with the lowest estimated cost for the given number of paths.
+	 *
+	 * @param numberOfPaths The number of paths.
+	 * @return The index of the backend.
+	 */
+	public int getBackendIndex(final int numberOfPaths) {
+		int bestBackendIndex = 0;
+		double bestCost = getEstimatedCost(0, numberOfPaths);
+		for(int backendIndex=1; backendIndex<factories.length; backendIndex++) {
+			final double cost = getEstimatedCost(backendIndex, numberOfPaths);
+			if(cost < bestCost) {
+				bestBackendIndex = backendIndex;
+				bestCost = cost;
+			}
+		}
+		return bestBackendIndex;
+	}
+
+	/**
+	 * @param numberOfPaths The number of paths.
+	 * @return The factory of the backend with the lowest estimated cost for the given number of paths.
+	 */
+	public AbstractRandomVariableFactory getRandomVariableFactory(final int numberOfPaths) {
+		return factories[getBackendIndex(numberOfPaths)];
+	}
+
+	/**
+	 * @param backendIndex The index of the backend.
+	 * @param numberOfPaths The number of paths.
+	 * @return The estimated cost of the operation mix for the given number of paths on the given backend (in nanoseconds).
+	 */
+	public double getEstimatedCost(final int backendIndex, final int numberOfPaths) {
+		return fixedCosts[backendIndex] + costsPerPath[backendIndex] * numberOfPaths;
+	}
+
+	/**
+	 * @return The number of available backends.
+	 */
+	public int getNumberOfBackends() {
+		return factories.length;
+	}
+
+	/**
+	 * @param backendIndex The index of the backend.
+	 * @return The name of the backend.
+	 */
+	public String getBackendName(final int backendIndex) {
+		return backendNames[backendIndex];
+	}
+
+	/**
+	 * @param backendIndex The index of the backend.
+	 * @return The fixed cost of the backend (in nanoseconds).
+	 */
+	public double getFixedCost(final int backendIndex) {
+		return fixedCosts[backendIndex];
+	}
+
+	/**
+	 * @param backendIndex The index of the backend.
+	 * @return The cost per path of the backend (in nanoseconds).
+	 */
+	public double getCostPerPath(final int backendIndex) {
+		return costsPerPath[backendIndex];
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder string = new StringBuilder(super.toString());
+		for(int backendIndex=0; backendIndex<factories.length; backendIndex++) {
+			string.append("\n").append(backendNames[backendIndex]).append(": fixed cost = ").append(fixedCosts[backendIndex]).append(" ns, cost per path = ").append(costsPerPath[backendIndex]).append(" ns");
+		}
+		return string.toString();
+	}
+
+	/**
+	 * @return The candidates of the default constructor, given by the system property <code>net.finmath.montecarlo.RandomVariableAutoSelectingFactory.backends</code>.
+	 */
+	public static Map<String, Supplier<AbstractRandomVariableFactory>> getDefaultCandidates() {
+		final Map<String, Supplier<AbstractRandomVariableFactory>> candidates = new LinkedHashMap<String, Supplier<AbstractRandomVariableFactory>>();
+		for(final String backendName : defaultBackends.split(",")) {
+			switch(backendName.trim().toLowerCase()) {
+			case "float":
+				candidates.put("float", RandomVariableFloatFactory::new);
+				break;
+			case "cuda":
+				candidates.put("cuda", RandomVariableCudaFactory::new);
+				break;
+			case "opencl":
+				candidates.put("opencl", RandomVariableOpenCLFactory::new);
+				break;
+			case "":
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown backend " + backendName + ".");
+			}
+		}
+		return candidates;
+	}
+
+	private static RandomVariableAutoSelectingFactory calibrate(final Map<String, Supplier<AbstractRandomVariableFactory>> candidates, final UnaryOperator<RandomVariable> operationMix, final int smallNumberOfPaths, final int largeNumberOfPaths) {
+		if(smallNumberOfPaths <= 0 || largeNumberOfPaths <= smallNumberOfPaths) {
+			throw new IllegalArgumentException("The calibration requires 0 < smallNumberOfPaths < largeNumberOfPaths.");
+		}
+
+		final double[] smallValues = getCalibrationValues(smallNumberOfPaths);
+		final double[] largeValues = getCalibrationValues(largeNumberOfPaths);
+
+		final List<String> backendNames = new ArrayList<String>();
+		final List<AbstractRandomVariableFactory> factories = new ArrayList<AbstractRandomVariableFactory>();
+		final List<double[]> costs = new ArrayList<double[]>();
+		for(final Map.Entry<String, Supplier<AbstractRandomVariableFactory>> candidate : candidates.entrySet()) {
+			final AbstractRandomVariableFactory factory;
+			final double costOfSmall;
+			final double costOfLarge;
+			try {
+				factory = candidate.getValue().get();
+
+				// Probe: the device may be missing (the class initialization fails) or not working properly
+				final RandomVariable probe = factory.createRandomVariable(0.0, new double[] { 1.0, 2.0, 3.0 });
+				if(Math.abs(probe.mult(2.0).getAverage() - 4.0) > 1E-6) {
+					logger.log(Level.INFO, "Backend " + candidate.getKey() + " is not available: probe failed.");
+					continue;
+				}
+
+				costOfSmall = getCost(factory, operationMix, smallValues);
+				costOfLarge = getCost(factory, operationMix, largeValues);
+			}
+			catch(final Throwable e) {
+				logger.log(Level.INFO, "Backend " + candidate.getKey() + " is not available: " + e);
+				continue;
+			}
+
+			final double costPerPath = Math.max((costOfLarge - costOfSmall) / (largeNumberOfPaths - smallNumberOfPaths), 0.0);
+			final double fixedCost = Math.max(costOfSmall - costPerPath * smallNumberOfPaths, 0.0);
+
+			backendNames.add(candidate.getKey());
+			factories.add(factory);
+			costs.add(new double[] { fixedCost, costPerPath });
+		}
+
+		if(factories.isEmpty()) {
+			throw new IllegalStateException("None of the backends " + candidates.keySet() + " is available.");
+		}
+
+		final double[] fixedCosts = new double[factories.size()];
+		final double[] costsPerPath = new double[factories.size()];
+		for(int backendIndex=0; backendIndex<factories.size(); backendIndex++) {
+			fixedCosts[backendIndex] = costs.get(backendIndex)[0];
+			costsPerPath[backendIndex] = costs.get(backendIndex)[1];
+		}
+
+		final RandomVariableAutoSelectingFactory factory = new RandomVariableAutoSelectingFactory(backendNames.toArray(new String[0]), factories.toArray(new AbstractRandomVariableFactory[0]), fixedCosts, costsPerPath);
+		logger.log(Level.FINE, "Calibrated " + factory);
+		return factory;
+	}
+
+	/**
+	 * Returns the minimum time of the operation mix (after a warm up), where the reduction synchronizes asynchronous backends.
+	 */
+	private static double getCost(final AbstractRandomVariableFactory factory, final UnaryOperator<RandomVariable> operationMix, final double[] values) {
+		double cost = Double.MAX_VALUE;
+		for(int repetition=0; repetition<=numberOfRepetitions; repetition++) {
+			final long start = System.nanoTime();
+			final double average = operationMix.apply(factory.createRandomVariable(0.0, values)).getAverage();
+			final long end = System.nanoTime();
+			if(Double.isNaN(average)) {
+				throw new ArithmeticException("The operation mix resulted in NaN.");
+			}
+			// The first run is the warm up
+			if(repetition > 0) {
+				cost = Math.min(cost, end - start);
+			}
+		}
+		return cost;
+	}
+
+	private static double[] getCalibrationValues(final int numberOfPaths) {
+		final double[] values = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			values[i] = (double)i / numberOfPaths - 0.5;
+		}
+		return values;
+	}
+}
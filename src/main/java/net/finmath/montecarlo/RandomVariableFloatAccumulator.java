@@ -0,0 +1,417 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Arrays;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * A mutable accumulator of float realizations, performing the operations in place on its own buffer, e.g., for loops like
+ * <code>drift = drift.addProduct(a, b)</code> where the intermediate results are never shared.
+ *
+ * The operations modify the accumulator and return it (allowing to chain the operations). The result is obtained by
+ * {@link #freeze()}, which returns an immutable {@link RandomVariableFromFloatArray} using the buffer of the accumulator
+ * without copying. After it has been frozen the accumulator cannot be modified anymore.
+ *
+ * The accumulator is always stochastic (a constant is stored in each path). The filtration time of the accumulator is the maximum of the
+ * filtration times of its arguments. The arithmetic is the same as the arithmetic of the corresponding operators of
+ * {@link RandomVariableFromFloatArray}. The realizations of a <code>RandomVariableFromFloatArray</code> argument are read directly,
+ * other arguments are converted to float. Arguments with a type priority above the priority of <code>RandomVariableFromFloatArray</code>
+ * (e.g., random variables on a device or random variables supporting automatic differentiation) are not supported, since the result
+ * of the operation would be of their type.
+ *
+ * For large sizes the operations are executed in parallel on the pool of {@link ParallelChunkExecutor}.
+ * The accumulator itself is not thread safe, i.e., it must not be modified concurrently.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RandomVariableFloatAccumulator {
+
+	private static final int maximumTypePriority = new RandomVariableFromFloatArray(0.0).getTypePriority();
+
+	private double	time;
+	private float[]	realizations;			// Null once frozen
+	private final int size;
+
+	/**
+	 * Create an accumulator with the given constant value in all paths.
+	 *
+	 * @param time The filtration time.
+	 * @param value The initial value.
+	 * @param size The number of paths.
+	 */
+	public RandomVariableFloatAccumulator(final double time, final double value, final int size) {
+		super();
+		this.time = time;
+		this.size = size;
+		realizations = new float[size];
+		Arrays.fill(realizations, (float)value);
+	}
+
+	/**
+	 * Create an accumulator with the value zero in all paths.
+	 *
+	 * @param time The filtration time.
+	 * @param size The number of paths.
+	 */
+	public RandomVariableFloatAccumulator(final double time, final int size) {
+		this(time, 0.0, size);
+	}
+
+	/**
+	 * Create an accumulator with the given initial value (the realizations are copied).
+	 *
+	 * @param initialValue The initial value.
+	 * @param size The number of paths (required if the initial value is deterministic, otherwise it has to agree with the size of the initial value).
+	 */
+	public RandomVariableFloatAccumulator(final RandomVariable initialValue, final int size) {
+		this(initialValue.getFiltrationTime(), size);
+		add(initialValue);
+	}
+
+	/**
+	 * Create an accumulator with the given stochastic initial value (the realizations are copied).
+	 *
+	 * @param initialValue The (stochastic) initial value.
+	 */
+	public RandomVariableFloatAccumulator(final RandomVariable initialValue) {
+		this(initialValue, initialValue.size());
+	}
+
+	/**
+	 * @return The filtration time of the accumulator.
+	 */
+	public double getFiltrationTime() {
+		return time;
+	}
+
+	/**
+	 * @return The number of paths.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return True if the accumulator has been frozen, i.e., it cannot be modified anymore.
+	 */
+	public boolean isFrozen() {
+		return realizations == null;
+	}
+
+	/**
+	 * Returns the value of the accumulator as an immutable random variable, using the buffer of the accumulator without copying.
+	 * The accumulator cannot be modified afterwards.
+	 *
+	 * @return The value of the accumulator.
+	 */
+	public RandomVariable freeze() {
+		final RandomVariable randomVariable = new RandomVariableFromFloatArray(time, getRealizations());
+		realizations = null;
+		return randomVariable;
+	}
+
+	/**
+	 * Adds a constant, i.e., <code>this = this + value</code>.
+	 *
+	 * @param value The value.
+	 * @return This accumulator.
+	 */
+	public RandomVariableFloatAccumulator add(final double value) {
+		final float[] realizations = getRealizations();
+		final float valueAsFloat = (float)value;
+		ParallelChunkExecutor.forEachChunk(size, (start, end) -> {
+			for(int i=start; i<end; i++) {
+				realizations[i] += valueAsFloat;
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Adds a random variable, i.e., <code>this = this + randomVariable</code>.
+	 *
+	 * @param randomVariable The random variable.
+	 * @return This accumulator.
+	 */
+	public RandomVariableFloatAccumulator add(final RandomVariable randomVariable) {
+		if(randomVariable.isDeterministic()) {
+			updateTime(randomVariable);
+			return add(randomVariable.doubleValue());
+		}
+
+		final float[] realizations = getRealizations();
+		final float[] values = getValuesOf(randomVariable);
+		ParallelChunkExecutor.forEachChunk(size, (start, end) -> {
+			for(int i=start; i<end; i++) {
+				realizations[i] += values[i];
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Multiplies by a constant, i.e., <code>this = this * value</code>.
+	 *
+	 * @param value The value.
+	 * @return This accumulator.
+	 */
+	public RandomVariableFloatAccumulator mult(final double value) {
+		final float[] realizations = getRealizations();
+		final float valueAsFloat = (float)value;
+		ParallelChunkExecutor.forEachChunk(size, (start, end) -> {
+			for(int i=start; i<end; i++) {
+				realizations[i] *= valueAsFloat;
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Multiplies by a random variable, i.e., <code>this = this * randomVariable</code>.
+	 *
+	 * @param randomVariable The random variable.
+	 * @return This accumulator.
+	 */
+	public RandomVariableFloatAccumulator mult(final RandomVariable randomVariable) {
+		if(randomVariable.isDeterministic()) {
+			updateTime(randomVariable);
+			return mult(randomVariable.doubleValue());
+		}
+
+		final float[] realizations = getRealizations();
+		final float[] values = getValuesOf(randomVariable);
+		ParallelChunkExecutor.forEachChunk(size, (start, end) -> {
+			for(int i=start; i<end; i++) {
+				realizations[i] *= values[i];
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Adds the product of a random variable and a constant, i.e., <code>this = this + factor1 * factor2</code>.
+	 *
+	 * @param factor1 The random variable.
+	 * @param factor2 The constant.
+	 * @return This accumulator.
+	 */
+	public RandomVariableFloatAccumulator addProduct(final RandomVariable factor1, final double factor2) {
+		if(factor1.isDeterministic()) {
+			updateTime(factor1);
+			return add(factor1.doubleValue() * factor2);
+		}
+
+		final float[] realizations = getRealizations();
+		final float[] values = getValuesOf(factor1);
+		final float factor2AsFloat = (float)factor2;
+		ParallelChunkExecutor.forEachChunk(size, (start, end) -> {
+			for(int i=start; i<end; i++) {
+				realizations[i] += values[i] * factor2AsFloat;
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Adds the product of two random variables, i.e., <code>this = this + factor1 * factor2</code>.
+	 *
+	 * @param factor1 The first factor.
+	 * @param factor2 The second factor.
+	 * @return This accumulator.
+	 */
+	public RandomVariableFloatAccumulator addProduct(final RandomVariable factor1, final RandomVariable factor2) {
+		if(factor2.isDeterministic()) {
+			updateTime(factor2);
+			return addProduct(factor1, factor2.doubleValue());
+		}
+		else if(factor1.isDeterministic()) {
+			updateTime(factor1);
+			return addProduct(factor2, factor1.doubleValue());
+		}
+
+		final float[] realizations = getRealizations();
+		final float[] values1 = getValuesOf(factor1);
+		final float[] values2 = getValuesOf(factor2);
+		ParallelChunkExecutor.forEachChunk(size, (start, end) -> {
+			for(int i=start; i<end; i++) {
+				realizations[i] += values1[i] * values2[i];
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Accrues with the given rate, i.e., <code>this = this * (1 + rate * periodLength)</code>.
+	 *
+	 * @param rate The rate.
+	 * @param periodLength The period length.
+	 * @return This accumulator.
+	 */
+	public RandomVariableFloatAccumulator accrue(final RandomVariable rate, final double periodLength) {
+		if(rate.isDeterministic()) {
+			updateTime(rate);
+			return mult(1.0 + rate.doubleValue() * periodLength);
+		}
+
+		final float[] realizations = getRealizations();
+		final float[] rates = getValuesOf(rate);
+		final float periodLengthAsFloat = (float)periodLength;
+		ParallelChunkExecutor.forEachChunk(size, (start, end) -> {
+			for(int i=start; i<end; i++) {
+				realizations[i] *= 1 + rates[i] * periodLengthAsFloat;
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Discounts with the given rate, i.e., <code>this = this / (1 + rate * periodLength)</code>.
+	 *
+	 * @param rate The rate.
+	 * @param periodLength The period length.
+	 * @return This accumulator.
+	 */
+	public RandomVariableFloatAccumulator discount(final RandomVariable rate, final double periodLength) {
+		if(rate.isDeterministic()) {
+			updateTime(rate);
+			final float[] realizations = getRealizations();
+			final float divisor = (float)(1.0 + rate.doubleValue() * periodLength);
+			ParallelChunkExecutor.forEachChunk(size, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					realizations[i] /= divisor;
+				}
+			});
+			return this;
+		}
+
+		final float[] realizations = getRealizations();
+		final float[] rates = getValuesOf(rate);
+		final float periodLengthAsFloat = (float)periodLength;
+		ParallelChunkExecutor.forEachChunk(size, (start, end) -> {
+			for(int i=start; i<end; i++) {
+				realizations[i] /= 1.0f + rates[i] * periodLengthAsFloat;
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Caps by a constant, i.e., <code>this = min(this, cap)</code>.
+	 *
+	 * @param cap The cap.
+	 * @return This accumulator.
+	 */
+	public RandomVariableFloatAccumulator cap(final double cap) {
+		final float[] realizations = getRealizations();
+		final float capAsFloat = (float)cap;
+		ParallelChunkExecutor.forEachChunk(size, (start, end) -> {
+			for(int i=start; i<end; i++) {
+				realizations[i] = Math.min(realizations[i], capAsFloat);
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Caps by a random variable, i.e., <code>this = min(this, cap)</code>.
+	 *
+	 * @param cap The cap.
+	 * @return This accumulator.
+	 */
+	public RandomVariableFloatAccumulator cap(final RandomVariable cap) {
+		if(cap.isDeterministic()) {
+			updateTime(cap);
+			return cap(cap.doubleValue());
+		}
+
+		final float[] realizations = getRealizations();
+		final float[] caps = getValuesOf(cap);
+		ParallelChunkExecutor.forEachChunk(size, (start, end) -> {
+			for(int i=start; i<end; i++) {
+				realizations[i] = Math.min(realizations[i], caps[i]);
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Floors by a constant, i.e., <code>this = max(this, floor)</code>.
+	 *
+	 * @param floor The floor.
+	 * @return This accumulator.
+	 */
+	public RandomVariableFloatAccumulator floor(final double floor) {
+		final float[] realizations = getRealizations();
+		final float floorAsFloat = (float)floor;
+		ParallelChunkExecutor.forEachChunk(size, (start, end) -> {
+			for(int i=start; i<end; i++) {
+				realizations[i] = Math.max(realizations[i], floorAsFloat);
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Floors by a random variable, i.e., <code>this = max(this, floor)</code>.
+	 *
+	 * @param floor The floor.
+	 * @return This accumulator.
+	 */
+	public RandomVariableFloatAccumulator floor(final RandomVariable floor) {
+		if(floor.isDeterministic()) {
+			updateTime(floor);
+			return floor(floor.doubleValue());
+		}
+
+		final float[] realizations = getRealizations();
+		final float[] floors = getValuesOf(floor);
+		ParallelChunkExecutor.forEachChunk(size, (start, end) -> {
+			for(int i=start; i<end; i++) {
+				realizations[i] = Math.max(realizations[i], floors[i]);
+			}
+		});
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString()
+				+ "\n" + "time: " + time
+				+ "\n" + "realizations: " + (isFrozen() ? "(frozen)" : Arrays.toString(realizations));
+	}
+
+	private float[] getRealizations() {
+		if(realizations == null) {
+			throw new IllegalStateException("The accumulator has been frozen.");
+		}
+		return realizations;
+	}
+
+	/**
+	 * Returns the realizations of a stochastic argument, checking its size and type priority and updating the filtration time.
+	 *
+	 * @param randomVariable A stochastic random variable.
+	 * @return The realizations as float array (not to be modified).
+	 */
+	private float[] getValuesOf(final RandomVariable randomVariable) {
+		if(randomVariable.size() != size) {
+			throw new IllegalArgumentException("The size " + randomVariable.size() + " of the argument does not match the size " + size + " of the accumulator.");
+		}
+		updateTime(randomVariable);
+		return RandomVariableFromFloatArray.getFloatArrayOf(randomVariable);
+	}
+
+	private void updateTime(final RandomVariable randomVariable) {
+		getRealizations();
+		if(randomVariable.getTypePriority() > maximumTypePriority) {
+			throw new IllegalArgumentException("Arguments of type " + randomVariable.getClass().getSimpleName() + " (type priority " + randomVariable.getTypePriority() + ") are not supported by the accumulator.");
+		}
+		time = Math.max(time, randomVariable.getFiltrationTime());
+	}
+}
@@ -12,7 +12,7 @@ import net.finmath.stochastic.RandomVariable;
  * @author Christian Fries
  *
  */
-public class RandomVariableFloatFactory extends AbstractRandomVariableFactory {
+public class RandomVariableFloatFactory extends AbstractRandomVariableFactory implements FloatArrayRandomVariableFactory {
 
 	/**
 	 *
@@ -32,4 +32,9 @@ public class RandomVariableFloatFactory extends AbstractRandomVariableFactory {
 	public RandomVariable createRandomVariable(final double time, final double[] values) {
 		return new RandomVariableFromFloatArray(time, values);
 	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final float[] values) {
+		return new RandomVariableFromFloatArray(time, values);
+	}
 }
@@ -0,0 +1,1006 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.List;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.DoubleStream;
+
+import org.apache.commons.math3.util.FastMath;
+
+import net.finmath.functions.DoubleTernaryOperator;
+import net.finmath.montecarlo.expression.FloatExpression;
+import net.finmath.montecarlo.expression.FloatExpressionBackend;
+import net.finmath.montecarlo.expression.FloatExpressionInterpreter;
+import net.finmath.montecarlo.expression.FloatOperator;
+import net.finmath.stochastic.ConditionalExpectationEstimator;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Implementation of <code>RandomVariable</code> using float realizations and lazy evaluation.
+ *
+ * The element-wise operators do not calculate their result. Instead they record the operation in an expression graph
+ * (see {@link FloatExpression}). The realizations are calculated only if they are required, i.e., by a reduction
+ * (e.g., <code>getAverage</code>), by <code>getRealizations</code> or by an explicit call to <code>cache()</code>.
+ * The recorded operations are then evaluated in a single fused loop over the paths, without allocating a full size
+ * temporary vector for each intermediate result.
+ *
+ * The results are identical (bit-by-bit) to the results obtained with {@link RandomVariableFromFloatArray}, i.e., the class may be used as
+ * a replacement for <code>RandomVariableFromFloatArray</code> (see {@link RandomVariableFloatLazyEvaluationFactory}).
+ *
+ * The type priority of this class is higher than the one of <code>RandomVariableFromFloatArray</code>, such that operations
+ * combining the two implementations result in a lazy evaluating random variable.
+ *
+ * Accesses performed exclusively through the interface
+ * <code>RandomVariable</code> is thread safe (and does not mutate the class).
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RandomVariableFloatLazyEvaluation implements RandomVariable {
+
+	private static final long serialVersionUID = 6451245633487232217L;
+
+	private static final FloatExpressionBackend backendDefault = new FloatExpressionInterpreter();
+
+	private final int typePriority;
+
+	private final double      time;	                // Time (filtration)
+
+	// Data model for the stochastic case (otherwise null)
+	private final transient FloatExpression expression;
+
+	// Data model for the non-stochastic case (if expression==null)
+	private final double      valueIfNonStochastic;
+
+	// The backend evaluating the expression
+	private final transient FloatExpressionBackend backend;
+
+	/**
+	 * Create a non stochastic random variable, i.e. a constant.
+	 *
+	 * @param value the value, a constant.
+	 */
+	public RandomVariableFloatLazyEvaluation(final double value) {
+		this(Double.NEGATIVE_INFINITY, value);
+	}
+
+	/**
+	 * Create a non stochastic random variable, i.e. a constant.
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param value the value, a constant.
+	 * @param backend The backend used to evaluate expressions involving this random variable.
+	 */
+	public RandomVariableFloatLazyEvaluation(final double time, final double value, final FloatExpressionBackend backend) {
+		super();
+		this.time = time;
+		expression = null;
+		valueIfNonStochastic = value;
+		this.backend = backend;
+		typePriority = backend.getTypePriority();
+	}
+
+	/**
+	 * Create a non stochastic random variable, i.e. a constant.
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param value the value, a constant.
+	 */
+	public RandomVariableFloatLazyEvaluation(final double time, final double value) {
+		this(time, value, backendDefault);
+	}
+
+	/**
+	 * Create a stochastic random variable.
+	 *
+	 * Important: The realizations array is not cloned (no defensive copy is made).
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param realizations the vector of realizations.
+	 */
+	public RandomVariableFloatLazyEvaluation(final double time, final float[] realizations) {
+		this(time, FloatExpression.of(realizations));
+	}
+
+	/**
+	 * Create a stochastic random variable.
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param realizations the vector of realizations.
+	 */
+	public RandomVariableFloatLazyEvaluation(final double time, final double[] realizations) {
+		this(time, getFloatArray(realizations));
+	}
+
+	/**
+	 * Create a stochastic random variable from an expression (which is evaluated on demand by the given backend).
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param expression The expression representing the realizations. The leaves of the expression have to be compatible with the backend.
+	 * @param backend The backend used to evaluate the expression.
+	 */
+	public RandomVariableFloatLazyEvaluation(final double time, final FloatExpression expression, final FloatExpressionBackend backend) {
+		super();
+		if(expression.isConstant()) {
+			throw new IllegalArgumentException("Expression must not be a constant.");
+		}
+		this.time = time;
+		this.expression = expression;
+		valueIfNonStochastic = Double.NaN;
+		this.backend = backend;
+		typePriority = backend.getTypePriority();
+	}
+
+	/**
+	 * Create a stochastic random variable from an expression (which is evaluated on demand).
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param expression The expression representing the realizations. The leaves of the expression have to be of type <code>float[]</code>.
+	 */
+	public RandomVariableFloatLazyEvaluation(final double time, final FloatExpression expression) {
+		this(time, expression, backendDefault);
+	}
+
+	/**
+	 * Create a random variable from a given other implementation of <code>RandomVariable</code>.
+	 * If the given random variable is a <code>RandomVariableFromFloatArray</code>, its realizations are not copied.
+	 *
+	 * @param value Object implementing <code>RandomVariable</code>.
+	 * @param backend The backend used to evaluate expressions involving this random variable.
+	 */
+	public RandomVariableFloatLazyEvaluation(final RandomVariable value, final FloatExpressionBackend backend) {
+		super();
+		this.backend = backend;
+		time = value.getFiltrationTime();
+		expression = value.isDeterministic() ? null : getExpression(value);
+		valueIfNonStochastic = value.isDeterministic() ? value.get(0) : Double.NaN;
+		typePriority = backend.getTypePriority();
+	}
+
+	/**
+	 * Create a random variable from a given other implementation of <code>RandomVariable</code>.
+	 * If the given random variable is a <code>RandomVariableFromFloatArray</code>, its realizations are not copied.
+	 *
+	 * @param value Object implementing <code>RandomVariable</code>.
+	 */
+	public RandomVariableFloatLazyEvaluation(final RandomVariable value) {
+		this(value, backendDefault);
+	}
+
+	private static float[] getFloatArray(final double[] arrayOfDouble) {
+		final float[] arrayOfFloat = new float[arrayOfDouble.length];
+		for(int i=0; i<arrayOfDouble.length; i++) {
+			arrayOfFloat[i] = (float)arrayOfDouble[i];
+		}
+		return arrayOfFloat;
+	}
+
+	/**
+	 * Returns an expression representing the given random variable. Deterministic random variables
+	 * are represented by constants (which are broadcasted when used as operand).
+	 *
+	 * @param randomVariable A random variable.
+	 * @return An expression representing the random variable.
+	 */
+	private FloatExpression getExpression(final RandomVariable randomVariable) {
+		if(randomVariable.isDeterministic()) {
+			return FloatExpression.constant((float)randomVariable.get(0));
+		}
+		else if(randomVariable instanceof RandomVariableFloatLazyEvaluation && ((RandomVariableFloatLazyEvaluation)randomVariable).backend.equals(backend)) {
+			return ((RandomVariableFloatLazyEvaluation)randomVariable).expression;
+		}
+		else if(randomVariable instanceof RandomVariableFromFloatArray) {
+			return backend.getExpression(((RandomVariableFromFloatArray)randomVariable).getRealizationsAsFloatArray());
+		}
+		else {
+			return backend.getExpression(randomVariable);
+		}
+	}
+
+	private RandomVariable of(final double newTime, final double value) {
+		return new RandomVariableFloatLazyEvaluation(newTime, value, backend);
+	}
+
+	private RandomVariable applyOperator(final double newTime, final FloatOperator operator, final double parameter, final RandomVariable... operands) {
+		return applyOperator(newTime, operator, new double[] { parameter }, operands);
+	}
+
+	private RandomVariable applyOperator(final double newTime, final FloatOperator operator, final double[] parameters, final RandomVariable... operands) {
+		final FloatExpression[] operandExpressions = new FloatExpression[operands.length];
+		long numberOfOperations = 1;
+		for(int i=0; i<operands.length; i++) {
+			operandExpressions[i] = getExpression(operands[i]);
+			numberOfOperations += operandExpressions[i].getNumberOfPendingOperations();
+		}
+
+		if(numberOfOperations > FloatExpression.getMaximumNumberOfOperations()) {
+			// Limit the size of the graph: evaluate the operands first.
+			for(final FloatExpression operandExpression : operandExpressions) {
+				if(!operandExpression.isConstant()) {
+					operandExpression.evaluate(backend);
+				}
+			}
+		}
+
+		return new RandomVariableFloatLazyEvaluation(newTime, FloatExpression.of(operator, parameters, operandExpressions), backend);
+	}
+
+	/**
+	 * Returns the (evaluated) values of this random variable as a random variable of the backend (for the default backend
+	 * this is a <code>RandomVariableFromFloatArray</code>). The realizations are not copied.
+	 *
+	 * @return The values of this random variable.
+	 */
+	private RandomVariable getEvaluatedRandomVariable() {
+		if(isDeterministic()) {
+			return new RandomVariableFromFloatArray(time, valueIfNonStochastic);
+		}
+		else {
+			return backend.getRandomVariable(time, expression.evaluate(backend), expression.size());
+		}
+	}
+
+	/**
+	 * Returns the (evaluated) values of this random variable as a <code>RandomVariableFromFloatArray</code>.
+	 *
+	 * @return The values of this random variable as a <code>RandomVariableFromFloatArray</code>.
+	 */
+	private RandomVariableFromFloatArray getRandomVariableFromFloatArray() {
+		final RandomVariable evaluated = getEvaluatedRandomVariable();
+		if(evaluated instanceof RandomVariableFromFloatArray) {
+			return (RandomVariableFromFloatArray)evaluated;
+		}
+		else {
+			return new RandomVariableFromFloatArray(evaluated);
+		}
+	}
+
+	/**
+	 * @return The expression representing this random variable or null if the random variable is deterministic.
+	 */
+	public FloatExpression getExpression() {
+		return expression;
+	}
+
+	/**
+	 * @return The backend used to evaluate the expression.
+	 */
+	public FloatExpressionBackend getBackend() {
+		return backend;
+	}
+
+	/**
+	 * Upon serialization the random variable is evaluated and replaced by a <code>RandomVariableFromFloatArray</code>.
+	 *
+	 * @return The evaluated random variable.
+	 */
+	private Object writeReplace() {
+		return getRandomVariableFromFloatArray();
+	}
+
+	@Override
+	public boolean equals(final RandomVariable randomVariable) {
+		return getEvaluatedRandomVariable().equals(randomVariable);
+	}
+
+	@Override
+	public double getFiltrationTime() {
+		return time;
+	}
+
+	@Override
+	public int getTypePriority() {
+		return typePriority;
+	}
+
+	@Override
+	public double get(final int pathOrState) {
+		if(isDeterministic()) {
+			return valueIfNonStochastic;
+		} else {
+			final Object values = expression.evaluate(backend);
+			return values instanceof float[] ? ((float[])values)[pathOrState] : getEvaluatedRandomVariable().get(pathOrState);
+		}
+	}
+
+	@Override
+	public int size() {
+		if(isDeterministic()) {
+			return 1;
+		} else {
+			return expression.size();
+		}
+	}
+
+	@Override
+	public boolean isDeterministic() {
+		return expression == null;
+	}
+
+	@Override
+	public double[] getRealizations() {
+		return getEvaluatedRandomVariable().getRealizations();
+	}
+
+	@Override
+	public Double doubleValue() {
+		return getEvaluatedRandomVariable().doubleValue();
+	}
+
+	@Override
+	public IntToDoubleFunction getOperator() {
+		return getEvaluatedRandomVariable().getOperator();
+	}
+
+	@Override
+	public DoubleStream getRealizationsStream() {
+		return getEvaluatedRandomVariable().getRealizationsStream();
+	}
+
+	/*
+	 * Reductions: evaluating the expression.
+	 */
+
+	@Override
+	public double getMin() {
+		return getEvaluatedRandomVariable().getMin();
+	}
+
+	@Override
+	public double getMax() {
+		return getEvaluatedRandomVariable().getMax();
+	}
+
+	@Override
+	public double getAverage() {
+		return getEvaluatedRandomVariable().getAverage();
+	}
+
+	@Override
+	public double getAverage(final RandomVariable probabilities) {
+		return getEvaluatedRandomVariable().getAverage(probabilities);
+	}
+
+	/**
+	 * Returns the average, the variance, the sample variance, the standard deviation and the standard error,
+	 * calculated in a single pass over the (evaluated) realizations.
+	 *
+	 * @return The moments of this random variable.
+	 * @see RandomVariableFromFloatArray#getMoments()
+	 */
+	public RandomVariableMoments getMoments() {
+		return getRandomVariableFromFloatArray().getMoments();
+	}
+
+	@Override
+	public double getVariance() {
+		return getEvaluatedRandomVariable().getVariance();
+	}
+
+	@Override
+	public double getVariance(final RandomVariable probabilities) {
+		return getEvaluatedRandomVariable().getVariance(probabilities);
+	}
+
+	@Override
+	public double getSampleVariance() {
+		return getEvaluatedRandomVariable().getSampleVariance();
+	}
+
+	@Override
+	public double getStandardDeviation() {
+		return getEvaluatedRandomVariable().getStandardDeviation();
+	}
+
+	@Override
+	public double getStandardDeviation(final RandomVariable probabilities) {
+		return getEvaluatedRandomVariable().getStandardDeviation(probabilities);
+	}
+
+	@Override
+	public double getStandardError() {
+		return getEvaluatedRandomVariable().getStandardError();
+	}
+
+	@Override
+	public double getStandardError(final RandomVariable probabilities) {
+		return getEvaluatedRandomVariable().getStandardError(probabilities);
+	}
+
+	/**
+	 * Returns the quantiles for the given quantile levels, calculated in a single selection pass.
+	 *
+	 * @param quantiles The quantile levels.
+	 * @return The quantiles, one for each quantile level.
+	 * @see RandomVariableFromFloatArray#getQuantiles(double...)
+	 */
+	public double[] getQuantiles(final double... quantiles) {
+		return getRandomVariableFromFloatArray().getQuantiles(quantiles);
+	}
+
+	@Override
+	public double getQuantile(final double quantile) {
+		return getEvaluatedRandomVariable().getQuantile(quantile);
+	}
+
+	@Override
+	public double getQuantile(final double quantile, final RandomVariable probabilities) {
+		return getEvaluatedRandomVariable().getQuantile(quantile, probabilities);
+	}
+
+	@Override
+	public double getQuantileExpectation(final double quantileStart, final double quantileEnd) {
+		return getEvaluatedRandomVariable().getQuantileExpectation(quantileStart, quantileEnd);
+	}
+
+	@Override
+	public double[] getHistogram(final double[] intervalPoints) {
+		return getEvaluatedRandomVariable().getHistogram(intervalPoints);
+	}
+
+	@Override
+	public double[][] getHistogram(final int numberOfPoints, final double standardDeviations) {
+		return getEvaluatedRandomVariable().getHistogram(numberOfPoints, standardDeviations);
+	}
+
+	@Override
+	public RandomVariable cache() {
+		if(!isDeterministic()) {
+			expression.evaluate(backend);
+		}
+		return this;
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleUnaryOperator operator) {
+		return new RandomVariableFloatLazyEvaluation(getRandomVariableFromFloatArray().apply(operator), backend);
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleBinaryOperator operator, final RandomVariable argument) {
+		return new RandomVariableFloatLazyEvaluation(getRandomVariableFromFloatArray().apply(operator, argument), backend);
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleTernaryOperator operator, final RandomVariable argument1, final RandomVariable argument2) {
+		return new RandomVariableFloatLazyEvaluation(getRandomVariableFromFloatArray().apply(operator, argument1, argument2), backend);
+	}
+
+	@Override
+	public RandomVariable average() {
+		return of(time, getAverage());
+	}
+
+	@Override
+	public RandomVariable getConditionalExpectation(final ConditionalExpectationEstimator conditionalExpectationOperator)
+	{
+		return conditionalExpectationOperator.getConditionalExpectation(this);
+	}
+
+	/*
+	 * Unary operators: recording the operation.
+	 */
+
+	@Override
+	public RandomVariable cap(final double cap) {
+		if(isDeterministic()) {
+			return of(time, Math.min(valueIfNonStochastic,cap));
+		}
+		else {
+			return applyOperator(time, FloatOperator.CAP_SCALAR, cap, this);
+		}
+	}
+
+	@Override
+	public RandomVariable floor(final double floor) {
+		if(isDeterministic()) {
+			return of(time, Math.max(valueIfNonStochastic,floor));
+		}
+		else {
+			return applyOperator(time, FloatOperator.FLOOR_SCALAR, floor, this);
+		}
+	}
+
+	@Override
+	public RandomVariable add(final double value) {
+		if(isDeterministic()) {
+			return of(time, valueIfNonStochastic + value);
+		}
+		else {
+			return applyOperator(time, FloatOperator.ADD_SCALAR, value, this);
+		}
+	}
+
+	@Override
+	public RandomVariable sub(final double value) {
+		if(isDeterministic()) {
+			return of(time, valueIfNonStochastic - value);
+		}
+		else {
+			return applyOperator(time, FloatOperator.SUB_SCALAR, value, this);
+		}
+	}
+
+	@Override
+	public RandomVariable mult(final double value) {
+		if(isDeterministic()) {
+			return of(time, valueIfNonStochastic * value);
+		}
+		else {
+			return applyOperator(time, FloatOperator.MULT_SCALAR, value, this);
+		}
+	}
+
+	@Override
+	public RandomVariable div(final double value) {
+		if(isDeterministic()) {
+			return of(time, valueIfNonStochastic / value);
+		}
+		else {
+			return applyOperator(time, FloatOperator.DIV_SCALAR, value, this);
+		}
+	}
+
+	@Override
+	public RandomVariable pow(final double exponent) {
+		if(isDeterministic()) {
+			return of(time, Math.pow(valueIfNonStochastic,exponent));
+		}
+		else {
+			return applyOperator(time, FloatOperator.POW, exponent, this);
+		}
+	}
+
+	@Override
+	public RandomVariable squared() {
+		if(isDeterministic()) {
+			return of(time, valueIfNonStochastic * valueIfNonStochastic);
+		}
+		else {
+			return applyOperator(time, FloatOperator.SQUARED, null, this);
+		}
+	}
+
+	@Override
+	public RandomVariable sqrt() {
+		if(isDeterministic()) {
+			return of(time, Math.sqrt(valueIfNonStochastic));
+		}
+		else {
+			return applyOperator(time, FloatOperator.SQRT, null, this);
+		}
+	}
+
+	@Override
+	public RandomVariable exp() {
+		if(isDeterministic()) {
+			return of(time, FastMath.exp(valueIfNonStochastic));
+		}
+		else {
+			return applyOperator(time, FloatOperator.EXP, null, this);
+		}
+	}
+
+	@Override
+	public RandomVariable log() {
+		if(isDeterministic()) {
+			return of(time, Math.log(valueIfNonStochastic));
+		}
+		else {
+			return applyOperator(time, FloatOperator.LOG, null, this);
+		}
+	}
+
+	@Override
+	public RandomVariable sin() {
+		if(isDeterministic()) {
+			return of(time, FastMath.sin(valueIfNonStochastic));
+		}
+		else {
+			return applyOperator(time, FloatOperator.SIN, null, this);
+		}
+	}
+
+	@Override
+	public RandomVariable cos() {
+		if(isDeterministic()) {
+			return of(time, FastMath.cos(valueIfNonStochastic));
+		}
+		else {
+			return applyOperator(time, FloatOperator.COS, null, this);
+		}
+	}
+
+	@Override
+	public RandomVariable invert() {
+		if(isDeterministic()) {
+			return of(time, 1.0/valueIfNonStochastic);
+		}
+		else {
+			return applyOperator(time, FloatOperator.INVERT, null, this);
+		}
+	}
+
+	@Override
+	public RandomVariable abs() {
+		if(isDeterministic()) {
+			return of(time, Math.abs(valueIfNonStochastic));
+		}
+		else {
+			return applyOperator(time, FloatOperator.ABS, null, this);
+		}
+	}
+
+	@Override
+	public RandomVariable isNaN() {
+		if(isDeterministic()) {
+			return of(time, Double.isNaN(valueIfNonStochastic) ? 1.0f : 0.0f);
+		}
+		else {
+			return applyOperator(time, FloatOperator.IS_NAN, null, this);
+		}
+	}
+
+	/*
+	 * Binary operators: checking for return type priority.
+	 */
+
+	@Override
+	public RandomVariable add(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.add(this);
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(time, randomVariable.getFiltrationTime());
+
+		if(isDeterministic() && randomVariable.isDeterministic()) {
+			return of(newTime, valueIfNonStochastic + randomVariable.get(0));
+		}
+		else if(isDeterministic()) {
+			return applyOperator(newTime, FloatOperator.ADD_SCALAR, valueIfNonStochastic, randomVariable);
+		}
+		else if(randomVariable.isDeterministic()) {
+			return applyOperator(newTime, FloatOperator.ADD_SCALAR, randomVariable.get(0), this);
+		}
+		else {
+			return applyOperator(newTime, FloatOperator.ADD, null, this, randomVariable);
+		}
+	}
+
+	@Override
+	public RandomVariable sub(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.bus(this);
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(time, randomVariable.getFiltrationTime());
+
+		if(isDeterministic() && randomVariable.isDeterministic()) {
+			return of(newTime, valueIfNonStochastic - randomVariable.get(0));
+		}
+		else if(isDeterministic()) {
+			return applyOperator(newTime, FloatOperator.BUS_SCALAR, valueIfNonStochastic, randomVariable);
+		}
+		else if(randomVariable.isDeterministic()) {
+			return applyOperator(newTime, FloatOperator.SUB_SCALAR, randomVariable.get(0), this);
+		}
+		else {
+			return applyOperator(newTime, FloatOperator.SUB, null, this, randomVariable);
+		}
+	}
+
+	@Override
+	public RandomVariable bus(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.sub(this);
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(time, randomVariable.getFiltrationTime());
+
+		if(isDeterministic() && randomVariable.isDeterministic()) {
+			return of(newTime, randomVariable.get(0) - valueIfNonStochastic);
+		}
+		else if(isDeterministic()) {
+			return applyOperator(newTime, FloatOperator.SUB_SCALAR, valueIfNonStochastic, randomVariable);
+		}
+		else if(randomVariable.isDeterministic()) {
+			return applyOperator(newTime, FloatOperator.BUS_SCALAR, randomVariable.get(0), this);
+		}
+		else {
+			return applyOperator(newTime, FloatOperator.SUB, null, randomVariable, this);
+		}
+	}
+
+	@Override
+	public RandomVariable mult(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.mult(this);
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(time, randomVariable.getFiltrationTime());
+
+		if(isDeterministic() && randomVariable.isDeterministic()) {
+			return of(newTime, valueIfNonStochastic * randomVariable.get(0));
+		}
+		else if(randomVariable.isDeterministic()) {
+			return this.mult(randomVariable.get(0));
+		}
+		else if(isDeterministic()) {
+			return applyOperator(newTime, FloatOperator.MULT_SCALAR, valueIfNonStochastic, randomVariable);
+		}
+		else {
+			return applyOperator(newTime, FloatOperator.MULT, null, this, randomVariable);
+		}
+	}
+
+	@Override
+	public RandomVariable div(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.vid(this);
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(time, randomVariable.getFiltrationTime());
+
+		if(isDeterministic() && randomVariable.isDeterministic()) {
+			return of(newTime, valueIfNonStochastic / randomVariable.get(0));
+		}
+		else if(isDeterministic()) {
+			return applyOperator(newTime, FloatOperator.VID_SCALAR, valueIfNonStochastic, randomVariable);
+		}
+		else if(randomVariable.isDeterministic()) {
+			return applyOperator(newTime, FloatOperator.DIV_SCALAR, randomVariable.get(0), this);
+		}
+		else {
+			return applyOperator(newTime, FloatOperator.DIV, null, this, randomVariable);
+		}
+	}
+
+	@Override
+	public RandomVariable vid(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.div(this);
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(time, randomVariable.getFiltrationTime());
+
+		if(isDeterministic() && randomVariable.isDeterministic()) {
+			return of(newTime, randomVariable.get(0) / valueIfNonStochastic);
+		}
+		else if(isDeterministic()) {
+			return applyOperator(newTime, FloatOperator.DIV_SCALAR, valueIfNonStochastic, randomVariable);
+		}
+		else if(randomVariable.isDeterministic()) {
+			return applyOperator(newTime, FloatOperator.VID_SCALAR, randomVariable.get(0), this);
+		}
+		else {
+			return applyOperator(newTime, FloatOperator.DIV, null, randomVariable, this);
+		}
+	}
+
+	@Override
+	public RandomVariable cap(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.cap(this);
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(time, randomVariable.getFiltrationTime());
+
+		if(isDeterministic() && randomVariable.isDeterministic()) {
+			return of(newTime, FastMath.min(valueIfNonStochastic, randomVariable.get(0)));
+		}
+		else if(isDeterministic()) {
+			return applyOperator(newTime, FloatOperator.CAP_SCALAR, valueIfNonStochastic, randomVariable);
+		}
+		else if(randomVariable.isDeterministic()) {
+			return applyOperator(newTime, FloatOperator.CAP_SCALAR, randomVariable.get(0), this);
+		}
+		else {
+			return applyOperator(newTime, FloatOperator.CAP, null, this, randomVariable);
+		}
+	}
+
+	@Override
+	public RandomVariable floor(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.floor(this);
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(time, randomVariable.getFiltrationTime());
+
+		if(isDeterministic() && randomVariable.isDeterministic()) {
+			return of(newTime, FastMath.max(valueIfNonStochastic, randomVariable.get(0)));
+		}
+		else if(isDeterministic()) {
+			return applyOperator(newTime, FloatOperator.FLOOR_SCALAR, valueIfNonStochastic, randomVariable);
+		}
+		else if(randomVariable.isDeterministic()) {
+			return applyOperator(newTime, FloatOperator.FLOOR_SCALAR, randomVariable.get(0), this);
+		}
+		else {
+			return applyOperator(newTime, FloatOperator.FLOOR, null, this, randomVariable);
+		}
+	}
+
+	@Override
+	public RandomVariable accrue(final RandomVariable rate, final double periodLength) {
+		if(rate.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return rate.mult(periodLength).add(1.0).mult(this);
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(time, rate.getFiltrationTime());
+
+		if(rate.isDeterministic()) {
+			return this.mult(1.0 + rate.get(0) * periodLength);
+		}
+		else {
+			return applyOperator(newTime, FloatOperator.ACCRUE, periodLength, this, rate);
+		}
+	}
+
+	@Override
+	public RandomVariable discount(final RandomVariable rate, final double periodLength) {
+		if(rate.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return rate.mult(periodLength).add(1.0).vid(this);
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(time, rate.getFiltrationTime());
+
+		if(rate.isDeterministic()) {
+			return this.div(1.0 + rate.doubleValue() * periodLength);
+		}
+		else {
+			return applyOperator(newTime, FloatOperator.DISCOUNT, periodLength, this, rate);
+		}
+	}
+
+	/*
+	 * Ternary operators: checking for return type priority.
+	 */
+
+	@Override
+	public RandomVariable choose(final RandomVariable valueIfTriggerNonNegative, final RandomVariable valueIfTriggerNegative) {
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		double newTime = time;
+		newTime = Math.max(newTime, valueIfTriggerNonNegative.getFiltrationTime());
+		newTime = Math.max(newTime, valueIfTriggerNegative.getFiltrationTime());
+
+		if(isDeterministic()) {
+			if(valueIfNonStochastic >= 0) {
+				return valueIfTriggerNonNegative;
+			} else {
+				return valueIfTriggerNegative;
+			}
+		}
+		else {
+			return applyOperator(newTime, FloatOperator.CHOOSE, null, this, valueIfTriggerNonNegative, valueIfTriggerNegative);
+		}
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final double factor2) {
+		if(factor1.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return factor1.mult(factor2).add(this);
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(time, factor1.getFiltrationTime());
+
+		if(factor1.isDeterministic()) {
+			return this.add(factor1.get(0) * factor2);
+		}
+		else {
+			return applyOperator(newTime, FloatOperator.ADD_PRODUCT_SCALAR, factor2, this, factor1);
+		}
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final RandomVariable factor2) {
+		if(factor1.getTypePriority() > this.getTypePriority() || factor2.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return factor1.mult(factor2).add(this);
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(Math.max(time, factor1.getFiltrationTime()), factor2.getFiltrationTime());
+
+		if(isDeterministic() && factor1.isDeterministic() && factor2.isDeterministic()) {
+			return of(newTime, valueIfNonStochastic + (factor1.doubleValue() * factor2.doubleValue()));
+		}
+		else if(factor1.isDeterministic() && factor2.isDeterministic()) {
+			return add(factor1.doubleValue() * factor2.doubleValue());
+		}
+		else if(factor2.isDeterministic()) {
+			return this.addProduct(factor1, factor2.doubleValue());
+		}
+		else if(factor1.isDeterministic()) {
+			return this.addProduct(factor2, factor1.doubleValue());
+		}
+		else if(!isDeterministic()) {
+			return applyOperator(newTime, FloatOperator.ADD_PRODUCT, null, this, factor1, factor2);
+		}
+		else {
+			return this.add(applyOperator(newTime, FloatOperator.MULT, null, factor1, factor2));
+		}
+	}
+
+	@Override
+	public RandomVariable addSumProduct(final List<RandomVariable> factor1, final List<RandomVariable> factor2)
+	{
+		RandomVariable result = this;
+		for(int i=0; i<factor1.size(); i++) {
+			result = result.addProduct(factor1.get(i), factor2.get(i));
+		}
+		return result;
+	}
+
+	@Override
+	public RandomVariable addRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		if(numerator.getTypePriority() > this.getTypePriority() || denominator.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return numerator.div(denominator).add(this);
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(Math.max(time, numerator.getFiltrationTime()), denominator.getFiltrationTime());
+
+		if(isDeterministic() && numerator.isDeterministic() && denominator.isDeterministic()) {
+			return of(newTime, valueIfNonStochastic + (numerator.get(0) / denominator.get(0)));
+		}
+		else {
+			return applyOperator(newTime, FloatOperator.ADD_RATIO, null, this, numerator, denominator);
+		}
+	}
+
+	@Override
+	public RandomVariable subRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		if(numerator.getTypePriority() > this.getTypePriority() || denominator.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return numerator.div(denominator).mult(-1).add(this);
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(Math.max(time, numerator.getFiltrationTime()), denominator.getFiltrationTime());
+
+		if(isDeterministic() && numerator.isDeterministic() && denominator.isDeterministic()) {
+			return of(newTime, valueIfNonStochastic - (numerator.get(0) / denominator.get(0)));
+		}
+		else {
+			return applyOperator(newTime, FloatOperator.SUB_RATIO, null, this, numerator, denominator);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return super.toString()
+				+ "\n" + "time: " + time
+				+ "\n" + "realizations: " +
+				(isDeterministic() ? valueIfNonStochastic : expression.toString());
+	}
+}
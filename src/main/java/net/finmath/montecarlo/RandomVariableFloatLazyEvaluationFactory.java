@@ -0,0 +1,42 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+
+package net.finmath.montecarlo;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Factory creating random variables of type {@link RandomVariableFloatLazyEvaluation}, i.e., float random variables
+ * which record operations and evaluate them in a single fused loop when the realizations are required.
+ *
+ * The factory may be used as a replacement of {@link RandomVariableFloatFactory}.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RandomVariableFloatLazyEvaluationFactory extends AbstractRandomVariableFactory implements FloatArrayRandomVariableFactory {
+
+	private static final long serialVersionUID = -1802645722283513539L;
+
+	public RandomVariableFloatLazyEvaluationFactory() {
+		super();
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double value) {
+		return new RandomVariableFloatLazyEvaluation(time, value);
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double[] values) {
+		return new RandomVariableFloatLazyEvaluation(time, values);
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final float[] values) {
+		return new RandomVariableFloatLazyEvaluation(time, values);
+	}
+}
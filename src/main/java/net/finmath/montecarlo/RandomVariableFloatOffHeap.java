@@ -0,0 +1,1160 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.LongToDoubleFunction;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import net.finmath.functions.DoubleTernaryOperator;
+import net.finmath.montecarlo.expression.FloatOperator;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * A random variable with float realizations stored off-heap (see {@link OffHeapFloatStorage}), supporting
+ * more than <code>Integer.MAX_VALUE</code> paths.
+ *
+ * The element-wise operations are performed in blocks: the operands are copied block-wise into (thread local) float arrays
+ * and the operator is applied by the implementation of {@link FloatOperator}, such that the results agree (bit-by-bit) with
+ * those of {@link RandomVariableFromFloatArray}. For large sizes the blocks are processed in parallel on the pool of
+ * {@link ParallelChunkExecutor}. The reductions (average, variance, minimum, maximum, histogram) are calculated block-wise
+ * with a fixed order of combination, such that the results do not depend on the number of threads.
+ *
+ * The number of paths is returned by {@link #sizeAsLong()}. Methods of the interface <code>RandomVariable</code> using
+ * <code>int</code> indices ({@link #size()}, {@link #get(int)}, {@link #getRealizations()}) and the quantiles (which require a copy to the heap)
+ * are only supported for sizes up to <code>Integer.MAX_VALUE</code>.
+ *
+ * The memory of the realizations is released by {@link #close()}, otherwise when the object becomes unreachable.
+ * The realizations may be passed to native libraries without copying, see {@link #getRealizationsStorage()}.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RandomVariableFloatOffHeap implements RandomVariable, AutoCloseable {
+
+	private static final long serialVersionUID = -3406186815069958396L;
+
+	private static final int typePriorityDefault = 1;
+
+	private static final int blockSize = ParallelChunkExecutor.getChunkSize();
+	private static final int maximumArraySize = Integer.MAX_VALUE - 8;
+
+	// Buffers for up to three operands and the result
+	private static final ThreadLocal<float[][]> blockBuffers = ThreadLocal.withInitial(() -> new float[4][blockSize]);
+
+	// Buffers for up to three operands of a DoubleUnaryOperator, DoubleBinaryOperator or DoubleTernaryOperator
+	private static final ThreadLocal<double[][]> doubleBlockBuffers = ThreadLocal.withInitial(() -> new double[3][blockSize]);
+
+	/**
+	 * An operator on the element of the given index of the blocks of the operands.
+	 */
+	@FunctionalInterface
+	private interface BlockElementOperator {
+		double applyAsDouble(double[][] operandBlocks, int index);
+	}
+
+	private final int typePriority;
+
+	private final double      time;	                // Time (filtration)
+
+	// Data model for the stochastic case (otherwise null)
+	private transient OffHeapFloatStorage	realizations;
+
+	// Data model for the non-stochastic case (if realizations==null)
+	private final double      valueIfNonStochastic;
+
+	/**
+	 * Create a non stochastic random variable, i.e. a constant.
+	 *
+	 * @param value the value, a constant.
+	 */
+	public RandomVariableFloatOffHeap(final double value) {
+		this(Double.NEGATIVE_INFINITY, value);
+	}
+
+	/**
+	 * Create a non stochastic random variable, i.e. a constant.
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param value the value, a constant.
+	 */
+	public RandomVariableFloatOffHeap(final double time, final double value) {
+		super();
+		this.time = time;
+		realizations = null;
+		valueIfNonStochastic = value;
+		typePriority = typePriorityDefault;
+	}
+
+	/**
+	 * Create a stochastic random variable using the given off-heap storage (no copy is made).
+	 * The random variable takes ownership of the storage, i.e., it is closed by {@link #close()}.
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param realizations The realizations.
+	 * @param typePriority The priority of this type in construction of result types. See "operator type priority" for details.
+	 */
+	public RandomVariableFloatOffHeap(final double time, final OffHeapFloatStorage realizations, final int typePriority) {
+		super();
+		this.time = time;
+		this.realizations = realizations;
+		valueIfNonStochastic = Double.NaN;
+		this.typePriority = typePriority;
+	}
+
+	/**
+	 * Create a stochastic random variable using the given off-heap storage (no copy is made).
+	 * The random variable takes ownership of the storage, i.e., it is closed by {@link #close()}.
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param realizations The realizations.
+	 */
+	public RandomVariableFloatOffHeap(final double time, final OffHeapFloatStorage realizations) {
+		this(time, realizations, typePriorityDefault);
+	}
+
+	/**
+	 * Create a stochastic random variable, copying the given realizations off-heap.
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param realizations The realizations.
+	 */
+	public RandomVariableFloatOffHeap(final double time, final float[] realizations) {
+		this(time, OffHeapFloatStorage.of(realizations));
+	}
+
+	/**
+	 * Create a stochastic random variable, copying the given realizations off-heap (converted to float).
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param realizations The realizations.
+	 */
+	public RandomVariableFloatOffHeap(final double time, final double[] realizations) {
+		this(time, realizations.length, i -> realizations[(int)i]);
+	}
+
+	/**
+	 * Create a stochastic random variable of the given size, where the realization of path <code>i</code> is given by
+	 * <code>realizations.applyAsDouble(i)</code> (converted to float). The function may be called concurrently.
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param size The number of paths.
+	 * @param realizations Function mapping a path to its realization.
+	 */
+	public RandomVariableFloatOffHeap(final double time, final long size, final LongToDoubleFunction realizations) {
+		this(time, getStorage(size, realizations));
+	}
+
+	/**
+	 * Create a random variable from a given other implementation of <code>RandomVariable</code>, copying the realizations off-heap.
+	 *
+	 * @param value Object implementing <code>RandomVariable</code>.
+	 */
+	public RandomVariableFloatOffHeap(final RandomVariable value) {
+		super();
+		time = value.getFiltrationTime();
+		realizations = value.isDeterministic() ? null : getStorage(getSize(value), new RandomVariable[] { value }, (operandBlocks, i) -> operandBlocks[0][i]);
+		valueIfNonStochastic = value.isDeterministic() ? value.get(0) : Double.NaN;
+		typePriority = typePriorityDefault;
+	}
+
+	/**
+	 * Returns the off-heap storage of the realizations (no copy is made), e.g. to pass its segments to native libraries
+	 * (<code>jcuda.Pointer.to(ByteBuffer)</code>, <code>org.jocl.Pointer.to(ByteBuffer)</code>). The storage must not be modified.
+	 *
+	 * @return The storage of the realizations or null if this random variable is deterministic.
+	 */
+	public OffHeapFloatStorage getRealizationsStorage() {
+		return realizations;
+	}
+
+	/**
+	 * Releases the off-heap memory of the realizations. The random variable must not be used afterwards.
+	 */
+	@Override
+	public void close() {
+		if(realizations != null) {
+			realizations.close();
+		}
+	}
+
+	/**
+	 * @return The number of paths of this random variable (1 if it is deterministic).
+	 */
+	public long sizeAsLong() {
+		return isDeterministic() ? 1 : realizations.size();
+	}
+
+	/**
+	 * Returns the realization of the given path.
+	 *
+	 * @param path The path.
+	 * @return The realization.
+	 */
+	public double get(final long path) {
+		return isDeterministic() ? valueIfNonStochastic : realizations.get(path);
+	}
+
+	/**
+	 * Returns a copy of this random variable on the heap, as <code>RandomVariableFromFloatArray</code>.
+	 *
+	 * @return A copy of this random variable on the heap.
+	 * @throws UnsupportedOperationException if the number of paths exceeds the maximum size of an array.
+	 */
+	public RandomVariableFromFloatArray toRandomVariableFromFloatArray() {
+		if(isDeterministic()) {
+			return new RandomVariableFromFloatArray(time, valueIfNonStochastic);
+		}
+		return new RandomVariableFromFloatArray(time, getRealizationsAsFloatArray());
+	}
+
+	@Override
+	public boolean equals(final RandomVariable randomVariable) {
+		if(time != randomVariable.getFiltrationTime()) {
+			return false;
+		}
+		if(this.isDeterministic() && randomVariable.isDeterministic()) {
+			return valueIfNonStochastic == randomVariable.get(0);
+		}
+		if(this.isDeterministic() != randomVariable.isDeterministic()) {
+			return false;
+		}
+
+		if(sizeAsLong() != getSize(randomVariable)) {
+			return false;
+		}
+
+		final float[][] buffers = blockBuffers.get();
+		final double[] otherBlock = doubleBlockBuffers.get()[0];
+		for(long blockStart=0; blockStart<realizations.size(); blockStart+=blockSize) {
+			final int length = (int)Math.min(blockSize, realizations.size()-blockStart);
+			realizations.get(blockStart, buffers[0], 0, length);
+			getBlock(randomVariable, blockStart, length, otherBlock, buffers[1]);
+			for(int i=0; i<length; i++) {
+				if(buffers[0][i] != otherBlock[i]) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public double getFiltrationTime() {
+		return time;
+	}
+
+	@Override
+	public int getTypePriority() {
+		return typePriority;
+	}
+
+	@Override
+	public double get(final int pathOrState) {
+		return get((long)pathOrState);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws ArithmeticException if the number of paths exceeds <code>Integer.MAX_VALUE</code>, use {@link #sizeAsLong()}.
+	 */
+	@Override
+	public int size() {
+		return Math.toIntExact(sizeAsLong());
+	}
+
+	@Override
+	public boolean isDeterministic() {
+		return realizations == null;
+	}
+
+	@Override
+	public double[] getRealizations() {
+		if(isDeterministic()) {
+			return new double[] { valueIfNonStochastic };
+		}
+		final float[] realizationsAsFloat = getRealizationsAsFloatArray();
+		final double[] result = new double[realizationsAsFloat.length];
+		for(int i=0; i<result.length; i++) {
+			result[i] = realizationsAsFloat[i];
+		}
+		return result;
+	}
+
+	@Override
+	public Double doubleValue() {
+		if(isDeterministic()) {
+			return valueIfNonStochastic;
+		} else {
+			throw new UnsupportedOperationException("The random variable is non-deterministic");
+		}
+	}
+
+	@Override
+	public IntToDoubleFunction getOperator() {
+		return this::get;
+	}
+
+	@Override
+	public DoubleStream getRealizationsStream() {
+		if(isDeterministic()) {
+			return DoubleStream.generate(() -> valueIfNonStochastic);
+		}
+		// The storage is read block-wise
+		return LongStream.range(0, getNumberOfBlocks(realizations.size())).mapToObj(blockIndex -> {
+			final long blockStart = blockIndex * blockSize;
+			final float[] block = new float[(int)Math.min(blockSize, realizations.size()-blockStart)];
+			realizations.get(blockStart, block, 0, block.length);
+			return block;
+		}).flatMapToDouble(block -> IntStream.range(0, block.length).mapToDouble(i -> block[i]));
+	}
+
+	/*
+	 * Reductions
+	 */
+
+	@Override
+	public double getMin() {
+		if(isDeterministic()) {
+			return valueIfNonStochastic;
+		}
+		return getExtremum(true);
+	}
+
+	@Override
+	public double getMax() {
+		if(isDeterministic()) {
+			return valueIfNonStochastic;
+		}
+		return getExtremum(false);
+	}
+
+	@Override
+	public double getAverage() {
+		if(isDeterministic()) {
+			return valueIfNonStochastic;
+		}
+		if(realizations.size() == 0) {
+			return Double.NaN;
+		}
+		return getMoments().getAverage();
+	}
+
+	@Override
+	public double getAverage(final RandomVariable probabilities) {
+		if(isDeterministic()) {
+			return valueIfNonStochastic;
+		}
+		if(realizations.size() == 0) {
+			return Double.NaN;
+		}
+		return getSumOfProducts(probabilities, 0.0, false) / realizations.size();
+	}
+
+	/**
+	 * Returns the average, the variance, the sample variance, the standard deviation and the standard error,
+	 * calculated in a single (parallel) pass over the realizations.
+	 *
+	 * @return The moments of this random variable.
+	 */
+	public RandomVariableMoments getMoments() {
+		if(isDeterministic()) {
+			return RandomVariableMoments.of(valueIfNonStochastic);
+		}
+		if(realizations.size() == 0) {
+			return new RandomVariableMoments(0, Double.NaN, Double.NaN);
+		}
+
+		final RandomVariableMoments[] blockMoments = new RandomVariableMoments[getNumberOfBlocks(realizations.size())];
+		ParallelChunkExecutor.forEachChunkOfLongRange(realizations.size(), (start, end) -> {
+			final float[] block = blockBuffers.get()[0];
+			for(long blockStart=start; blockStart<end; blockStart+=blockSize) {
+				final int length = (int)Math.min(blockSize, end-blockStart);
+				realizations.get(blockStart, block, 0, length);
+				blockMoments[(int)(blockStart / blockSize)] = RandomVariableMoments.of(length, i -> block[i]);
+			}
+		});
+		return RandomVariableMoments.combine(blockMoments);
+	}
+
+	@Override
+	public double getVariance() {
+		if(isDeterministic() || sizeAsLong() == 1) {
+			return 0.0;
+		}
+		if(sizeAsLong() == 0) {
+			return Double.NaN;
+		}
+		return getMoments().getVariance();
+	}
+
+	@Override
+	public double getVariance(final RandomVariable probabilities) {
+		if(isDeterministic()) {
+			return 0.0;
+		}
+		if(sizeAsLong() == 0) {
+			return Double.NaN;
+		}
+		return getSumOfProducts(probabilities, getAverage(probabilities), true);
+	}
+
+	@Override
+	public double getSampleVariance() {
+		if(isDeterministic() || sizeAsLong() == 1) {
+			return 0.0;
+		}
+		if(sizeAsLong() == 0) {
+			return Double.NaN;
+		}
+		return getMoments().getSampleVariance();
+	}
+
+	@Override
+	public double getStandardDeviation() {
+		if(isDeterministic()) {
+			return 0.0;
+		}
+		if(sizeAsLong() == 0) {
+			return Double.NaN;
+		}
+		return Math.sqrt(getVariance());
+	}
+
+	@Override
+	public double getStandardDeviation(final RandomVariable probabilities) {
+		if(isDeterministic()) {
+			return 0.0;
+		}
+		if(sizeAsLong() == 0) {
+			return Double.NaN;
+		}
+		return Math.sqrt(getVariance(probabilities));
+	}
+
+	@Override
+	public double getStandardError() {
+		if(isDeterministic()) {
+			return 0.0;
+		}
+		if(sizeAsLong() == 0) {
+			return Double.NaN;
+		}
+		return getStandardDeviation()/Math.sqrt(sizeAsLong());
+	}
+
+	@Override
+	public double getStandardError(final RandomVariable probabilities) {
+		if(isDeterministic()) {
+			return 0.0;
+		}
+		if(sizeAsLong() == 0) {
+			return Double.NaN;
+		}
+		return getStandardDeviation(probabilities)/Math.sqrt(sizeAsLong());
+	}
+
+	@Override
+	public double getQuantile(final double quantile) {
+		if(isDeterministic()) {
+			return valueIfNonStochastic;
+		}
+		return toRandomVariableFromFloatArray().getQuantile(quantile);
+	}
+
+	@Override
+	public double getQuantile(final double quantile, final RandomVariable probabilities) {
+		if(isDeterministic()) {
+			return valueIfNonStochastic;
+		}
+		return toRandomVariableFromFloatArray().getQuantile(quantile, probabilities);
+	}
+
+	@Override
+	public double getQuantileExpectation(final double quantileStart, final double quantileEnd) {
+		if(isDeterministic()) {
+			return valueIfNonStochastic;
+		}
+		return toRandomVariableFromFloatArray().getQuantileExpectation(quantileStart, quantileEnd);
+	}
+
+	@Override
+	public double[] getHistogram(final double[] intervalPoints) {
+		if(isDeterministic()) {
+			return new RandomVariableFromFloatArray(time, valueIfNonStochastic).getHistogram(intervalPoints);
+		}
+
+		/*
+		 * The values are binned block-wise, the counts of the chunks are added (the result does not depend on the order).
+		 */
+		final HistogramBinning histogramBinning = new HistogramBinning(intervalPoints);
+		final long[] counts = new long[histogramBinning.getNumberOfBins()];
+		ParallelChunkExecutor.forEachChunkOfLongRange(realizations.size(), (start, end) -> {
+			final float[] block = blockBuffers.get()[0];
+			final long[] chunkCounts = new long[counts.length];
+			for(long blockStart=start; blockStart<end; blockStart+=blockSize) {
+				final int length = (int)Math.min(blockSize, end-blockStart);
+				realizations.get(blockStart, block, 0, length);
+				final long[] blockCounts = histogramBinning.getCounts(length, i -> block[i]);
+				for(int bin=0; bin<counts.length; bin++) {
+					chunkCounts[bin] += blockCounts[bin];
+				}
+			}
+			synchronized(counts) {
+				for(int bin=0; bin<counts.length; bin++) {
+					counts[bin] += chunkCounts[bin];
+				}
+			}
+		});
+		return HistogramBinning.getHistogram(counts, realizations.size());
+	}
+
+	@Override
+	public double[][] getHistogram(final int numberOfPoints, final double standardDeviations) {
+		final double[] intervalPoints = new double[numberOfPoints];
+		final double[] anchorPoints	= new double[numberOfPoints+1];
+		final RandomVariableMoments moments = getMoments();
+		final double center	= moments.getAverage();
+		final double radius	= standardDeviations * moments.getStandardDeviation();
+		final double stepSize	= (numberOfPoints-1) / 2.0;
+		for(int i=0; i<numberOfPoints;i++) {
+			final double alpha = (-(double)(numberOfPoints-1) / 2.0 + i) / stepSize;
+			intervalPoints[i]	= center + alpha * radius;
+			anchorPoints[i]		= center + alpha * radius - radius / (2 * stepSize);
+		}
+		anchorPoints[numberOfPoints] = center + 1 * radius + radius / (2 * stepSize);
+
+		final double[][] result = new double[2][];
+		result[0] = anchorPoints;
+		result[1] = getHistogram(intervalPoints);
+
+		return result;
+	}
+
+	@Override
+	public RandomVariable cache() {
+		return this;
+	}
+
+	/*
+	 * Unary operators
+	 */
+
+	@Override
+	public RandomVariable apply(final DoubleUnaryOperator operator) {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, operator.applyAsDouble(valueIfNonStochastic));
+		}
+		return new RandomVariableFloatOffHeap(time, getStorage(realizations.size(), new RandomVariable[] { this }, (operandBlocks, i) -> operator.applyAsDouble(operandBlocks[0][i])));
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleBinaryOperator operator, final RandomVariable argument) {
+		final double newTime = Math.max(time, argument.getFiltrationTime());
+		if(isDeterministic() && argument.isDeterministic()) {
+			return new RandomVariableFloatOffHeap(newTime, operator.applyAsDouble(valueIfNonStochastic, argument.get(0)));
+		}
+		return new RandomVariableFloatOffHeap(newTime, getStorage(getSize(this, argument), new RandomVariable[] { this, argument },
+				(operandBlocks, i) -> operator.applyAsDouble(operandBlocks[0][i], operandBlocks[1][i])));
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleTernaryOperator operator, final RandomVariable argument1, final RandomVariable argument2) {
+		final double newTime = Math.max(Math.max(time, argument1.getFiltrationTime()), argument2.getFiltrationTime());
+		if(isDeterministic() && argument1.isDeterministic() && argument2.isDeterministic()) {
+			return new RandomVariableFloatOffHeap(newTime, operator.applyAsDouble(valueIfNonStochastic, argument1.get(0), argument2.get(0)));
+		}
+		return new RandomVariableFloatOffHeap(newTime, getStorage(getSize(this, argument1, argument2), new RandomVariable[] { this, argument1, argument2 },
+				(operandBlocks, i) -> operator.applyAsDouble(operandBlocks[0][i], operandBlocks[1][i], operandBlocks[2][i])));
+	}
+
+	@Override
+	public RandomVariable cap(final double cap) {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, Math.min(valueIfNonStochastic, cap));
+		}
+		return evaluate(time, FloatOperator.CAP_SCALAR, cap, this);
+	}
+
+	@Override
+	public RandomVariable floor(final double floor) {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, Math.max(valueIfNonStochastic, floor));
+		}
+		return evaluate(time, FloatOperator.FLOOR_SCALAR, floor, this);
+	}
+
+	@Override
+	public RandomVariable add(final double value) {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, valueIfNonStochastic + value);
+		}
+		return evaluate(time, FloatOperator.ADD_SCALAR, value, this);
+	}
+
+	@Override
+	public RandomVariable sub(final double value) {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, valueIfNonStochastic - value);
+		}
+		return evaluate(time, FloatOperator.SUB_SCALAR, value, this);
+	}
+
+	@Override
+	public RandomVariable mult(final double value) {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, valueIfNonStochastic * value);
+		}
+		return evaluate(time, FloatOperator.MULT_SCALAR, value, this);
+	}
+
+	@Override
+	public RandomVariable div(final double value) {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, valueIfNonStochastic / value);
+		}
+		return evaluate(time, FloatOperator.DIV_SCALAR, value, this);
+	}
+
+	@Override
+	public RandomVariable pow(final double exponent) {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, Math.pow(valueIfNonStochastic, exponent));
+		}
+		return evaluate(time, FloatOperator.POW, exponent, this);
+	}
+
+	@Override
+	public RandomVariable average() {
+		return new RandomVariableFloatOffHeap(time, getAverage());
+	}
+
+	@Override
+	public RandomVariable squared() {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, valueIfNonStochastic * valueIfNonStochastic);
+		}
+		return evaluate(time, FloatOperator.SQUARED, this);
+	}
+
+	@Override
+	public RandomVariable sqrt() {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, Math.sqrt(valueIfNonStochastic));
+		}
+		return evaluate(time, FloatOperator.SQRT, this);
+	}
+
+	@Override
+	public RandomVariable exp() {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, Math.exp(valueIfNonStochastic));
+		}
+		return evaluate(time, FloatOperator.EXP, this);
+	}
+
+	@Override
+	public RandomVariable log() {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, Math.log(valueIfNonStochastic));
+		}
+		return evaluate(time, FloatOperator.LOG, this);
+	}
+
+	@Override
+	public RandomVariable sin() {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, Math.sin(valueIfNonStochastic));
+		}
+		return evaluate(time, FloatOperator.SIN, this);
+	}
+
+	@Override
+	public RandomVariable cos() {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, Math.cos(valueIfNonStochastic));
+		}
+		return evaluate(time, FloatOperator.COS, this);
+	}
+
+	@Override
+	public RandomVariable invert() {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, 1.0/valueIfNonStochastic);
+		}
+		return evaluate(time, FloatOperator.INVERT, this);
+	}
+
+	@Override
+	public RandomVariable abs() {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, Math.abs(valueIfNonStochastic));
+		}
+		return evaluate(time, FloatOperator.ABS, this);
+	}
+
+	@Override
+	public RandomVariable isNaN() {
+		if(isDeterministic()) {
+			return new RandomVariableFloatOffHeap(time, Double.isNaN(valueIfNonStochastic) ? 1.0 : 0.0);
+		}
+		return evaluate(time, FloatOperator.IS_NAN, this);
+	}
+
+	/*
+	 * Binary operators: checking for return type priority.
+	 */
+
+	@Override
+	public RandomVariable add(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.add(this);
+		}
+		if(isDeterministic() && randomVariable.isDeterministic()) {
+			return new RandomVariableFloatOffHeap(Math.max(time, randomVariable.getFiltrationTime()), valueIfNonStochastic + randomVariable.get(0));
+		}
+		return evaluate(FloatOperator.ADD, this, randomVariable);
+	}
+
+	@Override
+	public RandomVariable sub(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.bus(this);
+		}
+		if(isDeterministic() && randomVariable.isDeterministic()) {
+			return new RandomVariableFloatOffHeap(Math.max(time, randomVariable.getFiltrationTime()), valueIfNonStochastic - randomVariable.get(0));
+		}
+		return evaluate(FloatOperator.SUB, this, randomVariable);
+	}
+
+	@Override
+	public RandomVariable bus(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.sub(this);
+		}
+		if(isDeterministic() && randomVariable.isDeterministic()) {
+			return new RandomVariableFloatOffHeap(Math.max(time, randomVariable.getFiltrationTime()), randomVariable.get(0) - valueIfNonStochastic);
+		}
+		return evaluate(FloatOperator.SUB, randomVariable, this);
+	}
+
+	@Override
+	public RandomVariable mult(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.mult(this);
+		}
+		if(isDeterministic() && randomVariable.isDeterministic()) {
+			return new RandomVariableFloatOffHeap(Math.max(time, randomVariable.getFiltrationTime()), valueIfNonStochastic * randomVariable.get(0));
+		}
+		return evaluate(FloatOperator.MULT, this, randomVariable);
+	}
+
+	@Override
+	public RandomVariable div(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.vid(this);
+		}
+		if(isDeterministic() && randomVariable.isDeterministic()) {
+			return new RandomVariableFloatOffHeap(Math.max(time, randomVariable.getFiltrationTime()), valueIfNonStochastic / randomVariable.get(0));
+		}
+		return evaluate(FloatOperator.DIV, this, randomVariable);
+	}
+
+	@Override
+	public RandomVariable vid(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.div(this);
+		}
+		if(isDeterministic() && randomVariable.isDeterministic()) {
+			return new RandomVariableFloatOffHeap(Math.max(time, randomVariable.getFiltrationTime()), randomVariable.get(0) / valueIfNonStochastic);
+		}
+		return evaluate(FloatOperator.DIV, randomVariable, this);
+	}
+
+	@Override
+	public RandomVariable cap(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.cap(this);
+		}
+		if(isDeterministic() && randomVariable.isDeterministic()) {
+			return new RandomVariableFloatOffHeap(Math.max(time, randomVariable.getFiltrationTime()), Math.min(valueIfNonStochastic, randomVariable.get(0)));
+		}
+		return evaluate(FloatOperator.CAP, this, randomVariable);
+	}
+
+	@Override
+	public RandomVariable floor(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.floor(this);
+		}
+		if(isDeterministic() && randomVariable.isDeterministic()) {
+			return new RandomVariableFloatOffHeap(Math.max(time, randomVariable.getFiltrationTime()), Math.max(valueIfNonStochastic, randomVariable.get(0)));
+		}
+		return evaluate(FloatOperator.FLOOR, this, randomVariable);
+	}
+
+	@Override
+	public RandomVariable accrue(final RandomVariable rate, final double periodLength) {
+		if(rate.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return rate.mult(periodLength).add(1.0).mult(this);
+		}
+		if(rate.isDeterministic()) {
+			return this.mult(1.0 + rate.get(0) * periodLength);
+		}
+		return evaluate(Math.max(time, rate.getFiltrationTime()), FloatOperator.ACCRUE, periodLength, this, rate);
+	}
+
+	@Override
+	public RandomVariable discount(final RandomVariable rate, final double periodLength) {
+		if(rate.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return rate.mult(periodLength).add(1.0).vid(this);
+		}
+		if(rate.isDeterministic()) {
+			return this.div(1.0 + rate.get(0) * periodLength);
+		}
+		return evaluate(Math.max(time, rate.getFiltrationTime()), FloatOperator.DISCOUNT, periodLength, this, rate);
+	}
+
+	/*
+	 * Ternary operators: checking for return type priority.
+	 */
+
+	@Override
+	public RandomVariable choose(final RandomVariable valueIfTriggerNonNegative, final RandomVariable valueIfTriggerNegative) {
+		if(isDeterministic()) {
+			return valueIfNonStochastic >= 0 ? valueIfTriggerNonNegative : valueIfTriggerNegative;
+		}
+		return evaluate(FloatOperator.CHOOSE, this, valueIfTriggerNonNegative, valueIfTriggerNegative);
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final double factor2) {
+		if(factor1.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return factor1.mult(factor2).add(this);
+		}
+		if(factor1.isDeterministic()) {
+			return this.add(factor1.get(0) * factor2);
+		}
+		return evaluate(Math.max(time, factor1.getFiltrationTime()), FloatOperator.ADD_PRODUCT_SCALAR, factor2, this, factor1);
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final RandomVariable factor2) {
+		if(factor1.getTypePriority() > this.getTypePriority() || factor2.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return factor1.mult(factor2).add(this);
+		}
+		if(factor1.isDeterministic() && factor2.isDeterministic()) {
+			return this.add(factor1.get(0) * factor2.get(0));
+		}
+		else if(factor2.isDeterministic()) {
+			return this.addProduct(factor1, factor2.get(0));
+		}
+		else if(factor1.isDeterministic()) {
+			return this.addProduct(factor2, factor1.get(0));
+		}
+		return evaluate(FloatOperator.ADD_PRODUCT, this, factor1, factor2);
+	}
+
+	@Override
+	public RandomVariable addRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		if(numerator.getTypePriority() > this.getTypePriority() || denominator.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return numerator.div(denominator).add(this);
+		}
+		if(isDeterministic() && numerator.isDeterministic() && denominator.isDeterministic()) {
+			final double newTime = Math.max(Math.max(time, numerator.getFiltrationTime()), denominator.getFiltrationTime());
+			return new RandomVariableFloatOffHeap(newTime, valueIfNonStochastic + (numerator.get(0) / denominator.get(0)));
+		}
+		return evaluate(FloatOperator.ADD_RATIO, this, numerator, denominator);
+	}
+
+	@Override
+	public RandomVariable subRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		if(numerator.getTypePriority() > this.getTypePriority() || denominator.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return numerator.div(denominator).mult(-1).add(this);
+		}
+		if(isDeterministic() && numerator.isDeterministic() && denominator.isDeterministic()) {
+			final double newTime = Math.max(Math.max(time, numerator.getFiltrationTime()), denominator.getFiltrationTime());
+			return new RandomVariableFloatOffHeap(newTime, valueIfNonStochastic - (numerator.get(0) / denominator.get(0)));
+		}
+		return evaluate(FloatOperator.SUB_RATIO, this, numerator, denominator);
+	}
+
+	@Override
+	public String toString() {
+		return super.toString()
+				+ "\n" + "time: " + time
+				+ "\n" + "realizations: " +
+				(isDeterministic() ? valueIfNonStochastic : "off-heap, size " + realizations.size());
+	}
+
+	/*
+	 * Block-wise evaluation
+	 */
+
+	private static RandomVariable evaluate(final FloatOperator operator, final RandomVariable... operands) {
+		double time = Double.NEGATIVE_INFINITY;
+		for(final RandomVariable operand : operands) {
+			time = Math.max(time, operand.getFiltrationTime());
+		}
+		return evaluate(time, operator, new double[0], operands);
+	}
+
+	private static RandomVariable evaluate(final double time, final FloatOperator operator, final RandomVariable... operands) {
+		return evaluate(time, operator, new double[0], operands);
+	}
+
+	private static RandomVariable evaluate(final double time, final FloatOperator operator, final double parameter, final RandomVariable... operands) {
+		return evaluate(time, operator, new double[] { parameter }, operands);
+	}
+
+	/**
+	 * Applies the operator block-wise: the blocks of the operands are copied to float arrays (a deterministic operand is
+	 * expanded to a constant block) and the result block is copied to the off-heap storage of the result.
+	 */
+	private static RandomVariable evaluate(final double time, final FloatOperator operator, final double[] parameters, final RandomVariable... operands) {
+		final long size = getSize(operands);
+		final OffHeapFloatStorage result = new OffHeapFloatStorage(size);
+		ParallelChunkExecutor.forEachChunkOfLongRange(size, (start, end) -> {
+			final float[][] buffers = blockBuffers.get();
+			final float[][] operandBlocks = Arrays.copyOf(buffers, operands.length);
+			final float[] resultBlock = buffers[3];
+			final int[] offsets = new int[operands.length];
+			for(long blockStart=start; blockStart<end; blockStart+=blockSize) {
+				final int length = (int)Math.min(blockSize, end-blockStart);
+				for(int operandIndex=0; operandIndex<operands.length; operandIndex++) {
+					getBlock(operands[operandIndex], blockStart, length, operandBlocks[operandIndex]);
+				}
+				operator.apply(length, operandBlocks, offsets, parameters, resultBlock, 0);
+				result.put(blockStart, resultBlock, 0, length);
+			}
+		});
+		return new RandomVariableFloatOffHeap(time, result);
+	}
+
+	private static void getBlock(final RandomVariable operand, final long blockStart, final int length, final float[] block) {
+		if(operand.isDeterministic()) {
+			Arrays.fill(block, 0, length, (float)operand.get(0));
+		}
+		else if(operand instanceof RandomVariableFloatOffHeap) {
+			((RandomVariableFloatOffHeap)operand).realizations.get(blockStart, block, 0, length);
+		}
+		else if(operand instanceof RandomVariableFromFloatArray) {
+			System.arraycopy(((RandomVariableFromFloatArray)operand).getRealizationsAsFloatArray(), Math.toIntExact(blockStart), block, 0, length);
+		}
+		else {
+			final int start = Math.toIntExact(blockStart);
+			for(int i=0; i<length; i++) {
+				block[i] = (float)operand.get(start+i);
+			}
+		}
+	}
+
+	/**
+	 * Copies the given block of the operand to a double array (a deterministic operand is expanded to a constant block),
+	 * reading the storage of an off-heap operand once per block via the given float buffer.
+	 */
+	private static void getBlock(final RandomVariable operand, final long blockStart, final int length, final double[] block, final float[] buffer) {
+		if(operand.isDeterministic()) {
+			Arrays.fill(block, 0, length, operand.get(0));
+		}
+		else if(operand instanceof RandomVariableFloatOffHeap) {
+			((RandomVariableFloatOffHeap)operand).realizations.get(blockStart, buffer, 0, length);
+			for(int i=0; i<length; i++) {
+				block[i] = buffer[i];
+			}
+		}
+		else {
+			final int start = Math.toIntExact(blockStart);
+			for(int i=0; i<length; i++) {
+				block[i] = operand.get(start+i);
+			}
+		}
+	}
+
+	/**
+	 * Applies the operator block-wise to the operands (copied to double arrays, see {@link #getBlock(RandomVariable, long, int, double[], float[])}),
+	 * such that the storage of an off-heap operand is accessed once per block and not once per element.
+	 */
+	private static OffHeapFloatStorage getStorage(final long size, final RandomVariable[] operands, final BlockElementOperator operator) {
+		final OffHeapFloatStorage storage = new OffHeapFloatStorage(size);
+		ParallelChunkExecutor.forEachChunkOfLongRange(size, (start, end) -> {
+			final float[][] buffers = blockBuffers.get();
+			final double[][] operandBlocks = doubleBlockBuffers.get();
+			final float[] block = buffers[3];
+			for(long blockStart=start; blockStart<end; blockStart+=blockSize) {
+				final int length = (int)Math.min(blockSize, end-blockStart);
+				for(int operandIndex=0; operandIndex<operands.length; operandIndex++) {
+					getBlock(operands[operandIndex], blockStart, length, operandBlocks[operandIndex], buffers[operandIndex]);
+				}
+				for(int i=0; i<length; i++) {
+					block[i] = (float)operator.applyAsDouble(operandBlocks, i);
+				}
+				storage.put(blockStart, block, 0, length);
+			}
+		});
+		return storage;
+	}
+
+	private static OffHeapFloatStorage getStorage(final long size, final LongToDoubleFunction realizations) {
+		final OffHeapFloatStorage storage = new OffHeapFloatStorage(size);
+		ParallelChunkExecutor.forEachChunkOfLongRange(size, (start, end) -> {
+			final float[] block = blockBuffers.get()[3];
+			for(long blockStart=start; blockStart<end; blockStart+=blockSize) {
+				final int length = (int)Math.min(blockSize, end-blockStart);
+				for(int i=0; i<length; i++) {
+					block[i] = (float)realizations.applyAsDouble(blockStart+i);
+				}
+				storage.put(blockStart, block, 0, length);
+			}
+		});
+		return storage;
+	}
+
+	/**
+	 * Returns the sum of (x<sub>i</sub> - center)<sup>k</sup> &middot; w<sub>i</sub>, where k = 2 if isSquared is true
+	 * and k = 1 otherwise, using Kahan summation on blocks, combined in the order of the blocks.
+	 */
+	private double getSumOfProducts(final RandomVariable weights, final double center, final boolean isSquared) {
+		final double[] blockSums = new double[getNumberOfBlocks(realizations.size())];
+		ParallelChunkExecutor.forEachChunkOfLongRange(realizations.size(), (start, end) -> {
+			final float[] block = blockBuffers.get()[0];
+			final double[] weightBlock = doubleBlockBuffers.get()[0];
+			for(long blockStart=start; blockStart<end; blockStart+=blockSize) {
+				final int length = (int)Math.min(blockSize, end-blockStart);
+				realizations.get(blockStart, block, 0, length);
+				getBlock(weights, blockStart, length, weightBlock, blockBuffers.get()[1]);
+				double sum = 0.0;
+				double error = 0.0;
+				for(int i=0; i<length; i++) {
+					final double deviation = isSquared ? (block[i] - center) * (block[i] - center) : block[i] - center;
+					final double value = deviation * weightBlock[i] - error;
+					final double newSum = sum + value;
+					error = (newSum - sum) - value;
+					sum = newSum;
+				}
+				blockSums[(int)(blockStart / blockSize)] = sum;
+			}
+		});
+
+		double sum = 0.0;
+		double error = 0.0;
+		for(final double blockSum : blockSums) {
+			final double value = blockSum - error;
+			final double newSum = sum + value;
+			error = (newSum - sum) - value;
+			sum = newSum;
+		}
+		return sum;
+	}
+
+	private double getExtremum(final boolean isMinimum) {
+		final long size = realizations.size();
+		if(size == 0) {
+			return isMinimum ? Double.MAX_VALUE : -Double.MAX_VALUE;
+		}
+		final float[] blockExtrema = new float[getNumberOfBlocks(size)];
+		ParallelChunkExecutor.forEachChunkOfLongRange(size, (start, end) -> {
+			final float[] block = blockBuffers.get()[0];
+			for(long blockStart=start; blockStart<end; blockStart+=blockSize) {
+				final int length = (int)Math.min(blockSize, end-blockStart);
+				realizations.get(blockStart, block, 0, length);
+				float extremum = block[0];
+				for(int i=1; i<length; i++) {
+					extremum = isMinimum ? Math.min(extremum, block[i]) : Math.max(extremum, block[i]);
+				}
+				blockExtrema[(int)(blockStart / blockSize)] = extremum;
+			}
+		});
+
+		float extremum = blockExtrema[0];
+		for(final float blockExtremum : blockExtrema) {
+			extremum = isMinimum ? Math.min(extremum, blockExtremum) : Math.max(extremum, blockExtremum);
+		}
+		return extremum;
+	}
+
+	private float[] getRealizationsAsFloatArray() {
+		if(realizations.size() > maximumArraySize) {
+			throw new UnsupportedOperationException("The number of paths " + realizations.size() + " exceeds the maximum size of an array.");
+		}
+		final float[] result = new float[(int)realizations.size()];
+		realizations.get(0, result, 0, result.length);
+		return result;
+	}
+
+	private static long getSize(final RandomVariable... randomVariables) {
+		long size = 1;
+		for(final RandomVariable randomVariable : randomVariables) {
+			if(randomVariable.isDeterministic()) {
+				continue;
+			}
+			size = Math.max(size, randomVariable instanceof RandomVariableFloatOffHeap ? ((RandomVariableFloatOffHeap)randomVariable).sizeAsLong() : randomVariable.size());
+		}
+		return size;
+	}
+
+	private static int getNumberOfBlocks(final long size) {
+		return Math.toIntExact((size + blockSize - 1) / blockSize);
+	}
+
+	/*
+	 * Serialization: the realizations are written as floats.
+	 */
+
+	private void writeObject(final ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeLong(isDeterministic() ? -1 : realizations.size());
+		if(!isDeterministic()) {
+			final float[] block = new float[blockSize];
+			for(long blockStart=0; blockStart<realizations.size(); blockStart+=blockSize) {
+				final int length = (int)Math.min(blockSize, realizations.size()-blockStart);
+				realizations.get(blockStart, block, 0, length);
+				for(int i=0; i<length; i++) {
+					out.writeFloat(block[i]);
+				}
+			}
+		}
+	}
+
+	private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		final long size = in.readLong();
+		if(size >= 0) {
+			realizations = new OffHeapFloatStorage(size);
+			final float[] block = new float[blockSize];
+			for(long blockStart=0; blockStart<size; blockStart+=blockSize) {
+				final int length = (int)Math.min(blockSize, size-blockStart);
+				for(int i=0; i<length; i++) {
+					block[i] = in.readFloat();
+				}
+				realizations.put(blockStart, block, 0, length);
+			}
+		}
+	}
+}
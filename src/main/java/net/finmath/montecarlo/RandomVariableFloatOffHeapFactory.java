@@ -0,0 +1,42 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+
+package net.finmath.montecarlo;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Factory creating random variables of type {@link RandomVariableFloatOffHeap}, i.e., float random variables
+ * storing their realizations outside of the Java heap.
+ *
+ * The factory may be used as a replacement of {@link RandomVariableFloatFactory}.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RandomVariableFloatOffHeapFactory extends AbstractRandomVariableFactory implements FloatArrayRandomVariableFactory {
+
+	private static final long serialVersionUID = 4620813766195410482L;
+
+	public RandomVariableFloatOffHeapFactory() {
+		super();
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double value) {
+		return new RandomVariableFloatOffHeap(time, value);
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double[] values) {
+		return new RandomVariableFloatOffHeap(time, values);
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final float[] values) {
+		return new RandomVariableFloatOffHeap(time, values);
+	}
+}
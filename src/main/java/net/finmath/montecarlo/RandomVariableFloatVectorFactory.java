@@ -0,0 +1,124 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.lang.reflect.Constructor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Factory creating random variables with float realizations whose operations use the JDK Vector API (SIMD),
+ * see <code>RandomVariableFloatVector</code>.
+ *
+ * The class <code>RandomVariableFloatVector</code> is compiled by the Maven profile <code>vector</code> only
+ * (JDK 17 or later) and requires the JVM option <code>--add-modules jdk.incubator.vector</code> at runtime.
+ * If it is not available (or if the system property
+ * <code>net.finmath.montecarlo.RandomVariableFloatVectorFactory.enabled</code> is <code>false</code>),
+ * the factory creates {@link RandomVariableFromFloatArray} objects, which give the same results
+ * (up to rounding, see <code>RandomVariableFloatVector</code>).
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RandomVariableFloatVectorFactory extends AbstractRandomVariableFactory implements FloatArrayRandomVariableFactory {
+
+	private static final long serialVersionUID = -2412958817328731164L;
+
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	private static final String vectorRandomVariableClassName = "net.finmath.montecarlo.RandomVariableFloatVector";
+
+	private static final boolean isEnabled = Boolean.parseBoolean(System.getProperty("net.finmath.montecarlo.RandomVariableFloatVectorFactory.enabled", "true"));
+
+	private static final Class<? extends RandomVariable> vectorRandomVariableClass = getVectorRandomVariableClass();
+	private static final Constructor<? extends RandomVariable> vectorRandomVariableConstructor = getVectorRandomVariableConstructor(double[].class);
+	private static final Constructor<? extends RandomVariable> vectorRandomVariableConstructorFromFloat = getVectorRandomVariableConstructor(float[].class);
+
+	public RandomVariableFloatVectorFactory() {
+		super();
+	}
+
+	/**
+	 * @return True if the random variables created by this factory use the Vector API, false if they fall back to {@link RandomVariableFromFloatArray}.
+	 */
+	public static boolean isVectorAPIAvailable() {
+		return vectorRandomVariableClass != null;
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double value) {
+		return new RandomVariableFromFloatArray(time, value);
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double[] values) {
+		if(vectorRandomVariableConstructor == null) {
+			return new RandomVariableFromFloatArray(time, values);
+		}
+
+		try {
+			return vectorRandomVariableConstructor.newInstance(time, values);
+		}
+		catch(final ReflectiveOperationException e) {
+			throw new IllegalStateException("Unable to create " + vectorRandomVariableClassName + ".", e);
+		}
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final float[] values) {
+		if(vectorRandomVariableConstructorFromFloat == null) {
+			return new RandomVariableFromFloatArray(time, values);
+		}
+
+		try {
+			return vectorRandomVariableConstructorFromFloat.newInstance(time, values);
+		}
+		catch(final ReflectiveOperationException e) {
+			throw new IllegalStateException("Unable to create " + vectorRandomVariableClassName + ".", e);
+		}
+	}
+
+	/**
+	 * Loads the class <code>RandomVariableFloatVector</code> and checks that it can be used by evaluating a small expression.
+	 *
+	 * @return The class or null if the class is not available.
+	 */
+	private static Class<? extends RandomVariable> getVectorRandomVariableClass() {
+		if(!isEnabled) {
+			return null;
+		}
+
+		try {
+			final Class<? extends RandomVariable> vectorRandomVariableClass = Class.forName(vectorRandomVariableClassName).asSubclass(RandomVariable.class);
+
+			final RandomVariable randomVariable = vectorRandomVariableClass.getConstructor(double.class, double[].class).newInstance(0.0, new double[] { 0.0, 1.0, 2.0 });
+			if(Math.abs(randomVariable.add(1.0).getAverage() - 2.0) > 1E-6) {
+				throw new IllegalStateException("Unexpected result.");
+			}
+			return vectorRandomVariableClass;
+		}
+		catch(final Throwable e) {
+			// Class not compiled (profile vector not active) or module jdk.incubator.vector not present
+			logger.log(Level.FINE, "Vector API not available, using RandomVariableFromFloatArray: " + e);
+			return null;
+		}
+	}
+
+	private static Constructor<? extends RandomVariable> getVectorRandomVariableConstructor(final Class<?> realizationsType) {
+		if(vectorRandomVariableClass == null) {
+			return null;
+		}
+
+		try {
+			return vectorRandomVariableClass.getConstructor(double.class, realizationsType);
+		}
+		catch(final NoSuchMethodException e) {
+			return null;
+		}
+	}
+}
@@ -5,15 +5,14 @@
  */
 package net.finmath.montecarlo;
 
+import java.lang.ref.SoftReference;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.DoubleBinaryOperator;
 import java.util.function.DoubleSupplier;
 import java.util.function.DoubleUnaryOperator;
-import java.util.function.IntConsumer;
 import java.util.function.IntToDoubleFunction;
 import java.util.stream.DoubleStream;
-import java.util.stream.IntStream;
 
 import org.apache.commons.math3.util.FastMath;
 
@@ -36,10 +35,16 @@ import net.finmath.stochastic.RandomVariable;
  * This implementation uses floats for the realizations (consuming less memory compared to using doubles). However,
  * the calculation of the average is performed using double precision.
  *
+ * For large sizes the element-wise operations and the reductions are executed in parallel
+ * on the pool of {@link ParallelChunkExecutor}. The results do not depend on the number of threads.
+ *
+ * The n-ary operators {@link #addSum(List)}, {@link #addWeightedSum(List, double[])} and {@link #addSumProduct(List, List)}
+ * are evaluated in a single loop, reading each argument once and writing the result once.
+ *
  * @author Christian Fries
- * @version 1.8
+ * @version 1.9
  */
-public class RandomVariableFromFloatArray implements RandomVariable {
+public class RandomVariableFromFloatArray implements RandomVariableSumOperators {
 
 	private static final long serialVersionUID = -1352953450936857742L;
 
@@ -55,6 +60,9 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 	// Data model for the non-stochastic case (if realizations==null)
 	private final double      valueIfNonStochastic;
 
+	// Optional sorted view of the realizations (see cacheSortedRealizations)
+	private transient volatile SoftReference<float[]> sortedRealizations;
+
 	/**
 	 * Create a random variable from a given other implementation of <code>RandomVariable</code>.
 	 *
@@ -191,13 +199,12 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		this.realizations = size == 1 ? null : new float[size];//IntStream.range(0,size).parallel().mapToDouble(realisations).toArray();
 		valueIfNonStochastic = size == 1 ? realizations.applyAsDouble(0) : Double.NaN;
 		if(size > 1) {
-			IntStream.range(0,size).parallel().forEach(new IntConsumer() {
-				@Override
-				public void accept(final int i) {
-					RandomVariableFromFloatArray.this.realizations[i] = (float) realizations.applyAsDouble(i);
+			final float[] newRealizations = this.realizations;
+			ParallelChunkExecutor.forEachChunk(size, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i] = (float) realizations.applyAsDouble(i);
 				}
-			}
-					);
+			});
 		}
 		this.typePriority = typePriority;
 	}
@@ -319,16 +326,9 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 
 		/*
-		 * Kahan summation on realizations[i]
+		 * Kahan summation on realizations[i] (chunked with deterministic combine order for large sizes)
 		 */
-		double sum = 0.0;								// Running sum
-		double error = 0.0;								// Running error compensation
-		for(int i=0; i<realizations.length; i++)  {
-			final double value = realizations[i] - error;		// Error corrected value
-			final double newSum = sum + value;				// New sum
-			error = (newSum - sum) - value;								// New numerical error
-			sum	= newSum;
-		}
+		final double sum = ParallelChunkExecutor.sum(realizations.length, i -> realizations[i]);
 		return sum/realizations.length;
 	}
 
@@ -344,17 +344,23 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		/*
 		 * Kahan summation on (realizations[i] * probabilities.get(i))
 		 */
-		double sum = 0.0;
-		double error = 0.0;														// Running error compensation
-		for(int i=0; i<realizations.length; i++)  {
-			final double value = realizations[i] * probabilities.get(i) - error;		// Error corrected value
-			final double newSum = sum + value;				// New sum
-			error = (newSum - sum) - value;				// New numerical error
-			sum	= newSum;
-		}
+		final double sum = ParallelChunkExecutor.sum(realizations.length, i -> realizations[i] * probabilities.get(i));
 		return sum / realizations.length;
 	}
 
+	/**
+	 * Returns the average, the variance, the sample variance, the standard deviation and the standard error,
+	 * calculated in a single (parallel) pass over the realizations.
+	 *
+	 * @return The moments of this random variable.
+	 */
+	public RandomVariableMoments getMoments() {
+		if(isDeterministic()) {
+			return RandomVariableMoments.of(valueIfNonStochastic);
+		}
+		return RandomVariableMoments.of(realizations);
+	}
+
 	@Override
 	public double getVariance() {
 		if(isDeterministic() || size() == 1) {
@@ -364,20 +370,7 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			return Double.NaN;
 		}
 
-		final double average = getAverage();
-
-		/*
-		 * Kahan summation on (realizations[i] - average)^2
-		 */
-		double sum = 0.0;
-		double errorOfSum	= 0.0;
-		for(int i=0; i<realizations.length; i++) {
-			final double value	= (realizations[i] - average)*(realizations[i] - average) - errorOfSum;
-			final double newSum	= sum + value;
-			errorOfSum		= (newSum - sum) - value;
-			sum				= newSum;
-		}
-		return sum/realizations.length;
+		return getMoments().getVariance();
 	}
 
 	@Override
@@ -394,14 +387,7 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		/*
 		 * Kahan summation on (realizations[i] - average)^2 * probabilities.get(i)
 		 */
-		double sum = 0.0;
-		double errorOfSum	= 0.0;
-		for(int i=0; i<realizations.length; i++) {
-			final double value	= (realizations[i] - average) * (realizations[i] - average) * probabilities.get(i) - errorOfSum;
-			final double newSum	= sum + value;
-			errorOfSum		= (newSum - sum) - value;
-			sum				= newSum;
-		}
+		final double sum = ParallelChunkExecutor.sum(realizations.length, i -> (realizations[i] - average) * (realizations[i] - average) * probabilities.get(i));
 		return sum;
 	}
 
@@ -477,12 +463,58 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			return Double.NaN;
 		}
 
-		final float[] realizationsSorted = realizations.clone();
-		java.util.Arrays.sort(realizationsSorted);
+		final float[] realizationsSorted = getCachedSortedRealizations();
+		if(realizationsSorted != null) {
+			return realizationsSorted[QuantileSelection.getIndexOfQuantile(size(), quantile)];
+		}
+
+		return QuantileSelection.getQuantiles(realizations, quantile)[0];
+	}
+
+	/**
+	 * Returns the quantiles for the given quantile levels. The quantiles are calculated in a single
+	 * selection pass (see {@link QuantileSelection}), without sorting the realizations.
+	 *
+	 * @param quantiles The quantile levels.
+	 * @return The quantiles, one for each quantile level, identical to the values of {@link #getQuantile(double)}.
+	 */
+	public double[] getQuantiles(final double... quantiles) {
+		final double[] values = new double[quantiles.length];
+		if(isDeterministic() || size() == 0) {
+			Arrays.fill(values, isDeterministic() ? valueIfNonStochastic : Double.NaN);
+			return values;
+		}
+
+		final float[] realizationsSorted = getCachedSortedRealizations();
+		if(realizationsSorted != null) {
+			for(int i=0; i<quantiles.length; i++) {
+				values[i] = realizationsSorted[QuantileSelection.getIndexOfQuantile(size(), quantiles[i])];
+			}
+			return values;
+		}
+
+		return QuantileSelection.getQuantiles(realizations, quantiles);
+	}
 
-		final int indexOfQuantileValue = Math.min(Math.max((int)Math.round((size()+1) * quantile - 1), 0), size()-1);
+	/**
+	 * Sorts the realizations once and keeps the sorted vector (via a soft reference), such that subsequent calls
+	 * of the quantile methods are served from the sorted vector. This is beneficial if many quantiles are requested
+	 * from the same random variable in separate calls.
+	 *
+	 * @return This random variable.
+	 */
+	public RandomVariableFromFloatArray cacheSortedRealizations() {
+		if(!isDeterministic() && getCachedSortedRealizations() == null) {
+			final float[] realizationsSorted = realizations.clone();
+			Arrays.sort(realizationsSorted);
+			sortedRealizations = new SoftReference<>(realizationsSorted);
+		}
+		return this;
+	}
 
-		return realizationsSorted[indexOfQuantileValue];
+	private float[] getCachedSortedRealizations() {
+		final SoftReference<float[]> reference = sortedRealizations;
+		return reference != null ? reference.get() : null;
 	}
 
 	@Override
@@ -494,7 +526,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			return Double.NaN;
 		}
 
-		throw new RuntimeException("Method not implemented.");
+		final double[] weights = new double[size()];
+		for(int i=0; i<weights.length; i++) {
+			weights[i] = probabilities.get(i);
+		}
+		return QuantileSelection.getQuantile(realizations, weights, quantile);
 	}
 
 	@Override
@@ -509,11 +545,13 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			return getQuantileExpectation(quantileEnd, quantileStart);
 		}
 
-		final float[] realizationsSorted = realizations.clone();
-		java.util.Arrays.sort(realizationsSorted);
+		final float[] realizationsSorted = getCachedSortedRealizations();
+		if(realizationsSorted == null) {
+			return QuantileSelection.getQuantileExpectation(realizations, quantileStart, quantileEnd);
+		}
 
-		final int indexOfQuantileValueStart	= Math.min(Math.max((int)Math.round((size()+1) * quantileStart - 1), 0), size()-1);
-		final int indexOfQuantileValueEnd		= Math.min(Math.max((int)Math.round((size()+1) * quantileEnd - 1), 0), size()-1);
+		final int indexOfQuantileValueStart	= QuantileSelection.getIndexOfQuantile(size(), quantileStart);
+		final int indexOfQuantileValueEnd		= QuantileSelection.getIndexOfQuantile(size(), quantileEnd);
 
 		double quantileExpectation = 0.0;
 		for (int i=indexOfQuantileValueStart; i<=indexOfQuantileValueEnd;i++) {
@@ -527,13 +565,14 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 	@Override
 	public double[] getHistogram(final double[] intervalPoints)
 	{
-		final double[] histogramValues = new double[intervalPoints.length+1];
+		final double[] histogramValues;
 
 		if(isDeterministic()) {
 			/*
 			 * If the random variable is deterministic we will return an array
 			 * consisting of 0's and one and only one 1.
 			 */
+			histogramValues = new double[intervalPoints.length+1];
 			java.util.Arrays.fill(histogramValues, 0.0);
 			for (int intervalIndex=0; intervalIndex<intervalPoints.length; intervalIndex++)
 			{
@@ -550,30 +589,10 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			 * representing a density, where the sum of the entries is one.
 			 * There is one exception:
 			 * If the size of the random variable is 0, all entries will be zero.
+			 * The values are binned in a single (parallel) pass, see HistogramBinning.
 			 */
-			final float[] realizationsSorted = realizations.clone();
-			java.util.Arrays.sort(realizationsSorted);
-
-			int sampleIndex=0;
-			for (int intervalIndex=0; intervalIndex<intervalPoints.length; intervalIndex++)
-			{
-				int sampleCount = 0;
-				while (sampleIndex < realizationsSorted.length &&
-						realizationsSorted[sampleIndex] <= intervalPoints[intervalIndex])
-				{
-					sampleIndex++;
-					sampleCount++;
-				}
-				histogramValues[intervalIndex] = sampleCount;
-			}
-			histogramValues[intervalPoints.length] = realizationsSorted.length-sampleIndex;
-
-			// Normalize histogramValues
-			if(realizationsSorted.length > 0) {
-				for(int i=0; i<histogramValues.length; i++) {
-					histogramValues[i] /= realizationsSorted.length;
-				}
-			}
+			final HistogramBinning histogramBinning = new HistogramBinning(intervalPoints);
+			histogramValues = HistogramBinning.getHistogram(histogramBinning.getCounts(realizations), realizations.length);
 		}
 
 		return histogramValues;
@@ -583,8 +602,9 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 	public double[][] getHistogram(final int numberOfPoints, final double standardDeviations) {
 		final double[] intervalPoints = new double[numberOfPoints];
 		final double[] anchorPoints	= new double[numberOfPoints+1];
-		final double center	= getAverage();
-		final double radius	= standardDeviations * getStandardDeviation();
+		final RandomVariableMoments moments = getMoments();
+		final double center	= moments.getAverage();
+		final double radius	= standardDeviations * moments.getStandardDeviation();
 		final double stepSize	= (numberOfPoints-1) / 2.0;
 		for(int i=0; i<numberOfPoints;i++) {
 			final double alpha = (-(double)(numberOfPoints-1) / 2.0 + i) / stepSize;
@@ -634,6 +654,16 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 	}
 
+	/**
+	 * Returns the internal array of realizations (no defensive copy is made).
+	 * The array must not be modified. Returns null if this random variable is deterministic.
+	 *
+	 * @return The internal array of realizations or null.
+	 */
+	float[] getRealizationsAsFloatArray() {
+		return realizations;
+	}
+
 	@Override
 	public Double doubleValue() {
 		if(isDeterministic()) {
@@ -754,9 +784,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = Math.min(realizations[i],(float)cap);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = Math.min(realizations[i],(float)cap);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -769,9 +801,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = Math.max(realizations[i],(float)floor);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = Math.max(realizations[i],(float)floor);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -784,9 +818,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] + (float)value;
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = realizations[i] + (float)value;
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -799,9 +835,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] - (float)value;
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = realizations[i] - (float)value;
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -814,9 +852,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] * (float)value;
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = realizations[i] * (float)value;
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -829,9 +869,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] / (float)value;
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = realizations[i] / (float)value;
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -844,9 +886,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float) Math.pow(realizations[i],(float)exponent);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float) Math.pow(realizations[i],(float)exponent);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -870,9 +914,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] * realizations[i];
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = realizations[i] * realizations[i];
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -885,9 +931,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)Math.sqrt(realizations[i]);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float)Math.sqrt(realizations[i]);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -900,9 +948,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)FastMath.exp(realizations[i]);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float)FastMath.exp(realizations[i]);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -915,9 +965,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)FastMath.log(realizations[i]);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float)FastMath.log(realizations[i]);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -930,9 +982,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)FastMath.sin(realizations[i]);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float)FastMath.sin(realizations[i]);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -945,9 +999,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)FastMath.cos(realizations[i]);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float)FastMath.cos(realizations[i]);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -972,15 +1028,19 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else if(isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = ((float)valueIfNonStochastic + (float)randomVariable.get(i));
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = ((float)valueIfNonStochastic + (float)randomVariable.get(i));
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		} else {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] + (float)randomVariable.get(i);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = realizations[i] + (float)randomVariable.get(i);
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 	}
@@ -1001,16 +1061,20 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else if(isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)valueIfNonStochastic - (float)randomVariable.get(i);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float)valueIfNonStochastic - (float)randomVariable.get(i);
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 		else {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] - (float)randomVariable.get(i);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = realizations[i] - (float)randomVariable.get(i);
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 	}
@@ -1031,16 +1095,20 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else if(isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)randomVariable.get(i) - (float)valueIfNonStochastic;
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float)randomVariable.get(i) - (float)valueIfNonStochastic;
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 		else {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)randomVariable.get(i) - realizations[i];
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float)randomVariable.get(i) - realizations[i];
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 	}
@@ -1063,16 +1131,20 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			return this.mult(randomVariable.get(0));
 		} else if(isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)valueIfNonStochastic * (float)randomVariable.get(i);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float)valueIfNonStochastic * (float)randomVariable.get(i);
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 		else {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] * (float)randomVariable.get(i);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = realizations[i] * (float)randomVariable.get(i);
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 	}
@@ -1093,16 +1165,20 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else if(isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i] = (float)valueIfNonStochastic / (float)randomVariable.get(i);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i] = (float)valueIfNonStochastic / (float)randomVariable.get(i);
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 		else {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] / (float)randomVariable.get(i);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = realizations[i] / (float)randomVariable.get(i);
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 	}
@@ -1123,16 +1199,20 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else if(isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)randomVariable.get(i) / (float)valueIfNonStochastic;
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float)randomVariable.get(i) / (float)valueIfNonStochastic;
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 		else {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)randomVariable.get(i) / realizations[i];
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float)randomVariable.get(i) / realizations[i];
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 	}
@@ -1153,15 +1233,19 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else if(isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = FastMath.min((float)valueIfNonStochastic, (float)randomVariable.get(i));
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = FastMath.min((float)valueIfNonStochastic, (float)randomVariable.get(i));
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		} else {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = FastMath.min(realizations[i], (float)randomVariable.get(i));
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = FastMath.min(realizations[i], (float)randomVariable.get(i));
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 	}
@@ -1182,15 +1266,19 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else if(isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float) FastMath.max(valueIfNonStochastic, (float)randomVariable.get(i));
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float) FastMath.max(valueIfNonStochastic, (float)randomVariable.get(i));
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		} else {
 			final float[] newRealizations = new float[Math.max(size(), randomVariable.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = FastMath.max(realizations[i], (float)randomVariable.get(i));
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = FastMath.max(realizations[i], (float)randomVariable.get(i));
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 	}
@@ -1209,16 +1297,20 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			return this.mult(1.0 + rate.get(0) * periodLength);
 		} else if(isDeterministic() && !rate.isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), rate.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 =  (float)valueIfNonStochastic * (1 + (float)rate.get(i) * (float)periodLength);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 =  (float)valueIfNonStochastic * (1 + (float)rate.get(i) * (float)periodLength);
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 		else {
 			final float[] newRealizations = new float[Math.max(size(), rate.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] * (1.0f + (float)rate.get(i) * (float)periodLength);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = realizations[i] * (1.0f + (float)rate.get(i) * (float)periodLength);
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 	}
@@ -1237,16 +1329,20 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			return this.div(1.0 + rate.doubleValue() * periodLength);
 		} else if(isDeterministic() && !rate.isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), rate.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)valueIfNonStochastic / (1.0f + (float)rate.get(i) * (float)periodLength);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float)valueIfNonStochastic / (1.0f + (float)rate.get(i) * (float)periodLength);
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 		else {
 			final float[] newRealizations = new float[Math.max(size(), rate.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] / (1.0f + (float)rate.get(i) * (float)periodLength);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = realizations[i] / (1.0f + (float)rate.get(i) * (float)periodLength);
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 	}
@@ -1273,9 +1369,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		else {
 			final int numberOfPaths = this.size();
 			final float[] newRealizations = new float[numberOfPaths];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i] = (float) (realizations[i] >= 0.0 ? valueIfTriggerNonNegative.get(i) : valueIfTriggerNegative.get(i));
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i] = (float) (realizations[i] >= 0.0 ? valueIfTriggerNonNegative.get(i) : valueIfTriggerNegative.get(i));
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 	}
@@ -1288,9 +1386,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = 1.0f/realizations[i];
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = 1.0f/realizations[i];
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -1303,9 +1403,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = Math.abs(realizations[i]);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = Math.abs(realizations[i]);
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
@@ -1324,24 +1426,30 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			return this.add(factor1.get(0) * factor2);
 		} else if(isDeterministic() && !factor1.isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(size(), factor1.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)valueIfNonStochastic + (float)factor1.get(i) * (float)factor2;
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float)valueIfNonStochastic + (float)factor1.get(i) * (float)factor2;
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 		else if(!isDeterministic() && factor1.isDeterministic()) {
 			final float factor1Value = (float)factor1.get(0);
 			final float[] newRealizations = new float[Math.max(size(), factor1.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] + factor1Value * (float)factor2;
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = realizations[i] + factor1Value * (float)factor2;
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 		else {
 			final float[] newRealizations = new float[Math.max(size(), factor1.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] + (float)factor1.get(i) * (float)factor2;
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = realizations[i] + (float)factor1.get(i) * (float)factor2;
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 	}
@@ -1371,9 +1479,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else if(!this.isDeterministic() && !factor1.isDeterministic() && !factor2.isDeterministic()) {
 			final float[] newRealizations = new float[Math.max(Math.max(size(), factor1.size()), factor2.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = realizations[i] + (float)factor1.get(i) * (float)factor2.get(i);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = realizations[i] + (float)factor1.get(i) * (float)factor2.get(i);
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 		else {
@@ -1384,11 +1494,104 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 	@Override
 	public RandomVariable addSumProduct(final List<RandomVariable> factor1, final List<RandomVariable> factor2)
 	{
-		RandomVariable result = this;
-		for(int i=0; i<factor1.size(); i++) {
-			result = result.addProduct(factor1.get(i), factor2.get(i));
+		final SumProductTerms terms = new SumProductTerms(this, factor1, factor2, null);
+		if(terms.getMaximumTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			RandomVariable result = this;
+			for(int i=0; i<factor1.size(); i++) {
+				result = result.addProduct(factor1.get(i), factor2.get(i));
+			}
+			return result;
+		}
+		return getSum(terms);
+	}
+
+	@Override
+	public RandomVariable addSum(final List<RandomVariable> summands) {
+		final SumProductTerms terms = new SumProductTerms(this, summands, null, null);
+		if(terms.getMaximumTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return RandomVariableSumOperators.super.addSum(summands);
+		}
+		return getSum(terms);
+	}
+
+	@Override
+	public RandomVariable addWeightedSum(final List<RandomVariable> summands, final double[] weights) {
+		final SumProductTerms terms = new SumProductTerms(this, summands, null, weights);
+		if(terms.getMaximumTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return RandomVariableSumOperators.super.addWeightedSum(summands, weights);
+		}
+		return getSum(terms);
+	}
+
+	/**
+	 * Evaluates the sum of this random variable and the given terms in a single loop: each chunk of the result is
+	 * initialized with this random variable and the constant, then the stochastic terms are accumulated while the chunk is in the cache.
+	 *
+	 * @param terms The terms of the sum.
+	 * @return The sum.
+	 */
+	private RandomVariable getSum(final SumProductTerms terms) {
+		final float constant = (float)terms.getConstant();
+		if(terms.getNumberOfTerms() == 0 && isDeterministic()) {
+			return new RandomVariableFromFloatArray(terms.getFiltrationTime(), terms.getConstant());
+		}
+
+		final int numberOfTerms = terms.getNumberOfTerms();
+		final float[][] factors1 = new float[numberOfTerms][];
+		final float[][] factors2 = new float[numberOfTerms][];
+		final float[] weights = new float[numberOfTerms];
+		for(int k=0; k<numberOfTerms; k++) {
+			factors1[k] = getFloatArrayOf(terms.getFactor1(k));
+			factors2[k] = terms.getFactor2(k) != null ? getFloatArrayOf(terms.getFactor2(k)) : null;
+			weights[k] = (float)terms.getWeight(k);
+		}
+
+		final float[] newRealizations = new float[terms.size()];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			if(isDeterministic()) {
+				Arrays.fill(newRealizations, start, end, constant);
+			}
+			else {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = realizations[i] + constant;
+				}
+			}
+			for(int k=0; k<numberOfTerms; k++) {
+				final float[] factor1 = factors1[k];
+				final float[] factor2 = factors2[k];
+				final float weight = weights[k];
+				if(factor2 == null) {
+					for(int i=start; i<end; i++) {
+						newRealizations[i]		+= factor1[i] * weight;
+					}
+				}
+				else {
+					for(int i=start; i<end; i++) {
+						newRealizations[i]		+= factor1[i] * factor2[i] * weight;
+					}
+				}
+			}
+		});
+		return new RandomVariableFromFloatArray(terms.getFiltrationTime(), newRealizations);
+	}
+
+	/**
+	 * Returns the realizations of a stochastic random variable as float array, without copying if it is a <code>RandomVariableFromFloatArray</code>.
+	 * The array must not be modified.
+	 *
+	 * @param randomVariable A stochastic random variable.
+	 * @return The realizations as float array.
+	 */
+	static float[] getFloatArrayOf(final RandomVariable randomVariable) {
+		if(randomVariable instanceof RandomVariableFromFloatArray) {
+			return ((RandomVariableFromFloatArray)randomVariable).realizations;
+		}
+		else {
+			return getFloatArray(randomVariable.getRealizations());
 		}
-		return result;
 	}
 
 	@Override
@@ -1407,9 +1610,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[Math.max(Math.max(size(), numerator.size()), denominator.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)get(i) + (float)numerator.get(i) / (float)denominator.get(i);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float)get(i) + (float)numerator.get(i) / (float)denominator.get(i);
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 	}
@@ -1430,9 +1635,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 		}
 		else {
 			final float[] newRealizations = new float[Math.max(Math.max(size(), numerator.size()), denominator.size())];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = (float)get(i) - (float)numerator.get(i) / (float)denominator.get(i);
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = (float)get(i) - (float)numerator.get(i) / (float)denominator.get(i);
+				}
+			});
 			return new RandomVariableFromFloatArray(newTime, newRealizations);
 		}
 	}
@@ -1443,9 +1650,11 @@ public class RandomVariableFromFloatArray implements RandomVariable {
 			return new RandomVariableFromFloatArray(time, Double.isNaN(valueIfNonStochastic) ? 1.0f : 0.0f);
 		} else {
 			final float[] newRealizations = new float[size()];
-			for(int i=0; i<newRealizations.length; i++) {
-				newRealizations[i]		 = Double.isNaN(get(i)) ? 1.0f : 0.0f;
-			}
+			ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+				for(int i=start; i<end; i++) {
+					newRealizations[i]		 = Double.isNaN(get(i)) ? 1.0f : 0.0f;
+				}
+			});
 			return new RandomVariableFromFloatArray(time, newRealizations);
 		}
 	}
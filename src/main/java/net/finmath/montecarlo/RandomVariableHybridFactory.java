@@ -0,0 +1,105 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+
+package net.finmath.montecarlo;
+
+import net.finmath.montecarlo.cuda.RandomVariableCudaFactory;
+
+/**
+ * Factory creating random variables whose paths are split into a host partition (by default {@link RandomVariableFromFloatArray})
+ * and a device partition (by default {@link net.finmath.montecarlo.cuda.RandomVariableCuda}), such that the CPU and the GPU are
+ * working concurrently on the same random variable.
+ *
+ * The random variables are of type {@link RandomVariableSharded} with two shards (shard 0 is the host, shard 1 is the device):
+ * the operations are performed on both partitions concurrently, the reductions are merged from the results of the partitions.
+ * The fraction of the paths on the host is rebalanced from the measured throughput: automatically, when a partition is requested
+ * (e.g. by a new Brownian motion) after the partitions have processed the given number of paths since the last rebalancing
+ * (see {@link RandomVariableShardedFactory#getPartition(int)}), or explicitly by {@link #rebalance()}.
+ *
+ * The initial fraction of the paths on the host of the default constructor is given by the system property
+ * <code>net.finmath.montecarlo.RandomVariableHybridFactory.hostFraction</code> (default 0.2), the number of paths
+ * for the automatic rebalancing by the system property <code>net.finmath.montecarlo.RandomVariableHybridFactory.numberOfPathsForRebalancing</code>
+ * (default 10<sup>8</sup>, 0 disables the automatic rebalancing).
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RandomVariableHybridFactory extends RandomVariableShardedFactory {
+
+	private static final long serialVersionUID = 3150457245137316402L;
+
+	private static final double defaultHostFraction = Double.parseDouble(System.getProperty("net.finmath.montecarlo.RandomVariableHybridFactory.hostFraction", "0.2"));
+	private static final long defaultNumberOfPathsForRebalancing = Long.parseLong(System.getProperty("net.finmath.montecarlo.RandomVariableHybridFactory.numberOfPathsForRebalancing", "100000000"));
+
+	/**
+	 * Create a factory splitting the paths between the given host and device factories.
+	 *
+	 * @param hostFactory The factory of the host partition.
+	 * @param deviceFactory The factory of the device partition.
+	 * @param hostFraction The initial fraction of the paths on the host (in [0,1]).
+	 * @param numberOfPathsForRebalancing The number of paths processed by the partitions (summed over all operations) after which the fraction is rebalanced automatically, 0 disables the automatic rebalancing.
+	 */
+	public RandomVariableHybridFactory(final AbstractRandomVariableFactory hostFactory, final AbstractRandomVariableFactory deviceFactory, final double hostFraction, final long numberOfPathsForRebalancing) {
+		super(new AbstractRandomVariableFactory[] { hostFactory, deviceFactory }, getWeightsOfHostFraction(hostFraction), numberOfPathsForRebalancing);
+	}
+
+	/**
+	 * Create a factory splitting the paths between the given host and device factories.
+	 *
+	 * @param hostFactory The factory of the host partition.
+	 * @param deviceFactory The factory of the device partition.
+	 * @param hostFraction The initial fraction of the paths on the host (in [0,1]).
+	 */
+	public RandomVariableHybridFactory(final AbstractRandomVariableFactory hostFactory, final AbstractRandomVariableFactory deviceFactory, final double hostFraction) {
+		this(hostFactory, deviceFactory, hostFraction, defaultNumberOfPathsForRebalancing);
+	}
+
+	/**
+	 * Create a factory splitting the paths between {@link RandomVariableFromFloatArray} and the given device factory.
+	 *
+	 * @param deviceFactory The factory of the device partition.
+	 * @param hostFraction The initial fraction of the paths on the host (in [0,1]).
+	 */
+	public RandomVariableHybridFactory(final AbstractRandomVariableFactory deviceFactory, final double hostFraction) {
+		this(new RandomVariableFloatFactory(), deviceFactory, hostFraction);
+	}
+
+	/**
+	 * Create a factory splitting the paths between {@link RandomVariableFromFloatArray} and {@link net.finmath.montecarlo.cuda.RandomVariableCuda}.
+	 */
+	public RandomVariableHybridFactory() {
+		this(new RandomVariableCudaFactory(), defaultHostFraction);
+	}
+
+	/**
+	 * @return The current fraction of the paths on the host.
+	 */
+	public double getHostFraction() {
+		final double[] weights = getWeights();
+		return weights[0] / (weights[0] + weights[1]);
+	}
+
+	/**
+	 * @return The factory of the host partition.
+	 */
+	public AbstractRandomVariableFactory getHostFactory() {
+		return getShardFactory(0);
+	}
+
+	/**
+	 * @return The factory of the device partition.
+	 */
+	public AbstractRandomVariableFactory getDeviceFactory() {
+		return getShardFactory(1);
+	}
+
+	private static double[] getWeightsOfHostFraction(final double hostFraction) {
+		if(!(hostFraction >= 0.0 && hostFraction <= 1.0)) {
+			throw new IllegalArgumentException("The host fraction has to be in [0,1].");
+		}
+		return new double[] { hostFraction, 1.0 - hostFraction };
+	}
+}
@@ -0,0 +1,252 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.io.Serializable;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * The first two moments (average and variance) of the realizations of a random variable, together with the derived
+ * sample variance, standard deviation and standard error, calculated in a single pass over the realizations.
+ *
+ * The calculation uses the chunks of {@link ParallelChunkExecutor}: within a chunk the values are processed in small blocks.
+ * For each block the sum and the sum of squared deviations from the block average are calculated (the second sweep
+ * over a block hits the cache). The statistics of blocks and chunks are combined by the formula of Chan, Golub and LeVeque,
+ * the chunks in a pairwise (tree) order. The sum is calculated using Kahan summation in the same order as
+ * {@link ParallelChunkExecutor#sum(int, IntToDoubleFunction)}, such that {@link #getAverage()} agrees with
+ * {@link RandomVariableFromFloatArray#getAverage()}.
+ *
+ * Since the chunk boundaries and the combination order are fixed, the result does not depend on the number of threads.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RandomVariableMoments implements Serializable {
+
+	private static final long serialVersionUID = 2683937423596284427L;
+
+	private static final int blockSize = 1024;
+
+	private final long		numberOfValues;
+	private final double	sum;
+	private final double	sumOfSquaredDeviations;
+
+	/**
+	 * Create the moments from the number of values, their sum and the sum of their squared deviations from the average.
+	 *
+	 * @param numberOfValues The number of values.
+	 * @param sum The sum of the values.
+	 * @param sumOfSquaredDeviations The sum of the squared deviations from the average.
+	 */
+	public RandomVariableMoments(final long numberOfValues, final double sum, final double sumOfSquaredDeviations) {
+		super();
+		this.numberOfValues = numberOfValues;
+		this.sum = sum;
+		this.sumOfSquaredDeviations = sumOfSquaredDeviations;
+	}
+
+	/**
+	 * Returns the moments of a deterministic random variable.
+	 *
+	 * @param value The value of the random variable.
+	 * @return The moments of the random variable.
+	 */
+	public static RandomVariableMoments of(final double value) {
+		return new RandomVariableMoments(1, value, 0.0);
+	}
+
+	/**
+	 * Calculate the moments of the given values.
+	 *
+	 * @param values The values.
+	 * @return The moments of the values.
+	 */
+	public static RandomVariableMoments of(final float[] values) {
+		return of(values.length, i -> values[i]);
+	}
+
+	/**
+	 * Calculate the moments of the values <code>values.applyAsDouble(i)</code> for <code>i</code> in <code>[0, size)</code>.
+	 * The function may be called concurrently and is called twice for each index.
+	 *
+	 * @param size The number of values.
+	 * @param values A function mapping an index to a value.
+	 * @return The moments of the values.
+	 */
+	public static RandomVariableMoments of(final int size, final IntToDoubleFunction values) {
+		if(size == 0) {
+			return new RandomVariableMoments(0, Double.NaN, Double.NaN);
+		}
+
+		final int chunkSize = ParallelChunkExecutor.getChunkSize();
+		final int numberOfChunks = ParallelChunkExecutor.isParallel(size) ? (int)((size + (long)chunkSize - 1) / chunkSize) : 1;
+
+		final RandomVariableMoments[] chunkMoments = new RandomVariableMoments[numberOfChunks];
+		ParallelChunkExecutor.forEachChunk(size, (start, end) -> chunkMoments[start / chunkSize] = of(start, end, values));
+
+		return combine(chunkMoments);
+	}
+
+	/**
+	 * Returns the moments of the union of the values of the given moments. The sums are combined by Kahan summation
+	 * in the order of the array, the sums of squared deviations are combined pairwise (as a binary tree). The result
+	 * hence depends only on the order of the array.
+	 *
+	 * @param moments Non-empty array of moments of (disjoint) sets of values.
+	 * @return The moments of the union of the values.
+	 */
+	public static RandomVariableMoments combine(final RandomVariableMoments[] moments) {
+		/*
+		 * Kahan summation on the chunk sums (in the order of the chunks)
+		 */
+		double sum = 0.0;
+		double error = 0.0;
+		for(final RandomVariableMoments momentsOfChunk : moments) {
+			final double value = momentsOfChunk.sum - error;
+			final double newSum = sum + value;
+			error = (newSum - sum) - value;
+			sum = newSum;
+		}
+
+		final RandomVariableMoments combinedMoments = combine(moments, 0, moments.length);
+		return new RandomVariableMoments(combinedMoments.numberOfValues, sum, combinedMoments.sumOfSquaredDeviations);
+	}
+
+	private static RandomVariableMoments of(final int start, final int end, final IntToDoubleFunction values) {
+		double sum = 0.0;								// Running sum
+		double error = 0.0;								// Running error compensation
+
+		long numberOfValues = 0;
+		double average = 0.0;
+		double sumOfSquaredDeviations = 0.0;
+		for(int blockStart=start; blockStart<end; blockStart+=blockSize) {
+			final int blockEnd = Math.min(blockStart+blockSize, end);
+			final int blockLength = blockEnd-blockStart;
+
+			double blockSum = 0.0;
+			for(int i=blockStart; i<blockEnd; i++) {
+				final double x = values.applyAsDouble(i);
+				final double value = x - error;				// Error corrected value
+				final double newSum = sum + value;			// New sum
+				error = (newSum - sum) - value;				// New numerical error
+				sum	= newSum;
+				blockSum += x;
+			}
+			final double blockAverage = blockSum / blockLength;
+
+			// Corrected two-pass algorithm on the block
+			double blockSumOfSquaredDeviations = 0.0;
+			double blockSumOfDeviations = 0.0;
+			for(int i=blockStart; i<blockEnd; i++) {
+				final double deviation = values.applyAsDouble(i) - blockAverage;
+				blockSumOfSquaredDeviations += deviation * deviation;
+				blockSumOfDeviations += deviation;
+			}
+			blockSumOfSquaredDeviations -= blockSumOfDeviations * blockSumOfDeviations / blockLength;
+
+			// Combine with the previous blocks
+			final long newNumberOfValues = numberOfValues + blockLength;
+			final double delta = blockAverage - average;
+			sumOfSquaredDeviations += blockSumOfSquaredDeviations + delta * delta * numberOfValues * blockLength / newNumberOfValues;
+			average += delta * blockLength / newNumberOfValues;
+			numberOfValues = newNumberOfValues;
+		}
+
+		return new RandomVariableMoments(numberOfValues, sum, sumOfSquaredDeviations);
+	}
+
+	private static RandomVariableMoments combine(final RandomVariableMoments[] moments, final int start, final int end) {
+		if(end-start == 1) {
+			return moments[start];
+		}
+		final int mid = (start + end) >>> 1;
+		return combine(moments, start, mid).combine(combine(moments, mid, end));
+	}
+
+	/**
+	 * Returns the moments of the union of the values of this object and the given object.
+	 *
+	 * @param other The moments of other values.
+	 * @return The moments of the union of the values.
+	 */
+	public RandomVariableMoments combine(final RandomVariableMoments other) {
+		if(other.numberOfValues == 0) {
+			return this;
+		}
+		if(numberOfValues == 0) {
+			return other;
+		}
+
+		final long newNumberOfValues = numberOfValues + other.numberOfValues;
+		final double delta = other.getAverage() - getAverage();
+		final double newSumOfSquaredDeviations = sumOfSquaredDeviations + other.sumOfSquaredDeviations
+				+ delta * delta * ((double)numberOfValues * other.numberOfValues / newNumberOfValues);
+		return new RandomVariableMoments(newNumberOfValues, sum + other.sum, newSumOfSquaredDeviations);
+	}
+
+	/**
+	 * @return The number of values.
+	 */
+	public long getNumberOfValues() {
+		return numberOfValues;
+	}
+
+	/**
+	 * @return The sum of the values.
+	 */
+	public double getSum() {
+		return sum;
+	}
+
+	/**
+	 * @return The average of the values.
+	 */
+	public double getAverage() {
+		return sum / numberOfValues;
+	}
+
+	/**
+	 * @return The variance of the values (the sum of squared deviations divided by the number of values).
+	 */
+	public double getVariance() {
+		if(numberOfValues == 0) {
+			return Double.NaN;
+		}
+		return Math.max(sumOfSquaredDeviations / numberOfValues, 0.0);
+	}
+
+	/**
+	 * @return The sample variance of the values (the sum of squared deviations divided by the number of values minus one).
+	 */
+	public double getSampleVariance() {
+		if(numberOfValues == 0) {
+			return Double.NaN;
+		}
+		if(numberOfValues == 1) {
+			return 0.0;
+		}
+		return getVariance() * numberOfValues/(numberOfValues-1);
+	}
+
+	/**
+	 * @return The standard deviation of the values, i.e., the square root of the variance.
+	 */
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	/**
+	 * @return The standard error of the average of the values, i.e., the standard deviation divided by the square root of the number of values.
+	 */
+	public double getStandardError() {
+		return getStandardDeviation()/Math.sqrt(numberOfValues);
+	}
+
+	@Override
+	public String toString() {
+		return "RandomVariableMoments [numberOfValues=" + numberOfValues + ", average=" + getAverage() + ", variance=" + getVariance() + ", standardError=" + getStandardError() + "]";
+	}
+}
@@ -0,0 +1,801 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+import net.finmath.functions.DoubleTernaryOperator;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * A random variable whose paths are split into contiguous shards (see {@link PathPartition}), each shard being a random variable
+ * of its own, e.g. a {@link net.finmath.montecarlo.cuda.RandomVariableCuda} on a different device.
+ *
+ * Element-wise operations are performed independently on each shard (the shards are processed in parallel), the result
+ * is a sharded random variable with the same partition. The arguments of an operation are split as follows:
+ * <ul>
+ * 	<li>a sharded random variable with the same partition is combined shard by shard,</li>
+ * 	<li>a deterministic random variable is passed to each shard,</li>
+ * 	<li>any other random variable is split into shards created by the factories of the shards.</li>
+ * </ul>
+ *
+ * The reductions are combined from the partial results of the shards: the average is the average of the shard averages, weighted by
+ * the sizes of the shards, the variance is combined from the shard averages and variances (see {@link RandomVariableMoments#combine(RandomVariableMoments[])}),
+ * the minimum and maximum are the minimum and maximum of the shards. Quantiles and histograms are calculated from the gathered realizations.
+ *
+ * Empty shards (e.g. of a device with weight zero) are ignored.
+ *
+ * If a {@link ShardThroughputMonitor} is given, the time spent by each shard is recorded, such that the partition of
+ * subsequent random variables may be rebalanced (see {@link RandomVariableShardedFactory#rebalance()}).
+ *
+ * The type priority is above the priority of the shards, such that operations with a shard type are performed shard by shard.
+ * The n-ary operators (see {@link RandomVariableSumOperators}) are passed to the shards as n-ary operators, such that
+ * each shard evaluates its part of the sum in a single pass.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RandomVariableSharded implements RandomVariableSumOperators {
+
+	private static final long serialVersionUID = -8071418596521573612L;
+
+	private static final int typePriorityDefault = 30;
+
+	/**
+	 * An operation on a shard with two arguments.
+	 */
+	@FunctionalInterface
+	private interface ShardOperator {
+		RandomVariable apply(RandomVariable shard, RandomVariable shardOfArgument1, RandomVariable shardOfArgument2);
+	}
+
+	private final PathPartition						partition;
+	private final RandomVariable[]					shards;
+	private final AbstractRandomVariableFactory[]	shardFactories;
+
+	private final double	time;
+	private final int		typePriority;
+
+	// The first non-empty shard
+	private final int		firstShardIndex;
+
+	private final transient ShardThroughputMonitor	monitor;
+
+	/**
+	 * Create a sharded random variable from its shards.
+	 *
+	 * @param partition The partition of the paths.
+	 * @param shards The shards, where the shard <i>i</i> is either deterministic or has <code>partition.getShardSize(i)</code> realizations.
+	 * @param shardFactories The factories creating the shards of the arguments of operations (e.g. one factory for each device).
+	 * @param typePriority The priority of this type in construction of result types. See "operator type priority" for details.
+	 * @param monitor Records the time spent by the shards (may be null).
+	 */
+	public RandomVariableSharded(final PathPartition partition, final RandomVariable[] shards, final AbstractRandomVariableFactory[] shardFactories, final int typePriority, final ShardThroughputMonitor monitor) {
+		super();
+		if(shards.length != partition.getNumberOfShards() || shardFactories.length != partition.getNumberOfShards()) {
+			throw new IllegalArgumentException("The number of shards does not match the partition.");
+		}
+		double time = Double.NEGATIVE_INFINITY;
+		int firstShardIndex = -1;
+		for(int shardIndex=0; shardIndex<shards.length; shardIndex++) {
+			if(partition.getShardSize(shardIndex) == 0) {
+				// Empty shards are not used
+				continue;
+			}
+			if(!shards[shardIndex].isDeterministic() && shards[shardIndex].size() != partition.getShardSize(shardIndex)) {
+				throw new IllegalArgumentException("The size of shard " + shardIndex + " does not match the partition.");
+			}
+			time = Math.max(time, shards[shardIndex].getFiltrationTime());
+			if(firstShardIndex < 0) {
+				firstShardIndex = shardIndex;
+			}
+		}
+		this.partition = partition;
+		this.shards = shards;
+		this.shardFactories = shardFactories;
+		this.time = firstShardIndex < 0 ? shards[0].getFiltrationTime() : time;
+		this.firstShardIndex = Math.max(firstShardIndex, 0);
+		this.typePriority = typePriority;
+		this.monitor = monitor;
+	}
+
+	/**
+	 * Create a sharded random variable from its shards.
+	 *
+	 * @param partition The partition of the paths.
+	 * @param shards The shards, where the shard <i>i</i> is either deterministic or has <code>partition.getShardSize(i)</code> realizations.
+	 * @param shardFactories The factories creating the shards of the arguments of operations (e.g. one factory for each device).
+	 * @param typePriority The priority of this type in construction of result types. See "operator type priority" for details.
+	 */
+	public RandomVariableSharded(final PathPartition partition, final RandomVariable[] shards, final AbstractRandomVariableFactory[] shardFactories, final int typePriority) {
+		this(partition, shards, shardFactories, typePriority, null);
+	}
+
+	/**
+	 * Create a sharded random variable from its shards, recording the time spent by the shards.
+	 *
+	 * @param partition The partition of the paths.
+	 * @param shards The shards, where the shard <i>i</i> is either deterministic or has <code>partition.getShardSize(i)</code> realizations.
+	 * @param shardFactories The factories creating the shards of the arguments of operations (e.g. one factory for each device).
+	 * @param monitor Records the time spent by the shards (may be null).
+	 */
+	public RandomVariableSharded(final PathPartition partition, final RandomVariable[] shards, final AbstractRandomVariableFactory[] shardFactories, final ShardThroughputMonitor monitor) {
+		this(partition, shards, shardFactories, typePriorityDefault, monitor);
+	}
+
+	/**
+	 * Create a sharded random variable from its shards.
+	 *
+	 * @param partition The partition of the paths.
+	 * @param shards The shards, where the shard <i>i</i> is either deterministic or has <code>partition.getShardSize(i)</code> realizations.
+	 * @param shardFactories The factories creating the shards of the arguments of operations (e.g. one factory for each device).
+	 */
+	public RandomVariableSharded(final PathPartition partition, final RandomVariable[] shards, final AbstractRandomVariableFactory[] shardFactories) {
+		this(partition, shards, shardFactories, typePriorityDefault);
+	}
+
+	/**
+	 * @return The partition of the paths.
+	 */
+	public PathPartition getPartition() {
+		return partition;
+	}
+
+	/**
+	 * @param shardIndex The index of the shard.
+	 * @return The random variable of the shard.
+	 */
+	public RandomVariable getShard(final int shardIndex) {
+		return shards[shardIndex];
+	}
+
+	@Override
+	public boolean equals(final RandomVariable randomVariable) {
+		if(time != randomVariable.getFiltrationTime()) {
+			return false;
+		}
+		if(randomVariable instanceof RandomVariableSharded && ((RandomVariableSharded)randomVariable).partition.equals(partition)) {
+			for(int shardIndex=0; shardIndex<shards.length; shardIndex++) {
+				if(partition.getShardSize(shardIndex) > 0 && !shards[shardIndex].equals(((RandomVariableSharded)randomVariable).shards[shardIndex])) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if(this.isDeterministic() && randomVariable.isDeterministic()) {
+			return get(0) == randomVariable.get(0);
+		}
+		if(this.isDeterministic() != randomVariable.isDeterministic()) {
+			return false;
+		}
+		return Arrays.equals(getRealizations(), randomVariable.getRealizations());
+	}
+
+	@Override
+	public double getFiltrationTime() {
+		return time;
+	}
+
+	@Override
+	public int getTypePriority() {
+		return typePriority;
+	}
+
+	@Override
+	public double get(final int pathOrState) {
+		if(isDeterministic()) {
+			return shards[firstShardIndex].get(0);
+		}
+		final int shardIndex = partition.getShard(pathOrState);
+		return shards[shardIndex].get(pathOrState - partition.getShardStart(shardIndex));
+	}
+
+	@Override
+	public int size() {
+		return isDeterministic() ? 1 : partition.getNumberOfPaths();
+	}
+
+	@Override
+	public boolean isDeterministic() {
+		for(int shardIndex=0; shardIndex<shards.length; shardIndex++) {
+			if(partition.getShardSize(shardIndex) > 0 && (!shards[shardIndex].isDeterministic() || shards[shardIndex].get(0) != shards[firstShardIndex].get(0))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public double[] getRealizations() {
+		if(isDeterministic()) {
+			return new double[] { shards[firstShardIndex].get(0) };
+		}
+		final double[] realizations = new double[partition.getNumberOfPaths()];
+		forEachShard(shardIndex -> {
+			final int start = partition.getShardStart(shardIndex);
+			final int size = partition.getShardSize(shardIndex);
+			if(shards[shardIndex].isDeterministic()) {
+				Arrays.fill(realizations, start, start+size, shards[shardIndex].get(0));
+			}
+			else if(size > 0) {
+				System.arraycopy(shards[shardIndex].getRealizations(), 0, realizations, start, size);
+			}
+		});
+		return realizations;
+	}
+
+	@Override
+	public Double doubleValue() {
+		if(isDeterministic()) {
+			return shards[firstShardIndex].get(0);
+		} else {
+			throw new UnsupportedOperationException("The random variable is non-deterministic");
+		}
+	}
+
+	@Override
+	public IntToDoubleFunction getOperator() {
+		return this::get;
+	}
+
+	@Override
+	public DoubleStream getRealizationsStream() {
+		if(isDeterministic()) {
+			return DoubleStream.generate(() -> shards[firstShardIndex].get(0));
+		}
+		return DoubleStream.of(getRealizations());
+	}
+
+	@Override
+	public double getMin() {
+		final double[] minOfShards = new double[shards.length];
+		forEachShard(shardIndex -> minOfShards[shardIndex] = partition.getShardSize(shardIndex) > 0 ? shards[shardIndex].getMin() : Double.POSITIVE_INFINITY);
+		return Arrays.stream(minOfShards).min().getAsDouble();
+	}
+
+	@Override
+	public double getMax() {
+		final double[] maxOfShards = new double[shards.length];
+		forEachShard(shardIndex -> maxOfShards[shardIndex] = partition.getShardSize(shardIndex) > 0 ? shards[shardIndex].getMax() : Double.NEGATIVE_INFINITY);
+		return Arrays.stream(maxOfShards).max().getAsDouble();
+	}
+
+	@Override
+	public double getAverage() {
+		return getMoments().getAverage();
+	}
+
+	@Override
+	public double getAverage(final RandomVariable probabilities) {
+		if(isDeterministic()) {
+			return shards[firstShardIndex].get(0);
+		}
+		// As RandomVariableFromDoubleArray: the sum of the products divided by the number of paths
+		return mult(probabilities).getAverage();
+	}
+
+	@Override
+	public double getVariance() {
+		return getMoments().getVariance();
+	}
+
+	@Override
+	public double getVariance(final RandomVariable probabilities) {
+		if(isDeterministic()) {
+			return 0.0;
+		}
+		// As RandomVariableFromDoubleArray: the sum of the products of the squared deviations and the probabilities
+		final double average = getAverage(probabilities);
+		return sub(average).squared().mult(probabilities).getAverage() * size();
+	}
+
+	@Override
+	public double getSampleVariance() {
+		return getMoments().getSampleVariance();
+	}
+
+	@Override
+	public double getStandardDeviation() {
+		return getMoments().getStandardDeviation();
+	}
+
+	@Override
+	public double getStandardDeviation(final RandomVariable probabilities) {
+		return Math.sqrt(getVariance(probabilities));
+	}
+
+	@Override
+	public double getStandardError() {
+		return getMoments().getStandardError();
+	}
+
+	@Override
+	public double getStandardError(final RandomVariable probabilities) {
+		return getStandardDeviation(probabilities)/Math.sqrt(size());
+	}
+
+	@Override
+	public double getQuantile(final double quantile) {
+		return gather().getQuantile(quantile);
+	}
+
+	@Override
+	public double getQuantile(final double quantile, final RandomVariable probabilities) {
+		return gather().getQuantile(quantile, probabilities);
+	}
+
+	@Override
+	public double getQuantileExpectation(final double quantileStart, final double quantileEnd) {
+		return gather().getQuantileExpectation(quantileStart, quantileEnd);
+	}
+
+	@Override
+	public double[] getHistogram(final double[] intervalPoints) {
+		return gather().getHistogram(intervalPoints);
+	}
+
+	@Override
+	public double[][] getHistogram(final int numberOfPoints, final double standardDeviations) {
+		return gather().getHistogram(numberOfPoints, standardDeviations);
+	}
+
+	@Override
+	public RandomVariable cache() {
+		return map(shardIndex -> shards[shardIndex].cache());
+	}
+
+	/*
+	 * Unary operators
+	 */
+
+	@Override
+	public RandomVariable apply(final DoubleUnaryOperator operator) {
+		return map(shardIndex -> shards[shardIndex].apply(operator));
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleBinaryOperator operator, final RandomVariable argument) {
+		return map(argument, (shard, shardOfArgument) -> shard.apply(operator, shardOfArgument));
+	}
+
+	@Override
+	public RandomVariable apply(final DoubleTernaryOperator operator, final RandomVariable argument1, final RandomVariable argument2) {
+		return map(argument1, argument2, (shard, shardOfArgument1, shardOfArgument2) -> shard.apply(operator, shardOfArgument1, shardOfArgument2));
+	}
+
+	@Override
+	public RandomVariable cap(final double cap) {
+		return map(shardIndex -> shards[shardIndex].cap(cap));
+	}
+
+	@Override
+	public RandomVariable floor(final double floor) {
+		return map(shardIndex -> shards[shardIndex].floor(floor));
+	}
+
+	@Override
+	public RandomVariable add(final double value) {
+		return map(shardIndex -> shards[shardIndex].add(value));
+	}
+
+	@Override
+	public RandomVariable sub(final double value) {
+		return map(shardIndex -> shards[shardIndex].sub(value));
+	}
+
+	@Override
+	public RandomVariable mult(final double value) {
+		return map(shardIndex -> shards[shardIndex].mult(value));
+	}
+
+	@Override
+	public RandomVariable div(final double value) {
+		return map(shardIndex -> shards[shardIndex].div(value));
+	}
+
+	@Override
+	public RandomVariable pow(final double exponent) {
+		return map(shardIndex -> shards[shardIndex].pow(exponent));
+	}
+
+	@Override
+	public RandomVariable average() {
+		final double average = getAverage();
+		return map(shardIndex -> shardFactories[shardIndex].createRandomVariable(time, average));
+	}
+
+	@Override
+	public RandomVariable squared() {
+		return map(shardIndex -> shards[shardIndex].squared());
+	}
+
+	@Override
+	public RandomVariable sqrt() {
+		return map(shardIndex -> shards[shardIndex].sqrt());
+	}
+
+	@Override
+	public RandomVariable exp() {
+		return map(shardIndex -> shards[shardIndex].exp());
+	}
+
+	@Override
+	public RandomVariable log() {
+		return map(shardIndex -> shards[shardIndex].log());
+	}
+
+	@Override
+	public RandomVariable sin() {
+		return map(shardIndex -> shards[shardIndex].sin());
+	}
+
+	@Override
+	public RandomVariable cos() {
+		return map(shardIndex -> shards[shardIndex].cos());
+	}
+
+	@Override
+	public RandomVariable invert() {
+		return map(shardIndex -> shards[shardIndex].invert());
+	}
+
+	@Override
+	public RandomVariable abs() {
+		return map(shardIndex -> shards[shardIndex].abs());
+	}
+
+	@Override
+	public RandomVariable isNaN() {
+		return map(shardIndex -> shards[shardIndex].isNaN());
+	}
+
+	/*
+	 * Binary operators: checking for return type priority.
+	 */
+
+	@Override
+	public RandomVariable add(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.add(this);
+		}
+		return map(randomVariable, (shard, shardOfArgument) -> shard.add(shardOfArgument));
+	}
+
+	@Override
+	public RandomVariable sub(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.bus(this);
+		}
+		return map(randomVariable, (shard, shardOfArgument) -> shard.sub(shardOfArgument));
+	}
+
+	@Override
+	public RandomVariable bus(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.sub(this);
+		}
+		return map(randomVariable, (shard, shardOfArgument) -> shard.bus(shardOfArgument));
+	}
+
+	@Override
+	public RandomVariable mult(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.mult(this);
+		}
+		return map(randomVariable, (shard, shardOfArgument) -> shard.mult(shardOfArgument));
+	}
+
+	@Override
+	public RandomVariable div(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.vid(this);
+		}
+		return map(randomVariable, (shard, shardOfArgument) -> shard.div(shardOfArgument));
+	}
+
+	@Override
+	public RandomVariable vid(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.div(this);
+		}
+		return map(randomVariable, (shard, shardOfArgument) -> shard.vid(shardOfArgument));
+	}
+
+	@Override
+	public RandomVariable cap(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.cap(this);
+		}
+		return map(randomVariable, (shard, shardOfArgument) -> shard.cap(shardOfArgument));
+	}
+
+	@Override
+	public RandomVariable floor(final RandomVariable randomVariable) {
+		if(randomVariable.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return randomVariable.floor(this);
+		}
+		return map(randomVariable, (shard, shardOfArgument) -> shard.floor(shardOfArgument));
+	}
+
+	@Override
+	public RandomVariable accrue(final RandomVariable rate, final double periodLength) {
+		if(rate.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return rate.mult(periodLength).add(1.0).mult(this);
+		}
+		return map(rate, (shard, shardOfArgument) -> shard.accrue(shardOfArgument, periodLength));
+	}
+
+	@Override
+	public RandomVariable discount(final RandomVariable rate, final double periodLength) {
+		if(rate.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return rate.mult(periodLength).add(1.0).vid(this);
+		}
+		return map(rate, (shard, shardOfArgument) -> shard.discount(shardOfArgument, periodLength));
+	}
+
+	@Override
+	public RandomVariable choose(final RandomVariable valueIfTriggerNonNegative, final RandomVariable valueIfTriggerNegative) {
+		if(valueIfTriggerNonNegative.getTypePriority() > this.getTypePriority() || valueIfTriggerNegative.getTypePriority() > this.getTypePriority()) {
+			// Check type priority: combine the values of the higher priority type with the indicator of the trigger
+			final RandomVariable indicator = this.choose(new RandomVariableFromFloatArray(1.0), new RandomVariableFromFloatArray(0.0));
+			return valueIfTriggerNegative.add(valueIfTriggerNonNegative.sub(valueIfTriggerNegative).mult(indicator));
+		}
+		return map(valueIfTriggerNonNegative, valueIfTriggerNegative, (shard, shardOfArgument1, shardOfArgument2) -> shard.choose(shardOfArgument1, shardOfArgument2));
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final double factor2) {
+		if(factor1.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return factor1.mult(factor2).add(this);
+		}
+		return map(factor1, (shard, shardOfArgument) -> shard.addProduct(shardOfArgument, factor2));
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final RandomVariable factor2) {
+		if(factor1.getTypePriority() > this.getTypePriority() || factor2.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return factor1.mult(factor2).add(this);
+		}
+		return map(factor1, factor2, (shard, shardOfArgument1, shardOfArgument2) -> shard.addProduct(shardOfArgument1, shardOfArgument2));
+	}
+
+	@Override
+	public RandomVariable addRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		if(numerator.getTypePriority() > this.getTypePriority() || denominator.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return numerator.div(denominator).add(this);
+		}
+		return map(numerator, denominator, (shard, shardOfArgument1, shardOfArgument2) -> shard.addRatio(shardOfArgument1, shardOfArgument2));
+	}
+
+	@Override
+	public RandomVariable subRatio(final RandomVariable numerator, final RandomVariable denominator) {
+		if(numerator.getTypePriority() > this.getTypePriority() || denominator.getTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return numerator.div(denominator).mult(-1).add(this);
+		}
+		return map(numerator, denominator, (shard, shardOfArgument1, shardOfArgument2) -> shard.subRatio(shardOfArgument1, shardOfArgument2));
+	}
+
+	@Override
+	public RandomVariable addSumProduct(final List<RandomVariable> factor1, final List<RandomVariable> factor2) {
+		if(hasHigherTypePriority(factor1) || hasHigherTypePriority(factor2)) {
+			// Check type priority
+			return RandomVariableSumOperators.super.addSumProduct(factor1, factor2);
+		}
+		final List<RandomVariable> arguments = new ArrayList<>(factor1);
+		arguments.addAll(factor2);
+		final RandomVariableSharded operand = getWithPartitionOf(arguments.toArray(new RandomVariable[arguments.size()]));
+		final List<RandomVariable[]> shardsOfFactor1 = operand.getShardsOf(factor1);
+		final List<RandomVariable[]> shardsOfFactor2 = operand.getShardsOf(factor2);
+		return operand.map(shardIndex -> operand.shards[shardIndex].addSumProduct(getShard(shardsOfFactor1, shardIndex), getShard(shardsOfFactor2, shardIndex)));
+	}
+
+	@Override
+	public RandomVariable addSum(final List<RandomVariable> summands) {
+		if(hasHigherTypePriority(summands)) {
+			// Check type priority
+			return RandomVariableSumOperators.super.addSum(summands);
+		}
+		final RandomVariableSharded operand = getWithPartitionOf(summands.toArray(new RandomVariable[summands.size()]));
+		final List<RandomVariable[]> shardsOfSummands = operand.getShardsOf(summands);
+		return operand.map(shardIndex -> RandomVariableSumOperators.addSum(operand.shards[shardIndex], getShard(shardsOfSummands, shardIndex)));
+	}
+
+	@Override
+	public RandomVariable addWeightedSum(final List<RandomVariable> summands, final double[] weights) {
+		if(hasHigherTypePriority(summands)) {
+			// Check type priority
+			return RandomVariableSumOperators.super.addWeightedSum(summands, weights);
+		}
+		final RandomVariableSharded operand = getWithPartitionOf(summands.toArray(new RandomVariable[summands.size()]));
+		final List<RandomVariable[]> shardsOfSummands = operand.getShardsOf(summands);
+		return operand.map(shardIndex -> RandomVariableSumOperators.addWeightedSum(operand.shards[shardIndex], getShard(shardsOfSummands, shardIndex), weights));
+	}
+
+	@Override
+	public String toString() {
+		return super.toString()
+				+ "\n" + "time: " + time
+				+ "\n" + "partition: " + partition
+				+ "\n" + "shards: " + Arrays.toString(shards);
+	}
+
+	/**
+	 * Returns the shards of the given random variable for the partition of this random variable.
+	 *
+	 * @param randomVariable A random variable (sharded, deterministic or with the number of paths of the partition).
+	 * @return The shards of the random variable.
+	 */
+	private RandomVariable[] getShardsOf(final RandomVariable randomVariable) {
+		if(randomVariable instanceof RandomVariableSharded && ((RandomVariableSharded)randomVariable).partition.equals(partition)) {
+			return ((RandomVariableSharded)randomVariable).shards;
+		}
+
+		final RandomVariable[] shardsOfRandomVariable = new RandomVariable[shards.length];
+		if(randomVariable instanceof RandomVariableSharded && randomVariable.isDeterministic()) {
+			// A constant of another partition (or other devices)
+			forEachShard(shardIndex -> shardsOfRandomVariable[shardIndex] = shardFactories[shardIndex].createRandomVariable(randomVariable.getFiltrationTime(), randomVariable.get(0)));
+			return shardsOfRandomVariable;
+		}
+		if(randomVariable.isDeterministic()) {
+			Arrays.fill(shardsOfRandomVariable, randomVariable);
+			return shardsOfRandomVariable;
+		}
+		if(randomVariable.size() != partition.getNumberOfPaths()) {
+			throw new IllegalArgumentException("The number of paths " + randomVariable.size() + " does not match the partition " + partition + ".");
+		}
+
+		// Split the realizations (e.g. transferring them to the devices of the shards)
+		final double[] realizations = randomVariable.getRealizations();
+		forEachShard(shardIndex -> {
+			final int start = partition.getShardStart(shardIndex);
+			shardsOfRandomVariable[shardIndex] = shardFactories[shardIndex].createRandomVariable(randomVariable.getFiltrationTime(), Arrays.copyOfRange(realizations, start, start+partition.getShardSize(shardIndex)));
+		});
+		return shardsOfRandomVariable;
+	}
+
+	private List<RandomVariable[]> getShardsOf(final List<RandomVariable> randomVariables) {
+		final List<RandomVariable[]> shardsOfRandomVariables = new ArrayList<>(randomVariables.size());
+		for(final RandomVariable randomVariable : randomVariables) {
+			shardsOfRandomVariables.add(getShardsOf(randomVariable));
+		}
+		return shardsOfRandomVariables;
+	}
+
+	private static List<RandomVariable> getShard(final List<RandomVariable[]> shardsOfRandomVariables, final int shardIndex) {
+		final List<RandomVariable> shardOfRandomVariables = new ArrayList<>(shardsOfRandomVariables.size());
+		for(final RandomVariable[] shardsOfRandomVariable : shardsOfRandomVariables) {
+			shardOfRandomVariables.add(shardsOfRandomVariable[shardIndex]);
+		}
+		return shardOfRandomVariables;
+	}
+
+	private boolean hasHigherTypePriority(final List<RandomVariable> randomVariables) {
+		for(final RandomVariable randomVariable : randomVariables) {
+			if(randomVariable.getTypePriority() > this.getTypePriority()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns this random variable using a partition matching the given arguments: if this random variable is deterministic
+	 * and an argument is stochastic, the constant is sharded as the argument (or balanced, if the argument is not sharded).
+	 *
+	 * @param arguments The arguments of an operation.
+	 * @return This random variable or the constant on a partition matching the arguments.
+	 */
+	private RandomVariableSharded getWithPartitionOf(final RandomVariable... arguments) {
+		if(!isDeterministic()) {
+			return this;
+		}
+		for(final RandomVariable argument : arguments) {
+			if(argument.isDeterministic()) {
+				continue;
+			}
+			final double value = shards[firstShardIndex].get(0);
+			if(argument instanceof RandomVariableSharded) {
+				final RandomVariableSharded argumentSharded = (RandomVariableSharded)argument;
+				final RandomVariable[] constants = new RandomVariable[argumentSharded.shards.length];
+				for(int shardIndex=0; shardIndex<constants.length; shardIndex++) {
+					constants[shardIndex] = argumentSharded.shardFactories[shardIndex].createRandomVariable(time, value);
+				}
+				return new RandomVariableSharded(argumentSharded.partition, constants, argumentSharded.shardFactories, typePriority, argumentSharded.monitor);
+			}
+			if(argument.size() != partition.getNumberOfPaths()) {
+				final RandomVariable[] constants = new RandomVariable[shards.length];
+				for(int shardIndex=0; shardIndex<constants.length; shardIndex++) {
+					constants[shardIndex] = shardFactories[shardIndex].createRandomVariable(time, value);
+				}
+				return new RandomVariableSharded(new PathPartition(argument.size(), shards.length), constants, shardFactories, typePriority, monitor);
+			}
+		}
+		return this;
+	}
+
+	private RandomVariableMoments getMoments() {
+		final RandomVariableMoments[] momentsOfShards = new RandomVariableMoments[shards.length];
+		forEachShard(shardIndex -> {
+			final int size = partition.getShardSize(shardIndex);
+			if(size == 0) {
+				momentsOfShards[shardIndex] = new RandomVariableMoments(0, 0.0, 0.0);
+			}
+			else if(shards[shardIndex].isDeterministic()) {
+				momentsOfShards[shardIndex] = new RandomVariableMoments(size, shards[shardIndex].get(0) * size, 0.0);
+			}
+			else {
+				momentsOfShards[shardIndex] = new RandomVariableMoments(size, shards[shardIndex].getAverage() * size, shards[shardIndex].getVariance() * size);
+			}
+		});
+		return RandomVariableMoments.combine(momentsOfShards);
+	}
+
+	private RandomVariable gather() {
+		return isDeterministic() ? new RandomVariableFromDoubleArray(time, shards[firstShardIndex].get(0)) : new RandomVariableFromDoubleArray(time, getRealizations());
+	}
+
+	private RandomVariableSharded map(final IntFunction<RandomVariable> operator) {
+		final RandomVariable[] result = new RandomVariable[shards.length];
+		forEachShard(shardIndex -> result[shardIndex] = partition.getShardSize(shardIndex) > 0 || shardIndex == firstShardIndex ? operator.apply(shardIndex) : shards[shardIndex]);
+		return new RandomVariableSharded(partition, result, shardFactories, typePriority, monitor);
+	}
+
+	private RandomVariable map(final RandomVariable argument, final BinaryOperator<RandomVariable> operator) {
+		final RandomVariableSharded operand = getWithPartitionOf(argument);
+		final RandomVariable[] shardsOfArgument = operand.getShardsOf(argument);
+		return operand.map(shardIndex -> operator.apply(operand.shards[shardIndex], shardsOfArgument[shardIndex]));
+	}
+
+	private RandomVariable map(final RandomVariable argument1, final RandomVariable argument2, final ShardOperator operator) {
+		final RandomVariableSharded operand = getWithPartitionOf(argument1, argument2);
+		final RandomVariable[] shardsOfArgument1 = operand.getShardsOf(argument1);
+		final RandomVariable[] shardsOfArgument2 = operand.getShardsOf(argument2);
+		return operand.map(shardIndex -> operator.apply(operand.shards[shardIndex], shardsOfArgument1[shardIndex], shardsOfArgument2[shardIndex]));
+	}
+
+	private void forEachShard(final IntConsumer operation) {
+		final IntConsumer operationOfShard = monitor == null ? operation : shardIndex -> {
+			final long start = System.nanoTime();
+			operation.accept(shardIndex);
+			final long end = System.nanoTime();
+			if(partition.getShardSize(shardIndex) > 0 && !shards[shardIndex].isDeterministic()) {
+				monitor.record(shardIndex, partition.getShardSize(shardIndex), end-start);
+			}
+		};
+
+		if(shards.length == 1) {
+			operationOfShard.accept(0);
+		}
+		else {
+			// The shards are processed concurrently (e.g., their devices are working in parallel)
+			IntStream.range(0, shards.length).parallel().forEach(operationOfShard);
+		}
+	}
+}
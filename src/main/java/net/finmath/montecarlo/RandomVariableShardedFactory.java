@@ -0,0 +1,260 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+
+package net.finmath.montecarlo;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Factory creating random variables of type {@link RandomVariableSharded}, splitting the paths over the given
+ * factories of the shards (e.g. one {@link net.finmath.montecarlo.cuda.RandomVariableCudaFactory} for each device).
+ *
+ * The paths are partitioned balanced or proportional to given weights (e.g. the throughput of the devices), see {@link PathPartition}.
+ * Random variables with the same number of paths share the same partition.
+ *
+ * The random variables created by the factory record the time spent by their shards in a {@link ShardThroughputMonitor}.
+ * The method {@link #rebalance()} moves the weights towards the measured throughput of the shards, such that random variables
+ * created afterwards use a partition in which all shards finish at about the same time. Random variables created before
+ * remain valid, but operations combining them with random variables of the new partition require to re-split the realizations,
+ * hence the rebalancing should be performed between valuations (e.g. before creating a new Brownian motion).
+ *
+ * If a number of paths for rebalancing is given, the factory rebalances automatically: when a partition of more than one path is
+ * requested (e.g. by a new Brownian motion) and the shards have processed at least this number of paths (summed over all operations)
+ * since the last rebalancing.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RandomVariableShardedFactory extends AbstractRandomVariableFactory {
+
+	private static final long serialVersionUID = -2373208335569217498L;
+
+	private static final double	defaultSmoothing = 0.5;
+	private static final double	minimumWeight = 0.01;
+
+	private final AbstractRandomVariableFactory[]	shardFactories;
+	private volatile double[]						weights;
+	private final long								numberOfPathsForRebalancing;
+
+	private final transient Map<Integer, PathPartition>	partitions = new ConcurrentHashMap<Integer, PathPartition>();
+	private final transient ShardThroughputMonitor		monitor;
+
+	/**
+	 * Create a factory splitting the paths into shards proportional to the given weights, rebalancing automatically
+	 * after the given number of paths has been processed.
+	 *
+	 * @param shardFactories The factories of the shards.
+	 * @param weights The weights of the shards.
+	 * @param numberOfPathsForRebalancing The number of paths processed by the shards (summed over all operations) after which the partition is rebalanced automatically, 0 disables the automatic rebalancing.
+	 */
+	public RandomVariableShardedFactory(final AbstractRandomVariableFactory[] shardFactories, final double[] weights, final long numberOfPathsForRebalancing) {
+		super();
+		if(shardFactories.length != weights.length) {
+			throw new IllegalArgumentException("The number of weights does not match the number of shards.");
+		}
+		if(numberOfPathsForRebalancing < 0) {
+			throw new IllegalArgumentException("The number of paths for rebalancing must not be negative.");
+		}
+		this.shardFactories = shardFactories.clone();
+		this.weights = weights.clone();
+		this.numberOfPathsForRebalancing = numberOfPathsForRebalancing;
+		this.monitor = new ShardThroughputMonitor(shardFactories.length);
+	}
+
+	/**
+	 * Create a factory splitting the paths into shards proportional to the given weights (without automatic rebalancing).
+	 *
+	 * @param shardFactories The factories of the shards.
+	 * @param weights The weights of the shards.
+	 */
+	public RandomVariableShardedFactory(final AbstractRandomVariableFactory[] shardFactories, final double[] weights) {
+		this(shardFactories, weights, 0);
+	}
+
+	/**
+	 * Create a factory splitting the paths into shards of equal size.
+	 *
+	 * @param shardFactories The factories of the shards.
+	 */
+	public RandomVariableShardedFactory(final AbstractRandomVariableFactory[] shardFactories) {
+		this(shardFactories, getEqualWeights(shardFactories.length));
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double value) {
+		final RandomVariable[] shards = new RandomVariable[shardFactories.length];
+		for(int shardIndex=0; shardIndex<shards.length; shardIndex++) {
+			shards[shardIndex] = shardFactories[shardIndex].createRandomVariable(time, value);
+		}
+		return new RandomVariableSharded(getPartition(1), shards, shardFactories, monitor);
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final double[] values) {
+		final PathPartition partition = getPartition(values.length);
+		final RandomVariable[] shards = new RandomVariable[shardFactories.length];
+		for(int shardIndex=0; shardIndex<shards.length; shardIndex++) {
+			final int start = partition.getShardStart(shardIndex);
+			shards[shardIndex] = shardFactories[shardIndex].createRandomVariable(time, Arrays.copyOfRange(values, start, start+partition.getShardSize(shardIndex)));
+		}
+		return new RandomVariableSharded(partition, shards, shardFactories, monitor);
+	}
+
+	/**
+	 * Create a sharded random variable from the given shards, e.g. generated on the devices of the shards.
+	 *
+	 * @param shards The shards, where the shard <i>i</i> is either deterministic or has <code>getPartition(numberOfPaths).getShardSize(i)</code> realizations.
+	 * @param numberOfPaths The number of paths.
+	 * @return The sharded random variable.
+	 */
+	public RandomVariableSharded createRandomVariable(final RandomVariable[] shards, final int numberOfPaths) {
+		return createRandomVariable(getPartition(numberOfPaths), shards);
+	}
+
+	/**
+	 * Create a sharded random variable from the given shards using the given partition, e.g. a partition obtained before a rebalancing.
+	 *
+	 * @param partition The partition of the paths.
+	 * @param shards The shards, where the shard <i>i</i> is either deterministic or has <code>partition.getShardSize(i)</code> realizations.
+	 * @return The sharded random variable.
+	 */
+	public RandomVariableSharded createRandomVariable(final PathPartition partition, final RandomVariable[] shards) {
+		return new RandomVariableSharded(partition, shards, shardFactories, monitor);
+	}
+
+	/**
+	 * Returns the partition of the given number of paths used by this factory. If the automatic rebalancing is enabled and
+	 * enough paths have been processed since the last rebalancing, the partition is rebalanced first (for more than one path).
+	 *
+	 * @param numberOfPaths The number of paths.
+	 * @return The partition.
+	 */
+	public PathPartition getPartition(final int numberOfPaths) {
+		if(partitions == null) {
+			// Deserialized object
+			return new PathPartition(numberOfPaths, weights);
+		}
+		if(numberOfPaths > 1 && isRebalancingDue()) {
+			rebalance();
+		}
+		return partitions.computeIfAbsent(numberOfPaths, n -> new PathPartition(n, weights));
+	}
+
+	private boolean isRebalancingDue() {
+		if(numberOfPathsForRebalancing <= 0 || monitor == null) {
+			return false;
+		}
+		long numberOfPathsProcessed = 0;
+		for(int shardIndex=0; shardIndex<monitor.getNumberOfShards(); shardIndex++) {
+			numberOfPathsProcessed += monitor.getNumberOfPaths(shardIndex);
+		}
+		return numberOfPathsProcessed >= numberOfPathsForRebalancing;
+	}
+
+	/**
+	 * Moves the weights of the shards towards their measured throughput (paths per second), using the default smoothing of 0.5.
+	 *
+	 * @return The new weights.
+	 * @see #rebalance(double)
+	 */
+	public double[] rebalance() {
+		return rebalance(defaultSmoothing);
+	}
+
+	/**
+	 * Moves the weights of the shards towards their measured throughput (paths per second) and discards the measurements.
+	 * The new weight of a shard is <i>(1-s) w + s t</i>, where <i>w</i> is the current (normalized) weight and <i>t</i> is the
+	 * share of the shard in the total throughput. Shards without measurements keep their weight, shards with a positive weight
+	 * keep at least 1% of the paths (to allow further measurements), shards with weight zero remain unused.
+	 *
+	 * @param smoothing The smoothing <i>s</i> in (0,1], where 1 uses the measured throughput only.
+	 * @return The new weights.
+	 */
+	public synchronized double[] rebalance(final double smoothing) {
+		if(monitor == null) {
+			// Deserialized object
+			return weights.clone();
+		}
+
+		final double[] weights = this.weights;
+		final double sumOfWeights = Arrays.stream(weights).sum();
+
+		// The share of the measured shards is distributed proportional to their throughput
+		double shareOfMeasuredShards = 0.0;
+		double sumOfThroughputs = 0.0;
+		for(int shardIndex=0; shardIndex<weights.length; shardIndex++) {
+			final double throughput = monitor.getThroughput(shardIndex);
+			if(weights[shardIndex] > 0 && !Double.isNaN(throughput)) {
+				shareOfMeasuredShards += weights[shardIndex] / sumOfWeights;
+				sumOfThroughputs += throughput;
+			}
+		}
+
+		final double[] newWeights = new double[weights.length];
+		for(int shardIndex=0; shardIndex<weights.length; shardIndex++) {
+			final double weight = weights[shardIndex] / sumOfWeights;
+			final double throughput = monitor.getThroughput(shardIndex);
+			if(weight > 0 && !Double.isNaN(throughput) && sumOfThroughputs > 0) {
+				newWeights[shardIndex] = Math.max((1-smoothing) * weight + smoothing * shareOfMeasuredShards * throughput / sumOfThroughputs, minimumWeight);
+			}
+			else {
+				newWeights[shardIndex] = weight;
+			}
+		}
+
+		this.weights = newWeights;
+		partitions.clear();
+		monitor.reset();
+
+		return newWeights.clone();
+	}
+
+	/**
+	 * @return The number of processed paths after which the partition is rebalanced automatically (0 if disabled).
+	 */
+	public long getNumberOfPathsForRebalancing() {
+		return numberOfPathsForRebalancing;
+	}
+
+	/**
+	 * @return The current weights of the shards.
+	 */
+	public double[] getWeights() {
+		return weights.clone();
+	}
+
+	/**
+	 * @return The monitor recording the time spent by the shards of the random variables created by this factory (null for a deserialized factory).
+	 */
+	public ShardThroughputMonitor getThroughputMonitor() {
+		return monitor;
+	}
+
+	/**
+	 * @return The number of shards.
+	 */
+	public int getNumberOfShards() {
+		return shardFactories.length;
+	}
+
+	/**
+	 * @param shardIndex The index of the shard.
+	 * @return The factory of the shard.
+	 */
+	public AbstractRandomVariableFactory getShardFactory(final int shardIndex) {
+		return shardFactories[shardIndex];
+	}
+
+	private static double[] getEqualWeights(final int numberOfShards) {
+		final double[] weights = new double[numberOfShards];
+		Arrays.fill(weights, 1.0);
+		return weights;
+	}
+}
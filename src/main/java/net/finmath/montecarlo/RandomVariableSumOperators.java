@@ -0,0 +1,102 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.List;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * N-ary operators on random variables: the sum of a list of random variables and the weighted sum with scalar weights
+ * (together with {@link RandomVariable#addSumProduct(List, List)}, the sum of products).
+ *
+ * The default methods fold the list by <code>add</code> and <code>addProduct</code>, creating one temporary random variable per summand.
+ * Implementations evaluate the sum in a single pass, reading each summand once and writing the result once, e.g.
+ * {@link RandomVariableFromFloatArray} in a single loop and {@link net.finmath.montecarlo.cuda.RandomVariableCuda} in a single kernel.
+ * This is useful for aggregations over many random variables, e.g., the exposure of a netting set.
+ *
+ * A sum of random variables of arbitrary type is calculated by the static methods {@link #addSum(RandomVariable, List)}
+ * and {@link #addWeightedSum(RandomVariable, List, double[])}, e.g., <code>addSum(factory.createRandomVariable(0.0), exposures)</code>.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public interface RandomVariableSumOperators extends RandomVariable {
+
+	/**
+	 * Returns a new random variable with value <code>this + &sum;<sub>k</sub> x<sub>k</sub></code>.
+	 *
+	 * @param summands The random variables <code>x<sub>k</sub></code>.
+	 * @return New random variable with the result of the function.
+	 */
+	default RandomVariable addSum(final List<RandomVariable> summands) {
+		RandomVariable result = this;
+		for(final RandomVariable summand : summands) {
+			result = result.add(summand);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a new random variable with value <code>this + &sum;<sub>k</sub> w<sub>k</sub> x<sub>k</sub></code>.
+	 *
+	 * @param summands The random variables <code>x<sub>k</sub></code>.
+	 * @param weights The weights <code>w<sub>k</sub></code>.
+	 * @return New random variable with the result of the function.
+	 */
+	default RandomVariable addWeightedSum(final List<RandomVariable> summands, final double[] weights) {
+		if(weights.length != summands.size()) {
+			throw new IllegalArgumentException("The number of summands " + summands.size() + " and weights " + weights.length + " do not match.");
+		}
+		RandomVariable result = this;
+		for(int k=0; k<summands.size(); k++) {
+			result = result.addProduct(summands.get(k), weights[k]);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns <code>base + &sum;<sub>k</sub> x<sub>k</sub></code>, using {@link #addSum(List)} if <code>base</code> implements this interface.
+	 *
+	 * @param base The random variable to which the sum is added.
+	 * @param summands The random variables <code>x<sub>k</sub></code>.
+	 * @return New random variable with the result of the function.
+	 */
+	static RandomVariable addSum(final RandomVariable base, final List<RandomVariable> summands) {
+		if(base instanceof RandomVariableSumOperators) {
+			return ((RandomVariableSumOperators)base).addSum(summands);
+		}
+
+		RandomVariable result = base;
+		for(final RandomVariable summand : summands) {
+			result = result.add(summand);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns <code>base + &sum;<sub>k</sub> w<sub>k</sub> x<sub>k</sub></code>, using {@link #addWeightedSum(List, double[])} if <code>base</code> implements this interface.
+	 *
+	 * @param base The random variable to which the sum is added.
+	 * @param summands The random variables <code>x<sub>k</sub></code>.
+	 * @param weights The weights <code>w<sub>k</sub></code>.
+	 * @return New random variable with the result of the function.
+	 */
+	static RandomVariable addWeightedSum(final RandomVariable base, final List<RandomVariable> summands, final double[] weights) {
+		if(base instanceof RandomVariableSumOperators) {
+			return ((RandomVariableSumOperators)base).addWeightedSum(summands, weights);
+		}
+
+		if(weights.length != summands.size()) {
+			throw new IllegalArgumentException("The number of summands " + summands.size() + " and weights " + weights.length + " do not match.");
+		}
+		RandomVariable result = base;
+		for(int k=0; k<summands.size(); k++) {
+			result = result.addProduct(summands.get(k), weights[k]);
+		}
+		return result;
+	}
+}
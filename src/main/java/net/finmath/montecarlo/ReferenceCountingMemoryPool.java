@@ -0,0 +1,314 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A memory pool for device vectors (e.g. GPU vectors) with reference counted lifetimes.
+ *
+ * Vectors are handed out as {@link DeviceMemoryReference}. A vector whose reference count reaches 0 (see {@link DeviceMemoryReference#release()},
+ * or the closing of a {@link DeviceMemoryScope}) is put into a list of released vectors (for each allocation size) and re-used by the next
+ * allocation of the same allocation size (see {@link DeviceMemoryAllocator#getAllocationSize(long)}, e.g. the size class of a {@link SlabAllocator}).
+ * Released vectors of other sizes are freed if the free device memory falls below a threshold.
+ *
+ * Handles which are not released explicitly are tracked by weak references: once such a handle has been garbage collected, its
+ * vector is recycled. Only if the device memory is (almost) exhausted, the pool triggers a garbage collection and waits (at most
+ * a given time) for such vectors. If the memory is managed by scopes, this safety net is not used.
+ *
+ * The allocation of device memory is delegated to a {@link DeviceMemoryAllocator}.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ * @param <P> The type of the (native) device pointer.
+ */
+public class ReferenceCountingMemoryPool<P> {
+
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	/**
+	 * A weak reference to a {@link DeviceMemoryReference}, holding the pointer such that the vector can be recycled
+	 * after the handle has been garbage collected.
+	 *
+	 * @param <P> The type of the (native) device pointer.
+	 */
+	static class TrackingReference<P> extends WeakReference<DeviceMemoryReference<P>> {
+		private final P		pointer;
+		private final long	size;
+
+		TrackingReference(final DeviceMemoryReference<P> referent, final ReferenceQueue<DeviceMemoryReference<P>> referenceQueue, final P pointer, final long size) {
+			super(referent, referenceQueue);
+			this.pointer = pointer;
+			this.size = size;
+		}
+	}
+
+	private final DeviceMemoryAllocator<P> allocator;
+
+	/**
+	 * Fraction of free device memory below which released vectors of other sizes are freed.
+	 */
+	private final double	freeMemoryFractionToFreeReleased;
+
+	/**
+	 * Fraction of free device memory below which the garbage collector is triggered to reclaim handles which have not been released.
+	 */
+	private final double	freeMemoryFractionToCollect;
+
+	/**
+	 * Maximum time to wait for the garbage collector (higher value slows down the code, but prevents out-of-memory).
+	 */
+	private final long		collectMaxTimeOutMillis;
+
+	// For each vector size the list of released vectors
+	private final Map<Long, Deque<P>>						vectorsReleased		= new ConcurrentHashMap<Long, Deque<P>>();
+
+	// Statistics
+	private long numberOfRequests = 0;
+	private long numberOfAllocations = 0;
+
+	// The (weak references to) handles in use, keeping the tracking references reachable
+	private final Set<TrackingReference<P>>					vectorsInUse		= ConcurrentHashMap.newKeySet();
+
+	// Queue receiving the tracking references of handles which have been garbage collected
+	private final ReferenceQueue<DeviceMemoryReference<P>>	vectorsCollected	= new ReferenceQueue<DeviceMemoryReference<P>>();
+
+	/**
+	 * Create a memory pool.
+	 *
+	 * @param allocator The allocator of device memory.
+	 * @param freeMemoryFractionToFreeReleased Fraction of free device memory below which released vectors of other sizes are freed.
+	 * @param freeMemoryFractionToCollect Fraction of free device memory below which the garbage collector is triggered.
+	 * @param collectMaxTimeOutMillis Maximum time to wait for the garbage collector.
+	 */
+	public ReferenceCountingMemoryPool(final DeviceMemoryAllocator<P> allocator, final double freeMemoryFractionToFreeReleased, final double freeMemoryFractionToCollect, final long collectMaxTimeOutMillis) {
+		super();
+		this.allocator = allocator;
+		this.freeMemoryFractionToFreeReleased = freeMemoryFractionToFreeReleased;
+		this.freeMemoryFractionToCollect = freeMemoryFractionToCollect;
+		this.collectMaxTimeOutMillis = collectMaxTimeOutMillis;
+	}
+
+	/**
+	 * Create a memory pool, freeing released vectors below 15% free device memory and triggering the garbage collector below 5%
+	 * free device memory (or if an allocation fails).
+	 *
+	 * @param allocator The allocator of device memory.
+	 */
+	public ReferenceCountingMemoryPool(final DeviceMemoryAllocator<P> allocator) {
+		this(allocator, 0.15, 0.05, 1000);
+	}
+
+	/**
+	 * Get a vector in device memory with a reference count of 1. If a {@link DeviceMemoryScope} is open on the current thread,
+	 * the handle is registered with this scope.
+	 *
+	 * @param size The size of the vector as multiples of sizeof(float).
+	 * @return A handle of the vector (the vector may be larger than the requested size).
+	 * @throws OutOfMemoryError if the vector could not be allocated.
+	 */
+	public synchronized DeviceMemoryReference<P> getDeviceMemory(final long size) {
+		final long allocationSize = allocator.getAllocationSize(size);
+		numberOfRequests++;
+
+		P pointer = pollReleased(allocationSize);
+		if(pointer == null) {
+			reclaimCollected();
+			pointer = pollReleased(allocationSize);
+		}
+
+		if(pointer == null) {
+			final double freeMemoryFraction = allocator.getFreeMemoryFraction();
+			if(freeMemoryFraction < freeMemoryFractionToCollect) {
+				pointer = collect(allocationSize);
+			}
+			else if(freeMemoryFraction < freeMemoryFractionToFreeReleased) {
+				freeReleased();
+			}
+		}
+
+		if(pointer == null) {
+			pointer = allocate(allocationSize);
+		}
+
+		if(pointer == null) {
+			// Last resort: safety net
+			logger.info("Failed to allocate device vector with size=" + size + ". Waiting for garbage collection of unreleased vectors.");
+			pointer = collect(allocationSize);
+			if(pointer == null) {
+				pointer = allocate(allocationSize);
+			}
+		}
+
+		if(pointer == null) {
+			logger.severe("Failed to allocate device vector with size=" + size);
+			throw new OutOfMemoryError("Failed to allocate device vector with size=" + size);
+		}
+
+		final DeviceMemoryReference<P> reference = new DeviceMemoryReference<P>(this, pointer, size, allocationSize, vectorsCollected);
+		vectorsInUse.add(reference.getTrackingReference());
+		DeviceMemoryScope.register(reference);
+
+		return reference;
+	}
+
+	/**
+	 * Allocate the given number of vectors of the given size and release them, such that subsequent requests
+	 * (e.g. of a valuation in a {@link DeviceMemoryScope}) do not allocate device memory.
+	 *
+	 * @param size The size of the vectors as multiples of sizeof(float).
+	 * @param numberOfVectors The number of vectors.
+	 */
+	public synchronized void prewarm(final long size, final int numberOfVectors) {
+		final long allocationSize = allocator.getAllocationSize(size);
+		final Deque<P> vectors = vectorsReleased.get(allocationSize);
+		for(int i=vectors != null ? vectors.size() : 0; i<numberOfVectors; i++) {
+			final P pointer = allocate(allocationSize);
+			if(pointer == null) {
+				logger.warning("Pre-warming stopped after " + i + " device vectors with size=" + size + ".");
+				return;
+			}
+			vectorsReleased.computeIfAbsent(allocationSize, key -> new ConcurrentLinkedDeque<P>()).push(pointer);
+		}
+	}
+
+	/**
+	 * Free all released device vectors and all vectors whose handles have been garbage collected.
+	 */
+	public synchronized void clean() {
+		reclaimCollected();
+		freeReleased();
+	}
+
+	/**
+	 * @return The number of vectors whose handles have not been released (including handles which are unreachable, but not yet collected).
+	 */
+	public int getNumberOfVectorsInUse() {
+		return vectorsInUse.size();
+	}
+
+	/**
+	 * @return The number of released vectors held by the pool for re-use.
+	 */
+	public int getNumberOfVectorsReleased() {
+		int numberOfVectorsReleased = 0;
+		for(final Deque<P> vectors : vectorsReleased.values()) {
+			numberOfVectorsReleased += vectors.size();
+		}
+		return numberOfVectorsReleased;
+	}
+
+	/**
+	 * @return The number of requests of device vectors (calls of {@link #getDeviceMemory(long)}).
+	 */
+	public synchronized long getNumberOfRequests() {
+		return numberOfRequests;
+	}
+
+	/**
+	 * @return The number of vectors allocated by the allocator (including pre-warming).
+	 */
+	public synchronized long getNumberOfAllocations() {
+		return numberOfAllocations;
+	}
+
+	/**
+	 * Called by {@link DeviceMemoryReference} once the reference count has reached 0.
+	 */
+	void recycle(final TrackingReference<P> trackingReference) {
+		if(vectorsInUse.remove(trackingReference)) {
+			trackingReference.clear();
+			vectorsReleased.computeIfAbsent(trackingReference.size, key -> new ConcurrentLinkedDeque<P>()).push(trackingReference.pointer);
+		}
+	}
+
+	private P allocate(final long allocationSize) {
+		final P pointer = allocator.allocate(allocationSize);
+		if(pointer != null) {
+			numberOfAllocations++;
+		}
+		return pointer;
+	}
+
+	private P pollReleased(final long size) {
+		final Deque<P> vectors = vectorsReleased.get(size);
+		return vectors != null ? vectors.poll() : null;
+	}
+
+	/**
+	 * Move the vectors of handles which have been garbage collected (without having been released) to the released vectors.
+	 */
+	private void reclaimCollected() {
+		Reference<? extends DeviceMemoryReference<P>> reference;
+		while((reference = vectorsCollected.poll()) != null) {
+			reclaim(reference);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void reclaim(final Reference<? extends DeviceMemoryReference<P>> reference) {
+		final TrackingReference<P> trackingReference = (TrackingReference<P>)reference;
+		if(vectorsInUse.remove(trackingReference)) {
+			if(logger.isLoggable(Level.FINEST)) {
+				logger.finest("Recycling device vector with size=" + trackingReference.size + " after garbage collection of its unreleased handle.");
+			}
+			vectorsReleased.computeIfAbsent(trackingReference.size, key -> new ConcurrentLinkedDeque<P>()).push(trackingReference.pointer);
+		}
+	}
+
+	/**
+	 * Trigger the garbage collector and wait for unreleased handles to be collected (with waits for 1 ms, 4 ms, 16 ms, ...).
+	 * If no vector of the given size becomes available, free all released vectors.
+	 *
+	 * @return A vector of the given size or null.
+	 */
+	private P collect(final long size) {
+		System.gc();
+
+		reclaimCollected();
+		P pointer = pollReleased(size);
+
+		long timeOut = 1;
+		while(pointer == null && timeOut < collectMaxTimeOutMillis && !vectorsInUse.isEmpty()) {
+			try {
+				final Reference<? extends DeviceMemoryReference<P>> reference = vectorsCollected.remove(timeOut);
+				if(reference != null) {
+					reclaim(reference);
+					reclaimCollected();
+					pointer = pollReleased(size);
+				}
+				timeOut *= 4;
+			} catch (IllegalArgumentException | InterruptedException e) {
+				break;
+			}
+		}
+
+		if(pointer == null) {
+			logger.info("Cleaning all released vectors on device. Device free memory " + allocator.getFreeMemoryFraction()*100 + "%");
+			freeReleased();
+		}
+		return pointer;
+	}
+
+	private void freeReleased() {
+		for(final Map.Entry<Long, Deque<P>> entry : vectorsReleased.entrySet()) {
+			final long size = entry.getKey();
+			P pointer;
+			while((pointer = entry.getValue().poll()) != null) {
+				allocator.free(pointer, size);
+			}
+		}
+	}
+}
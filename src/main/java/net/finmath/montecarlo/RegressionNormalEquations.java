@@ -0,0 +1,298 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Arrays;
+
+import net.finmath.functions.LinearAlgebra;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * The normal equations <code>X<sup>T</sup>X &beta; = X<sup>T</sup>y</code> of the least square regression of a random variable <code>y</code>
+ * on the basis functions <code>X = (x<sub>0</sub>, ..., x<sub>m-1</sub>)</code>, where the entries are averages over the paths
+ * (i.e., <code>E(x<sub>j</sub> x<sub>k</sub>)</code> and <code>E(x<sub>j</sub> y)</code>).
+ *
+ * The normal equations of float random variables are calculated by {@link #of(RandomVariable[], RandomVariable)} in a single pass
+ * over the realizations of the basis functions: the paths are processed in the chunks of {@link ParallelChunkExecutor}
+ * and, within a chunk, in small blocks, such that all basis functions of a block are in the cache while the products are summed.
+ * The products are summed in double precision, the sums of the chunks are combined in the order of the chunks,
+ * such that the result does not depend on the number of threads.
+ *
+ * The sums over the paths may also be calculated on a device, see {@link #of(int, RandomVariable[], RandomVariable, double[])} for the layout of the sums.
+ *
+ * The small system of equations is solved in double precision by {@link #getRegressionParameters()}.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RegressionNormalEquations {
+
+	private static final int blockSize = 1024;
+
+	private final int			numberOfValues;
+	private final double[][]	xTx;
+	private final double[]		xTy;
+
+	/**
+	 * Create the normal equations from the averages of the products.
+	 *
+	 * @param numberOfValues The number of paths.
+	 * @param xTx The matrix <code>E(x<sub>j</sub> x<sub>k</sub>)</code>.
+	 * @param xTy The vector <code>E(x<sub>j</sub> y)</code>.
+	 */
+	public RegressionNormalEquations(final int numberOfValues, final double[][] xTx, final double[] xTy) {
+		super();
+		this.numberOfValues = numberOfValues;
+		this.xTx = xTx;
+		this.xTy = xTy;
+	}
+
+	/**
+	 * Calculate the normal equations of the regression of the given values on the given basis functions in a single pass over the realizations.
+	 * The realizations of {@link RandomVariableFromFloatArray} are read directly, other random variables are converted to float.
+	 *
+	 * @param basisFunctions The basis functions <code>x<sub>j</sub></code>.
+	 * @param values The random variable <code>y</code>.
+	 * @return The normal equations.
+	 */
+	public static RegressionNormalEquations of(final RandomVariable[] basisFunctions, final RandomVariable values) {
+		final int[] stochasticIndices = getStochasticIndices(basisFunctions);
+		final int numberOfStochastic = stochasticIndices.length;
+		final int size = getSize(basisFunctions, values);
+
+		final float[][] x = new float[numberOfStochastic][];
+		for(int p=0; p<numberOfStochastic; p++) {
+			x[p] = RandomVariableFromFloatArray.getFloatArrayOf(basisFunctions[stochasticIndices[p]]);
+		}
+		final float[] y = values.isDeterministic() ? null : RandomVariableFromFloatArray.getFloatArrayOf(values);
+
+		final int chunkSize = ParallelChunkExecutor.getChunkSize();
+		final int numberOfChunks = ParallelChunkExecutor.isParallel(size) ? (int)((size + (long)chunkSize - 1) / chunkSize) : 1;
+
+		final double[][] sumsOfChunks = new double[numberOfChunks][];
+		ParallelChunkExecutor.forEachChunk(size, (start, end) -> sumsOfChunks[start / chunkSize] = getSums(start, end, x, y));
+
+		final double[] sums = new double[getNumberOfSums(numberOfStochastic)];
+		for(final double[] sumsOfChunk : sumsOfChunks) {
+			for(int e=0; e<sums.length; e++) {
+				sums[e] += sumsOfChunk[e];
+			}
+		}
+
+		return of(size, basisFunctions, values, sums);
+	}
+
+	/**
+	 * Create the normal equations from the sums over the paths of the stochastic basis functions. The sums are given in the order
+	 * <ol>
+	 * 	<li>&sum; x<sub>p</sub> for all stochastic basis functions p,</li>
+	 * 	<li>&sum; x<sub>p</sub> x<sub>q</sub> for all stochastic basis functions p &le; q (row by row),</li>
+	 * 	<li>&sum; x<sub>p</sub> y for all stochastic basis functions p,</li>
+	 * 	<li>&sum; y,</li>
+	 * </ol>
+	 * where the stochastic basis functions are numbered in their order in <code>basisFunctions</code>. The sums involving <code>y</code>
+	 * are ignored if <code>y</code> is deterministic. The entries involving deterministic basis functions are derived from the sums.
+	 *
+	 * @param numberOfValues The number of paths.
+	 * @param basisFunctions The basis functions <code>x<sub>j</sub></code>.
+	 * @param values The random variable <code>y</code>.
+	 * @param sums The sums over the paths.
+	 * @return The normal equations.
+	 */
+	public static RegressionNormalEquations of(final int numberOfValues, final RandomVariable[] basisFunctions, final RandomVariable values, final double[] sums) {
+		final int numberOfBasisFunctions = basisFunctions.length;
+		final int[] stochasticIndices = getStochasticIndices(basisFunctions);
+		final int numberOfStochastic = stochasticIndices.length;
+		if(sums.length < getNumberOfSums(numberOfStochastic)) {
+			throw new IllegalArgumentException("Expected " + getNumberOfSums(numberOfStochastic) + " sums, got " + sums.length + ".");
+		}
+
+		// Map the basis functions to the index of the stochastic basis function (-1 for deterministic)
+		final int[] stochasticIndexOfBasisFunction = new int[numberOfBasisFunctions];
+		Arrays.fill(stochasticIndexOfBasisFunction, -1);
+		for(int p=0; p<numberOfStochastic; p++) {
+			stochasticIndexOfBasisFunction[stochasticIndices[p]] = p;
+		}
+
+		final int offsetOfProducts = numberOfStochastic;
+		final int offsetOfProductsWithValues = offsetOfProducts + numberOfStochastic*(numberOfStochastic+1)/2;
+		final int offsetOfSumOfValues = offsetOfProductsWithValues + numberOfStochastic;
+
+		final double[][] xTx = new double[numberOfBasisFunctions][numberOfBasisFunctions];
+		final double[] xTy = new double[numberOfBasisFunctions];
+		for(int j=0; j<numberOfBasisFunctions; j++) {
+			final int p = stochasticIndexOfBasisFunction[j];
+			for(int k=j; k<numberOfBasisFunctions; k++) {
+				final int q = stochasticIndexOfBasisFunction[k];
+				final double sum;
+				if(p >= 0 && q >= 0) {
+					sum = sums[offsetOfProducts + getIndexOfProduct(p, q, numberOfStochastic)];
+				}
+				else if(p >= 0) {
+					sum = sums[p] * basisFunctions[k].doubleValue();
+				}
+				else if(q >= 0) {
+					sum = sums[q] * basisFunctions[j].doubleValue();
+				}
+				else {
+					sum = numberOfValues * basisFunctions[j].doubleValue() * basisFunctions[k].doubleValue();
+				}
+				xTx[j][k] = sum / numberOfValues;
+				xTx[k][j] = xTx[j][k];
+			}
+
+			final double sum;
+			if(p >= 0 && !values.isDeterministic()) {
+				sum = sums[offsetOfProductsWithValues + p];
+			}
+			else if(p >= 0) {
+				sum = sums[p] * values.doubleValue();
+			}
+			else if(!values.isDeterministic()) {
+				sum = sums[offsetOfSumOfValues] * basisFunctions[j].doubleValue();
+			}
+			else {
+				sum = numberOfValues * basisFunctions[j].doubleValue() * values.doubleValue();
+			}
+			xTy[j] = sum / numberOfValues;
+		}
+
+		return new RegressionNormalEquations(numberOfValues, xTx, xTy);
+	}
+
+	/**
+	 * Returns the number of sums expected by {@link #of(int, RandomVariable[], RandomVariable, double[])}.
+	 *
+	 * @param numberOfStochasticBasisFunctions The number of stochastic basis functions.
+	 * @return The number of sums.
+	 */
+	public static int getNumberOfSums(final int numberOfStochasticBasisFunctions) {
+		return numberOfStochasticBasisFunctions + numberOfStochasticBasisFunctions*(numberOfStochasticBasisFunctions+1)/2 + numberOfStochasticBasisFunctions + 1;
+	}
+
+	/**
+	 * @return The number of paths.
+	 */
+	public int getNumberOfValues() {
+		return numberOfValues;
+	}
+
+	/**
+	 * @return The matrix <code>E(x<sub>j</sub> x<sub>k</sub>)</code>.
+	 */
+	public double[][] getMatrix() {
+		return xTx;
+	}
+
+	/**
+	 * @return The vector <code>E(x<sub>j</sub> y)</code>.
+	 */
+	public double[] getVector() {
+		return xTy;
+	}
+
+	/**
+	 * Solve the normal equations (in double precision, using a singular value decomposition, such that linearly dependent
+	 * basis functions are admissible).
+	 *
+	 * @return The regression parameters <code>&beta;</code>.
+	 */
+	public double[] getRegressionParameters() {
+		return LinearAlgebra.solveLinearEquationSVD(xTx, xTy);
+	}
+
+	private static double[] getSums(final int start, final int end, final float[][] x, final float[] y) {
+		final int numberOfStochastic = x.length;
+		final int offsetOfProducts = numberOfStochastic;
+		final int offsetOfProductsWithValues = offsetOfProducts + numberOfStochastic*(numberOfStochastic+1)/2;
+		final int offsetOfSumOfValues = offsetOfProductsWithValues + numberOfStochastic;
+
+		final double[] sums = new double[getNumberOfSums(numberOfStochastic)];
+		for(int blockStart=start; blockStart<end; blockStart+=blockSize) {
+			final int blockEnd = Math.min(blockStart+blockSize, end);
+
+			// The block of all basis functions is in the cache while the products are summed
+			int productIndex = offsetOfProducts;
+			for(int p=0; p<numberOfStochastic; p++) {
+				final float[] xp = x[p];
+				double sum = 0.0;
+				for(int i=blockStart; i<blockEnd; i++) {
+					sum += xp[i];
+				}
+				sums[p] += sum;
+
+				for(int q=p; q<numberOfStochastic; q++) {
+					final float[] xq = x[q];
+					double sumOfProducts = 0.0;
+					for(int i=blockStart; i<blockEnd; i++) {
+						sumOfProducts += (double)xp[i] * xq[i];
+					}
+					sums[productIndex++] += sumOfProducts;
+				}
+
+				if(y != null) {
+					double sumOfProducts = 0.0;
+					for(int i=blockStart; i<blockEnd; i++) {
+						sumOfProducts += (double)xp[i] * y[i];
+					}
+					sums[offsetOfProductsWithValues + p] += sumOfProducts;
+				}
+			}
+
+			if(y != null) {
+				double sum = 0.0;
+				for(int i=blockStart; i<blockEnd; i++) {
+					sum += y[i];
+				}
+				sums[offsetOfSumOfValues] += sum;
+			}
+		}
+		return sums;
+	}
+
+	private static int getIndexOfProduct(final int p, final int q, final int numberOfStochastic) {
+		// Row p of the upper triangle starts after the rows 0, ..., p-1 of lengths numberOfStochastic, ..., numberOfStochastic-p+1
+		return p*numberOfStochastic - p*(p-1)/2 + (q-p);
+	}
+
+	/**
+	 * Returns the indices of the stochastic basis functions, which define the order of the sums in {@link #of(int, RandomVariable[], RandomVariable, double[])}.
+	 *
+	 * @param basisFunctions The basis functions.
+	 * @return The indices of the stochastic basis functions.
+	 */
+	public static int[] getStochasticIndices(final RandomVariable[] basisFunctions) {
+		int numberOfStochastic = 0;
+		for(final RandomVariable basisFunction : basisFunctions) {
+			if(!basisFunction.isDeterministic()) {
+				numberOfStochastic++;
+			}
+		}
+		final int[] stochasticIndices = new int[numberOfStochastic];
+		int p = 0;
+		for(int j=0; j<basisFunctions.length; j++) {
+			if(!basisFunctions[j].isDeterministic()) {
+				stochasticIndices[p++] = j;
+			}
+		}
+		return stochasticIndices;
+	}
+
+	/**
+	 * Returns the number of paths of the regression (1 if all arguments are deterministic).
+	 *
+	 * @param basisFunctions The basis functions.
+	 * @param values The random variable <code>y</code>.
+	 * @return The number of paths.
+	 */
+	public static int getSize(final RandomVariable[] basisFunctions, final RandomVariable values) {
+		int size = values.size();
+		for(final RandomVariable basisFunction : basisFunctions) {
+			size = Math.max(size, basisFunction.size());
+		}
+		return size;
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the number of paths processed and the time spent by each shard of a {@link RandomVariableSharded},
+ * giving the throughput of the shards (e.g. of the CPU and the GPU), which is used to rebalance the partition of the paths,
+ * see {@link RandomVariableShardedFactory#rebalance()}.
+ *
+ * For asynchronous backends (e.g. Cuda) the time of an element-wise operation is only the time to enqueue it, the remaining
+ * time is spent in the next synchronizing operation (e.g. a reduction), such that the throughput is meaningful over a sequence of operations
+ * ending with a reduction, e.g. a valuation.
+ *
+ * The class is thread safe.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class ShardThroughputMonitor {
+
+	private final LongAdder[]	numberOfPaths;
+	private final LongAdder[]	times;
+
+	/**
+	 * Create a monitor for the given number of shards.
+	 *
+	 * @param numberOfShards The number of shards.
+	 */
+	public ShardThroughputMonitor(final int numberOfShards) {
+		super();
+		numberOfPaths = new LongAdder[numberOfShards];
+		times = new LongAdder[numberOfShards];
+		for(int shardIndex=0; shardIndex<numberOfShards; shardIndex++) {
+			numberOfPaths[shardIndex] = new LongAdder();
+			times[shardIndex] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Record an operation of a shard.
+	 *
+	 * @param shardIndex The index of the shard.
+	 * @param numberOfPaths The number of paths processed.
+	 * @param time The time spent (in nanoseconds).
+	 */
+	public void record(final int shardIndex, final long numberOfPaths, final long time) {
+		this.numberOfPaths[shardIndex].add(numberOfPaths);
+		this.times[shardIndex].add(time);
+	}
+
+	/**
+	 * @param shardIndex The index of the shard.
+	 * @return The number of paths processed by the shard since the last reset.
+	 */
+	public long getNumberOfPaths(final int shardIndex) {
+		return numberOfPaths[shardIndex].sum();
+	}
+
+	/**
+	 * @param shardIndex The index of the shard.
+	 * @return The time spent by the shard since the last reset (in nanoseconds).
+	 */
+	public long getTime(final int shardIndex) {
+		return times[shardIndex].sum();
+	}
+
+	/**
+	 * @param shardIndex The index of the shard.
+	 * @return The throughput of the shard (paths per second) or <code>NaN</code> if nothing has been recorded.
+	 */
+	public double getThroughput(final int shardIndex) {
+		final long time = getTime(shardIndex);
+		final long numberOfPaths = getNumberOfPaths(shardIndex);
+		return time > 0 && numberOfPaths > 0 ? numberOfPaths * 1E9 / time : Double.NaN;
+	}
+
+	/**
+	 * @return The number of shards.
+	 */
+	public int getNumberOfShards() {
+		return numberOfPaths.length;
+	}
+
+	/**
+	 * Discards the recorded operations.
+	 */
+	public void reset() {
+		for(int shardIndex=0; shardIndex<numberOfPaths.length; shardIndex++) {
+			numberOfPaths[shardIndex].reset();
+			times[shardIndex].reset();
+		}
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A simulated device (pure Java) allocating vectors in a simulated address space of a given capacity, used to test and
+ * benchmark the memory management ({@link ReferenceCountingMemoryPool}, {@link SlabAllocator}) without a GPU.
+ *
+ * The vectors are placed first-fit, such that the fragmentation of the device memory is modeled. No memory is allocated on the heap.
+ * The latency of an allocation (e.g. of a synchronous <code>cuMemAlloc</code>) may be simulated.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class SimulatedDevice implements DeviceMemoryAllocator<SimulatedDevice.DevicePointer> {
+
+	/**
+	 * A pointer into the address space of the simulated device (addresses are multiples of sizeof(float)).
+	 */
+	public static final class DevicePointer {
+		private final long address;
+
+		public DevicePointer(final long address) {
+			this.address = address;
+		}
+
+		/**
+		 * @return The address as multiples of sizeof(float).
+		 */
+		public long getAddress() {
+			return address;
+		}
+
+		/**
+		 * Returns a pointer with the given offset.
+		 *
+		 * @param offset The offset as multiples of sizeof(float).
+		 * @return The pointer with the offset.
+		 */
+		public DevicePointer withOffset(final long offset) {
+			return new DevicePointer(address + offset);
+		}
+
+		@Override
+		public boolean equals(final Object other) {
+			return other instanceof DevicePointer && ((DevicePointer)other).address == address;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(address);
+		}
+
+		@Override
+		public String toString() {
+			return "DevicePointer [address=" + address + "]";
+		}
+	}
+
+	private final long capacity;
+	private final long allocationLatencyNanos;
+
+	// The allocated vectors: address to size
+	private final TreeMap<Long, Long> allocations = new TreeMap<Long, Long>();
+
+	private long allocatedSize = 0;
+	private long numberOfAllocations = 0;
+	private long numberOfFrees = 0;
+
+	/**
+	 * Create a simulated device.
+	 *
+	 * @param capacity The size of the device memory as multiples of sizeof(float).
+	 * @param allocationLatencyNanos The simulated latency of an allocation and of a free in nanoseconds.
+	 */
+	public SimulatedDevice(final long capacity, final long allocationLatencyNanos) {
+		super();
+		this.capacity = capacity;
+		this.allocationLatencyNanos = allocationLatencyNanos;
+	}
+
+	/**
+	 * Create a simulated device without latency.
+	 *
+	 * @param capacity The size of the device memory as multiples of sizeof(float).
+	 */
+	public SimulatedDevice(final long capacity) {
+		this(capacity, 0);
+	}
+
+	@Override
+	public synchronized DevicePointer allocate(final long size) {
+		simulateLatency();
+
+		// First fit
+		long address = 0;
+		for(final Map.Entry<Long, Long> allocation : allocations.entrySet()) {
+			if(allocation.getKey() - address >= size) {
+				break;
+			}
+			address = allocation.getKey() + allocation.getValue();
+		}
+		if(capacity - address < size) {
+			return null;
+		}
+
+		allocations.put(address, size);
+		allocatedSize += size;
+		numberOfAllocations++;
+		return new DevicePointer(address);
+	}
+
+	@Override
+	public synchronized void free(final DevicePointer pointer, final long size) {
+		simulateLatency();
+
+		final Long allocatedSizeOfPointer = allocations.get(pointer.getAddress());
+		if(allocatedSizeOfPointer == null || allocatedSizeOfPointer != size) {
+			throw new IllegalArgumentException("No vector of size " + size + " allocated at " + pointer + ".");
+		}
+		allocations.remove(pointer.getAddress());
+		allocatedSize -= size;
+		numberOfFrees++;
+	}
+
+	@Override
+	public synchronized double getFreeMemoryFraction() {
+		return 1.0 - (double)allocatedSize / capacity;
+	}
+
+	/**
+	 * @return The size of the device memory as multiples of sizeof(float).
+	 */
+	public long getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return The total size of the allocated vectors as multiples of sizeof(float).
+	 */
+	public synchronized long getAllocatedSize() {
+		return allocatedSize;
+	}
+
+	/**
+	 * @return The number of vectors currently allocated.
+	 */
+	public synchronized int getNumberOfVectors() {
+		return allocations.size();
+	}
+
+	/**
+	 * @return The number of calls of {@link #allocate(long)} which succeeded.
+	 */
+	public synchronized long getNumberOfAllocations() {
+		return numberOfAllocations;
+	}
+
+	/**
+	 * @return The number of calls of {@link #free(DevicePointer, long)}.
+	 */
+	public synchronized long getNumberOfFrees() {
+		return numberOfFrees;
+	}
+
+	/**
+	 * Returns true if the given address belongs to an allocated vector.
+	 *
+	 * @param address An address as multiples of sizeof(float).
+	 * @return True if the address belongs to an allocated vector.
+	 */
+	public synchronized boolean isAllocated(final long address) {
+		final Map.Entry<Long, Long> allocation = allocations.floorEntry(address);
+		return allocation != null && address < allocation.getKey() + allocation.getValue();
+	}
+
+	private void simulateLatency() {
+		if(allocationLatencyNanos > 0) {
+			final long end = System.nanoTime() + allocationLatencyNanos;
+			while(System.nanoTime() < end) {
+				LockSupport.parkNanos(end - System.nanoTime());
+			}
+		}
+	}
+}
@@ -0,0 +1,270 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * An allocator of device vectors sub-allocating size classes from large slabs of device memory.
+ *
+ * The requested sizes are rounded up to a size class (see {@link #getSizeClasses(int)}) and to a multiple of the alignment.
+ * Each slab serves the blocks of one size class. A new slab is requested from the underlying allocator only if no slab of the
+ * size class has a free block, such that (after a warm up) vectors of slightly different sizes share the same memory and an allocation
+ * does not require a call of the device API. Vectors larger than the slab size are allocated in a slab holding a single block.
+ * A slab is returned to the underlying allocator once all its blocks have been freed.
+ *
+ * The pointers of the blocks are derived from the pointer of the slab by an offset function, e.g.
+ * <code>(slab, offset) -&gt; slab.withByteOffset(offset * Sizeof.FLOAT)</code> for <code>CUdeviceptr</code>.
+ * If no offset function is given, each slab holds a single block, i.e., the allocator only rounds the sizes to size classes.
+ *
+ * The allocator is typically used by a {@link ReferenceCountingMemoryPool}, which re-uses vectors of the same size class.
+ * The class {@link SimulatedDevice} may be used to test and benchmark the allocator without a device.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ * @param <P> The type of the (native) device pointer.
+ */
+public class SlabAllocator<P> implements DeviceMemoryAllocator<P> {
+
+	/**
+	 * A slab of device memory holding the blocks of a size class.
+	 */
+	private static class Slab<P> {
+		private final P			pointer;
+		private final long		blockSize;
+		private final int[]		freeBlocks;
+		private int				numberOfFreeBlocks;
+
+		Slab(final P pointer, final long blockSize, final int numberOfBlocks) {
+			this.pointer = pointer;
+			this.blockSize = blockSize;
+			freeBlocks = new int[numberOfBlocks];
+			for(int block=0; block<numberOfBlocks; block++) {
+				freeBlocks[block] = numberOfBlocks-1-block;
+			}
+			numberOfFreeBlocks = numberOfBlocks;
+		}
+
+		private long getSize() {
+			return blockSize * freeBlocks.length;
+		}
+
+		private boolean isEmpty() {
+			return numberOfFreeBlocks == freeBlocks.length;
+		}
+	}
+
+	/**
+	 * A block allocated from a slab.
+	 */
+	private static class Block<P> {
+		private final Slab<P>	slab;
+		private final int		index;
+
+		Block(final Slab<P> slab, final int index) {
+			this.slab = slab;
+			this.index = index;
+		}
+	}
+
+	private final DeviceMemoryAllocator<P>	device;
+	private final BiFunction<P, Long, P>	offsetPointer;
+	private final long						slabSize;
+	private final LongUnaryOperator			sizeClasses;
+	private final long						alignment;
+
+	// For each size class the slabs having free blocks
+	private final Map<Long, Deque<Slab<P>>>	slabsWithFreeBlocks	= new HashMap<Long, Deque<Slab<P>>>();
+
+	// The allocated blocks, identified by their pointers (the pointer objects handed out by allocate)
+	private final Map<P, Block<P>>			blocksInUse			= new IdentityHashMap<P, Block<P>>();
+
+	// Statistics
+	private int		numberOfSlabs = 0;
+	private long	reservedSize = 0;
+	private long	allocatedSize = 0;
+	private long	numberOfBlockAllocations = 0;
+	private long	numberOfSlabAllocations = 0;
+
+	/**
+	 * Create a slab allocator.
+	 *
+	 * @param device The allocator of the slabs (the device).
+	 * @param offsetPointer Function mapping the pointer of a slab and an offset (as multiples of sizeof(float)) to the pointer of a block. If null, each slab holds a single block.
+	 * @param slabSize The size of a slab as multiples of sizeof(float).
+	 * @param sizeClasses Function mapping a requested size to its size class, see {@link #getSizeClasses(int)}.
+	 * @param alignment The alignment of the blocks as multiples of sizeof(float) (e.g. 64 for 256 bytes).
+	 */
+	public SlabAllocator(final DeviceMemoryAllocator<P> device, final BiFunction<P, Long, P> offsetPointer, final long slabSize, final LongUnaryOperator sizeClasses, final long alignment) {
+		super();
+		if(alignment < 1) {
+			throw new IllegalArgumentException("The alignment must be positive.");
+		}
+		this.device = device;
+		this.offsetPointer = offsetPointer;
+		this.slabSize = slabSize;
+		this.sizeClasses = sizeClasses;
+		this.alignment = alignment;
+	}
+
+	/**
+	 * Create a slab allocator using size classes with four classes per power of two and an alignment of 256 bytes.
+	 *
+	 * @param device The allocator of the slabs (the device).
+	 * @param offsetPointer Function mapping the pointer of a slab and an offset (as multiples of sizeof(float)) to the pointer of a block. If null, each slab holds a single block.
+	 * @param slabSize The size of a slab as multiples of sizeof(float).
+	 */
+	public SlabAllocator(final DeviceMemoryAllocator<P> device, final BiFunction<P, Long, P> offsetPointer, final long slabSize) {
+		this(device, offsetPointer, slabSize, getSizeClasses(4), 64);
+	}
+
+	/**
+	 * Returns size classes with the given number of classes between two consecutive powers of two: a size between 2<sup>k</sup> and 2<sup>k+1</sup>
+	 * is rounded up to a multiple of 2<sup>k</sup> / numberOfClassesPerDoubling. The rounding increases a size by less than 1 / numberOfClassesPerDoubling.
+	 * For numberOfClassesPerDoubling = 1 the size classes are the powers of two.
+	 *
+	 * @param numberOfClassesPerDoubling The number of size classes between two consecutive powers of two.
+	 * @return The function mapping a size to its size class.
+	 */
+	public static LongUnaryOperator getSizeClasses(final int numberOfClassesPerDoubling) {
+		if(numberOfClassesPerDoubling < 1) {
+			throw new IllegalArgumentException("The number of size classes per doubling must be positive.");
+		}
+		return size -> {
+			if(size <= 1) {
+				return 1;
+			}
+			final long step = Math.max(Long.highestOneBit(size-1) / numberOfClassesPerDoubling, 1);
+			return (size + step - 1) / step * step;
+		};
+	}
+
+	@Override
+	public long getAllocationSize(final long size) {
+		final long sizeClass = sizeClasses.applyAsLong(size);
+		return (sizeClass + alignment - 1) / alignment * alignment;
+	}
+
+	@Override
+	public synchronized P allocate(final long size) {
+		final long blockSize = getAllocationSize(size);
+
+		final Deque<Slab<P>> slabs = slabsWithFreeBlocks.computeIfAbsent(blockSize, key -> new ArrayDeque<Slab<P>>());
+		Slab<P> slab = slabs.peek();
+		if(slab == null) {
+			slab = allocateSlab(blockSize);
+			if(slab == null) {
+				return null;
+			}
+			slabs.push(slab);
+		}
+
+		final int index = slab.freeBlocks[--slab.numberOfFreeBlocks];
+		if(slab.numberOfFreeBlocks == 0) {
+			slabs.remove(slab);
+		}
+
+		final P pointer = offsetPointer != null ? offsetPointer.apply(slab.pointer, index * blockSize) : slab.pointer;
+		blocksInUse.put(pointer, new Block<P>(slab, index));
+		allocatedSize += blockSize;
+		numberOfBlockAllocations++;
+
+		return pointer;
+	}
+
+	@Override
+	public synchronized void free(final P pointer, final long size) {
+		final Block<P> block = blocksInUse.remove(pointer);
+		if(block == null) {
+			throw new IllegalArgumentException("The pointer " + pointer + " has not been allocated by this allocator.");
+		}
+
+		final Slab<P> slab = block.slab;
+		if(slab.numberOfFreeBlocks == 0) {
+			slabsWithFreeBlocks.get(slab.blockSize).push(slab);
+		}
+		slab.freeBlocks[slab.numberOfFreeBlocks++] = block.index;
+		allocatedSize -= slab.blockSize;
+
+		if(slab.isEmpty()) {
+			slabsWithFreeBlocks.get(slab.blockSize).remove(slab);
+			freeSlab(slab);
+		}
+	}
+
+	@Override
+	public double getFreeMemoryFraction() {
+		return device.getFreeMemoryFraction();
+	}
+
+	/**
+	 * @return The number of slabs allocated from the device.
+	 */
+	public synchronized int getNumberOfSlabs() {
+		return numberOfSlabs;
+	}
+
+	/**
+	 * @return The total size of the slabs allocated from the device, as multiples of sizeof(float).
+	 */
+	public synchronized long getReservedSize() {
+		return reservedSize;
+	}
+
+	/**
+	 * @return The total size of the blocks in use, as multiples of sizeof(float).
+	 */
+	public synchronized long getAllocatedSize() {
+		return allocatedSize;
+	}
+
+	/**
+	 * @return The fraction of the reserved device memory used by blocks (1 minus the fragmentation of the slabs).
+	 */
+	public synchronized double getUtilization() {
+		return reservedSize > 0 ? (double)allocatedSize / reservedSize : 1.0;
+	}
+
+	/**
+	 * @return The fraction of the allocations served by existing slabs, i.e., without an allocation on the device.
+	 */
+	public synchronized double getHitRate() {
+		return numberOfBlockAllocations > 0 ? 1.0 - (double)numberOfSlabAllocations / numberOfBlockAllocations : 1.0;
+	}
+
+	private Slab<P> allocateSlab(final long blockSize) {
+		final int numberOfBlocks = offsetPointer != null ? (int)Math.min(Math.max(slabSize / blockSize, 1), Integer.MAX_VALUE) : 1;
+
+		P pointer = device.allocate(numberOfBlocks * blockSize);
+		int numberOfBlocksOfSlab = numberOfBlocks;
+		if(pointer == null && numberOfBlocks > 1) {
+			// Not enough memory for a full slab, try a slab holding a single block
+			pointer = device.allocate(blockSize);
+			numberOfBlocksOfSlab = 1;
+		}
+		if(pointer == null) {
+			return null;
+		}
+
+		final Slab<P> slab = new Slab<P>(pointer, blockSize, numberOfBlocksOfSlab);
+		numberOfSlabs++;
+		numberOfSlabAllocations++;
+		reservedSize += slab.getSize();
+		return slab;
+	}
+
+	private void freeSlab(final Slab<P> slab) {
+		device.free(slab.pointer, slab.getSize());
+		numberOfSlabs--;
+		reservedSize -= slab.getSize();
+	}
+}
@@ -0,0 +1,275 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.math3.random.SobolSequenceGenerator;
+
+/**
+ * The Sobol low discrepancy sequence with 32 bit resolution, generated in Gray code order.
+ *
+ * The direction numbers are those of S. Joe and F. Y. Kuo, "Constructing Sobol sequences with better two-dimensional projections"
+ * (the file <code>new-joe-kuo-6.1000</code> distributed with commons-math, providing 1000 dimensions),
+ * or read from a file in the same format (e.g. <code>new-joe-kuo-6.21201</code>), see {@link #SobolSequence(int, InputStream)}.
+ * For dimensions beyond those provided, the primitive polynomials are enumerated (in the order of degree and coefficients, continuing
+ * after the last polynomial of the file) and the initial direction numbers are chosen by a deterministic pseudo random function.
+ * These additional dimensions have a lower quality (in their two-dimensional projections), they are intended for the
+ * less important dimensions (e.g. of a Brownian bridge).
+ *
+ * The point of a given index can be calculated directly (skip ahead), such that blocks of points can be generated independently.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class SobolSequence {
+
+	private static final String	DIRECTION_NUMBERS_RESOURCE = "/assets/org/apache/commons/math3/random/new-joe-kuo-6.1000";
+
+	private static final int	NUMBER_OF_BITS = 32;
+
+	private final int		numberOfDimensions;
+	private final int[][]	directionNumbers;		// [bit][dimension]
+
+	/**
+	 * Create the Sobol sequence of a given dimension, using the direction numbers of Joe and Kuo for the first 1000 dimensions.
+	 *
+	 * @param numberOfDimensions The dimension.
+	 */
+	public SobolSequence(final int numberOfDimensions) {
+		this(numberOfDimensions, SobolSequenceGenerator.class.getResourceAsStream(DIRECTION_NUMBERS_RESOURCE));
+	}
+
+	/**
+	 * Create the Sobol sequence of a given dimension, using the direction numbers read from a stream in the format of Joe and Kuo
+	 * (a header line, then one line per dimension, starting with dimension 2, containing d, s, a, m<sub>1</sub>, ..., m<sub>s</sub>).
+	 * The stream is closed.
+	 *
+	 * @param numberOfDimensions The dimension.
+	 * @param directionNumbersStream The stream providing the direction numbers.
+	 */
+	public SobolSequence(final int numberOfDimensions, final InputStream directionNumbersStream) {
+		super();
+		if(numberOfDimensions < 1) {
+			throw new IllegalArgumentException("The number of dimensions must be positive.");
+		}
+		this.numberOfDimensions = numberOfDimensions;
+
+		final List<int[]> polynomials = readPolynomials(numberOfDimensions - 1, directionNumbersStream);
+		addPolynomials(polynomials, numberOfDimensions - 1);
+
+		directionNumbers = new int[NUMBER_OF_BITS][numberOfDimensions];
+
+		// The first dimension is the van der Corput sequence
+		for(int bit=0; bit<NUMBER_OF_BITS; bit++) {
+			directionNumbers[bit][0] = 1 << (NUMBER_OF_BITS - 1 - bit);
+		}
+
+		for(int dimension=1; dimension<numberOfDimensions; dimension++) {
+			final int[] polynomial = polynomials.get(dimension-1);
+			final int degree = polynomial[0];
+			final int coefficients = polynomial[1];
+			for(int bit=0; bit<NUMBER_OF_BITS; bit++) {
+				if(bit < degree) {
+					directionNumbers[bit][dimension] = polynomial[2 + bit] << (NUMBER_OF_BITS - 1 - bit);
+				}
+				else {
+					int directionNumber = directionNumbers[bit-degree][dimension] ^ (directionNumbers[bit-degree][dimension] >>> degree);
+					for(int k=1; k<degree; k++) {
+						if(((coefficients >>> (degree - 1 - k)) & 1) != 0) {
+							directionNumber ^= directionNumbers[bit-k][dimension];
+						}
+					}
+					directionNumbers[bit][dimension] = directionNumber;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The dimension of the sequence.
+	 */
+	public int getNumberOfDimensions() {
+		return numberOfDimensions;
+	}
+
+	/**
+	 * Calculates the point of the given index (skip ahead). The coordinates are the 32 bit integers <i>x</i> representing
+	 * <i>x</i> / 2<sup>32</sup> (interpreted as unsigned integers).
+	 *
+	 * @param index The index of the point, 0 &le; index &lt; 2<sup>32</sup>.
+	 * @param point Array of length (at least) the number of dimensions receiving the point.
+	 */
+	public void getPoint(final long index, final int[] point) {
+		java.util.Arrays.fill(point, 0, numberOfDimensions, 0);
+		final long grayCode = index ^ (index >>> 1);
+		for(int bit=0; bit<NUMBER_OF_BITS; bit++) {
+			if(((grayCode >>> bit) & 1) != 0) {
+				final int[] directionNumbersOfBit = directionNumbers[bit];
+				for(int dimension=0; dimension<numberOfDimensions; dimension++) {
+					point[dimension] ^= directionNumbersOfBit[dimension];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Advances the given point of index <code>index-1</code> to the point of index <code>index</code>.
+	 *
+	 * @param index The index of the new point, 1 &le; index &lt; 2<sup>32</sup>.
+	 * @param point The point of index <code>index-1</code>, replaced by the point of index <code>index</code>.
+	 */
+	public void getNextPoint(final long index, final int[] point) {
+		final int[] directionNumbersOfBit = directionNumbers[Long.numberOfTrailingZeros(index)];
+		for(int dimension=0; dimension<numberOfDimensions; dimension++) {
+			point[dimension] ^= directionNumbersOfBit[dimension];
+		}
+	}
+
+	/**
+	 * Reads the polynomials and initial direction numbers from a stream in the format of Joe and Kuo.
+	 *
+	 * @return List of int[] { degree s, coefficients a, m<sub>1</sub>, ..., m<sub>s</sub> }.
+	 */
+	private static List<int[]> readPolynomials(final int numberOfPolynomials, final InputStream directionNumbersStream) {
+		final List<int[]> polynomials = new ArrayList<>();
+		if(directionNumbersStream == null) {
+			return polynomials;
+		}
+
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(directionNumbersStream, StandardCharsets.US_ASCII))) {
+			reader.readLine();			// Header
+			String line;
+			while(polynomials.size() < numberOfPolynomials && (line = reader.readLine()) != null) {
+				final String[] fields = line.trim().split("\\s+");
+				if(fields.length < 3) {
+					continue;
+				}
+				final int degree = Integer.parseInt(fields[1]);
+				final int[] polynomial = new int[2 + degree];
+				polynomial[0] = degree;
+				polynomial[1] = Integer.parseInt(fields[2]);
+				for(int i=0; i<degree; i++) {
+					polynomial[2 + i] = Integer.parseInt(fields[3 + i]);
+				}
+				polynomials.add(polynomial);
+			}
+		}
+		catch(final IOException e) {
+			throw new UncheckedIOException("Unable to read the direction numbers of the Sobol sequence.", e);
+		}
+
+		return polynomials;
+	}
+
+	/**
+	 * Adds primitive polynomials (continuing after the last polynomial in the list) with pseudo random initial direction numbers.
+	 */
+	private static void addPolynomials(final List<int[]> polynomials, final int numberOfPolynomials) {
+		int degree = 1;
+		int coefficients = -1;
+		if(!polynomials.isEmpty()) {
+			degree = polynomials.get(polynomials.size()-1)[0];
+			coefficients = polynomials.get(polynomials.size()-1)[1];
+		}
+
+		while(polynomials.size() < numberOfPolynomials) {
+			coefficients++;
+			if(coefficients >= (1 << (degree - 1))) {
+				degree++;
+				coefficients = 0;
+				if(degree >= NUMBER_OF_BITS) {
+					throw new IllegalArgumentException("Number of dimensions not supported.");
+				}
+			}
+
+			if(isPrimitive(degree, coefficients)) {
+				final int[] polynomial = new int[2 + degree];
+				polynomial[0] = degree;
+				polynomial[1] = coefficients;
+				for(int i=0; i<degree; i++) {
+					// Odd number less than 2^(i+1)
+					final long hash = mix(((long)polynomials.size() << 32) | i);
+					polynomial[2 + i] = (int)((hash >>> 1) & ((1L << i) - 1)) << 1 | 1;
+				}
+				polynomials.add(polynomial);
+			}
+		}
+	}
+
+	/**
+	 * Checks if the polynomial x<sup>s</sup> + c<sub>1</sub> x<sup>s-1</sup> + ... + c<sub>s-1</sub> x + 1 over GF(2) is primitive,
+	 * i.e., if x has order 2<sup>s</sup>-1 modulo the polynomial. The coefficients c<sub>1</sub>, ..., c<sub>s-1</sub> are the bits of
+	 * <code>coefficients</code> (c<sub>1</sub> being the most significant).
+	 */
+	private static boolean isPrimitive(final int degree, final int coefficients) {
+		final long polynomial = (1L << degree) | ((long)coefficients << 1) | 1L;
+		final long order = (1L << degree) - 1;
+
+		if(powerOfX(order, polynomial, degree) != 1) {
+			return false;
+		}
+
+		// Check that the order of x is not a proper divisor of 2^s-1
+		long remaining = order;
+		for(long factor=2; factor*factor<=remaining; factor++) {
+			if(remaining % factor == 0) {
+				if(powerOfX(order / factor, polynomial, degree) == 1) {
+					return false;
+				}
+				while(remaining % factor == 0) {
+					remaining /= factor;
+				}
+			}
+		}
+		return remaining == 1 || powerOfX(order / remaining, polynomial, degree) != 1;
+	}
+
+	/**
+	 * Calculates x<sup>exponent</sup> modulo the given polynomial over GF(2).
+	 */
+	private static long powerOfX(long exponent, final long polynomial, final int degree) {
+		long result = 1;
+		long power = degree > 1 ? 2 : 1;			// x (modulo the polynomial)
+		while(exponent > 0) {
+			if((exponent & 1) != 0) {
+				result = multiply(result, power, polynomial, degree);
+			}
+			power = multiply(power, power, polynomial, degree);
+			exponent >>>= 1;
+		}
+		return result;
+	}
+
+	private static long multiply(long a, final long b, final long polynomial, final int degree) {
+		long result = 0;
+		for(int bit=0; bit<degree; bit++) {
+			if(((b >>> bit) & 1) != 0) {
+				result ^= a;
+			}
+			a <<= 1;
+			if(((a >>> degree) & 1) != 0) {
+				a ^= polynomial;
+			}
+		}
+		return result;
+	}
+
+	private static long mix(long value) {
+		// SplitMix64 finalizer
+		value += 0x9E3779B97F4A7C15L;
+		value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+		value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+		return value ^ (value >>> 31);
+	}
+}
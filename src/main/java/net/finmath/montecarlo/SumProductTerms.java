@@ -0,0 +1,156 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * The terms of an n-ary sum <code>a + &sum;<sub>k</sub> w<sub>k</sub> x<sub>k</sub> y<sub>k</sub></code>, where the deterministic terms
+ * (and a deterministic <code>a</code>) are collected in a single constant, such that only the stochastic terms have to be evaluated.
+ * The class is used by the implementations of {@link RandomVariableSumOperators} to evaluate the sum in a single pass
+ * (or a single kernel) reading each argument once.
+ *
+ * For a stochastic term the factor <code>y<sub>k</sub></code> is <code>null</code> if it is one (or has been merged into the weight).
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class SumProductTerms {
+
+	private final double	time;
+	private final double	constant;
+	private final int		size;
+	private final int		maximumTypePriority;
+
+	private final List<RandomVariable>	factors1 = new ArrayList<>();
+	private final List<RandomVariable>	factors2 = new ArrayList<>();
+	private final List<Double>			weights = new ArrayList<>();
+
+	/**
+	 * Collect the terms of <code>base + &sum;<sub>k</sub> w<sub>k</sub> x<sub>k</sub> y<sub>k</sub></code>.
+	 *
+	 * @param base The random variable <code>a</code>.
+	 * @param factors1 The factors <code>x<sub>k</sub></code>.
+	 * @param factors2 The factors <code>y<sub>k</sub></code> or <code>null</code> (all factors equal to one).
+	 * @param weights The weights <code>w<sub>k</sub></code> or <code>null</code> (all weights equal to one).
+	 */
+	public SumProductTerms(final RandomVariable base, final List<RandomVariable> factors1, final List<RandomVariable> factors2, final double[] weights) {
+		super();
+		if(factors2 != null && factors2.size() != factors1.size()) {
+			throw new IllegalArgumentException("The number of factors " + factors1.size() + " and " + factors2.size() + " do not match.");
+		}
+		if(weights != null && weights.length != factors1.size()) {
+			throw new IllegalArgumentException("The number of summands " + factors1.size() + " and weights " + weights.length + " do not match.");
+		}
+
+		double time = base.getFiltrationTime();
+		double constant = base.isDeterministic() ? base.doubleValue() : 0.0;
+		int size = base.isDeterministic() ? 0 : base.size();
+		int maximumTypePriority = Integer.MIN_VALUE;
+		for(int k=0; k<factors1.size(); k++) {
+			final RandomVariable factor1 = factors1.get(k);
+			final RandomVariable factor2 = factors2 != null ? factors2.get(k) : null;
+			final double weight = weights != null ? weights[k] : 1.0;
+
+			time = Math.max(time, factor1.getFiltrationTime());
+			maximumTypePriority = Math.max(maximumTypePriority, factor1.getTypePriority());
+			if(factor2 != null) {
+				time = Math.max(time, factor2.getFiltrationTime());
+				maximumTypePriority = Math.max(maximumTypePriority, factor2.getTypePriority());
+			}
+
+			final boolean isFactor2Deterministic = factor2 == null || factor2.isDeterministic();
+			if(factor1.isDeterministic() && isFactor2Deterministic) {
+				constant += weight * factor1.doubleValue() * (factor2 != null ? factor2.doubleValue() : 1.0);
+			}
+			else if(factor1.isDeterministic()) {
+				addTerm(factor2, null, weight * factor1.doubleValue());
+				size = Math.max(size, factor2.size());
+			}
+			else if(isFactor2Deterministic) {
+				addTerm(factor1, null, weight * (factor2 != null ? factor2.doubleValue() : 1.0));
+				size = Math.max(size, factor1.size());
+			}
+			else {
+				addTerm(factor1, factor2, weight);
+				size = Math.max(size, Math.max(factor1.size(), factor2.size()));
+			}
+		}
+
+		this.time = time;
+		this.constant = constant;
+		this.size = size;
+		this.maximumTypePriority = maximumTypePriority;
+	}
+
+	private void addTerm(final RandomVariable factor1, final RandomVariable factor2, final double weight) {
+		factors1.add(factor1);
+		factors2.add(factor2);
+		weights.add(weight);
+	}
+
+	/**
+	 * @return The filtration time of the sum (the maximum of the filtration times of the arguments).
+	 */
+	public double getFiltrationTime() {
+		return time;
+	}
+
+	/**
+	 * @return The sum of the deterministic terms (including a deterministic <code>a</code>).
+	 */
+	public double getConstant() {
+		return constant;
+	}
+
+	/**
+	 * @return The number of paths of the sum (0 if all terms are deterministic).
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return The maximum type priority of the factors (<code>Integer.MIN_VALUE</code> if there are none).
+	 */
+	public int getMaximumTypePriority() {
+		return maximumTypePriority;
+	}
+
+	/**
+	 * @return The number of stochastic terms.
+	 */
+	public int getNumberOfTerms() {
+		return factors1.size();
+	}
+
+	/**
+	 * @param termIndex The index of a stochastic term.
+	 * @return The stochastic factor <code>x<sub>k</sub></code> of the term.
+	 */
+	public RandomVariable getFactor1(final int termIndex) {
+		return factors1.get(termIndex);
+	}
+
+	/**
+	 * @param termIndex The index of a stochastic term.
+	 * @return The stochastic factor <code>y<sub>k</sub></code> of the term or <code>null</code> if the factor is one.
+	 */
+	public RandomVariable getFactor2(final int termIndex) {
+		return factors2.get(termIndex);
+	}
+
+	/**
+	 * @param termIndex The index of a stochastic term.
+	 * @return The weight <code>w<sub>k</sub></code> of the term.
+	 */
+	public double getWeight(final int termIndex) {
+		return weights.get(termIndex);
+	}
+}
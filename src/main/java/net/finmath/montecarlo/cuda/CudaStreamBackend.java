@@ -0,0 +1,64 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.cuda;
+
+import jcuda.driver.CUevent;
+import jcuda.driver.CUevent_flags;
+import jcuda.driver.CUstream;
+import jcuda.driver.CUstream_flags;
+import jcuda.driver.JCudaDriver;
+import net.finmath.montecarlo.DeviceStreamBackend;
+
+/**
+ * The Cuda streams and events used by the {@link net.finmath.montecarlo.DeviceStreamScheduler} of {@link RandomVariableCuda}.
+ *
+ * The streams are created with <code>CU_STREAM_NON_BLOCKING</code>, such that the synchronous transfers on the default stream
+ * do not synchronize with them. The events are created with <code>CU_EVENT_DISABLE_TIMING</code>.
+ *
+ * The methods have to be called on the thread owning the Cuda context.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+class CudaStreamBackend implements DeviceStreamBackend<CUstream, CUevent> {
+
+	private final CUstream defaultStream = new CUstream();
+
+	@Override
+	public CUstream createStream() {
+		final CUstream stream = new CUstream();
+		JCudaDriver.cuStreamCreate(stream, CUstream_flags.CU_STREAM_NON_BLOCKING);
+		return stream;
+	}
+
+	@Override
+	public CUstream getDefaultStream() {
+		return defaultStream;
+	}
+
+	@Override
+	public CUevent recordEvent(final CUstream stream) {
+		final CUevent event = new CUevent();
+		JCudaDriver.cuEventCreate(event, CUevent_flags.CU_EVENT_DISABLE_TIMING);
+		JCudaDriver.cuEventRecord(event, stream);
+		return event;
+	}
+
+	@Override
+	public void waitForEvent(final CUstream stream, final CUevent event) {
+		JCudaDriver.cuStreamWaitEvent(stream, event, 0);
+	}
+
+	@Override
+	public void synchronize(final CUevent event) {
+		JCudaDriver.cuEventSynchronize(event);
+	}
+
+	@Override
+	public void destroyEvent(final CUevent event) {
+		JCudaDriver.cuEventDestroy(event);
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.cuda;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jcuda.driver.CUfunction;
+import net.finmath.montecarlo.cuda.RandomVariableCuda.DevicePointerReference;
+import net.finmath.montecarlo.expression.FloatExpression;
+import net.finmath.montecarlo.expression.FloatExpressionBackend;
+import net.finmath.montecarlo.expression.FloatExpressionProgram;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * A {@link FloatExpressionBackend} evaluating expressions on a CUDA device.
+ *
+ * The vectors are stored on the device (the handles are of type {@link DevicePointerReference}). A program is
+ * executed by a single fused kernel, generated by {@link FusedKernelSourceGenerator} and compiled once per
+ * shape of the program (see {@link FusedKernelCache}). Evaluated vectors are wrapped as {@link RandomVariableCuda},
+ * which performs all operations not recorded in the expression graph (e.g. reductions).
+ *
+ * The backend evaluates on the device with the given ordinal (see {@link RandomVariableCuda#getNumberOfDevices()}).
+ * All instances of this class for the same device share the same kernel cache.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class FloatExpressionCudaBackend implements FloatExpressionBackend {
+
+	private static final int typePriorityDefault = 21;
+
+	// The caches of the compiled fused kernels of the devices (a module is loaded into the context of a single device)
+	private static final Map<Integer, FusedKernelCache<CUfunction>> kernelCaches = new ConcurrentHashMap<>();
+
+	private final int deviceOrdinal;
+
+	/**
+	 * Create a backend evaluating on the first device.
+	 */
+	public FloatExpressionCudaBackend() {
+		this(0);
+	}
+
+	/**
+	 * Create a backend evaluating on the given device.
+	 *
+	 * @param deviceOrdinal The ordinal of the device.
+	 */
+	public FloatExpressionCudaBackend(final int deviceOrdinal) {
+		super();
+		this.deviceOrdinal = deviceOrdinal;
+	}
+
+	/**
+	 * @return The cache of the compiled fused kernels of the first device.
+	 */
+	public static FusedKernelCache<CUfunction> getKernelCache() {
+		return getKernelCache(0);
+	}
+
+	/**
+	 * @param deviceOrdinal The ordinal of the device.
+	 * @return The cache of the compiled fused kernels of the given device.
+	 */
+	public static FusedKernelCache<CUfunction> getKernelCache(final int deviceOrdinal) {
+		return kernelCaches.computeIfAbsent(deviceOrdinal, key -> new FusedKernelCache<>((name, source) -> RandomVariableCuda.loadFunction(deviceOrdinal, name, source)));
+	}
+
+	/**
+	 * @return The ordinal of the device.
+	 */
+	public int getDeviceOrdinal() {
+		return deviceOrdinal;
+	}
+
+	@Override
+	public int getTypePriority() {
+		return typePriorityDefault;
+	}
+
+	@Override
+	public FloatExpression getExpression(final float[] values) {
+		return FloatExpression.of(RandomVariableCuda.getDevicePointer(deviceOrdinal, values), values.length);
+	}
+
+	@Override
+	public FloatExpression getExpression(final RandomVariable randomVariable) {
+		if(randomVariable instanceof RandomVariableCuda && !randomVariable.isDeterministic() && ((RandomVariableCuda)randomVariable).getDeviceOrdinal() == deviceOrdinal) {
+			// Use the device vector without copy
+			return FloatExpression.of(((RandomVariableCuda)randomVariable).getDevicePointerReference(), randomVariable.size());
+		}
+		else {
+			return FloatExpressionBackend.super.getExpression(randomVariable);
+		}
+	}
+
+	@Override
+	public Object evaluate(final FloatExpressionProgram program) {
+		final CUfunction kernel = getKernelCache(deviceOrdinal).getKernel(program);
+
+		final List<Object> inputs = program.getInputs();
+		final DevicePointerReference[] vectors = new DevicePointerReference[inputs.size()];
+		for(int inputIndex=0; inputIndex<vectors.length; inputIndex++) {
+			final Object input = inputs.get(inputIndex);
+			vectors[inputIndex] = input instanceof float[] ? RandomVariableCuda.getDevicePointer(deviceOrdinal, (float[])input) : (DevicePointerReference)input;
+		}
+
+		return RandomVariableCuda.callFunction(deviceOrdinal, kernel, program.size(), vectors, FusedKernelSourceGenerator.getScalarArguments(program));
+	}
+
+	@Override
+	public RandomVariable getRandomVariable(final double time, final Object handle, final int size) {
+		return RandomVariableCuda.of(time, (DevicePointerReference)handle, size);
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		return other != null && other.getClass() == getClass() && ((FloatExpressionCudaBackend)other).deviceOrdinal == deviceOrdinal;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * getClass().hashCode() + deviceOrdinal;
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.cuda;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+import net.finmath.montecarlo.expression.FloatExpressionProgram;
+
+/**
+ * A cache of compiled fused kernels, keyed by the shape of the program (see {@link FloatExpressionProgram#getShape()}).
+ *
+ * Since the kernel generated by {@link FusedKernelSourceGenerator} does not depend on the values of the inputs,
+ * constants or parameters, a kernel is compiled only once for each shape, e.g., once for each time step
+ * of a Monte-Carlo simulation, and re-used for all later evaluations.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ * @param <K> The type of the compiled kernel (e.g. <code>CUfunction</code>).
+ */
+public class FusedKernelCache<K> {
+
+	private final BiFunction<String, String, K>	compiler;
+	private final Map<String, K>				kernels = new ConcurrentHashMap<>();
+
+	private final AtomicLong numberOfCompilations = new AtomicLong();
+	private final AtomicLong numberOfHits = new AtomicLong();
+
+	/**
+	 * Create a kernel cache.
+	 *
+	 * @param compiler A function mapping the kernel name and the kernel source to the compiled kernel.
+	 */
+	public FusedKernelCache(final BiFunction<String, String, K> compiler) {
+		super();
+		this.compiler = compiler;
+	}
+
+	/**
+	 * Returns the kernel for the given program, compiling it if no kernel for the shape of the program exists.
+	 *
+	 * @param program The program.
+	 * @return The compiled kernel.
+	 */
+	public K getKernel(final FloatExpressionProgram program) {
+		final String shape = program.getShape();
+		final K kernel = kernels.get(shape);
+		if(kernel != null) {
+			numberOfHits.incrementAndGet();
+			return kernel;
+		}
+
+		return kernels.computeIfAbsent(shape, key -> {
+			numberOfCompilations.incrementAndGet();
+			return compiler.apply(FusedKernelSourceGenerator.getKernelName(program), FusedKernelSourceGenerator.getSource(program));
+		});
+	}
+
+	/**
+	 * @return The number of kernels compiled by this cache.
+	 */
+	public long getNumberOfCompilations() {
+		return numberOfCompilations.get();
+	}
+
+	/**
+	 * @return The number of requests served by an already compiled kernel.
+	 */
+	public long getNumberOfHits() {
+		return numberOfHits.get();
+	}
+
+	/**
+	 * @return The number of kernels in this cache.
+	 */
+	public int size() {
+		return kernels.size();
+	}
+}
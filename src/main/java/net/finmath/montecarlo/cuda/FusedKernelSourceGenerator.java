@@ -0,0 +1,203 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.cuda;
+
+import java.util.List;
+
+import net.finmath.montecarlo.expression.FloatExpressionProgram;
+import net.finmath.montecarlo.expression.FloatExpressionProgram.Instruction;
+import net.finmath.montecarlo.expression.FloatOperator;
+
+/**
+ * Generates the CUDA C source of a single (fused) kernel executing a {@link FloatExpressionProgram}.
+ *
+ * The kernel evaluates all instructions of the program for one element per thread, keeping the
+ * temporaries in registers. Hence a chain of operations requires a single kernel launch and a single
+ * result vector instead of one launch and one intermediate vector per operation.
+ *
+ * The source depends on the shape of the program only (see {@link FloatExpressionProgram#getShape()}).
+ * Inputs, constants and operator parameters are passed as kernel arguments in the order
+ * <code>n, i0, i1, ..., c0, c1, ..., p0_0, p0_1, ..., result</code>
+ * where <code>ik</code> are the input vectors, <code>ck</code> the constants and <code>pj_k</code> the
+ * parameters of the <code>j</code>-th instruction. Scalars are passed as <code>float</code>.
+ *
+ * The expressions mirror the kernels in <code>RandomVariableCudaKernel.cu</code> (e.g., exp and log are
+ * calculated in double precision). The kernels have to be compiled with <code>-fmad false</code>,
+ * as done by {@link net.finmath.jcuda.JCudaUtils#preparePtxFile(java.net.URL)}.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class FusedKernelSourceGenerator {
+
+	private FusedKernelSourceGenerator() {
+	}
+
+	/**
+	 * Returns the name of the kernel for the given program. Programs with the same shape share the same kernel name.
+	 *
+	 * @param program The program.
+	 * @return The name of the kernel.
+	 */
+	public static String getKernelName(final FloatExpressionProgram program) {
+		return "fused_" + Integer.toHexString(program.getShape().hashCode()) + "_" + program.getInstructions().size();
+	}
+
+	/**
+	 * Returns the CUDA C source of the kernel for the given program.
+	 *
+	 * @param program The program.
+	 * @return The source of the kernel.
+	 */
+	public static String getSource(final FloatExpressionProgram program) {
+		final List<Instruction> instructions = program.getInstructions();
+
+		final StringBuilder source = new StringBuilder();
+		source.append("// ").append(program.getShape()).append("\n");
+		source.append("extern \"C\"\n");
+		source.append("__global__ void ").append(getKernelName(program)).append("(int n");
+		for(int inputIndex=0; inputIndex<program.getInputs().size(); inputIndex++) {
+			source.append(", float *i").append(inputIndex);
+		}
+		for(int constantIndex=0; constantIndex<program.getConstants().length; constantIndex++) {
+			source.append(", float c").append(constantIndex);
+		}
+		for(int instructionIndex=0; instructionIndex<instructions.size(); instructionIndex++) {
+			for(int parameterIndex=0; parameterIndex<instructions.get(instructionIndex).getOperator().getNumberOfParameters(); parameterIndex++) {
+				source.append(", float p").append(instructionIndex).append("_").append(parameterIndex);
+			}
+		}
+		source.append(", float *result)\n");
+		source.append("{\n");
+		source.append("    int i = blockIdx.x * blockDim.x + threadIdx.x;\n");
+		source.append("    if (i<n)\n");
+		source.append("    {\n");
+		for(int instructionIndex=0; instructionIndex<instructions.size(); instructionIndex++) {
+			final Instruction instruction = instructions.get(instructionIndex);
+			final String[] operands = new String[instruction.getOperator().getArity()];
+			for(int operandIndex=0; operandIndex<operands.length; operandIndex++) {
+				operands[operandIndex] = getOperandReference(instruction, operandIndex);
+			}
+			final String[] parameters = new String[instruction.getOperator().getNumberOfParameters()];
+			for(int parameterIndex=0; parameterIndex<parameters.length; parameterIndex++) {
+				parameters[parameterIndex] = "p" + instructionIndex + "_" + parameterIndex;
+			}
+			source.append("        float t").append(instructionIndex).append(" = ").append(getExpression(instruction.getOperator(), operands, parameters)).append(";\n");
+		}
+		source.append("        result[i] = t").append(instructions.size()-1).append(";\n");
+		source.append("    }\n");
+		source.append("}\n");
+
+		return source.toString();
+	}
+
+	/**
+	 * Returns the kernel arguments (excluding <code>n</code> and the result vector) which are scalars,
+	 * i.e., the constants followed by the parameters of all instructions, in the order expected by the kernel.
+	 *
+	 * @param program The program.
+	 * @return The scalar arguments of the kernel.
+	 */
+	public static float[] getScalarArguments(final FloatExpressionProgram program) {
+		final float[] constants = program.getConstants();
+		int numberOfParameters = 0;
+		for(final Instruction instruction : program.getInstructions()) {
+			numberOfParameters += instruction.getOperator().getNumberOfParameters();
+		}
+
+		final float[] arguments = new float[constants.length + numberOfParameters];
+		System.arraycopy(constants, 0, arguments, 0, constants.length);
+		int argumentIndex = constants.length;
+		for(final Instruction instruction : program.getInstructions()) {
+			for(final double parameter : instruction.getParameters()) {
+				arguments[argumentIndex++] = (float)parameter;
+			}
+		}
+		return arguments;
+	}
+
+	private static String getOperandReference(final Instruction instruction, final int operandIndex) {
+		final int index = instruction.getOperandIndex(operandIndex);
+		switch(instruction.getOperandType(operandIndex)) {
+		case INPUT:
+			return "i" + index + "[i]";
+		case CONSTANT:
+			return "c" + index;
+		case TEMPORARY:
+		default:
+			return "t" + index;
+		}
+	}
+
+	private static String getExpression(final FloatOperator operator, final String[] x, final String[] p) {
+		switch(operator) {
+		case CAP_SCALAR:
+			return x[0] + " < " + p[0] + " ? " + x[0] + " : " + p[0];
+		case FLOOR_SCALAR:
+			return x[0] + " > " + p[0] + " ? " + x[0] + " : " + p[0];
+		case ADD_SCALAR:
+			return x[0] + " + " + p[0];
+		case SUB_SCALAR:
+			return x[0] + " - " + p[0];
+		case BUS_SCALAR:
+			return "-" + x[0] + " + " + p[0];
+		case MULT_SCALAR:
+			return x[0] + " * " + p[0];
+		case DIV_SCALAR:
+			return x[0] + " / " + p[0];
+		case VID_SCALAR:
+			return p[0] + " / " + x[0];
+		case POW:
+			return "(float)pow((double)" + x[0] + ", (double)" + p[0] + ")";
+		case SQUARED:
+			return x[0] + " * " + x[0];
+		case SQRT:
+			return "sqrtf(" + x[0] + ")";
+		case EXP:
+			return "(float)exp((double)" + x[0] + ")";
+		case LOG:
+			return "(float)log((double)" + x[0] + ")";
+		case SIN:
+			return "(float)sin((double)" + x[0] + ")";
+		case COS:
+			return "(float)cos((double)" + x[0] + ")";
+		case INVERT:
+			return "1.0f / " + x[0];
+		case ABS:
+			return "fabsf(" + x[0] + ")";
+		case IS_NAN:
+			return "isnan(" + x[0] + ") ? 1.0f : 0.0f";
+		case CAP:
+			return x[0] + " < " + x[1] + " ? " + x[0] + " : " + x[1];
+		case FLOOR:
+			return x[0] + " > " + x[1] + " ? " + x[0] + " : " + x[1];
+		case ADD:
+			return x[0] + " + " + x[1];
+		case SUB:
+			return x[0] + " - " + x[1];
+		case MULT:
+			return x[0] + " * " + x[1];
+		case DIV:
+			return x[0] + " / " + x[1];
+		case ACCRUE:
+			return x[0] + " * (1.0f + " + x[1] + " * " + p[0] + ")";
+		case DISCOUNT:
+			return x[0] + " / (1.0f + " + x[1] + " * " + p[0] + ")";
+		case ADD_PRODUCT_SCALAR:
+			return x[0] + " + " + x[1] + " * " + p[0];
+		case ADD_PRODUCT:
+			return x[0] + " + " + x[1] + " * " + x[2];
+		case ADD_RATIO:
+			return x[0] + " + " + x[1] + " / " + x[2];
+		case SUB_RATIO:
+			return x[0] + " - " + x[1] + " / " + x[2];
+		case CHOOSE:
+			return x[0] + " >= 0.0f ? " + x[1] + " : " + x[2];
+		default:
+			throw new UnsupportedOperationException("Operator " + operator + " is not supported by the fused kernel generator.");
+		}
+	}
+}
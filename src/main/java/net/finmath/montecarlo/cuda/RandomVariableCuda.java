@@ -8,6 +8,7 @@ package net.finmath.montecarlo.cuda;
 import static jcuda.driver.JCudaDriver.cuCtxCreate;
 import static jcuda.driver.JCudaDriver.cuCtxSynchronize;
 import static jcuda.driver.JCudaDriver.cuDeviceGet;
+import static jcuda.driver.JCudaDriver.cuDeviceGetCount;
 import static jcuda.driver.JCudaDriver.cuInit;
 import static jcuda.driver.JCudaDriver.cuLaunchKernel;
 import static jcuda.driver.JCudaDriver.cuMemcpyDtoH;
@@ -15,13 +16,14 @@ import static jcuda.driver.JCudaDriver.cuModuleGetFunction;
 import static jcuda.driver.JCudaDriver.cuModuleLoad;
 
 import java.io.IOException;
-import java.lang.ref.Reference;
-import java.lang.ref.ReferenceQueue;
-import java.lang.ref.WeakReference;
-import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
@@ -34,6 +36,7 @@ import java.util.function.IntToDoubleFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
 
 import jcuda.LogLevel;
 import jcuda.Pointer;
@@ -41,12 +44,25 @@ import jcuda.Sizeof;
 import jcuda.driver.CUcontext;
 import jcuda.driver.CUdevice;
 import jcuda.driver.CUdeviceptr;
+import jcuda.driver.CUevent;
 import jcuda.driver.CUfunction;
 import jcuda.driver.CUmodule;
+import jcuda.driver.CUstream;
 import jcuda.driver.JCudaDriver;
 import net.finmath.functions.DoubleTernaryOperator;
+import net.finmath.montecarlo.DeviceMemoryAllocator;
+import net.finmath.montecarlo.DeviceMemoryHolder;
+import net.finmath.montecarlo.DeviceMemoryReference;
+import net.finmath.montecarlo.DeviceMemoryScope;
+import net.finmath.montecarlo.DeviceStreamScheduler;
+import net.finmath.montecarlo.HistogramBinning;
+import net.finmath.montecarlo.QuantileSelection;
 import net.finmath.montecarlo.RandomVariableFromDoubleArray;
 import net.finmath.montecarlo.RandomVariableFromFloatArray;
+import net.finmath.montecarlo.RandomVariableSumOperators;
+import net.finmath.montecarlo.ReferenceCountingMemoryPool;
+import net.finmath.montecarlo.SlabAllocator;
+import net.finmath.montecarlo.SumProductTerms;
 import net.finmath.stochastic.RandomVariable;
 
 /**
@@ -65,198 +81,304 @@ import net.finmath.stochastic.RandomVariable;
  *
  * <b>This implementation uses floats for the realizations on a Cuda GPU.</b> There is a CPU implementation in {@link RandomVariableFromFloatArray} which give exactly the same results for all methods (checked by unit test).
  *
+ * The device memory of the realizations is reference counted. All device vectors allocated within a {@link DeviceMemoryScope}
+ * are released when the scope is closed, without waiting for the garbage collector.
+ *
+ * The kernels are launched asynchronously on multiple Cuda streams. An operation waits (on the device) only for the events of
+ * the operations writing its arguments, and the host synchronizes only with the events of the vectors it reads (e.g. in
+ * {@link #getRealizations()} or {@link #getAverage()}), see {@link DeviceStreamScheduler}.
+ *
+ * The n-ary operators {@link #addSum(List)}, {@link #addWeightedSum(List, double[])} and {@link #addSumProduct(List, List)}
+ * are evaluated by a single kernel, which receives the device vectors of the summands as an array of device pointers.
+ *
+ * Each device has its own context, module and memory pool, see {@link #getNumberOfDevices()}. A random variable is bound to the device
+ * of its realizations (the first device, unless the device vector has been allocated via {@link #getDevicePointer(int, float[])}), and its
+ * operations launch their kernels on that device. Arguments on another device are transferred via the host.
+ *
  * @author Christian Fries
  * @version 2.1
  */
-public class RandomVariableCuda implements RandomVariable {
+public class RandomVariableCuda implements RandomVariableSumOperators, DeviceMemoryHolder {
 
 	/**
 	 * An object referencing a cuda device pointer.
 	 *
-	 * This wrapper is mainly used to track, when references to device pointers are de-referenced, which then triggers
-	 * a recycling of the device vector.
+	 * The device memory is reference counted (see {@link DeviceMemoryReference}): it is recycled once it has been released,
+	 * e.g. by closing the {@link DeviceMemoryScope} in which it was allocated, or, as a safety net, after this object has been garbage collected.
 	 */
 	public static class DevicePointerReference {
 		private final CUdeviceptr devicePointer;
+		private final DeviceMemoryReference<CUdeviceptr> deviceMemoryReference;
+		private final DeviceMemoryPool deviceMemoryPool;
 
+		/**
+		 * Create a reference to a device pointer which is not managed by the memory pool.
+		 *
+		 * @param devicePointer The device pointer.
+		 */
 		public DevicePointerReference(final CUdeviceptr devicePointer) {
 			this.devicePointer = devicePointer;
+			this.deviceMemoryReference = null;
+			this.deviceMemoryPool = null;
 		}
 
-		public CUdeviceptr get() {
-			return devicePointer;
+		private DevicePointerReference(final DeviceMemoryReference<CUdeviceptr> deviceMemoryReference, final DeviceMemoryPool deviceMemoryPool) {
+			this.devicePointer = null;
+			this.deviceMemoryReference = deviceMemoryReference;
+			this.deviceMemoryPool = deviceMemoryPool;
 		}
-	}
 
-	/**
-	 * A memory pool for the GPU vectors.
-	 *
-	 * The memory pool is provided for vectors of different length.
-	 *
-	 * Implementation details:
-	 * The map vectorsToRecycleReferenceQueueMap maps each vector length to a ReferenceQueue&lt;DevicePointerReference&gt; holding
-	 * reference of recycleable vectors. The map vectorsInUseReferenceMap maps this weak reference to a Cuda vector.
-	 *
-	 * @author Christian Fries
-	 */
-	private static class DeviceMemoryPool {
-
-		private final Object lock = new Object();
-
-		/**
-		 * For each vector size this map stores <code>ReferenceQueue&lt;DevicePointerReference&gt;</code>. The garbadge collector
-		 * will put <code>WeakReference&lt;DevicePointerReference&gt;</code> into this queue once the
-		 * <code>DevicePointerReference</code>-object has become de-referenced.
-		 */
-		private static final Map<Integer, ReferenceQueue<DevicePointerReference>>		vectorsToRecycleReferenceQueueMap	= new ConcurrentHashMap<Integer, ReferenceQueue<DevicePointerReference>>();
-
-		/**
-		 * This map allow to recover the device pointer for a given <code>WeakReference&lt;DevicePointerReference&gt;</code>.
-		 */
-		private static final Map<WeakReference<DevicePointerReference>, CUdeviceptr>	vectorsInUseReferenceMap			= new ConcurrentHashMap<WeakReference<DevicePointerReference>, CUdeviceptr>();
+		public CUdeviceptr get() {
+			return deviceMemoryReference != null ? deviceMemoryReference.get() : devicePointer;
+		}
 
 		/**
-		 * Percentage of device memory at which we will trigger System.gc() to aggressively reduce references.
+		 * @return The reference counted handle of the device memory or null if the pointer is not managed by the memory pool.
 		 */
-		private static final float	vectorsRecyclerPercentageFreeToStartGC		= 0.15f;		// should be set by monitoring GPU mem
+		public DeviceMemoryReference<CUdeviceptr> getDeviceMemoryReference() {
+			return deviceMemoryReference;
+		}
 
 		/**
-		 * Percentage of device memory at which we will try to wait a few milliseconds for recycled objects.
+		 * Release the device memory (i.e. decrement its reference count), if it is managed by the memory pool.
 		 */
-		private static final float	vectorsRecyclerPercentageFreeToWaitForGC	= 0.05f;		// should be set by monitoring GPU mem
+		public void release() {
+			if(deviceMemoryReference != null) {
+				deviceMemoryReference.release();
+			}
+		}
 
 		/**
-		 * Maximum time to wait for object recycled objects. (Higher value slows down the code, but prevents out-of-memory).
+		 * @return The ordinal of the device holding the memory (the first device if the pointer is not managed by a memory pool).
 		 */
-		private static final long	vectorsRecyclerMaxTimeOutMillis			= 1000;
-
-		private static long	deviceAllocMemoryBytes = 0;
-		private static long	deviceMaxMemoryBytes;
+		public int getDeviceOrdinal() {
+			return deviceMemoryPool != null ? deviceMemoryPool.deviceOrdinal : 0;
+		}
+	}
 
-		/**
-		 * Get a Java object ({@link DevicePointerReference}) representing a vector allocated on the GPU memory (device memory).
-		 *
-		 * If this object is the wrapped into a {@link RandomVariableCuda} via {@link RandomVariableCuda#of(double, DevicePointerReference, long)}
-		 * you may perform arithmetic operations on it.
-		 *
-		 * Note: You will likely not use this method directly. Instead use {@link #getDevicePointer(float[])} which will
-		 * call this method and initialize the vector to the given values.
-		 *
-		 * The object is "managed" in the sense the once the object is dereferenced the GPU memory will be marked for re-use (or freed at a later time).
-		 *
-		 * @param size The size of the vector as multiples of sizeof(float). (To allocated a double vector use twice the size).
-		 * @return An object representing a vector allocated on the GPU memory.
-		 */
-		public DevicePointerReference getDevicePointer(final long size) {
-			if(logger.isLoggable(Level.FINEST)) {
-				final StringBuilder stringBuilder = new StringBuilder();
-				stringBuilder.append("Memory pool stats: ");
-				stringBuilder.append("  vector sizes: ");
-				for(final Map.Entry<Integer, ReferenceQueue<DevicePointerReference>> entry : vectorsToRecycleReferenceQueueMap.entrySet()) {
-					stringBuilder.append("    " + entry.getKey());
-				}
-				stringBuilder.append("  total number of vectors: " + vectorsInUseReferenceMap.size());
-				logger.finest(stringBuilder.toString());
-			}
+	/**
+	 * A memory pool for the GPU vectors of a device.
+	 *
+	 * Each pool owns a Cuda context on its device. All operations of the pool (allocations, transfers and kernel launches) run on a
+	 * single thread of the pool, on which the context is current. The module of the kernels is loaded into the context on first use.
+	 *
+	 * The memory pool is provided for vectors of different length. The life time of the vectors is managed by
+	 * a {@link ReferenceCountingMemoryPool}. The vectors are sub-allocated by a {@link SlabAllocator} from slabs
+	 * allocated via <code>cuMemAlloc</code>, such that vectors of similar size share a size class and re-use their memory.
+	 *
+	 * The size of a slab (as multiples of sizeof(float)) is given by the system property
+	 * <code>net.finmath.montecarlo.cuda.RandomVariableCuda.slabSize</code> (default 2<sup>24</sup>, 0 allocates each vector by <code>cuMemAlloc</code>),
+	 * the number of size classes per power of two by <code>net.finmath.montecarlo.cuda.RandomVariableCuda.sizeClassesPerDoubling</code> (default 4).
+	 *
+	 * The kernels and transfers are ordered by a {@link DeviceStreamScheduler} using the number of streams given by the system property
+	 * <code>net.finmath.montecarlo.cuda.RandomVariableCuda.numberOfStreams</code> (default 4).
+	 *
+	 * @author Christian Fries
+	 */
+	private static class DeviceMemoryPool {
 
-			CUdeviceptr cuDevicePtr = null;
+		private final Object lock = new Object();
 
-			// Check for object to recycle
-			final ReferenceQueue<DevicePointerReference> vectorsToRecycleReferenceQueue = vectorsToRecycleReferenceQueueMap.computeIfAbsent(new Integer((int)size), key ->  {
-				logger.info("Creating reference queue for vector size " + size);
-				return new ReferenceQueue<DevicePointerReference>();
-			});
+		private final int				deviceOrdinal;
+		private final ExecutorService	deviceExecutor = Executors.newSingleThreadExecutor();
+		private final CUdevice			device = new CUdevice();
+		private final CUcontext			context = new CUcontext();
+		private final CUmodule			module = new CUmodule();
+		private boolean					isModuleLoaded = false;
 
-			Reference<? extends DevicePointerReference> reference = vectorsToRecycleReferenceQueue.poll();
-			if(reference != null) {
-				cuDevicePtr = vectorsInUseReferenceMap.remove(reference);
-				if(logger.isLoggable(Level.FINEST)) {
-					logger.finest("Recycling (1) device pointer " + cuDevicePtr + " from " + reference);
-				}
-			}
-			else {
-				final float deviceFreeMemPercentage = getDeviceFreeMemPercentage();
+		// The kernels of the module resolved in this context, keyed by the kernel handles (see RandomVariableCuda#getKernel)
+		private final Map<CUfunction, CUfunction> functions = Collections.synchronizedMap(new IdentityHashMap<CUfunction, CUfunction>());
 
-				// No pointer found, try GC if we are above a critical level
-				if(deviceFreeMemPercentage < vectorsRecyclerPercentageFreeToStartGC && deviceFreeMemPercentage >= vectorsRecyclerPercentageFreeToWaitForGC) {
-					System.gc();
-					System.runFinalization();
+		private long	deviceAllocMemoryBytes = 0;
+		private long	deviceMaxMemoryBytes;
 
-					if(logger.isLoggable(Level.FINEST)) {
-						logger.fine("Device free memory " + deviceFreeMemPercentage*100 + "%");
-					}
+		private static final long	slabSize = Long.parseLong(System.getProperty("net.finmath.montecarlo.cuda.RandomVariableCuda.slabSize", String.valueOf(1 << 24)));
+		private static final int	sizeClassesPerDoubling = Integer.parseInt(System.getProperty("net.finmath.montecarlo.cuda.RandomVariableCuda.sizeClassesPerDoubling", "4"));
 
-					reference = vectorsToRecycleReferenceQueue.poll();
-				}
+		// Alignment of the sub-allocated vectors: 256 bytes
+		private static final long	alignment = 256 / Sizeof.FLOAT;
 
-				// Wait for GC
-				if(reference == null && deviceFreeMemPercentage < vectorsRecyclerPercentageFreeToWaitForGC) {
-					/*
-					 * Try to obtain a reference after GC, retry with waits for 1 ms, 10 ms, 100 ms, ...
-					 */
-					System.gc();
-
-					long timeOut = 1;
-					while(reference == null && timeOut < vectorsRecyclerMaxTimeOutMillis) {
-						try {
-							reference = vectorsToRecycleReferenceQueue.remove(timeOut);
-							timeOut *= 4;
-						} catch (IllegalArgumentException | InterruptedException e) {}
-					}
+		private static final int	numberOfStreams = Integer.parseInt(System.getProperty("net.finmath.montecarlo.cuda.RandomVariableCuda.numberOfStreams", "4"));
 
-					if(reference == null) {
-						// Still no pointer found for requested size, consider cleaning all (also other sizes)
-						logger.info("Last resort: Cleaning all unused vectors on device. Device free memory " + deviceFreeMemPercentage*100 + "%");
-						clean();
-					}
-				}
+		// Orders the kernels and transfers on the streams by the events of the vectors they access (used on the device thread only)
+		private final DeviceStreamScheduler<CUdeviceptr, CUstream, CUevent> streamScheduler = new DeviceStreamScheduler<CUdeviceptr, CUstream, CUevent>(new CudaStreamBackend(), numberOfStreams);
 
-				if(reference != null) {
-					if(logger.isLoggable(Level.FINEST)) {
-						logger.finest("Recycling (2) device pointer " + cuDevicePtr + " from " + reference);
-					}
-					cuDevicePtr = vectorsInUseReferenceMap.remove(reference);
-				}
-			}
+		private final DeviceMemoryAllocator<CUdeviceptr> deviceAllocator = new DeviceMemoryAllocator<CUdeviceptr>() {
 
-			if(cuDevicePtr == null)  {
-				// Still no pointer found, create new one
+			@Override
+			public CUdeviceptr allocate(final long size) {
+				CUdeviceptr cuDevicePtr = null;
 				try {
 					cuDevicePtr =
 							deviceExecutor.submit(new Callable<CUdeviceptr>() { @Override
 								public CUdeviceptr call() {
-								CUdeviceptr cuDevicePtr = new CUdeviceptr();
+								final CUdeviceptr cuDevicePtr = new CUdeviceptr();
 								final int succ = JCudaDriver.cuMemAlloc(cuDevicePtr, size * Sizeof.FLOAT);
 								if(succ != 0) {
-									cuDevicePtr = null;
 									final String[] cudaErrorName = new String[1];
 									JCudaDriver.cuGetErrorName(succ, cudaErrorName);
 									final String[] cudaErrorDescription = new String[1];
 									JCudaDriver.cuGetErrorString(succ, cudaErrorDescription);
 
-									logger.warning("Failed creating device vector "+ cuDevicePtr + " with size=" + size + " with error "+ cudaErrorName + ": " + cudaErrorDescription);
+									logger.warning("Failed creating device vector with size=" + size + " with error "+ cudaErrorName[0] + ": " + cudaErrorDescription[0]);
+									return null;
 								}
 								return cuDevicePtr;
 							}}).get();
 				} catch (InterruptedException | ExecutionException e) {
-					logger.severe("Failed to allocate device vector with size=" + size + ". Cause: " + e.getCause());
+					logger.warning("Failed to allocate device vector with size=" + size + ". Cause: " + e.getCause());
 				}
 
-				if(cuDevicePtr == null) {
-					logger.severe("Failed to allocate device vector with size=" + size);
-					throw new OutOfMemoryError("Failed to allocate device vector with size=" + size);
+				if(cuDevicePtr != null) {
+					deviceAllocMemoryBytes += size * Sizeof.FLOAT;
 				}
+				return cuDevicePtr;
+			}
 
-				deviceAllocMemoryBytes += size * Sizeof.FLOAT;
+			@Override
+			public void free(final CUdeviceptr cuDevicePtr, final long size) {
+				if(logger.isLoggable(Level.FINEST)) {
+					logger.finest("Freeing device pointer " + cuDevicePtr);
+				}
+				try {
+					deviceExecutor.submit(new Runnable() {
+						@Override
+						public void run() {
+							cuCtxSynchronize();
+							JCudaDriver.cuMemFree(cuDevicePtr);
+						}}).get();
+				} catch (InterruptedException | ExecutionException e) {
+					logger.severe("Unable to free pointer " + cuDevicePtr);
+					throw new RuntimeException(e.getCause());
+				}
+				deviceAllocMemoryBytes -= size * Sizeof.FLOAT;
 			}
 
-			/*
-			 * Manage the pointer
-			 */
-			final DevicePointerReference devicePointerReference = new DevicePointerReference(cuDevicePtr);
-			vectorsInUseReferenceMap.put(new WeakReference<DevicePointerReference>(devicePointerReference, vectorsToRecycleReferenceQueue), cuDevicePtr);
+			@Override
+			public double getFreeMemoryFraction() {
+				return getDeviceFreeMemPercentage();
+			}
+		};
 
-			return devicePointerReference;
+		private final DeviceMemoryAllocator<CUdeviceptr> vectorAllocator =
+				slabSize > 0 ? new SlabAllocator<CUdeviceptr>(deviceAllocator, (slab, offset) -> slab.withByteOffset(offset * Sizeof.FLOAT), slabSize, SlabAllocator.getSizeClasses(sizeClassesPerDoubling), alignment) : deviceAllocator;
+
+		private final ReferenceCountingMemoryPool<CUdeviceptr> memoryPool = new ReferenceCountingMemoryPool<CUdeviceptr>(new DeviceMemoryAllocator<CUdeviceptr>() {
+
+			@Override
+			public CUdeviceptr allocate(final long size) {
+				return vectorAllocator.allocate(size);
+			}
+
+			@Override
+			public long getAllocationSize(final long size) {
+				return vectorAllocator.getAllocationSize(size);
+			}
+
+			@Override
+			public void free(final CUdeviceptr cuDevicePtr, final long size) {
+				// The vector may still be read by pending kernels
+				synchronize(cuDevicePtr);
+				vectorAllocator.free(cuDevicePtr, size);
+			}
+
+			@Override
+			public double getFreeMemoryFraction() {
+				return vectorAllocator.getFreeMemoryFraction();
+			}
+		});
+
+		/**
+		 * Create a memory pool for the given device. The context of the device is created on the thread of the pool.
+		 *
+		 * @param deviceOrdinal The ordinal of the device.
+		 */
+		DeviceMemoryPool(final int deviceOrdinal) {
+			this.deviceOrdinal = deviceOrdinal;
+
+			try {
+				deviceExecutor.submit(new Runnable() { @Override
+					public void run() {
+					// Initialize the driver and create a context for the device (the module is loaded on first use of a kernel)
+					cuInit(0);
+					cuDeviceGet(device, deviceOrdinal);
+					//				cuCtxCreate(context, jcuda.driver.CUctx_flags.CU_CTX_SCHED_BLOCKING_SYNC, device);
+					cuCtxCreate(context, jcuda.driver.CUctx_flags.CU_CTX_SCHED_AUTO, device);
+
+					final long[] free = new long[1];
+					final long[] total = new long[1];
+					jcuda.runtime.JCuda.cudaMemGetInfo(free, total);
+					deviceMaxMemoryBytes = total[0];
+					deviceAllocMemoryBytes = total[0]-free[0];
+
+					Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+						@Override
+						public void run() {
+							purge();
+							deviceExecutor.shutdown();
+							try {
+								deviceExecutor.awaitTermination(1, TimeUnit.SECONDS);
+							} catch (final InterruptedException e) {
+								// TODO Auto-generated catch block
+								e.printStackTrace();
+							}
+						}}
+							));
+				}});
+			} catch(final Error er) {};
+		}
+
+		/**
+		 * Get a Java object ({@link DevicePointerReference}) representing a vector allocated on the GPU memory (device memory).
+		 *
+		 * If this object is the wrapped into a {@link RandomVariableCuda} via {@link RandomVariableCuda#of(double, DevicePointerReference, long)}
+		 * you may perform arithmetic operations on it.
+		 *
+		 * Note: You will likely not use this method directly. Instead use {@link #getDevicePointer(float[])} which will
+		 * call this method and initialize the vector to the given values.
+		 *
+		 * The object is "managed" in the sense that the GPU memory is re-used once it has been released (e.g. by closing a {@link DeviceMemoryScope})
+		 * or once the object has been dereferenced.
+		 *
+		 * @param size The size of the vector as multiples of sizeof(float). (To allocated a double vector use twice the size).
+		 * @return An object representing a vector allocated on the GPU memory.
+		 */
+		public DevicePointerReference getDevicePointer(final long size) {
+			return new DevicePointerReference(memoryPool.getDeviceMemory(size), this);
+		}
+
+		/**
+		 * Allocate vectors of the given size in advance, such that their later use does not require an allocation on the device.
+		 *
+		 * @param size The size of the vectors as multiples of sizeof(float).
+		 * @param numberOfVectors The number of vectors.
+		 */
+		public void prewarm(final long size, final int numberOfVectors) {
+			memoryPool.prewarm(size, numberOfVectors);
+		}
+
+		/**
+		 * Blocks until all pending operations accessing the given device vector have been completed.
+		 *
+		 * @param devicePointer The device vector.
+		 */
+		public void synchronize(final CUdeviceptr devicePointer) {
+			runOnDeviceThread(new Runnable() { @Override
+				public void run() {
+				streamScheduler.synchronize(devicePointer);
+			}});
+		}
+
+		/**
+		 * Record that the given device vector has been written by operations on the default stream.
+		 *
+		 * @param devicePointer The device vector.
+		 */
+		public void recordWrite(final CUdeviceptr devicePointer) {
+			runOnDeviceThread(new Runnable() { @Override
+				public void run() {
+				streamScheduler.recordWrite(devicePointer);
+			}});
 		}
 
 		/**
@@ -264,31 +386,7 @@ public class RandomVariableCuda implements RandomVariable {
 		 */
 		public void clean() {
 			synchronized (lock) {
-				// Clean up all remaining pointers
-				for(final Entry<Integer, ReferenceQueue<DevicePointerReference>> entry : vectorsToRecycleReferenceQueueMap.entrySet()) {
-					final int size = entry.getKey();
-					final ReferenceQueue<DevicePointerReference> vectorsToRecycleReferenceQueue = entry.getValue();
-
-					Reference<? extends DevicePointerReference> reference;
-					while((reference = vectorsToRecycleReferenceQueue.poll()) != null) {
-						final CUdeviceptr cuDevicePtr = vectorsInUseReferenceMap.remove(reference);
-						if(logger.isLoggable(Level.FINEST)) {
-							logger.finest("Freeing device pointer " + cuDevicePtr + " from " + reference);
-						}
-						try {
-							deviceExecutor.submit(new Runnable() {
-								@Override
-								public void run() {
-									cuCtxSynchronize();
-									JCudaDriver.cuMemFree(cuDevicePtr);
-								}}).get();
-						} catch (InterruptedException | ExecutionException e) {
-							logger.severe("Unable to free pointer " + cuDevicePtr + " from " + reference);
-							throw new RuntimeException(e.getCause());
-						}
-						deviceAllocMemoryBytes -= size * Sizeof.FLOAT;
-					}
-				}
+				memoryPool.clean();
 			}
 		}
 
@@ -296,14 +394,14 @@ public class RandomVariableCuda implements RandomVariable {
 			System.gc();
 			System.runFinalization();
 			clean();
-			logger.info("Cuda vectors in use: " + vectorsInUseReferenceMap.size() + ". Available device memory: " + getDeviceFreeMemPercentage()*100 + "%");
+			logger.info("Cuda vectors in use: " + memoryPool.getNumberOfVectorsInUse() + ". Available device memory: " + getDeviceFreeMemPercentage()*100 + "%");
 		}
 
 		/**
 		 *
 		 * @return Returns the (estimated) percentage amount of free memory on the device.
 		 */
-		private static float getDeviceFreeMemPercentage() {
+		private float getDeviceFreeMemPercentage() {
 			float freeRate;// = 1.0f - 1.1f * (float)deviceAllocMemoryBytes / (float)deviceMaxMemoryBytes;
 			try {
 				freeRate = deviceExecutor.submit(new Callable<Float>() { @Override
@@ -317,7 +415,7 @@ public class RandomVariableCuda implements RandomVariable {
 			} catch (InterruptedException | ExecutionException e) {
 				return freeRate = 0;
 			}
-			//			System.out.println("Cuda: " + deviceMemoryPool.vectorsInUseReferenceMap.size() + "\t" + freeRate);
+			//			System.out.println("Cuda: " + memoryPool.getNumberOfVectorsInUse() + "\t" + freeRate);
 			return freeRate;
 		}
 
@@ -332,8 +430,31 @@ public class RandomVariableCuda implements RandomVariable {
 			try {
 				deviceExecutor.submit(new Runnable() { @Override
 					public void run() {
-					cuCtxSynchronize();
+					// The vector may be re-used, the pending kernels reading it have to complete first
+					streamScheduler.synchronize(devicePointerReference.get());
 					JCudaDriver.cuMemcpyHtoD(devicePointerReference.get(), Pointer.to(values), (long)values.length * Sizeof.FLOAT);
+					streamScheduler.recordWrite(devicePointerReference.get());
+				}}).get();
+			} catch (InterruptedException | ExecutionException e) { throw new RuntimeException(e.getCause()); }
+
+			return devicePointerReference;
+		}
+
+		/**
+		 * Create a vector on device and copy the given device pointers to it, e.g., for a kernel argument <code>float **</code>.
+		 *
+		 * @param pointers The device pointers (may contain null pointers).
+		 * @return Pointer to device vector.
+		 */
+		public DevicePointerReference getDevicePointer(final CUdeviceptr[] pointers) {
+			final DevicePointerReference devicePointerReference = getDevicePointer(((long)pointers.length * Sizeof.POINTER + Sizeof.FLOAT - 1) / Sizeof.FLOAT);
+			try {
+				deviceExecutor.submit(new Runnable() { @Override
+					public void run() {
+					// The vector may be re-used, the pending kernels reading it have to complete first
+					streamScheduler.synchronize(devicePointerReference.get());
+					JCudaDriver.cuMemcpyHtoD(devicePointerReference.get(), Pointer.to(pointers), (long)pointers.length * Sizeof.POINTER);
+					streamScheduler.recordWrite(devicePointerReference.get());
 				}}).get();
 			} catch (InterruptedException | ExecutionException e) { throw new RuntimeException(e.getCause()); }
 
@@ -345,9 +466,36 @@ public class RandomVariableCuda implements RandomVariable {
 			try {
 				deviceExecutor.submit(new Runnable() { @Override
 					public void run() {
-					cuCtxSynchronize();
+					streamScheduler.synchronizeForRead(devicePtr.get());
 					cuMemcpyDtoH(Pointer.to(result), devicePtr.get(), size * Sizeof.FLOAT);
-					cuCtxSynchronize();
+				}}).get();
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			}
+			return result;
+		}
+
+		public int[] getValuesAsInt(final DevicePointerReference devicePtr, final int size) {
+			final int[] result = new int[size];
+			try {
+				deviceExecutor.submit(new Runnable() { @Override
+					public void run() {
+					streamScheduler.synchronizeForRead(devicePtr.get());
+					cuMemcpyDtoH(Pointer.to(result), devicePtr.get(), size * Sizeof.INT);
+				}}).get();
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			}
+			return result;
+		}
+
+		public double[] getValuesAsDouble(final DevicePointerReference devicePtr, final int size) {
+			final double[] result = new double[size];
+			try {
+				deviceExecutor.submit(new Runnable() { @Override
+					public void run() {
+					streamScheduler.synchronizeForRead(devicePtr.get());
+					cuMemcpyDtoH(Pointer.to(result), devicePtr.get(), size * Sizeof.DOUBLE);
 				}}).get();
 			} catch (InterruptedException | ExecutionException e) {
 				throw new RuntimeException(e.getCause());
@@ -361,7 +509,8 @@ public class RandomVariableCuda implements RandomVariable {
 				callFunction(function, resultSize, new Pointer[] {
 						Pointer.to(new int[] { (int)resultSize }),
 						Pointer.to(argument1.get()),
-						Pointer.to(result.get()) }
+						Pointer.to(result.get()) },
+						new DevicePointerReference[] { argument1 }, new DevicePointerReference[] { result }
 						);
 				return result;
 			}
@@ -374,7 +523,8 @@ public class RandomVariableCuda implements RandomVariable {
 						Pointer.to(new int[] { (int)resultSize }),
 						Pointer.to(argument1.get()),
 						Pointer.to(argument2.get()),
-						Pointer.to(result.get()) }
+						Pointer.to(result.get()) },
+						new DevicePointerReference[] { argument1, argument2 }, new DevicePointerReference[] { result }
 						);
 				return result;
 			}
@@ -388,7 +538,8 @@ public class RandomVariableCuda implements RandomVariable {
 						Pointer.to(argument1.get()),
 						Pointer.to(argument2.get()),
 						Pointer.to(argument3.get()),
-						Pointer.to(result.get()) }
+						Pointer.to(result.get()) },
+						new DevicePointerReference[] { argument1, argument2, argument3 }, new DevicePointerReference[] { result }
 						);
 				return result;
 			}
@@ -401,7 +552,8 @@ public class RandomVariableCuda implements RandomVariable {
 						Pointer.to(new int[] { (int)resultSize }),
 						Pointer.to(argument1.get()),
 						Pointer.to(new float[] { (float)value }),
-						Pointer.to(result.get()) }
+						Pointer.to(result.get()) },
+						new DevicePointerReference[] { argument1 }, new DevicePointerReference[] { result }
 						);
 				return result;
 			}
@@ -415,38 +567,167 @@ public class RandomVariableCuda implements RandomVariable {
 						Pointer.to(argument1.get()),
 						Pointer.to(argument2.get()),
 						Pointer.to(new float[] { (float)value }),
-						Pointer.to(result.get()) }
+						Pointer.to(result.get()) },
+						new DevicePointerReference[] { argument1, argument2 }, new DevicePointerReference[] { result }
 						);
 				return result;
 			}
 		}
 
-		public void callFunction(final CUfunction function, final long resultSize, final Pointer[] arguments) {
+		/**
+		 * Call a kernel with the signature <code>(int n, float *v1, ..., float *vk, float s1, ..., float sl, float *result)</code>.
+		 *
+		 * @param function The kernel.
+		 * @param resultSize The size of the result vector.
+		 * @param vectors The vector arguments.
+		 * @param scalars The scalar arguments.
+		 * @return The result vector.
+		 */
+		public DevicePointerReference callFunction(final CUfunction function, final long resultSize, final DevicePointerReference[] vectors, final float[] scalars) {
+			synchronized (lock) {
+				final DevicePointerReference result = getDevicePointer(resultSize);
+				final Pointer[] arguments = new Pointer[1 + vectors.length + scalars.length + 1];
+				int argumentIndex = 0;
+				arguments[argumentIndex++] = Pointer.to(new int[] { (int)resultSize });
+				for(final DevicePointerReference vector : vectors) {
+					arguments[argumentIndex++] = Pointer.to(vector.get());
+				}
+				for(final float scalar : scalars) {
+					arguments[argumentIndex++] = Pointer.to(new float[] { scalar });
+				}
+				arguments[argumentIndex++] = Pointer.to(result.get());
+				callFunction(function, resultSize, arguments, vectors, new DevicePointerReference[] { result });
+				return result;
+			}
+		}
+
+		public void callFunction(final CUfunction function, final long resultSize, final Pointer[] arguments, final DevicePointerReference[] inputs, final DevicePointerReference[] outputs) {
 			final int blockSizeX = 1024;
 			final int gridSizeX = (int)Math.ceil((double)resultSize / blockSizeX);
-			callFunction(function, arguments, gridSizeX, blockSizeX, 0);
+			callFunction(function, arguments, gridSizeX, blockSizeX, 0, inputs, outputs);
 		}
 
-		public void callFunction(final CUfunction function, final Pointer[] arguments, final int gridSizeX, final int blockSizeX, final int sharedMemorySize) {
+		/**
+		 * Launch a kernel asynchronously. The kernel is enqueued on a stream after the events of the operations writing its inputs
+		 * and of the operations accessing its outputs.
+		 *
+		 * @param function The kernel.
+		 * @param arguments The kernel arguments.
+		 * @param gridSizeX The grid size.
+		 * @param blockSizeX The block size.
+		 * @param sharedMemorySize The size of the shared memory as multiples of sizeof(float).
+		 * @param inputs The device vectors read by the kernel.
+		 * @param outputs The device vectors written by the kernel.
+		 */
+		public void callFunction(final CUfunction function, final Pointer[] arguments, final int gridSizeX, final int blockSizeX, final int sharedMemorySize, final DevicePointerReference[] inputs, final DevicePointerReference[] outputs) {
 			// Set up the kernel parameters: A pointer to an array
 			// of pointers which point to the actual values.
 			final Pointer kernelParameters = Pointer.to(arguments);
+			final CUfunction kernel = getFunction(function);
+			final List<CUdeviceptr> inputPointers = getDevicePointers(inputs);
+			final List<CUdeviceptr> outputPointers = getDevicePointers(outputs);
 
 			deviceExecutor.submit(new Runnable() { @Override
 				public void run() {
-				//cuCtxSynchronize();
-				// Launching on the same stream (default stream)
-				cuLaunchKernel(function,
+				// Launching on the stream selected by the scheduler
+				streamScheduler.submit(inputPointers, outputPointers, stream ->
+				cuLaunchKernel(kernel,
 						gridSizeX,  1, 1,      // Grid dimension
 						blockSizeX, 1, 1,      // Block dimension
-						sharedMemorySize * Sizeof.FLOAT, null,               // Shared memory size and stream
+						sharedMemorySize * Sizeof.FLOAT, stream,               // Shared memory size and stream
 						kernelParameters, null // Kernel- and extra parameters
-						);
+						));
+			}});
+		}
+
+		private static List<CUdeviceptr> getDevicePointers(final DevicePointerReference[] devicePointerReferences) {
+			final List<CUdeviceptr> devicePointers = new ArrayList<CUdeviceptr>(devicePointerReferences.length);
+			for(final DevicePointerReference devicePointerReference : devicePointerReferences) {
+				devicePointers.add(devicePointerReference.get());
+			}
+			return devicePointers;
+		}
+
+		/**
+		 * Returns the function of this context for the given kernel, loading the module and resolving the kernel on first use.
+		 * The PTX of the module is taken from the {@link net.finmath.jcuda.PtxCache}, such that it is compiled only once for all JVMs and devices.
+		 *
+		 * @param function A kernel handle of the module or a kernel loaded into this context by {@link #loadFunction(String, String)}.
+		 * @return The function of this context.
+		 */
+		private CUfunction getFunction(final CUfunction function) {
+			final String name = kernelNames.get(function);
+			if(name == null) {
+				return function;
+			}
+			final CUfunction functionOfContext = functions.get(function);
+			if(functionOfContext != null) {
+				return functionOfContext;
+			}
+
+			return callOnDeviceThread(new Callable<CUfunction>() { @Override
+				public CUfunction call() {
+				if(!isModuleLoaded) {
+					final String ptxFileName;
+					try {
+						final URL cuFileURL = RandomVariableCuda.class.getClassLoader().getResource("net/finmath/montecarlo/RandomVariableCudaKernel.cu");
+						ptxFileName = net.finmath.jcuda.PtxCache.getDefault().getPtxFile(cuFileURL).toString();
+					} catch (final IOException e) {
+						throw new RuntimeException("Preparation of the PTX of RandomVariableCudaKernel failed.", e);
+					}
+					cuModuleLoad(module, ptxFileName);
+					isModuleLoaded = true;
+				}
+				return functions.computeIfAbsent(function, key -> {
+					final CUfunction functionOfModule = new CUfunction();
+					cuModuleGetFunction(functionOfModule, module, name);
+					return functionOfModule;
+				});
 			}});
 		}
+
+		/**
+		 * Load the given PTX as a new module into this context and return the function with the given name.
+		 *
+		 * @param name The name of the kernel.
+		 * @param ptxFileName The PTX file of the module.
+		 * @return The function.
+		 */
+		public CUfunction loadFunction(final String name, final String ptxFileName) {
+			return callOnDeviceThread(new Callable<CUfunction>() { @Override
+				public CUfunction call() {
+				final CUfunction function = new CUfunction();
+				final CUmodule fusedModule = new CUmodule();
+				cuModuleLoad(fusedModule, ptxFileName);
+				cuModuleGetFunction(function, fusedModule, name);
+				return function;
+			}});
+		}
+
+		private void runOnDeviceThread(final Runnable operation) {
+			try {
+				deviceExecutor.submit(operation).get();
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			}
+		}
+
+		private <T> T callOnDeviceThread(final Callable<T> operation) {
+			try {
+				return deviceExecutor.submit(operation).get();
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			}
+		}
 	}
 
-	private static DeviceMemoryPool deviceMemoryPool = new DeviceMemoryPool();
+	// The memory pools of the devices, created on first use of a device
+	private static final Map<Integer, DeviceMemoryPool> deviceMemoryPools = new ConcurrentHashMap<Integer, DeviceMemoryPool>();
+
+	// The kernels of the module: the handles are resolved in the context of each device on first use (see DeviceMemoryPool#getFunction)
+	private static final Map<CUfunction, String> kernelNames = Collections.synchronizedMap(new IdentityHashMap<CUfunction, String>());
+
+	private static final DeviceMemoryPool defaultDeviceMemoryPool = getDeviceMemoryPool(0);
 
 	private static final long serialVersionUID = 7620120320663270600L;
 
@@ -454,132 +735,114 @@ public class RandomVariableCuda implements RandomVariable {
 
 	private static final int typePriorityDefault = 20;
 
+	// The number of bins of a histogram for which the counters of a block are held in shared memory (32 KB)
+	private static final int maximumNumberOfBinsOnDevice = 8192;
+
 	private final int typePriority;
 
 	// Data model for the stochastic case (otherwise null)
 	private final DevicePointerReference	realizations;           // Realizations
 	private final long			size;
 
+	// The memory pool of the device holding the realizations, on which the operations are evaluated
+	private final DeviceMemoryPool	deviceMemoryPool;
+
 	// Data model for the non-stochastic case (if realizations==null)
 	private final double      valueIfNonStochastic;
 
+	// Copy of the realizations on the host, transferred on first access by a host accessor (the device vector is immutable)
+	private transient volatile float[]	realizationsOnHost;
 
-	private static final Logger logger = Logger.getLogger("net.finmath");
-
-	private static final ExecutorService deviceExecutor = Executors.newSingleThreadExecutor();
-	public static final CUdevice device = new CUdevice();
-	public static final CUcontext context = new CUcontext();
-	public static final CUmodule module = new CUmodule();
-
-	private static final CUfunction capByScalar = new CUfunction();
-	private static final CUfunction floorByScalar = new CUfunction();
-	private static final CUfunction addScalar = new CUfunction();
-	private static final CUfunction subScalar = new CUfunction();
-	private static final CUfunction busScalar = new CUfunction();
-	private static final CUfunction multScalar = new CUfunction();
-	private static final CUfunction divScalar = new CUfunction();
-	private static final CUfunction vidScalar = new CUfunction();
-	private static final CUfunction cuPow = new CUfunction();
-	private static final CUfunction cuSqrt = new CUfunction();
-	private static final CUfunction cuExp = new CUfunction();
-	private static final CUfunction cuLog = new CUfunction();
-	private static final CUfunction invert = new CUfunction();
-	private static final CUfunction cuAbs = new CUfunction();
-	private static final CUfunction cap = new CUfunction();
-	private static final CUfunction cuFloor = new CUfunction();
-	private static final CUfunction add = new CUfunction();
-	private static final CUfunction sub = new CUfunction();
-	private static final CUfunction mult = new CUfunction();
-	private static final CUfunction cuDiv = new CUfunction();
-	private static final CUfunction accrue = new CUfunction();
-	private static final CUfunction discount = new CUfunction();
-	private static final CUfunction addProduct = new CUfunction();
-	private static final CUfunction addProduct_vs = new CUfunction();		// add the product of a vector and a scalar
-	private static final CUfunction reducePartial = new CUfunction();
-	private static final CUfunction reduceFloatVectorToDoubleScalar = new CUfunction();
-
-	private static final int reduceGridSize = 1024;
 
-	// Initalize cuda
-	static {
-		synchronized (deviceMemoryPool) {
-			try {
-				// Enable exceptions and omit all subsequent error checks
-				JCudaDriver.setExceptionsEnabled(true);
-				JCudaDriver.setLogLevel(LogLevel.LOG_DEBUG);
-
-				// Create the PTX file by calling the NVCC
-				String ptxFileName = null;
-				try {
-					final URL cuFileURL = RandomVariableCuda.class.getClassLoader().getResource("net/finmath/montecarlo/RandomVariableCudaKernel.cu");
-					ptxFileName = net.finmath.jcuda.JCudaUtils.preparePtxFile(cuFileURL);
-				} catch (IOException | URISyntaxException e) {
-					// TODO Auto-generated catch block
-					e.printStackTrace();
-				}
-
-				final String ptxFileName2 = ptxFileName;
-				deviceExecutor.submit(new Runnable() { @Override
-					public void run() {
-					// Initialize the driver and create a context for the first device.
-					cuInit(0);
-					cuDeviceGet(device, 0);
-					//				cuCtxCreate(context, jcuda.driver.CUctx_flags.CU_CTX_SCHED_BLOCKING_SYNC, device);
-					cuCtxCreate(context, jcuda.driver.CUctx_flags.CU_CTX_SCHED_AUTO, device);
-
-					// Load the ptx file.
-					cuModuleLoad(module, ptxFileName2);
-
-					// Obtain a function pointers
-					cuModuleGetFunction(capByScalar, module, "capByScalar");
-					cuModuleGetFunction(floorByScalar, module, "floorByScalar");
-					cuModuleGetFunction(addScalar, module, "addScalar");
-					cuModuleGetFunction(subScalar, module, "subScalar");
-					cuModuleGetFunction(busScalar, module, "busScalar");
-					cuModuleGetFunction(multScalar, module, "multScalar");
-					cuModuleGetFunction(divScalar, module, "divScalar");
-					cuModuleGetFunction(vidScalar, module, "vidScalar");
-					cuModuleGetFunction(cuPow, module, "cuPow");
-					cuModuleGetFunction(cuSqrt, module, "cuSqrt");
-					cuModuleGetFunction(cuExp, module, "cuExp");
-					cuModuleGetFunction(cuLog, module, "cuLog");
-					cuModuleGetFunction(invert, module, "invert");
-					cuModuleGetFunction(cuAbs, module, "cuAbs");
-					cuModuleGetFunction(cap, module, "cap");
-					cuModuleGetFunction(cuFloor, module, "cuFloor");
-					cuModuleGetFunction(add, module, "add");
-					cuModuleGetFunction(sub, module, "sub");
-					cuModuleGetFunction(mult, module, "mult");
-					cuModuleGetFunction(cuDiv, module, "cuDiv");
-					cuModuleGetFunction(accrue, module, "accrue");
-					cuModuleGetFunction(discount, module, "discount");
-					cuModuleGetFunction(addProduct, module, "addProduct");
-					cuModuleGetFunction(addProduct_vs, module, "addProduct_vs");
-					cuModuleGetFunction(reducePartial, module, "reducePartial");
-					cuModuleGetFunction(reduceFloatVectorToDoubleScalar, module, "reduceFloatVectorToDoubleScalar");
-
-
-					final long[] free = new long[1];
-					final long[] total = new long[1];
-					jcuda.runtime.JCuda.cudaMemGetInfo(free, total);
-					DeviceMemoryPool.deviceMaxMemoryBytes = total[0];
-					DeviceMemoryPool.deviceAllocMemoryBytes = total[0]-free[0];
-
-					Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
-						@Override
-						public void run() {
-							deviceMemoryPool.purge();
-							deviceExecutor.shutdown();
-							try {
-								deviceExecutor.awaitTermination(1, TimeUnit.SECONDS);
-							} catch (final InterruptedException e) {
-								// TODO Auto-generated catch block
-								e.printStackTrace();
-							}
-						}}
-							));
-				}});
+	private static final Logger logger = Logger.getLogger("net.finmath");
+
+	// The device, context and module of the first device
+	public static final CUdevice device = defaultDeviceMemoryPool.device;
+	public static final CUcontext context = defaultDeviceMemoryPool.context;
+	public static final CUmodule module = defaultDeviceMemoryPool.module;
+
+	private static final CUfunction capByScalar = getKernel("capByScalar");
+	private static final CUfunction floorByScalar = getKernel("floorByScalar");
+	private static final CUfunction addScalar = getKernel("addScalar");
+	private static final CUfunction subScalar = getKernel("subScalar");
+	private static final CUfunction busScalar = getKernel("busScalar");
+	private static final CUfunction multScalar = getKernel("multScalar");
+	private static final CUfunction divScalar = getKernel("divScalar");
+	private static final CUfunction vidScalar = getKernel("vidScalar");
+	private static final CUfunction cuPow = getKernel("cuPow");
+	private static final CUfunction cuSqrt = getKernel("cuSqrt");
+	private static final CUfunction cuExp = getKernel("cuExp");
+	private static final CUfunction cuLog = getKernel("cuLog");
+	private static final CUfunction invert = getKernel("invert");
+	private static final CUfunction cuAbs = getKernel("cuAbs");
+	private static final CUfunction cap = getKernel("cap");
+	private static final CUfunction cuFloor = getKernel("cuFloor");
+	private static final CUfunction add = getKernel("add");
+	private static final CUfunction sub = getKernel("sub");
+	private static final CUfunction mult = getKernel("mult");
+	private static final CUfunction cuDiv = getKernel("cuDiv");
+	private static final CUfunction accrue = getKernel("accrue");
+	private static final CUfunction discount = getKernel("discount");
+	private static final CUfunction addProduct = getKernel("addProduct");
+	private static final CUfunction addProduct_vs = getKernel("addProduct_vs");		// add the product of a vector and a scalar
+	private static final CUfunction reducePartial = getKernel("reducePartial");
+	private static final CUfunction reduceFloatVectorToDoubleScalar = getKernel("reduceFloatVectorToDoubleScalar");
+	private static final CUfunction histogram = getKernel("histogram");
+	private static final CUfunction antithetic = getKernel("antithetic");
+	private static final CUfunction latinHypercubeNormal = getKernel("latinHypercubeNormal");
+	private static final CUfunction cuSin = getKernel("cuSin");
+	private static final CUfunction cuCos = getKernel("cuCos");
+	private static final CUfunction cuIsNaN = getKernel("cuIsNaN");
+	private static final CUfunction choose = getKernel("choose");
+	private static final CUfunction chooseScalars = getKernel("chooseScalars");
+	private static final CUfunction chooseVectorScalar = getKernel("chooseVectorScalar");
+	private static final CUfunction chooseScalarVector = getKernel("chooseScalarVector");
+	private static final CUfunction addRatio = getKernel("addRatio");
+	private static final CUfunction subRatio = getKernel("subRatio");
+	private static final CUfunction reduceMinMax = getKernel("reduceMinMax");
+	private static final CUfunction sumProduct = getKernel("sumProduct");
+
+	private static final int reduceGridSize = 1024;
+
+	private static CUfunction getKernel(final String name) {
+		final CUfunction function = new CUfunction();
+		kernelNames.put(function, name);
+		return function;
+	}
+
+	/**
+	 * Returns the memory pool of the given device, creating the context of the device on first use.
+	 *
+	 * @param deviceOrdinal The ordinal of the device.
+	 * @return The memory pool of the device.
+	 */
+	private static DeviceMemoryPool getDeviceMemoryPool(final int deviceOrdinal) {
+		return deviceMemoryPools.computeIfAbsent(deviceOrdinal, key -> {
+			try {
+				// Enable exceptions and omit all subsequent error checks
+				JCudaDriver.setExceptionsEnabled(true);
+				JCudaDriver.setLogLevel(LogLevel.LOG_DEBUG);
 			} catch(final Error er) {};
+			return new DeviceMemoryPool(deviceOrdinal);
+		});
+	}
+
+	/**
+	 * Returns the number of Cuda devices, i.e., the number of device ordinals which may be used in {@link #getDevicePointer(int, float[])}
+	 * or {@link RandomVariableCudaFactory#RandomVariableCudaFactory(int, boolean)}.
+	 *
+	 * @return The number of Cuda devices (0 if Cuda is not available).
+	 */
+	public static int getNumberOfDevices() {
+		try {
+			return defaultDeviceMemoryPool.callOnDeviceThread(new Callable<Integer>() { @Override
+				public Integer call() {
+				final int[] numberOfDevices = new int[1];
+				cuDeviceGetCount(numberOfDevices);
+				return numberOfDevices[0];
+			}});
+		} catch(final RuntimeException | Error e) {
+			return 0;
 		}
 	}
 
@@ -632,6 +895,7 @@ public class RandomVariableCuda implements RandomVariable {
 		this.time = time;
 		this.realizations = realizations;
 		this.size = size;
+		this.deviceMemoryPool = realizations.deviceMemoryPool != null ? realizations.deviceMemoryPool : defaultDeviceMemoryPool;
 		this.valueIfNonStochastic = Double.NaN;
 		this.typePriority = typePriority;
 	}
@@ -653,9 +917,14 @@ public class RandomVariableCuda implements RandomVariable {
 	 * @param typePriority The priority of this type in construction of result types. See "operator type priority" for details.
 	 */
 	public RandomVariableCuda(final double time, final double value, final int typePriority) {
+		this(time, value, typePriority, defaultDeviceMemoryPool);
+	}
+
+	private RandomVariableCuda(final double time, final double value, final int typePriority, final DeviceMemoryPool deviceMemoryPool) {
 		this.time = time;
 		this.realizations = null;
 		this.size = 1;
+		this.deviceMemoryPool = deviceMemoryPool;
 		this.valueIfNonStochastic = value;
 		this.typePriority = typePriority;
 	}
@@ -712,7 +981,18 @@ public class RandomVariableCuda implements RandomVariable {
 
 
 	public static DevicePointerReference getDevicePointer(final long size) {
-		return deviceMemoryPool.getDevicePointer(size);
+		return defaultDeviceMemoryPool.getDevicePointer(size);
+	}
+
+	/**
+	 * Create a vector on the given device.
+	 *
+	 * @param deviceOrdinal The ordinal of the device.
+	 * @param size The size of the vector as multiples of sizeof(float).
+	 * @return Pointer to device vector.
+	 */
+	public static DevicePointerReference getDevicePointer(final int deviceOrdinal, final long size) {
+		return getDeviceMemoryPool(deviceOrdinal).getDevicePointer(size);
 	}
 
 	/**
@@ -721,27 +1001,265 @@ public class RandomVariableCuda implements RandomVariable {
 	 * @param values Host vector.
 	 * @return Pointer to device vector.
 	 */
-	private static DevicePointerReference getDevicePointer(final float[] values) {
-		return deviceMemoryPool.getDevicePointer(values);
+	static DevicePointerReference getDevicePointer(final float[] values) {
+		return defaultDeviceMemoryPool.getDevicePointer(values);
+	}
+
+	/**
+	 * Create a vector on the given device and copy host vector to it.
+	 *
+	 * @param deviceOrdinal The ordinal of the device.
+	 * @param values Host vector.
+	 * @return Pointer to device vector.
+	 */
+	public static DevicePointerReference getDevicePointer(final int deviceOrdinal, final float[] values) {
+		return getDeviceMemoryPool(deviceOrdinal).getDevicePointer(values);
+	}
+
+	/**
+	 * Blocks until all pending operations accessing the given device vector have been completed. This is required before the vector
+	 * is written by a library enqueuing its work on the default stream (e.g. cuRand), since the kernels run on other streams.
+	 * The write has to be reported afterwards via {@link #recordWrite(DevicePointerReference)}.
+	 *
+	 * @param devicePointer The device vector.
+	 */
+	public static void synchronize(final DevicePointerReference devicePointer) {
+		getDeviceMemoryPool(devicePointer.getDeviceOrdinal()).synchronize(devicePointer.get());
+	}
+
+	/**
+	 * Record that the given device vector has been written by operations enqueued on the default stream (e.g. by cuRand),
+	 * such that subsequent kernels reading the vector wait for these operations.
+	 *
+	 * @param devicePointer The device vector.
+	 */
+	public static void recordWrite(final DevicePointerReference devicePointer) {
+		getDeviceMemoryPool(devicePointer.getDeviceOrdinal()).recordWrite(devicePointer.get());
+	}
+
+	/**
+	 * Sets the last <code>size/2</code> elements of a device vector to the negative of its first <code>size/2</code> elements
+	 * (antithetic values), in place on the device.
+	 *
+	 * @param realizations The device vector.
+	 * @param size The size of the device vector.
+	 */
+	public static void setAntitheticValues(final DevicePointerReference realizations, final long size) {
+		getDeviceMemoryPool(realizations.getDeviceOrdinal()).callFunction(antithetic, size / 2, new Pointer[] {
+				Pointer.to(new int[] { (int)size }),
+				Pointer.to(realizations.get()) },
+				new DevicePointerReference[] { realizations }, new DevicePointerReference[] { realizations });
+	}
+
+	/**
+	 * Create a device vector of normal distributed values by Latin hypercube sampling: element <i>i</i> is
+	 * <i>scale</i> &middot; &Phi;<sup>-1</sup>((<i>strata[i]</i> + <i>u[i]</i>) / <i>n</i>).
+	 *
+	 * @param uniforms Device vector of uniforms in (0,1] (as generated by cuRand).
+	 * @param strata A permutation of 0, ..., n-1 (on the host).
+	 * @param size The size n of the vectors.
+	 * @param scale The standard deviation of the normal distribution.
+	 * @return The device vector of normal distributed values.
+	 */
+	public static DevicePointerReference getLatinHypercubeNormal(final DevicePointerReference uniforms, final int[] strata, final long size, final double scale) {
+		// The kernel interprets the bits of the float vector as integers
+		final float[] strataAsFloatBits = new float[strata.length];
+		for(int i=0; i<strata.length; i++) {
+			strataAsFloatBits[i] = Float.intBitsToFloat(strata[i]);
+		}
+		final DeviceMemoryPool deviceMemoryPool = getDeviceMemoryPool(uniforms.getDeviceOrdinal());
+		final DevicePointerReference strataOnDevice = deviceMemoryPool.getDevicePointer(strataAsFloatBits);
+		final DevicePointerReference result = deviceMemoryPool.callFunction(latinHypercubeNormal, size, new DevicePointerReference[] { uniforms, strataOnDevice }, new float[] { (float)scale });
+
+		// The strata may be released, a kernel re-using the vector waits for the pending read
+		strataOnDevice.release();
+		return result;
+	}
+
+	/**
+	 * Call a kernel with the signature <code>(int n, float *v1, ..., float *vk, float s1, ..., float sl, float *result)</code>.
+	 *
+	 * @param deviceOrdinal The ordinal of the device holding the vector arguments, on which the kernel is launched.
+	 * @param function The kernel.
+	 * @param resultSize The size of the result vector.
+	 * @param vectors The vector arguments.
+	 * @param scalars The scalar arguments.
+	 * @return The result vector.
+	 */
+	static DevicePointerReference callFunction(final int deviceOrdinal, final CUfunction function, final long resultSize, final DevicePointerReference[] vectors, final float[] scalars) {
+		return getDeviceMemoryPool(deviceOrdinal).callFunction(function, resultSize, vectors, scalars);
+	}
+
+	/**
+	 * Compile the given CUDA C source (via nvcc), load it as a new module into the context of the given device and return the function with the given name.
+	 *
+	 * @param deviceOrdinal The ordinal of the device.
+	 * @param name The name of the kernel.
+	 * @param source The CUDA C source containing the kernel.
+	 * @return The function.
+	 */
+	static CUfunction loadFunction(final int deviceOrdinal, final String name, final String source) {
+		final String ptxFileName;
+		try {
+			ptxFileName = net.finmath.jcuda.PtxCache.getDefault().getPtxFile(name, source.getBytes(StandardCharsets.UTF_8)).toString();
+		} catch (final IOException e) {
+			throw new RuntimeException("Compilation of kernel " + name + " failed.", e);
+		}
+
+		return getDeviceMemoryPool(deviceOrdinal).loadFunction(name, ptxFileName);
+	}
+
+	/**
+	 * Returns the realizations on the host. The realizations are transferred from the device on the first call and then cached,
+	 * such that repeated host accesses (e.g. {@link #get(int)}, {@link #getOperator()}) do not leave the device again.
+	 *
+	 * @return The realizations (the array must not be modified).
+	 */
+	private float[] getRealizationsOnHost() {
+		float[] realizationsOnHost = this.realizationsOnHost;
+		if(realizationsOnHost == null) {
+			// A concurrent first access may transfer twice, the copies are equal
+			realizationsOnHost = deviceMemoryPool.getValuesAsFloat(realizations, size());
+			this.realizationsOnHost = realizationsOnHost;
+		}
+		return realizationsOnHost;
+	}
+
+	/**
+	 * Create a random variable from values calculated on the host, which are transferred to the device and kept as the host copy.
+	 *
+	 * @param deviceMemoryPool The memory pool of the device receiving the values.
+	 * @param time The filtration time.
+	 * @param values The realizations (the array must not be modified afterwards).
+	 * @return The random variable.
+	 */
+	private static RandomVariableCuda ofHostValues(final DeviceMemoryPool deviceMemoryPool, final double time, final float[] values) {
+		final RandomVariableCuda randomVariableCuda = new RandomVariableCuda(time, deviceMemoryPool.getDevicePointer(values), values.length, typePriorityDefault);
+		randomVariableCuda.realizationsOnHost = values;
+		return randomVariableCuda;
+	}
+
+	/**
+	 * Returns the minimum and the maximum of the realizations, reduced on the device (unless the realizations are on the host already).
+	 *
+	 * @return The array { min, max }.
+	 */
+	private double[] getMinMax() {
+		final float[] realizationsOnHost = this.realizationsOnHost;
+		if(realizationsOnHost != null) {
+			double min = realizationsOnHost[0];
+			double max = realizationsOnHost[0];
+			for(int i=0; i<realizationsOnHost.length; i++) {
+				min = Math.min(realizationsOnHost[i], min);
+				max = Math.max(realizationsOnHost[i], max);
+			}
+			return new double[] { min, max };
+		}
+
+		// Each block reduces 2*blockSize elements to its minimum and maximum, the blocks are combined on the host
+		final int blockSizeX = reduceGridSize;
+		final int gridSizeX = (int)Math.ceil((double)size()/2 / blockSizeX);
+		final DevicePointerReference minMaxOfBlocks = deviceMemoryPool.getDevicePointer(2*gridSizeX);
+		deviceMemoryPool.callFunction(reduceMinMax, new Pointer[] {
+				Pointer.to(new int[] { size() }),
+				Pointer.to(realizations.get()),
+				Pointer.to(minMaxOfBlocks.get()) },
+				gridSizeX, blockSizeX, blockSizeX*2*Sizeof.FLOAT,
+				new DevicePointerReference[] { realizations }, new DevicePointerReference[] { minMaxOfBlocks });
+
+		final float[] minMax = deviceMemoryPool.getValuesAsFloat(minMaxOfBlocks, 2*gridSizeX);
+		minMaxOfBlocks.release();
+
+		double min = minMax[0];
+		double max = minMax[gridSizeX];
+		for(int block=0; block<gridSizeX; block++) {
+			min = Math.min(minMax[block], min);
+			max = Math.max(minMax[gridSizeX+block], max);
+		}
+		return new double[] { min, max };
+	}
+
+	/**
+	 * @return The reference to the device vector holding the realizations or null if this random variable is deterministic.
+	 */
+	DevicePointerReference getDevicePointerReference() {
+		return realizations;
+	}
+
+	@Override
+	public DeviceMemoryReference<CUdeviceptr> getDeviceMemoryReference() {
+		return realizations != null ? realizations.getDeviceMemoryReference() : null;
+	}
+
+	/**
+	 * Allocate device vectors of the given size in advance (e.g. before a valuation with the given number of paths),
+	 * such that their later use does not require an allocation on the device.
+	 * The vectors are freed by {@link #clean()} if they are not used.
+	 *
+	 * @param size The size of the vectors (number of paths).
+	 * @param numberOfVectors The number of vectors.
+	 */
+	public static void prewarm(final long size, final int numberOfVectors) {
+		defaultDeviceMemoryPool.prewarm(size, numberOfVectors);
 	}
 
+	/**
+	 * Free all unused device memory of all devices.
+	 */
 	public static void clean() {
-		deviceMemoryPool.clean();
+		for(final DeviceMemoryPool deviceMemoryPool : deviceMemoryPools.values()) {
+			deviceMemoryPool.clean();
+		}
 	}
 
 	public static void purge() {
-		deviceMemoryPool.purge();
+		for(final DeviceMemoryPool deviceMemoryPool : deviceMemoryPools.values()) {
+			deviceMemoryPool.purge();
+		}
 	}
 
-	private static RandomVariableCuda getRandomVariableCuda(final RandomVariable randomVariable) {
-		if(randomVariable instanceof RandomVariableCuda) {
+	/**
+	 * @return The ordinal of the device holding the realizations of this random variable (the first device if this random variable is deterministic).
+	 */
+	public int getDeviceOrdinal() {
+		return deviceMemoryPool.deviceOrdinal;
+	}
+
+	/**
+	 * Returns the given random variable as a <code>RandomVariableCuda</code> on the device of this random variable.
+	 * Random variables of other types or on other devices are transferred via the host.
+	 *
+	 * @param randomVariable A random variable.
+	 * @return The random variable on the device of this random variable.
+	 */
+	private RandomVariableCuda getRandomVariableCuda(final RandomVariable randomVariable) {
+		if(randomVariable instanceof RandomVariableCuda && (randomVariable.isDeterministic() || ((RandomVariableCuda)randomVariable).deviceMemoryPool == deviceMemoryPool)) {
 			return (RandomVariableCuda)randomVariable;
 		} else {
-			final RandomVariableCuda randomVariableCuda = new RandomVariableCuda(randomVariable.getFiltrationTime(), randomVariable.getRealizations());
+			final float[] values = getFloatArray(randomVariable.getRealizations());
+			final RandomVariableCuda randomVariableCuda = new RandomVariableCuda(randomVariable.getFiltrationTime(), deviceMemoryPool.getDevicePointer(values), values.length, typePriorityDefault);
 			return randomVariableCuda;
 		}
 	}
 
+	/**
+	 * Returns the memory pool on which an operation of this random variable with the given arguments is evaluated: the pool of this
+	 * random variable or, if this random variable is deterministic, the pool of the first stochastic argument on a device.
+	 *
+	 * @param arguments The arguments of the operation.
+	 * @return The memory pool.
+	 */
+	private DeviceMemoryPool getDeviceMemoryPoolOfOperation(final RandomVariable... arguments) {
+		if(isDeterministic()) {
+			for(final RandomVariable argument : arguments) {
+				if(argument instanceof RandomVariableCuda && !argument.isDeterministic()) {
+					return ((RandomVariableCuda)argument).deviceMemoryPool;
+				}
+			}
+		}
+		return deviceMemoryPool;
+	}
+
 	private static float[] getFloatArray(final double[] arrayOfDouble) {
 		final float[] arrayOfFloat = new float[arrayOfDouble.length];
 		for(int i=0; i<arrayOfDouble.length; i++) {
@@ -790,7 +1308,7 @@ public class RandomVariableCuda implements RandomVariable {
 		if(isDeterministic()) {
 			return valueIfNonStochastic;
 		} else {
-			throw new UnsupportedOperationException();
+			return getRealizationsOnHost()[pathOrState];
 		}
 	}
 
@@ -808,19 +1326,11 @@ public class RandomVariableCuda implements RandomVariable {
 		if(isDeterministic()) {
 			return valueIfNonStochastic;
 		}
-
-		final double[] realizations = getRealizations();
-
-		// TODO: Use kernel
-		double min = Double.MAX_VALUE;
-		if(realizations.length != 0)
-		{
-			min = realizations[0];     /// @see getMax()
-		}
-		for(int i=0; i<realizations.length; i++) {
-			min = Math.min(realizations[i],min);
+		if(size() == 0) {
+			return Double.MAX_VALUE;
 		}
-		return min;
+
+		return getMinMax()[0];
 	}
 
 	@Override
@@ -828,18 +1338,11 @@ public class RandomVariableCuda implements RandomVariable {
 		if(isDeterministic()) {
 			return valueIfNonStochastic;
 		}
-
-		final double[] realizations = getRealizations();
-
-		// TODO: Use kernel
-		double max = -Double.MAX_VALUE;
-		if(realizations.length != 0) {
-			max = realizations[0];
-		}
-		for(int i=0; i<realizations.length; i++) {
-			max = Math.max(realizations[i],max);
+		if(size() == 0) {
+			return -Double.MAX_VALUE;
 		}
-		return max;
+
+		return getMinMax()[1];
 	}
 
 	@Override
@@ -852,7 +1355,7 @@ public class RandomVariableCuda implements RandomVariable {
 		}
 
 		// TODO: Use kernel
-		return (new RandomVariableFromFloatArray(getFiltrationTime(), deviceMemoryPool.getValuesAsFloat(realizations, size()))).getAverage();
+		return (new RandomVariableFromFloatArray(getFiltrationTime(), getRealizationsOnHost())).getAverage();
 
 		//RandomVariable reduced = reduceToDouble();
 		//return reduced.getAverage() * reduced.size() / size();		// Temp hack @FIXME @TODO
@@ -952,14 +1455,8 @@ public class RandomVariableCuda implements RandomVariable {
 			return Double.NaN;
 		}
 
-		final double[] realizations = getRealizations();
-
-		final double[] realizationsSorted = realizations;
-		java.util.Arrays.sort(realizationsSorted);
-
-		final int indexOfQuantileValue = Math.min(Math.max((int)Math.round((size()+1) * (1-quantile) - 1), 0), size()-1);
-
-		return realizationsSorted[indexOfQuantileValue];
+		// Transfer the floats (not doubles) and select the quantile without sorting
+		return QuantileSelection.getQuantiles(getRealizationsOnHost(), 1-quantile)[0];
 	}
 
 	@Override
@@ -986,27 +1483,16 @@ public class RandomVariableCuda implements RandomVariable {
 			return getQuantileExpectation(quantileEnd, quantileStart);
 		}
 
-		final double[] realizationsSorted = getRealizations();
-		java.util.Arrays.sort(realizationsSorted);
-
-		final int indexOfQuantileValueStart	= Math.min(Math.max((int)Math.round((size()+1) * quantileStart - 1), 0), size()-1);
-		final int indexOfQuantileValueEnd		= Math.min(Math.max((int)Math.round((size()+1) * quantileEnd - 1), 0), size()-1);
-
-		double quantileExpectation = 0.0;
-		for (int i=indexOfQuantileValueStart; i<=indexOfQuantileValueEnd;i++) {
-			quantileExpectation += realizationsSorted[i];
-		}
-		quantileExpectation /= indexOfQuantileValueEnd-indexOfQuantileValueStart+1;
-
-		return quantileExpectation;
+		return QuantileSelection.getQuantileExpectation(getRealizationsOnHost(), quantileStart, quantileEnd);
 	}
 
 	@Override
 	public double[] getHistogram(final double[] intervalPoints)
 	{
-		final double[] histogramValues = new double[intervalPoints.length+1];
+		final double[] histogramValues;
 
 		if(isDeterministic()) {
+			histogramValues = new double[intervalPoints.length+1];
 			java.util.Arrays.fill(histogramValues, 0.0);
 			for (int intervalIndex=0; intervalIndex<intervalPoints.length; intervalIndex++)
 			{
@@ -1018,32 +1504,47 @@ public class RandomVariableCuda implements RandomVariable {
 			histogramValues[intervalPoints.length] = 1.0;
 		}
 		else {
-			final double[] realizationsSorted = getRealizations();
-			java.util.Arrays.sort(realizationsSorted);
+			histogramValues = HistogramBinning.getHistogram(getHistogramCounts(new HistogramBinning(intervalPoints)), size());
+		}
 
-			int sampleIndex=0;
-			for (int intervalIndex=0; intervalIndex<intervalPoints.length; intervalIndex++)
-			{
-				int sampleCount = 0;
-				while (sampleIndex < realizationsSorted.length &&
-						realizationsSorted[sampleIndex] <= intervalPoints[intervalIndex])
-				{
-					sampleIndex++;
-					sampleCount++;
-				}
-				histogramValues[intervalIndex] = sampleCount;
-			}
-			histogramValues[intervalPoints.length] = realizationsSorted.length-sampleIndex;
+		return histogramValues;
+	}
 
-			// Normalize histogramValues
-			if(realizationsSorted.length > 0) {
-				for(int i=0; i<histogramValues.length; i++) {
-					histogramValues[i] /= realizationsSorted.length;
-				}
-			}
+	/**
+	 * Count the realizations per bin on the device, transferring only the counts to the host.
+	 *
+	 * @param histogramBinning The definition of the bins.
+	 * @return The number of realizations in each bin.
+	 */
+	private long[] getHistogramCounts(final HistogramBinning histogramBinning) {
+		final int numberOfBins = histogramBinning.getNumberOfBins();
+		if(numberOfBins > maximumNumberOfBinsOnDevice) {
+			// The counters of a block would not fit into shared memory
+			return histogramBinning.getCounts(getRealizationsOnHost());
 		}
 
-		return histogramValues;
+		final DevicePointerReference points = deviceMemoryPool.getDevicePointer(histogramBinning.getIntervalPointsAsFloat());
+		final DevicePointerReference counts = deviceMemoryPool.getDevicePointer(new float[numberOfBins]);	// Zero bits are integer zeros
+
+		final int blockSizeX = 1024;
+		final int gridSizeX = (int)Math.ceil((double)size() / blockSizeX);
+		deviceMemoryPool.callFunction(histogram, new Pointer[] {
+				Pointer.to(new int[] { size() }),
+				Pointer.to(realizations.get()),
+				Pointer.to(new int[] { numberOfBins-1 }),
+				Pointer.to(points.get()),
+				Pointer.to(counts.get()) },
+				gridSizeX, blockSizeX, numberOfBins,
+				new DevicePointerReference[] { realizations, points }, new DevicePointerReference[] { counts });
+
+		final int[] countsOnDevice = deviceMemoryPool.getValuesAsInt(counts, numberOfBins);
+		points.release();
+		counts.release();
+		final long[] countsOfBins = new long[numberOfBins];
+		for(int bin=0; bin<numberOfBins; bin++) {
+			countsOfBins[bin] = Integer.toUnsignedLong(countsOnDevice[bin]);
+		}
+		return countsOfBins;
 	}
 
 	@Override
@@ -1094,7 +1595,7 @@ public class RandomVariableCuda implements RandomVariable {
 			final double[] result = new double[] { valueIfNonStochastic };
 			return result;
 		} else {
-			return getDoubleArray(deviceMemoryPool.getValuesAsFloat(realizations, size()));
+			return getDoubleArray(getRealizationsOnHost());
 		}
 	}
 
@@ -1109,40 +1610,78 @@ public class RandomVariableCuda implements RandomVariable {
 
 	@Override
 	public IntToDoubleFunction getOperator() {
-		// TODO Auto-generated method stub
-		return null;
+		if(isDeterministic()) {
+			return i -> valueIfNonStochastic;
+		}
+		final float[] realizationsOnHost = getRealizationsOnHost();
+		return i -> realizationsOnHost[i];
 	}
 
 	@Override
 	public DoubleStream getRealizationsStream() {
-		// TODO Auto-generated method stub
-		return null;
+		if(isDeterministic()) {
+			return DoubleStream.generate(() -> valueIfNonStochastic);
+		}
+		final float[] realizationsOnHost = getRealizationsOnHost();
+		return IntStream.range(0, realizationsOnHost.length).mapToDouble(i -> realizationsOnHost[i]);
 	}
 
+	/*
+	 * The functions given as Java lambdas are evaluated on the host (using the cached copy of the realizations),
+	 * the result is transferred to the device once.
+	 */
+
 	@Override
 	public RandomVariable apply(final DoubleUnaryOperator function) {
-		throw new UnsupportedOperationException();
-		/*
 		if(isDeterministic()) {
-			double newValueIfNonStochastic = function.value(valueIfNonStochastic);
+			final double newValueIfNonStochastic = function.applyAsDouble(valueIfNonStochastic);
 			return of(time, newValueIfNonStochastic);
 		}
 		else {
-			double[] newRealizations = new double[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) newRealizations[i]		 = function.value(realizations[i]);
-			return of(time, newRealizations);
+			final float[] realizationsOnHost = getRealizationsOnHost();
+			final float[] newRealizations = new float[realizationsOnHost.length];
+			for(int i=0; i<newRealizations.length; i++) {
+				newRealizations[i] = (float)function.applyAsDouble(realizationsOnHost[i]);
+			}
+			return ofHostValues(deviceMemoryPool, time, newRealizations);
 		}
-		 */
 	}
 
 	@Override
 	public RandomVariable apply(final DoubleBinaryOperator operator, final RandomVariable argument) {
-		throw new UnsupportedOperationException();
+		final double newTime = Math.max(time, argument.getFiltrationTime());
+
+		if(isDeterministic() && argument.isDeterministic()) {
+			return of(newTime, operator.applyAsDouble(valueIfNonStochastic, argument.doubleValue()));
+		}
+
+		final int newSize = Math.max(size(), argument.size());
+		final IntToDoubleFunction values = getOperator();
+		final IntToDoubleFunction argumentValues = argument.getOperator();
+		final float[] newRealizations = new float[newSize];
+		for(int i=0; i<newRealizations.length; i++) {
+			newRealizations[i] = (float)operator.applyAsDouble(values.applyAsDouble(i), argumentValues.applyAsDouble(i));
+		}
+		return ofHostValues(getDeviceMemoryPoolOfOperation(argument), newTime, newRealizations);
 	}
 
 	@Override
 	public RandomVariable apply(final DoubleTernaryOperator operator, final RandomVariable argument1, final RandomVariable argument2) {
-		throw new UnsupportedOperationException();
+		final double newTime = Math.max(Math.max(time, argument1.getFiltrationTime()), argument2.getFiltrationTime());
+
+		if(isDeterministic() && argument1.isDeterministic() && argument2.isDeterministic()) {
+			return of(newTime, operator.applyAsDouble(valueIfNonStochastic, argument1.doubleValue(), argument2.doubleValue()));
+		}
+
+		final int newSize = Math.max(Math.max(size(), argument1.size()), argument2.size());
+		final IntToDoubleFunction values = getOperator();
+		final IntToDoubleFunction argument1Values = argument1.getOperator();
+		final IntToDoubleFunction argument2Values = argument2.getOperator();
+		final float[] newRealizations = new float[newSize];
+		for(int i=0; i<newRealizations.length; i++) {
+			newRealizations[i] = (float)operator.applyAsDouble(values.applyAsDouble(i), argument1Values.applyAsDouble(i), argument2Values.applyAsDouble(i));
+		}
+		return ofHostValues(getDeviceMemoryPoolOfOperation(argument1, argument2), newTime, newRealizations);
 	}
 
 	@Override
@@ -1328,34 +1867,26 @@ public class RandomVariableCuda implements RandomVariable {
 
 	@Override
 	public RandomVariable sin() {
-		throw new UnsupportedOperationException();
-		/*
 		if(isDeterministic()) {
-			double newValueIfNonStochastic = Math.sin(valueIfNonStochastic);
+			final double newValueIfNonStochastic = Math.sin(valueIfNonStochastic);
 			return of(time, newValueIfNonStochastic);
 		}
 		else {
-			double[] newRealizations = new double[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) newRealizations[i]		 = Math.sin(realizations[i]);
-			return of(time, newRealizations);
+			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s0(cuSin, size, realizations);
+			return of(time, result, size());
 		}
-		 */
 	}
 
 	@Override
 	public RandomVariable cos() {
-		throw new UnsupportedOperationException();
-		/*
 		if(isDeterministic()) {
-			double newValueIfNonStochastic = Math.cos(valueIfNonStochastic);
+			final double newValueIfNonStochastic = Math.cos(valueIfNonStochastic);
 			return of(time, newValueIfNonStochastic);
 		}
 		else {
-			double[] newRealizations = new double[realizations.length];
-			for(int i=0; i<newRealizations.length; i++) newRealizations[i]		 = Math.cos(realizations[i]);
-			return of(time, newRealizations);
+			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s0(cuCos, size, realizations);
+			return of(time, result, size());
 		}
-		 */
 	}
 
 	/*
@@ -1605,8 +2136,33 @@ public class RandomVariableCuda implements RandomVariable {
 
 	@Override
 	public RandomVariable choose(final RandomVariable valueIfTriggerNonNegative, final RandomVariable valueIfTriggerNegative) {
-		// TODO Auto-generated method stub
-		return null;
+		if(isDeterministic()) {
+			return valueIfNonStochastic >= 0 ? valueIfTriggerNonNegative : valueIfTriggerNegative;
+		}
+
+		if(valueIfTriggerNonNegative.getTypePriority() > this.getTypePriority() || valueIfTriggerNegative.getTypePriority() > this.getTypePriority()) {
+			// Check type priority: combine the values of the higher priority type with the indicator of the trigger
+			final RandomVariable indicator = this.choose(new RandomVariableCuda(1.0), new RandomVariableCuda(0.0));
+			return valueIfTriggerNegative.add(valueIfTriggerNonNegative.sub(valueIfTriggerNegative).mult(indicator));
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(Math.max(time, valueIfTriggerNonNegative.getFiltrationTime()), valueIfTriggerNegative.getFiltrationTime());
+
+		final DevicePointerReference result;
+		if(valueIfTriggerNonNegative.isDeterministic() && valueIfTriggerNegative.isDeterministic()) {
+			result = deviceMemoryPool.callFunction(chooseScalars, size, new DevicePointerReference[] { realizations }, new float[] { valueIfTriggerNonNegative.doubleValue().floatValue(), valueIfTriggerNegative.doubleValue().floatValue() });
+		}
+		else if(valueIfTriggerNegative.isDeterministic()) {
+			result = deviceMemoryPool.callFunctionv2s1(chooseVectorScalar, size, realizations, getRandomVariableCuda(valueIfTriggerNonNegative).realizations, valueIfTriggerNegative.doubleValue());
+		}
+		else if(valueIfTriggerNonNegative.isDeterministic()) {
+			result = deviceMemoryPool.callFunctionv2s1(chooseScalarVector, size, realizations, getRandomVariableCuda(valueIfTriggerNegative).realizations, valueIfTriggerNonNegative.doubleValue());
+		}
+		else {
+			result = deviceMemoryPool.callFunctionv3s0(choose, size, realizations, getRandomVariableCuda(valueIfTriggerNonNegative).realizations, getRandomVariableCuda(valueIfTriggerNegative).realizations);
+		}
+		return of(newTime, result, size());
 	}
 
 	@Override
@@ -1659,14 +2215,127 @@ public class RandomVariableCuda implements RandomVariable {
 
 	@Override
 	public RandomVariable addRatio(final RandomVariable numerator, final RandomVariable denominator) {
-		// TODO Implement a kernel here
-		return this.add(numerator.div(denominator));
+		if(isDeterministic() || numerator.isDeterministic() || denominator.isDeterministic()
+				|| numerator.getTypePriority() > this.getTypePriority() || denominator.getTypePriority() > this.getTypePriority()) {
+			return this.add(numerator.div(denominator));
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(Math.max(time, numerator.getFiltrationTime()), denominator.getFiltrationTime());
+
+		final DevicePointerReference result = deviceMemoryPool.callFunctionv3s0(addRatio, size, realizations, getRandomVariableCuda(numerator).realizations, getRandomVariableCuda(denominator).realizations);
+		return of(newTime, result, size());
+	}
+
+	@Override
+	public RandomVariable addSumProduct(final List<RandomVariable> factor1, final List<RandomVariable> factor2) {
+		final SumProductTerms terms = new SumProductTerms(this, factor1, factor2, null);
+		if(terms.getMaximumTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return RandomVariableSumOperators.super.addSumProduct(factor1, factor2);
+		}
+		return getSum(terms);
+	}
+
+	@Override
+	public RandomVariable addSum(final List<RandomVariable> summands) {
+		final SumProductTerms terms = new SumProductTerms(this, summands, null, null);
+		if(terms.getMaximumTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return RandomVariableSumOperators.super.addSum(summands);
+		}
+		return getSum(terms);
+	}
+
+	@Override
+	public RandomVariable addWeightedSum(final List<RandomVariable> summands, final double[] weights) {
+		final SumProductTerms terms = new SumProductTerms(this, summands, null, weights);
+		if(terms.getMaximumTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return RandomVariableSumOperators.super.addWeightedSum(summands, weights);
+		}
+		return getSum(terms);
+	}
+
+	/**
+	 * Evaluates the sum of this random variable and the given terms by a single kernel. The kernel receives the device pointers
+	 * of the factors (a null pointer for a factor equal to one) and the weights as device vectors.
+	 *
+	 * @param terms The terms of the sum.
+	 * @return The sum.
+	 */
+	private RandomVariable getSum(final SumProductTerms terms) {
+		if(terms.getNumberOfTerms() == 0 && isDeterministic()) {
+			return of(terms.getFiltrationTime(), terms.getConstant());
+		}
+
+		final List<RandomVariable> factorsOfTerms = new ArrayList<RandomVariable>();
+		for(int k=0; k<terms.getNumberOfTerms(); k++) {
+			factorsOfTerms.add(terms.getFactor1(k));
+		}
+		final DeviceMemoryPool deviceMemoryPoolOfOperation = getDeviceMemoryPoolOfOperation(factorsOfTerms.toArray(new RandomVariable[factorsOfTerms.size()]));
+		if(deviceMemoryPoolOfOperation != deviceMemoryPool) {
+			// This random variable is deterministic: evaluate the sum on the device of the factors
+			return new RandomVariableCuda(time, valueIfNonStochastic, typePriority, deviceMemoryPoolOfOperation).getSum(terms);
+		}
+
+		final int numberOfTerms = terms.getNumberOfTerms();
+		final int numberOfTermsOnDevice = Math.max(numberOfTerms, 1);
+		final CUdeviceptr[] factors = new CUdeviceptr[2*numberOfTermsOnDevice];
+		final float[] weights = new float[numberOfTermsOnDevice];
+		final List<DevicePointerReference> inputs = new ArrayList<DevicePointerReference>();
+		Arrays.fill(factors, new CUdeviceptr());
+		for(int k=0; k<numberOfTerms; k++) {
+			final DevicePointerReference factor1 = getRandomVariableCuda(terms.getFactor1(k)).realizations;
+			factors[k] = factor1.get();
+			inputs.add(factor1);
+			if(terms.getFactor2(k) != null) {
+				final DevicePointerReference factor2 = getRandomVariableCuda(terms.getFactor2(k)).realizations;
+				factors[numberOfTermsOnDevice+k] = factor2.get();
+				inputs.add(factor2);
+			}
+			weights[k] = (float)terms.getWeight(k);
+		}
+		if(!isDeterministic()) {
+			inputs.add(realizations);
+		}
+
+		final DevicePointerReference factorsOnDevice = deviceMemoryPool.getDevicePointer(factors);
+		final DevicePointerReference weightsOnDevice = deviceMemoryPool.getDevicePointer(weights);
+		inputs.add(factorsOnDevice);
+		inputs.add(weightsOnDevice);
+
+		final DevicePointerReference result = deviceMemoryPool.getDevicePointer(terms.size());
+		deviceMemoryPool.callFunction(sumProduct, terms.size(), new Pointer[] {
+				Pointer.to(new int[] { terms.size() }),
+				Pointer.to(new int[] { numberOfTerms }),
+				Pointer.to(isDeterministic() ? new CUdeviceptr() : realizations.get()),
+				Pointer.to(new float[] { (float)terms.getConstant() }),
+				Pointer.to(factorsOnDevice.get()),
+				Pointer.to(factorsOnDevice.get().withByteOffset((long)numberOfTermsOnDevice * Sizeof.POINTER)),
+				Pointer.to(weightsOnDevice.get()),
+				Pointer.to(result.get()) },
+				inputs.toArray(new DevicePointerReference[inputs.size()]), new DevicePointerReference[] { result });
+
+		// The pointer array and the weights may be released, a kernel re-using the vectors waits for the pending read
+		factorsOnDevice.release();
+		weightsOnDevice.release();
+
+		return of(terms.getFiltrationTime(), result, terms.size());
 	}
 
 	@Override
 	public RandomVariable subRatio(final RandomVariable numerator, final RandomVariable denominator) {
-		// TODO Implement a kernel here
-		return this.sub(numerator.div(denominator));
+		if(isDeterministic() || numerator.isDeterministic() || denominator.isDeterministic()
+				|| numerator.getTypePriority() > this.getTypePriority() || denominator.getTypePriority() > this.getTypePriority()) {
+			return this.sub(numerator.div(denominator));
+		}
+
+		// Set time of this random variable to maximum of time with respect to which measurability is known.
+		final double newTime = Math.max(Math.max(time, numerator.getFiltrationTime()), denominator.getFiltrationTime());
+
+		final DevicePointerReference result = deviceMemoryPool.callFunctionv3s0(subRatio, size, realizations, getRandomVariableCuda(numerator).realizations, getRandomVariableCuda(denominator).realizations);
+		return of(newTime, result, size());
 	}
 
 	/* (non-Javadoc)
@@ -1674,8 +2343,13 @@ public class RandomVariableCuda implements RandomVariable {
 	 */
 	@Override
 	public RandomVariable isNaN() {
-		// TODO Auto-generated method stub
-		return null;
+		if(isDeterministic()) {
+			return of(time, Double.isNaN(valueIfNonStochastic) ? 1.0 : 0.0);
+		}
+		else {
+			final DevicePointerReference result = deviceMemoryPool.callFunctionv1s0(cuIsNaN, size, realizations);
+			return of(time, result, size());
+		}
 	}
 
 	/*
@@ -1688,25 +2362,17 @@ public class RandomVariableCuda implements RandomVariable {
 		final int blockSizeX = reduceGridSize;
 		final int gridSizeX = (int)Math.ceil((double)size()/2 / blockSizeX);
 
-		final DevicePointerReference reduceVector = getDevicePointer(2*gridSizeX);
+		final DevicePointerReference reduceVector = deviceMemoryPool.getDevicePointer(2*gridSizeX);
 
 		deviceMemoryPool.callFunction(reduceFloatVectorToDoubleScalar, new Pointer[] {
 				Pointer.to(new int[] { size() }),
 				Pointer.to(realizations.get()),
 				Pointer.to(reduceVector.get())},
-				gridSizeX, blockSizeX, blockSizeX*2*3);
+				gridSizeX, blockSizeX, blockSizeX*2*3,
+				new DevicePointerReference[] { realizations }, new DevicePointerReference[] { reduceVector });
 
-		final double[] result = new double[gridSizeX];
-		try {
-			deviceExecutor.submit(new Runnable() { @Override
-				public void run() {
-				cuCtxSynchronize();
-				cuMemcpyDtoH(Pointer.to(result), reduceVector.get(), gridSizeX * Sizeof.DOUBLE);
-				cuCtxSynchronize();
-			}}).get();
-		} catch (InterruptedException | ExecutionException e) {
-			throw new RuntimeException(e.getCause());
-		}
+		final double[] result = deviceMemoryPool.getValuesAsDouble(reduceVector, gridSizeX);
+		reduceVector.release();
 
 		return (new RandomVariableFromDoubleArray(time, result));
 	}
@@ -1718,21 +2384,30 @@ public class RandomVariableCuda implements RandomVariable {
 
 		RandomVariableCuda reduced = this;
 		while(reduced.size() > 1) {
-			reduced = reduced.reduceBySize(reduceGridSize);
+			final RandomVariableCuda reducedBySize = reduced.reduceBySize(reduceGridSize);
+			if(reduced != this) {
+				reduced.realizations.release();
+			}
+			reduced = reducedBySize;
 		}
-		return reduced.getRealizations()[0];
+		final double result = reduced.getRealizations()[0];
+		if(reduced != this) {
+			reduced.realizations.release();
+		}
+		return result;
 	}
 
 	private RandomVariableCuda reduceBySize(final int bySize) {
 		final int blockSizeX = bySize;
 		final int gridSizeX = (int)Math.ceil((double)size()/2 / blockSizeX);
-		final DevicePointerReference reduceVector = getDevicePointer(gridSizeX);
+		final DevicePointerReference reduceVector = deviceMemoryPool.getDevicePointer(gridSizeX);
 
 		deviceMemoryPool.callFunction(reducePartial, new Pointer[] {
 				Pointer.to(new int[] { size() }),
 				Pointer.to(realizations.get()),
 				Pointer.to(reduceVector.get())},
-				gridSizeX, blockSizeX, blockSizeX*2*3);
+				gridSizeX, blockSizeX, blockSizeX*2*3,
+				new DevicePointerReference[] { realizations }, new DevicePointerReference[] { reduceVector });
 
 		return of(-Double.MAX_VALUE, reduceVector, gridSizeX);
 	}
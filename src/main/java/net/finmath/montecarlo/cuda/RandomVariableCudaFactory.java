@@ -7,27 +7,98 @@
 package net.finmath.montecarlo.cuda;
 
 import net.finmath.montecarlo.AbstractRandomVariableFactory;
+import net.finmath.montecarlo.FloatArrayRandomVariableFactory;
+import net.finmath.montecarlo.RandomVariableFloatLazyEvaluation;
 import net.finmath.stochastic.RandomVariable;
 
 /**
+ * A factory for random variables on a Cuda device.
+ *
+ * The random variables are created on the device with the given ordinal (see {@link RandomVariableCuda#getNumberOfDevices()}),
+ * such that, e.g., the shards of a {@link net.finmath.montecarlo.RandomVariableShardedFactory} with one factory per device
+ * run their kernels and hold their memory on different devices.
+ *
  * @author Christian Fries
  *
  */
-public class RandomVariableCudaFactory extends AbstractRandomVariableFactory {
+public class RandomVariableCudaFactory extends AbstractRandomVariableFactory implements FloatArrayRandomVariableFactory {
 
 	private static final long serialVersionUID = 1L;
 
+	private final int deviceOrdinal;
+	private final boolean useDeferredEvaluation;
+
+	/**
+	 * Create a factory for random variables on the first device, evaluating each operation on the device immediately.
+	 */
 	public RandomVariableCudaFactory() {
+		this(false);
+	}
+
+	/**
+	 * Create a factory for random variables on the first device.
+	 *
+	 * @param useDeferredEvaluation If true, the operations are recorded and evaluated on demand by a single fused kernel (see {@link FloatExpressionCudaBackend}), otherwise each operation launches its own kernel.
+	 */
+	public RandomVariableCudaFactory(final boolean useDeferredEvaluation) {
+		this(0, useDeferredEvaluation);
+	}
+
+	/**
+	 * Create a factory for random variables on the given device, evaluating each operation on the device immediately.
+	 *
+	 * @param deviceOrdinal The ordinal of the device.
+	 */
+	public RandomVariableCudaFactory(final int deviceOrdinal) {
+		this(deviceOrdinal, false);
+	}
+
+	/**
+	 * Create a factory for random variables on the given device.
+	 *
+	 * @param deviceOrdinal The ordinal of the device.
+	 * @param useDeferredEvaluation If true, the operations are recorded and evaluated on demand by a single fused kernel (see {@link FloatExpressionCudaBackend}), otherwise each operation launches its own kernel.
+	 */
+	public RandomVariableCudaFactory(final int deviceOrdinal, final boolean useDeferredEvaluation) {
 		super();
+		this.deviceOrdinal = deviceOrdinal;
+		this.useDeferredEvaluation = useDeferredEvaluation;
+	}
+
+	/**
+	 * @return The ordinal of the device.
+	 */
+	public int getDeviceOrdinal() {
+		return deviceOrdinal;
 	}
 
 	@Override
 	public RandomVariable createRandomVariable(final double time, final double value) {
-		return new RandomVariableCuda(time, value);
+		if(useDeferredEvaluation) {
+			return new RandomVariableFloatLazyEvaluation(time, value, new FloatExpressionCudaBackend(deviceOrdinal));
+		}
+		else {
+			return new RandomVariableCuda(time, value);
+		}
 	}
 
 	@Override
 	public RandomVariable createRandomVariable(final double time, final double[] values) {
-		return new RandomVariableCuda(time, values);
+		final float[] valuesAsFloat = new float[values.length];
+		for(int i=0; i<values.length; i++) {
+			valuesAsFloat[i] = (float)values[i];
+		}
+		return createRandomVariable(time, valuesAsFloat);
+	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final float[] values) {
+		final RandomVariableCuda randomVariable = RandomVariableCuda.of(time, RandomVariableCuda.getDevicePointer(deviceOrdinal, values), values.length);
+		if(useDeferredEvaluation) {
+			return new RandomVariableFloatLazyEvaluation(randomVariable, new FloatExpressionCudaBackend(deviceOrdinal));
+		}
+		else {
+			return randomVariable;
+		}
 	}
 }
@@ -7,17 +7,22 @@ package net.finmath.montecarlo.cuda.alternative;
 
 import static jcuda.jcurand.JCurand.curandCreateGenerator;
 import static jcuda.jcurand.JCurand.curandDestroyGenerator;
+import static jcuda.jcurand.JCurand.curandSetGeneratorOffset;
 import static jcuda.jcurand.JCurand.curandSetPseudoRandomGeneratorSeed;
 import static jcuda.jcurand.curandRngType.CURAND_RNG_PSEUDO_MTGP32;
+import static jcuda.jcurand.curandRngType.CURAND_RNG_PSEUDO_PHILOX4_32_10;
 
 import java.io.Serializable;
+import java.util.Random;
 
 import jcuda.LogLevel;
 import jcuda.jcurand.JCurand;
 import jcuda.jcurand.curandGenerator;
 import jcuda.runtime.JCuda;
 import net.finmath.montecarlo.AbstractRandomVariableFactory;
+import net.finmath.montecarlo.BrownianIncrementCache;
 import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.montecarlo.DeviceMemoryScope;
 import net.finmath.montecarlo.RandomVariableFactory;
 import net.finmath.montecarlo.cuda.RandomVariableCuda;
 import net.finmath.montecarlo.cuda.RandomVariableCuda.DevicePointerReference;
@@ -44,6 +49,17 @@ import net.finmath.time.TimeDiscretization;
  *
  * The class is immutable and thread safe. It uses lazy initialization.
  *
+ * If a memory budget is given, the increments are generated per time step on demand and at most as many time steps
+ * as fit into the memory budget (of device memory) are retained (see {@link BrownianIncrementCache}).
+ * In this mode the increments are generated by the Philox generator of cuRand, positioned at the offset of the time step,
+ * such that a dropped time step is regenerated with the same values. Note that the random numbers differ from those
+ * generated without a memory budget (which uses the MTGP32 generator).
+ *
+ * The increments of a time step and factor may be drawn with antithetic variates or by Latin hypercube sampling, see {@link SamplingScheme}.
+ * For antithetic variates only the first half of the paths is generated by cuRand, the mirrored half is obtained by a negation on the device.
+ * For Latin hypercube sampling the uniforms are generated on the device, the random permutation of the strata is generated
+ * on the host (deterministically from the seed, the time index and the factor) and applied on the device.
+ *
  * @author Christian Fries
  * @version 1.6
  */
@@ -59,9 +75,14 @@ public class BrownianMotionCudaWithRandomVariableCuda implements BrownianMotion,
 
 	private final AbstractRandomVariableFactory randomVariableFactory;
 
+	private final SamplingScheme	samplingScheme;
+	private final long			memoryBudget;
+
 	private transient	RandomVariable[][]	brownianIncrements;
 	private final		Object						brownianIncrementsLazyInitLock = new Object();
 
+	private transient	BrownianIncrementCache	brownianIncrementCache;
+
 	/**
 	 * Construct a Brownian motion.
 	 *
@@ -75,22 +96,103 @@ public class BrownianMotionCudaWithRandomVariableCuda implements BrownianMotion,
 	 * @param numberOfPaths Number of paths to simulate.
 	 * @param seed The seed of the random number generator.
 	 * @param randomVariableFactory Factory to be used to create random variable.
+	 * @param samplingScheme The sampling scheme used for the increments of a time step and factor.
+	 * @param memoryBudget If positive, the increments are generated per time step on demand, retaining at most this number of bytes of device memory. Otherwise all increments are generated on the first access.
 	 */
 	public BrownianMotionCudaWithRandomVariableCuda(
 			final TimeDiscretization timeDiscretization,
 			final int numberOfFactors,
 			final int numberOfPaths,
 			final int seed,
-			final AbstractRandomVariableFactory randomVariableFactory) {
+			final AbstractRandomVariableFactory randomVariableFactory,
+			final SamplingScheme samplingScheme,
+			final long memoryBudget) {
 		super();
+		if(samplingScheme == SamplingScheme.ANTITHETIC && numberOfPaths < 2) {
+			throw new IllegalArgumentException("Antithetic sampling requires at least two paths.");
+		}
 		this.timeDiscretization = timeDiscretization;
 		this.numberOfFactors	= numberOfFactors;
 		this.numberOfPaths		= numberOfPaths;
 		this.seed				= seed;
 
 		this.randomVariableFactory = new RandomVariableFactory(false); /* randomVariableFactory */
+		this.samplingScheme = samplingScheme;
+		this.memoryBudget = memoryBudget;
 
 		this.brownianIncrements	= null; 	// Lazy initialization
+
+		if(memoryBudget > 0) {
+			brownianIncrementCache = new BrownianIncrementCache(timeDiscretization.getNumberOfTimeSteps(), (long)Float.BYTES * numberOfFactors * numberOfPaths, memoryBudget, this::doGenerateBrownianIncrements);
+		}
+	}
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * The constructor allows to set the factory to be used for the construction of
+	 * random variables. This allows to generate Brownian increments represented
+	 * by different implementations of the RandomVariable (e.g. the RandomVariableFromFloatArray internally
+	 * using float representations).
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 * @param memoryBudget If positive, the increments are generated per time step on demand, retaining at most this number of bytes of device memory. Otherwise all increments are generated on the first access.
+	 */
+	public BrownianMotionCudaWithRandomVariableCuda(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final AbstractRandomVariableFactory randomVariableFactory,
+			final long memoryBudget) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, randomVariableFactory, SamplingScheme.STANDARD, memoryBudget);
+	}
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 * @param samplingScheme The sampling scheme used for the increments of a time step and factor.
+	 */
+	public BrownianMotionCudaWithRandomVariableCuda(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final AbstractRandomVariableFactory randomVariableFactory,
+			final SamplingScheme samplingScheme) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, randomVariableFactory, samplingScheme, 0);
+	}
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * The constructor allows to set the factory to be used for the construction of
+	 * random variables. This allows to generate Brownian increments represented
+	 * by different implementations of the RandomVariable (e.g. the RandomVariableFromFloatArray internally
+	 * using float representations).
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 */
+	public BrownianMotionCudaWithRandomVariableCuda(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final AbstractRandomVariableFactory randomVariableFactory) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, randomVariableFactory, 0);
 	}
 
 	/**
@@ -111,18 +213,23 @@ public class BrownianMotionCudaWithRandomVariableCuda implements BrownianMotion,
 
 	@Override
 	public BrownianMotion getCloneWithModifiedSeed(final int seed) {
-		return new BrownianMotionCudaWithRandomVariableCuda(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), seed);
+		return new BrownianMotionCudaWithRandomVariableCuda(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), seed, randomVariableFactory, samplingScheme, memoryBudget);
 	}
 
 	@Override
 	public BrownianMotion getCloneWithModifiedTimeDiscretization(final TimeDiscretization newTimeDiscretization) {
 		/// @TODO This can be improved: a complete recreation of the Brownian motion wouldn't be necessary!
-		return new BrownianMotionCudaWithRandomVariableCuda(newTimeDiscretization, getNumberOfFactors(), getNumberOfPaths(), getSeed());
+		return new BrownianMotionCudaWithRandomVariableCuda(newTimeDiscretization, getNumberOfFactors(), getNumberOfPaths(), getSeed(), randomVariableFactory, samplingScheme, memoryBudget);
 	}
 
 	@Override
 	public RandomVariable getBrownianIncrement(final int timeIndex, final int factor) {
 
+		if(brownianIncrementCache != null) {
+			// Generation on demand (lock free if the time step is retained)
+			return brownianIncrementCache.getBrownianIncrement(timeIndex, factor);
+		}
+
 		// Thread safe lazy initialization
 		synchronized(brownianIncrementsLazyInitLock) {
 			if(brownianIncrements == null) {
@@ -171,8 +278,7 @@ public class BrownianMotionCudaWithRandomVariableCuda implements BrownianMotion,
 
 			for(int factor=0; factor<numberOfFactors; factor++) {
 				// Generate n floats on device
-				final DevicePointerReference realizations = RandomVariableCuda.getDevicePointer(numberOfPaths);
-				jcuda.jcurand.JCurand.curandGenerateNormal(generator, realizations.get(), numberOfPaths, 0.0f /* mean */, sqrtOfTimeStep /* stddev */);
+				final DevicePointerReference realizations = generateIncrement(generator, timeIndex, factor, sqrtOfTimeStep);
 				brownianIncrements[timeIndex][factor] = RandomVariableCuda.of(time, realizations, numberOfPaths);
 			}
 		}
@@ -181,6 +287,124 @@ public class BrownianMotionCudaWithRandomVariableCuda implements BrownianMotion,
 		curandDestroyGenerator(generator);
 	}
 
+	/**
+	 * Generates the increments of all factors of a given time index, using a Philox generator positioned at the
+	 * offset of the time step.
+	 *
+	 * @param timeIndex The time index.
+	 * @return The increments of all factors.
+	 */
+	private RandomVariable[] doGenerateBrownianIncrements(final int timeIndex) {
+		JCuda.setExceptionsEnabled(true);
+		JCurand.setExceptionsEnabled(true);
+
+		// Hack: It is important to init the context first.
+		RandomVariableCuda.of(0.0, 0.0);
+
+		final double time = timeDiscretization.getTime(timeIndex+1);
+		final float sqrtOfTimeStep = (float)Math.sqrt(timeDiscretization.getTimeStep(timeIndex));
+
+		final RandomVariable[] brownianIncrementsOfTimeStep = new RandomVariable[numberOfFactors];
+
+		final curandGenerator generator = new curandGenerator();
+		curandCreateGenerator(generator, CURAND_RNG_PSEUDO_PHILOX4_32_10);
+		try {
+			curandSetPseudoRandomGeneratorSeed(generator, seed);
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				// Each normal consumes at most two 32 bit random numbers, we reserve this number for each increment
+				curandSetGeneratorOffset(generator, 2L * ((long)timeIndex * numberOfFactors + factor) * numberOfPaths);
+
+				final DevicePointerReference realizations = generateIncrement(generator, timeIndex, factor, sqrtOfTimeStep);
+				brownianIncrementsOfTimeStep[factor] = RandomVariableCuda.of(time, realizations, numberOfPaths);
+			}
+		}
+		finally {
+			curandDestroyGenerator(generator);
+		}
+
+		return brownianIncrementsOfTimeStep;
+	}
+
+	/**
+	 * Generates the increment of a time step and factor on the device, using the sampling scheme of this object.
+	 * The generator consumes at most two 32 bit random numbers per path.
+	 *
+	 * The increments are cached by this object, hence they are not tracked by an open {@link DeviceMemoryScope}.
+	 *
+	 * @param generator The cuRand generator.
+	 * @param timeIndex The time index.
+	 * @param factor The factor.
+	 * @param sqrtOfTimeStep The square root of the time step.
+	 * @return The device vector holding the realizations of the increment.
+	 */
+	private DevicePointerReference generateIncrement(final curandGenerator generator, final int timeIndex, final int factor, final float sqrtOfTimeStep) {
+		final DeviceMemoryScope untrackedScope = DeviceMemoryScope.openUntracked();
+		try {
+			return generateIncrementOnDevice(generator, timeIndex, factor, sqrtOfTimeStep);
+		}
+		finally {
+			untrackedScope.close();
+		}
+	}
+
+	private DevicePointerReference generateIncrementOnDevice(final curandGenerator generator, final int timeIndex, final int factor, final float sqrtOfTimeStep) {
+		final DevicePointerReference realizations;
+		switch(samplingScheme) {
+		case ANTITHETIC:
+		{
+			// The pseudo random generators of cuRand generate normals in pairs, the surplus value is overwritten by the mirrored half
+			final int numberOfIndependentPaths = (numberOfPaths + 1) / 2;
+			realizations = RandomVariableCuda.getDevicePointer(numberOfPaths);
+			RandomVariableCuda.synchronize(realizations);
+			jcuda.jcurand.JCurand.curandGenerateNormal(generator, realizations.get(), numberOfIndependentPaths + (numberOfIndependentPaths & 1), 0.0f /* mean */, sqrtOfTimeStep /* stddev */);
+			RandomVariableCuda.recordWrite(realizations);
+			RandomVariableCuda.setAntitheticValues(realizations, numberOfPaths);
+			break;
+		}
+		case LATIN_HYPERCUBE:
+		{
+			final DevicePointerReference uniforms = RandomVariableCuda.getDevicePointer(numberOfPaths);
+			RandomVariableCuda.synchronize(uniforms);
+			jcuda.jcurand.JCurand.curandGenerateUniform(generator, uniforms.get(), numberOfPaths);
+			RandomVariableCuda.recordWrite(uniforms);
+			realizations = RandomVariableCuda.getLatinHypercubeNormal(uniforms, getStrata(timeIndex, factor), numberOfPaths, sqrtOfTimeStep);
+			uniforms.release();
+			break;
+		}
+		case STANDARD:
+		default:
+			realizations = RandomVariableCuda.getDevicePointer(numberOfPaths);
+			RandomVariableCuda.synchronize(realizations);
+			jcuda.jcurand.JCurand.curandGenerateNormal(generator, realizations.get(), numberOfPaths, 0.0f /* mean */, sqrtOfTimeStep /* stddev */);
+			RandomVariableCuda.recordWrite(realizations);
+			break;
+		}
+		return realizations;
+	}
+
+	/**
+	 * Returns the random permutation of the strata used for the increment of a time step and factor (Latin hypercube sampling).
+	 * The permutation depends only on the seed, the time index and the factor.
+	 *
+	 * @param timeIndex The time index.
+	 * @param factor The factor.
+	 * @return The permutation of 0, ..., numberOfPaths-1.
+	 */
+	private int[] getStrata(final int timeIndex, final int factor) {
+		final Random random = new Random(((long)seed << 32) ^ ((long)timeIndex * numberOfFactors + factor));
+		final int[] strata = new int[numberOfPaths];
+		for(int path=0; path<numberOfPaths; path++) {
+			strata[path] = path;
+		}
+		for(int path=numberOfPaths-1; path>0; path--) {
+			final int other = random.nextInt(path+1);
+			final int stratum = strata[other];
+			strata[other] = strata[path];
+			strata[path] = stratum;
+		}
+		return strata;
+	}
+
 	@Override
 	public TimeDiscretization getTimeDiscretization() {
 		return timeDiscretization;
@@ -208,13 +432,21 @@ public class BrownianMotionCudaWithRandomVariableCuda implements BrownianMotion,
 		return seed;
 	}
 
+	/**
+	 * @return Returns the sampling scheme.
+	 */
+	public SamplingScheme getSamplingScheme() {
+		return samplingScheme;
+	}
+
 	@Override
 	public String toString() {
 		return super.toString()
 				+ "\n" + "timeDiscretizationFromArray: " + timeDiscretization.toString()
 				+ "\n" + "numberOfPaths: " + numberOfPaths
 				+ "\n" + "numberOfFactors: " + numberOfFactors
-				+ "\n" + "seed: " + seed;
+				+ "\n" + "seed: " + seed
+				+ "\n" + "samplingScheme: " + samplingScheme;
 	}
 
 	@Override
@@ -237,6 +469,12 @@ public class BrownianMotionCudaWithRandomVariableCuda implements BrownianMotion,
 		if (seed != that.seed) {
 			return false;
 		}
+		if (samplingScheme != that.samplingScheme) {
+			return false;
+		}
+		if ((memoryBudget > 0) != (that.memoryBudget > 0)) {
+			return false;		// Different generators
+		}
 		if (!timeDiscretization.equals(that.timeDiscretization)) {
 			return false;
 		}
@@ -255,6 +493,7 @@ public class BrownianMotionCudaWithRandomVariableCuda implements BrownianMotion,
 		result = 31 * result + numberOfFactors;
 		result = 31 * result + numberOfPaths;
 		result = 31 * result + seed;
+		result = 31 * result + samplingScheme.hashCode();
 		return result;
 	}
 }
@@ -9,7 +9,9 @@ import java.io.Serializable;
 import java.util.Random;
 
 import net.finmath.montecarlo.AbstractRandomVariableFactory;
+import net.finmath.montecarlo.BrownianIncrementCache;
 import net.finmath.montecarlo.BrownianMotion;
+import net.finmath.montecarlo.FloatArrayRandomVariableFactory;
 import net.finmath.montecarlo.RandomVariableFactory;
 import net.finmath.stochastic.RandomVariable;
 import net.finmath.time.TimeDiscretization;
@@ -34,6 +36,14 @@ import net.finmath.time.TimeDiscretization;
  *
  * The class is immutable and thread safe. It uses lazy initialization.
  *
+ * If a memory budget is given, the increments are generated per time step on demand and at most as many time steps
+ * as fit into the memory budget are retained (see {@link BrownianIncrementCache}). A dropped time step is regenerated
+ * by jumping ahead in the sequence of <code>java.util.Random</code>, such that the random numbers agree with those of the
+ * generation of all time steps.
+ *
+ * The increments of a time step and factor may be drawn with antithetic variates or by Latin hypercube sampling, see {@link SamplingScheme}.
+ * For antithetic variates the mirrored half of the paths is obtained by negation, i.e., only half of the random numbers are generated.
+ *
  * @author Christian Fries
  * @version 1.6
  */
@@ -49,9 +59,19 @@ public class BrownianMotionJavaRandom implements BrownianMotion, Serializable {
 
 	private final AbstractRandomVariableFactory randomVariableFactory;
 
+	private final SamplingScheme	samplingScheme;
+	private final long			memoryBudget;
+
 	private transient	RandomVariable[][]	brownianIncrements;
 	private final		Object						brownianIncrementsLazyInitLock = new Object();
 
+	private transient	BrownianIncrementCache	brownianIncrementCache;
+
+	// Parameters of the linear congruential generator of java.util.Random
+	private static final long randomMultiplier = 0x5DEECE66DL;
+	private static final long randomAddend = 0xBL;
+	private static final long randomMask = (1L << 48) - 1;
+
 	/**
 	 * Construct a Brownian motion.
 	 *
@@ -65,13 +85,17 @@ public class BrownianMotionJavaRandom implements BrownianMotion, Serializable {
 	 * @param numberOfPaths Number of paths to simulate.
 	 * @param seed The seed of the random number generator.
 	 * @param randomVariableFactory Factory to be used to create random variable.
+	 * @param samplingScheme The sampling scheme used for the increments of a time step and factor.
+	 * @param memoryBudget If positive, the increments are generated per time step on demand, retaining at most this number of bytes. Otherwise all increments are generated on the first access.
 	 */
 	public BrownianMotionJavaRandom(
 			final TimeDiscretization timeDiscretization,
 			final int numberOfFactors,
 			final int numberOfPaths,
 			final int seed,
-			final AbstractRandomVariableFactory randomVariableFactory) {
+			final AbstractRandomVariableFactory randomVariableFactory,
+			final SamplingScheme samplingScheme,
+			final long memoryBudget) {
 		super();
 		this.timeDiscretization = timeDiscretization;
 		this.numberOfFactors	= numberOfFactors;
@@ -79,8 +103,83 @@ public class BrownianMotionJavaRandom implements BrownianMotion, Serializable {
 		this.seed				= seed;
 
 		this.randomVariableFactory = randomVariableFactory;
+		this.samplingScheme = samplingScheme;
+		this.memoryBudget = memoryBudget;
 
 		this.brownianIncrements	= null; 	// Lazy initialization
+
+		if(memoryBudget > 0) {
+			final long bytesPerRealization = randomVariableFactory instanceof FloatArrayRandomVariableFactory ? Float.BYTES : Double.BYTES;
+			brownianIncrementCache = new BrownianIncrementCache(timeDiscretization.getNumberOfTimeSteps(), bytesPerRealization * numberOfFactors * numberOfPaths, memoryBudget, this::doGenerateBrownianIncrements);
+		}
+	}
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * The constructor allows to set the factory to be used for the construction of
+	 * random variables. This allows to generate Brownian increments represented
+	 * by different implementations of the RandomVariable (e.g. the RandomVariableFromFloatArray internally
+	 * using float representations).
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 * @param memoryBudget If positive, the increments are generated per time step on demand, retaining at most this number of bytes. Otherwise all increments are generated on the first access.
+	 */
+	public BrownianMotionJavaRandom(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final AbstractRandomVariableFactory randomVariableFactory,
+			final long memoryBudget) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, randomVariableFactory, SamplingScheme.STANDARD, memoryBudget);
+	}
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 * @param samplingScheme The sampling scheme used for the increments of a time step and factor.
+	 */
+	public BrownianMotionJavaRandom(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final AbstractRandomVariableFactory randomVariableFactory,
+			final SamplingScheme samplingScheme) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, randomVariableFactory, samplingScheme, 0);
+	}
+
+	/**
+	 * Construct a Brownian motion.
+	 *
+	 * The constructor allows to set the factory to be used for the construction of
+	 * random variables. This allows to generate Brownian increments represented
+	 * by different implementations of the RandomVariable (e.g. the RandomVariableFromFloatArray internally
+	 * using float representations).
+	 *
+	 * @param timeDiscretization The time discretization used for the Brownian increments.
+	 * @param numberOfFactors Number of factors.
+	 * @param numberOfPaths Number of paths to simulate.
+	 * @param seed The seed of the random number generator.
+	 * @param randomVariableFactory Factory to be used to create random variable.
+	 */
+	public BrownianMotionJavaRandom(
+			final TimeDiscretization timeDiscretization,
+			final int numberOfFactors,
+			final int numberOfPaths,
+			final int seed,
+			final AbstractRandomVariableFactory randomVariableFactory) {
+		this(timeDiscretization, numberOfFactors, numberOfPaths, seed, randomVariableFactory, 0);
 	}
 
 	/**
@@ -101,18 +200,23 @@ public class BrownianMotionJavaRandom implements BrownianMotion, Serializable {
 
 	@Override
 	public BrownianMotion getCloneWithModifiedSeed(final int seed) {
-		return new BrownianMotionJavaRandom(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), seed);
+		return new BrownianMotionJavaRandom(getTimeDiscretization(), getNumberOfFactors(), getNumberOfPaths(), seed, randomVariableFactory, samplingScheme, memoryBudget);
 	}
 
 	@Override
 	public BrownianMotion getCloneWithModifiedTimeDiscretization(final TimeDiscretization newTimeDiscretization) {
 		/// @TODO This can be improved: a complete recreation of the Brownian motion wouldn't be necessary!
-		return new BrownianMotionJavaRandom(newTimeDiscretization, getNumberOfFactors(), getNumberOfPaths(), getSeed());
+		return new BrownianMotionJavaRandom(newTimeDiscretization, getNumberOfFactors(), getNumberOfPaths(), getSeed(), randomVariableFactory, samplingScheme, memoryBudget);
 	}
 
 	@Override
 	public RandomVariable getBrownianIncrement(final int timeIndex, final int factor) {
 
+		if(brownianIncrementCache != null) {
+			// Generation on demand (lock free if the time step is retained)
+			return brownianIncrementCache.getBrownianIncrement(timeIndex, factor);
+		}
+
 		// Thread safe lazy initialization
 		synchronized(brownianIncrementsLazyInitLock) {
 			if(brownianIncrements == null) {
@@ -157,11 +261,7 @@ public class BrownianMotionJavaRandom implements BrownianMotion, Serializable {
 			final double sqrtDeltaT = sqrtOfTimeStep[timeIndex];
 			// Generate uncorrelated Brownian increment
 			for(int factor=0; factor<numberOfFactors; factor++) {
-				final double[] randomVariableValues = brownianIncrementsArray[timeIndex][factor];
-				for(int path=0; path<numberOfPaths; path++) {
-					final double uniformIncrement = random.nextDouble();
-					randomVariableValues[path] = net.finmath.functions.NormalDistribution.inverseCumulativeDistribution(uniformIncrement) * sqrtDeltaT;
-				}
+				generateIncrement(random, sqrtDeltaT, brownianIncrementsArray[timeIndex][factor]);
 			}
 		}
 
@@ -178,6 +278,121 @@ public class BrownianMotionJavaRandom implements BrownianMotion, Serializable {
 		}
 	}
 
+	/**
+	 * Generates the increments of all factors of a given time index. The random number generator is positioned
+	 * by jumping ahead to the first random number of the time step.
+	 *
+	 * @param timeIndex The time index.
+	 * @return The increments of all factors.
+	 */
+	private RandomVariable[] doGenerateBrownianIncrements(final int timeIndex) {
+		// Each uniform consumes two steps of the generator (nextDouble)
+		final long numberOfSteps = 2L * timeIndex * numberOfFactors * getNumberOfUniformsPerIncrement();
+		final Random random = new Random(getStateOfRandomAfterSteps((seed ^ randomMultiplier) & randomMask, numberOfSteps) ^ randomMultiplier);
+
+		final double time = timeDiscretization.getTime(timeIndex+1);
+		final double sqrtDeltaT = Math.sqrt(timeDiscretization.getTimeStep(timeIndex));
+
+		final RandomVariable[] brownianIncrementsOfTimeStep = new RandomVariable[numberOfFactors];
+		for(int factor=0; factor<numberOfFactors; factor++) {
+			final double[] randomVariableValues = new double[numberOfPaths];
+			generateIncrement(random, sqrtDeltaT, randomVariableValues);
+			brownianIncrementsOfTimeStep[factor] = randomVariableFactory.createRandomVariable(time, randomVariableValues);
+		}
+		return brownianIncrementsOfTimeStep;
+	}
+
+	/**
+	 * Generates the increment of a time step and factor, using the sampling scheme of this object.
+	 *
+	 * @param random The random number generator, consuming {@link #getNumberOfUniformsPerIncrement()} uniforms.
+	 * @param sqrtDeltaT The square root of the time step.
+	 * @param randomVariableValues Array receiving the realizations of the increment.
+	 */
+	private void generateIncrement(final Random random, final double sqrtDeltaT, final double[] randomVariableValues) {
+		switch(samplingScheme) {
+		case ANTITHETIC:
+		{
+			final int numberOfIndependentPaths = (numberOfPaths + 1) / 2;
+			for(int path=0; path<numberOfIndependentPaths; path++) {
+				final double uniformIncrement = random.nextDouble();
+				randomVariableValues[path] = net.finmath.functions.NormalDistribution.inverseCumulativeDistribution(uniformIncrement) * sqrtDeltaT;
+			}
+			// Mirrored half
+			for(int path=numberOfIndependentPaths; path<numberOfPaths; path++) {
+				randomVariableValues[path] = -randomVariableValues[path-numberOfIndependentPaths];
+			}
+			break;
+		}
+		case LATIN_HYPERCUBE:
+		{
+			// Random permutation of the strata (Fisher-Yates shuffle)
+			final int[] strata = new int[numberOfPaths];
+			for(int path=0; path<numberOfPaths; path++) {
+				strata[path] = path;
+			}
+			for(int path=numberOfPaths-1; path>=0; path--) {
+				final int other = (int)(random.nextDouble() * (path+1));
+				final int stratum = strata[other];
+				strata[other] = strata[path];
+				strata[path] = stratum;
+			}
+			for(int path=0; path<numberOfPaths; path++) {
+				final double uniformIncrement = (strata[path] + random.nextDouble()) / numberOfPaths;
+				randomVariableValues[path] = net.finmath.functions.NormalDistribution.inverseCumulativeDistribution(uniformIncrement) * sqrtDeltaT;
+			}
+			break;
+		}
+		case STANDARD:
+		default:
+			for(int path=0; path<numberOfPaths; path++) {
+				final double uniformIncrement = random.nextDouble();
+				randomVariableValues[path] = net.finmath.functions.NormalDistribution.inverseCumulativeDistribution(uniformIncrement) * sqrtDeltaT;
+			}
+			break;
+		}
+	}
+
+	/**
+	 * @return The number of uniform random numbers consumed by the generation of the increment of a time step and factor.
+	 */
+	private long getNumberOfUniformsPerIncrement() {
+		switch(samplingScheme) {
+		case ANTITHETIC:
+			return (numberOfPaths + 1) / 2;
+		case LATIN_HYPERCUBE:
+			return 2L * numberOfPaths;
+		case STANDARD:
+		default:
+			return numberOfPaths;
+		}
+	}
+
+	/**
+	 * Returns the internal state of <code>java.util.Random</code> after the given number of steps of the linear
+	 * congruential generator, calculated in O(log(numberOfSteps)).
+	 *
+	 * @param state The (scrambled) internal state.
+	 * @param numberOfSteps The number of steps.
+	 * @return The internal state after the given number of steps.
+	 */
+	private static long getStateOfRandomAfterSteps(final long state, long numberOfSteps) {
+		long multiplier = 1;
+		long addend = 0;
+		long multiplierOfPower = randomMultiplier;
+		long addendOfPower = randomAddend;
+		while(numberOfSteps > 0) {
+			if((numberOfSteps & 1) != 0) {
+				multiplier = (multiplier * multiplierOfPower) & randomMask;
+				addend = (addend * multiplierOfPower + addendOfPower) & randomMask;
+			}
+			addendOfPower = ((multiplierOfPower + 1) * addendOfPower) & randomMask;
+			multiplierOfPower = (multiplierOfPower * multiplierOfPower) & randomMask;
+			numberOfSteps >>>= 1;
+		}
+		return (multiplier * state + addend) & randomMask;
+	}
+
 	@Override
 	public TimeDiscretization getTimeDiscretization() {
 		return timeDiscretization;
@@ -205,13 +420,21 @@ public class BrownianMotionJavaRandom implements BrownianMotion, Serializable {
 		return seed;
 	}
 
+	/**
+	 * @return Returns the sampling scheme.
+	 */
+	public SamplingScheme getSamplingScheme() {
+		return samplingScheme;
+	}
+
 	@Override
 	public String toString() {
 		return super.toString()
 				+ "\n" + "timeDiscretizationFromArray: " + timeDiscretization.toString()
 				+ "\n" + "numberOfPaths: " + numberOfPaths
 				+ "\n" + "numberOfFactors: " + numberOfFactors
-				+ "\n" + "seed: " + seed;
+				+ "\n" + "seed: " + seed
+				+ "\n" + "samplingScheme: " + samplingScheme;
 	}
 
 	@Override
@@ -234,6 +457,9 @@ public class BrownianMotionJavaRandom implements BrownianMotion, Serializable {
 		if (seed != that.seed) {
 			return false;
 		}
+		if (samplingScheme != that.samplingScheme) {
+			return false;
+		}
 		if (!timeDiscretization.equals(that.timeDiscretization)) {
 			return false;
 		}
@@ -252,6 +478,7 @@ public class BrownianMotionJavaRandom implements BrownianMotion, Serializable {
 		result = 31 * result + numberOfFactors;
 		result = 31 * result + numberOfPaths;
 		result = 31 * result + seed;
+		result = 31 * result + samplingScheme.hashCode();
 		return result;
 	}
 }
@@ -0,0 +1,36 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.cuda.alternative;
+
+/**
+ * The sampling scheme used by a Brownian motion to generate the increments of a time step and factor
+ * (i.e. the sample of one dimension of the driving normal distribution).
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public enum SamplingScheme {
+
+	/**
+	 * All paths are drawn independently.
+	 */
+	STANDARD,
+
+	/**
+	 * Antithetic variates: the first half of the paths is drawn independently (for an odd number of paths the first half includes the middle path),
+	 * the increments of the last half of the paths are the negative of those of the first half, i.e., path <i>i + (n+1)/2</i> mirrors path <i>i</i>.
+	 * Only (n+1)/2 random numbers are drawn per increment.
+	 */
+	ANTITHETIC,
+
+	/**
+	 * Latin hypercube sampling: for each time step and factor, the <i>n</i> paths are assigned to the <i>n</i> strata
+	 * (<i>k</i>/<i>n</i>, (<i>k</i>+1)/<i>n</i>) of the uniform distribution by a random permutation, and each path is drawn
+	 * uniformly from its stratum (before the inverse of the normal distribution function is applied).
+	 * The marginal distribution of each increment is stratified, while different time steps and factors are independent.
+	 */
+	LATIN_HYPERCUBE
+}
@@ -0,0 +1,256 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.expression;
+
+import java.util.Arrays;
+
+/**
+ * A node of an expression graph (DAG) over float vectors.
+ *
+ * A node is either
+ * <ul>
+ * 	<li>a <i>leaf</i>, i.e., a given vector of floats, referenced by a <i>handle</i>. For vectors stored in the Java heap the handle is the <code>float[]</code> itself, for vectors stored on a device it is a reference to the device memory,</li>
+ * 	<li>a <i>constant</i>, i.e., a scalar which is broadcasted to the size of the other operands,</li>
+ * 	<li>an <i>operation</i>, i.e., a {@link FloatOperator} applied to other nodes.</li>
+ * </ul>
+ *
+ * The values of an operation are calculated only when {@link #evaluate(FloatExpressionBackend)} or {@link #getValues()} is called.
+ * The calculation is performed by compiling the sub-graph into a {@link FloatExpressionProgram} which is then executed by
+ * a {@link FloatExpressionBackend}, evaluating all operations in a single fused loop (or kernel) over the elements.
+ * Once calculated, the handle of the result is cached and the references to the operands are released.
+ *
+ * Users of this class should limit the growth of the graph (e.g. in loops like <code>x = x.add(y)</code>), evaluating the
+ * operands if the number of pending operations exceeds {@link #getMaximumNumberOfOperations()}.
+ *
+ * @author Christian Fries
+ * @version 1.1
+ */
+public class FloatExpression {
+
+	private static final int maximumNumberOfOperations = Integer.parseInt(System.getProperty("net.finmath.montecarlo.expression.FloatExpression.maximumNumberOfOperations", "64"));
+
+	private static final FloatExpressionBackend interpreter = new FloatExpressionInterpreter();
+
+	private final FloatOperator	operator;
+	private final double[]		parameters;
+	private final float			constant;
+	private final int			size;
+	private final int			numberOfOperations;
+
+	private volatile FloatExpression[]	operands;
+	private volatile Object				handle;
+
+	private FloatExpression(final FloatOperator operator, final FloatExpression[] operands, final double[] parameters, final float constant, final int size, final int numberOfOperations, final Object handle) {
+		super();
+		this.operator = operator;
+		this.operands = operands;
+		this.parameters = parameters;
+		this.constant = constant;
+		this.size = size;
+		this.numberOfOperations = numberOfOperations;
+		this.handle = handle;
+	}
+
+	/**
+	 * Create a leaf node for a given vector.
+	 *
+	 * Important: The array is not cloned (no defensive copy is made). It must not be modified after the creation of the node.
+	 *
+	 * @param values The values of this node.
+	 * @return A new node representing the given values.
+	 */
+	public static FloatExpression of(final float[] values) {
+		return new FloatExpression(null, null, null, Float.NaN, values.length, 0, values);
+	}
+
+	/**
+	 * Create a leaf node for a vector referenced by a given handle, e.g. a vector stored on a device.
+	 *
+	 * @param handle The handle referencing the vector. The interpretation of the handle is left to the backend.
+	 * @param size The size of the vector.
+	 * @return A new node representing the given vector.
+	 */
+	public static FloatExpression of(final Object handle, final int size) {
+		if(handle == null) {
+			throw new IllegalArgumentException("Handle must not be null.");
+		}
+		return new FloatExpression(null, null, null, Float.NaN, size, 0, handle);
+	}
+
+	/**
+	 * Create a constant node, i.e., a scalar which is broadcasted to the size of the other operands of an operation.
+	 *
+	 * @param value The value of this node.
+	 * @return A new node representing the constant.
+	 */
+	public static FloatExpression constant(final float value) {
+		return new FloatExpression(null, null, null, value, 1, 0, null);
+	}
+
+	/**
+	 * Create a node representing the (not yet calculated) application of an operator to the given operands.
+	 *
+	 * @param operator The operator.
+	 * @param parameters The scalar parameters of the operator.
+	 * @param operands The operands of the operator. At least one operand has to be non-constant.
+	 * @return A new node representing the operation.
+	 */
+	public static FloatExpression of(final FloatOperator operator, final double[] parameters, final FloatExpression... operands) {
+		if(operands.length != operator.getArity()) {
+			throw new IllegalArgumentException("Operator " + operator + " requires " + operator.getArity() + " operands.");
+		}
+		if((parameters == null ? 0 : parameters.length) != operator.getNumberOfParameters()) {
+			throw new IllegalArgumentException("Operator " + operator + " requires " + operator.getNumberOfParameters() + " parameters.");
+		}
+
+		int size = 0;
+		long numberOfOperations = 1;
+		for(final FloatExpression operand : operands) {
+			if(!operand.isConstant()) {
+				if(size != 0 && operand.size() != size) {
+					throw new IllegalArgumentException("Operands of operator " + operator + " have different sizes.");
+				}
+				size = operand.size();
+			}
+			numberOfOperations += operand.getNumberOfPendingOperations();
+		}
+		if(size == 0) {
+			throw new IllegalArgumentException("Operator " + operator + " requires at least one non-constant operand.");
+		}
+
+		return new FloatExpression(operator, operands.clone(), parameters == null ? new double[0] : parameters.clone(), Float.NaN, size, (int)Math.min(numberOfOperations, Integer.MAX_VALUE), null);
+	}
+
+	/**
+	 * @return The maximum number of pending operations of a node before its operands should be evaluated.
+	 */
+	public static int getMaximumNumberOfOperations() {
+		return maximumNumberOfOperations;
+	}
+
+	/**
+	 * @return The operator of this node or null if this node is a leaf or a constant.
+	 */
+	public FloatOperator getOperator() {
+		return operator;
+	}
+
+	/**
+	 * @return The scalar parameters of the operator of this node (the array is not cloned).
+	 */
+	double[] getParameters() {
+		return parameters;
+	}
+
+	/**
+	 * Returns the operands of this node, if the node has not been evaluated yet.
+	 *
+	 * @return The operands of this node or null if this node is a leaf, a constant or has already been evaluated.
+	 */
+	FloatExpression[] getOperands() {
+		return operands;
+	}
+
+	/**
+	 * @return The value of a constant node (NaN for other nodes).
+	 */
+	public float getConstant() {
+		return constant;
+	}
+
+	/**
+	 * @return The size of the vector represented by this node (1 for a constant).
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return True if this node is a constant, i.e., a broadcasted scalar.
+	 */
+	public boolean isConstant() {
+		return operator == null && handle == null;
+	}
+
+	/**
+	 * @return True if the values of this node are available without further calculation.
+	 */
+	public boolean isEvaluated() {
+		return handle != null;
+	}
+
+	/**
+	 * @return The number of operations which have to be performed to calculate the values of this node.
+	 */
+	public int getNumberOfPendingOperations() {
+		return handle != null ? 0 : numberOfOperations;
+	}
+
+	/**
+	 * Returns the handle of the vector represented by this node.
+	 *
+	 * @return The handle of the vector represented by this node or null if this node is a constant or has not been evaluated yet.
+	 */
+	public Object getHandle() {
+		return handle;
+	}
+
+	/**
+	 * Returns the handle of the vector represented by this node. If the node has not been evaluated yet,
+	 * the values are calculated using the given backend.
+	 *
+	 * @param backend The backend used to execute the program calculating the values of this node.
+	 * @return The handle of the vector represented by this node.
+	 */
+	public Object evaluate(final FloatExpressionBackend backend) {
+		Object handleLocal = handle;
+		if(handleLocal == null) {
+			if(isConstant()) {
+				throw new UnsupportedOperationException("A constant does not have a vector of values.");
+			}
+			synchronized(this) {
+				handleLocal = handle;
+				if(handleLocal == null) {
+					handleLocal = backend.evaluate(FloatExpressionProgram.of(this));
+					handle = handleLocal;
+					operands = null;
+				}
+			}
+		}
+		return handleLocal;
+	}
+
+	/**
+	 * Returns the values of this node. If the values have not been calculated yet, they are calculated in a single
+	 * fused loop over the elements (using {@link FloatExpressionInterpreter}).
+	 *
+	 * Important: The returned array is not cloned. It must not be modified.
+	 *
+	 * @return The values of this node.
+	 * @throws UnsupportedOperationException Thrown if the values of this node are not stored in a <code>float[]</code> (e.g. stored on a device).
+	 */
+	public float[] getValues() {
+		final Object values = evaluate(interpreter);
+		if(!(values instanceof float[])) {
+			throw new UnsupportedOperationException("The values of this expression are not stored in a float[].");
+		}
+		return (float[])values;
+	}
+
+	@Override
+	public String toString() {
+		if(isConstant()) {
+			return Float.toString(constant);
+		}
+		else if(operator == null || isEvaluated()) {
+			return "vector[" + size + "]";
+		}
+		else {
+			final FloatExpression[] operandsLocal = operands;
+			return operator + (parameters.length > 0 ? Arrays.toString(parameters) : "") + (operandsLocal != null ? Arrays.toString(operandsLocal) : "");
+		}
+	}
+}
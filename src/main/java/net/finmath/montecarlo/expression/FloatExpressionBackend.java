@@ -0,0 +1,71 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.expression;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Interface implemented by the backends executing a {@link FloatExpressionProgram}.
+ *
+ * A backend defines where the vectors (the leaves of a {@link FloatExpression}) are stored, how a program is executed
+ * and how an evaluated vector is wrapped as a <code>RandomVariable</code>. The handles of the vectors are opaque to the
+ * expression graph: for the Java backend ({@link FloatExpressionInterpreter}) a handle is a <code>float[]</code>, for a
+ * device backend it is a reference to device memory.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public interface FloatExpressionBackend {
+
+	/**
+	 * @return The type priority of the random variables using this backend. See "operator type priority" for details.
+	 */
+	int getTypePriority();
+
+	/**
+	 * Create a leaf node for the given values, transferring them to the storage of this backend if required.
+	 *
+	 * Important: The array is not cloned. It must not be modified after the creation of the node.
+	 *
+	 * @param values The values.
+	 * @return A leaf node representing the values.
+	 */
+	FloatExpression getExpression(float[] values);
+
+	/**
+	 * Create a leaf node for the given (stochastic) random variable, transferring its values to the storage of this backend if required.
+	 *
+	 * @param randomVariable A stochastic random variable.
+	 * @return A leaf node representing the random variable.
+	 */
+	default FloatExpression getExpression(final RandomVariable randomVariable) {
+		final double[] realizations = randomVariable.getRealizations();
+		final float[] values = new float[realizations.length];
+		for(int i=0; i<realizations.length; i++) {
+			values[i] = (float)realizations[i];
+		}
+		return getExpression(values);
+	}
+
+	/**
+	 * Execute the program.
+	 *
+	 * @param program The program.
+	 * @return The handle of the result vector.
+	 */
+	Object evaluate(FloatExpressionProgram program);
+
+	/**
+	 * Returns a random variable wrapping the given evaluated vector. The random variable is used for all
+	 * operations which are not recorded in an expression graph (e.g. reductions).
+	 *
+	 * @param time The filtration time.
+	 * @param handle The handle of a vector of this backend.
+	 * @param size The size of the vector.
+	 * @return A random variable wrapping the vector.
+	 */
+	RandomVariable getRandomVariable(double time, Object handle, int size);
+}
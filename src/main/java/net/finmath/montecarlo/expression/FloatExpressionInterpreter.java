@@ -0,0 +1,62 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.expression;
+
+import net.finmath.montecarlo.ParallelChunkExecutor;
+import net.finmath.montecarlo.RandomVariableFromFloatArray;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * The Java backend executing a {@link FloatExpressionProgram} on the host via {@link FloatExpressionProgram#execute(int, int, float[])}.
+ * For large sizes the chunks of the vector are executed in parallel (see {@link ParallelChunkExecutor}).
+ *
+ * The vectors are stored as <code>float[]</code>. The results are identical (bit-by-bit) to the results of
+ * {@link RandomVariableFromFloatArray}. The interpreter may also be used to validate the programs which are
+ * executed by device backends.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class FloatExpressionInterpreter implements FloatExpressionBackend {
+
+	private static final int typePriorityDefault = 2;
+
+	public FloatExpressionInterpreter() {
+		super();
+	}
+
+	@Override
+	public int getTypePriority() {
+		return typePriorityDefault;
+	}
+
+	@Override
+	public FloatExpression getExpression(final float[] values) {
+		return FloatExpression.of(values);
+	}
+
+	@Override
+	public Object evaluate(final FloatExpressionProgram program) {
+		final float[] result = new float[program.size()];
+		ParallelChunkExecutor.forEachChunk(result.length, (start, end) -> program.execute(start, end, result));
+		return result;
+	}
+
+	@Override
+	public RandomVariable getRandomVariable(final double time, final Object handle, final int size) {
+		return new RandomVariableFromFloatArray(time, (float[])handle);
+	}
+
+	@Override
+	public boolean equals(final Object other) {
+		return other != null && other.getClass() == getClass();
+	}
+
+	@Override
+	public int hashCode() {
+		return getClass().hashCode();
+	}
+}
@@ -0,0 +1,317 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.expression;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A linear program (list of instructions) calculating the values of a {@link FloatExpression}.
+ *
+ * The program is obtained by a post-order traversal of the expression graph. Nodes which are shared in the graph
+ * are calculated only once. Nodes which are already evaluated become <i>inputs</i> of the program, constant nodes
+ * become <i>constants</i>, all other nodes become <i>instructions</i>, each writing a <i>temporary</i>. The last
+ * instruction calculates the result.
+ *
+ * The program is executed block-wise: for each block of elements all instructions are applied, using temporaries of
+ * the size of a block only. Hence, the intermediate results remain in the CPU cache and no full size temporaries are allocated.
+ *
+ * The <i>shape</i> of the program (see {@link #getShape()}) identifies the sequence of instructions independent of the
+ * values of the inputs, the constants and the operator parameters. It may be used as a key to cache code generated for a program.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class FloatExpressionProgram {
+
+	private static final int blockSize = Integer.parseInt(System.getProperty("net.finmath.montecarlo.expression.FloatExpressionProgram.blockSize", "1024"));
+
+	/**
+	 * The type of an operand of an instruction.
+	 *
+	 * @author Christian Fries
+	 */
+	public enum OperandType {
+		/** An input vector of the program (see {@link FloatExpressionProgram#getInputs()}). */
+		INPUT,
+		/** A scalar constant of the program (see {@link FloatExpressionProgram#getConstants()}). */
+		CONSTANT,
+		/** The result of a previous instruction of the program. */
+		TEMPORARY
+	}
+
+	/**
+	 * An instruction of the program: the application of an operator to inputs, constants or results of previous instructions.
+	 *
+	 * @author Christian Fries
+	 */
+	public static class Instruction {
+		private final FloatOperator		operator;
+		private final double[]			parameters;
+		private final OperandType[]		operandTypes;
+		private final int[]				operandIndices;
+
+		private Instruction(final FloatOperator operator, final double[] parameters, final OperandType[] operandTypes, final int[] operandIndices) {
+			this.operator = operator;
+			this.parameters = parameters;
+			this.operandTypes = operandTypes;
+			this.operandIndices = operandIndices;
+		}
+
+		public FloatOperator getOperator() {
+			return operator;
+		}
+
+		public double[] getParameters() {
+			return parameters.clone();
+		}
+
+		public OperandType getOperandType(final int operandIndex) {
+			return operandTypes[operandIndex];
+		}
+
+		/**
+		 * Returns the index of the operand in the list of inputs, constants or temporaries (depending on its type).
+		 *
+		 * @param operandIndex The index of the operand of this instruction.
+		 * @return The index of the operand in the list of inputs, constants or instructions.
+		 */
+		public int getOperandIndex(final int operandIndex) {
+			return operandIndices[operandIndex];
+		}
+	}
+
+	private final int					size;
+	private final List<Object>			inputs;
+	private final float[]				constants;
+	private final List<Instruction>		instructions;
+	private final String				shape;
+
+	private FloatExpressionProgram(final int size, final List<Object> inputs, final float[] constants, final List<Instruction> instructions) {
+		super();
+		this.size = size;
+		this.inputs = inputs;
+		this.constants = constants;
+		this.instructions = instructions;
+
+		final StringBuilder shapeBuilder = new StringBuilder();
+		for(int instructionIndex=0; instructionIndex<instructions.size(); instructionIndex++) {
+			final Instruction instruction = instructions.get(instructionIndex);
+			shapeBuilder.append("t").append(instructionIndex).append("=").append(instruction.operator.name()).append("(");
+			for(int operandIndex=0; operandIndex<instruction.operandTypes.length; operandIndex++) {
+				if(operandIndex > 0) {
+					shapeBuilder.append(",");
+				}
+				shapeBuilder.append(Character.toLowerCase(instruction.operandTypes[operandIndex].name().charAt(0))).append(instruction.operandIndices[operandIndex]);
+			}
+			shapeBuilder.append(");");
+		}
+		shape = shapeBuilder.toString();
+	}
+
+	/**
+	 * Compile the given expression into a program.
+	 *
+	 * @param expression An expression which is not a constant.
+	 * @return The program calculating the values of the expression.
+	 */
+	public static FloatExpressionProgram of(final FloatExpression expression) {
+		if(expression.isConstant()) {
+			throw new IllegalArgumentException("Cannot create a program for a constant.");
+		}
+
+		final List<Object>		inputs = new ArrayList<>();
+		final List<Float>		constants = new ArrayList<>();
+		final List<Instruction>	instructions = new ArrayList<>();
+
+		final Map<Object, Integer>				inputIndices = new IdentityHashMap<>();
+		final Map<FloatExpression, Integer>		constantIndices = new IdentityHashMap<>();
+		final Map<FloatExpression, Integer>		temporaryIndices = new IdentityHashMap<>();
+
+		final FloatExpression[] operands = expression.getOperands();
+		if(operands == null) {
+			// The expression is a leaf or has already been evaluated: the program is the identity.
+			inputs.add(expression.getHandle());
+			instructions.add(new Instruction(FloatOperator.MULT_SCALAR, new double[] { 1.0 }, new OperandType[] { OperandType.INPUT }, new int[] { 0 }));
+		}
+		else {
+			compile(expression, operands, inputs, constants, instructions, inputIndices, constantIndices, temporaryIndices);
+		}
+
+		final float[] constantsArray = new float[constants.size()];
+		for(int i=0; i<constantsArray.length; i++) {
+			constantsArray[i] = constants.get(i);
+		}
+
+		return new FloatExpressionProgram(expression.size(), Collections.unmodifiableList(inputs), constantsArray, Collections.unmodifiableList(instructions));
+	}
+
+	private static int compile(final FloatExpression expression, final FloatExpression[] operands,
+			final List<Object> inputs, final List<Float> constants, final List<Instruction> instructions,
+			final Map<Object, Integer> inputIndices, final Map<FloatExpression, Integer> constantIndices, final Map<FloatExpression, Integer> temporaryIndices) {
+
+		final OperandType[]	operandTypes = new OperandType[operands.length];
+		final int[]			operandIndices = new int[operands.length];
+		for(int operandIndex=0; operandIndex<operands.length; operandIndex++) {
+			final FloatExpression operand = operands[operandIndex];
+			final FloatExpression[] operandOperands = operand.getOperands();
+
+			if(operand.isConstant()) {
+				Integer index = constantIndices.get(operand);
+				if(index == null) {
+					index = constants.size();
+					constants.add(operand.getConstant());
+					constantIndices.put(operand, index);
+				}
+				operandTypes[operandIndex] = OperandType.CONSTANT;
+				operandIndices[operandIndex] = index;
+			}
+			else if(operandOperands == null) {
+				// Leaf or already evaluated node
+				final Object handle = operand.getHandle();
+				Integer index = inputIndices.get(handle);
+				if(index == null) {
+					index = inputs.size();
+					inputs.add(handle);
+					inputIndices.put(handle, index);
+				}
+				operandTypes[operandIndex] = OperandType.INPUT;
+				operandIndices[operandIndex] = index;
+			}
+			else {
+				Integer index = temporaryIndices.get(operand);
+				if(index == null) {
+					index = compile(operand, operandOperands, inputs, constants, instructions, inputIndices, constantIndices, temporaryIndices);
+					temporaryIndices.put(operand, index);
+				}
+				operandTypes[operandIndex] = OperandType.TEMPORARY;
+				operandIndices[operandIndex] = index;
+			}
+		}
+
+		instructions.add(new Instruction(expression.getOperator(), expression.getParameters(), operandTypes, operandIndices));
+		return instructions.size()-1;
+	}
+
+	/**
+	 * @return The size of the result vector.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the handles of the input vectors. For programs executed by the {@link FloatExpressionInterpreter} the
+	 * handles are of type <code>float[]</code>.
+	 *
+	 * @return The (unmodifiable) list of handles of the input vectors.
+	 */
+	public List<Object> getInputs() {
+		return inputs;
+	}
+
+	/**
+	 * @return The constants.
+	 */
+	public float[] getConstants() {
+		return constants.clone();
+	}
+
+	/**
+	 * @return The (unmodifiable) list of instructions. The last instruction calculates the result.
+	 */
+	public List<Instruction> getInstructions() {
+		return instructions;
+	}
+
+	/**
+	 * Returns a string identifying the sequence of operators and the references of their operands, independent of
+	 * the values of inputs, constants and parameters.
+	 *
+	 * @return The shape of this program.
+	 */
+	public String getShape() {
+		return shape;
+	}
+
+	/**
+	 * Execute the program on the host. This requires that all inputs are of type <code>float[]</code>.
+	 *
+	 * @return A new array containing the values of the expression.
+	 */
+	public float[] execute() {
+		final float[] result = new float[size];
+		execute(0, size, result);
+		return result;
+	}
+
+	/**
+	 * Execute the program for the elements with index in [start, end).
+	 * This method may be called concurrently for disjoint ranges.
+	 *
+	 * @param start The index of the first element.
+	 * @param end The index of the first element not calculated.
+	 * @param result The array receiving the result.
+	 */
+	public void execute(final int start, final int end, final float[] result) {
+		final int blockLength = Math.min(blockSize, Math.max(end-start, 1));
+
+		final float[][] constantBuffers = new float[constants.length][];
+		for(int constantIndex=0; constantIndex<constants.length; constantIndex++) {
+			constantBuffers[constantIndex] = new float[blockLength];
+			Arrays.fill(constantBuffers[constantIndex], constants[constantIndex]);
+		}
+
+		final int numberOfInstructions = instructions.size();
+		final float[][] temporaries = new float[numberOfInstructions-1][];
+		for(int instructionIndex=0; instructionIndex<numberOfInstructions-1; instructionIndex++) {
+			temporaries[instructionIndex] = new float[blockLength];
+		}
+
+		final float[][] operandArrays = new float[3][];
+		final int[] operandOffsets = new int[3];
+		for(int blockStart = start; blockStart < end; blockStart += blockLength) {
+			final int length = Math.min(blockLength, end-blockStart);
+			for(int instructionIndex=0; instructionIndex<numberOfInstructions; instructionIndex++) {
+				final Instruction instruction = instructions.get(instructionIndex);
+				for(int operandIndex=0; operandIndex<instruction.operandTypes.length; operandIndex++) {
+					final int index = instruction.operandIndices[operandIndex];
+					switch(instruction.operandTypes[operandIndex]) {
+					case INPUT:
+						operandArrays[operandIndex] = (float[])inputs.get(index);
+						operandOffsets[operandIndex] = blockStart;
+						break;
+					case CONSTANT:
+						operandArrays[operandIndex] = constantBuffers[index];
+						operandOffsets[operandIndex] = 0;
+						break;
+					case TEMPORARY:
+					default:
+						operandArrays[operandIndex] = temporaries[index];
+						operandOffsets[operandIndex] = 0;
+						break;
+					}
+				}
+
+				if(instructionIndex < numberOfInstructions-1) {
+					instruction.operator.apply(length, operandArrays, operandOffsets, instruction.parameters, temporaries[instructionIndex], 0);
+				}
+				else {
+					instruction.operator.apply(length, operandArrays, operandOffsets, instruction.parameters, result, blockStart);
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "FloatExpressionProgram [size=" + size + ", numberOfInputs=" + inputs.size() + ", numberOfConstants=" + constants.length + ", shape=" + shape + "]";
+	}
+}
@@ -0,0 +1,455 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.expression;
+
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * The element-wise operators which may be recorded in a {@link FloatExpression}.
+ *
+ * Each operator has a fixed number of vector operands (its arity) and a fixed number of scalar parameters.
+ * The Java implementation of each operator performs exactly the same float arithmetic as the corresponding
+ * method of {@link net.finmath.montecarlo.RandomVariableFromFloatArray}, such that a fused evaluation
+ * reproduces the results of the eager implementation bit-by-bit.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public enum FloatOperator {
+
+	/*
+	 * Unary operators (with optional scalar parameter)
+	 */
+
+	CAP_SCALAR(1, 1) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float cap = (float)parameters[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = Math.min(a[aOffset+i], cap);
+			}
+		}
+	},
+
+	FLOOR_SCALAR(1, 1) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float floor = (float)parameters[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = Math.max(a[aOffset+i], floor);
+			}
+		}
+	},
+
+	ADD_SCALAR(1, 1) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float value = (float)parameters[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = a[aOffset+i] + value;
+			}
+		}
+	},
+
+	SUB_SCALAR(1, 1) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float value = (float)parameters[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = a[aOffset+i] - value;
+			}
+		}
+	},
+
+	BUS_SCALAR(1, 1) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float value = (float)parameters[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = value - a[aOffset+i];
+			}
+		}
+	},
+
+	MULT_SCALAR(1, 1) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float value = (float)parameters[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = a[aOffset+i] * value;
+			}
+		}
+	},
+
+	DIV_SCALAR(1, 1) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float value = (float)parameters[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = a[aOffset+i] / value;
+			}
+		}
+	},
+
+	VID_SCALAR(1, 1) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float value = (float)parameters[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = value / a[aOffset+i];
+			}
+		}
+	},
+
+	POW(1, 1) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float exponent = (float)parameters[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = (float) Math.pow(a[aOffset+i], exponent);
+			}
+		}
+	},
+
+	SQUARED(1, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = a[aOffset+i] * a[aOffset+i];
+			}
+		}
+	},
+
+	SQRT(1, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = (float)Math.sqrt(a[aOffset+i]);
+			}
+		}
+	},
+
+	EXP(1, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = (float)FastMath.exp(a[aOffset+i]);
+			}
+		}
+	},
+
+	LOG(1, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = (float)FastMath.log(a[aOffset+i]);
+			}
+		}
+	},
+
+	SIN(1, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = (float)FastMath.sin(a[aOffset+i]);
+			}
+		}
+	},
+
+	COS(1, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = (float)FastMath.cos(a[aOffset+i]);
+			}
+		}
+	},
+
+	INVERT(1, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = 1.0f/a[aOffset+i];
+			}
+		}
+	},
+
+	ABS(1, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = Math.abs(a[aOffset+i]);
+			}
+		}
+	},
+
+	IS_NAN(1, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = Float.isNaN(a[aOffset+i]) ? 1.0f : 0.0f;
+			}
+		}
+	},
+
+	/*
+	 * Binary operators (with optional scalar parameter)
+	 */
+
+	CAP(2, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float[] b = operands[1];
+			final int bOffset = offsets[1];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = FastMath.min(a[aOffset+i], b[bOffset+i]);
+			}
+		}
+	},
+
+	FLOOR(2, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float[] b = operands[1];
+			final int bOffset = offsets[1];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = FastMath.max(a[aOffset+i], b[bOffset+i]);
+			}
+		}
+	},
+
+	ADD(2, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float[] b = operands[1];
+			final int bOffset = offsets[1];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = a[aOffset+i] + b[bOffset+i];
+			}
+		}
+	},
+
+	SUB(2, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float[] b = operands[1];
+			final int bOffset = offsets[1];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = a[aOffset+i] - b[bOffset+i];
+			}
+		}
+	},
+
+	MULT(2, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float[] b = operands[1];
+			final int bOffset = offsets[1];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = a[aOffset+i] * b[bOffset+i];
+			}
+		}
+	},
+
+	DIV(2, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float[] b = operands[1];
+			final int bOffset = offsets[1];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = a[aOffset+i] / b[bOffset+i];
+			}
+		}
+	},
+
+	ACCRUE(2, 1) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float[] b = operands[1];
+			final int bOffset = offsets[1];
+			final float periodLength = (float)parameters[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = a[aOffset+i] * (1.0f + b[bOffset+i] * periodLength);
+			}
+		}
+	},
+
+	DISCOUNT(2, 1) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float[] b = operands[1];
+			final int bOffset = offsets[1];
+			final float periodLength = (float)parameters[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = a[aOffset+i] / (1.0f + b[bOffset+i] * periodLength);
+			}
+		}
+	},
+
+	ADD_PRODUCT_SCALAR(2, 1) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float[] b = operands[1];
+			final int bOffset = offsets[1];
+			final float factor = (float)parameters[0];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = a[aOffset+i] + b[bOffset+i] * factor;
+			}
+		}
+	},
+
+	/*
+	 * Ternary operators
+	 */
+
+	ADD_PRODUCT(3, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float[] b = operands[1];
+			final int bOffset = offsets[1];
+			final float[] c = operands[2];
+			final int cOffset = offsets[2];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = a[aOffset+i] + b[bOffset+i] * c[cOffset+i];
+			}
+		}
+	},
+
+	ADD_RATIO(3, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float[] b = operands[1];
+			final int bOffset = offsets[1];
+			final float[] c = operands[2];
+			final int cOffset = offsets[2];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = a[aOffset+i] + b[bOffset+i] / c[cOffset+i];
+			}
+		}
+	},
+
+	SUB_RATIO(3, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float[] b = operands[1];
+			final int bOffset = offsets[1];
+			final float[] c = operands[2];
+			final int cOffset = offsets[2];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = a[aOffset+i] - b[bOffset+i] / c[cOffset+i];
+			}
+		}
+	},
+
+	CHOOSE(3, 0) {
+		@Override
+		public void apply(final int length, final float[][] operands, final int[] offsets, final double[] parameters, final float[] result, final int resultOffset) {
+			final float[] a = operands[0];
+			final int aOffset = offsets[0];
+			final float[] b = operands[1];
+			final int bOffset = offsets[1];
+			final float[] c = operands[2];
+			final int cOffset = offsets[2];
+			for(int i=0; i<length; i++) {
+				result[resultOffset+i] = a[aOffset+i] >= 0.0 ? b[bOffset+i] : c[cOffset+i];
+			}
+		}
+	};
+
+	private final int arity;
+	private final int numberOfParameters;
+
+	FloatOperator(final int arity, final int numberOfParameters) {
+		this.arity = arity;
+		this.numberOfParameters = numberOfParameters;
+	}
+
+	/**
+	 * @return The number of vector operands of this operator.
+	 */
+	public int getArity() {
+		return arity;
+	}
+
+	/**
+	 * @return The number of scalar parameters of this operator.
+	 */
+	public int getNumberOfParameters() {
+		return numberOfParameters;
+	}
+
+	/**
+	 * Apply the operator to a block of elements.
+	 *
+	 * @param length The number of elements to process.
+	 * @param operands The arrays of the vector operands (length equal to the arity of the operator).
+	 * @param offsets The index of the first element to process in each operand array.
+	 * @param parameters The scalar parameters of the operator.
+	 * @param result The array receiving the result.
+	 * @param resultOffset The index of the first element written to the result array.
+	 */
+	public abstract void apply(int length, float[][] operands, int[] offsets, double[] parameters, float[] result, int resultOffset);
+}
@@ -0,0 +1,9 @@
+/**
+ * Provides expression graphs over float vectors and their fused (single loop) evaluation.
+ *
+ * The classes are used by lazy evaluating implementations of <code>RandomVariable</code>, which record
+ * the operations applied to a random variable and evaluate them only when the realizations are required.
+ *
+ * @author Christian Fries
+ */
+package net.finmath.montecarlo.expression;
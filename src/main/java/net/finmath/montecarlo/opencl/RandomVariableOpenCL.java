@@ -25,16 +25,11 @@ import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.lang.ref.Reference;
-import java.lang.ref.ReferenceQueue;
-import java.lang.ref.WeakReference;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Paths;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -59,8 +54,18 @@ import org.jocl.cl_platform_id;
 import org.jocl.cl_program;
 
 import net.finmath.functions.DoubleTernaryOperator;
+import net.finmath.montecarlo.DeviceMemoryAllocator;
+import net.finmath.montecarlo.DeviceMemoryHolder;
+import net.finmath.montecarlo.DeviceMemoryReference;
+import net.finmath.montecarlo.DeviceMemoryScope;
+import net.finmath.montecarlo.HistogramBinning;
 import net.finmath.montecarlo.RandomVariableFromDoubleArray;
 import net.finmath.montecarlo.RandomVariableFromFloatArray;
+import net.finmath.montecarlo.RandomVariableSumOperators;
+import net.finmath.montecarlo.ReferenceCountingMemoryPool;
+import net.finmath.montecarlo.RegressionNormalEquations;
+import net.finmath.montecarlo.SlabAllocator;
+import net.finmath.montecarlo.SumProductTerms;
 import net.finmath.stochastic.RandomVariable;
 
 /**
@@ -80,6 +85,9 @@ import net.finmath.stochastic.RandomVariable;
  * <b>This implementation uses floats for the realizations on a OpenCL device.</b>
  * There is a CPU implementation in {@link RandomVariableFromFloatArray} which give exactly the same results for all methods (checked by unit test).
  *
+ * The n-ary operators {@link #addSum(List)}, {@link #addWeightedSum(List, double[])} and {@link #addSumProduct(List, List)}
+ * are evaluated by one kernel per batch of 8 terms.
+ *
  * <b>Configuration</b>
  *
  * The class can be configured with system property to use a chosen OpenCL device. The poperties are:
@@ -101,38 +109,68 @@ import net.finmath.stochastic.RandomVariable;
  * 	</dd>
  * </dl>
  *
+ * The device memory of the realizations is reference counted. All device vectors allocated within a {@link DeviceMemoryScope}
+ * are released when the scope is closed, without waiting for the garbage collector.
  *
  * @author Christian Fries
  * @version 2.1
  */
-public class RandomVariableOpenCL implements RandomVariable {
+public class RandomVariableOpenCL implements RandomVariableSumOperators, DeviceMemoryHolder {
 
 	/**
-	 * An object referencing a cuda device pointer.
+	 * An object referencing an OpenCL device pointer.
 	 *
-	 * This wrapper is mainly used to track, when references to device pointers are de-referenced, which then triggers
-	 * a recycling of the device vector.
+	 * The device memory is reference counted (see {@link DeviceMemoryReference}): it is recycled once it has been released,
+	 * e.g. by closing the {@link DeviceMemoryScope} in which it was allocated, or, as a safety net, after this object has been garbage collected.
 	 */
 	public static class DevicePointerReference {
 		private final cl_mem devicePointer;
+		private final DeviceMemoryReference<cl_mem> deviceMemoryReference;
 
+		/**
+		 * Create a reference to a device pointer which is not managed by the memory pool.
+		 *
+		 * @param devicePointer The device pointer.
+		 */
 		public DevicePointerReference(final cl_mem devicePointer) {
 			this.devicePointer = devicePointer;
+			this.deviceMemoryReference = null;
+		}
+
+		private DevicePointerReference(final DeviceMemoryReference<cl_mem> deviceMemoryReference) {
+			this.devicePointer = null;
+			this.deviceMemoryReference = deviceMemoryReference;
 		}
 
 		public cl_mem get() {
-			return devicePointer;
+			return deviceMemoryReference != null ? deviceMemoryReference.get() : devicePointer;
+		}
+
+		/**
+		 * @return The reference counted handle of the device memory or null if the pointer is not managed by the memory pool.
+		 */
+		public DeviceMemoryReference<cl_mem> getDeviceMemoryReference() {
+			return deviceMemoryReference;
+		}
+
+		/**
+		 * Release the device memory (i.e. decrement its reference count), if it is managed by the memory pool.
+		 */
+		public void release() {
+			if(deviceMemoryReference != null) {
+				deviceMemoryReference.release();
+			}
 		}
 	}
 
 	/**
 	 * A memory pool for the GPU vectors.
 	 *
-	 * The memory pool is provided for vectors of different length.
-	 *
-	 * Implementation details:
-	 * The map vectorsToRecycleReferenceQueueMap maps each vector length to a ReferenceQueue&lt;DevicePointerReference&gt; holding
-	 * reference of recycleable vectors. The map vectorsInUseReferenceMap maps this weak reference to a Cuda vector.
+	 * The memory pool is provided for vectors of different length. The life time of the vectors is managed by
+	 * a {@link ReferenceCountingMemoryPool} allocating the device memory via <code>clCreateBuffer</code>.
+	 * The sizes of the buffers are rounded up to size classes (see {@link SlabAllocator#getSizeClasses(int)}), such that
+	 * buffers of similar size are re-used. The number of size classes per power of two is given by the system property
+	 * <code>net.finmath.montecarlo.opencl.RandomVariableOpenCL.sizeClassesPerDoubling</code> (default 4).
 	 *
 	 * @author Christian Fries
 	 */
@@ -140,124 +178,16 @@ public class RandomVariableOpenCL implements RandomVariable {
 
 		private final Object lock = new Object();
 
-		/**
-		 * For each vector size this map stores <code>ReferenceQueue&lt;DevicePointerReference&gt;</code>. The garbadge collector
-		 * will put <code>WeakReference&lt;DevicePointerReference&gt;</code> into this queue once the
-		 * <code>DevicePointerReference</code>-object has become de-referenced.
-		 */
-		private static final Map<Integer, ReferenceQueue<DevicePointerReference>>		vectorsToRecycleReferenceQueueMap	= new ConcurrentHashMap<Integer, ReferenceQueue<DevicePointerReference>>();
-
-		/**
-		 * This map allow to recover the device pointer for a given <code>WeakReference&lt;DevicePointerReference&gt;</code>.
-		 */
-		public static final Map<WeakReference<DevicePointerReference>, cl_mem>	vectorsInUseReferenceMap			= new ConcurrentHashMap<WeakReference<DevicePointerReference>, cl_mem>();
-
-		/**
-		 * Percentage of device memory at which we will trigger System.gc() to aggressively reduce references.
-		 */
-		private static final float	vectorsRecyclerPercentageFreeToStartGC		= 0.15f;		// should be set by monitoring GPU mem
-
-		/**
-		 * Percentage of device memory at which we will try to wait a few milliseconds for recycled objects.
-		 */
-		private static final float	vectorsRecyclerPercentageFreeToWaitForGC	= 0.05f;		// should be set by monitoring GPU mem
-
-		/**
-		 * Maximum time to wait for object recycled objects. (Higher value slows down the code, but prevents out-of-memory).
-		 */
-		private static final long	vectorsRecyclerMaxTimeOutMillis			= 1000;
-
 		private static long	deviceAllocMemoryBytes = 0;
 		private static long	deviceMaxMemoryBytes;
 
-		/**
-		 * Get a Java object ({@link DevicePointerReference}) representing a vector allocated on the GPU memory (device memory).
-		 *
-		 * If this object is the wrapped into a {@link RandomVariableOpenCL} via {@link RandomVariableOpenCL#of(double, DevicePointerReference, long)}
-		 * you may perform arithmetic operations on it.
-		 *
-		 * Note: You will likely not use this method directly. Instead use {@link #getDevicePointer(float[])} which will
-		 * call this method and initialize the vector to the given values.
-		 *
-		 * The object is "managed" in the sense the once the object is dereferenced the GPU memory will be marked for re-use (or freed at a later time).
-		 *
-		 * @param size The size of the vector as multiples of sizeof(float). (To allocated a double vector use twice the size).
-		 * @return An object representing a vector allocated on the GPU memory.
-		 */
-		public DevicePointerReference getDevicePointer(final long size) {
-			if(logger.isLoggable(Level.FINEST)) {
-				final StringBuilder stringBuilder = new StringBuilder();
-				stringBuilder.append("Memory pool stats: ");
-				stringBuilder.append("  vector sizes: ");
-				for(final Map.Entry<Integer, ReferenceQueue<DevicePointerReference>> entry : vectorsToRecycleReferenceQueueMap.entrySet()) {
-					stringBuilder.append("    " + entry.getKey());
-				}
-				stringBuilder.append("  total number of vectors: " + vectorsInUseReferenceMap.size());
-				logger.finest(stringBuilder.toString());
-			}
-
-			cl_mem cuDevicePtr = null;
-
-			// Check for object to recycle
-			final ReferenceQueue<DevicePointerReference> vectorsToRecycleReferenceQueue = vectorsToRecycleReferenceQueueMap.computeIfAbsent(new Integer((int)size), key ->  {
-				logger.info("Creating reference queue for vector size " + size);
-				return new ReferenceQueue<DevicePointerReference>();
-			});
-
-			Reference<? extends DevicePointerReference> reference = vectorsToRecycleReferenceQueue.poll();
-			if(reference != null) {
-				cuDevicePtr = vectorsInUseReferenceMap.remove(reference);
-				if(logger.isLoggable(Level.FINEST)) {
-					logger.finest("Recycling (1) device pointer " + cuDevicePtr + " from " + reference);
-				}
-			}
-			else {
-				final float deviceFreeMemPercentage = getDeviceFreeMemPercentage();
-
-				// No pointer found, try GC if we are above a critical level
-				if(deviceFreeMemPercentage < vectorsRecyclerPercentageFreeToStartGC && deviceFreeMemPercentage >= vectorsRecyclerPercentageFreeToWaitForGC) {
-					System.gc();
-					System.runFinalization();
-
-					if(logger.isLoggable(Level.FINEST)) {
-						logger.fine("Device free memory " + deviceFreeMemPercentage*100 + "%");
-					}
-
-					reference = vectorsToRecycleReferenceQueue.poll();
-				}
+		private static final int	sizeClassesPerDoubling = Integer.parseInt(System.getProperty("net.finmath.montecarlo.opencl.RandomVariableOpenCL.sizeClassesPerDoubling", "4"));
 
-				// Wait for GC
-				if(reference == null && deviceFreeMemPercentage < vectorsRecyclerPercentageFreeToWaitForGC) {
-					/*
-					 * Try to obtain a reference after GC, retry with waits for 1 ms, 10 ms, 100 ms, ...
-					 */
-					System.gc();
-
-					long timeOut = 1;
-					while(reference == null && timeOut < vectorsRecyclerMaxTimeOutMillis) {
-						try {
-							reference = vectorsToRecycleReferenceQueue.remove(timeOut);
-							timeOut *= 4;
-						} catch (IllegalArgumentException | InterruptedException e) {}
-					}
-
-					if(reference == null) {
-						// Still no pointer found for requested size, consider cleaning all (also other sizes)
-						logger.info("Last resort: Cleaning all unused vectors on device. Device free memory " + deviceFreeMemPercentage*100 + "%");
-						clean();
-					}
-				}
-
-				if(reference != null) {
-					if(logger.isLoggable(Level.FINEST)) {
-						logger.finest("Recycling (2) device pointer " + cuDevicePtr + " from " + reference);
-					}
-					cuDevicePtr = vectorsInUseReferenceMap.remove(reference);
-				}
-			}
+		private final DeviceMemoryAllocator<cl_mem> deviceAllocator = new DeviceMemoryAllocator<cl_mem>() {
 
-			if(cuDevicePtr == null)  {
-				// Still no pointer found, create new one
+			@Override
+			public cl_mem allocate(final long size) {
+				cl_mem cuDevicePtr = null;
 				try {
 					final int[] errorCode = new int[1];
 					cuDevicePtr =
@@ -267,27 +197,63 @@ public class RandomVariableOpenCL implements RandomVariable {
 										CL_MEM_READ_WRITE,
 										size * Sizeof.cl_float, null, errorCode);
 
-								return cuDevicePtr;
+								return errorCode[0] == CL.CL_SUCCESS ? cuDevicePtr : null;
 							}}).get();
 				} catch (InterruptedException | ExecutionException e) {
-					logger.severe("Failed to allocate device vector with size=" + size + ". Cause: " + e.getCause());
+					logger.warning("Failed to allocate device vector with size=" + size + ". Cause: " + e.getCause());
 				}
 
-				if(cuDevicePtr == null) {
-					logger.severe("Failed to allocate device vector with size=" + size);
-					throw new OutOfMemoryError("Failed to allocate device vector with size=" + size);
+				if(cuDevicePtr != null) {
+					deviceAllocMemoryBytes += size * Sizeof.cl_float;
 				}
+				return cuDevicePtr;
+			}
 
-				deviceAllocMemoryBytes += size * Sizeof.cl_float;
+			@Override
+			public void free(final cl_mem cuDevicePtr, final long size) {
+				if(logger.isLoggable(Level.FINEST)) {
+					logger.finest("Freeing device pointer " + cuDevicePtr);
+				}
+				try {
+					deviceExecutor.submit(new Runnable() {
+						@Override
+						public void run() {
+							clReleaseMemObject(cuDevicePtr);
+						}}).get();
+				} catch (InterruptedException | ExecutionException e) {
+					logger.severe("Unable to free pointer " + cuDevicePtr);
+					throw new RuntimeException(e.getCause());
+				}
+				deviceAllocMemoryBytes -= size * Sizeof.cl_float;
 			}
 
-			/*
-			 * Manage the pointer
-			 */
-			final DevicePointerReference devicePointerReference = new DevicePointerReference(cuDevicePtr);
-			vectorsInUseReferenceMap.put(new WeakReference<DevicePointerReference>(devicePointerReference, vectorsToRecycleReferenceQueue), cuDevicePtr);
+			@Override
+			public double getFreeMemoryFraction() {
+				return getDeviceFreeMemPercentage();
+			}
+		};
 
-			return devicePointerReference;
+		// Buffers are not sub-allocated (sub-buffers are subject to the base address alignment of the device), each slab holds one buffer
+		private final ReferenceCountingMemoryPool<cl_mem> memoryPool = new ReferenceCountingMemoryPool<cl_mem>(
+				new SlabAllocator<cl_mem>(deviceAllocator, null, 0, SlabAllocator.getSizeClasses(sizeClassesPerDoubling), 1));
+
+		/**
+		 * Get a Java object ({@link DevicePointerReference}) representing a vector allocated on the GPU memory (device memory).
+		 *
+		 * If this object is the wrapped into a {@link RandomVariableOpenCL} via {@link RandomVariableOpenCL#of(double, DevicePointerReference, long)}
+		 * you may perform arithmetic operations on it.
+		 *
+		 * Note: You will likely not use this method directly. Instead use {@link #getDevicePointer(float[])} which will
+		 * call this method and initialize the vector to the given values.
+		 *
+		 * The object is "managed" in the sense that the GPU memory is re-used once it has been released (e.g. by closing a {@link DeviceMemoryScope})
+		 * or once the object has been dereferenced.
+		 *
+		 * @param size The size of the vector as multiples of sizeof(float). (To allocated a double vector use twice the size).
+		 * @return An object representing a vector allocated on the GPU memory.
+		 */
+		public DevicePointerReference getDevicePointer(final long size) {
+			return new DevicePointerReference(memoryPool.getDeviceMemory(size));
 		}
 
 		/**
@@ -295,30 +261,7 @@ public class RandomVariableOpenCL implements RandomVariable {
 		 */
 		public void clean() {
 			synchronized (lock) {
-				// Clean up all remaining pointers
-				for(final Entry<Integer, ReferenceQueue<DevicePointerReference>> entry : vectorsToRecycleReferenceQueueMap.entrySet()) {
-					final int size = entry.getKey();
-					final ReferenceQueue<DevicePointerReference> vectorsToRecycleReferenceQueue = entry.getValue();
-
-					Reference<? extends DevicePointerReference> reference;
-					while((reference = vectorsToRecycleReferenceQueue.poll()) != null) {
-						final cl_mem cuDevicePtr = vectorsInUseReferenceMap.remove(reference);
-						if(logger.isLoggable(Level.FINEST)) {
-							logger.finest("Freeing device pointer " + cuDevicePtr + " from " + reference);
-						}
-						try {
-							deviceExecutor.submit(new Runnable() {
-								@Override
-								public void run() {
-									clReleaseMemObject(cuDevicePtr);
-								}}).get();
-						} catch (InterruptedException | ExecutionException e) {
-							logger.severe("Unable to free pointer " + cuDevicePtr + " from " + reference);
-							throw new RuntimeException(e.getCause());
-						}
-						deviceAllocMemoryBytes -= size * Sizeof.cl_float;
-					}
-				}
+				memoryPool.clean();
 			}
 		}
 
@@ -326,7 +269,7 @@ public class RandomVariableOpenCL implements RandomVariable {
 			System.gc();
 			System.runFinalization();
 			clean();
-			logger.info("OpenCL vectors in use: " + vectorsInUseReferenceMap.size() + ". Available device memory: " + getDeviceFreeMemPercentage()*100 + "%");
+			logger.info("OpenCL vectors in use: " + memoryPool.getNumberOfVectorsInUse() + ". Available device memory: " + getDeviceFreeMemPercentage()*100 + "%");
 		}
 
 		/**
@@ -335,7 +278,6 @@ public class RandomVariableOpenCL implements RandomVariable {
 		 */
 		private static float getDeviceFreeMemPercentage() {
 			final float freeRate = 1.0f - 1.1f * (float)deviceAllocMemoryBytes / (float) deviceMaxMemoryBytes;
-			//			System.out.println("OpCL: " + deviceMemoryPool.vectorsInUseReferenceMap.size() + "\t" + freeRate);
 			return freeRate;
 		}
 
@@ -372,6 +314,20 @@ public class RandomVariableOpenCL implements RandomVariable {
 			return result;
 		}
 
+		public int[] getValuesAsInt(final DevicePointerReference devicePtr, final int size) {
+			final int[] result = new int[size];
+			try {
+				deviceExecutor.submit(new Runnable() { @Override
+					public void run() {
+					clEnqueueReadBuffer(commandQueue, devicePtr.get(), true, 0,
+							size * Sizeof.cl_int, Pointer.to(result), 0, null, null);
+				}}).get();
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			}
+			return result;
+		}
+
 		public DevicePointerReference callFunctionv1s0(final cl_kernel function, final long resultSize, final DevicePointerReference argument1) {
 			synchronized (lock) {
 				final DevicePointerReference result = getDevicePointer(resultSize);
@@ -469,6 +425,30 @@ public class RandomVariableOpenCL implements RandomVariable {
 
 		}
 
+		/**
+		 * Calls the function on gridSizeX work groups of blockSizeX work items each. In contrast to
+		 * {@link #callFunction(cl_kernel, Pointer[], int[], int, int, int)} the local work size is set explicitly,
+		 * as required by kernels reducing within a work group in local memory.
+		 *
+		 * @param function The kernel.
+		 * @param arguments The arguments of the kernel.
+		 * @param argumentSizes The sizes of the arguments.
+		 * @param gridSizeX The number of work groups.
+		 * @param blockSizeX The number of work items of a work group.
+		 */
+		public void callFunctionOnWorkGroups(final cl_kernel function, final Pointer[] arguments, final int[] argumentSizes, final int gridSizeX, final int blockSizeX) {
+			deviceExecutor.submit(new Runnable() { @Override
+				public void run() {
+				for(int i=0; i<arguments.length; i++) {
+					clSetKernelArg(function, i, argumentSizes[i], arguments[i]);
+				}
+				final long global_work_size[] = new long[]{ (long)gridSizeX*blockSizeX };
+				final long local_work_size[] = new long[]{ blockSizeX };
+				clEnqueueNDRangeKernel(commandQueue, function, 1, null,
+						global_work_size, local_work_size, 0, null, null);
+			}});
+		}
+
 	}
 
 	public static DeviceMemoryPool deviceMemoryPool = new DeviceMemoryPool();
@@ -479,6 +459,9 @@ public class RandomVariableOpenCL implements RandomVariable {
 
 	private static final int typePriorityDefault = 20;
 
+	// The number of bins of a histogram for which the counters of a work group are held in local memory (32 KB)
+	private static final int maximumNumberOfBinsOnDevice = 8192;
+
 	private final int typePriority;
 
 	// Data model for the stochastic case (otherwise null)
@@ -521,6 +504,18 @@ public class RandomVariableOpenCL implements RandomVariable {
 	private static cl_kernel addProduct_vs;		// add the product of a vector and a scalar
 	private static cl_kernel reducePartial;
 	private static cl_kernel reduceFloatVectorToDoubleScalar;
+	private static cl_kernel histogram;
+	private static cl_kernel sumProduct8;
+	private static cl_kernel normalEquations8;
+
+	// The number of terms of a sum evaluated by a single kernel (sumProduct8)
+	private static final int sumProductBatchSize = 8;
+
+	// The maximum number of stochastic basis functions of a regression on the device (normalEquations8), the number of work groups and
+	// the number of work items of a work group summing the paths (a power of two, reduced at initialization if the kernel requires)
+	private static final int maximumNumberOfBasisFunctionsOnDevice = 8;
+	private static final int regressionGridSize = 64;
+	private static int regressionBlockSize = 64;
 
 	private static final int reduceGridSize = 1024;
 
@@ -636,6 +631,16 @@ public class RandomVariableOpenCL implements RandomVariable {
 			discount = clCreateKernel(cpProgram, "discount", null);
 			addProduct = clCreateKernel(cpProgram, "addProduct", null);
 			addProduct_vs = clCreateKernel(cpProgram, "addProduct_vs", null);
+			histogram = clCreateKernel(cpProgram, "histogram", null);
+			sumProduct8 = clCreateKernel(cpProgram, "sumProduct8", null);
+			normalEquations8 = clCreateKernel(cpProgram, "normalEquations8", null);
+
+			// The work group size of the tree reduction in normalEquations8 has to be a power of two supported by the kernel on the device
+			final long[] normalEquationsWorkGroupSize = new long[1];
+			CL.clGetKernelWorkGroupInfo(normalEquations8, device, CL.CL_KERNEL_WORK_GROUP_SIZE, Sizeof.size_t, Pointer.to(normalEquationsWorkGroupSize), null);
+			if(normalEquationsWorkGroupSize[0] > 0) {
+				regressionBlockSize = Math.min(regressionBlockSize, Integer.highestOneBit((int)Math.min(normalEquationsWorkGroupSize[0], Integer.MAX_VALUE)));
+			}
 			//				reducePartial = clCreateKernel(cpProgram, "reducePartial", null);
 			//				reduceFloatVectorToDoubleScalar = clCreateKernel(cpProgram, "reduceFloatVectorToDoubleScalar", null);
 
@@ -839,6 +844,11 @@ public class RandomVariableOpenCL implements RandomVariable {
 		deviceMemoryPool.clean();
 	}
 
+	@Override
+	public DeviceMemoryReference<cl_mem> getDeviceMemoryReference() {
+		return realizations != null ? realizations.getDeviceMemoryReference() : null;
+	}
+
 	public static void purge() {
 		deviceMemoryPool.purge();
 	}
@@ -1114,9 +1124,10 @@ public class RandomVariableOpenCL implements RandomVariable {
 	@Override
 	public double[] getHistogram(final double[] intervalPoints)
 	{
-		final double[] histogramValues = new double[intervalPoints.length+1];
+		final double[] histogramValues;
 
 		if(isDeterministic()) {
+			histogramValues = new double[intervalPoints.length+1];
 			java.util.Arrays.fill(histogramValues, 0.0);
 			for (int intervalIndex=0; intervalIndex<intervalPoints.length; intervalIndex++)
 			{
@@ -1128,32 +1139,48 @@ public class RandomVariableOpenCL implements RandomVariable {
 			histogramValues[intervalPoints.length] = 1.0;
 		}
 		else {
-			final double[] realizationsSorted = getRealizations();
-			java.util.Arrays.sort(realizationsSorted);
+			histogramValues = HistogramBinning.getHistogram(getHistogramCounts(new HistogramBinning(intervalPoints)), size());
+		}
 
-			int sampleIndex=0;
-			for (int intervalIndex=0; intervalIndex<intervalPoints.length; intervalIndex++)
-			{
-				int sampleCount = 0;
-				while (sampleIndex < realizationsSorted.length &&
-						realizationsSorted[sampleIndex] <= intervalPoints[intervalIndex])
-				{
-					sampleIndex++;
-					sampleCount++;
-				}
-				histogramValues[intervalIndex] = sampleCount;
-			}
-			histogramValues[intervalPoints.length] = realizationsSorted.length-sampleIndex;
+		return histogramValues;
+	}
 
-			// Normalize histogramValues
-			if(realizationsSorted.length > 0) {
-				for(int i=0; i<histogramValues.length; i++) {
-					histogramValues[i] /= realizationsSorted.length;
-				}
-			}
+	/**
+	 * Count the realizations per bin on the device, transferring only the counts to the host.
+	 *
+	 * @param histogramBinning The definition of the bins.
+	 * @return The number of realizations in each bin.
+	 */
+	private long[] getHistogramCounts(final HistogramBinning histogramBinning) {
+		final int numberOfBins = histogramBinning.getNumberOfBins();
+		if(numberOfBins > maximumNumberOfBinsOnDevice) {
+			// The counters of a work group would not fit into local memory
+			return histogramBinning.getCounts(deviceMemoryPool.getValuesAsFloat(realizations, size()));
 		}
 
-		return histogramValues;
+		final DevicePointerReference points = deviceMemoryPool.getDevicePointer(histogramBinning.getIntervalPointsAsFloat());
+		final DevicePointerReference counts = deviceMemoryPool.getDevicePointer(new float[numberOfBins]);	// Zero bits are integer zeros
+
+		final int blockSizeX = 1024;
+		final int gridSizeX = (int)Math.ceil((double)size() / blockSizeX);
+		deviceMemoryPool.callFunction(histogram, new Pointer[] {
+				Pointer.to(new int[] { size() }),
+				Pointer.to(realizations.get()),
+				Pointer.to(new int[] { numberOfBins-1 }),
+				Pointer.to(points.get()),
+				Pointer.to(counts.get()),
+				null },
+				new int[] { Sizeof.cl_int, Sizeof.cl_mem, Sizeof.cl_int, Sizeof.cl_mem, Sizeof.cl_mem, numberOfBins * Sizeof.cl_uint },
+				gridSizeX, blockSizeX, 0);
+
+		final int[] countsOnDevice = deviceMemoryPool.getValuesAsInt(counts, numberOfBins);
+		points.release();
+		counts.release();
+		final long[] countsOfBins = new long[numberOfBins];
+		for(int bin=0; bin<numberOfBins; bin++) {
+			countsOfBins[bin] = Integer.toUnsignedLong(countsOnDevice[bin]);
+		}
+		return countsOfBins;
 	}
 
 	@Override
@@ -1767,6 +1794,148 @@ public class RandomVariableOpenCL implements RandomVariable {
 		}
 	}
 
+	@Override
+	public RandomVariable addSumProduct(final List<RandomVariable> factor1, final List<RandomVariable> factor2) {
+		final SumProductTerms terms = new SumProductTerms(this, factor1, factor2, null);
+		if(terms.getMaximumTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return RandomVariableSumOperators.super.addSumProduct(factor1, factor2);
+		}
+		return getSum(terms);
+	}
+
+	@Override
+	public RandomVariable addSum(final List<RandomVariable> summands) {
+		final SumProductTerms terms = new SumProductTerms(this, summands, null, null);
+		if(terms.getMaximumTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return RandomVariableSumOperators.super.addSum(summands);
+		}
+		return getSum(terms);
+	}
+
+	@Override
+	public RandomVariable addWeightedSum(final List<RandomVariable> summands, final double[] weights) {
+		final SumProductTerms terms = new SumProductTerms(this, summands, null, weights);
+		if(terms.getMaximumTypePriority() > this.getTypePriority()) {
+			// Check type priority
+			return RandomVariableSumOperators.super.addWeightedSum(summands, weights);
+		}
+		return getSum(terms);
+	}
+
+	/**
+	 * Returns the normal equations of the regression of the given values on the given basis functions, where the sums over
+	 * the paths are calculated on the device: each work item sums the products over a strided subset of the paths using
+	 * compensated (Kahan) summation in float precision, the sums of the work items of a work group are combined by a
+	 * compensated tree reduction in local memory, and the (hi, lo) pairs of the work groups are added on the host in double precision.
+	 * The error of the sums is hence of the order of the float precision relative to the sum of the absolute values of the terms,
+	 * independent of the number of paths, as for {@link RegressionNormalEquations#of(RandomVariable[], RandomVariable)}.
+	 * If there are more than 8 stochastic basis functions, the normal equations are calculated on the host.
+	 *
+	 * @param basisFunctions The basis functions (deterministic or <code>RandomVariableOpenCL</code>).
+	 * @param values The random variable <code>y</code> (deterministic or <code>RandomVariableOpenCL</code>).
+	 * @return The normal equations.
+	 */
+	public static RegressionNormalEquations getRegressionNormalEquations(final RandomVariable[] basisFunctions, final RandomVariable values) {
+		final int[] stochasticIndices = RegressionNormalEquations.getStochasticIndices(basisFunctions);
+		if(stochasticIndices.length > maximumNumberOfBasisFunctionsOnDevice) {
+			return RegressionNormalEquations.of(basisFunctions, values);
+		}
+
+		final int size = RegressionNormalEquations.getSize(basisFunctions, values);
+		final int numberOfSums = RegressionNormalEquations.getNumberOfSums(stochasticIndices.length);
+
+		final Pointer[] arguments = new Pointer[2 + maximumNumberOfBasisFunctionsOnDevice + 4];
+		final int[] argumentSizes = new int[arguments.length];
+		int argumentIndex = 0;
+		argumentSizes[argumentIndex] = Sizeof.cl_int;
+		arguments[argumentIndex++] = Pointer.to(new int[] { size });
+		argumentSizes[argumentIndex] = Sizeof.cl_int;
+		arguments[argumentIndex++] = Pointer.to(new int[] { stochasticIndices.length });
+		for(int p=0; p<maximumNumberOfBasisFunctionsOnDevice; p++) {
+			argumentSizes[argumentIndex] = Sizeof.cl_mem;
+			arguments[argumentIndex++] = p < stochasticIndices.length ? Pointer.to(getRandomVariableCuda(basisFunctions[stochasticIndices[p]]).realizations.get()) : null;
+		}
+		argumentSizes[argumentIndex] = Sizeof.cl_mem;
+		arguments[argumentIndex++] = values.isDeterministic() ? null : Pointer.to(getRandomVariableCuda(values).realizations.get());
+
+		// The (hi, lo) pairs of the sums of each work group
+		final DevicePointerReference partialSums = getDevicePointer(2L * regressionGridSize * numberOfSums);
+		argumentSizes[argumentIndex] = Sizeof.cl_mem;
+		arguments[argumentIndex++] = Pointer.to(partialSums.get());
+		// Local memory of the tree reduction (hi and lo)
+		argumentSizes[argumentIndex] = regressionBlockSize * Sizeof.cl_float;
+		arguments[argumentIndex++] = null;
+		argumentSizes[argumentIndex] = regressionBlockSize * Sizeof.cl_float;
+		arguments[argumentIndex++] = null;
+		deviceMemoryPool.callFunctionOnWorkGroups(normalEquations8, arguments, argumentSizes, regressionGridSize, regressionBlockSize);
+
+		final float[] partialSumsOnHost = deviceMemoryPool.getValuesAsFloat(partialSums, 2 * regressionGridSize * numberOfSums);
+		partialSums.release();
+
+		final double[] sums = new double[numberOfSums];
+		for(int workGroup=0; workGroup<regressionGridSize; workGroup++) {
+			for(int e=0; e<numberOfSums; e++) {
+				sums[e] += (double)partialSumsOnHost[2 * (workGroup * numberOfSums + e)] + partialSumsOnHost[2 * (workGroup * numberOfSums + e) + 1];
+			}
+		}
+		return RegressionNormalEquations.of(size, basisFunctions, values, sums);
+	}
+
+	/**
+	 * Evaluates the sum of this random variable and the given terms. Since an OpenCL 1.2 kernel cannot receive an array of buffers,
+	 * each kernel adds a batch of (up to) 8 terms to the result of the previous batch.
+	 *
+	 * @param terms The terms of the sum.
+	 * @return The sum.
+	 */
+	private RandomVariable getSum(final SumProductTerms terms) {
+		if(terms.getNumberOfTerms() == 0 && isDeterministic()) {
+			return of(terms.getFiltrationTime(), terms.getConstant());
+		}
+
+		final int numberOfTerms = terms.getNumberOfTerms();
+		DevicePointerReference sum = isDeterministic() ? null : realizations;
+		float constant = (float)terms.getConstant();
+		int termIndex = 0;
+		do {
+			final Pointer[] arguments = new Pointer[3 + 3*sumProductBatchSize + 1];
+			final int[] argumentSizes = new int[arguments.length];
+			int argumentIndex = 0;
+			argumentSizes[argumentIndex] = Sizeof.cl_int;
+			arguments[argumentIndex++] = Pointer.to(new int[] { terms.size() });
+			argumentSizes[argumentIndex] = Sizeof.cl_mem;
+			arguments[argumentIndex++] = sum != null ? Pointer.to(sum.get()) : null;
+			argumentSizes[argumentIndex] = Sizeof.cl_float;
+			arguments[argumentIndex++] = Pointer.to(new float[] { constant });
+			for(int k=termIndex; k<termIndex+sumProductBatchSize; k++) {
+				final RandomVariable factor1 = k < numberOfTerms ? terms.getFactor1(k) : null;
+				final RandomVariable factor2 = k < numberOfTerms ? terms.getFactor2(k) : null;
+				argumentSizes[argumentIndex] = Sizeof.cl_mem;
+				arguments[argumentIndex++] = factor1 != null ? Pointer.to(getRandomVariableCuda(factor1).realizations.get()) : null;
+				argumentSizes[argumentIndex] = Sizeof.cl_mem;
+				arguments[argumentIndex++] = factor2 != null ? Pointer.to(getRandomVariableCuda(factor2).realizations.get()) : null;
+				argumentSizes[argumentIndex] = Sizeof.cl_float;
+				arguments[argumentIndex++] = Pointer.to(new float[] { k < numberOfTerms ? (float)terms.getWeight(k) : 0.0f });
+			}
+			final DevicePointerReference result = getDevicePointer(terms.size());
+			argumentSizes[argumentIndex] = Sizeof.cl_mem;
+			arguments[argumentIndex++] = Pointer.to(result.get());
+			deviceMemoryPool.callFunction(sumProduct8, terms.size(), arguments, argumentSizes);
+
+			// The result of the previous batch may be released, the commands of the (in-order) queue are executed in order
+			if(sum != null && sum != realizations) {
+				sum.release();
+			}
+			sum = result;
+			constant = 0.0f;
+			termIndex += sumProductBatchSize;
+		} while(termIndex < numberOfTerms);
+
+		return of(terms.getFiltrationTime(), sum, terms.size());
+	}
+
 	@Override
 	public RandomVariable addRatio(final RandomVariable numerator, final RandomVariable denominator) {
 		// TODO Implement a kernel here
@@ -1816,6 +1985,7 @@ public class RandomVariableOpenCL implements RandomVariable {
 		} catch (InterruptedException | ExecutionException e) {
 			throw new RuntimeException(e.getCause());
 		}
+		reduceVector.release();
 
 		return (new RandomVariableFromDoubleArray(time, result));
 	}
@@ -1827,9 +1997,17 @@ public class RandomVariableOpenCL implements RandomVariable {
 
 		RandomVariableOpenCL reduced = this;
 		while(reduced.size() > 1) {
-			reduced = reduced.reduceBySize(reduceGridSize);
+			final RandomVariableOpenCL reducedBySize = reduced.reduceBySize(reduceGridSize);
+			if(reduced != this) {
+				reduced.realizations.release();
+			}
+			reduced = reducedBySize;
 		}
-		return reduced.getRealizations()[0];
+		final double result = reduced.getRealizations()[0];
+		if(reduced != this) {
+			reduced.realizations.release();
+		}
+		return result;
 	}
 
 	private RandomVariableOpenCL reduceBySize(final int bySize) {
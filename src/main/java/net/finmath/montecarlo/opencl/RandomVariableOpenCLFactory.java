@@ -7,13 +7,14 @@
 package net.finmath.montecarlo.opencl;
 
 import net.finmath.montecarlo.AbstractRandomVariableFactory;
+import net.finmath.montecarlo.FloatArrayRandomVariableFactory;
 import net.finmath.stochastic.RandomVariable;
 
 /**
  * @author Christian Fries
  *
  */
-public class RandomVariableOpenCLFactory extends AbstractRandomVariableFactory {
+public class RandomVariableOpenCLFactory extends AbstractRandomVariableFactory implements FloatArrayRandomVariableFactory {
 
 	private static final long serialVersionUID = 1L;
 
@@ -30,4 +31,9 @@ public class RandomVariableOpenCLFactory extends AbstractRandomVariableFactory {
 	public RandomVariable createRandomVariable(final double time, final double[] values) {
 		return new RandomVariableOpenCL(time, values);
 	}
+
+	@Override
+	public RandomVariable createRandomVariable(final double time, final float[] values) {
+		return new RandomVariableOpenCL(time, values);
+	}
 }
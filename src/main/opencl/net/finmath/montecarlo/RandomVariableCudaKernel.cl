@@ -255,3 +255,153 @@ __kernel void subRatio(int n, __global const float *a, __global const float *b,
         result[i] = a[i] - b[i] / c[i];
     }
 }
+
+/*
+ * The sum result = a + c + sum_k w_k x_k y_k of up to 8 terms, reading all arguments and writing the result once.
+ * Since OpenCL 1.2 does not allow an array of buffers as kernel argument, longer sums are evaluated in batches of 8 terms.
+ * The vector a may be null (zero), a factor y_k may be null (one), an unused term has a null x_k.
+ */
+#define SUM_PRODUCT_TERM(x, y, w) if(x != 0) sum += (y != 0) ? x[i] * y[i] * w : x[i] * w;
+
+__kernel void sumProduct8(int n, __global const float *a, float c,
+    __global const float *x0, __global const float *y0, float w0,
+    __global const float *x1, __global const float *y1, float w1,
+    __global const float *x2, __global const float *y2, float w2,
+    __global const float *x3, __global const float *y3, float w3,
+    __global const float *x4, __global const float *y4, float w4,
+    __global const float *x5, __global const float *y5, float w5,
+    __global const float *x6, __global const float *y6, float w6,
+    __global const float *x7, __global const float *y7, float w7,
+    __global float *result)
+{
+    int i = get_global_id(0);
+    if (i<n)
+    {
+        float sum = (a != 0 ? a[i] : 0.0f) + c;
+        SUM_PRODUCT_TERM(x0, y0, w0)
+        SUM_PRODUCT_TERM(x1, y1, w1)
+        SUM_PRODUCT_TERM(x2, y2, w2)
+        SUM_PRODUCT_TERM(x3, y3, w3)
+        SUM_PRODUCT_TERM(x4, y4, w4)
+        SUM_PRODUCT_TERM(x5, y5, w5)
+        SUM_PRODUCT_TERM(x6, y6, w6)
+        SUM_PRODUCT_TERM(x7, y7, w7)
+        result[i] = sum;
+    }
+}
+
+/*
+ * Compensated (Kahan) summation in float precision: adds value to the sum hi + lo.
+ */
+inline void addCompensated(float *hi, float *lo, const float value)
+{
+    const float y = value + *lo;
+    const float t = *hi + y;
+    *lo = y - (t - *hi);
+    *hi = t;
+}
+
+/*
+ * Adds the compensated sum otherHi + otherLo to the compensated sum hi + lo (using an error free transformation of hi + otherHi).
+ */
+inline void addCompensatedSum(float *hi, float *lo, const float otherHi, const float otherLo)
+{
+    const float s = *hi + otherHi;
+    const float v = s - *hi;
+    const float error = (*hi - (s - v)) + (otherHi - v);
+    const float l = error + *lo + otherLo;
+    const float t = s + l;
+    *lo = l - (t - s);
+    *hi = t;
+}
+
+/*
+ * Partial sums of the normal equations of the regression of y on the (up to 8) basis functions x_0, ..., x_{m-1}.
+ * Each work item sums over the paths i = id, id + size, id + 2 size, ... using compensated summation, the sums of the
+ * work items of a work group are combined by a tree reduction in local memory (the local size has to be a power of two).
+ * Each work group writes the sums
+ * sum x_p, sum x_p x_q (p <= q, row by row), sum x_p y, sum y as pairs (hi, lo) to partialSums[2 * (group * numberOfSums + ...)],
+ * where the value of a sum is hi + lo.
+ * The vector y may be null (the sums involving y are zero).
+ */
+__kernel void normalEquations8(int n, int m,
+    __global const float *x0, __global const float *x1, __global const float *x2, __global const float *x3,
+    __global const float *x4, __global const float *x5, __global const float *x6, __global const float *x7,
+    __global const float *y, __global float *partialSums, __local float *blockSumsHi, __local float *blockSumsLo)
+{
+    __global const float *x[8] = { x0, x1, x2, x3, x4, x5, x6, x7 };
+    const int numberOfSums = m + m*(m+1)/2 + m + 1;
+    float sums[53];
+    float compensations[53];
+    for(int e = 0; e < numberOfSums; e++) {
+        sums[e] = 0.0f;
+        compensations[e] = 0.0f;
+    }
+
+    for(int i = get_global_id(0); i < n; i += get_global_size(0))
+    {
+        float xi[8];
+        for(int p = 0; p < m; p++) xi[p] = x[p][i];
+        float yi = y != 0 ? y[i] : 0.0f;
+
+        int e = 0;
+        for(int p = 0; p < m; p++, e++) addCompensated(&sums[e], &compensations[e], xi[p]);
+        for(int p = 0; p < m; p++) {
+            for(int q = p; q < m; q++, e++) addCompensated(&sums[e], &compensations[e], xi[p] * xi[q]);
+        }
+        for(int p = 0; p < m; p++, e++) addCompensated(&sums[e], &compensations[e], xi[p] * yi);
+        addCompensated(&sums[e], &compensations[e], yi);
+    }
+
+    const int localId = get_local_id(0);
+    for(int e = 0; e < numberOfSums; e++) {
+        blockSumsHi[localId] = sums[e];
+        blockSumsLo[localId] = compensations[e];
+        barrier(CLK_LOCAL_MEM_FENCE);
+        for(int stride = get_local_size(0) / 2; stride > 0; stride >>= 1) {
+            if(localId < stride) {
+                float hi = blockSumsHi[localId];
+                float lo = blockSumsLo[localId];
+                addCompensatedSum(&hi, &lo, blockSumsHi[localId + stride], blockSumsLo[localId + stride]);
+                blockSumsHi[localId] = hi;
+                blockSumsLo[localId] = lo;
+            }
+            barrier(CLK_LOCAL_MEM_FENCE);
+        }
+        if(localId == 0) {
+            partialSums[2 * (get_group_id(0) * numberOfSums + e)] = blockSumsHi[0];
+            partialSums[2 * (get_group_id(0) * numberOfSums + e) + 1] = blockSumsLo[0];
+        }
+        barrier(CLK_LOCAL_MEM_FENCE);
+    }
+}
+
+/*
+ * Count the values of a in the bins defined by the (increasing) interval points, i.e., counts[k] is the number of
+ * values with points[k-1] < a[i] <= points[k] and counts[numberOfPoints] the number of values greater than the last point (or NaN).
+ * Each work group counts in local memory (numberOfPoints+1 unsigned ints) and adds its counts to the global counts.
+ */
+__kernel void histogram(int n, __global const float *a, int numberOfPoints, __global const float *points, __global unsigned int *counts, __local unsigned int *blockCounts)
+{
+    for(int k = get_local_id(0); k <= numberOfPoints; k += get_local_size(0)) blockCounts[k] = 0;
+    barrier(CLK_LOCAL_MEM_FENCE);
+
+    int i = get_global_id(0);
+    if (i<n)
+    {
+        float x = a[i];
+        int low = 0;
+        int high = numberOfPoints;
+        while(low < high) {
+            int mid = (low + high) >> 1;
+            if(x <= points[mid]) high = mid;
+            else low = mid+1;
+        }
+        atomic_inc(&blockCounts[low]);
+    }
+    barrier(CLK_LOCAL_MEM_FENCE);
+
+    for(int k = get_local_id(0); k <= numberOfPoints; k += get_local_size(0)) {
+        if(blockCounts[k] > 0) atomic_add(&counts[k], blockCounts[k]);
+    }
+}
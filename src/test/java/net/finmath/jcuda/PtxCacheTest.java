@@ -0,0 +1,158 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.jcuda;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for the class net.finmath.jcuda.PtxCache, using a stub compiler (a shell command writing a PTX derived from the source).
+ *
+ * @author Christian Fries
+ * @see net.finmath.jcuda.PtxCache
+ */
+public class PtxCacheTest {
+
+	// Writes "ptx of" followed by the source
+	private static final List<String> stubCompiler = Arrays.asList("/bin/sh", "-c", "{ echo 'ptx of'; cat \"$0\"; } > \"$1\"", "${input}", "${output}");
+
+	private static final List<String> failingCompiler = Arrays.asList("/bin/sh", "-c", "echo 'syntax error' >&2; exit 3", "${input}", "${output}");
+
+	private Path directory;
+
+	@Before
+	public void setUp() throws IOException {
+		Assume.assumeTrue("Requires a POSIX shell", new File("/bin/sh").canExecute());
+		directory = Files.createTempDirectory("ptxcache");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		if(directory != null) {
+			try(Stream<Path> files = Files.walk(directory)) {
+				files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+			}
+		}
+	}
+
+	@Test
+	public void testCompilesOncePerSource() throws IOException {
+		final Path cacheDirectory = directory.resolve("cache");
+		final URL cuFileURL = writeFile(directory.resolve("kernel.cu"), "__global__ void add() {}\n");
+
+		final PtxCache cache = new PtxCache(cacheDirectory, stubCompiler);
+		final Path ptxFile = cache.getPtxFile(cuFileURL);
+		Assert.assertEquals("ptx of\n__global__ void add() {}\n", new String(Files.readAllBytes(ptxFile), StandardCharsets.UTF_8));
+		Assert.assertTrue("PTX in cache directory", ptxFile.startsWith(cacheDirectory));
+		Assert.assertFalse("No PTX next to the source", Files.exists(directory.resolve("kernel.ptx")));
+
+		Assert.assertEquals(ptxFile, cache.getPtxFile(cuFileURL));
+		Assert.assertEquals("Compilations", 1, cache.getNumberOfCompilations());
+
+		// A new JVM (new cache object on the same directory) finds the PTX
+		final PtxCache cacheOfOtherJVM = new PtxCache(cacheDirectory, stubCompiler);
+		Assert.assertEquals(ptxFile, cacheOfOtherJVM.getPtxFile(cuFileURL));
+		Assert.assertEquals("Compilations of other JVM", 0, cacheOfOtherJVM.getNumberOfCompilations());
+
+		// Only the PTX remains in the cache directory (no temporary files)
+		try(Stream<Path> files = Files.list(cacheDirectory)) {
+			Assert.assertEquals(1, files.count());
+		}
+	}
+
+	@Test
+	public void testChangedSourceOrCompilerIsRecompiled() throws IOException {
+		final Path cacheDirectory = directory.resolve("cache");
+		final Path cuFile = directory.resolve("kernel.cu");
+
+		final PtxCache cache = new PtxCache(cacheDirectory, stubCompiler);
+		final Path ptxFile = cache.getPtxFile(writeFile(cuFile, "__global__ void add() {}\n"));
+		final Path ptxFileOfChangedSource = cache.getPtxFile(writeFile(cuFile, "__global__ void sub() {}\n"));
+		Assert.assertNotEquals(ptxFile, ptxFileOfChangedSource);
+		Assert.assertEquals("ptx of\n__global__ void sub() {}\n", new String(Files.readAllBytes(ptxFileOfChangedSource), StandardCharsets.UTF_8));
+		Assert.assertEquals("Compilations", 2, cache.getNumberOfCompilations());
+
+		// A different compiler command (e.g. another architecture) has its own entry
+		final PtxCache cacheWithOtherCompiler = new PtxCache(cacheDirectory, Arrays.asList("/bin/sh", "-c", "{ echo 'sm_70'; cat \"$0\"; } > \"$1\"", "${input}", "${output}"));
+		Assert.assertNotEquals(ptxFileOfChangedSource, cacheWithOtherCompiler.getPtxFile(cuFile.toUri().toURL()));
+		Assert.assertEquals("Compilations", 1, cacheWithOtherCompiler.getNumberOfCompilations());
+	}
+
+	@Test
+	public void testPrecompiledPtxIsUsedIfMatchingTheSource() throws IOException {
+		final String source = "__global__ void add() {}\n";
+		final URL cuFileURL = writeFile(directory.resolve("kernel.cu"), source);
+		writeFile(directory.resolve("kernel.ptx"), PtxCache.SOURCE_HASH_HEADER + PtxCache.getHash(source.getBytes(StandardCharsets.UTF_8)) + "\nprecompiled\n");
+
+		final PtxCache cache = new PtxCache(directory.resolve("cache"), failingCompiler);
+		final Path ptxFile = cache.getPtxFile(cuFileURL);
+		Assert.assertTrue(new String(Files.readAllBytes(ptxFile), StandardCharsets.UTF_8).endsWith("\nprecompiled\n"));
+		Assert.assertEquals("Compilations", 0, cache.getNumberOfCompilations());
+
+		// A stale precompiled PTX is ignored
+		final URL changedCuFileURL = writeFile(directory.resolve("kernel.cu"), "__global__ void sub() {}\n");
+		final PtxCache cacheWithCompiler = new PtxCache(directory.resolve("cache"), stubCompiler);
+		final Path ptxFileOfChangedSource = cacheWithCompiler.getPtxFile(changedCuFileURL);
+		Assert.assertEquals("ptx of\n__global__ void sub() {}\n", new String(Files.readAllBytes(ptxFileOfChangedSource), StandardCharsets.UTF_8));
+		Assert.assertEquals("Compilations", 1, cacheWithCompiler.getNumberOfCompilations());
+	}
+
+	@Test
+	public void testSourceInsideJar() throws IOException {
+		final Path jarFile = directory.resolve("kernels.jar");
+		try(JarOutputStream jar = new JarOutputStream(Files.newOutputStream(jarFile))) {
+			jar.putNextEntry(new JarEntry("net/finmath/montecarlo/kernel.cu"));
+			jar.write("__global__ void add() {}\n".getBytes(StandardCharsets.UTF_8));
+			jar.closeEntry();
+		}
+		final URL cuFileURL = new URL("jar:" + jarFile.toUri().toURL() + "!/net/finmath/montecarlo/kernel.cu");
+
+		final PtxCache cache = new PtxCache(directory.resolve("cache"), stubCompiler);
+		final Path ptxFile = cache.getPtxFile(cuFileURL);
+		Assert.assertTrue(ptxFile.getFileName().toString().startsWith("kernel-"));
+		Assert.assertEquals("ptx of\n__global__ void add() {}\n", new String(Files.readAllBytes(ptxFile), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testFailedCompilationLeavesNoEntry() throws IOException {
+		final Path cacheDirectory = directory.resolve("cache");
+		final PtxCache cache = new PtxCache(cacheDirectory, failingCompiler);
+		try {
+			cache.getPtxFile("fused", "__global__ void fused() {}\n".getBytes(StandardCharsets.UTF_8));
+			Assert.fail("Exception expected.");
+		}
+		catch(final IOException e) {
+			Assert.assertTrue(e.getMessage().contains("syntax error"));
+		}
+		try(Stream<Path> files = Files.list(cacheDirectory)) {
+			Assert.assertEquals(0, files.count());
+		}
+	}
+
+	private static URL writeFile(final Path file, final String content) throws IOException {
+		try(OutputStream outputStream = Files.newOutputStream(file)) {
+			outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+		}
+		return file.toUri().toURL();
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.montecarlo.cuda.alternative.BrownianMotionJavaRandom;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Test cases for the class net.finmath.montecarlo.BrownianIncrementCache and the generation of Brownian increments on demand.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.BrownianIncrementCache
+ */
+public class BrownianIncrementCacheTest {
+
+	private static final int numberOfFactors = 3;
+	private static final int numberOfPaths = 1001;
+
+	private final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 20, 0.25);
+
+	@Test
+	public void testOnDemandGenerationAgreesWithFullGeneration() {
+		final long bytesPerTimeStep = (long)Double.BYTES * numberOfFactors * numberOfPaths;
+
+		final BrownianMotion brownianMotion = new BrownianMotionJavaRandom(timeDiscretization, numberOfFactors, numberOfPaths, 3141, new RandomVariableFactory());
+		final BrownianMotion brownianMotionOnDemand = new BrownianMotionJavaRandom(timeDiscretization, numberOfFactors, numberOfPaths, 3141, new RandomVariableFactory(), 2 * bytesPerTimeStep);
+
+		// Access in an order which requires regeneration of dropped time steps
+		for(final int timeIndex : new int[] { 7, 0, 19, 7, 3, 0, 12, 19, 1 }) {
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				final RandomVariable expected = brownianMotion.getBrownianIncrement(timeIndex, factor);
+				final RandomVariable actual = brownianMotionOnDemand.getBrownianIncrement(timeIndex, factor);
+				Assert.assertEquals(expected.getFiltrationTime(), actual.getFiltrationTime(), 0.0);
+				Assert.assertArrayEquals(expected.getRealizations(), actual.getRealizations(), 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void testRetentionIsBounded() {
+		final int[] numberOfGenerations = new int[timeDiscretization.getNumberOfTimeSteps()];
+		final BrownianIncrementCache cache = new BrownianIncrementCache(timeDiscretization.getNumberOfTimeSteps(), 100, 350, timeIndex -> {
+			numberOfGenerations[timeIndex]++;
+			return new RandomVariable[] { new RandomVariableFromDoubleArray(timeIndex) };
+		});
+
+		Assert.assertEquals(3, cache.getMaximumNumberOfRetainedTimeSteps());
+
+		cache.getBrownianIncrement(0, 0);
+		cache.getBrownianIncrement(1, 0);
+		cache.getBrownianIncrement(2, 0);
+		cache.getBrownianIncrement(0, 0);		// 0 is now more recently used than 1
+		cache.getBrownianIncrement(3, 0);		// evicts 1
+		cache.getBrownianIncrement(0, 0);
+		cache.getBrownianIncrement(1, 0);		// regenerates 1, evicts 2
+
+		Assert.assertEquals(3, cache.getNumberOfRetainedTimeSteps());
+		Assert.assertEquals(5, cache.getNumberOfGeneratedTimeSteps());
+		Assert.assertArrayEquals(new int[] { 1, 2, 1, 1 }, new int[] { numberOfGenerations[0], numberOfGenerations[1], numberOfGenerations[2], numberOfGenerations[3] });
+		Assert.assertEquals(1.0, cache.getBrownianIncrement(1, 0).get(0), 0.0);
+	}
+
+	@Test
+	public void testConcurrentAccess() throws Exception {
+		final BrownianMotion brownianMotion = new BrownianMotionJavaRandom(timeDiscretization, numberOfFactors, numberOfPaths, 2718, new RandomVariableFloatFactory());
+		final BrownianMotion brownianMotionOnDemand = new BrownianMotionJavaRandom(timeDiscretization, numberOfFactors, numberOfPaths, 2718, new RandomVariableFloatFactory(), (long)5 * Float.BYTES * numberOfFactors * numberOfPaths);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Callable<Boolean>> tasks = new ArrayList<>();
+			for(int task=0; task<8; task++) {
+				final int offset = task;
+				tasks.add(() -> {
+					for(int i=0; i<200; i++) {
+						final int timeIndex = (offset * 7 + i * 3) % timeDiscretization.getNumberOfTimeSteps();
+						final int factor = i % numberOfFactors;
+						final RandomVariable expected = brownianMotion.getBrownianIncrement(timeIndex, factor);
+						final RandomVariable actual = brownianMotionOnDemand.getBrownianIncrement(timeIndex, factor);
+						if(expected.sub(actual).getStandardDeviation() != 0.0 || expected.getAverage() != actual.getAverage()) {
+							return false;
+						}
+					}
+					return true;
+				});
+			}
+			for(final Future<Boolean> result : executor.invokeAll(tasks)) {
+				Assert.assertTrue(result.get());
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+}
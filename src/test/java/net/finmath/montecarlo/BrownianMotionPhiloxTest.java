@@ -0,0 +1,109 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.functions.NormalDistribution;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Test cases for the classes net.finmath.montecarlo.PhiloxRandomNumberGenerator and net.finmath.montecarlo.BrownianMotionPhilox.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.BrownianMotionPhilox
+ */
+public class BrownianMotionPhiloxTest {
+
+	private final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 10, 0.1);
+
+	@Test
+	public void testKnownAnswers() {
+		// Known answer tests of Philox4x32-10 from the Random123 distribution
+		assertGenerate(new int[] { 0x6627e8d5, 0xe169c58d, 0xbc57ac4c, 0x9b00dbd8 },
+				0, 0, 0, 0, 0, 0);
+		assertGenerate(new int[] { 0x408f276d, 0x41c83b0e, 0xa20bc7c6, 0x6d5451fd },
+				0xffffffff, 0xffffffff, 0xffffffff, 0xffffffff, 0xffffffff, 0xffffffff);
+		assertGenerate(new int[] { 0xd16cfe09, 0x94fdcceb, 0x5001e420, 0x24126ea1 },
+				0xa4093822, 0x299f31d0, 0x243f6a88, 0x85a308d3, 0x13198a2e, 0x03707344);
+	}
+
+	@Test
+	public void testUniform() {
+		Assert.assertTrue(PhiloxRandomNumberGenerator.getUniform(0, 0) > 0.0);
+		Assert.assertTrue(PhiloxRandomNumberGenerator.getUniform(0xffffffff, 0xffffffff) < 1.0);
+	}
+
+	@Test
+	public void testIncrementsAreIndependentOfExecution() {
+		final int seed = 3141;
+		final int stream = 2;
+		// Odd number of paths larger than the parallel threshold and not a multiple of the chunk size
+		final int numberOfPaths = ParallelChunkExecutor.getParallelThreshold() + 2 * ParallelChunkExecutor.getChunkSize() + 3;
+
+		final BrownianMotion brownianMotion = new BrownianMotionPhilox(timeDiscretization, 2, numberOfPaths, seed, stream, new RandomVariableFactory());
+		final BrownianMotion brownianMotionFloat = new BrownianMotionPhilox(timeDiscretization, 2, numberOfPaths, seed, stream, new RandomVariableFloatFactory());
+
+		final int[] randomIntegers = new int[4];
+		for(final int timeIndex : new int[] { 0, 9 }) {
+			for(int factor=0; factor<2; factor++) {
+				final RandomVariable increment = brownianMotion.getBrownianIncrement(timeIndex, factor);
+				final RandomVariable incrementFloat = brownianMotionFloat.getBrownianIncrement(timeIndex, factor);
+				Assert.assertTrue(incrementFloat instanceof RandomVariableFromFloatArray);
+				Assert.assertEquals(timeDiscretization.getTime(timeIndex+1), increment.getFiltrationTime(), 0.0);
+
+				// Sequential reference
+				for(int path=0; path<numberOfPaths; path++) {
+					PhiloxRandomNumberGenerator.generate(seed, stream, path/2, timeIndex, factor, 0, randomIntegers);
+					final double uniform = PhiloxRandomNumberGenerator.getUniform(randomIntegers[2*(path%2)], randomIntegers[2*(path%2)+1]);
+					final double expected = NormalDistribution.inverseCumulativeDistribution(uniform) * Math.sqrt(timeDiscretization.getTimeStep(timeIndex));
+					Assert.assertEquals(expected, increment.get(path), 0.0);
+					Assert.assertEquals((float)expected, incrementFloat.get(path), 0.0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testMomentsAndStreams() {
+		final int numberOfPaths = 1000000;
+		final BrownianMotionPhilox brownianMotion = new BrownianMotionPhilox(timeDiscretization, 2, numberOfPaths, 1234);
+		final BrownianMotionPhilox brownianMotionOtherStream = brownianMotion.getCloneWithModifiedStream(1);
+		final BrownianMotion brownianMotionOtherSeed = brownianMotion.getCloneWithModifiedSeed(1235);
+
+		final double dt = 0.1;
+		for(final BrownianMotion brownian : new BrownianMotion[] { brownianMotion, brownianMotionOtherStream, brownianMotionOtherSeed }) {
+			for(int factor=0; factor<2; factor++) {
+				final RandomVariable increment = brownian.getBrownianIncrement(4, factor);
+				Assert.assertEquals(0.0, increment.getAverage(), 3.0 * Math.sqrt(dt) / Math.sqrt(numberOfPaths));
+				Assert.assertEquals(dt, increment.getVariance(), 3.0 * dt * Math.sqrt(2.0) / Math.sqrt(numberOfPaths));
+			}
+		}
+
+		// Increments of different factors, streams and seeds are uncorrelated
+		final RandomVariable increment = brownianMotion.getBrownianIncrement(4, 0);
+		for(final RandomVariable other : new RandomVariable[] {
+				brownianMotion.getBrownianIncrement(4, 1),
+				brownianMotion.getBrownianIncrement(5, 0),
+				brownianMotionOtherStream.getBrownianIncrement(4, 0),
+				brownianMotionOtherSeed.getBrownianIncrement(4, 0) }) {
+			final double correlation = increment.mult(other).getAverage() / dt;
+			Assert.assertEquals(0.0, correlation, 4.0 / Math.sqrt(numberOfPaths));
+		}
+
+		Assert.assertNotEquals(brownianMotion, brownianMotionOtherStream);
+		Assert.assertEquals(brownianMotion, brownianMotionOtherStream.getCloneWithModifiedStream(0));
+	}
+
+	private static void assertGenerate(final int[] expected, final int key0, final int key1, final int counter0, final int counter1, final int counter2, final int counter3) {
+		final int[] result = new int[4];
+		PhiloxRandomNumberGenerator.generate(key0, key1, counter0, counter1, counter2, counter3, result);
+		Assert.assertArrayEquals(expected, result);
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.functions.NormalDistribution;
+import net.finmath.montecarlo.cuda.alternative.BrownianMotionJavaRandom;
+import net.finmath.montecarlo.cuda.alternative.SamplingScheme;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Test cases for the sampling schemes (antithetic variates, Latin hypercube sampling) of the Brownian motions
+ * in net.finmath.montecarlo.cuda.alternative.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.cuda.alternative.SamplingScheme
+ */
+public class BrownianMotionSamplingSchemeTest {
+
+	private static final int numberOfFactors = 2;
+
+	private final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 10, 0.5);
+
+	@Test
+	public void testAntithetic() {
+		for(final int numberOfPaths : new int[] { 10000, 10001 }) {
+			final BrownianMotion brownianMotion = new BrownianMotionJavaRandom(timeDiscretization, numberOfFactors, numberOfPaths, 3141, new RandomVariableFactory(), SamplingScheme.ANTITHETIC);
+			final int numberOfIndependentPaths = (numberOfPaths + 1) / 2;
+
+			for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+				for(int factor=0; factor<numberOfFactors; factor++) {
+					final RandomVariable increment = brownianMotion.getBrownianIncrement(timeIndex, factor);
+					for(int path=numberOfIndependentPaths; path<numberOfPaths; path++) {
+						Assert.assertEquals(-increment.get(path-numberOfIndependentPaths), increment.get(path), 0.0);
+					}
+					if(numberOfPaths % 2 == 0) {
+						Assert.assertEquals(0.0, increment.getAverage(), 1E-15);
+					}
+					Assert.assertEquals(timeDiscretization.getTimeStep(timeIndex), increment.getVariance(), 0.05 * timeDiscretization.getTimeStep(timeIndex));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testLatinHypercube() {
+		final int numberOfPaths = 5000;
+		final BrownianMotion brownianMotion = new BrownianMotionJavaRandom(timeDiscretization, numberOfFactors, numberOfPaths, 3141, new RandomVariableFactory(), SamplingScheme.LATIN_HYPERCUBE);
+
+		for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+			final double sqrtOfTimeStep = Math.sqrt(timeDiscretization.getTimeStep(timeIndex));
+			for(int factor=0; factor<numberOfFactors; factor++) {
+				final RandomVariable increment = brownianMotion.getBrownianIncrement(timeIndex, factor);
+
+				// The k-th smallest realization lies in the k-th stratum
+				final double[] sortedRealizations = increment.getRealizations();
+				Arrays.sort(sortedRealizations);
+				for(int path=1; path<numberOfPaths; path++) {
+					final double stratumBoundary = NormalDistribution.inverseCumulativeDistribution((double)path / numberOfPaths) * sqrtOfTimeStep;
+					Assert.assertTrue(sortedRealizations[path-1] <= stratumBoundary + 1E-12);
+					Assert.assertTrue(sortedRealizations[path] >= stratumBoundary - 1E-12);
+				}
+			}
+
+			// Different factors are not correlated
+			final RandomVariable correlation = brownianMotion.getBrownianIncrement(timeIndex, 0).mult(brownianMotion.getBrownianIncrement(timeIndex, 1));
+			Assert.assertEquals(0.0, correlation.getAverage() / timeDiscretization.getTimeStep(timeIndex), 0.06);
+		}
+	}
+
+	@Test
+	public void testOnDemandGenerationAgreesWithFullGeneration() {
+		final int numberOfPaths = 1001;
+		final long bytesPerTimeStep = (long)Double.BYTES * numberOfFactors * numberOfPaths;
+
+		for(final SamplingScheme samplingScheme : SamplingScheme.values()) {
+			final BrownianMotion brownianMotion = new BrownianMotionJavaRandom(timeDiscretization, numberOfFactors, numberOfPaths, 2718, new RandomVariableFactory(), samplingScheme);
+			final BrownianMotion brownianMotionOnDemand = new BrownianMotionJavaRandom(timeDiscretization, numberOfFactors, numberOfPaths, 2718, new RandomVariableFactory(), samplingScheme, 2 * bytesPerTimeStep);
+
+			for(final int timeIndex : new int[] { 5, 0, 9, 5, 2 }) {
+				for(int factor=0; factor<numberOfFactors; factor++) {
+					Assert.assertArrayEquals(samplingScheme.name(), brownianMotion.getBrownianIncrement(timeIndex, factor).getRealizations(), brownianMotionOnDemand.getBrownianIncrement(timeIndex, factor).getRealizations(), 0.0);
+				}
+			}
+			Assert.assertEquals(brownianMotion, brownianMotionOnDemand);
+		}
+
+		// The standard scheme is the default
+		Assert.assertEquals(new BrownianMotionJavaRandom(timeDiscretization, numberOfFactors, numberOfPaths, 2718), new BrownianMotionJavaRandom(timeDiscretization, numberOfFactors, numberOfPaths, 2718, new RandomVariableFactory(), SamplingScheme.STANDARD));
+		Assert.assertNotEquals(new BrownianMotionJavaRandom(timeDiscretization, numberOfFactors, numberOfPaths, 2718), new BrownianMotionJavaRandom(timeDiscretization, numberOfFactors, numberOfPaths, 2718, new RandomVariableFactory(), SamplingScheme.ANTITHETIC));
+	}
+}
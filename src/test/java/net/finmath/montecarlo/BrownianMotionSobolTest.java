@@ -0,0 +1,125 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import org.apache.commons.math3.random.SobolSequenceGenerator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Test cases for the classes net.finmath.montecarlo.SobolSequence and net.finmath.montecarlo.BrownianMotionSobol.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.BrownianMotionSobol
+ */
+public class BrownianMotionSobolTest {
+
+	@Test
+	public void testSobolSequence() {
+		final int numberOfDimensions = 1000;
+		final SobolSequence sobolSequence = new SobolSequence(numberOfDimensions);
+		final SobolSequenceGenerator sobolSequenceGenerator = new SobolSequenceGenerator(numberOfDimensions);
+
+		final int[] point = new int[numberOfDimensions];
+		final int[] pointBySkipAhead = new int[numberOfDimensions];
+		for(int index=0; index<4096; index++) {
+			if(index == 0) {
+				sobolSequence.getPoint(index, point);
+			}
+			else {
+				sobolSequence.getNextPoint(index, point);
+			}
+			sobolSequence.getPoint(index, pointBySkipAhead);
+			Assert.assertArrayEquals(point, pointBySkipAhead);
+
+			// Compare the leading 32 bits with commons-math
+			final double[] expected = sobolSequenceGenerator.nextVector();
+			for(int dimension=0; dimension<numberOfDimensions; dimension++) {
+				Assert.assertEquals((long)(expected[dimension] * 4294967296.0), point[dimension] & 0xFFFFFFFFL);
+			}
+		}
+
+		// Dimensions beyond the tabulated direction numbers: each coordinate of the first 2^k points is a permutation of i / 2^k
+		final SobolSequence sobolSequenceHighDimension = new SobolSequence(5000);
+		final int numberOfPoints = 1024;
+		final boolean[][] isHit = new boolean[5000][numberOfPoints];
+		final int[] pointHighDimension = new int[5000];
+		for(int index=0; index<numberOfPoints; index++) {
+			sobolSequenceHighDimension.getPoint(index, pointHighDimension);
+			for(int dimension=0; dimension<5000; dimension++) {
+				final int cell = (int)((pointHighDimension[dimension] & 0xFFFFFFFFL) >>> 22);
+				Assert.assertFalse("dimension " + dimension, isHit[dimension][cell]);
+				isHit[dimension][cell] = true;
+			}
+		}
+	}
+
+	@Test
+	public void testBrownianMotion() {
+		final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 0.25, 0.5, 1.0, 1.5, 2.0, 3.0, 4.0);
+		final int numberOfPaths = 1 << 14;
+
+		for(final int seed : new int[] { 0, 3141 }) {
+			final BrownianMotion brownianMotion = new BrownianMotionSobol(timeDiscretization, 2, numberOfPaths, seed);
+
+			for(int factor=0; factor<2; factor++) {
+				RandomVariable brownianMotionAtTime = brownianMotion.getRandomVariableForConstant(0.0);
+				for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+					final RandomVariable increment = brownianMotion.getBrownianIncrement(timeIndex, factor);
+					final double timeStep = timeDiscretization.getTimeStep(timeIndex);
+
+					Assert.assertEquals(0.0, increment.getAverage(), 1E-3 * Math.sqrt(timeStep));
+					Assert.assertEquals(timeStep, increment.getVariance(), 1E-2 * timeStep);
+
+					// Increments are uncorrelated
+					Assert.assertEquals(0.0, increment.mult(brownianMotionAtTime).getAverage(), 2E-2);
+
+					brownianMotionAtTime = brownianMotionAtTime.add(increment);
+				}
+
+				// E[exp(sigma W(T) - sigma^2 T/2)] = 1, the quasi Monte-Carlo error is smaller than the Monte-Carlo error (standard error 0.01)
+				final double maturity = timeDiscretization.getTime(timeDiscretization.getNumberOfTimeSteps());
+				final double sigma = 0.5;
+				Assert.assertEquals(1.0, brownianMotionAtTime.mult(sigma).sub(sigma * sigma * maturity / 2).exp().getAverage(), 2.5E-3);
+			}
+		}
+	}
+
+	@Test
+	public void testBlocksAndFloatOutput() {
+		final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 5, 0.2);
+
+		// Number of paths larger than the parallel threshold, the paths are generated in blocks
+		final int numberOfPaths = ParallelChunkExecutor.getParallelThreshold() + ParallelChunkExecutor.getChunkSize() + 5;
+		final int numberOfPathsSmall = 1000;
+
+		final BrownianMotion brownianMotion = new BrownianMotionSobol(timeDiscretization, 2, numberOfPaths, 17, new RandomVariableFactory());
+		final BrownianMotion brownianMotionFloat = new BrownianMotionSobol(timeDiscretization, 2, numberOfPaths, 17, new RandomVariableFloatFactory());
+		final BrownianMotion brownianMotionSmall = new BrownianMotionSobol(timeDiscretization, 2, numberOfPathsSmall, 17, new RandomVariableFactory());
+
+		for(int timeIndex=0; timeIndex<timeDiscretization.getNumberOfTimeSteps(); timeIndex++) {
+			for(int factor=0; factor<2; factor++) {
+				final RandomVariable increment = brownianMotion.getBrownianIncrement(timeIndex, factor);
+				final RandomVariable incrementFloat = brownianMotionFloat.getBrownianIncrement(timeIndex, factor);
+				final RandomVariable incrementSmall = brownianMotionSmall.getBrownianIncrement(timeIndex, factor);
+
+				Assert.assertTrue(incrementFloat instanceof RandomVariableFromFloatArray);
+				for(int path=0; path<numberOfPaths; path++) {
+					Assert.assertEquals((float)increment.get(path), incrementFloat.get(path), 0.0);
+				}
+
+				// The paths do not depend on the total number of paths
+				for(int path=0; path<numberOfPathsSmall; path++) {
+					Assert.assertEquals(incrementSmall.get(path), increment.get(path), 0.0);
+				}
+			}
+		}
+	}
+}
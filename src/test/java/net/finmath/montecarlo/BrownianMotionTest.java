@@ -38,6 +38,7 @@ public class BrownianMotionTest {
 		return Arrays.asList(new Object[][] {
 			{ "BrownianMotionLazyInit" },							// Text case 1: Java implementation
 			{ "BrownianMotionJavaRandom" },					// Text case 2: Java implementation
+			{ "BrownianMotionPhilox" },						// Text case 2b: Java implementation (counter based, parallel)
 			{ "BrownianMotionCudaWithHostRandomVariable" },	// Text case 3: Java implementation
 			{ "BrownianMotionCudaWithRandomVariableCuda" }	// Text case 4: Java implementation
 		});
@@ -92,6 +93,10 @@ public class BrownianMotionTest {
 				brownian = new BrownianMotionJavaRandom(timeDiscretization, 1, numberOfPaths, seed,
 						new RandomVariableFactory(true));
 				break;
+			case "BrownianMotionPhilox":
+				brownian = new BrownianMotionPhilox(timeDiscretization, 1, numberOfPaths, seed,
+						new RandomVariableFactory(true));
+				break;
 			case "BrownianMotionCudaWithHostRandomVariable":
 				brownian = new BrownianMotionCudaWithHostRandomVariable(
 						timeDiscretization,
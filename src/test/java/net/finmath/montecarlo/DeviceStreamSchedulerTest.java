@@ -0,0 +1,285 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for the class net.finmath.montecarlo.DeviceStreamScheduler, using a simulated device whose streams
+ * execute their operations in an arbitrary interleaving, respecting only the order of a stream and the waits for events.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.DeviceStreamScheduler
+ */
+public class DeviceStreamSchedulerTest {
+
+	private static class SimulatedEvent {
+		private boolean isCompleted = false;
+		private boolean isDestroyed = false;
+	}
+
+	private static class SimulatedStream {
+		private final Deque<Object> operations = new ArrayDeque<Object>();
+	}
+
+	/**
+	 * A wait of a stream for an event.
+	 */
+	private static class Wait {
+		private final SimulatedEvent event;
+
+		Wait(final SimulatedEvent event) {
+			this.event = event;
+		}
+	}
+
+	/**
+	 * Simulated streams and events. The operations of the streams are executed by {@link #stepRandomStream(Random)} in random order
+	 * or on demand if the host synchronizes with an event.
+	 */
+	private static class SimulatedStreams implements DeviceStreamBackend<SimulatedStream, SimulatedEvent> {
+
+		private final List<SimulatedStream> streams = new ArrayList<SimulatedStream>();
+		private final SimulatedStream defaultStream = new SimulatedStream();
+		private int numberOfLiveEvents = 0;
+
+		SimulatedStreams() {
+			streams.add(defaultStream);
+		}
+
+		@Override
+		public SimulatedStream createStream() {
+			final SimulatedStream stream = new SimulatedStream();
+			streams.add(stream);
+			return stream;
+		}
+
+		@Override
+		public SimulatedStream getDefaultStream() {
+			return defaultStream;
+		}
+
+		@Override
+		public SimulatedEvent recordEvent(final SimulatedStream stream) {
+			final SimulatedEvent event = new SimulatedEvent();
+			stream.operations.add(event);
+			numberOfLiveEvents++;
+			return event;
+		}
+
+		@Override
+		public void waitForEvent(final SimulatedStream stream, final SimulatedEvent event) {
+			Assert.assertFalse("Wait for destroyed event", event.isDestroyed);
+			stream.operations.add(new Wait(event));
+		}
+
+		@Override
+		public void synchronize(final SimulatedEvent event) {
+			Assert.assertFalse("Synchronize with destroyed event", event.isDestroyed);
+			runUntil(event);
+		}
+
+		@Override
+		public void destroyEvent(final SimulatedEvent event) {
+			Assert.assertFalse("Event destroyed twice", event.isDestroyed);
+			event.isDestroyed = true;
+			numberOfLiveEvents--;
+		}
+
+		void enqueue(final SimulatedStream stream, final Runnable operation) {
+			stream.operations.add(operation);
+		}
+
+		/**
+		 * Execute the next operation of a random stream which is not blocked by a wait.
+		 */
+		boolean stepRandomStream(final Random random) {
+			final List<SimulatedStream> streamsInRandomOrder = new ArrayList<SimulatedStream>(streams);
+			Collections.shuffle(streamsInRandomOrder, random);
+			for(final SimulatedStream stream : streamsInRandomOrder) {
+				final Object operation = stream.operations.peek();
+				if(operation != null && !(operation instanceof Wait && !((Wait)operation).event.isCompleted)) {
+					step(stream);
+					return true;
+				}
+			}
+			return false;
+		}
+
+		int getNumberOfPendingOperations() {
+			int numberOfPendingOperations = 0;
+			for(final SimulatedStream stream : streams) {
+				for(final Object operation : stream.operations) {
+					if(operation instanceof Runnable) {
+						numberOfPendingOperations++;
+					}
+				}
+			}
+			return numberOfPendingOperations;
+		}
+
+		private void runUntil(final SimulatedEvent event) {
+			if(!event.isCompleted) {
+				final SimulatedStream stream = streams.stream().filter(s -> s.operations.contains(event)).findFirst().orElseThrow(() -> new IllegalStateException("Event not recorded."));
+				while(!event.isCompleted) {
+					step(stream);
+				}
+			}
+		}
+
+		private void step(final SimulatedStream stream) {
+			final Object operation = stream.operations.peek();
+			if(operation instanceof Wait) {
+				// Executes only the operations required by the wait (the event may have been destroyed after the wait has been enqueued)
+				runUntil(((Wait)operation).event);
+			}
+			else if(operation instanceof SimulatedEvent) {
+				((SimulatedEvent)operation).isCompleted = true;
+			}
+			else {
+				((Runnable)operation).run();
+			}
+			stream.operations.remove();
+		}
+	}
+
+	@Test
+	public void testRandomProgramUnderArbitraryInterleaving() {
+		for(int numberOfStreams=1; numberOfStreams<=4; numberOfStreams++) {
+			final Random random = new Random(3141 + numberOfStreams);
+			final SimulatedStreams device = new SimulatedStreams();
+			final DeviceStreamScheduler<Object, SimulatedStream, SimulatedEvent> scheduler = new DeviceStreamScheduler<Object, SimulatedStream, SimulatedEvent>(device, numberOfStreams);
+
+			// A few vectors which are re-used (as by the memory pool)
+			final List<Object> pointers = new ArrayList<Object>();
+			final Map<Object, double[]> memory = new HashMap<Object, double[]>();
+			final Map<Object, Double> expected = new HashMap<Object, Double>();
+			for(int i=0; i<6; i++) {
+				final Object pointer = new Object();
+				pointers.add(pointer);
+				memory.put(pointer, new double[] { i });
+				expected.put(pointer, (double)i);
+			}
+
+			for(int step=0; step<5000; step++) {
+				final Object output = pointers.get(random.nextInt(pointers.size()));
+				final double action = random.nextDouble();
+				if(action < 0.8) {
+					// Kernel: output = (input1 + 2 * input2 + step) mod 1000, possibly in place
+					final Object input1 = pointers.get(random.nextInt(pointers.size()));
+					final Object input2 = pointers.get(random.nextInt(pointers.size()));
+					final double constant = step;
+					scheduler.submit(Arrays.asList(input1, input2), Collections.singletonList(output),
+							stream -> device.enqueue(stream, () -> memory.get(output)[0] = (memory.get(input1)[0] + 2 * memory.get(input2)[0] + constant) % 1000));
+					expected.put(output, (expected.get(input1) + 2 * expected.get(input2) + constant) % 1000);
+				}
+				else if(action < 0.9) {
+					// Host read
+					scheduler.synchronizeForRead(output);
+					Assert.assertEquals("Value read by host", expected.get(output), memory.get(output)[0], 0.0);
+				}
+				else {
+					// Write on the default stream (e.g. synchronous transfer)
+					final double value = step;
+					scheduler.synchronize(output);
+					device.enqueue(device.getDefaultStream(), () -> memory.get(output)[0] = value);
+					scheduler.recordWrite(output);
+					expected.put(output, value);
+				}
+
+				// The device progresses independently of the host
+				for(int progress=random.nextInt(3); progress>0; progress--) {
+					device.stepRandomStream(random);
+				}
+			}
+
+			for(final Object pointer : pointers) {
+				scheduler.synchronize(pointer);
+				Assert.assertEquals("Value", expected.get(pointer), memory.get(pointer)[0], 0.0);
+			}
+			Assert.assertEquals("Tracked vectors", 0, scheduler.getNumberOfTrackedVectors());
+			Assert.assertEquals("Live events", 0, device.numberOfLiveEvents);
+			if(numberOfStreams > 1) {
+				Assert.assertTrue("Waits between streams", scheduler.getNumberOfStreamWaits() > 0);
+			}
+		}
+	}
+
+	@Test
+	public void testChainStaysOnStream() {
+		final SimulatedStreams device = new SimulatedStreams();
+		final DeviceStreamScheduler<Object, SimulatedStream, SimulatedEvent> scheduler = new DeviceStreamScheduler<Object, SimulatedStream, SimulatedEvent>(device, 4);
+
+		Object previous = new Object();
+		final SimulatedStream stream = scheduler.submit(Collections.emptyList(), Collections.singletonList(previous), s -> device.enqueue(s, () -> {}));
+		for(int i=0; i<100; i++) {
+			final Object result = new Object();
+			Assert.assertSame("Stream of chain", stream, scheduler.submit(Collections.singletonList(previous), Collections.singletonList(result), s -> device.enqueue(s, () -> {})));
+			previous = result;
+		}
+		Assert.assertEquals("Waits between streams", 0, scheduler.getNumberOfStreamWaits());
+		Assert.assertEquals("Host waits", 0, scheduler.getNumberOfHostWaits());
+	}
+
+	@Test
+	public void testHostReadWaitsOnlyForItsInputs() {
+		final SimulatedStreams device = new SimulatedStreams();
+		final DeviceStreamScheduler<Object, SimulatedStream, SimulatedEvent> scheduler = new DeviceStreamScheduler<Object, SimulatedStream, SimulatedEvent>(device, 2);
+
+		// Two independent valuations: a long one and a short one
+		final Object longResult = new Object();
+		final Object shortResult = new Object();
+		final SimulatedStream streamOfLong = scheduler.submit(Collections.emptyList(), Collections.singletonList(longResult), s -> device.enqueue(s, () -> {}));
+		final SimulatedStream streamOfShort = scheduler.submit(Collections.emptyList(), Collections.singletonList(shortResult), s -> device.enqueue(s, () -> {}));
+		for(int i=0; i<100; i++) {
+			scheduler.submit(Collections.singletonList(longResult), Collections.singletonList(longResult), s -> device.enqueue(s, () -> {}));
+		}
+		Assert.assertNotSame("Independent operations on different streams", streamOfLong, streamOfShort);
+
+		scheduler.synchronizeForRead(shortResult);
+		Assert.assertEquals("Pending operations of the other valuation", 101, device.getNumberOfPendingOperations());
+
+		scheduler.synchronizeForRead(longResult);
+		Assert.assertEquals("Pending operations", 0, device.getNumberOfPendingOperations());
+		Assert.assertEquals("Host waits", 2, scheduler.getNumberOfHostWaits());
+	}
+
+	@Test
+	public void testReusedVectorWaitsForPendingReads() {
+		final SimulatedStreams device = new SimulatedStreams();
+		final DeviceStreamScheduler<Object, SimulatedStream, SimulatedEvent> scheduler = new DeviceStreamScheduler<Object, SimulatedStream, SimulatedEvent>(device, 2);
+
+		final double[] vector = new double[] { 1.0 };
+		final double[] result = new double[1];
+		final Object pointer = new Object();
+		final Object pointerOfResult = new Object();
+
+		// The vector is written on the default stream and then read on a stream
+		device.enqueue(device.getDefaultStream(), () -> vector[0] = 2.0);
+		scheduler.recordWrite(pointer);
+		scheduler.submit(Collections.singletonList(pointer), Collections.singletonList(pointerOfResult), s -> device.enqueue(s, () -> result[0] = vector[0]));
+
+		// The vector is released and re-used for new data on another stream, which has to wait for the read
+		scheduler.submit(Collections.emptyList(), Collections.singletonList(pointer), s -> device.enqueue(s, () -> vector[0] = 3.0));
+		Assert.assertEquals("Waits between streams", 3, scheduler.getNumberOfStreamWaits());
+
+		scheduler.synchronize(pointer);
+		Assert.assertEquals(3.0, vector[0], 0.0);
+		scheduler.synchronizeForRead(pointerOfResult);
+		Assert.assertEquals(2.0, result[0], 0.0);
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for the class net.finmath.montecarlo.HistogramBinning, comparing with the histogram obtained from sorting.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.HistogramBinning
+ */
+public class HistogramBinningTest {
+
+	@Test
+	public void testHistogram() {
+		final double[][] intervalPointsCases = new double[][] {
+			{ 0.0 },
+			{ -1.0, 0.0, 1.0 },
+			{ -2.0, -1.5, -1.0, -0.5, 0.0, 0.5, 1.0, 1.5, 2.0 },		// uniform
+			{ -3.0, -0.1, 0.0, 0.0, 0.2, 0.25, 4.0 },				// non uniform with ties
+			{ 1.0, -1.0, 0.5, 2.0 },								// not increasing
+			{ 0.1, 0.2, 0.30000000000000004, 0.4, 0.5 }			// uniform, not representable as float
+		};
+
+		for(final int size : new int[] { 0, 1, 1000, 1000003 }) {
+			final float[] values = getValues(size);
+			final RandomVariableFromFloatArray randomVariable = new RandomVariableFromFloatArray(0.0, values);
+			for(final double[] intervalPoints : intervalPointsCases) {
+				final double[] expected = getHistogramBySorting(values, intervalPoints);
+				Assert.assertArrayEquals("size " + size + " points " + Arrays.toString(intervalPoints), expected, randomVariable.getHistogram(intervalPoints), 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void testBinsOnIntervalPoints() {
+		final HistogramBinning histogramBinning = new HistogramBinning(new double[] { 0.0, 1.0, 2.0, 3.0 });
+		Assert.assertEquals(5, histogramBinning.getNumberOfBins());
+		Assert.assertEquals(0, histogramBinning.getBin(-1.0));
+		Assert.assertEquals(0, histogramBinning.getBin(0.0));
+		Assert.assertEquals(1, histogramBinning.getBin(Math.nextUp(0.0)));
+		Assert.assertEquals(1, histogramBinning.getBin(1.0));
+		Assert.assertEquals(3, histogramBinning.getBin(3.0));
+		Assert.assertEquals(4, histogramBinning.getBin(Math.nextUp(3.0)));
+		Assert.assertEquals(4, histogramBinning.getBin(Double.POSITIVE_INFINITY));
+		Assert.assertEquals(0, histogramBinning.getBin(Double.NEGATIVE_INFINITY));
+		Assert.assertEquals(4, histogramBinning.getBin(Double.NaN));
+
+		// The float interval points give the same bins for float values
+		final double[] intervalPoints = new double[] { 0.1, 0.2, 0.30000000000000004, 1.0/3.0 };
+		final float[] intervalPointsAsFloat = new HistogramBinning(intervalPoints).getIntervalPointsAsFloat();
+		for(int k=0; k<intervalPoints.length; k++) {
+			Assert.assertTrue(intervalPointsAsFloat[k] <= intervalPoints[k]);
+			Assert.assertTrue(Math.nextUp(intervalPointsAsFloat[k]) > intervalPoints[k]);
+		}
+	}
+
+	private static double[] getHistogramBySorting(final float[] values, final double[] intervalPoints) {
+		final double[] histogramValues = new double[intervalPoints.length+1];
+		final float[] valuesSorted = values.clone();
+		Arrays.sort(valuesSorted);
+
+		int sampleIndex=0;
+		for (int intervalIndex=0; intervalIndex<intervalPoints.length; intervalIndex++)
+		{
+			int sampleCount = 0;
+			while (sampleIndex < valuesSorted.length && valuesSorted[sampleIndex] <= intervalPoints[intervalIndex])
+			{
+				sampleIndex++;
+				sampleCount++;
+			}
+			histogramValues[intervalIndex] = sampleCount;
+		}
+		histogramValues[intervalPoints.length] = valuesSorted.length-sampleIndex;
+
+		if(valuesSorted.length > 0) {
+			for(int i=0; i<histogramValues.length; i++) {
+				histogramValues[i] /= valuesSorted.length;
+			}
+		}
+		return histogramValues;
+	}
+
+	private static float[] getValues(final int size) {
+		final Random random = new Random(3141 + size);
+		final float[] values = new float[size];
+		for(int i=0; i<size; i++) {
+			// Include values on the interval points and NaN
+			switch(i % 7) {
+			case 0:
+				values[i] = (float)(random.nextInt(9) * 0.5 - 2.0);
+				break;
+			case 1:
+				values[i] = i % 1001 == 1 ? Float.NaN : (float)(0.1 * random.nextInt(6));
+				break;
+			default:
+				values[i] = (float)random.nextGaussian();
+			}
+		}
+		return values;
+	}
+}
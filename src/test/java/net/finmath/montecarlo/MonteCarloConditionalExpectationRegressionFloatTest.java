@@ -0,0 +1,92 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.montecarlo.conditionalexpectation.MonteCarloConditionalExpectationRegression;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Test cases for the class net.finmath.montecarlo.MonteCarloConditionalExpectationRegressionFloat,
+ * comparing the regression with net.finmath.montecarlo.conditionalexpectation.MonteCarloConditionalExpectationRegression.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.MonteCarloConditionalExpectationRegressionFloat
+ */
+public class MonteCarloConditionalExpectationRegressionFloatTest {
+
+	private static final int numberOfPaths = 300000;	// Above the threshold of the parallel execution
+
+	@Test
+	public void testRegression() {
+		final Random random = new Random(3141);
+		final double[] underlying = new double[numberOfPaths];
+		final double[] payoff = new double[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			underlying[i] = (float)Math.exp(0.2 * random.nextGaussian());
+			payoff[i] = (float)(Math.max(underlying[i] - 1.0, 0.0) + 0.1 * random.nextGaussian());
+		}
+
+		final RandomVariable x = new RandomVariableFromFloatArray(0.0, underlying);
+		final RandomVariable y = new RandomVariableFromFloatArray(1.0, payoff);
+		final RandomVariable[] basisFunctions = new RandomVariable[] { new RandomVariableFromFloatArray(1.0), x, x.squared(), x.squared().mult(x) };
+
+		final RandomVariable xReference = new RandomVariableFromDoubleArray(0.0, x.getRealizations());
+		final RandomVariable yReference = new RandomVariableFromDoubleArray(1.0, payoff);
+		final RandomVariable[] basisFunctionsReference = new RandomVariable[] { new RandomVariableFromDoubleArray(1.0), xReference, new RandomVariableFromDoubleArray(0.0, basisFunctions[2].getRealizations()), new RandomVariableFromDoubleArray(0.0, basisFunctions[3].getRealizations()) };
+
+		final MonteCarloConditionalExpectationRegressionFloat estimator = new MonteCarloConditionalExpectationRegressionFloat(basisFunctions);
+		final MonteCarloConditionalExpectationRegression estimatorReference = new MonteCarloConditionalExpectationRegression(basisFunctionsReference);
+
+		final double[] parameters = estimator.getLinearRegressionParameters(y);
+		final double[] parametersReference = estimatorReference.getLinearRegressionParameters(yReference);
+		Assert.assertArrayEquals(parametersReference, parameters, 1E-6);
+
+		final RandomVariable conditionalExpectation = y.getConditionalExpectation(estimator);
+		final RandomVariable conditionalExpectationReference = yReference.getConditionalExpectation(estimatorReference);
+		Assert.assertTrue(conditionalExpectation instanceof RandomVariableFromFloatArray);
+		Assert.assertEquals(conditionalExpectationReference.getFiltrationTime(), conditionalExpectation.getFiltrationTime(), 0.0);
+		final double[] realizations = conditionalExpectation.getRealizations();
+		final double[] realizationsReference = conditionalExpectationReference.getRealizations();
+		for(int i=0; i<numberOfPaths; i++) {
+			Assert.assertEquals(realizationsReference[i], realizations[i], 1E-5);
+		}
+	}
+
+	@Test
+	public void testNormalEquations() {
+		final RandomVariable x = new RandomVariableFromFloatArray(0.0, new double[] { 1.0, 2.0, 3.0, 4.0 });
+		final RandomVariable z = new RandomVariableFromFloatArray(0.0, new double[] { 0.0, 1.0, 0.0, 1.0 });
+		final RandomVariable y = new RandomVariableFromFloatArray(0.0, new double[] { 2.0, 4.0, 5.0, 9.0 });
+
+		final RegressionNormalEquations normalEquations = RegressionNormalEquations.of(new RandomVariable[] { x, new RandomVariableFromFloatArray(2.0), z }, y);
+		final double[][] xTx = normalEquations.getMatrix();
+		final double[] xTy = normalEquations.getVector();
+		Assert.assertArrayEquals(new double[] { 30.0/4, 20.0/4, 6.0/4 }, xTx[0], 1E-12);
+		Assert.assertArrayEquals(new double[] { 20.0/4, 16.0/4, 4.0/4 }, xTx[1], 1E-12);
+		Assert.assertArrayEquals(new double[] { 6.0/4, 4.0/4, 2.0/4 }, xTx[2], 1E-12);
+		Assert.assertArrayEquals(new double[] { 61.0/4, 40.0/4, 13.0/4 }, xTy, 1E-12);
+
+		// A deterministic y
+		final double[] xTyOfConstant = RegressionNormalEquations.of(new RandomVariable[] { x, new RandomVariableFromFloatArray(2.0) }, new RandomVariableFromFloatArray(3.0)).getVector();
+		Assert.assertArrayEquals(new double[] { 30.0/4, 6.0 }, xTyOfConstant, 1E-12);
+	}
+
+	@Test
+	public void testLinearlyDependentBasisFunctions() {
+		final RandomVariable x = new RandomVariableFromFloatArray(0.0, new double[] { 1.0, 2.0, 3.0, 4.0 });
+		final RandomVariable y = x.mult(2.0).add(1.0);
+
+		// The basis functions x and 2x are linearly dependent
+		final RandomVariable[] basisFunctions = new RandomVariable[] { new RandomVariableFromFloatArray(1.0), x, x.mult(2.0) };
+		final RandomVariable conditionalExpectation = y.getConditionalExpectation(new MonteCarloConditionalExpectationRegressionFloat(basisFunctions));
+		Assert.assertArrayEquals(y.getRealizations(), conditionalExpectation.getRealizations(), 1E-5);
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.math3.util.FastMath;
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Test cases for the parallel execution of RandomVariableFromFloatArray via ParallelChunkExecutor.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.ParallelChunkExecutor
+ */
+public class ParallelChunkExecutorTest {
+
+	private static final int numberOfPaths = 1000003;
+
+	@Test
+	public void testElementwiseOperations() {
+		Assert.assertTrue(ParallelChunkExecutor.isParallel(numberOfPaths));
+
+		final float[] x = getRealizations(3141);
+		final float[] y = getRealizations(2718);
+
+		final RandomVariable valueParallel = new RandomVariableFromFloatArray(0.0, x).exp().mult(100.0).sub(new RandomVariableFromFloatArray(0.0, y)).floor(0.0).discount(new RandomVariableFromFloatArray(1.0, y).abs(), 0.5);
+
+		for(int i=0; i<numberOfPaths; i++) {
+			final float expected = Math.max((float)FastMath.exp(x[i]) * 100.0f - y[i], 0.0f) / (1.0f + Math.abs(y[i]) * 0.5f);
+			Assert.assertEquals("path " + i, Float.floatToRawIntBits(expected), Float.floatToRawIntBits((float)valueParallel.get(i)));
+		}
+		Assert.assertEquals(1.0, valueParallel.getFiltrationTime(), 0.0);
+	}
+
+	@Test
+	public void testReductionsAreDeterministic() throws Exception {
+		final RandomVariable randomVariable = new RandomVariableFromFloatArray(0.0, getRealizations(3141));
+
+		// Expected: chunk-wise Kahan summation, partial sums combined in chunk order
+		final int chunkSize = ParallelChunkExecutor.getChunkSize();
+		double sum = 0.0;
+		double error = 0.0;
+		for(int chunkStart=0; chunkStart<numberOfPaths; chunkStart+=chunkSize) {
+			double partialSum = 0.0;
+			double partialError = 0.0;
+			for(int i=chunkStart; i<Math.min(chunkStart+chunkSize, numberOfPaths); i++) {
+				final double value = randomVariable.get(i) - partialError;
+				final double newSum = partialSum + value;
+				partialError = (newSum - partialSum) - value;
+				partialSum = newSum;
+			}
+			final double value = partialSum - error;
+			final double newSum = sum + value;
+			error = (newSum - sum) - value;
+			sum = newSum;
+		}
+		final double average = sum / numberOfPaths;
+
+		Assert.assertEquals(average, randomVariable.getAverage(), 0.0);
+		for(int repetition=0; repetition<10; repetition++) {
+			Assert.assertEquals(average, randomVariable.getAverage(), 0.0);
+		}
+
+		// Same result when called from another pool (e.g. a valuation running in parallel)
+		final double averageFromOtherPool = new ForkJoinPool(3).submit(() -> randomVariable.getAverage()).get();
+		Assert.assertEquals(average, averageFromOtherPool, 0.0);
+
+		// Same result when called from within the pool
+		final double averageFromPool = ParallelChunkExecutor.getPool().submit(() -> randomVariable.getAverage()).get();
+		Assert.assertEquals(average, averageFromPool, 0.0);
+
+		Assert.assertEquals(1.0, randomVariable.getVariance(), 1E-2);
+		Assert.assertEquals(randomVariable.getVariance(), randomVariable.getVariance(), 0.0);
+	}
+
+	private static float[] getRealizations(final long seed) {
+		final Random random = new Random(seed);
+		final float[] realizations = new float[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			realizations[i] = (float)random.nextGaussian();
+		}
+		return realizations;
+	}
+}
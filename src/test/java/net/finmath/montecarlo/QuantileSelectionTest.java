@@ -0,0 +1,104 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for the class net.finmath.montecarlo.QuantileSelection, comparing with the values obtained from sorting.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.QuantileSelection
+ */
+public class QuantileSelectionTest {
+
+	private static final double[] quantiles = { 0.0, 0.001, 0.01, 0.025, 0.05, 0.1, 0.5, 0.9, 0.95, 0.975, 0.99, 0.999, 1.0 };
+
+	@Test
+	public void testQuantiles() {
+		for(final int size : new int[] { 1, 2, 15, 17, 1000, 100001 }) {
+			for(final boolean withTies : new boolean[] { false, true }) {
+				final float[] values = getValues(size, withTies);
+				final float[] valuesClone = values.clone();
+				final float[] valuesSorted = values.clone();
+				Arrays.sort(valuesSorted);
+
+				final RandomVariableFromFloatArray randomVariable = new RandomVariableFromFloatArray(0.0, values);
+				final double[] quantileValues = randomVariable.getQuantiles(quantiles);
+				for(int i=0; i<quantiles.length; i++) {
+					final double expected = valuesSorted[QuantileSelection.getIndexOfQuantile(size, quantiles[i])];
+					Assert.assertEquals("size " + size + " quantile " + quantiles[i], expected, quantileValues[i], 0.0);
+					Assert.assertEquals("size " + size + " quantile " + quantiles[i], expected, randomVariable.getQuantile(quantiles[i]), 0.0);
+				}
+
+				// Quantile expectation (expected shortfall)
+				for(final double[] range : new double[][] { { 0.0, 0.01 }, { 0.975, 1.0 }, { 0.25, 0.75 } }) {
+					final int indexStart = QuantileSelection.getIndexOfQuantile(size, range[0]);
+					final int indexEnd = QuantileSelection.getIndexOfQuantile(size, range[1]);
+					double expected = 0.0;
+					for(int i=indexStart; i<=indexEnd; i++) {
+						expected += valuesSorted[i];
+					}
+					expected /= indexEnd-indexStart+1;
+					Assert.assertEquals(expected, randomVariable.getQuantileExpectation(range[0], range[1]), 1E-12 * Math.abs(expected) + 1E-12);
+				}
+
+				// With sorted view
+				randomVariable.cacheSortedRealizations();
+				Assert.assertArrayEquals(quantileValues, randomVariable.getQuantiles(quantiles), 0.0);
+
+				// The realizations are not modified
+				Assert.assertArrayEquals(valuesClone, values, 0.0f);
+			}
+		}
+	}
+
+	@Test
+	public void testWeightedQuantile() {
+		final int size = 20001;
+		final Random random = new Random(3141);
+		final float[] values = getValues(size, true);
+		final double[] weights = new double[size];
+		for(int i=0; i<size; i++) {
+			weights[i] = random.nextDouble();
+		}
+
+		// Brute force: sort indices by value, find the first value where the cumulative weight reaches the quantile
+		final Integer[] indices = IntStream.range(0, size).boxed().toArray(Integer[]::new);
+		Arrays.sort(indices, Comparator.comparing(i -> values[i]));
+		final double totalWeight = Arrays.stream(weights).sum();
+
+		final RandomVariableFromFloatArray randomVariable = new RandomVariableFromFloatArray(0.0, values);
+		final RandomVariableFromDoubleArray probabilities = new RandomVariableFromDoubleArray(0.0, weights);
+		for(final double quantile : new double[] { 0.001, 0.05, 0.5, 0.95, 0.999 }) {
+			double cumulativeWeight = 0.0;
+			float expected = Float.NaN;
+			for(final Integer index : indices) {
+				cumulativeWeight += weights[index];
+				if(cumulativeWeight >= quantile * totalWeight) {
+					expected = values[index];
+					break;
+				}
+			}
+			Assert.assertEquals("quantile " + quantile, expected, randomVariable.getQuantile(quantile, probabilities), 0.0);
+		}
+	}
+
+	private static float[] getValues(final int size, final boolean withTies) {
+		final Random random = new Random(2718 + size);
+		final float[] values = new float[size];
+		for(int i=0; i<size; i++) {
+			values[i] = withTies ? (float)random.nextInt(50) : (float)random.nextGaussian();
+		}
+		return values;
+	}
+}
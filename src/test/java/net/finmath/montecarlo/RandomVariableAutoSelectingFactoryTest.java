@@ -0,0 +1,93 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Test cases for the class net.finmath.montecarlo.RandomVariableAutoSelectingFactory.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.RandomVariableAutoSelectingFactory
+ */
+public class RandomVariableAutoSelectingFactoryTest {
+
+	@Test
+	public void testSelectionByCostModel() {
+		// A backend with low fixed cost and a backend with low cost per path (break even at 10000 paths)
+		final RandomVariableAutoSelectingFactory factory = new RandomVariableAutoSelectingFactory(
+				new String[] { "float", "double" },
+				new AbstractRandomVariableFactory[] { new RandomVariableFloatFactory(), new RandomVariableFactory() },
+				new double[] { 0.0, 90000.0 },
+				new double[] { 10.0, 1.0 });
+
+		Assert.assertEquals(0, factory.getBackendIndex(1000));
+		Assert.assertEquals(0, factory.getBackendIndex(10000));
+		Assert.assertEquals(1, factory.getBackendIndex(10001));
+
+		Assert.assertTrue(factory.createRandomVariable(0.0, new double[1000]) instanceof RandomVariableFromFloatArray);
+		Assert.assertTrue(factory.createRandomVariable(0.0, new float[1000]) instanceof RandomVariableFromFloatArray);
+		Assert.assertTrue(factory.createRandomVariable(0.0, new double[20000]) instanceof RandomVariableFromDoubleArray);
+		Assert.assertTrue(factory.createRandomVariable(0.0, new float[20000]) instanceof RandomVariableFromDoubleArray);
+
+		// Constants are created by the fallback
+		Assert.assertTrue(factory.createRandomVariable(1.0) instanceof RandomVariableFromFloatArray);
+	}
+
+	@Test
+	public void testFallbackIfDeviceIsNotAvailable() {
+		final Map<String, Supplier<AbstractRandomVariableFactory>> candidates = new LinkedHashMap<String, Supplier<AbstractRandomVariableFactory>>();
+		candidates.put("float", RandomVariableFloatFactory::new);
+		candidates.put("device", () -> { throw new UnsatisfiedLinkError("No device."); });
+		candidates.put("broken", () -> new AbstractRandomVariableFactory() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public RandomVariable createRandomVariable(final double time, final double[] values) {
+				return new RandomVariableFromDoubleArray(time, new double[values.length]);
+			}
+
+			@Override
+			public RandomVariable createRandomVariable(final double time, final double value) {
+				return new RandomVariableFromDoubleArray(time, value);
+			}
+		});
+
+		final RandomVariableAutoSelectingFactory factory = new RandomVariableAutoSelectingFactory(candidates, RandomVariableAutoSelectingFactory.DEFAULT_OPERATION_MIX, 16, 1024);
+
+		Assert.assertEquals(1, factory.getNumberOfBackends());
+		Assert.assertEquals("float", factory.getBackendName(0));
+		Assert.assertTrue(factory.getFixedCost(0) >= 0.0);
+		Assert.assertTrue(factory.getCostPerPath(0) >= 0.0);
+		Assert.assertTrue(factory.createRandomVariable(0.0, new double[1 << 20]) instanceof RandomVariableFromFloatArray);
+	}
+
+	@Test
+	public void testDefaultCandidates() {
+		final RandomVariableAutoSelectingFactory factory = new RandomVariableAutoSelectingFactory();
+
+		Assert.assertEquals("float", factory.getBackendName(0));
+
+		final double[] values = new double[100000];
+		for(int i=0; i<values.length; i++) {
+			values[i] = i % 7 - 3.0;
+		}
+		for(final int numberOfPaths : new int[] { 10, values.length }) {
+			final double[] valuesOfSize = java.util.Arrays.copyOf(values, numberOfPaths);
+			final RandomVariable randomVariable = factory.createRandomVariable(0.0, valuesOfSize);
+			final RandomVariable reference = new RandomVariableFromDoubleArray(0.0, valuesOfSize);
+
+			Assert.assertEquals(reference.squared().add(1.0).getAverage(), randomVariable.squared().add(factory.createRandomVariable(1.0)).getAverage(), 1E-5);
+		}
+	}
+}
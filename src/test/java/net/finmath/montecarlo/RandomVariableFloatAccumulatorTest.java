@@ -0,0 +1,87 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Test cases for the class net.finmath.montecarlo.RandomVariableFloatAccumulator, comparing the in-place operations with the
+ * operations of net.finmath.montecarlo.RandomVariableFromFloatArray.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.RandomVariableFloatAccumulator
+ */
+public class RandomVariableFloatAccumulatorTest {
+
+	private static final int numberOfPaths = 300000;	// Above the threshold of the parallel execution
+
+	@Test
+	public void testOperations() {
+		final Random random = new Random(3141);
+		final RandomVariable a = new RandomVariableFromFloatArray(0.5, getValues(random));
+		final RandomVariable b = new RandomVariableFromFloatArray(1.0, getValues(random));
+		final RandomVariable rate = new RandomVariableFromFloatArray(0.25, getValues(random)).mult(0.01).add(0.03);
+		final RandomVariable constant = new RandomVariableFromFloatArray(2.0, 0.7);
+		final RandomVariable otherType = new RandomVariableFromDoubleArray(0.0, getValues(random));
+
+		final RandomVariableFloatAccumulator accumulator = new RandomVariableFloatAccumulator(a);
+		accumulator.addProduct(a, b).addProduct(b, 0.3).addProduct(constant, b).add(b).add(0.1).add(constant)
+		.mult(b).mult(1.1).accrue(rate, 0.5).discount(rate, 0.25).discount(constant, 0.5).cap(1.5).floor(-1.0).cap(b).floor(a.mult(-2.0))
+		.add(otherType);
+		Assert.assertFalse(accumulator.isFrozen());
+
+		final RandomVariable expected = a.addProduct(a, b).addProduct(b, 0.3).addProduct(constant, b).add(b).add(0.1).add(constant)
+				.mult(b).mult(1.1).accrue(rate, 0.5).discount(rate, 0.25).discount(constant, 0.5).cap(1.5).floor(-1.0).cap(b).floor(a.mult(-2.0))
+				.add(otherType);
+
+		final RandomVariable result = accumulator.freeze();
+		Assert.assertTrue(accumulator.isFrozen());
+		Assert.assertTrue(result instanceof RandomVariableFromFloatArray);
+		Assert.assertEquals(expected.getFiltrationTime(), result.getFiltrationTime(), 0.0);
+		Assert.assertArrayEquals(expected.getRealizations(), result.getRealizations(), 1E-6);
+	}
+
+	@Test
+	public void testDeterministicInitialValue() {
+		final RandomVariable x = new RandomVariableFromFloatArray(1.0, new double[] { 1.0, 2.0, 3.0 });
+
+		final RandomVariable result = new RandomVariableFloatAccumulator(new RandomVariableFromFloatArray(2.0), 3).addProduct(x, x).freeze();
+		Assert.assertArrayEquals(new double[] { 3.0, 6.0, 11.0 }, result.getRealizations(), 0.0);
+		Assert.assertEquals(1.0, result.getFiltrationTime(), 0.0);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testFrozenAccumulatorIsImmutable() {
+		final RandomVariableFloatAccumulator accumulator = new RandomVariableFloatAccumulator(0.0, 3);
+		accumulator.freeze();
+		accumulator.add(1.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSizeMismatch() {
+		new RandomVariableFloatAccumulator(0.0, 3).add(new RandomVariableFromFloatArray(0.0, new double[] { 1.0, 2.0 }));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTypePriority() {
+		final RandomVariable sharded = new RandomVariableShardedFactory(new AbstractRandomVariableFactory[] { new RandomVariableFloatFactory() }, new double[] { 1.0 })
+				.createRandomVariable(0.0, new double[] { 1.0, 2.0, 3.0 });
+		new RandomVariableFloatAccumulator(0.0, 3).add(sharded);
+	}
+
+	private static double[] getValues(final Random random) {
+		final double[] values = new double[numberOfPaths];
+		for(int i=0; i<values.length; i++) {
+			values[i] = random.nextGaussian();
+		}
+		return values;
+	}
+}
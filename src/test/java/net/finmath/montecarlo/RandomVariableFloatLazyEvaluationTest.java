@@ -0,0 +1,181 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.montecarlo.expression.FloatExpression;
+import net.finmath.montecarlo.expression.FloatExpressionProgram;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Test cases for the class net.finmath.montecarlo.RandomVariableFloatLazyEvaluation.
+ *
+ * The lazy evaluation has to reproduce the results of RandomVariableFromFloatArray bit-by-bit.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.RandomVariableFloatLazyEvaluation
+ */
+public class RandomVariableFloatLazyEvaluationTest {
+
+	private static final int numberOfPaths = 10000;
+
+	/**
+	 * Operations on the arguments x, y, z (stochastic) and c (deterministic).
+	 */
+	private static Map<String, Function<RandomVariable[], RandomVariable>> getOperations() {
+		final Map<String, Function<RandomVariable[], RandomVariable>> operations = new LinkedHashMap<>();
+		operations.put("cap",			a -> a[0].cap(0.3));
+		operations.put("floor",			a -> a[0].floor(-0.3));
+		operations.put("add",			a -> a[0].add(0.1));
+		operations.put("sub",			a -> a[0].sub(0.1));
+		operations.put("mult",			a -> a[0].mult(0.1));
+		operations.put("div",			a -> a[0].div(0.3));
+		operations.put("pow",			a -> a[0].abs().pow(1.7));
+		operations.put("squared",		a -> a[0].squared());
+		operations.put("sqrt",			a -> a[0].sqrt());
+		operations.put("exp",			a -> a[0].exp());
+		operations.put("log",			a -> a[0].log());
+		operations.put("sin",			a -> a[0].sin());
+		operations.put("cos",			a -> a[0].cos());
+		operations.put("invert",		a -> a[0].invert());
+		operations.put("abs",			a -> a[0].abs());
+		operations.put("isNaN",			a -> a[0].log().isNaN());
+		operations.put("add rv",		a -> a[0].add(a[1]));
+		operations.put("sub rv",		a -> a[0].sub(a[1]));
+		operations.put("bus rv",		a -> a[0].bus(a[1]));
+		operations.put("mult rv",		a -> a[0].mult(a[1]));
+		operations.put("div rv",		a -> a[0].div(a[1]));
+		operations.put("vid rv",		a -> a[0].vid(a[1]));
+		operations.put("cap rv",		a -> a[0].cap(a[1]));
+		operations.put("floor rv",		a -> a[0].floor(a[1]));
+		operations.put("accrue",		a -> a[0].accrue(a[1], 0.5));
+		operations.put("discount",		a -> a[0].discount(a[1], 0.5));
+		operations.put("addProduct",	a -> a[0].addProduct(a[1], 0.7));
+		operations.put("addProduct rv",	a -> a[0].addProduct(a[1], a[2]));
+		operations.put("addRatio",		a -> a[0].addRatio(a[1], a[2]));
+		operations.put("subRatio",		a -> a[0].subRatio(a[1], a[2]));
+		operations.put("choose",		a -> a[0].choose(a[1], a[2]));
+		operations.put("deterministic add",			a -> a[3].add(a[0]));
+		operations.put("deterministic sub",			a -> a[3].sub(a[0]));
+		operations.put("deterministic bus",			a -> a[3].bus(a[0]));
+		operations.put("deterministic mult",		a -> a[3].mult(a[0]));
+		operations.put("deterministic div",			a -> a[3].div(a[0]));
+		operations.put("deterministic vid",			a -> a[3].vid(a[0]));
+		operations.put("deterministic cap",			a -> a[3].cap(a[0]));
+		operations.put("deterministic floor",		a -> a[3].floor(a[0]));
+		operations.put("deterministic accrue",		a -> a[3].accrue(a[0], 0.5));
+		operations.put("deterministic discount",	a -> a[3].discount(a[0], 0.5));
+		operations.put("deterministic addProduct",	a -> a[3].addProduct(a[0], a[1]));
+		operations.put("deterministic addRatio",	a -> a[3].addRatio(a[0], a[1]));
+		operations.put("rv deterministic",			a -> a[0].add(a[3]).sub(a[3]).mult(a[3]).div(a[3]).cap(a[3]).floor(a[3]).accrue(a[3], 0.5).discount(a[3], 0.5));
+		operations.put("choose deterministic",		a -> a[0].choose(a[3], a[1]));
+		operations.put("payoff",					a -> a[0].exp().mult(100.0).sub(a[1].exp().mult(95.0)).floor(0.0).discount(a[2].abs(), 2.0).addProduct(a[1], a[2]));
+		operations.put("shared",					a -> { final RandomVariable s = a[0].add(a[1]).exp(); return s.mult(s).add(s.sqrt()).sub(s); });
+		return operations;
+	}
+
+	@Test
+	public void testBitwiseIdenticalToRandomVariableFromFloatArray() {
+		final RandomVariable[] argumentsEager = getArguments(new RandomVariableFloatFactory());
+		final RandomVariable[] argumentsLazy = getArguments(new RandomVariableFloatLazyEvaluationFactory());
+
+		for(final Map.Entry<String, Function<RandomVariable[], RandomVariable>> operation : getOperations().entrySet()) {
+			final RandomVariable valueEager = operation.getValue().apply(argumentsEager);
+			final RandomVariable valueLazy = operation.getValue().apply(argumentsLazy);
+
+			Assert.assertTrue(operation.getKey(), valueLazy instanceof RandomVariableFloatLazyEvaluation);
+			Assert.assertEquals(operation.getKey(), valueEager.getFiltrationTime(), valueLazy.getFiltrationTime(), 0.0);
+			Assert.assertEquals(operation.getKey(), valueEager.size(), valueLazy.size());
+			for(int i=0; i<valueEager.size(); i++) {
+				Assert.assertEquals(operation.getKey() + " path " + i, Float.floatToRawIntBits((float)valueEager.get(i)), Float.floatToRawIntBits((float)valueLazy.get(i)));
+			}
+			Assert.assertEquals(operation.getKey(), valueEager.getAverage(), valueLazy.getAverage(), 0.0);
+		}
+	}
+
+	@Test
+	public void testMixedWithRandomVariableFromFloatArray() {
+		final RandomVariable[] argumentsEager = getArguments(new RandomVariableFloatFactory());
+		final RandomVariable[] argumentsMixed = getArguments(new RandomVariableFloatFactory());
+		argumentsMixed[0] = new RandomVariableFloatLazyEvaluation(argumentsMixed[0]);
+
+		final RandomVariable valueEager = argumentsEager[1].sub(argumentsEager[0]).div(argumentsEager[2]).addProduct(argumentsEager[1], argumentsEager[0]);
+		final RandomVariable valueMixed = argumentsMixed[1].sub(argumentsMixed[0]).div(argumentsMixed[2]).addProduct(argumentsMixed[1], argumentsMixed[0]);
+
+		Assert.assertTrue(valueMixed instanceof RandomVariableFloatLazyEvaluation);
+		for(int i=0; i<valueEager.size(); i++) {
+			Assert.assertEquals("path " + i, Float.floatToRawIntBits((float)valueEager.get(i)), Float.floatToRawIntBits((float)valueMixed.get(i)));
+		}
+	}
+
+	@Test
+	public void testLongChainAndFusion() {
+		final RandomVariable[] argumentsEager = getArguments(new RandomVariableFloatFactory());
+		final RandomVariable[] argumentsLazy = getArguments(new RandomVariableFloatLazyEvaluationFactory());
+
+		// A chain longer than the maximum number of pending operations (forces intermediate evaluation)
+		RandomVariable valueEager = argumentsEager[0];
+		RandomVariable valueLazy = argumentsLazy[0];
+		for(int i=0; i<10*FloatExpression.getMaximumNumberOfOperations(); i++) {
+			valueEager = valueEager.addProduct(argumentsEager[1], 0.01).mult(0.999);
+			valueLazy = valueLazy.addProduct(argumentsLazy[1], 0.01).mult(0.999);
+
+			Assert.assertTrue(((RandomVariableFloatLazyEvaluation)valueLazy).getExpression().getNumberOfPendingOperations() <= FloatExpression.getMaximumNumberOfOperations());
+		}
+
+		for(int i=0; i<valueEager.size(); i++) {
+			Assert.assertEquals("path " + i, Float.floatToRawIntBits((float)valueEager.get(i)), Float.floatToRawIntBits((float)valueLazy.get(i)));
+		}
+
+		// A short chain is compiled to a program with one instruction per operation and without intermediate evaluation
+		final RandomVariable payoff = argumentsLazy[0].exp().mult(100.0).sub(95.0).floor(0.0);
+		final FloatExpressionProgram program = FloatExpressionProgram.of(((RandomVariableFloatLazyEvaluation)payoff).getExpression());
+		Assert.assertEquals(4, program.getInstructions().size());
+		Assert.assertEquals(1, program.getInputs().size());
+		Assert.assertEquals("t0=EXP(i0);t1=MULT_SCALAR(t0);t2=SUB_SCALAR(t1);t3=FLOOR_SCALAR(t2);", program.getShape());
+		Assert.assertFalse(((RandomVariableFloatLazyEvaluation)payoff).getExpression().isEvaluated());
+
+		payoff.cache();
+		Assert.assertTrue(((RandomVariableFloatLazyEvaluation)payoff).getExpression().isEvaluated());
+	}
+
+	@Test
+	public void testDeterministic() {
+		final RandomVariable[] argumentsEager = getArguments(new RandomVariableFloatFactory());
+		final RandomVariable[] argumentsLazy = getArguments(new RandomVariableFloatLazyEvaluationFactory());
+
+		final RandomVariable valueEager = argumentsEager[3].mult(2.0).add(1.0).squared().sub(4.0).div(7.0).exp().log();
+		final RandomVariable valueLazy = argumentsLazy[3].mult(2.0).add(1.0).squared().sub(4.0).div(7.0).exp().log();
+
+		Assert.assertTrue(valueLazy.isDeterministic());
+		Assert.assertEquals(valueEager.doubleValue(), valueLazy.doubleValue(), 0.0);
+		Assert.assertEquals(0.0, valueLazy.getVariance(), 0.0);
+	}
+
+	private static RandomVariable[] getArguments(final AbstractRandomVariableFactory randomVariableFactory) {
+		final Random random = new Random(3141);
+		final List<RandomVariable> arguments = new ArrayList<>();
+		for(int argumentIndex=0; argumentIndex<3; argumentIndex++) {
+			final double[] realizations = new double[numberOfPaths];
+			for(int i=0; i<numberOfPaths; i++) {
+				realizations[i] = random.nextGaussian();
+			}
+			realizations[argumentIndex] = 0.0;
+			arguments.add(randomVariableFactory.createRandomVariable(argumentIndex, realizations));
+		}
+		arguments.add(randomVariableFactory.createRandomVariable(0.5, 0.2));
+		return arguments.toArray(new RandomVariable[0]);
+	}
+}
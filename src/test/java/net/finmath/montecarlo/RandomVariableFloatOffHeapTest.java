@@ -0,0 +1,274 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Test cases for the classes net.finmath.montecarlo.OffHeapFloatStorage and net.finmath.montecarlo.RandomVariableFloatOffHeap,
+ * comparing the results with {@link RandomVariableFromFloatArray}.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.RandomVariableFloatOffHeap
+ */
+public class RandomVariableFloatOffHeapTest {
+
+	// A size larger than the parallel threshold of the ParallelChunkExecutor and not a multiple of the chunk size
+	private static final int[] sizes = new int[] { 1, 1000, ParallelChunkExecutor.getParallelThreshold() + 12345 };
+
+	@Test
+	public void testStorageSegments() {
+		// Segments of 2^10 floats
+		final int size = 5000;
+		final float[] values = getValues(size, 3141);
+		try(OffHeapFloatStorage storage = new OffHeapFloatStorage(size, 10)) {
+			Assert.assertEquals(5, storage.getNumberOfSegments());
+			storage.put(0, values, 0, size);
+
+			for(int i=0; i<size; i++) {
+				Assert.assertEquals(values[i], storage.get(i), 0.0);
+			}
+
+			// Bulk access crossing segments
+			final float[] copy = new float[3000];
+			storage.get(1000, copy, 0, copy.length);
+			for(int i=0; i<copy.length; i++) {
+				Assert.assertEquals(values[1000+i], copy[i], 0.0);
+			}
+
+			// The segments share the memory of the storage
+			try(OffHeapFloatStorage.Segment segment = storage.getSegment(2)) {
+				final ByteBuffer buffer = segment.getBuffer();
+				Assert.assertTrue(buffer.isDirect());
+				Assert.assertEquals(1024 * Float.BYTES, buffer.capacity());
+				Assert.assertEquals(2048, storage.getSegmentStart(2));
+				Assert.assertEquals(values[2100], buffer.getFloat((2100 - 2048) * Float.BYTES), 0.0);
+				storage.set(2100, 42.0f);
+				Assert.assertEquals(42.0f, buffer.getFloat((2100 - 2048) * Float.BYTES), 0.0);
+			}
+
+			// The last segment is shorter
+			try(OffHeapFloatStorage.Segment segment = storage.getSegment(4)) {
+				Assert.assertEquals((size - 4096) * Float.BYTES, segment.getBuffer().capacity());
+			}
+
+			try {
+				storage.get(size - 10, copy, 0, 11);
+				Assert.fail("Expected IndexOutOfBoundsException");
+			}
+			catch(final IndexOutOfBoundsException e) {
+				// expected
+			}
+
+			// Random variable using the segmented storage
+			final RandomVariable randomVariable = new RandomVariableFloatOffHeap(0.0, storage);
+			final RandomVariable randomVariableFloat = new RandomVariableFromFloatArray(0.0, toArray(storage));
+			assertEquals(randomVariableFloat.exp().mult(randomVariableFloat), randomVariable.exp().mult(randomVariable), 0.0);
+			Assert.assertEquals(randomVariableFloat.getAverage(), randomVariable.getAverage(), 1E-12);
+		}
+	}
+
+	@Test
+	public void testElementwiseOperations() {
+		for(final int size : sizes) {
+			final float[] x = getValues(size, 3141);
+			final float[] y = getValues(size, 2718);
+			final float[] z = getValues(size, 1414);
+
+			assertEqualsUnary(x, v -> v.squared());
+			assertEqualsUnary(x, v -> v.abs().sqrt());
+			assertEqualsUnary(x, v -> v.exp());
+			assertEqualsUnary(x, v -> v.abs().log());
+			assertEqualsUnary(x, v -> v.abs().pow(1.5));
+			assertEqualsUnary(x, v -> v.cap(1.2).floor(0.8));
+			assertEqualsUnary(x, v -> v.add(0.1).sub(0.2).mult(0.3).div(0.4));
+			assertEqualsUnary(x, v -> v.sin().cos().invert());
+			assertEqualsUnary(x, v -> v.apply(w -> w * w + 1.0));
+
+			assertEqualsBinary(x, y, (v, w) -> v.add(w).sub(w.mult(2.0)));
+			assertEqualsBinary(x, y, (v, w) -> v.mult(w).div(w.add(3.0)));
+			assertEqualsBinary(x, y, (v, w) -> v.bus(w).vid(w.add(3.0)));
+			assertEqualsBinary(x, y, (v, w) -> v.cap(w).floor(w.mult(0.5)));
+			assertEqualsBinary(x, y, (v, w) -> v.accrue(w, 0.5).discount(w, 0.25));
+			assertEqualsBinary(x, y, (v, w) -> v.addProduct(w, 0.25).addProduct(w, w));
+			assertEqualsBinary(x, y, (v, w) -> v.addRatio(w, w.add(3.0)).subRatio(v, w.add(4.0)));
+			assertEqualsBinary(x, y, (v, w) -> v.sub(w).choose(v, w));
+
+			// Operations with deterministic random variables and random variables of a different type
+			assertEqualsBinary(x, y, (v, w) -> v.add(new RandomVariableFromFloatArray(0.0, 0.7)).accrue(new RandomVariableFromFloatArray(0.0, 0.1), 0.5));
+			assertEqualsBinary(x, y, (v, w) -> v.addProduct(w, new RandomVariableFromFloatArray(0.0, z)));
+		}
+	}
+
+	@Test
+	public void testReductions() {
+		for(final int size : sizes) {
+			final float[] x = getValues(size, 3141);
+			final float[] w = getValues(size, 2718);
+
+			final RandomVariable randomVariableFloat = new RandomVariableFromFloatArray(0.0, x);
+			final RandomVariable randomVariable = new RandomVariableFloatOffHeap(0.0, x);
+			final RandomVariable probabilities = new RandomVariableFloatOffHeap(0.0, w).abs();
+			final RandomVariable probabilitiesFloat = new RandomVariableFromFloatArray(0.0, w).abs();
+
+			Assert.assertEquals(randomVariableFloat.getMin(), randomVariable.getMin(), 0.0);
+			Assert.assertEquals(randomVariableFloat.getMax(), randomVariable.getMax(), 0.0);
+			Assert.assertEquals(randomVariableFloat.getAverage(), randomVariable.getAverage(), 1E-12);
+			Assert.assertEquals(randomVariableFloat.getVariance(), randomVariable.getVariance(), 1E-12);
+			Assert.assertEquals(randomVariableFloat.getSampleVariance(), randomVariable.getSampleVariance(), 1E-12);
+			Assert.assertEquals(randomVariableFloat.getStandardError(), randomVariable.getStandardError(), 1E-12);
+			Assert.assertEquals(randomVariableFloat.getAverage(probabilitiesFloat), randomVariable.getAverage(probabilities), 1E-10);
+			Assert.assertEquals(randomVariableFloat.getVariance(probabilitiesFloat), randomVariable.getVariance(probabilities), 1E-10);
+			Assert.assertEquals(randomVariableFloat.getQuantile(0.1), randomVariable.getQuantile(0.1), 0.0);
+			Assert.assertEquals(randomVariableFloat.getQuantileExpectation(0.1, 0.9), randomVariable.getQuantileExpectation(0.1, 0.9), 1E-12);
+
+			final double[] intervalPoints = new double[] { -1.0, 0.0, 0.5, 1.0 };
+			Assert.assertArrayEquals(randomVariableFloat.getHistogram(intervalPoints), randomVariable.getHistogram(intervalPoints), 0.0);
+			Assert.assertArrayEquals(randomVariableFloat.getRealizations(), randomVariable.getRealizations(), 0.0);
+		}
+	}
+
+	@Test
+	public void testBlockwiseAccess() {
+		for(final int size : sizes) {
+			final float[] x = getValues(size, 3141);
+			final double[] y = new double[size];
+			for(int i=0; i<size; i++) {
+				y[i] = x[i] + 0.1;
+			}
+
+			try(RandomVariableFloatOffHeap randomVariable = new RandomVariableFloatOffHeap(0.0, x);
+					RandomVariableFloatOffHeap copy = new RandomVariableFloatOffHeap(new RandomVariableFromFloatArray(0.0, x))) {
+				final RandomVariable other = new RandomVariableFromDoubleArray(0.0, y);
+
+				// Copy constructor, equals and stream
+				Assert.assertTrue(randomVariable.equals(copy));
+				Assert.assertFalse(randomVariable.equals(new RandomVariableFloatOffHeap(other)));
+				Assert.assertArrayEquals(randomVariable.getRealizations(), randomVariable.getRealizationsStream().toArray(), 0.0);
+
+				// Operators on operands of different types (the expected values may not be rounded to float)
+				final RandomVariable expected = new RandomVariableFromFloatArray(0.0, x).apply((a, b, c) -> a * b + c, other, new RandomVariableFromFloatArray(0.0, 0.3));
+				assertEquals(expected, randomVariable.apply((a, b, c) -> a * b + c, other, new RandomVariableFromFloatArray(0.0, 0.3)), 1E-6);
+				assertEquals(new RandomVariableFromFloatArray(0.0, x).apply((a, b) -> a - b, other), randomVariable.apply((a, b) -> a - b, other), 1E-6);
+				Assert.assertEquals(new RandomVariableFromFloatArray(0.0, x).getAverage(other.abs()), randomVariable.getAverage(other.abs()), 1E-10);
+			}
+		}
+	}
+
+	@Test
+	public void testWeightedVarianceWithZeroMean() {
+		final float[] x = new float[] { -1.0f, 1.0f, -2.0f, 2.0f };
+		final RandomVariable probabilities = new RandomVariableFromFloatArray(0.0, 1.0);
+
+		final RandomVariable randomVariableFloat = new RandomVariableFromFloatArray(0.0, x);
+		try(RandomVariableFloatOffHeap randomVariable = new RandomVariableFloatOffHeap(0.0, x)) {
+			Assert.assertEquals(0.0, randomVariable.getAverage(probabilities), 0.0);
+			Assert.assertEquals(10.0, randomVariableFloat.getVariance(probabilities), 0.0);
+			Assert.assertEquals(randomVariableFloat.getVariance(probabilities), randomVariable.getVariance(probabilities), 0.0);
+		}
+	}
+
+	@Test
+	public void testCloseAndSerialization() throws Exception {
+		final float[] x = getValues(1000, 3141);
+		final RandomVariableFloatOffHeap randomVariable = new RandomVariableFloatOffHeap(0.5, x);
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(randomVariable);
+		}
+		try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			final RandomVariableFloatOffHeap copy = (RandomVariableFloatOffHeap)in.readObject();
+			Assert.assertTrue(copy.equals(randomVariable));
+			Assert.assertEquals(1000, copy.sizeAsLong());
+			copy.close();
+		}
+
+		randomVariable.close();
+		Assert.assertTrue(randomVariable.getRealizationsStorage().isClosed());
+		try {
+			randomVariable.get(0);
+			Assert.fail("Expected IllegalStateException");
+		}
+		catch(final IllegalStateException e) {
+			// expected
+		}
+
+		// The memory is released after the last open segment has been closed
+		final OffHeapFloatStorage storage = OffHeapFloatStorage.of(x);
+		final OffHeapFloatStorage.Segment segment = storage.getSegment(0);
+		storage.close();
+		Assert.assertTrue(storage.isClosed());
+		Assert.assertEquals(x[10], segment.getBuffer().getFloat(10 * Float.BYTES), 0.0);
+		segment.close();
+		try {
+			segment.getBuffer();
+			Assert.fail("Expected IllegalStateException");
+		}
+		catch(final IllegalStateException e) {
+			// expected
+		}
+		try {
+			storage.getSegment(0);
+			Assert.fail("Expected IllegalStateException");
+		}
+		catch(final IllegalStateException e) {
+			// expected
+		}
+
+		// Closing more than once has no effect, closing a deterministic random variable has no effect
+		randomVariable.close();
+		new RandomVariableFloatOffHeap(0.0, 1.0).close();
+	}
+
+	private static void assertEqualsUnary(final float[] x, final UnaryOperator<RandomVariable> operator) {
+		final RandomVariable expected = operator.apply(new RandomVariableFromFloatArray(0.0, x));
+		try(RandomVariableFloatOffHeap value = new RandomVariableFloatOffHeap(0.0, x)) {
+			assertEquals(expected, operator.apply(value), 0.0);
+		}
+	}
+
+	private static void assertEqualsBinary(final float[] x, final float[] y, final BinaryOperator<RandomVariable> operator) {
+		final RandomVariable expected = operator.apply(new RandomVariableFromFloatArray(0.0, x), new RandomVariableFromFloatArray(0.0, y));
+		final RandomVariable actual = operator.apply(new RandomVariableFloatOffHeap(0.0, x), new RandomVariableFloatOffHeap(0.0, y));
+		assertEquals(expected, actual, 0.0);
+	}
+
+	private static void assertEquals(final RandomVariable expected, final RandomVariable actual, final double tolerance) {
+		Assert.assertTrue(actual instanceof RandomVariableFloatOffHeap);
+		Assert.assertEquals(expected.size(), actual.size());
+		for(int i=0; i<expected.size(); i++) {
+			Assert.assertEquals(expected.get(i), actual.get(i), tolerance);
+		}
+	}
+
+	private static float[] toArray(final OffHeapFloatStorage storage) {
+		final float[] values = new float[Math.toIntExact(storage.size())];
+		storage.get(0, values, 0, values.length);
+		return values;
+	}
+
+	private static float[] getValues(final int size, final long seed) {
+		final Random random = new Random(seed);
+		final float[] values = new float[size];
+		for(int i=0; i<size; i++) {
+			values[i] = (float)(0.5 + random.nextGaussian());
+		}
+		return values;
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Random;
+import java.util.function.BinaryOperator;
+import java.util.function.UnaryOperator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Test cases for the class net.finmath.montecarlo.RandomVariableFloatVectorFactory, comparing the random variables
+ * created by the factory with {@link RandomVariableFromFloatArray}.
+ *
+ * If the Vector API is not available (profile <code>vector</code> not active) the factory falls back to
+ * {@link RandomVariableFromFloatArray} and the test checks the fallback.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.RandomVariableFloatVectorFactory
+ */
+public class RandomVariableFloatVectorFactoryTest {
+
+	private static final AbstractRandomVariableFactory vectorFactory = new RandomVariableFloatVectorFactory();
+	private static final AbstractRandomVariableFactory floatFactory = new RandomVariableFloatFactory();
+
+	// Sizes not being a multiple of the number of lanes, and a size larger than the chunk size of the ParallelChunkExecutor
+	private static final int[] sizes = new int[] { 1, 7, 1000, 100003 };
+
+	@Test
+	public void testElementwiseOperations() {
+		for(final int size : sizes) {
+			final double[] x = getValues(size, 3141, 1.0, 0.5);
+			final double[] y = getValues(size, 2718, 0.0, 1.0);
+			final double[] z = getValues(size, 1414, 0.5, 0.1);
+
+			assertEqualsUnary(size, x, v -> v.squared(), 0.0);
+			assertEqualsUnary(size, x, v -> v.abs(), 0.0);
+			assertEqualsUnary(size, x, v -> v.cap(1.2), 0.0);
+			assertEqualsUnary(size, x, v -> v.floor(0.8), 0.0);
+			assertEqualsUnary(size, x, v -> v.add(0.1), 0.0);
+			assertEqualsUnary(size, x, v -> v.sub(0.1), 0.0);
+			assertEqualsUnary(size, x, v -> v.mult(0.3), 0.0);
+			assertEqualsUnary(size, x, v -> v.div(0.3), 0.0);
+			assertEqualsUnary(size, x, v -> v.abs().sqrt(), 0.0);
+			assertEqualsUnary(size, x, v -> v.exp(), 1E-6);
+			assertEqualsUnary(size, x, v -> v.abs().log(), 1E-6);
+			assertEqualsUnary(size, x, v -> v.abs().pow(1.5), 1E-6);
+
+			assertEqualsBinary(size, x, y, (v, w) -> v.add(w), 0.0);
+			assertEqualsBinary(size, x, y, (v, w) -> v.sub(w), 0.0);
+			assertEqualsBinary(size, x, y, (v, w) -> v.mult(w), 0.0);
+			assertEqualsBinary(size, x, y, (v, w) -> v.div(w), 0.0);
+			assertEqualsBinary(size, x, y, (v, w) -> v.cap(w), 0.0);
+			assertEqualsBinary(size, x, y, (v, w) -> v.floor(w), 0.0);
+			assertEqualsBinary(size, x, y, (v, w) -> v.accrue(w, 0.5), 0.0);
+			assertEqualsBinary(size, x, y, (v, w) -> v.discount(w, 0.5), 0.0);
+			assertEqualsBinary(size, x, y, (v, w) -> v.addProduct(w, 0.25), 0.0);
+			assertEqualsBinary(size, x, y, (v, w) -> v.addProduct(w, w), 0.0);
+
+			// Operations with a deterministic random variable and with a random variable of a different type
+			assertEqualsBinary(size, x, y, (v, w) -> v.add(new RandomVariableFromFloatArray(0.0, 0.7)), 0.0);
+			assertEqualsBinary(size, x, y, (v, w) -> v.mult(new RandomVariableFromDoubleArray(0.0, 0.7)), 0.0);
+			assertEqualsBinary(size, x, y, (v, w) -> v.addProduct(w, new RandomVariableFromFloatArray(0.0, z)), 0.0);
+		}
+	}
+
+	@Test
+	public void testReductions() {
+		for(final int size : sizes) {
+			final double[] x = getValues(size, 3141, 1.0, 0.5);
+
+			final RandomVariable randomVariableVector = vectorFactory.createRandomVariable(0.0, x);
+			final RandomVariable randomVariableFloat = floatFactory.createRandomVariable(0.0, x);
+
+			Assert.assertEquals("average", randomVariableFloat.getAverage(), randomVariableVector.getAverage(), 1E-12);
+			Assert.assertEquals("variance", randomVariableFloat.getVariance(), randomVariableVector.getVariance(), 1E-12);
+			Assert.assertEquals("min", randomVariableFloat.getMin(), randomVariableVector.getMin(), 0.0);
+			Assert.assertEquals("max", randomVariableFloat.getMax(), randomVariableVector.getMax(), 0.0);
+
+			// Deterministic random variable
+			final RandomVariable constant = vectorFactory.createRandomVariable(0.0, 3.0);
+			Assert.assertEquals("average of constant", 3.0, constant.getAverage(), 0.0);
+			Assert.assertEquals("variance of constant", 0.0, constant.getVariance(), 0.0);
+		}
+	}
+
+	private static void assertEqualsUnary(final int size, final double[] x, final UnaryOperator<RandomVariable> operator, final double relativeTolerance) {
+		assertEquals(size, operator.apply(floatFactory.createRandomVariable(0.5, x)), operator.apply(vectorFactory.createRandomVariable(0.5, x)), relativeTolerance);
+	}
+
+	private static void assertEqualsBinary(final int size, final double[] x, final double[] y, final BinaryOperator<RandomVariable> operator, final double relativeTolerance) {
+		final RandomVariable expected = operator.apply(floatFactory.createRandomVariable(0.5, x), floatFactory.createRandomVariable(1.0, y));
+		final RandomVariable actual = operator.apply(vectorFactory.createRandomVariable(0.5, x), vectorFactory.createRandomVariable(1.0, y));
+		assertEquals(size, expected, actual, relativeTolerance);
+	}
+
+	private static void assertEquals(final int size, final RandomVariable expected, final RandomVariable actual, final double relativeTolerance) {
+		Assert.assertEquals("size " + size + ": filtration time", expected.getFiltrationTime(), actual.getFiltrationTime(), 0.0);
+		Assert.assertEquals("size " + size + ": size", expected.size(), actual.size());
+		for(int i=0; i<expected.size(); i++) {
+			Assert.assertEquals("size " + size + ": realization " + i, expected.get(i), actual.get(i), relativeTolerance * Math.abs(expected.get(i)));
+		}
+	}
+
+	private static double[] getValues(final int size, final int seed, final double mean, final double standardDeviation) {
+		final Random random = new Random(seed);
+		final double[] values = new double[size];
+		for(int i=0; i<size; i++) {
+			values[i] = mean + standardDeviation * random.nextGaussian();
+		}
+		return values;
+	}
+}
@@ -5,14 +5,17 @@
  */
 package net.finmath.montecarlo;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Random;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
 import org.junit.After;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -328,4 +331,172 @@ public class RandomVariableGPUTest {
 
 		}
 	}
+
+	@Test
+	public void testRandomVariableCudaOperatorsOnDevice() {
+		Assume.assumeTrue(randomVariableFactory instanceof RandomVariableCudaFactory);
+
+		final Random random = new Random(31415);
+		final double[] realizations = new double[100000];
+		for(int i=0; i<realizations.length; i++) {
+			realizations[i] = random.nextDouble() - 0.5;
+		}
+		realizations[42] = Double.NaN;
+
+		final RandomVariable x = randomVariableFactory.createRandomVariable(0.0, realizations);
+		final RandomVariable y = randomVariableFactory.createRandomVariable(0.0, 0.25);
+		final RandomVariable xReference = new RandomVariableFromFloatArray(0.0, realizations);
+		final RandomVariable yReference = new RandomVariableFromFloatArray(0.0, 0.25);
+
+		final BiFunction<RandomVariable, RandomVariable, RandomVariable>[] operators = getOperatorsOnDevice();
+		for(final BiFunction<RandomVariable, RandomVariable, RandomVariable> operator : operators) {
+			final RandomVariable result = operator.apply(x, y);
+			Assert.assertTrue("Result on device", result instanceof RandomVariableCuda);
+
+			final double[] resultRealizations = result.getRealizations();
+			final double[] referenceRealizations = operator.apply(xReference, yReference).getRealizations();
+			Assert.assertEquals(referenceRealizations.length, resultRealizations.length);
+			for(int i=0; i<referenceRealizations.length; i++) {
+				Assert.assertEquals(referenceRealizations[i], resultRealizations[i], 1E-6);
+			}
+		}
+
+		final RandomVariable xWithoutNaN = x.isNaN().choose(randomVariableFactory.createRandomVariable(0.0), x);
+		Assert.assertEquals(xReference.isNaN().getAverage(), x.isNaN().getAverage(), 1E-12);
+		Assert.assertEquals(xReference.isNaN().choose(yReference.mult(0.0), xReference).getMin(), xWithoutNaN.getMin(), 0.0);
+		Assert.assertEquals(xReference.isNaN().choose(yReference.mult(0.0), xReference).getMax(), xWithoutNaN.getMax(), 0.0);
+		Assert.assertTrue(Double.isNaN(x.getMin()));
+
+		// Host accessors use the cached copy of the realizations
+		Assert.assertEquals(xReference.get(7), x.get(7), 0.0);
+		Assert.assertEquals(xReference.get(7), x.getOperator().applyAsDouble(7), 0.0);
+		Assert.assertEquals(xWithoutNaN.getAverage(), xWithoutNaN.getRealizationsStream().sum() / realizations.length, 1E-6);
+	}
+
+	@Test
+	public void testNarySumOperators() {
+		final Random random = new Random(31415);
+		final int numberOfSummands = 19;		// More than two batches of the OpenCL kernel
+		final List<RandomVariable> summands = new ArrayList<>();
+		final List<RandomVariable> factors = new ArrayList<>();
+		final List<RandomVariable> summandsReference = new ArrayList<>();
+		final List<RandomVariable> factorsReference = new ArrayList<>();
+		final double[] weights = new double[numberOfSummands];
+		for(int k=0; k<numberOfSummands; k++) {
+			final double[] realizations = new double[10000];
+			for(int i=0; i<realizations.length; i++) {
+				realizations[i] = random.nextGaussian();
+			}
+			// Some deterministic summands and factors
+			summands.add(k % 5 == 3 ? randomVariableFactory.createRandomVariable(0.5) : randomVariableFactory.createRandomVariable(0.0, realizations));
+			factors.add(k % 4 == 1 ? randomVariableFactory.createRandomVariable(2.0) : randomVariableFactory.createRandomVariable(0.0, realizations));
+			summandsReference.add(k % 5 == 3 ? new RandomVariableFromFloatArray(0.5) : new RandomVariableFromFloatArray(0.0, realizations));
+			factorsReference.add(k % 4 == 1 ? new RandomVariableFromFloatArray(2.0) : new RandomVariableFromFloatArray(0.0, realizations));
+			weights[k] = random.nextDouble();
+		}
+
+		for(final RandomVariable base : new RandomVariable[] { randomVariableFactory.createRandomVariable(1.0), summands.get(0) }) {
+			final RandomVariable baseReference = base.isDeterministic() ? new RandomVariableFromFloatArray(1.0) : summandsReference.get(0);
+
+			assertEqualRealizations(baseReference.addSumProduct(summandsReference, factorsReference), base.addSumProduct(summands, factors));
+			assertEqualRealizations(((RandomVariableSumOperators)baseReference).addSum(summandsReference), RandomVariableSumOperators.addSum(base, summands));
+			assertEqualRealizations(((RandomVariableSumOperators)baseReference).addWeightedSum(summandsReference, weights), RandomVariableSumOperators.addWeightedSum(base, summands, weights));
+		}
+	}
+
+	@Test
+	public void testRegressionOnDevice() {
+		// The normal equations are calculated on the device for OpenCL (e.g. on an OpenCL CPU runtime)
+		Assume.assumeTrue(randomVariableFactory instanceof RandomVariableOpenCLFactory);
+
+		final Random random = new Random(3141);
+		final double[] underlying = new double[100000];
+		final double[] payoff = new double[underlying.length];
+		for(int i=0; i<underlying.length; i++) {
+			underlying[i] = Math.exp(0.2 * random.nextGaussian());
+			payoff[i] = Math.max(underlying[i] - 1.0, 0.0) + 0.1 * random.nextGaussian();
+		}
+
+		final RandomVariable x = randomVariableFactory.createRandomVariable(0.0, underlying);
+		final RandomVariable y = randomVariableFactory.createRandomVariable(1.0, payoff);
+		final RandomVariable[] basisFunctions = new RandomVariable[] { randomVariableFactory.createRandomVariable(1.0), x, x.squared() };
+
+		final RandomVariable xReference = new RandomVariableFromFloatArray(0.0, underlying);
+		final RandomVariable yReference = new RandomVariableFromFloatArray(1.0, payoff);
+		final RandomVariable[] basisFunctionsReference = new RandomVariable[] { new RandomVariableFromFloatArray(1.0), xReference, xReference.squared() };
+
+		final MonteCarloConditionalExpectationRegressionFloat estimator = new MonteCarloConditionalExpectationRegressionFloat(basisFunctions);
+		final MonteCarloConditionalExpectationRegressionFloat estimatorReference = new MonteCarloConditionalExpectationRegressionFloat(basisFunctionsReference);
+		Assert.assertArrayEquals(estimatorReference.getLinearRegressionParameters(yReference), estimator.getLinearRegressionParameters(y), 1E-4);
+
+		final RandomVariable conditionalExpectation = y.getConditionalExpectation(estimator);
+		Assert.assertTrue("Result on device", conditionalExpectation instanceof RandomVariableOpenCL);
+		assertEqualRealizations(yReference.getConditionalExpectation(estimatorReference), conditionalExpectation);
+	}
+
+	@Test
+	public void testRegressionNormalEquationsOnDeviceForLargeNumberOfPaths() {
+		// The sums over more than 10^6 paths on the device have to agree with the sums of the host (accumulated in double)
+		Assume.assumeTrue(randomVariableFactory instanceof RandomVariableOpenCLFactory);
+
+		final Random random = new Random(3141);
+		final double[] underlying = new double[(1 << 20) + 12345];
+		final double[] payoff = new double[underlying.length];
+		for(int i=0; i<underlying.length; i++) {
+			underlying[i] = 100.0 * Math.exp(0.2 * random.nextGaussian());
+			payoff[i] = Math.max(underlying[i] - 100.0, 0.0) + random.nextGaussian();
+		}
+
+		final RandomVariable x = randomVariableFactory.createRandomVariable(0.0, underlying);
+		final RandomVariable y = randomVariableFactory.createRandomVariable(1.0, payoff);
+		final RandomVariable[] basisFunctions = new RandomVariable[] { randomVariableFactory.createRandomVariable(1.0), x, x.squared() };
+
+		// The same float values on the host
+		final RandomVariable[] basisFunctionsReference = new RandomVariable[basisFunctions.length];
+		for(int i=0; i<basisFunctions.length; i++) {
+			basisFunctionsReference[i] = basisFunctions[i].isDeterministic() ? new RandomVariableFromFloatArray(basisFunctions[i].getFiltrationTime(), basisFunctions[i].doubleValue()) : new RandomVariableFromFloatArray(0.0, basisFunctions[i].getRealizations());
+		}
+		final RandomVariable yReference = new RandomVariableFromFloatArray(1.0, y.getRealizations());
+
+		final RegressionNormalEquations normalEquations = RandomVariableOpenCL.getRegressionNormalEquations(basisFunctions, y);
+		final RegressionNormalEquations normalEquationsReference = RegressionNormalEquations.of(basisFunctionsReference, yReference);
+
+		final double[][] matrix = normalEquations.getMatrix();
+		final double[][] matrixReference = normalEquationsReference.getMatrix();
+		final double[] vector = normalEquations.getVector();
+		final double[] vectorReference = normalEquationsReference.getVector();
+		for(int p=0; p<basisFunctions.length; p++) {
+			for(int q=0; q<basisFunctions.length; q++) {
+				Assert.assertEquals(matrixReference[p][q], matrix[p][q], 1E-8 * Math.abs(matrixReference[p][q]));
+			}
+			Assert.assertEquals(vectorReference[p], vector[p], 1E-8 * Math.abs(vectorReference[p]));
+		}
+	}
+
+	private static void assertEqualRealizations(final RandomVariable expected, final RandomVariable actual) {
+		final double[] expectedRealizations = expected.getRealizations();
+		final double[] actualRealizations = actual.getRealizations();
+		Assert.assertEquals(expectedRealizations.length, actualRealizations.length);
+		for(int i=0; i<expectedRealizations.length; i++) {
+			Assert.assertEquals(expectedRealizations[i], actualRealizations[i], 1E-4);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BiFunction<RandomVariable, RandomVariable, RandomVariable>[] getOperatorsOnDevice() {
+		return new BiFunction[] {
+				(BiFunction<RandomVariable, RandomVariable, RandomVariable>) (x, y) -> x.sin(),
+				(BiFunction<RandomVariable, RandomVariable, RandomVariable>) (x, y) -> x.cos(),
+				(BiFunction<RandomVariable, RandomVariable, RandomVariable>) (x, y) -> x.isNaN(),
+				(BiFunction<RandomVariable, RandomVariable, RandomVariable>) (x, y) -> x.choose(x.exp(), x.squared()),
+				(BiFunction<RandomVariable, RandomVariable, RandomVariable>) (x, y) -> x.choose(y, x.squared()),
+				(BiFunction<RandomVariable, RandomVariable, RandomVariable>) (x, y) -> x.choose(x.exp(), y),
+				(BiFunction<RandomVariable, RandomVariable, RandomVariable>) (x, y) -> x.choose(y, y.mult(2.0)),
+				(BiFunction<RandomVariable, RandomVariable, RandomVariable>) (x, y) -> x.addRatio(x.exp(), x.squared().add(1.0)),
+				(BiFunction<RandomVariable, RandomVariable, RandomVariable>) (x, y) -> x.subRatio(x.exp(), x.squared().add(1.0)),
+				(BiFunction<RandomVariable, RandomVariable, RandomVariable>) (x, y) -> x.apply(v -> v * v + 1.0),
+				(BiFunction<RandomVariable, RandomVariable, RandomVariable>) (x, y) -> x.apply((v, w) -> v - w, y),
+				(BiFunction<RandomVariable, RandomVariable, RandomVariable>) (x, y) -> x.apply((u, v, w) -> u * v + w, x, y)
+		};
+	}
 }
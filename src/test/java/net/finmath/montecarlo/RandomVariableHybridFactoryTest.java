@@ -0,0 +1,136 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Test cases for the class net.finmath.montecarlo.RandomVariableHybridFactory, where the device partition is replaced by a
+ * second CPU partition (<code>RandomVariableFromDoubleArray</code>).
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.RandomVariableHybridFactory
+ */
+public class RandomVariableHybridFactoryTest {
+
+	@Test
+	public void testOperationsAndReductions() {
+		final RandomVariableHybridFactory factory = new RandomVariableHybridFactory(new RandomVariableFloatFactory(), new RandomVariableFactory(), 0.3);
+
+		final Random random = new Random(3141);
+		final double[] values1 = new double[10000];
+		final double[] values2 = new double[10000];
+		for(int i=0; i<values1.length; i++) {
+			values1[i] = (float)random.nextGaussian();
+			values2[i] = (float)random.nextGaussian();
+		}
+
+		final RandomVariable x = factory.createRandomVariable(0.0, values1);
+		final RandomVariable y = factory.createRandomVariable(0.0, values2);
+		Assert.assertEquals(3000, ((RandomVariableSharded)x).getPartition().getShardSize(0));
+		Assert.assertTrue(((RandomVariableSharded)x).getShard(0) instanceof RandomVariableFromFloatArray);
+		Assert.assertTrue(((RandomVariableSharded)x).getShard(1) instanceof RandomVariableFromDoubleArray);
+
+		final RandomVariable xReference = new RandomVariableFromDoubleArray(0.0, values1);
+		final RandomVariable yReference = new RandomVariableFromDoubleArray(0.0, values2);
+
+		final RandomVariable result = x.mult(y).add(x.exp()).cap(3.0).addProduct(y, factory.createRandomVariable(0.5));
+		final RandomVariable resultReference = xReference.mult(yReference).add(xReference.exp()).cap(3.0).addProduct(yReference, 0.5);
+
+		Assert.assertEquals(resultReference.getAverage(), result.getAverage(), 1E-5);
+		Assert.assertEquals(resultReference.getVariance(), result.getVariance(), 1E-4);
+		Assert.assertEquals(resultReference.getMin(), result.getMin(), 1E-5);
+		Assert.assertEquals(resultReference.getMax(), result.getMax(), 1E-5);
+
+		// Both partitions have been measured
+		Assert.assertTrue(factory.getThroughputMonitor().getNumberOfPaths(0) > 0);
+		Assert.assertTrue(factory.getThroughputMonitor().getNumberOfPaths(1) > 0);
+		Assert.assertTrue(factory.getThroughputMonitor().getThroughput(0) > 0);
+		Assert.assertTrue(factory.getThroughputMonitor().getThroughput(1) > 0);
+	}
+
+	@Test
+	public void testRebalancing() {
+		final RandomVariableHybridFactory factory = new RandomVariableHybridFactory(new RandomVariableFloatFactory(), new RandomVariableFactory(), 0.5);
+
+		final RandomVariable x = factory.createRandomVariable(0.0, new double[] { 1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0, 10.0 });
+
+		// The device is four times faster than the host
+		factory.getThroughputMonitor().reset();
+		factory.getThroughputMonitor().record(0, 1000, 4000);
+		factory.getThroughputMonitor().record(1, 1000, 1000);
+
+		factory.rebalance(0.5);
+		Assert.assertEquals(0.35, factory.getHostFraction(), 1E-12);
+		Assert.assertEquals("Measurements are discarded", 0, factory.getThroughputMonitor().getNumberOfPaths(0));
+
+		factory.getThroughputMonitor().record(0, 1000, 4000);
+		factory.getThroughputMonitor().record(1, 1000, 1000);
+		factory.rebalance(1.0);
+		Assert.assertEquals(0.2, factory.getHostFraction(), 1E-12);
+
+		// Without measurements the fraction is kept
+		factory.rebalance(1.0);
+		Assert.assertEquals(0.2, factory.getHostFraction(), 1E-12);
+
+		// New random variables use the new partition, random variables of the old partition remain valid
+		final RandomVariable y = factory.createRandomVariable(0.0, new double[] { 1.0, 1.0, 1.0, 1.0, 1.0, 1.0, 1.0, 1.0, 1.0, 1.0 });
+		Assert.assertEquals(2, ((RandomVariableSharded)y).getPartition().getShardSize(0));
+		Assert.assertEquals(5, ((RandomVariableSharded)x).getPartition().getShardSize(0));
+		Assert.assertEquals(6.5, x.add(y).getAverage(), 1E-12);
+		Assert.assertEquals(6.5, y.add(x).getAverage(), 1E-12);
+
+		// The host keeps at least a minimum share
+		factory.getThroughputMonitor().record(0, 1, 1000000000);
+		factory.getThroughputMonitor().record(1, 1000000000, 1);
+		factory.rebalance(1.0);
+		Assert.assertTrue(factory.getHostFraction() > 0.0);
+	}
+
+	@Test
+	public void testAutomaticRebalancing() {
+		final RandomVariableHybridFactory factory = new RandomVariableHybridFactory(new RandomVariableFloatFactory(), new RandomVariableFactory(), 0.5, 2000);
+		Assert.assertEquals(500, factory.getPartition(1000).getShardSize(0));
+
+		// Not enough paths processed
+		factory.getThroughputMonitor().record(0, 1000, 4000);
+		Assert.assertEquals(500, factory.getPartition(1000).getShardSize(0));
+
+		// The device is four times faster than the host, the next partition requested is rebalanced (with smoothing 0.5)
+		factory.getThroughputMonitor().record(1, 1000, 1000);
+		Assert.assertEquals(350, factory.getPartition(1000).getShardSize(0));
+		Assert.assertEquals(0.35, factory.getHostFraction(), 1E-12);
+		Assert.assertEquals("Measurements are discarded", 0, factory.getThroughputMonitor().getNumberOfPaths(1));
+
+		// Disabled
+		final RandomVariableHybridFactory factoryWithoutRebalancing = new RandomVariableHybridFactory(new RandomVariableFloatFactory(), new RandomVariableFactory(), 0.5, 0);
+		factoryWithoutRebalancing.getThroughputMonitor().record(0, 1000000000, 4000);
+		factoryWithoutRebalancing.getThroughputMonitor().record(1, 1000000000, 1000);
+		Assert.assertEquals(500, factoryWithoutRebalancing.getPartition(1000).getShardSize(0));
+	}
+
+	@Test
+	public void testBrownianMotionKeepsPartition() {
+		final RandomVariableHybridFactory factory = new RandomVariableHybridFactory(new RandomVariableFloatFactory(), new RandomVariableFactory(), 0.5);
+		final BrownianMotionSharded brownianMotion = new BrownianMotionSharded(new TimeDiscretizationFromArray(0.0, 4, 0.25), 1, 1000, 3141, factory);
+
+		final RandomVariable increment = brownianMotion.getBrownianIncrement(0, 0);
+
+		factory.getThroughputMonitor().record(0, 1000, 4000);
+		factory.getThroughputMonitor().record(1, 1000, 1000);
+		factory.rebalance(1.0);
+
+		final RandomVariable incrementAfterRebalancing = brownianMotion.getBrownianIncrement(1, 0);
+		Assert.assertEquals(((RandomVariableSharded)increment).getPartition(), ((RandomVariableSharded)incrementAfterRebalancing).getPartition());
+		Assert.assertEquals(200, factory.getPartition(1000).getShardSize(0));
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for the class net.finmath.montecarlo.RandomVariableMoments.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.RandomVariableMoments
+ */
+public class RandomVariableMomentsTest {
+
+	@Test
+	public void testMomentsSmall() {
+		testMoments(10000);
+	}
+
+	@Test
+	public void testMomentsLarge() {
+		// Above the parallel threshold
+		testMoments(1000003);
+	}
+
+	@Test
+	public void testDeterministicAndCombine() {
+		final RandomVariableFromFloatArray deterministic = new RandomVariableFromFloatArray(0.0, 3.0);
+		final RandomVariableMoments momentsOfDeterministic = deterministic.getMoments();
+		Assert.assertEquals(3.0, momentsOfDeterministic.getAverage(), 0.0);
+		Assert.assertEquals(0.0, momentsOfDeterministic.getVariance(), 0.0);
+		Assert.assertEquals(0.0, momentsOfDeterministic.getSampleVariance(), 0.0);
+		Assert.assertEquals(0.0, momentsOfDeterministic.getStandardError(), 0.0);
+
+		final float[] values = getRealizations(50000, 2718);
+		final RandomVariableMoments moments = RandomVariableMoments.of(values);
+		final RandomVariableMoments momentsCombined = RandomVariableMoments.of(Arrays.copyOfRange(values, 0, 12345))
+				.combine(RandomVariableMoments.of(Arrays.copyOfRange(values, 12345, values.length)));
+
+		Assert.assertEquals(moments.getNumberOfValues(), momentsCombined.getNumberOfValues());
+		Assert.assertEquals(moments.getAverage(), momentsCombined.getAverage(), 1E-14);
+		Assert.assertEquals(moments.getVariance(), momentsCombined.getVariance(), 1E-14);
+	}
+
+	private static void testMoments(final int numberOfPaths) {
+		final float[] values = getRealizations(numberOfPaths, 3141);
+		final RandomVariableFromFloatArray randomVariable = new RandomVariableFromFloatArray(0.0, values);
+
+		// Exact values
+		BigDecimal sum = BigDecimal.ZERO;
+		for(final float value : values) {
+			sum = sum.add(new BigDecimal(value));
+		}
+		final BigDecimal average = sum.divide(BigDecimal.valueOf(numberOfPaths), MathContext.DECIMAL128);
+		BigDecimal sumOfSquaredDeviations = BigDecimal.ZERO;
+		for(final float value : values) {
+			final BigDecimal deviation = new BigDecimal(value).subtract(average);
+			sumOfSquaredDeviations = sumOfSquaredDeviations.add(deviation.multiply(deviation));
+		}
+		final double variance = sumOfSquaredDeviations.divide(BigDecimal.valueOf(numberOfPaths), MathContext.DECIMAL128).doubleValue();
+
+		final RandomVariableMoments moments = randomVariable.getMoments();
+
+		Assert.assertEquals(numberOfPaths, moments.getNumberOfValues());
+		Assert.assertEquals(randomVariable.getAverage(), moments.getAverage(), 0.0);
+		Assert.assertEquals(average.doubleValue(), moments.getAverage(), 1E-15);
+		Assert.assertEquals(variance, moments.getVariance(), 1E-14 * variance);
+		Assert.assertEquals(variance * numberOfPaths / (numberOfPaths-1), moments.getSampleVariance(), 1E-14 * variance);
+		Assert.assertEquals(Math.sqrt(variance / numberOfPaths), moments.getStandardError(), 1E-14);
+
+		Assert.assertEquals(moments.getVariance(), randomVariable.getVariance(), 0.0);
+		Assert.assertEquals(moments.getStandardError(), randomVariable.getStandardError(), 0.0);
+
+		// Deterministic
+		for(int repetition=0; repetition<5; repetition++) {
+			final RandomVariableMoments momentsRepeated = randomVariable.getMoments();
+			Assert.assertEquals(moments.getAverage(), momentsRepeated.getAverage(), 0.0);
+			Assert.assertEquals(moments.getVariance(), momentsRepeated.getVariance(), 0.0);
+		}
+	}
+
+	private static float[] getRealizations(final int numberOfPaths, final long seed) {
+		final Random random = new Random(seed);
+		final float[] realizations = new float[numberOfPaths];
+		for(int i=0; i<numberOfPaths; i++) {
+			realizations[i] = (float)(10.0 + 2.0 * random.nextGaussian());
+		}
+		return realizations;
+	}
+}
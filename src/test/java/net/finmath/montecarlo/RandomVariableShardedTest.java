@@ -0,0 +1,275 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import net.finmath.montecarlo.cuda.RandomVariableCuda;
+import net.finmath.montecarlo.cuda.RandomVariableCudaFactory;
+import net.finmath.stochastic.RandomVariable;
+import net.finmath.time.TimeDiscretization;
+import net.finmath.time.TimeDiscretizationFromArray;
+
+/**
+ * Test cases for the classes net.finmath.montecarlo.PathPartition, net.finmath.montecarlo.RandomVariableSharded and
+ * net.finmath.montecarlo.BrownianMotionSharded, using several simulated devices (factories of CPU random variables),
+ * comparing the results with the unsharded random variables. If at least two Cuda devices are available, the shards are also placed on different devices.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.RandomVariableSharded
+ */
+public class RandomVariableShardedTest {
+
+	private static final double[][] weightsOfDevices = new double[][] {
+		{ 1.0 },
+		{ 1.0, 1.0, 1.0 },
+		{ 2.0, 0.0, 1.0, 0.5 }
+	};
+
+	@Test
+	public void testPartition() {
+		for(final int numberOfPaths : new int[] { 0, 1, 7, 1000, 100003 }) {
+			for(int numberOfShards=1; numberOfShards<=8; numberOfShards++) {
+				final PathPartition partition = new PathPartition(numberOfPaths, numberOfShards);
+				Assert.assertEquals(numberOfShards, partition.getNumberOfShards());
+				Assert.assertEquals(numberOfPaths, partition.getNumberOfPaths());
+
+				int minSize = Integer.MAX_VALUE;
+				int maxSize = 0;
+				for(int shardIndex=0; shardIndex<numberOfShards; shardIndex++) {
+					minSize = Math.min(minSize, partition.getShardSize(shardIndex));
+					maxSize = Math.max(maxSize, partition.getShardSize(shardIndex));
+				}
+				Assert.assertTrue("Balanced partition", maxSize - minSize <= 1);
+				assertPartitionConsistent(partition);
+			}
+		}
+
+		final PathPartition weighted = new PathPartition(1000, new double[] { 2.0, 0.0, 1.0, 1.0 });
+		Assert.assertEquals(500, weighted.getShardSize(0));
+		Assert.assertEquals(0, weighted.getShardSize(1));
+		Assert.assertEquals(250, weighted.getShardSize(2));
+		Assert.assertEquals(250, weighted.getShardSize(3));
+		assertPartitionConsistent(weighted);
+	}
+
+	@Test
+	public void testOperatorsAgreeWithUnsharded() {
+		final int numberOfPaths = 10007;
+		final AbstractRandomVariableFactory unshardedFactory = new RandomVariableFactory();
+		final RandomVariable x = unshardedFactory.createRandomVariable(1.0, getValues(numberOfPaths, 3141));
+		final RandomVariable y = unshardedFactory.createRandomVariable(2.0, getValues(numberOfPaths, 2718));
+		final RandomVariable z = unshardedFactory.createRandomVariable(0.5, getValues(numberOfPaths, 1414));
+
+		for(final double[] weights : weightsOfDevices) {
+			final RandomVariableShardedFactory factory = getShardedFactory(weights);
+			final RandomVariable xSharded = factory.createRandomVariable(1.0, x.getRealizations());
+			final RandomVariable ySharded = factory.createRandomVariable(2.0, y.getRealizations());
+
+			Assert.assertEquals(numberOfPaths, xSharded.size());
+			Assert.assertEquals(x.get(4711), xSharded.get(4711), 0.0);
+			Assert.assertTrue("Equal realizations", xSharded.equals(x));
+
+			// Sharded with sharded
+			assertEqualsRandomVariable(x.mult(y).add(x.squared()).exp().log(), xSharded.mult(ySharded).add(xSharded.squared()).exp().log());
+			assertEqualsRandomVariable(x.div(y.abs().add(1.0)).sub(y.cap(x)), xSharded.div(ySharded.abs().add(1.0)).sub(ySharded.cap(xSharded)));
+			assertEqualsRandomVariable(x.sub(0.5).choose(y, x.floor(0.0)), xSharded.sub(0.5).choose(ySharded, xSharded.floor(0.0)));
+			assertEqualsRandomVariable(x.addProduct(y, y).addRatio(x, y.squared().add(1.0)), xSharded.addProduct(ySharded, ySharded).addRatio(xSharded, ySharded.squared().add(1.0)));
+
+			// Sharded with unsharded (stochastic and deterministic), in both orders
+			assertEqualsRandomVariable(x.mult(z).bus(y), xSharded.mult(z).bus(ySharded));
+			assertEqualsRandomVariable(z.mult(x).add(y), z.mult(xSharded).add(ySharded));
+			assertEqualsRandomVariable(x.accrue(z, 0.5).discount(y.abs(), 0.25), xSharded.accrue(z, 0.5).discount(ySharded.abs(), 0.25));
+			assertEqualsRandomVariable(x.add(new RandomVariableFromDoubleArray(3.0, 2.0)), xSharded.add(new RandomVariableFromDoubleArray(3.0, 2.0)));
+			Assert.assertEquals("Filtration time", 3.0, xSharded.add(new RandomVariableFromDoubleArray(3.0, 2.0)).getFiltrationTime(), 0.0);
+
+			// Deterministic sharded random variables
+			final RandomVariable constant = factory.createRandomVariable(4.0);
+			Assert.assertTrue(constant.isDeterministic());
+			Assert.assertEquals(4.0, constant.doubleValue(), 0.0);
+			assertEqualsRandomVariable(x.mult(4.0), xSharded.mult(constant));
+			assertEqualsRandomVariable(x.mult(4.0), constant.mult(xSharded));
+			assertEqualsRandomVariable(x.add(4.0), constant.add(x));
+
+			// Arguments of a higher type priority are combined by their own (single precision) operators
+			try(RandomVariableFloatOffHeap yWithHigherPriority = new RandomVariableFloatOffHeap(2.0, OffHeapFloatStorage.of(toFloatArray(y.getRealizations())), 100);
+					RandomVariableFloatOffHeap zWithHigherPriority = new RandomVariableFloatOffHeap(0.5, OffHeapFloatStorage.of(toFloatArray(z.getRealizations())), 100)) {
+				final RandomVariable expected = x.sub(0.5).choose(yWithHigherPriority, zWithHigherPriority);
+				final RandomVariable chosen = xSharded.sub(0.5).choose(yWithHigherPriority, zWithHigherPriority);
+				Assert.assertTrue("Type of result", chosen instanceof RandomVariableFloatOffHeap);
+				Assert.assertEquals("Filtration time", expected.getFiltrationTime(), chosen.getFiltrationTime(), 0.0);
+				Assert.assertArrayEquals(expected.getRealizations(), chosen.getRealizations(), 1E-6);
+			}
+		}
+	}
+
+	private static float[] toFloatArray(final double[] values) {
+		final float[] valuesAsFloat = new float[values.length];
+		for(int i=0; i<values.length; i++) {
+			valuesAsFloat[i] = (float)values[i];
+		}
+		return valuesAsFloat;
+	}
+
+	@Test
+	public void testReductionsCombinePartialResults() {
+		final int numberOfPaths = 100003;
+		final RandomVariable x = new RandomVariableFromDoubleArray(1.0, getValues(numberOfPaths, 3141)).mult(2.0).add(1.0);
+		final RandomVariable probabilities = new RandomVariableFromDoubleArray(0.0, getValues(numberOfPaths, 2718)).abs();
+		final RandomVariable normalizedProbabilities = probabilities.div(probabilities.getAverage() * numberOfPaths);
+
+		for(final double[] weights : weightsOfDevices) {
+			final RandomVariable xSharded = getShardedFactory(weights).createRandomVariable(1.0, x.getRealizations());
+
+			Assert.assertEquals("Average", x.getAverage(), xSharded.getAverage(), 1E-12);
+			Assert.assertEquals("Variance", x.getVariance(), xSharded.getVariance(), 1E-12);
+			Assert.assertEquals("Sample variance", x.getSampleVariance(), xSharded.getSampleVariance(), 1E-12);
+			Assert.assertEquals("Standard deviation", x.getStandardDeviation(), xSharded.getStandardDeviation(), 1E-12);
+			Assert.assertEquals("Standard error", x.getStandardError(), xSharded.getStandardError(), 1E-12);
+			Assert.assertEquals("Minimum", x.getMin(), xSharded.getMin(), 0.0);
+			Assert.assertEquals("Maximum", x.getMax(), xSharded.getMax(), 0.0);
+			Assert.assertEquals("Average under probabilities", x.getAverage(normalizedProbabilities), xSharded.getAverage(normalizedProbabilities), 1E-12);
+			Assert.assertEquals("Variance under probabilities", x.getVariance(normalizedProbabilities), xSharded.getVariance(normalizedProbabilities), 1E-12);
+			Assert.assertEquals("Quantile", x.getQuantile(0.9), xSharded.getQuantile(0.9), 0.0);
+			Assert.assertEquals("Average of average()", x.getAverage(), xSharded.average().get(17), 1E-12);
+
+			if(weights.length == 1) {
+				continue;
+			}
+
+			// The first shard is deterministic
+			final PathPartition partition = ((RandomVariableSharded)xSharded).getPartition();
+			final RandomVariable[] shards = new RandomVariable[partition.getNumberOfShards()];
+			final AbstractRandomVariableFactory[] shardFactories = new AbstractRandomVariableFactory[shards.length];
+			for(int shardIndex=0; shardIndex<shards.length; shardIndex++) {
+				shardFactories[shardIndex] = new RandomVariableFactory();
+				shards[shardIndex] = shardIndex == 0 ? new RandomVariableFromDoubleArray(2.0) : ((RandomVariableSharded)xSharded).getShard(shardIndex);
+			}
+			final RandomVariable partlyDeterministic = new RandomVariableSharded(partition, shards, shardFactories);
+			final RandomVariable expected = new RandomVariableFromDoubleArray(1.0, partlyDeterministic.getRealizations());
+			Assert.assertEquals("Size", numberOfPaths, partlyDeterministic.size());
+			Assert.assertEquals("Average with deterministic shard", expected.getAverage(), partlyDeterministic.getAverage(), 1E-12);
+			Assert.assertEquals("Variance with deterministic shard", expected.getVariance(), partlyDeterministic.getVariance(), 1E-12);
+			Assert.assertEquals("Average under probabilities with deterministic shard", expected.getAverage(normalizedProbabilities), partlyDeterministic.getAverage(normalizedProbabilities), 1E-12);
+		}
+	}
+
+	@Test
+	public void testBrownianMotionShardsUseIndependentStreams() {
+		final TimeDiscretization timeDiscretization = new TimeDiscretizationFromArray(0.0, 4, 0.25);
+		final int numberOfPaths = 300001;
+		final int seed = 3141;
+		final RandomVariableShardedFactory factory = getShardedFactory(new double[] { 1.0, 1.0, 1.0 });
+
+		final BrownianMotionSharded brownianMotion = new BrownianMotionSharded(timeDiscretization, 2, numberOfPaths, seed, factory);
+		final PathPartition partition = factory.getPartition(numberOfPaths);
+
+		final RandomVariable increment = brownianMotion.getBrownianIncrement(1, 1);
+		Assert.assertEquals(numberOfPaths, increment.size());
+		Assert.assertEquals("Mean", 0.0, increment.getAverage(), 4.0 * Math.sqrt(0.25 / numberOfPaths));
+		Assert.assertEquals("Variance", 0.25, increment.getVariance(), 0.01);
+
+		for(int shardIndex=0; shardIndex<partition.getNumberOfShards(); shardIndex++) {
+			// The shard is generated from the stream of the shard
+			final RandomVariable expected = new BrownianMotionPhilox(timeDiscretization, 2, partition.getShardSize(shardIndex), seed, shardIndex, factory.getShardFactory(shardIndex)).getBrownianIncrement(1, 1);
+			assertEqualsRandomVariable(expected, ((RandomVariableSharded)increment).getShard(shardIndex));
+		}
+
+		// The shards are not copies of each other (as they would be for the same stream)
+		final RandomVariable shard0 = ((RandomVariableSharded)increment).getShard(0);
+		final RandomVariable shard1 = ((RandomVariableSharded)increment).getShard(1);
+		double covariance = 0.0;
+		final int size = Math.min(partition.getShardSize(0), partition.getShardSize(1));
+		for(int path=0; path<size; path++) {
+			covariance += shard0.get(path) * shard1.get(path);
+		}
+		covariance /= size;
+		Assert.assertEquals("Covariance of shards", 0.0, covariance, 4.0 * 0.25 / Math.sqrt(size));
+
+		// Seeds of shards for generators without streams are distinct
+		final Set<Integer> seeds = new HashSet<Integer>();
+		for(int s=0; s<100; s++) {
+			for(int shardIndex=0; shardIndex<16; shardIndex++) {
+				seeds.add(BrownianMotionSharded.getSeedOfShard(s, shardIndex));
+			}
+		}
+		Assert.assertEquals("Distinct seeds", 1600, seeds.size());
+	}
+
+	@Test
+	public void testShardsOnDifferentCudaDevices() {
+		final int numberOfDevices = RandomVariableCuda.getNumberOfDevices();
+		Assume.assumeTrue("Requires at least two Cuda devices", numberOfDevices >= 2);
+
+		final AbstractRandomVariableFactory[] devices = new AbstractRandomVariableFactory[numberOfDevices];
+		final double[] weights = new double[numberOfDevices];
+		for(int deviceOrdinal=0; deviceOrdinal<numberOfDevices; deviceOrdinal++) {
+			devices[deviceOrdinal] = new RandomVariableCudaFactory(deviceOrdinal);
+			weights[deviceOrdinal] = 1.0;
+		}
+		final RandomVariableShardedFactory factory = new RandomVariableShardedFactory(devices, weights);
+
+		final int numberOfPaths = 100003;
+		final RandomVariable x = new RandomVariableFromFloatArray(1.0, getValues(numberOfPaths, 3141));
+		final RandomVariable y = new RandomVariableFromFloatArray(2.0, getValues(numberOfPaths, 2718));
+		final RandomVariable xSharded = factory.createRandomVariable(1.0, x.getRealizations());
+		final RandomVariable ySharded = factory.createRandomVariable(2.0, y.getRealizations());
+
+		final RandomVariable result = xSharded.mult(ySharded).add(xSharded.squared()).exp().discount(ySharded.abs(), 0.5);
+		final RandomVariable expected = x.mult(y).add(x.squared()).exp().discount(y.abs(), 0.5);
+
+		// Each shard and the results of its operations are on the device of its factory
+		for(int shardIndex=0; shardIndex<numberOfDevices; shardIndex++) {
+			Assert.assertEquals("Device of shard", shardIndex, ((RandomVariableCuda)((RandomVariableSharded)xSharded).getShard(shardIndex)).getDeviceOrdinal());
+			Assert.assertEquals("Device of result", shardIndex, ((RandomVariableCuda)((RandomVariableSharded)result).getShard(shardIndex)).getDeviceOrdinal());
+		}
+		Assert.assertArrayEquals(expected.getRealizations(), result.getRealizations(), 1E-5);
+		Assert.assertEquals("Average", expected.getAverage(), result.getAverage(), 1E-5);
+	}
+
+	private static RandomVariableShardedFactory getShardedFactory(final double[] weights) {
+		final AbstractRandomVariableFactory[] devices = new AbstractRandomVariableFactory[weights.length];
+		for(int deviceIndex=0; deviceIndex<devices.length; deviceIndex++) {
+			devices[deviceIndex] = new RandomVariableFactory();
+		}
+		return new RandomVariableShardedFactory(devices, weights);
+	}
+
+	private static void assertPartitionConsistent(final PathPartition partition) {
+		int start = 0;
+		for(int shardIndex=0; shardIndex<partition.getNumberOfShards(); shardIndex++) {
+			Assert.assertEquals("Contiguous shards", start, partition.getShardStart(shardIndex));
+			for(int path=start; path<start+partition.getShardSize(shardIndex); path++) {
+				Assert.assertEquals("Shard of path", shardIndex, partition.getShard(path));
+			}
+			start += partition.getShardSize(shardIndex);
+		}
+		Assert.assertEquals(partition.getNumberOfPaths(), start);
+	}
+
+	private static void assertEqualsRandomVariable(final RandomVariable expected, final RandomVariable actual) {
+		Assert.assertEquals("Size", expected.size(), actual.size());
+		Assert.assertEquals("Filtration time", expected.getFiltrationTime(), actual.getFiltrationTime(), 0.0);
+		for(int i=0; i<expected.size(); i++) {
+			Assert.assertEquals("Realization " + i, expected.get(i), actual.get(i), 1E-14 * (1.0 + Math.abs(expected.get(i))));
+		}
+	}
+
+	private static double[] getValues(final int size, final int seed) {
+		final Random random = new Random(seed);
+		final double[] values = new double[size];
+		for(int i=0; i<size; i++) {
+			values[i] = random.nextGaussian();
+		}
+		return values;
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Test cases for the n-ary operators of net.finmath.montecarlo.RandomVariableSumOperators,
+ * comparing the fused evaluation with the evaluation by <code>add</code> and <code>addProduct</code> in double precision.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.RandomVariableSumOperators
+ */
+public class RandomVariableSumOperatorsTest {
+
+	private static final int numberOfSummands = 25;
+	private static final int numberOfPaths = 300000;	// Above the threshold of the parallel execution
+
+	@Test
+	public void testFloatArray() {
+		final Random random = new Random(3141);
+		final List<RandomVariable> summands = new ArrayList<>();
+		final List<RandomVariable> factors = new ArrayList<>();
+		final List<RandomVariable> summandsReference = new ArrayList<>();
+		final List<RandomVariable> factorsReference = new ArrayList<>();
+		final double[] weights = new double[numberOfSummands];
+		for(int k=0; k<numberOfSummands; k++) {
+			final double[] values1 = getValues(random);
+			final double[] values2 = getValues(random);
+			summands.add(k % 5 == 3 ? new RandomVariableFromFloatArray(0.5) : new RandomVariableFromFloatArray(0.0, values1));
+			factors.add(k % 4 == 1 ? new RandomVariableFromFloatArray(2.0) : new RandomVariableFromFloatArray(0.0, values2));
+			summandsReference.add(k % 5 == 3 ? new RandomVariableFromDoubleArray(0.5) : new RandomVariableFromDoubleArray(0.0, getFloatValues(values1)));
+			factorsReference.add(k % 4 == 1 ? new RandomVariableFromDoubleArray(2.0) : new RandomVariableFromDoubleArray(0.0, getFloatValues(values2)));
+			weights[k] = random.nextDouble();
+		}
+
+		final RandomVariableFromFloatArray stochasticBase = new RandomVariableFromFloatArray(0.0, getValues(random));
+		final RandomVariable stochasticBaseReference = new RandomVariableFromDoubleArray(0.0, stochasticBase.getRealizations());
+		final RandomVariableFromFloatArray deterministicBase = new RandomVariableFromFloatArray(1.0);
+		final RandomVariable deterministicBaseReference = new RandomVariableFromDoubleArray(1.0);
+
+		assertEqualRealizations(fold(stochasticBaseReference, summandsReference, null, null), stochasticBase.addSum(summands));
+		assertEqualRealizations(fold(deterministicBaseReference, summandsReference, null, null), deterministicBase.addSum(summands));
+		assertEqualRealizations(fold(stochasticBaseReference, summandsReference, null, weights), stochasticBase.addWeightedSum(summands, weights));
+		assertEqualRealizations(fold(deterministicBaseReference, summandsReference, null, weights), deterministicBase.addWeightedSum(summands, weights));
+		assertEqualRealizations(fold(stochasticBaseReference, summandsReference, factorsReference, null), stochasticBase.addSumProduct(summands, factors));
+		assertEqualRealizations(fold(deterministicBaseReference, summandsReference, factorsReference, null), deterministicBase.addSumProduct(summands, factors));
+
+		// Summands of another type are read through the interface
+		assertEqualRealizations(fold(stochasticBaseReference, summandsReference, factorsReference, null), stochasticBase.addSumProduct(summandsReference, factorsReference));
+	}
+
+	@Test
+	public void testDeterministic() {
+		final RandomVariable sum = new RandomVariableFromFloatArray(1.0).addWeightedSum(
+				Arrays.asList(new RandomVariableFromFloatArray(2.0), new RandomVariableFromFloatArray(3.0, 4.0)), new double[] { 0.5, 0.25 });
+		Assert.assertTrue(sum.isDeterministic());
+		Assert.assertEquals(3.0, sum.doubleValue(), 1E-12);
+		Assert.assertEquals(3.0, sum.getFiltrationTime(), 0.0);
+
+		final RandomVariable empty = new RandomVariableFromFloatArray(0.0, new double[] { 1.0, 2.0 }).addSum(new ArrayList<>());
+		Assert.assertEquals(1.5, empty.getAverage(), 1E-12);
+	}
+
+	@Test
+	public void testSharded() {
+		final RandomVariableShardedFactory factory = new RandomVariableShardedFactory(new AbstractRandomVariableFactory[] { new RandomVariableFloatFactory(), new RandomVariableFloatFactory() }, new double[] { 0.3, 0.7 });
+
+		final Random random = new Random(3141);
+		final List<RandomVariable> summands = new ArrayList<>();
+		final List<RandomVariable> summandsReference = new ArrayList<>();
+		final double[] weights = new double[numberOfSummands];
+		for(int k=0; k<numberOfSummands; k++) {
+			final double[] values = getFloatValues(getValues(random));
+			summands.add(factory.createRandomVariable(0.0, values));
+			summandsReference.add(new RandomVariableFromDoubleArray(0.0, values));
+			weights[k] = random.nextDouble();
+		}
+
+		final RandomVariable zero = factory.createRandomVariable(0.0);
+		final RandomVariable sum = RandomVariableSumOperators.addWeightedSum(zero, summands, weights);
+		Assert.assertTrue(sum instanceof RandomVariableSharded);
+		assertEqualRealizations(fold(new RandomVariableFromDoubleArray(0.0), summandsReference, null, weights), sum);
+		assertEqualRealizations(fold(new RandomVariableFromDoubleArray(0.0), summandsReference, summandsReference, null), zero.addSumProduct(summands, summands));
+	}
+
+	@Test
+	public void testTypePriority() {
+		final RandomVariable sharded = new RandomVariableShardedFactory(new AbstractRandomVariableFactory[] { new RandomVariableFloatFactory() }, new double[] { 1.0 })
+				.createRandomVariable(0.0, new double[] { 1.0, 2.0, 3.0 });
+
+		// A summand with higher type priority determines the type of the result
+		final RandomVariable sum = new RandomVariableFromFloatArray(1.0).addSum(Arrays.asList(new RandomVariableFromFloatArray(0.0, new double[] { 1.0, 1.0, 1.0 }), sharded));
+		Assert.assertTrue(sum instanceof RandomVariableSharded);
+		Assert.assertEquals(4.0, sum.getAverage(), 1E-12);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNumberOfWeights() {
+		new RandomVariableFromFloatArray(1.0).addWeightedSum(Arrays.asList(new RandomVariableFromFloatArray(2.0)), new double[] { 1.0, 2.0 });
+	}
+
+	private static RandomVariable fold(final RandomVariable base, final List<RandomVariable> factors1, final List<RandomVariable> factors2, final double[] weights) {
+		RandomVariable result = base;
+		for(int k=0; k<factors1.size(); k++) {
+			final RandomVariable factor2 = factors2 != null ? factors2.get(k) : new RandomVariableFromDoubleArray(1.0);
+			result = result.addProduct(factors1.get(k).mult(factor2), weights != null ? weights[k] : 1.0);
+		}
+		return result;
+	}
+
+	private static void assertEqualRealizations(final RandomVariable expected, final RandomVariable actual) {
+		final double[] expectedRealizations = expected.getRealizations();
+		final double[] actualRealizations = actual.getRealizations();
+		Assert.assertEquals(expectedRealizations.length, actualRealizations.length);
+		for(int i=0; i<expectedRealizations.length; i++) {
+			Assert.assertEquals(expectedRealizations[i], actualRealizations[i], 1E-4 * (1.0 + Math.abs(expectedRealizations[i])));
+		}
+	}
+
+	private static double[] getValues(final Random random) {
+		final double[] values = new double[numberOfPaths];
+		for(int i=0; i<values.length; i++) {
+			values[i] = random.nextGaussian();
+		}
+		return values;
+	}
+
+	private static double[] getFloatValues(final double[] values) {
+		final double[] floatValues = new double[values.length];
+		for(int i=0; i<values.length; i++) {
+			floatValues[i] = (float)values[i];
+		}
+		return floatValues;
+	}
+}
@@ -0,0 +1,210 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test cases for the classes net.finmath.montecarlo.ReferenceCountingMemoryPool and net.finmath.montecarlo.DeviceMemoryScope,
+ * using a pure Java (fake) device.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.ReferenceCountingMemoryPool
+ */
+public class ReferenceCountingMemoryPoolTest {
+
+	/**
+	 * A device with a given capacity, whose vectors are float arrays.
+	 */
+	private static class FakeDevice implements DeviceMemoryAllocator<float[]> {
+
+		private final long capacity;
+		private long allocatedSize = 0;
+		private int numberOfAllocations = 0;
+		private int numberOfFrees = 0;
+
+		FakeDevice(final long capacity) {
+			this.capacity = capacity;
+		}
+
+		@Override
+		public synchronized float[] allocate(final long size) {
+			if(allocatedSize + size > capacity) {
+				return null;
+			}
+			allocatedSize += size;
+			numberOfAllocations++;
+			return new float[(int)size];
+		}
+
+		@Override
+		public synchronized void free(final float[] pointer, final long size) {
+			allocatedSize -= size;
+			numberOfFrees++;
+		}
+
+		@Override
+		public synchronized double getFreeMemoryFraction() {
+			return 1.0 - (double)allocatedSize / capacity;
+		}
+	}
+
+	@Test
+	public void testScopeReleasesTemporaries() {
+		final FakeDevice device = new FakeDevice(1000);
+		final ReferenceCountingMemoryPool<float[]> pool = new ReferenceCountingMemoryPool<float[]>(device);
+
+		final DeviceMemoryReference<float[]> result;
+		try(DeviceMemoryScope scope = DeviceMemoryScope.open()) {
+			for(int i=0; i<9; i++) {
+				pool.getDeviceMemory(10);
+			}
+			result = scope.keep(pool.getDeviceMemory(10));
+			Assert.assertEquals(9, scope.getNumberOfReferences());
+		}
+
+		Assert.assertEquals(9, pool.getNumberOfVectorsReleased());
+		Assert.assertEquals(1, pool.getNumberOfVectorsInUse());
+		Assert.assertFalse(result.isReleased());
+		Assert.assertEquals(10, result.get().length);
+
+		// Repeated valuations re-use the released vectors
+		for(int valuation=0; valuation<100; valuation++) {
+			try(DeviceMemoryScope scope = DeviceMemoryScope.open()) {
+				for(int i=0; i<9; i++) {
+					pool.getDeviceMemory(10);
+				}
+				Assert.assertEquals(9, scope.getNumberOfReferences());
+			}
+		}
+		Assert.assertEquals(10, device.numberOfAllocations);
+
+		pool.clean();
+		Assert.assertEquals(9, device.numberOfFrees);
+		Assert.assertEquals(10, device.allocatedSize);
+
+		result.release();
+		Assert.assertEquals(1, pool.getNumberOfVectorsReleased());
+	}
+
+	@Test
+	public void testReferenceCounting() {
+		final ReferenceCountingMemoryPool<float[]> pool = new ReferenceCountingMemoryPool<float[]>(new FakeDevice(1000));
+
+		final DeviceMemoryReference<float[]> reference = pool.getDeviceMemory(10);
+		Assert.assertEquals(1, reference.getReferenceCount());
+		reference.retain();
+		Assert.assertEquals(2, reference.getReferenceCount());
+
+		reference.release();
+		Assert.assertFalse(reference.isReleased());
+		Assert.assertEquals(0, pool.getNumberOfVectorsReleased());
+
+		reference.release();
+		Assert.assertTrue(reference.isReleased());
+		Assert.assertEquals(1, pool.getNumberOfVectorsReleased());
+		Assert.assertEquals(0, pool.getNumberOfVectorsInUse());
+
+		try {
+			reference.get();
+			Assert.fail("Expected IllegalStateException");
+		}
+		catch(final IllegalStateException e) {
+			// expected
+		}
+		try {
+			reference.release();
+			Assert.fail("Expected IllegalStateException");
+		}
+		catch(final IllegalStateException e) {
+			// expected
+		}
+
+		// A retained vector survives the scope
+		final DeviceMemoryReference<float[]> retained;
+		try(DeviceMemoryScope scope = DeviceMemoryScope.open()) {
+			retained = pool.getDeviceMemory(10).retain();
+			Assert.assertEquals(1, scope.getNumberOfReferences());
+		}
+		Assert.assertEquals(1, retained.getReferenceCount());
+		retained.close();
+		Assert.assertTrue(retained.isReleased());
+	}
+
+	@Test
+	@SuppressWarnings("try")	// The outer scope is closed explicitly to test the order of the scopes
+	public void testNestedScopes() {
+		final ReferenceCountingMemoryPool<float[]> pool = new ReferenceCountingMemoryPool<float[]>(new FakeDevice(1000));
+
+		final DeviceMemoryReference<float[]> keptByInnerScope;
+		final DeviceMemoryReference<float[]> untracked;
+		try(DeviceMemoryScope outerScope = DeviceMemoryScope.open()) {
+			try(DeviceMemoryScope innerScope = DeviceMemoryScope.open()) {
+				keptByInnerScope = innerScope.keep(pool.getDeviceMemory(10));
+				pool.getDeviceMemory(10);
+
+				try(DeviceMemoryScope untrackedScope = DeviceMemoryScope.openUntracked()) {
+					untracked = pool.getDeviceMemory(10);
+					Assert.assertEquals(0, untrackedScope.getNumberOfReferences());
+				}
+
+				// Scopes have to be closed in reverse order
+				try {
+					outerScope.close();
+					Assert.fail("Expected IllegalStateException");
+				}
+				catch(final IllegalStateException e) {
+					// expected
+				}
+			}
+			Assert.assertFalse(keptByInnerScope.isReleased());
+			Assert.assertEquals(1, outerScope.getNumberOfReferences());
+			Assert.assertEquals(1, pool.getNumberOfVectorsReleased());
+		}
+		Assert.assertTrue(keptByInnerScope.isReleased());
+		Assert.assertFalse(untracked.isReleased());
+		Assert.assertEquals(2, pool.getNumberOfVectorsReleased());
+
+		// Objects not holding device memory are ignored
+		try(DeviceMemoryScope scope = DeviceMemoryScope.open()) {
+			Assert.assertEquals("value", scope.keep("value"));
+		}
+	}
+
+	@Test
+	public void testGarbageCollectionAsSafetyNet() {
+		// The device holds 10 vectors
+		final FakeDevice device = new FakeDevice(100);
+		final ReferenceCountingMemoryPool<float[]> pool = new ReferenceCountingMemoryPool<float[]>(device);
+
+		// Vectors which are never released are recycled after their handles have been garbage collected
+		for(int i=0; i<100; i++) {
+			Assert.assertEquals(10, pool.getDeviceMemory(10).get().length);
+		}
+		Assert.assertTrue(device.allocatedSize <= device.capacity);
+
+		// Vectors of a different size: the unused vectors are freed
+		pool.clean();
+		for(int i=0; i<20; i++) {
+			Assert.assertEquals(50, pool.getDeviceMemory(50).get().length);
+		}
+		Assert.assertTrue(device.allocatedSize <= device.capacity);
+
+		// Out of memory if all vectors are in use
+		final DeviceMemoryReference<?>[] references = new DeviceMemoryReference<?>[2];
+		references[0] = pool.getDeviceMemory(50);
+		references[1] = pool.getDeviceMemory(50);
+		try {
+			pool.getDeviceMemory(50);
+			Assert.fail("Expected OutOfMemoryError");
+		}
+		catch(final OutOfMemoryError e) {
+			// expected
+		}
+		Assert.assertEquals(2, pool.getNumberOfVectorsInUse());
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.LongUnaryOperator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.montecarlo.SimulatedDevice.DevicePointer;
+
+/**
+ * Test cases for the class net.finmath.montecarlo.SlabAllocator, using the net.finmath.montecarlo.SimulatedDevice.
+ *
+ * @author Christian Fries
+ * @see net.finmath.montecarlo.SlabAllocator
+ */
+public class SlabAllocatorTest {
+
+	private static final long slabSize = 1 << 16;
+
+	@Test
+	public void testSizeClasses() {
+		final LongUnaryOperator powersOfTwo = SlabAllocator.getSizeClasses(1);
+		Assert.assertEquals(1, powersOfTwo.applyAsLong(1));
+		Assert.assertEquals(1024, powersOfTwo.applyAsLong(1000));
+		Assert.assertEquals(1024, powersOfTwo.applyAsLong(1024));
+		Assert.assertEquals(2048, powersOfTwo.applyAsLong(1025));
+
+		final int numberOfClassesPerDoubling = 4;
+		final LongUnaryOperator sizeClasses = SlabAllocator.getSizeClasses(numberOfClassesPerDoubling);
+		for(long size=1; size<100000; size++) {
+			final long sizeClass = sizeClasses.applyAsLong(size);
+			Assert.assertTrue("Size class covers size", sizeClass >= size);
+			Assert.assertTrue("Waste of size class", sizeClass - size < Math.max(1.0, (double)size / numberOfClassesPerDoubling));
+			Assert.assertEquals("Size class is idempotent", sizeClass, sizeClasses.applyAsLong(sizeClass));
+		}
+	}
+
+	@Test
+	public void testBlocksDoNotOverlap() {
+		final SimulatedDevice device = new SimulatedDevice(1L << 30);
+		final SlabAllocator<DevicePointer> allocator = new SlabAllocator<DevicePointer>(device, DevicePointer::withOffset, slabSize);
+
+		final Random random = new Random(3141);
+		final List<DevicePointer> pointers = new ArrayList<DevicePointer>();
+		final Map<DevicePointer, Long> sizes = new HashMap<DevicePointer, Long>();
+		for(int step=0; step<20000; step++) {
+			if(pointers.isEmpty() || random.nextDouble() < 0.55) {
+				final long size = 1 + random.nextInt(random.nextBoolean() ? 5000 : 100000);
+				final DevicePointer pointer = allocator.allocate(size);
+				Assert.assertNotNull(pointer);
+				pointers.add(pointer);
+				sizes.put(pointer, size);
+			}
+			else {
+				final DevicePointer pointer = pointers.remove(random.nextInt(pointers.size()));
+				allocator.free(pointer, sizes.remove(pointer));
+			}
+
+			if(step % 1000 == 0) {
+				final TreeMap<Long, Long> blocks = new TreeMap<Long, Long>();
+				for(final DevicePointer pointer : pointers) {
+					final long allocationSize = allocator.getAllocationSize(sizes.get(pointer));
+					Assert.assertTrue("Block is on device", device.isAllocated(pointer.getAddress()) && device.isAllocated(pointer.getAddress() + allocationSize - 1));
+					Assert.assertNull("Block is unique", blocks.put(pointer.getAddress(), allocationSize));
+				}
+				long end = 0;
+				for(final Map.Entry<Long, Long> block : blocks.entrySet()) {
+					Assert.assertTrue("Blocks do not overlap", block.getKey() >= end);
+					end = block.getKey() + block.getValue();
+				}
+			}
+		}
+
+		for(final DevicePointer pointer : pointers) {
+			allocator.free(pointer, sizes.get(pointer));
+		}
+		Assert.assertEquals("Slabs", 0, allocator.getNumberOfSlabs());
+		Assert.assertEquals("Device vectors", 0, device.getNumberOfVectors());
+	}
+
+	@Test
+	public void testSizeClassesReduceDeviceAllocations() {
+		final Random random = new Random(3141);
+		final long[] sizes = new long[2000];
+		for(int i=0; i<sizes.length; i++) {
+			// Vectors of varying size, e.g. partial reductions and paths of different simulations
+			sizes[i] = 10000 + random.nextInt(2000);
+		}
+
+		final SimulatedDevice deviceExactSize = new SimulatedDevice(1L << 26);
+		final long allocationsExactSize = getNumberOfDeviceAllocations(new ReferenceCountingMemoryPool<DevicePointer>(deviceExactSize), sizes);
+
+		final SimulatedDevice device = new SimulatedDevice(1L << 26);
+		final SlabAllocator<DevicePointer> allocator = new SlabAllocator<DevicePointer>(device, DevicePointer::withOffset, slabSize);
+		final long allocations = getNumberOfDeviceAllocations(new ReferenceCountingMemoryPool<DevicePointer>(allocator), sizes);
+
+		Assert.assertEquals(allocationsExactSize, deviceExactSize.getNumberOfAllocations());
+		Assert.assertTrue("Device allocations with size classes " + device.getNumberOfAllocations() + " vs. exact sizes " + allocationsExactSize,
+				device.getNumberOfAllocations() * 10 < allocationsExactSize);
+		Assert.assertTrue("Vectors re-used", allocations < 10);
+	}
+
+	@Test
+	public void testCleanReturnsEmptySlabs() {
+		final SimulatedDevice device = new SimulatedDevice(1L << 26);
+		final SlabAllocator<DevicePointer> allocator = new SlabAllocator<DevicePointer>(device, DevicePointer::withOffset, slabSize);
+		final ReferenceCountingMemoryPool<DevicePointer> pool = new ReferenceCountingMemoryPool<DevicePointer>(allocator);
+
+		try(DeviceMemoryScope scope = DeviceMemoryScope.open()) {
+			// The size class of 1000 is 1024
+			for(int i=0; i<128; i++) {
+				pool.getDeviceMemory(1000);
+			}
+			Assert.assertEquals("Vectors sharing slabs", 128 * 1024 / slabSize, allocator.getNumberOfSlabs());
+			Assert.assertEquals(128, scope.getNumberOfReferences());
+			Assert.assertEquals("Utilization", 1.0, allocator.getUtilization(), 0.0);
+			Assert.assertEquals("Hit rate", 1.0 - 2.0 / 128, allocator.getHitRate(), 1E-12);
+		}
+		Assert.assertEquals(128, pool.getNumberOfVectorsReleased());
+		Assert.assertTrue(device.getNumberOfVectors() > 0);
+
+		pool.clean();
+		Assert.assertEquals("Slabs", 0, allocator.getNumberOfSlabs());
+		Assert.assertEquals("Reserved size", 0, allocator.getReservedSize());
+		Assert.assertEquals("Device vectors", 0, device.getNumberOfVectors());
+	}
+
+	@Test
+	public void testPrewarm() {
+		final SimulatedDevice device = new SimulatedDevice(1L << 26);
+		final SlabAllocator<DevicePointer> allocator = new SlabAllocator<DevicePointer>(device, DevicePointer::withOffset, slabSize);
+		final ReferenceCountingMemoryPool<DevicePointer> pool = new ReferenceCountingMemoryPool<DevicePointer>(allocator);
+
+		pool.prewarm(5000, 20);
+		final long numberOfDeviceAllocations = device.getNumberOfAllocations();
+		Assert.assertEquals(20, pool.getNumberOfVectorsReleased());
+
+		try(DeviceMemoryScope scope = DeviceMemoryScope.open()) {
+			for(int i=0; i<20; i++) {
+				// Sizes of the same size class
+				Assert.assertNotNull(pool.getDeviceMemory(4900 + i).get());
+			}
+			Assert.assertEquals(20, scope.getNumberOfReferences());
+		}
+		Assert.assertEquals("Allocations after pre-warming", 20, pool.getNumberOfAllocations());
+		Assert.assertEquals("Device allocations after pre-warming", numberOfDeviceAllocations, device.getNumberOfAllocations());
+	}
+
+	@Test
+	public void testVectorLargerThanSlab() {
+		final SimulatedDevice device = new SimulatedDevice(1L << 20);
+		final SlabAllocator<DevicePointer> allocator = new SlabAllocator<DevicePointer>(device, DevicePointer::withOffset, slabSize);
+
+		final long size = 3 * slabSize + 1;
+		final DevicePointer pointer = allocator.allocate(size);
+		Assert.assertNotNull(pointer);
+		Assert.assertEquals(1, allocator.getNumberOfSlabs());
+		Assert.assertEquals(allocator.getAllocationSize(size), device.getAllocatedSize());
+
+		// Not enough memory for a full slab: a slab holding a single block is allocated
+		final long sizeOfSmallVectors = 1000;
+		final long remaining = device.getCapacity() - device.getAllocatedSize();
+		final DevicePointer pointerOfSmallVector = new SlabAllocator<DevicePointer>(device, DevicePointer::withOffset, 2 * remaining).allocate(sizeOfSmallVectors);
+		Assert.assertNotNull(pointerOfSmallVector);
+
+		Assert.assertNull("Out of memory", allocator.allocate(device.getCapacity()));
+
+		allocator.free(pointer, size);
+		Assert.assertEquals(0, allocator.getNumberOfSlabs());
+	}
+
+	private static long getNumberOfDeviceAllocations(final ReferenceCountingMemoryPool<DevicePointer> pool, final long[] sizes) {
+		for(int i=0; i<sizes.length; i+=4) {
+			try(DeviceMemoryScope scope = DeviceMemoryScope.open()) {
+				for(int j=i; j<Math.min(i+4, sizes.length); j++) {
+					pool.getDeviceMemory(sizes[j]);
+				}
+				Assert.assertEquals(Math.min(i+4, sizes.length) - i, scope.getNumberOfReferences());
+			}
+		}
+		return pool.getNumberOfAllocations();
+	}
+}
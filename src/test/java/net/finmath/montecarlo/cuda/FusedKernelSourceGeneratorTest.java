@@ -0,0 +1,118 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo.cuda;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import net.finmath.montecarlo.RandomVariableFloatLazyEvaluation;
+import net.finmath.montecarlo.RandomVariableFromFloatArray;
+import net.finmath.montecarlo.expression.FloatExpressionInterpreter;
+import net.finmath.montecarlo.expression.FloatExpressionProgram;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * Tests of the fused kernel generation. The tests do not require a CUDA device: the kernels are
+ * "compiled" by a stub and the programs are executed by the Java interpreter.
+ *
+ * @author Christian Fries
+ */
+public class FusedKernelSourceGeneratorTest {
+
+	private static final int numberOfPaths = 10000;
+
+	/**
+	 * A backend using the kernel cache with a stub compiler and executing the programs on the host.
+	 */
+	private static class KernelCacheInterpreter extends FloatExpressionInterpreter {
+		private final FusedKernelCache<String> kernelCache = new FusedKernelCache<>((name, source) -> source);
+
+		@Override
+		public Object evaluate(final FloatExpressionProgram program) {
+			kernelCache.getKernel(program);
+			return super.evaluate(program);
+		}
+	}
+
+	@Test
+	public void testSource() {
+		final RandomVariable[] arguments = getArguments(new FloatExpressionInterpreter());
+		final RandomVariable value = arguments[0].exp().mult(100.0).sub(arguments[1].exp().mult(95.0)).floor(0.0).discount(arguments[1], 2.0);
+		final FloatExpressionProgram program = FloatExpressionProgram.of(((RandomVariableFloatLazyEvaluation)value).getExpression());
+
+		final String source = FusedKernelSourceGenerator.getSource(program);
+		final String name = FusedKernelSourceGenerator.getKernelName(program);
+
+		Assert.assertTrue(source.contains("__global__ void " + name + "(int n, float *i0, float *i1, float p1_0, float p3_0, float p5_0, float p6_0, float *result)"));
+		Assert.assertTrue(source.contains("float t0 = (float)exp((double)i0[i]);"));
+		Assert.assertTrue(source.contains("float t4 = t1 - t3;"));
+		Assert.assertTrue(source.contains("float t5 = t4 > p5_0 ? t4 : p5_0;"));
+		Assert.assertTrue(source.contains("float t6 = t5 / (1.0f + i1[i] * p6_0);"));
+		Assert.assertTrue(source.contains("result[i] = t" + (program.getInstructions().size()-1) + ";"));
+		Assert.assertEquals(4, FusedKernelSourceGenerator.getScalarArguments(program).length);
+	}
+
+	@Test
+	public void testKernelIsIndependentOfValues() {
+		final RandomVariable[] arguments1 = getArguments(new FloatExpressionInterpreter());
+		final RandomVariable[] arguments2 = getArguments(new FloatExpressionInterpreter());
+
+		final FloatExpressionProgram program1 = FloatExpressionProgram.of(((RandomVariableFloatLazyEvaluation)arguments1[0].mult(0.5).add(arguments1[1])).getExpression());
+		final FloatExpressionProgram program2 = FloatExpressionProgram.of(((RandomVariableFloatLazyEvaluation)arguments2[1].mult(2.0).add(arguments2[0])).getExpression());
+		final FloatExpressionProgram program3 = FloatExpressionProgram.of(((RandomVariableFloatLazyEvaluation)arguments2[1].add(2.0).add(arguments2[0])).getExpression());
+
+		Assert.assertEquals(FusedKernelSourceGenerator.getKernelName(program1), FusedKernelSourceGenerator.getKernelName(program2));
+		Assert.assertEquals(FusedKernelSourceGenerator.getSource(program1), FusedKernelSourceGenerator.getSource(program2));
+		Assert.assertNotEquals(FusedKernelSourceGenerator.getSource(program1), FusedKernelSourceGenerator.getSource(program3));
+
+		final FusedKernelCache<String> kernelCache = new FusedKernelCache<>((name, source) -> source);
+		kernelCache.getKernel(program1);
+		kernelCache.getKernel(program2);
+		kernelCache.getKernel(program3);
+		kernelCache.getKernel(program1);
+		Assert.assertEquals(2, kernelCache.getNumberOfCompilations());
+		Assert.assertEquals(2, kernelCache.getNumberOfHits());
+		Assert.assertEquals(2, kernelCache.size());
+	}
+
+	@Test
+	public void testTimeSteppingCompilesOnce() {
+		final KernelCacheInterpreter backend = new KernelCacheInterpreter();
+		final RandomVariable[] argumentsEager = getArguments(null);
+		final RandomVariable[] argumentsLazy = getArguments(backend);
+
+		RandomVariable valueEager = argumentsEager[0];
+		RandomVariable valueLazy = argumentsLazy[0];
+		for(int timeIndex=0; timeIndex<50; timeIndex++) {
+			final double drift = -0.5 * 0.04 * 0.1 + 0.0001 * timeIndex;
+			valueEager = valueEager.mult(argumentsEager[1].mult(0.2 * Math.sqrt(0.1)).add(drift).exp());
+			valueLazy = valueLazy.mult(argumentsLazy[1].mult(0.2 * Math.sqrt(0.1)).add(drift).exp());
+			valueLazy.cache();
+		}
+
+		Assert.assertEquals(1, backend.kernelCache.getNumberOfCompilations());
+		Assert.assertEquals(49, backend.kernelCache.getNumberOfHits());
+		for(int i=0; i<numberOfPaths; i++) {
+			Assert.assertEquals("path " + i, Float.floatToRawIntBits((float)valueEager.get(i)), Float.floatToRawIntBits((float)valueLazy.get(i)));
+		}
+	}
+
+	private static RandomVariable[] getArguments(final FloatExpressionInterpreter backend) {
+		final Random random = new Random(3141);
+		final RandomVariable[] arguments = new RandomVariable[2];
+		for(int argumentIndex=0; argumentIndex<arguments.length; argumentIndex++) {
+			final float[] realizations = new float[numberOfPaths];
+			for(int i=0; i<numberOfPaths; i++) {
+				realizations[i] = (float)random.nextGaussian();
+			}
+			final RandomVariable randomVariable = new RandomVariableFromFloatArray(0.0, realizations);
+			arguments[argumentIndex] = backend == null ? randomVariable : new RandomVariableFloatLazyEvaluation(randomVariable, backend);
+		}
+		return arguments;
+	}
+}
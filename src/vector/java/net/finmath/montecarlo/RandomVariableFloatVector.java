@@ -0,0 +1,888 @@
+/*
+ * (c) Copyright Christian P. Fries, Germany. All rights reserved. Contact: email@christian-fries.de.
+ *
+ * Created on 15.10.2026
+ */
+package net.finmath.montecarlo;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+import net.finmath.stochastic.RandomVariable;
+
+/**
+ * A {@link RandomVariableFromFloatArray} performing the arithmetic operations, cap/floor, exp/log/pow,
+ * accrue/discount, addProduct and the reductions (average, moments, min, max) with the JDK Vector API (SIMD),
+ * using the preferred vector species of the platform (e.g. 16 floats on AVX-512).
+ *
+ * The element-wise operations give the same results as {@link RandomVariableFromFloatArray}, except for
+ * exp, log and pow, which may differ by one ulp. The reductions use compensated summation in double precision
+ * per lane and may differ from {@link RandomVariableFromFloatArray} by rounding.
+ * Operations not listed above are inherited (their result is a {@link RandomVariableFromFloatArray}).
+ *
+ * This class requires Java 16 or later with the incubator module <code>jdk.incubator.vector</code>
+ * (<code>--add-modules jdk.incubator.vector</code>). It is compiled by the Maven profile <code>vector</code> only.
+ * Use {@link RandomVariableFloatVectorFactory}, which falls back to {@link RandomVariableFromFloatArray} if the
+ * Vector API is not available.
+ *
+ * @author Christian Fries
+ * @version 1.0
+ */
+public class RandomVariableFloatVector extends RandomVariableFromFloatArray {
+
+	private static final long serialVersionUID = 6045138725916309717L;
+
+	private static final VectorSpecies<Float>	SPECIES = FloatVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Double>	SPECIES_DOUBLE = DoubleVector.SPECIES_PREFERRED;
+
+	// The float species having the same number of lanes as SPECIES_DOUBLE (for the conversion to double)
+	private static final VectorSpecies<Float>	SPECIES_FLOAT_FOR_DOUBLE = VectorSpecies.of(float.class, VectorShape.forBitSize(SPECIES_DOUBLE.vectorBitSize() / 2));
+
+	/**
+	 * Create a non stochastic random variable, i.e. a constant.
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param value the value, a constant.
+	 */
+	public RandomVariableFloatVector(final double time, final double value) {
+		super(time, value);
+	}
+
+	/**
+	 * Create a stochastic random variable.
+	 *
+	 * Important: The realizations array is not cloned (no defensive copy is made).
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param realizations the vector of realizations.
+	 */
+	public RandomVariableFloatVector(final double time, final float[] realizations) {
+		super(time, realizations);
+	}
+
+	/**
+	 * Create a stochastic random variable.
+	 *
+	 * @param time the filtration time, set to 0.0 if not used.
+	 * @param realizations the vector of realizations.
+	 */
+	public RandomVariableFloatVector(final double time, final double[] realizations) {
+		super(time, realizations);
+	}
+
+	/**
+	 * @return The number of float lanes used by this implementation.
+	 */
+	public static int getNumberOfLanes() {
+		return SPECIES.length();
+	}
+
+	/*
+	 * Reductions
+	 */
+
+	@Override
+	public double getAverage() {
+		if(isDeterministic() || size() == 0) {
+			return super.getAverage();
+		}
+		return getSum(getRealizationsAsFloatArray()) / size();
+	}
+
+	@Override
+	public RandomVariableMoments getMoments() {
+		if(isDeterministic() || size() == 0) {
+			return super.getMoments();
+		}
+
+		final float[] realizations = getRealizationsAsFloatArray();
+		final double sum = getSum(realizations);
+		final double average = sum / realizations.length;
+
+		// Corrected two-pass algorithm: sum of squared deviations minus the correction from the sum of deviations
+		final int chunkSize = ParallelChunkExecutor.getChunkSize();
+		final double[] sumOfSquaredDeviations = new double[getNumberOfChunks(realizations.length)];
+		final double[] sumOfDeviations = new double[sumOfSquaredDeviations.length];
+		ParallelChunkExecutor.forEachChunk(realizations.length, (start, end) -> {
+			DoubleVector squaredDeviations = DoubleVector.zero(SPECIES_DOUBLE);
+			DoubleVector deviations = DoubleVector.zero(SPECIES_DOUBLE);
+			final int upperBound = start + SPECIES_FLOAT_FOR_DOUBLE.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES_FLOAT_FOR_DOUBLE.length()) {
+				final DoubleVector deviation = ((DoubleVector)FloatVector.fromArray(SPECIES_FLOAT_FOR_DOUBLE, realizations, i).convertShape(VectorOperators.F2D, SPECIES_DOUBLE, 0)).sub(average);
+				squaredDeviations = squaredDeviations.add(deviation.mul(deviation));
+				deviations = deviations.add(deviation);
+			}
+			double chunkSumOfSquaredDeviations = squaredDeviations.reduceLanes(VectorOperators.ADD);
+			double chunkSumOfDeviations = deviations.reduceLanes(VectorOperators.ADD);
+			for(; i<end; i++) {
+				final double deviation = realizations[i] - average;
+				chunkSumOfSquaredDeviations += deviation * deviation;
+				chunkSumOfDeviations += deviation;
+			}
+			sumOfSquaredDeviations[start / chunkSize] = chunkSumOfSquaredDeviations;
+			sumOfDeviations[start / chunkSize] = chunkSumOfDeviations;
+		});
+
+		double totalSumOfSquaredDeviations = 0.0;
+		double totalSumOfDeviations = 0.0;
+		for(int chunk=0; chunk<sumOfSquaredDeviations.length; chunk++) {
+			totalSumOfSquaredDeviations += sumOfSquaredDeviations[chunk];
+			totalSumOfDeviations += sumOfDeviations[chunk];
+		}
+		totalSumOfSquaredDeviations -= totalSumOfDeviations * totalSumOfDeviations / realizations.length;
+
+		return new RandomVariableMoments(realizations.length, sum, Math.max(totalSumOfSquaredDeviations, 0.0));
+	}
+
+	@Override
+	public double getMin() {
+		if(isDeterministic() || size() == 0) {
+			return super.getMin();
+		}
+
+		final float[] realizations = getRealizationsAsFloatArray();
+		final int chunkSize = ParallelChunkExecutor.getChunkSize();
+		final float[] chunkMin = new float[getNumberOfChunks(realizations.length)];
+		ParallelChunkExecutor.forEachChunk(realizations.length, (start, end) -> {
+			FloatVector min = FloatVector.broadcast(SPECIES, Float.POSITIVE_INFINITY);
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				min = min.min(FloatVector.fromArray(SPECIES, realizations, i));
+			}
+			float minOfChunk = min.reduceLanes(VectorOperators.MIN);
+			for(; i<end; i++) {
+				minOfChunk = Math.min(minOfChunk, realizations[i]);
+			}
+			chunkMin[start / chunkSize] = minOfChunk;
+		});
+
+		float min = chunkMin[0];
+		for(final float minOfChunk : chunkMin) {
+			min = Math.min(min, minOfChunk);
+		}
+		return min;
+	}
+
+	@Override
+	public double getMax() {
+		if(isDeterministic() || size() == 0) {
+			return super.getMax();
+		}
+
+		final float[] realizations = getRealizationsAsFloatArray();
+		final int chunkSize = ParallelChunkExecutor.getChunkSize();
+		final float[] chunkMax = new float[getNumberOfChunks(realizations.length)];
+		ParallelChunkExecutor.forEachChunk(realizations.length, (start, end) -> {
+			FloatVector max = FloatVector.broadcast(SPECIES, Float.NEGATIVE_INFINITY);
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				max = max.max(FloatVector.fromArray(SPECIES, realizations, i));
+			}
+			float maxOfChunk = max.reduceLanes(VectorOperators.MAX);
+			for(; i<end; i++) {
+				maxOfChunk = Math.max(maxOfChunk, realizations[i]);
+			}
+			chunkMax[start / chunkSize] = maxOfChunk;
+		});
+
+		float max = chunkMax[0];
+		for(final float maxOfChunk : chunkMax) {
+			max = Math.max(max, maxOfChunk);
+		}
+		return max;
+	}
+
+	/*
+	 * Element-wise operations
+	 */
+
+	@Override
+	public RandomVariableFromFloatArray exp() {
+		if(isDeterministic()) {
+			return super.exp();
+		}
+
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				x.lanewise(VectorOperators.EXP).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				x.lanewise(VectorOperators.EXP).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(getFiltrationTime(), newRealizations);
+	}
+
+	@Override
+	public RandomVariableFromFloatArray log() {
+		if(isDeterministic()) {
+			return super.log();
+		}
+
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				x.lanewise(VectorOperators.LOG).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				x.lanewise(VectorOperators.LOG).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(getFiltrationTime(), newRealizations);
+	}
+
+	@Override
+	public RandomVariable sqrt() {
+		if(isDeterministic()) {
+			return super.sqrt();
+		}
+
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				x.lanewise(VectorOperators.SQRT).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				x.lanewise(VectorOperators.SQRT).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(getFiltrationTime(), newRealizations);
+	}
+
+	@Override
+	public RandomVariable squared() {
+		if(isDeterministic()) {
+			return super.squared();
+		}
+
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				x.mul(x).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				x.mul(x).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(getFiltrationTime(), newRealizations);
+	}
+
+	@Override
+	public RandomVariable abs() {
+		if(isDeterministic()) {
+			return super.abs();
+		}
+
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				x.lanewise(VectorOperators.ABS).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				x.lanewise(VectorOperators.ABS).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(getFiltrationTime(), newRealizations);
+	}
+
+	@Override
+	public RandomVariable pow(final double exponent) {
+		if(isDeterministic()) {
+			return super.pow(exponent);
+		}
+
+		final float exponentAsFloat = (float)exponent;
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				x.lanewise(VectorOperators.POW, exponentAsFloat).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				x.lanewise(VectorOperators.POW, exponentAsFloat).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(getFiltrationTime(), newRealizations);
+	}
+
+	@Override
+	public RandomVariable cap(final double value) {
+		if(isDeterministic()) {
+			return super.cap(value);
+		}
+		return cap(getFiltrationTime(), (float)value);
+	}
+
+	private RandomVariable cap(final double newTime, final float value) {
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				x.min(value).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				x.min(value).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(newTime, newRealizations);
+	}
+
+	@Override
+	public RandomVariable floor(final double value) {
+		if(isDeterministic()) {
+			return super.floor(value);
+		}
+		return floor(getFiltrationTime(), (float)value);
+	}
+
+	private RandomVariable floor(final double newTime, final float value) {
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				x.max(value).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				x.max(value).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(newTime, newRealizations);
+	}
+
+	@Override
+	public RandomVariable add(final double value) {
+		if(isDeterministic()) {
+			return super.add(value);
+		}
+		return add(getFiltrationTime(), (float)value);
+	}
+
+	private RandomVariable add(final double newTime, final float value) {
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				x.add(value).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				x.add(value).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(newTime, newRealizations);
+	}
+
+	@Override
+	public RandomVariable sub(final double value) {
+		if(isDeterministic()) {
+			return super.sub(value);
+		}
+		return sub(getFiltrationTime(), (float)value);
+	}
+
+	private RandomVariable sub(final double newTime, final float value) {
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				x.sub(value).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				x.sub(value).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(newTime, newRealizations);
+	}
+
+	@Override
+	public RandomVariable mult(final double value) {
+		if(isDeterministic()) {
+			return super.mult(value);
+		}
+		return mult(getFiltrationTime(), (float)value);
+	}
+
+	private RandomVariable mult(final double newTime, final float value) {
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				x.mul(value).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				x.mul(value).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(newTime, newRealizations);
+	}
+
+	@Override
+	public RandomVariable div(final double value) {
+		if(isDeterministic()) {
+			return super.div(value);
+		}
+		return div(getFiltrationTime(), (float)value);
+	}
+
+	private RandomVariable div(final double newTime, final float value) {
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				x.div(value).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				x.div(value).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(newTime, newRealizations);
+	}
+
+	@Override
+	public RandomVariable cap(final RandomVariable randomVariable) {
+		final double newTime = Math.max(getFiltrationTime(), randomVariable.getFiltrationTime());
+		if(isVectorOperand(randomVariable) && randomVariable.isDeterministic()) {
+			return cap(newTime, (float)randomVariable.get(0));
+		}
+		final float[] argument = getVectorOperand(randomVariable);
+		if(argument == null) {
+			return super.cap(randomVariable);
+		}
+
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				final FloatVector y = FloatVector.fromArray(SPECIES, argument, i);
+				x.min(y).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				final FloatVector y = FloatVector.fromArray(SPECIES, argument, i, mask);
+				x.min(y).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(newTime, newRealizations);
+	}
+
+	@Override
+	public RandomVariable floor(final RandomVariable randomVariable) {
+		final double newTime = Math.max(getFiltrationTime(), randomVariable.getFiltrationTime());
+		if(isVectorOperand(randomVariable) && randomVariable.isDeterministic()) {
+			return floor(newTime, (float)randomVariable.get(0));
+		}
+		final float[] argument = getVectorOperand(randomVariable);
+		if(argument == null) {
+			return super.floor(randomVariable);
+		}
+
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				final FloatVector y = FloatVector.fromArray(SPECIES, argument, i);
+				x.max(y).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				final FloatVector y = FloatVector.fromArray(SPECIES, argument, i, mask);
+				x.max(y).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(newTime, newRealizations);
+	}
+
+	@Override
+	public RandomVariable add(final RandomVariable randomVariable) {
+		final double newTime = Math.max(getFiltrationTime(), randomVariable.getFiltrationTime());
+		if(isVectorOperand(randomVariable) && randomVariable.isDeterministic()) {
+			return add(newTime, (float)randomVariable.get(0));
+		}
+		final float[] argument = getVectorOperand(randomVariable);
+		if(argument == null) {
+			return super.add(randomVariable);
+		}
+
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				final FloatVector y = FloatVector.fromArray(SPECIES, argument, i);
+				x.add(y).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				final FloatVector y = FloatVector.fromArray(SPECIES, argument, i, mask);
+				x.add(y).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(newTime, newRealizations);
+	}
+
+	@Override
+	public RandomVariable sub(final RandomVariable randomVariable) {
+		final double newTime = Math.max(getFiltrationTime(), randomVariable.getFiltrationTime());
+		if(isVectorOperand(randomVariable) && randomVariable.isDeterministic()) {
+			return sub(newTime, (float)randomVariable.get(0));
+		}
+		final float[] argument = getVectorOperand(randomVariable);
+		if(argument == null) {
+			return super.sub(randomVariable);
+		}
+
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				final FloatVector y = FloatVector.fromArray(SPECIES, argument, i);
+				x.sub(y).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				final FloatVector y = FloatVector.fromArray(SPECIES, argument, i, mask);
+				x.sub(y).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(newTime, newRealizations);
+	}
+
+	@Override
+	public RandomVariable mult(final RandomVariable randomVariable) {
+		final double newTime = Math.max(getFiltrationTime(), randomVariable.getFiltrationTime());
+		if(isVectorOperand(randomVariable) && randomVariable.isDeterministic()) {
+			return mult(newTime, (float)randomVariable.get(0));
+		}
+		final float[] argument = getVectorOperand(randomVariable);
+		if(argument == null) {
+			return super.mult(randomVariable);
+		}
+
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				final FloatVector y = FloatVector.fromArray(SPECIES, argument, i);
+				x.mul(y).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				final FloatVector y = FloatVector.fromArray(SPECIES, argument, i, mask);
+				x.mul(y).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(newTime, newRealizations);
+	}
+
+	@Override
+	public RandomVariable div(final RandomVariable randomVariable) {
+		final double newTime = Math.max(getFiltrationTime(), randomVariable.getFiltrationTime());
+		if(isVectorOperand(randomVariable) && randomVariable.isDeterministic()) {
+			return div(newTime, (float)randomVariable.get(0));
+		}
+		final float[] argument = getVectorOperand(randomVariable);
+		if(argument == null) {
+			return super.div(randomVariable);
+		}
+
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				final FloatVector y = FloatVector.fromArray(SPECIES, argument, i);
+				x.div(y).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				final FloatVector y = FloatVector.fromArray(SPECIES, argument, i, mask);
+				x.div(y).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(newTime, newRealizations);
+	}
+
+	@Override
+	public RandomVariable accrue(final RandomVariable rate, final double periodLength) {
+		final float[] argument = getVectorOperand(rate);
+		if(argument == null) {
+			return super.accrue(rate, periodLength);
+		}
+
+		final float periodLengthAsFloat = (float)periodLength;
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				final FloatVector r = FloatVector.fromArray(SPECIES, argument, i);
+				x.mul(r.mul(periodLengthAsFloat).add(1.0f)).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				final FloatVector r = FloatVector.fromArray(SPECIES, argument, i, mask);
+				x.mul(r.mul(periodLengthAsFloat).add(1.0f)).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(Math.max(getFiltrationTime(), rate.getFiltrationTime()), newRealizations);
+	}
+
+	@Override
+	public RandomVariable discount(final RandomVariable rate, final double periodLength) {
+		final float[] argument = getVectorOperand(rate);
+		if(argument == null) {
+			return super.discount(rate, periodLength);
+		}
+
+		final float periodLengthAsFloat = (float)periodLength;
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				final FloatVector r = FloatVector.fromArray(SPECIES, argument, i);
+				x.div(r.mul(periodLengthAsFloat).add(1.0f)).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				final FloatVector r = FloatVector.fromArray(SPECIES, argument, i, mask);
+				x.div(r.mul(periodLengthAsFloat).add(1.0f)).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(Math.max(getFiltrationTime(), rate.getFiltrationTime()), newRealizations);
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final double factor2) {
+		final float[] argument = getVectorOperand(factor1);
+		if(argument == null) {
+			return super.addProduct(factor1, factor2);
+		}
+
+		final float factor2AsFloat = (float)factor2;
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				final FloatVector y = FloatVector.fromArray(SPECIES, argument, i);
+				x.add(y.mul(factor2AsFloat)).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				final FloatVector y = FloatVector.fromArray(SPECIES, argument, i, mask);
+				x.add(y.mul(factor2AsFloat)).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(Math.max(getFiltrationTime(), factor1.getFiltrationTime()), newRealizations);
+	}
+
+	@Override
+	public RandomVariable addProduct(final RandomVariable factor1, final RandomVariable factor2) {
+		final float[] argument1 = getVectorOperand(factor1);
+		final float[] argument2 = getVectorOperand(factor2);
+		if(argument1 == null || argument2 == null) {
+			return super.addProduct(factor1, factor2);
+		}
+
+		final float[] realizations = getRealizationsAsFloatArray();
+		final float[] newRealizations = new float[realizations.length];
+		ParallelChunkExecutor.forEachChunk(newRealizations.length, (start, end) -> {
+			final int upperBound = start + SPECIES.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES.length()) {
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i);
+				final FloatVector y = FloatVector.fromArray(SPECIES, argument1, i);
+				final FloatVector z = FloatVector.fromArray(SPECIES, argument2, i);
+				x.add(y.mul(z)).intoArray(newRealizations, i);
+			}
+			if(i<end) {
+				final VectorMask<Float> mask = SPECIES.indexInRange(i, end);
+				final FloatVector x = FloatVector.fromArray(SPECIES, realizations, i, mask);
+				final FloatVector y = FloatVector.fromArray(SPECIES, argument1, i, mask);
+				final FloatVector z = FloatVector.fromArray(SPECIES, argument2, i, mask);
+				x.add(y.mul(z)).intoArray(newRealizations, i, mask);
+			}
+		});
+		return new RandomVariableFloatVector(Math.max(Math.max(getFiltrationTime(), factor1.getFiltrationTime()), factor2.getFiltrationTime()), newRealizations);
+	}
+
+	/**
+	 * Returns true if the given random variable can be combined with this random variable by a vectorized operation,
+	 * i.e., this random variable is stochastic and the argument is a deterministic random variable or a stochastic
+	 * {@link RandomVariableFromFloatArray} of the same size, not having a higher type priority.
+	 */
+	private boolean isVectorOperand(final RandomVariable randomVariable) {
+		if(isDeterministic() || randomVariable.getTypePriority() > getTypePriority()) {
+			return false;
+		}
+		return randomVariable.isDeterministic() || (randomVariable instanceof RandomVariableFromFloatArray && randomVariable.size() == size());
+	}
+
+	/**
+	 * Returns the realizations of the given random variable, if it is a stochastic vector operand, otherwise null.
+	 */
+	private float[] getVectorOperand(final RandomVariable randomVariable) {
+		if(!isVectorOperand(randomVariable) || randomVariable.isDeterministic()) {
+			return null;
+		}
+		return ((RandomVariableFromFloatArray)randomVariable).getRealizationsAsFloatArray();
+	}
+
+	private static int getNumberOfChunks(final int size) {
+		final int chunkSize = ParallelChunkExecutor.getChunkSize();
+		return ParallelChunkExecutor.isParallel(size) ? (int)((size + (long)chunkSize - 1) / chunkSize) : 1;
+	}
+
+	/**
+	 * Sum of the values using compensated (Kahan) summation per lane in double precision within each chunk
+	 * and Kahan summation over the chunks (in the order of the chunks).
+	 */
+	private static double getSum(final float[] values) {
+		final int chunkSize = ParallelChunkExecutor.getChunkSize();
+		final double[] chunkSums = new double[getNumberOfChunks(values.length)];
+		ParallelChunkExecutor.forEachChunk(values.length, (start, end) -> {
+			DoubleVector sum = DoubleVector.zero(SPECIES_DOUBLE);
+			DoubleVector error = DoubleVector.zero(SPECIES_DOUBLE);
+			final int upperBound = start + SPECIES_FLOAT_FOR_DOUBLE.loopBound(end-start);
+			int i = start;
+			for(; i<upperBound; i+=SPECIES_FLOAT_FOR_DOUBLE.length()) {
+				final DoubleVector value = ((DoubleVector)FloatVector.fromArray(SPECIES_FLOAT_FOR_DOUBLE, values, i).convertShape(VectorOperators.F2D, SPECIES_DOUBLE, 0)).sub(error);
+				final DoubleVector newSum = sum.add(value);
+				error = newSum.sub(sum).sub(value);
+				sum = newSum;
+			}
+
+			// Combine the lanes and add the remaining values
+			final double[] sumOfLanes = sum.toArray();
+			final double[] errorOfLanes = error.toArray();
+			double chunkSum = 0.0;
+			double chunkError = 0.0;
+			for(int lane=0; lane<sumOfLanes.length; lane++) {
+				final double value = (sumOfLanes[lane] - errorOfLanes[lane]) - chunkError;
+				final double newSum = chunkSum + value;
+				chunkError = (newSum - chunkSum) - value;
+				chunkSum = newSum;
+			}
+			for(; i<end; i++) {
+				final double value = values[i] - chunkError;
+				final double newSum = chunkSum + value;
+				chunkError = (newSum - chunkSum) - value;
+				chunkSum = newSum;
+			}
+			chunkSums[start / chunkSize] = chunkSum;
+		});
+
+		double sum = 0.0;
+		double error = 0.0;
+		for(final double chunkSum : chunkSums) {
+			final double value = chunkSum - error;
+			final double newSum = sum + value;
+			error = (newSum - sum) - value;
+			sum = newSum;
+		}
+		return sum;
+	}
+}